@@ -0,0 +1,265 @@
+package com.tanggo.fund.jnautilustrader.adapter.archive;
+
+import com.tanggo.fund.jnautilustrader.core.entity.Event;
+import com.tanggo.fund.jnautilustrader.core.entity.EventRepo;
+import com.tanggo.fund.jnautilustrader.core.entity.EventType;
+import com.tanggo.fund.jnautilustrader.core.entity.InstrumentRegistry;
+import com.tanggo.fund.jnautilustrader.core.entity.MarketData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.RawLocalFileSystem;
+import org.apache.parquet.avro.AvroParquetReader;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * 只读的Parquet行情归档仓储
+ * <p>
+ * 读取 {@link ParquetTickArchiver} 写出的目录（{@code {root}/{venue}/{type}/{symbol}/{yyyy-MM-dd}/{HH}[-n].parquet}），
+ * 按小时分组：同一小时内所有交易所、类型和品种的文件按行情时间戳多路归并，时间戳相同时按文件路径顺序，
+ * 小时之间按时间先后依次读取。同样的目录每次得到同样的事件序列，供 {@code ReplayEngine} 回放。
+ * <p>
+ * 事件类型编号由交易所目录和行情种类重建，品种编号由 {@link InstrumentRegistry} 按品种名重新解析。
+ * 可按品种和日期范围过滤，需在第一次读取前设置。
+ * <p>
+ * receive/poll 非阻塞，读完返回null，只能由一个线程调用；send 始终返回false。
+ */
+public class ParquetArchiveEventRepo implements EventRepo<MarketData>, Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParquetArchiveEventRepo.class);
+
+    private final Path rootDirectory;
+    private final Configuration configuration;
+
+    private String symbol;
+    private String fromDay;
+    private String toDay;
+
+    // 按 日期/小时 排序的文件分组，第一次读取时扫描
+    private Iterator<List<Path>> hours;
+    private final PriorityQueue<Cursor> cursors = new PriorityQueue<>(Cursor::compareTo);
+
+    private long eventCount;
+    private long failedCount;
+
+    public ParquetArchiveEventRepo(String rootDirectory) {
+        this.rootDirectory = Paths.get(rootDirectory);
+        this.configuration = new Configuration();
+        this.configuration.set("fs.file.impl", RawLocalFileSystem.class.getName());
+        this.configuration.setBoolean("fs.file.impl.disable.cache", true);
+    }
+
+    /**
+     * 只读取指定品种，null表示全部
+     */
+    public void setSymbol(String symbol) {
+        this.symbol = symbol;
+    }
+
+    /**
+     * 起始日期（含），格式 yyyy-MM-dd
+     */
+    public void setFromDay(String fromDay) {
+        this.fromDay = fromDay;
+    }
+
+    /**
+     * 结束日期（含），格式 yyyy-MM-dd
+     */
+    public void setToDay(String toDay) {
+        this.toDay = toDay;
+    }
+
+    @Override
+    public Event<MarketData> receive() {
+        return poll();
+    }
+
+    @Override
+    public Event<MarketData> poll() {
+        if (hours == null) {
+            hours = scan().values().iterator();
+        }
+        while (cursors.isEmpty()) {
+            if (!hours.hasNext()) {
+                return null;
+            }
+            openHour(hours.next());
+        }
+        Cursor cursor = cursors.poll();
+        MarketData data = cursor.head;
+        Event<MarketData> event = new Event<>(EventType.of(cursor.venue, data), InstrumentRegistry.idOf(data.symbol()), data);
+        eventCount++;
+        if (cursor.advance()) {
+            cursors.add(cursor);
+        }
+        return event;
+    }
+
+    /**
+     * 归档只读
+     */
+    @Override
+    public boolean send(Event<MarketData> event) {
+        return false;
+    }
+
+    /**
+     * 扫描归档目录，按 日期/小时 分组，组内按路径排序
+     */
+    private TreeMap<String, List<Path>> scan() {
+        TreeMap<String, List<Path>> groups = new TreeMap<>();
+        if (!Files.isDirectory(rootDirectory)) {
+            logger.warn("归档目录不存在: {}", rootDirectory);
+            return groups;
+        }
+        try (Stream<Path> paths = Files.walk(rootDirectory, 5)) {
+            paths.filter(path -> path.getFileName().toString().endsWith(".parquet"))
+                    .filter(this::accept)
+                    .sorted()
+                    .forEach(path -> groups.computeIfAbsent(hourKey(path), key -> new ArrayList<>()).add(path));
+        } catch (IOException e) {
+            throw new IllegalStateException("扫描归档目录失败: " + rootDirectory, e);
+        }
+        int files = 0;
+        for (List<Path> group : groups.values()) {
+            files += group.size();
+        }
+        logger.info("扫描归档目录: {} - 小时: {}, 文件: {}", rootDirectory, groups.size(), files);
+        return groups;
+    }
+
+    private boolean accept(Path path) {
+        Path relative = rootDirectory.relativize(path);
+        if (relative.getNameCount() != 5 || EventType.venueOf(relative.getName(0).toString()) == EventType.VENUE_UNKNOWN) {
+            return false;
+        }
+        String day = relative.getName(3).toString();
+        return (symbol == null || symbol.equals(relative.getName(2).toString()))
+                && (fromDay == null || day.compareTo(fromDay) >= 0)
+                && (toDay == null || day.compareTo(toDay) <= 0);
+    }
+
+    private String hourKey(Path path) {
+        String name = path.getFileName().toString();
+        int end = name.indexOf('-');
+        return path.getParent().getFileName() + "/" + name.substring(0, end > 0 ? end : name.indexOf('.'));
+    }
+
+    private void openHour(List<Path> files) {
+        for (int i = 0; i < files.size(); i++) {
+            Path path = files.get(i);
+            short venue = EventType.venueOf(rootDirectory.relativize(path).getName(0).toString());
+            try {
+                Cursor cursor = new Cursor(path, venue, i, AvroParquetReader.<GenericRecord>builder(
+                        HadoopInputFile.fromPath(new org.apache.hadoop.fs.Path(path.toAbsolutePath().toUri()), configuration)).build());
+                if (cursor.advance()) {
+                    cursors.add(cursor);
+                }
+            } catch (IOException | RuntimeException e) {
+                failedCount++;
+                logger.error("打开归档文件失败: {}", path, e);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        for (Cursor cursor : cursors) {
+            cursor.close();
+        }
+        cursors.clear();
+        hours = Collections.emptyIterator();
+    }
+
+    /**
+     * 已读取的事件数
+     */
+    public long getEventCount() {
+        return eventCount;
+    }
+
+    /**
+     * 打开或读取失败的文件数
+     */
+    public long getFailedCount() {
+        return failedCount;
+    }
+
+    public Path getRootDirectory() {
+        return rootDirectory;
+    }
+
+    /**
+     * 一个文件的读取位置，head 为下一条行情
+     */
+    private final class Cursor implements Comparable<Cursor> {
+        final Path path;
+        final short venue;
+        final int index;
+        final ParquetReader<GenericRecord> reader;
+        MarketData head;
+        long timestampMs;
+
+        Cursor(Path path, short venue, int index, ParquetReader<GenericRecord> reader) {
+            this.path = path;
+            this.venue = venue;
+            this.index = index;
+            this.reader = reader;
+        }
+
+        /**
+         * 读取下一条行情，读完或失败时关闭文件
+         *
+         * @return 是否还有行情
+         */
+        boolean advance() {
+            try {
+                GenericRecord record;
+                while ((record = reader.read()) != null) {
+                    MarketData data = ParquetTickSchemas.fromRecord(record);
+                    if (data != null) {
+                        head = data;
+                        timestampMs = data.timestampMs();
+                        return true;
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                failedCount++;
+                logger.error("读取归档文件失败: {}", path, e);
+            }
+            close();
+            return false;
+        }
+
+        void close() {
+            head = null;
+            try {
+                reader.close();
+            } catch (IOException e) {
+                logger.warn("关闭归档文件失败: {}", path, e);
+            }
+        }
+
+        @Override
+        public int compareTo(Cursor other) {
+            int result = Long.compare(timestampMs, other.timestampMs);
+            return result != 0 ? result : Integer.compare(index, other.index);
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package com.tanggo.fund.jnautilustrader.adapter.archive;
+
+import com.tanggo.fund.jnautilustrader.core.actor.EventLoop;
+import com.tanggo.fund.jnautilustrader.core.entity.Actor;
+import com.tanggo.fund.jnautilustrader.core.entity.Clock;
+import com.tanggo.fund.jnautilustrader.core.entity.Event;
+import com.tanggo.fund.jnautilustrader.core.entity.EventRepo;
+import com.tanggo.fund.jnautilustrader.core.entity.EventType;
+import com.tanggo.fund.jnautilustrader.core.entity.IdleStrategy;
+import com.tanggo.fund.jnautilustrader.core.entity.MarketData;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.RawLocalFileSystem;
+import org.apache.parquet.avro.AvroParquetWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 行情Parquet归档
+ * <p>
+ * 在自己的事件循环上从旁路仓储（{@link com.tanggo.fund.jnautilustrader.adapter.event_repo.event.TapEventRepo} 的旁路）
+ * 批量取出行情，按 交易所/类型/品种/日期 分目录、按小时分文件写入，模式见 {@link ParquetTickSchemas}：
+ * <pre>
+ * {rootDirectory}/binance/trade_tick/BTCUSDT/2026-10-17/08.parquet
+ * </pre>
+ * 压缩、编码和I/O都在归档线程上完成，网关只做一次非阻塞入队；归档跟不上时旁路丢弃并计数，不反压网关。
+ * <p>
+ * 日期和小时取行情自身的时间戳（UTC），某个品种出现下一个小时的行情时关闭当前文件、打开新文件；
+ * 迟到的上一小时行情写入当前文件。没有新行情的文件在小时结束后 {@code closeGraceMs} 由定时任务关闭，
+ * Parquet文件关闭时才写入页脚，关闭前的文件不可读取。
+ * <p>
+ * 默认行组128MB、页1MB、Snappy压缩、开启字典编码：行组大则每个文件的行组少，按列扫描时顺序读取更长。
+ */
+public class ParquetTickArchiver implements Actor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParquetTickArchiver.class);
+
+    public static final int DEFAULT_BATCH_SIZE = 4096;
+    public static final int DEFAULT_ROW_GROUP_SIZE = 128 * 1024 * 1024;
+    public static final int DEFAULT_PAGE_SIZE = 1024 * 1024;
+    public static final long DEFAULT_CLOSE_GRACE_MS = 60_000;
+
+    private static final long HOUR_MS = TimeUnit.HOURS.toMillis(1);
+    private static final DateTimeFormatter DAY = DateTimeFormatter.ofPattern("yyyy-MM-dd").withZone(ZoneOffset.UTC);
+    private static final DateTimeFormatter HOUR = DateTimeFormatter.ofPattern("HH").withZone(ZoneOffset.UTC);
+
+    private final EventRepo<MarketData> source;
+    private final Path rootDirectory;
+    private final Configuration configuration;
+
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private int rowGroupSize = DEFAULT_ROW_GROUP_SIZE;
+    private int pageSize = DEFAULT_PAGE_SIZE;
+    private CompressionCodecName compression = CompressionCodecName.SNAPPY;
+    private long closeGraceMs = DEFAULT_CLOSE_GRACE_MS;
+    private Clock clock = Clock.SYSTEM;
+
+    // 仅归档线程访问（停止后由调用 stop 的线程访问）
+    private final Map<String, HourlyFile> files = new HashMap<>();
+
+    private final AtomicLong archivedCount = new AtomicLong();
+    private final AtomicLong skippedCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong fileCount = new AtomicLong();
+
+    private EventLoop eventLoop;
+    private Thread thread;
+
+    /**
+     * @param source 旁路仓储，只由归档线程读取
+     * @param rootDirectory 归档根目录
+     */
+    public ParquetTickArchiver(EventRepo<MarketData> source, String rootDirectory) {
+        this.source = source;
+        this.rootDirectory = Paths.get(rootDirectory);
+        this.configuration = new Configuration();
+        // 本地文件系统不写 .crc 校验文件，Parquet页本身带校验
+        this.configuration.set("fs.file.impl", RawLocalFileSystem.class.getName());
+        this.configuration.setBoolean("fs.file.impl.disable.cache", true);
+    }
+
+    // ==================== 配置（start_link 之前调用） ====================
+
+    /**
+     * 每次循环最多取出的行情数
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+        this.batchSize = batchSize;
+    }
+
+    public void setRowGroupSize(int rowGroupSize) {
+        this.rowGroupSize = rowGroupSize;
+    }
+
+    public void setPageSize(int pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * 压缩算法名称，如 SNAPPY、ZSTD、UNCOMPRESSED
+     */
+    public void setCompression(String compression) {
+        this.compression = CompressionCodecName.valueOf(compression.toUpperCase(Locale.ROOT));
+    }
+
+    public void setCloseGraceMs(long closeGraceMs) {
+        this.closeGraceMs = closeGraceMs;
+    }
+
+    /**
+     * 关闭过期文件和补齐缺失时间戳所用的时钟
+     */
+    public void setClock(Clock clock) {
+        this.clock = clock != null ? clock : Clock.SYSTEM;
+    }
+
+    // ==================== 生命周期 ====================
+
+    @Override
+    public void start_link() {
+        if (eventLoop != null) {
+            return;
+        }
+        EventLoop loop = new EventLoop("tick-archiver", this::drain, IdleStrategy.park(TimeUnit.MILLISECONDS.toNanos(1)), clock);
+        loop.schedulePeriodic(TimeUnit.SECONDS.toNanos(10), () -> closeExpired(clock.currentTimeMillis()));
+        eventLoop = loop;
+        thread = loop.start();
+        logger.info("行情归档启动: {} - 行组: {}, 页: {}, 压缩: {}", rootDirectory, rowGroupSize, pageSize, compression);
+    }
+
+    /**
+     * 停止归档线程，写完旁路中剩余的行情并关闭所有文件
+     */
+    @Override
+    public void stop() {
+        if (eventLoop != null) {
+            eventLoop.stop();
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            eventLoop = null;
+            thread = null;
+        }
+        while (drain() > 0) {
+            // 写完剩余的行情
+        }
+        closeAll();
+        logger.info("行情归档停止: {} - 已归档: {}, 跳过: {}, 失败: {}, 文件: {}",
+                rootDirectory, archivedCount.get(), skippedCount.get(), failedCount.get(), fileCount.get());
+    }
+
+    // ==================== 归档 ====================
+
+    /**
+     * 取出一批行情写入对应文件
+     *
+     * @return 取出的行情数
+     */
+    int drain() {
+        int count = 0;
+        Event<MarketData> event;
+        while (count < batchSize && (event = source.poll()) != null) {
+            count++;
+            archive(event);
+        }
+        return count;
+    }
+
+    private void archive(Event<MarketData> event) {
+        MarketData data = event.payload;
+        GenericRecord record = data != null ? ParquetTickSchemas.toRecord(data) : null;
+        Object symbol = record != null ? record.get("symbol") : null;
+        if (symbol == null) {
+            skippedCount.incrementAndGet();
+            return;
+        }
+        String typeDirectory = ParquetTickSchemas.directoryOf(data.getType());
+        long timestampMs = ParquetTickSchemas.timestampOf(data);
+        if (timestampMs <= 0) {
+            timestampMs = clock.currentTimeMillis();
+        }
+        long hourStartMs = timestampMs - Math.floorMod(timestampMs, HOUR_MS);
+
+        String venue = EventType.venueName(event.venueId).toLowerCase(Locale.ROOT);
+        String key = venue + '/' + typeDirectory + '/' + symbol;
+        HourlyFile file = files.get(key);
+        try {
+            if (file != null && hourStartMs > file.hourStartMs) {
+                files.remove(key);
+                close(file);
+                file = null;
+            }
+            if (file == null) {
+                file = open(rootDirectory.resolve(venue).resolve(typeDirectory).resolve(symbol.toString()), hourStartMs, record.getSchema());
+                files.put(key, file);
+            }
+            file.writer.write(record);
+            file.rows++;
+            archivedCount.incrementAndGet();
+        } catch (IOException | RuntimeException e) {
+            failedCount.incrementAndGet();
+            logger.error("行情归档写入失败: {}", key, e);
+            if (file != null) {
+                files.remove(key);
+                close(file);
+            }
+        }
+    }
+
+    private HourlyFile open(Path directory, long hourStartMs, Schema schema) throws IOException {
+        Instant hour = Instant.ofEpochMilli(hourStartMs);
+        Path dayDirectory = directory.resolve(DAY.format(hour));
+        Files.createDirectories(dayDirectory);
+        // 同一小时的文件已存在（重启或迟到行情）时加序号，不覆盖
+        String name = HOUR.format(hour);
+        Path path = dayDirectory.resolve(name + ".parquet");
+        for (int i = 1; Files.exists(path); i++) {
+            path = dayDirectory.resolve(name + "-" + i + ".parquet");
+        }
+        ParquetWriter<GenericRecord> writer = AvroParquetWriter.<GenericRecord>builder(
+                        new org.apache.hadoop.fs.Path(path.toAbsolutePath().toUri()))
+                .withConf(configuration)
+                .withSchema(schema)
+                .withCompressionCodec(compression)
+                .withRowGroupSize(rowGroupSize)
+                .withPageSize(pageSize)
+                .withDictionaryEncoding(true)
+                .build();
+        fileCount.incrementAndGet();
+        logger.info("打开归档文件: {}", path);
+        return new HourlyFile(path, hourStartMs, writer);
+    }
+
+    /**
+     * 关闭小时结束超过 closeGraceMs 的文件
+     */
+    void closeExpired(long nowMs) {
+        Iterator<HourlyFile> iterator = files.values().iterator();
+        while (iterator.hasNext()) {
+            HourlyFile file = iterator.next();
+            if (file.hourStartMs + HOUR_MS + closeGraceMs <= nowMs) {
+                iterator.remove();
+                close(file);
+            }
+        }
+    }
+
+    private void closeAll() {
+        for (HourlyFile file : files.values()) {
+            close(file);
+        }
+        files.clear();
+    }
+
+    private void close(HourlyFile file) {
+        try {
+            file.writer.close();
+            logger.info("关闭归档文件: {} - 行数: {}", file.path, file.rows);
+        } catch (IOException | RuntimeException e) {
+            failedCount.incrementAndGet();
+            logger.error("关闭归档文件失败: {}", file.path, e);
+        }
+    }
+
+    // ==================== 指标 ====================
+
+    public long getArchivedCount() {
+        return archivedCount.get();
+    }
+
+    /**
+     * 不归档的行情数（深度增量、订单回报等）
+     */
+    public long getSkippedCount() {
+        return skippedCount.get();
+    }
+
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    /**
+     * 累计打开的文件数
+     */
+    public long getFileCount() {
+        return fileCount.get();
+    }
+
+    public Path getRootDirectory() {
+        return rootDirectory;
+    }
+
+    private static final class HourlyFile {
+        final Path path;
+        final long hourStartMs;
+        final ParquetWriter<GenericRecord> writer;
+        long rows;
+
+        HourlyFile(Path path, long hourStartMs, ParquetWriter<GenericRecord> writer) {
+            this.path = path;
+            this.hourStartMs = hourStartMs;
+            this.writer = writer;
+        }
+    }
+}
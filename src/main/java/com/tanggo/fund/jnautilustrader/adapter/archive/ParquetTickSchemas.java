@@ -0,0 +1,383 @@
+package com.tanggo.fund.jnautilustrader.adapter.archive;
+
+import com.tanggo.fund.jnautilustrader.core.entity.MarketData;
+import com.tanggo.fund.jnautilustrader.core.entity.Price;
+import com.tanggo.fund.jnautilustrader.core.entity.Quantity;
+import com.tanggo.fund.jnautilustrader.core.entity.event.data.*;
+import org.apache.avro.LogicalTypes;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 行情归档的Parquet列式模式
+ * <p>
+ * 每种行情一个扁平模式，列都是基本类型，便于按列扫描和字典/游程编码：
+ * <ul>
+ *     <li>价格和数量存为double，另有精度列（整列相同，字典编码后几乎不占空间），读回时按精度还原定点数</li>
+ *     <li>时间戳存为long，带 timestamp-millis 逻辑类型</li>
+ *     <li>部分深度展开为10档固定列（bid_price_0 … ask_size_9），不足10档的列为NaN/0，另有实际档数列</li>
+ * </ul>
+ * 支持成交、报价、K线和部分深度，其它行情返回null不归档。
+ */
+public final class ParquetTickSchemas {
+
+    public static final int DEPTH_LEVELS = 10;
+
+    private static final String NAMESPACE = "com.tanggo.fund.jnautilustrader.archive";
+
+    public static final Schema TRADE_TICK = SchemaBuilder.record("TradeTick").namespace(NAMESPACE).fields()
+            .requiredString("symbol")
+            .optionalString("trade_id")
+            .requiredDouble("price")
+            .requiredInt("price_precision")
+            .requiredDouble("quantity")
+            .requiredInt("quantity_precision")
+            .name("event_time").type(timestampMillis()).noDefault()
+            .name("trade_time").type(timestampMillis()).noDefault()
+            .requiredBoolean("is_buyer_maker")
+            .endRecord();
+
+    public static final Schema QUOTE_TICK = SchemaBuilder.record("QuoteTick").namespace(NAMESPACE).fields()
+            .requiredString("symbol")
+            .requiredDouble("bid_price")
+            .requiredDouble("bid_quantity")
+            .requiredDouble("ask_price")
+            .requiredDouble("ask_quantity")
+            .requiredInt("price_precision")
+            .requiredInt("quantity_precision")
+            .name("timestamp").type(timestampMillis()).noDefault()
+            .requiredDouble("open_price")
+            .requiredDouble("high_price")
+            .requiredDouble("low_price")
+            .requiredDouble("close_price")
+            .requiredDouble("volume")
+            .requiredDouble("quote_volume")
+            .endRecord();
+
+    public static final Schema BAR = SchemaBuilder.record("Bar").namespace(NAMESPACE).fields()
+            .requiredString("symbol")
+            .optionalString("interval")
+            .name("open_time").type(timestampMillis()).noDefault()
+            .name("close_time").type(timestampMillis()).noDefault()
+            .requiredDouble("open_price")
+            .requiredDouble("high_price")
+            .requiredDouble("low_price")
+            .requiredDouble("close_price")
+            .requiredDouble("volume")
+            .requiredDouble("quote_volume")
+            .requiredDouble("taker_buy_volume")
+            .requiredDouble("taker_buy_quote_volume")
+            .requiredInt("trade_count")
+            .requiredBoolean("is_closed")
+            .endRecord();
+
+    public static final Schema ORDER_BOOK_DEPTH10 = depthSchema();
+
+    private ParquetTickSchemas() {
+    }
+
+    /**
+     * 行情类型对应的模式，不归档的类型返回null
+     */
+    public static Schema schemaOf(int marketDataType) {
+        switch (marketDataType) {
+            case MarketData.TRADE_TICK:
+                return TRADE_TICK;
+            case MarketData.QUOTE_TICK:
+                return QUOTE_TICK;
+            case MarketData.BAR:
+                return BAR;
+            case MarketData.ORDER_BOOK_DEPTH:
+                return ORDER_BOOK_DEPTH10;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * 行情类型对应的目录名，不归档的类型返回null
+     */
+    public static String directoryOf(int marketDataType) {
+        switch (marketDataType) {
+            case MarketData.TRADE_TICK:
+                return "trade_tick";
+            case MarketData.QUOTE_TICK:
+                return "quote_tick";
+            case MarketData.BAR:
+                return "bar";
+            case MarketData.ORDER_BOOK_DEPTH:
+                return "order_book_depth10";
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * 用于按小时分文件的时间戳（毫秒）：成交和深度取事件时间，报价取时间戳，K线取开盘时间
+     *
+     * @return 行情中没有时间戳时返回0
+     */
+    public static long timestampOf(MarketData data) {
+        Object message = data.getMessage();
+        switch (data.getType()) {
+            case MarketData.TRADE_TICK:
+                return ((TradeTick) message).eventTimeMs;
+            case MarketData.QUOTE_TICK:
+                return ((QuoteTick) message).getTimestampMs();
+            case MarketData.BAR:
+                return ((Bar) message).getOpenTime();
+            case MarketData.ORDER_BOOK_DEPTH:
+                return ((OrderBookDepth10) message).getEventTime();
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * 把行情转换为归档记录，不归档的类型（包括深度增量 {@link OrderBookDeltas}）返回null
+     */
+    public static GenericRecord toRecord(MarketData data) {
+        Object message = data.getMessage();
+        switch (data.getType()) {
+            case MarketData.TRADE_TICK:
+                return tradeRecord((TradeTick) message);
+            case MarketData.QUOTE_TICK:
+                return quoteRecord((QuoteTick) message);
+            case MarketData.BAR:
+                return barRecord((Bar) message);
+            case MarketData.ORDER_BOOK_DEPTH:
+                return message instanceof OrderBookDepth10 ? depthRecord((OrderBookDepth10) message) : null;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * 把归档记录还原为行情，按记录的模式名判断类型
+     */
+    public static MarketData fromRecord(GenericRecord record) {
+        String name = record.getSchema().getName();
+        switch (name) {
+            case "TradeTick":
+                return MarketData.of(toTrade(record));
+            case "QuoteTick":
+                return MarketData.of(toQuote(record));
+            case "Bar":
+                return MarketData.of(toBar(record));
+            case "OrderBookDepth10":
+                return MarketData.of(toDepth(record));
+            default:
+                throw new IllegalArgumentException("Unsupported archive schema: " + name);
+        }
+    }
+
+    // ==================== 写入 ====================
+
+    private static GenericRecord tradeRecord(TradeTick trade) {
+        GenericData.Record record = new GenericData.Record(TRADE_TICK);
+        record.put("symbol", trade.symbol);
+        record.put("trade_id", trade.tradeId);
+        record.put("price", doubleOf(trade.price));
+        record.put("price_precision", precisionOf(trade.price));
+        record.put("quantity", doubleOf(trade.quantity));
+        record.put("quantity_precision", precisionOf(trade.quantity));
+        record.put("event_time", trade.eventTimeMs);
+        record.put("trade_time", trade.tradeTimeMs);
+        record.put("is_buyer_maker", trade.isBuyerMaker);
+        return record;
+    }
+
+    private static GenericRecord quoteRecord(QuoteTick quote) {
+        GenericData.Record record = new GenericData.Record(QUOTE_TICK);
+        record.put("symbol", quote.getSymbol());
+        record.put("bid_price", doubleOf(quote.getBidPrice()));
+        record.put("bid_quantity", doubleOf(quote.getBidQuantity()));
+        record.put("ask_price", doubleOf(quote.getAskPrice()));
+        record.put("ask_quantity", doubleOf(quote.getAskQuantity()));
+        record.put("price_precision", Math.max(precisionOf(quote.getBidPrice()), precisionOf(quote.getAskPrice())));
+        record.put("quantity_precision", Math.max(precisionOf(quote.getBidQuantity()), precisionOf(quote.getAskQuantity())));
+        record.put("timestamp", quote.getTimestampMs());
+        record.put("open_price", quote.getOpenPrice());
+        record.put("high_price", quote.getHighPrice());
+        record.put("low_price", quote.getLowPrice());
+        record.put("close_price", quote.getClosePrice());
+        record.put("volume", quote.getVolume());
+        record.put("quote_volume", quote.getQuoteVolume());
+        return record;
+    }
+
+    private static GenericRecord barRecord(Bar bar) {
+        GenericData.Record record = new GenericData.Record(BAR);
+        record.put("symbol", bar.getSymbol());
+        record.put("interval", bar.getInterval());
+        record.put("open_time", bar.getOpenTime());
+        record.put("close_time", bar.getCloseTime());
+        record.put("open_price", bar.getOpenPrice());
+        record.put("high_price", bar.getHighPrice());
+        record.put("low_price", bar.getLowPrice());
+        record.put("close_price", bar.getClosePrice());
+        record.put("volume", bar.getVolume());
+        record.put("quote_volume", bar.getQuoteVolume());
+        record.put("taker_buy_volume", bar.getTakerBuyVolume());
+        record.put("taker_buy_quote_volume", bar.getTakerBuyQuoteVolume());
+        record.put("trade_count", bar.getTradeCount());
+        record.put("is_closed", bar.isClosed());
+        return record;
+    }
+
+    private static GenericRecord depthRecord(OrderBookDepth10 depth) {
+        GenericData.Record record = new GenericData.Record(ORDER_BOOK_DEPTH10);
+        record.put("symbol", depth.getSymbol());
+        record.put("event_time", depth.getEventTime());
+        record.put("last_update_id", depth.getLastUpdateId());
+        int pricePrecision = 0;
+        int quantityPrecision = 0;
+        for (List<PriceLevel> levels : List.of(listOf(depth.getBids()), listOf(depth.getAsks()))) {
+            for (PriceLevel level : levels) {
+                pricePrecision = Math.max(pricePrecision, precisionOf(level.getPrice()));
+                quantityPrecision = Math.max(quantityPrecision, precisionOf(level.getQuantity()));
+            }
+        }
+        record.put("price_precision", pricePrecision);
+        record.put("quantity_precision", quantityPrecision);
+        putLevels(record, "bid", listOf(depth.getBids()));
+        putLevels(record, "ask", listOf(depth.getAsks()));
+        return record;
+    }
+
+    private static void putLevels(GenericData.Record record, String side, List<PriceLevel> levels) {
+        int count = Math.min(levels.size(), DEPTH_LEVELS);
+        record.put(side + "_count", count);
+        for (int i = 0; i < DEPTH_LEVELS; i++) {
+            PriceLevel level = i < count ? levels.get(i) : null;
+            record.put(side + "_price_" + i, level != null ? doubleOf(level.getPrice()) : Double.NaN);
+            record.put(side + "_size_" + i, level != null ? doubleOf(level.getQuantity()) : 0.0);
+        }
+    }
+
+    // ==================== 读取 ====================
+
+    private static TradeTick toTrade(GenericRecord record) {
+        TradeTick trade = new TradeTick();
+        trade.symbol = stringOf(record.get("symbol"));
+        trade.tradeId = stringOf(record.get("trade_id"));
+        trade.price = Price.of((Double) record.get("price"), (Integer) record.get("price_precision"));
+        trade.quantity = Quantity.of((Double) record.get("quantity"), (Integer) record.get("quantity_precision"));
+        trade.eventTimeMs = (Long) record.get("event_time");
+        trade.tradeTimeMs = (Long) record.get("trade_time");
+        trade.isBuyerMaker = (Boolean) record.get("is_buyer_maker");
+        return trade;
+    }
+
+    private static QuoteTick toQuote(GenericRecord record) {
+        int pricePrecision = (Integer) record.get("price_precision");
+        int quantityPrecision = (Integer) record.get("quantity_precision");
+        QuoteTick quote = new QuoteTick();
+        quote.setSymbol(stringOf(record.get("symbol")));
+        quote.setBidPrice(Price.of((Double) record.get("bid_price"), pricePrecision));
+        quote.setBidQuantity(Quantity.of((Double) record.get("bid_quantity"), quantityPrecision));
+        quote.setAskPrice(Price.of((Double) record.get("ask_price"), pricePrecision));
+        quote.setAskQuantity(Quantity.of((Double) record.get("ask_quantity"), quantityPrecision));
+        quote.setTimestampMs((Long) record.get("timestamp"));
+        quote.setOpenPrice((Double) record.get("open_price"));
+        quote.setHighPrice((Double) record.get("high_price"));
+        quote.setLowPrice((Double) record.get("low_price"));
+        quote.setClosePrice((Double) record.get("close_price"));
+        quote.setVolume((Double) record.get("volume"));
+        quote.setQuoteVolume((Double) record.get("quote_volume"));
+        return quote;
+    }
+
+    private static Bar toBar(GenericRecord record) {
+        Bar bar = new Bar();
+        bar.setSymbol(stringOf(record.get("symbol")));
+        bar.setInterval(stringOf(record.get("interval")));
+        bar.setOpenTime((Long) record.get("open_time"));
+        bar.setCloseTime((Long) record.get("close_time"));
+        bar.setOpenPrice((Double) record.get("open_price"));
+        bar.setHighPrice((Double) record.get("high_price"));
+        bar.setLowPrice((Double) record.get("low_price"));
+        bar.setClosePrice((Double) record.get("close_price"));
+        bar.setVolume((Double) record.get("volume"));
+        bar.setQuoteVolume((Double) record.get("quote_volume"));
+        bar.setTakerBuyVolume((Double) record.get("taker_buy_volume"));
+        bar.setTakerBuyQuoteVolume((Double) record.get("taker_buy_quote_volume"));
+        bar.setTradeCount((Integer) record.get("trade_count"));
+        bar.setClosed((Boolean) record.get("is_closed"));
+        return bar;
+    }
+
+    private static OrderBookDepth10 toDepth(GenericRecord record) {
+        int pricePrecision = (Integer) record.get("price_precision");
+        int quantityPrecision = (Integer) record.get("quantity_precision");
+        OrderBookDepth10 depth = new OrderBookDepth10();
+        depth.setSymbol(stringOf(record.get("symbol")));
+        depth.setEventTime((Long) record.get("event_time"));
+        depth.setLastUpdateId((Long) record.get("last_update_id"));
+        depth.setBids(levelsOf(record, "bid", pricePrecision, quantityPrecision));
+        depth.setAsks(levelsOf(record, "ask", pricePrecision, quantityPrecision));
+        return depth;
+    }
+
+    private static List<PriceLevel> levelsOf(GenericRecord record, String side, int pricePrecision, int quantityPrecision) {
+        int count = (Integer) record.get(side + "_count");
+        List<PriceLevel> levels = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            levels.add(new PriceLevel(Price.of((Double) record.get(side + "_price_" + i), pricePrecision),
+                    Quantity.of((Double) record.get(side + "_size_" + i), quantityPrecision)));
+        }
+        return levels;
+    }
+
+    // ==================== 工具 ====================
+
+    private static Schema depthSchema() {
+        SchemaBuilder.FieldAssembler<Schema> fields = SchemaBuilder.record("OrderBookDepth10").namespace(NAMESPACE).fields()
+                .requiredString("symbol")
+                .name("event_time").type(timestampMillis()).noDefault()
+                .requiredLong("last_update_id")
+                .requiredInt("price_precision")
+                .requiredInt("quantity_precision")
+                .requiredInt("bid_count")
+                .requiredInt("ask_count");
+        for (String side : new String[]{"bid", "ask"}) {
+            for (int i = 0; i < DEPTH_LEVELS; i++) {
+                fields = fields.requiredDouble(side + "_price_" + i).requiredDouble(side + "_size_" + i);
+            }
+        }
+        return fields.endRecord();
+    }
+
+    private static Schema timestampMillis() {
+        return LogicalTypes.timestampMillis().addToSchema(Schema.create(Schema.Type.LONG));
+    }
+
+    private static double doubleOf(Price price) {
+        return price != null ? price.asDouble() : Double.NaN;
+    }
+
+    private static double doubleOf(Quantity quantity) {
+        return quantity != null ? quantity.asDouble() : Double.NaN;
+    }
+
+    private static int precisionOf(Price price) {
+        return price != null ? price.getPrecision() : 0;
+    }
+
+    private static int precisionOf(Quantity quantity) {
+        return quantity != null ? quantity.getPrecision() : 0;
+    }
+
+    private static <E> List<E> listOf(List<E> list) {
+        return list != null ? list : List.of();
+    }
+
+    private static String stringOf(Object value) {
+        return value != null ? value.toString() : null;
+    }
+}
@@ -0,0 +1,106 @@
+package com.tanggo.fund.jnautilustrader.adapter.backtest;
+
+import com.tanggo.fund.jnautilustrader.adapter.event_repo.event.SpscRingBufferEventRepo;
+import com.tanggo.fund.jnautilustrader.adapter.event_repo.event.TapEventRepo;
+import com.tanggo.fund.jnautilustrader.core.actor.EventLoop;
+import com.tanggo.fund.jnautilustrader.core.actor.ReplayEngine;
+import com.tanggo.fund.jnautilustrader.core.entity.EventRepo;
+import com.tanggo.fund.jnautilustrader.core.entity.MarketData;
+import com.tanggo.fund.jnautilustrader.core.entity.SimulatedClock;
+import com.tanggo.fund.jnautilustrader.core.entity.TradeCmd;
+
+/**
+ * 事件驱动回测引擎
+ * <p>
+ * 把录制的行情（日志、Parquet归档）通过 {@link ReplayEngine} 回放给不做修改的策略，
+ * 交易指令由 {@link SimulatedTradeGateway} 按重建的订单簿撮合，回报写回策略的行情仓储：
+ * <pre>
+ * 行情源 → ReplayEngine → 策略行情仓储 ─→ 策略事件循环 → 交易指令仓储 ─┐
+ *                       └→ 网关旁路    ─→ 模拟网关事件循环 ←─────────────┘
+ *                                          └→ OrderUpdate / TradeExecution → 策略行情仓储
+ * </pre>
+ * 全部在调用 {@link #run(EventLoop)} 的线程上运行，时间只来自 {@link SimulatedClock}：
+ * 每条行情先由网关更新订单簿和挂单，再由策略处理，策略的指令在同一轮内交给网关，结果只取决于输入数据。
+ * <p>
+ * 用法：
+ * <ol>
+ *   <li>{@link #open()}，时钟停在第一条行情的时间</li>
+ *   <li>策略注入 {@link #getClock()}、{@link #getMarketDataRepo()}、{@link #getTradeCmdRepo()}，
+ *   启动策略状态并创建事件循环</li>
+ *   <li>按交易所配置网关的延迟和手续费（{@link #getGateway()}）</li>
+ *   <li>{@link #run(EventLoop)}，结束后从网关读取成交统计</li>
+ * </ol>
+ */
+public class BacktestEngine {
+
+    /**
+     * 策略行情仓储和网关旁路的默认容量
+     */
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    private final SimulatedClock clock;
+    private final EventRepo<MarketData> marketDataRepo;
+    private final SimulatedTradeGateway gateway;
+    private final ReplayEngine replayEngine;
+
+    public BacktestEngine(EventRepo<MarketData> source) {
+        this(source, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param source 录制的行情源
+     * @param capacity 策略行情仓储和网关旁路的容量
+     */
+    public BacktestEngine(EventRepo<MarketData> source, int capacity) {
+        this.clock = new SimulatedClock();
+        this.marketDataRepo = new SpscRingBufferEventRepo<>(capacity);
+        EventRepo<MarketData> gatewayTap = new SpscRingBufferEventRepo<>(capacity);
+        this.gateway = new SimulatedTradeGateway(gatewayTap, marketDataRepo, clock);
+        this.replayEngine = new ReplayEngine(source, new TapEventRepo<>(marketDataRepo, gatewayTap), clock);
+    }
+
+    /**
+     * 读出第一条行情并把时钟推进到它的时间，需在策略启动之前调用
+     *
+     * @return 行情源是否有事件
+     */
+    public boolean open() {
+        return replayEngine.open();
+    }
+
+    /**
+     * 回放到行情源读完或策略事件循环停止
+     *
+     * @param strategyLoop 策略的事件循环，使用 {@link #getClock()}
+     * @return 回放的行情事件数
+     */
+    public long run(EventLoop strategyLoop) {
+        return replayEngine.run(gateway.getEventLoop(), strategyLoop);
+    }
+
+    public SimulatedClock getClock() {
+        return clock;
+    }
+
+    /**
+     * 策略的行情仓储：回放的行情和模拟网关的回报
+     */
+    public EventRepo<MarketData> getMarketDataRepo() {
+        return marketDataRepo;
+    }
+
+    /**
+     * 策略的交易指令仓储
+     */
+    public EventRepo<TradeCmd> getTradeCmdRepo() {
+        return gateway.getTradeCmdRepo();
+    }
+
+    public SimulatedTradeGateway getGateway() {
+        return gateway;
+    }
+
+    public ReplayEngine getReplayEngine() {
+        return replayEngine;
+    }
+}
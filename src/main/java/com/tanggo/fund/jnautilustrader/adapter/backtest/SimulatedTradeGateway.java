@@ -0,0 +1,659 @@
+package com.tanggo.fund.jnautilustrader.adapter.backtest;
+
+import com.tanggo.fund.jnautilustrader.core.actor.EventLoop;
+import com.tanggo.fund.jnautilustrader.core.entity.Clock;
+import com.tanggo.fund.jnautilustrader.core.entity.Event;
+import com.tanggo.fund.jnautilustrader.core.entity.EventRepo;
+import com.tanggo.fund.jnautilustrader.core.entity.EventType;
+import com.tanggo.fund.jnautilustrader.core.entity.FixedPoint;
+import com.tanggo.fund.jnautilustrader.core.entity.IdleStrategy;
+import com.tanggo.fund.jnautilustrader.core.entity.InstrumentRegistry;
+import com.tanggo.fund.jnautilustrader.core.entity.MarketData;
+import com.tanggo.fund.jnautilustrader.core.entity.Price;
+import com.tanggo.fund.jnautilustrader.core.entity.TradeCmd;
+import com.tanggo.fund.jnautilustrader.core.entity.book.BookSide;
+import com.tanggo.fund.jnautilustrader.core.entity.book.OrderBook;
+import com.tanggo.fund.jnautilustrader.core.entity.event.data.OrderBookDeltas;
+import com.tanggo.fund.jnautilustrader.core.entity.event.data.OrderBookDepth10;
+import com.tanggo.fund.jnautilustrader.core.entity.event.data.TradeTick;
+import com.tanggo.fund.jnautilustrader.core.entity.event.trade.OrderUpdate;
+import com.tanggo.fund.jnautilustrader.core.entity.event.trade.PlaceOrder;
+import com.tanggo.fund.jnautilustrader.core.entity.event.trade.TradeExecution;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 回测用的模拟交易网关
+ * <p>
+ * 替代 {@code BNTradeGWWebSocketClient}：从交易指令仓储读取策略发出的 {@code Event<TradeCmd>}，
+ * 按回放的行情重建每个交易所、每个品种的L2订单簿并撮合，把 {@link OrderUpdate} / {@link TradeExecution}
+ * 回报写入策略的行情仓储，事件类型为 {@code {交易所}_ORDER_UPDATE} / {@code {交易所}_TRADE_EXECUTION}。
+ * <p>
+ * 撮合规则：
+ * <ul>
+ *   <li>订单到达交易所时，限价单先按对手盘逐档吃单（价格不差于限价），成交价为档位价格，记为 taker；
+ *   市价单吃到对手盘耗尽为止。剩余部分 GTC 挂单，IOC / 市价单过期；FOK 不能全部成交时整单过期</li>
+ *   <li>挂单的排队位置按到达时同价位的挂单量估计（排在已有挂单之后）。之后该价位上主动成交的数量先消耗
+ *   前面的队列，排到后才成交；价位数量减少时，前面的队列不超过价位剩余数量（撤单视为发生在前面）</li>
+ *   <li>成交价穿过挂单价，或对手盘最优价越过挂单价时，剩余部分按挂单价全部成交，记为 maker</li>
+ * </ul>
+ * 吃单不从订单簿中扣除，同一快照上连续的订单会看到相同的流动性；只有L2数据，排队位置为估计值。
+ * <p>
+ * 延迟按交易所配置（单程）：订单在发出后经过一个延迟到达交易所撮合，回报在交易所产生后再经过一个延迟
+ * 送达策略。延迟由网关自己的 {@link EventLoop} 定时器实现，时间轮精度为 {@link #TIMER_TICK_NANOS}，
+ * 到达时间向上取整。手续费按交易所费率和成交金额计算，maker 和 taker 相同（与 {@code CrossArbitrageParams} 一致）。
+ * <p>
+ * 指令事件按发送顺序排队，由网关事件循环处理。订单ID、成交ID按序号分配，时间全部取自注入的时钟，
+ * 同样的行情和指令序列每次得到同样的回报。
+ * <p>
+ * 非线程安全，与策略在同一线程上由 {@code ReplayEngine} 驱动，见 {@link BacktestEngine}。
+ */
+public class SimulatedTradeGateway {
+
+    private static final Logger logger = LoggerFactory.getLogger(SimulatedTradeGateway.class);
+
+    /**
+     * 网关事件循环的定时器精度，即延迟的最小单位
+     */
+    public static final long TIMER_TICK_NANOS = 100_000L;
+
+    /**
+     * 每次迭代最多处理的行情条数
+     */
+    public static final int MARKET_DATA_BATCH = 256;
+
+    private static final int VENUE_COUNT = EventType.CODE_SPACE >> EventType.KIND_BITS;
+
+    // 数量比较的容差，低于该值视为全部成交
+    private static final double EPSILON = 1e-12;
+
+    private final EventRepo<MarketData> marketDataRepo;
+    private final EventRepo<MarketData> reportRepo;
+    private final Clock clock;
+    private final EventLoop eventLoop;
+
+    // 策略发出的指令
+    private final ArrayDeque<Event<TradeCmd>> commands = new ArrayDeque<>();
+    private final EventRepo<TradeCmd> tradeCmdRepo = new CommandRepo();
+
+    // 按交易所、品种的订单簿和挂单
+    @SuppressWarnings("unchecked")
+    private final Map<String, Market>[] markets = new Map[VENUE_COUNT];
+    // 每个交易所最近访问的品种，单品种回测时省去哈希查找
+    private final Market[] lastMarkets = new Market[VENUE_COUNT];
+
+    private final long[] latencyNanos = new long[VENUE_COUNT];
+    private final double[] feeRates = new double[VENUE_COUNT];
+
+    // 成交统计，按交易所
+    private final double[] positions = new double[VENUE_COUNT];
+    private final double[] quoteBalances = new double[VENUE_COUNT];
+    private final double[] commissions = new double[VENUE_COUNT];
+
+    private String commissionAsset = "USDT";
+
+    private long nextOrderId = 1;
+    private long nextTradeId = 1;
+
+    // 统计（仅回放线程访问）
+    private long marketDataCount;
+    private long orderCount;
+    private long fillCount;
+    private long rejectedCount;
+    private long expiredCount;
+    private long canceledCount;
+    private long reportCount;
+    private long droppedReportCount;
+
+    /**
+     * @param marketDataRepo 回放行情的旁路副本，用于重建订单簿
+     * @param reportRepo 策略的行情仓储，接收订单回报和成交
+     * @param clock 回放的模拟时钟
+     */
+    public SimulatedTradeGateway(EventRepo<MarketData> marketDataRepo, EventRepo<MarketData> reportRepo, Clock clock) {
+        this.marketDataRepo = marketDataRepo;
+        this.reportRepo = reportRepo;
+        this.clock = clock;
+        this.eventLoop = new EventLoop("simulated-trade-gateway", this::doWork, IdleStrategy.BACKOFF, TIMER_TICK_NANOS, clock);
+        for (int venue = 0; venue < VENUE_COUNT; venue++) {
+            markets[venue] = new HashMap<>();
+        }
+    }
+
+    /**
+     * 设置交易所的单程延迟
+     *
+     * @param venue 交易所名称，如 BINANCE
+     * @param nanos 延迟（纳秒），0表示立即到达
+     */
+    public void setLatencyNanos(String venue, long nanos) {
+        if (nanos < 0) {
+            throw new IllegalArgumentException("Latency must not be negative: " + nanos);
+        }
+        latencyNanos[venueIndex(venue)] = nanos;
+    }
+
+    public long getLatencyNanos(String venue) {
+        return latencyNanos[venueIndex(venue)];
+    }
+
+    /**
+     * 设置交易所的手续费率，如0.001表示0.1%
+     */
+    public void setFeeRate(String venue, double feeRate) {
+        feeRates[venueIndex(venue)] = feeRate;
+    }
+
+    public double getFeeRate(String venue) {
+        return feeRates[venueIndex(venue)];
+    }
+
+    /**
+     * 手续费资产，默认USDT（按成交金额收取）
+     */
+    public void setCommissionAsset(String commissionAsset) {
+        this.commissionAsset = commissionAsset;
+    }
+
+    /**
+     * 策略使用的交易指令仓储
+     */
+    public EventRepo<TradeCmd> getTradeCmdRepo() {
+        return tradeCmdRepo;
+    }
+
+    /**
+     * 网关的事件循环，交给 {@code ReplayEngine} 与策略的事件循环一起驱动
+     */
+    public EventLoop getEventLoop() {
+        return eventLoop;
+    }
+
+    /**
+     * 事件循环的一次工作：先用行情更新订单簿和挂单，再处理策略的指令
+     */
+    private int doWork() {
+        int work = 0;
+        Event<MarketData> event;
+        while (work < MARKET_DATA_BATCH && (event = marketDataRepo.poll()) != null) {
+            onMarketData(event);
+            work++;
+        }
+        Event<TradeCmd> command;
+        while ((command = commands.pollFirst()) != null) {
+            onCommand(command);
+            work++;
+        }
+        return work;
+    }
+
+    // ==================== 行情 ====================
+
+    private void onMarketData(Event<MarketData> event) {
+        MarketData data = event.payload;
+        if (data == null) {
+            return;
+        }
+        marketDataCount++;
+        switch (data.getType()) {
+            case MarketData.ORDER_BOOK_DEPTH: {
+                OrderBookDepth10 depth = (OrderBookDepth10) data.getMessage();
+                Market market = market(event.venueId, depth.getSymbol());
+                market.book.applySnapshot(depth);
+                market.onBookUpdate();
+                break;
+            }
+            case MarketData.ORDER_BOOK_DELTA: {
+                OrderBookDeltas deltas = (OrderBookDeltas) data.getMessage();
+                Market market = market(event.venueId, deltas.getSymbol());
+                market.book.apply(deltas);
+                market.onBookUpdate();
+                break;
+            }
+            case MarketData.TRADE_TICK: {
+                TradeTick trade = (TradeTick) data.getMessage();
+                Market market = market(event.venueId, trade.symbol);
+                if (!market.resting.isEmpty()) {
+                    market.onTrade(trade);
+                }
+                break;
+            }
+            default:
+                break;
+        }
+    }
+
+    // ==================== 指令 ====================
+
+    private void onCommand(Event<TradeCmd> command) {
+        short venue = EventType.venueOf(command.typeCode);
+        TradeCmd cmd = command.payload;
+        Object message = cmd.getMessage();
+        switch (cmd.getType()) {
+            case TradeCmd.PLACE_ORDER:
+                if (message instanceof PlaceOrder placeOrder) {
+                    placeOrder(venue, placeOrder);
+                } else {
+                    logger.warn("下单指令消息类型错误: {}", message);
+                }
+                break;
+            case TradeCmd.CANCEL_ORDER:
+            case TradeCmd.CANCEL_ALL_ORDERS:
+                if (message == null || message instanceof String) {
+                    String target = (String) message;
+                    boolean all = cmd.getType() == TradeCmd.CANCEL_ALL_ORDERS;
+                    after(latencyNanos[venue], () -> cancel(venue, target, all));
+                } else {
+                    logger.warn("撤单指令消息类型错误: {}", message);
+                }
+                break;
+            default:
+                logger.debug("模拟网关不支持的指令: {}", cmd);
+                break;
+        }
+    }
+
+    private void placeOrder(short venue, PlaceOrder placeOrder) {
+        orderCount++;
+        SimOrder order = new SimOrder(nextOrderId++, venue, placeOrder);
+        after(latencyNanos[venue], () -> arrive(order));
+    }
+
+    /**
+     * 订单到达交易所：校验、吃单、剩余部分挂单或过期
+     */
+    private void arrive(SimOrder order) {
+        if (order.symbol == null || order.quantity <= 0 || (!order.market && order.price == null)) {
+            rejectedCount++;
+            OrderUpdate update = report(order, "REJECTED", "REJECTED");
+            update.setRejectReason("INVALID_ORDER");
+            send(order.venue, update);
+            return;
+        }
+        Market market = market(order.venue, order.symbol);
+        order.rawPrice = order.market ? 0 : order.price.rawAt(market.book.getPricePrecision());
+        send(order.venue, report(order, "NEW", "NEW"));
+
+        if ("FOK".equals(order.timeInForce) && market.takeable(order) + EPSILON < order.quantity) {
+            expire(order);
+            return;
+        }
+        market.take(order);
+        if (order.remaining() <= EPSILON) {
+            return;
+        }
+        if (order.market || !"GTC".equals(order.timeInForce)) {
+            expire(order);
+            return;
+        }
+        BookSide same = order.buy ? market.book.getBids() : market.book.getAsks();
+        order.queueAhead = FixedPoint.toDouble(same.sizeAtPrice(order.rawPrice), market.book.getSizePrecision());
+        market.resting.add(order);
+    }
+
+    /**
+     * 撤单到达交易所：撤销指定客户订单ID的挂单，或撤销全部（可按品种过滤）挂单
+     *
+     * @param target 撤单时为客户订单ID，全部撤单时为品种（null表示所有品种）
+     */
+    private void cancel(short venue, String target, boolean all) {
+        for (Market market : markets[venue].values()) {
+            for (SimOrder order : market.resting) {
+                if (all ? target == null || target.equals(order.symbol) : order.clientOrderId.equals(target)) {
+                    order.closed = true;
+                    canceledCount++;
+                    send(venue, report(order, "CANCELED", "CANCELED"));
+                }
+            }
+            market.resting.removeIf(order -> order.closed);
+        }
+    }
+
+    private void expire(SimOrder order) {
+        order.closed = true;
+        expiredCount++;
+        send(order.venue, report(order, "EXPIRED", "EXPIRED"));
+    }
+
+    /**
+     * 成交一笔，更新订单、持仓和手续费并发送回报
+     */
+    private void fill(SimOrder order, double price, double quantity, boolean maker) {
+        double quote = price * quantity;
+        double commission = quote * feeRates[order.venue];
+        order.filled += quantity;
+        order.filledQuote += quote;
+        boolean done = order.remaining() <= EPSILON;
+        if (done) {
+            order.closed = true;
+        }
+        fillCount++;
+        positions[order.venue] += order.buy ? quantity : -quantity;
+        quoteBalances[order.venue] += (order.buy ? -quote : quote) - commission;
+        commissions[order.venue] += commission;
+
+        OrderUpdate update = report(order, "TRADE", done ? "FILLED" : "PARTIALLY_FILLED");
+        update.setLastExecutedQuantity(quantity);
+        update.setLastExecutedPrice(price);
+        update.setLastQuoteQuantity(quote);
+        update.setCommissionAmount(commission);
+        update.setCommissionAsset(commissionAsset);
+        update.setTradeId(nextTradeId++);
+        update.setMaker(maker);
+        send(order.venue, update);
+    }
+
+    private OrderUpdate report(SimOrder order, String executionType, String orderStatus) {
+        long now = clock.currentTimeMillis();
+        OrderUpdate update = new OrderUpdate();
+        update.setEventType("executionReport");
+        update.setEventTime(now);
+        update.setTransactionTime(now);
+        update.setSymbol(order.symbol);
+        update.setClientOrderId(order.clientOrderId);
+        update.setSide(order.buy ? "BUY" : "SELL");
+        update.setOrderType(order.type);
+        update.setTimeInForce(order.timeInForce);
+        update.setOriginalQuantity(order.quantity);
+        update.setOriginalPrice(order.price != null ? order.price.asDouble() : 0);
+        update.setExecutionType(executionType);
+        update.setOrderStatus(orderStatus);
+        update.setOrderId(order.orderId);
+        update.setTradeId(-1);
+        update.setCumulativeFilledQuantity(order.filled);
+        update.setCumulativeQuoteQuantity(order.filledQuote);
+        update.setOrderWorking(!order.closed && !"REJECTED".equals(orderStatus));
+        return update;
+    }
+
+    /**
+     * 经过回报延迟后把订单回报（有新成交时再加成交记录）写入策略的行情仓储
+     */
+    private void send(short venue, OrderUpdate update) {
+        int instrumentId = InstrumentRegistry.idOf(update.getSymbol());
+        Event<MarketData> orderEvent = new Event<>(EventType.code(venue, MarketData.ORDER_UPDATE), instrumentId, MarketData.of(update));
+        TradeExecution execution = TradeExecution.fromOrderUpdate(update);
+        Event<MarketData> executionEvent = execution != null
+                ? new Event<>(EventType.code(venue, MarketData.TRADE_EXECUTION), instrumentId, MarketData.of(execution))
+                : null;
+        after(latencyNanos[venue], () -> {
+            deliver(orderEvent);
+            if (executionEvent != null) {
+                deliver(executionEvent);
+            }
+        });
+    }
+
+    private void deliver(Event<MarketData> event) {
+        long now = clock.nanoTime();
+        event.receiveNanos = now;
+        event.decodeNanos = now;
+        event.enqueueNanos = now;
+        if (reportRepo.send(event)) {
+            reportCount++;
+        } else {
+            droppedReportCount++;
+            logger.warn("回报写入行情仓储失败: {}", event.type);
+        }
+    }
+
+    /**
+     * 延迟为0时立即执行，否则挂到网关事件循环的定时器上
+     */
+    private void after(long delayNanos, Runnable task) {
+        if (delayNanos == 0) {
+            task.run();
+        } else {
+            eventLoop.schedule(delayNanos, task);
+        }
+    }
+
+    private Market market(short venue, String symbol) {
+        Market market = lastMarkets[venue];
+        if (market == null || !market.symbol.equals(symbol)) {
+            market = markets[venue].computeIfAbsent(symbol, Market::new);
+            lastMarkets[venue] = market;
+        }
+        return market;
+    }
+
+    private static short venueIndex(String venue) {
+        short index = EventType.venueOf(venue);
+        if (index == EventType.VENUE_UNKNOWN) {
+            throw new IllegalArgumentException("Unknown venue: " + venue);
+        }
+        return index;
+    }
+
+    // ==================== 统计 ====================
+
+    /**
+     * 交易所的净持仓（基础资产数量，买入为正）
+     */
+    public double getPosition(String venue) {
+        return positions[venueIndex(venue)];
+    }
+
+    /**
+     * 交易所的计价资产变化（卖出收入减买入支出，已扣手续费）
+     */
+    public double getQuoteBalance(String venue) {
+        return quoteBalances[venueIndex(venue)];
+    }
+
+    /**
+     * 交易所累计手续费
+     */
+    public double getCommission(String venue) {
+        return commissions[venueIndex(venue)];
+    }
+
+    /**
+     * 交易所的订单簿，未收到该品种行情时返回null
+     */
+    public OrderBook getOrderBook(String venue, String symbol) {
+        Market market = markets[venueIndex(venue)].get(symbol);
+        return market != null ? market.book : null;
+    }
+
+    /**
+     * 当前挂单数
+     */
+    public int getRestingOrderCount() {
+        int count = 0;
+        for (Map<String, Market> venueMarkets : markets) {
+            for (Market market : venueMarkets.values()) {
+                count += market.resting.size();
+            }
+        }
+        return count;
+    }
+
+    public long getMarketDataCount() {
+        return marketDataCount;
+    }
+
+    public long getOrderCount() {
+        return orderCount;
+    }
+
+    public long getFillCount() {
+        return fillCount;
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    public long getExpiredCount() {
+        return expiredCount;
+    }
+
+    public long getCanceledCount() {
+        return canceledCount;
+    }
+
+    public long getReportCount() {
+        return reportCount;
+    }
+
+    /**
+     * 行情仓储拒绝的回报数
+     */
+    public long getDroppedReportCount() {
+        return droppedReportCount;
+    }
+
+    /**
+     * 一个交易所一个品种的订单簿和挂单
+     */
+    private final class Market {
+        final String symbol;
+        final OrderBook book;
+        final List<SimOrder> resting = new ArrayList<>();
+
+        Market(String symbol) {
+            this.symbol = symbol;
+            this.book = new OrderBook(symbol);
+        }
+
+        /**
+         * 对手盘上价格不差于限价的累计数量
+         */
+        double takeable(SimOrder order) {
+            BookSide opposite = order.buy ? book.getAsks() : book.getBids();
+            long size = order.market ? opposite.totalSize() : opposite.cumulativeSizeTo(order.rawPrice);
+            return FixedPoint.toDouble(size, book.getSizePrecision());
+        }
+
+        /**
+         * 按对手盘逐档吃单
+         */
+        void take(SimOrder order) {
+            BookSide opposite = order.buy ? book.getAsks() : book.getBids();
+            for (int level = 0, levels = opposite.levelCount(); level < levels && order.remaining() > EPSILON; level++) {
+                long price = opposite.priceAt(level);
+                if (!order.market && (order.buy ? price > order.rawPrice : price < order.rawPrice)) {
+                    break;
+                }
+                double quantity = Math.min(order.remaining(), FixedPoint.toDouble(opposite.sizeAt(level), book.getSizePrecision()));
+                fill(order, FixedPoint.toDouble(price, book.getPricePrecision()), quantity, false);
+            }
+        }
+
+        /**
+         * 订单簿更新后：对手盘越过挂单价的全部成交，其余按价位剩余数量收紧排队位置
+         */
+        void onBookUpdate() {
+            if (resting.isEmpty()) {
+                return;
+            }
+            for (SimOrder order : resting) {
+                BookSide opposite = order.buy ? book.getAsks() : book.getBids();
+                if (!opposite.isEmpty() && (order.buy ? opposite.bestPrice() <= order.rawPrice : opposite.bestPrice() >= order.rawPrice)) {
+                    fill(order, order.price.asDouble(), order.remaining(), true);
+                    continue;
+                }
+                BookSide same = order.buy ? book.getBids() : book.getAsks();
+                double levelSize = FixedPoint.toDouble(same.sizeAtPrice(order.rawPrice), book.getSizePrecision());
+                order.queueAhead = Math.min(order.queueAhead, levelSize);
+            }
+            resting.removeIf(order -> order.closed);
+        }
+
+        /**
+         * 成交穿过挂单价的全部成交；在挂单价上主动成交的数量先消耗前面的队列
+         */
+        void onTrade(TradeTick trade) {
+            long price = trade.price.rawAt(book.getPricePrecision());
+            double quantity = trade.quantity.asDouble();
+            // 买方是maker即卖方主动，成交在买盘上
+            boolean hitsBids = trade.isBuyerMaker;
+            for (SimOrder order : resting) {
+                if (order.buy != hitsBids) {
+                    continue;
+                }
+                if (order.buy ? price < order.rawPrice : price > order.rawPrice) {
+                    fill(order, order.price.asDouble(), order.remaining(), true);
+                } else if (price == order.rawPrice) {
+                    double left = quantity - order.queueAhead;
+                    order.queueAhead = Math.max(0, order.queueAhead - quantity);
+                    if (left > EPSILON) {
+                        fill(order, order.price.asDouble(), Math.min(left, order.remaining()), true);
+                    }
+                }
+            }
+            resting.removeIf(order -> order.closed);
+        }
+    }
+
+    /**
+     * 模拟订单
+     */
+    private static final class SimOrder {
+        final long orderId;
+        final short venue;
+        final String clientOrderId;
+        final String symbol;
+        final boolean buy;
+        final boolean market;
+        final String type;
+        final String timeInForce;
+        final double quantity;
+        final Price price;
+
+        long rawPrice;
+        double filled;
+        double filledQuote;
+        double queueAhead;
+        boolean closed;
+
+        SimOrder(long orderId, short venue, PlaceOrder placeOrder) {
+            this.orderId = orderId;
+            this.venue = venue;
+            this.clientOrderId = placeOrder.getNewClientOrderId() != null ? placeOrder.getNewClientOrderId() : "sim-" + orderId;
+            this.symbol = placeOrder.getSymbol();
+            this.buy = "BUY".equals(placeOrder.getSide());
+            this.type = placeOrder.getType() != null ? placeOrder.getType() : "LIMIT";
+            this.market = "MARKET".equals(type);
+            this.timeInForce = placeOrder.getTimeInForce() != null ? placeOrder.getTimeInForce() : "GTC";
+            this.quantity = placeOrder.getQuantity() != null ? placeOrder.getQuantity().asDouble() : 0;
+            this.price = placeOrder.getPrice();
+        }
+
+        double remaining() {
+            return quantity - filled;
+        }
+    }
+
+    /**
+     * 策略一侧的交易指令仓储：指令事件排队，网关事件循环读取
+     */
+    private final class CommandRepo implements EventRepo<TradeCmd> {
+
+        @Override
+        public Event<TradeCmd> receive() {
+            return null;
+        }
+
+        @Override
+        public boolean send(Event<TradeCmd> event) {
+            if (event == null || event.payload == null) {
+                return false;
+            }
+            short venue = EventType.venueOf(event.typeCode);
+            if (venue == EventType.VENUE_UNKNOWN) {
+                logger.warn("交易指令缺少交易所: {}", event.type);
+                return false;
+            }
+            commands.addLast(event);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.tanggo.fund.jnautilustrader.adapter.config;
+
+import com.tanggo.fund.jnautilustrader.core.actor.ThreadPlacement;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 按CPU亲和性放置事件循环线程
+ * <p>
+ * 每个网关和策略的事件循环在自己的专用线程上运行，线程启动时按以下规则绑定核心：
+ * <ul>
+ *     <li>pinnedCpus 中配置了该循环名称的，绑定到指定的CPU列表</li>
+ *     <li>否则从 cpuPool 中按启动顺序为每个循环分配一个独占核心；cpuPool 未配置时使用 isolcpus 隔离的核心</li>
+ *     <li>池中的核心先按NUMA节点排序：首选节点（numaNode，未配置时取池中第一个核心所在节点）上的核心优先，
+ *     使热路径上的循环共享同一节点的缓存和内存（线程绑定后首次访问的内存分配在本地节点）</li>
+ *     <li>池耗尽或不可用时不绑定，不与其它循环共享核心</li>
+ * </ul>
+ * 每个循环就位后记录并输出一行放置报告（线程ID、请求的核心、实际所在核心、NUMA节点），
+ * {@link #getReport()} 返回当前全部放置结果。
+ */
+public class AffinityThreadPlacement implements ThreadPlacement {
+
+    private static final Logger logger = LoggerFactory.getLogger(AffinityThreadPlacement.class);
+
+    /**
+     * 一个事件循环的放置结果
+     */
+    @Data
+    @AllArgsConstructor
+    public static class Placement {
+        // 事件循环名称
+        private final String loopName;
+        // 线程名称
+        private final String threadName;
+        // 内核线程ID，不可用时为-1
+        private final long nativeTid;
+        // 请求绑定的CPU列表，未绑定时为空字符串
+        private final String requested;
+        // 是否绑定成功
+        private final boolean pinned;
+        // 绑定后所在的CPU核心，不可用时为-1
+        private final int cpu;
+        // 所在核心的NUMA节点，不可用时为-1
+        private final int numaNode;
+        // 线程允许运行的CPU列表
+        private final String allowedCpus;
+    }
+
+    // 是否启用绑定，关闭时仍记录放置报告
+    private boolean enabled = true;
+    // 循环名称 -> CPU列表
+    private Map<String, String> pinnedCpus = new HashMap<>();
+    // 自动分配的CPU池，格式同 taskset -c
+    private String cpuPool;
+    // 首选NUMA节点，-1表示取池中第一个核心所在节点
+    private int numaNode = -1;
+
+    // 以下字段在 bind 中同步访问
+    private List<Integer> freeCpus;
+    private final List<Placement> report = new ArrayList<>();
+
+    @Override
+    public void bind(String loopName) {
+        String requested = enabled ? allocate(loopName) : null;
+        boolean pinned = requested != null && CpuAffinity.pinCurrentThread(requested);
+        int cpu = CpuAffinity.currentCpu();
+        Placement placement = new Placement(loopName, Thread.currentThread().getName(), CpuAffinity.nativeThreadId(),
+                requested != null ? requested : "", pinned, cpu, cpu >= 0 ? CpuAffinity.numaNodeOf(cpu) : -1,
+                CpuAffinity.allowedCpus());
+        synchronized (this) {
+            report.add(placement);
+        }
+        logger.info("事件循环线程放置: loop={}, thread={}, tid={}, 请求CPU={}, 已绑定={}, 当前CPU={}, NUMA节点={}, 允许CPU={}",
+                placement.getLoopName(), placement.getThreadName(), placement.getNativeTid(),
+                requested != null ? requested : "-", pinned, cpu, placement.getNumaNode(), placement.getAllowedCpus());
+    }
+
+    /**
+     * 当前全部放置结果，按循环启动顺序
+     */
+    public synchronized List<Placement> getReport() {
+        return Collections.unmodifiableList(new ArrayList<>(report));
+    }
+
+    private synchronized String allocate(String loopName) {
+        String explicit = pinnedCpus.get(loopName);
+        if (explicit != null && !explicit.isBlank()) {
+            return explicit.trim();
+        }
+        if (freeCpus == null) {
+            freeCpus = buildPool();
+            logger.info("事件循环CPU池: {}", freeCpus);
+        }
+        if (freeCpus.isEmpty()) {
+            return null;
+        }
+        return Integer.toString(freeCpus.remove(0));
+    }
+
+    /**
+     * 构建自动分配的CPU池：排除显式绑定的核心和进程不允许的核心，首选NUMA节点的核心排在前面
+     */
+    private List<Integer> buildPool() {
+        List<Integer> pool = cpuPool != null && !cpuPool.isBlank()
+                ? CpuAffinity.parseCpuList(cpuPool) : CpuAffinity.isolatedCpus();
+        Set<Integer> reserved = new HashSet<>();
+        for (String cpus : pinnedCpus.values()) {
+            reserved.addAll(CpuAffinity.parseCpuList(cpus));
+        }
+        Set<Integer> allowed = new HashSet<>(CpuAffinity.processAllowedCpus());
+        List<Integer> candidates = new ArrayList<>();
+        for (int cpu : pool) {
+            if (!reserved.contains(cpu) && (allowed.isEmpty() || allowed.contains(cpu)) && !candidates.contains(cpu)) {
+                candidates.add(cpu);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+        int preferredNode = numaNode >= 0 ? numaNode : CpuAffinity.numaNodeOf(candidates.get(0));
+        List<Integer> ordered = new ArrayList<>(candidates.size());
+        for (int cpu : candidates) {
+            if (CpuAffinity.numaNodeOf(cpu) == preferredNode) {
+                ordered.add(cpu);
+            }
+        }
+        for (int cpu : candidates) {
+            if (CpuAffinity.numaNodeOf(cpu) != preferredNode) {
+                ordered.add(cpu);
+            }
+        }
+        return ordered;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Map<String, String> getPinnedCpus() {
+        return pinnedCpus;
+    }
+
+    public void setPinnedCpus(Map<String, String> pinnedCpus) {
+        this.pinnedCpus = pinnedCpus != null ? new HashMap<>(pinnedCpus) : new HashMap<>();
+    }
+
+    public String getCpuPool() {
+        return cpuPool;
+    }
+
+    public void setCpuPool(String cpuPool) {
+        this.cpuPool = cpuPool;
+    }
+
+    public int getNumaNode() {
+        return numaNode;
+    }
+
+    public void setNumaNode(int numaNode) {
+        this.numaNode = numaNode;
+    }
+}
@@ -0,0 +1,198 @@
+package com.tanggo.fund.jnautilustrader.adapter.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Linux CPU亲和性工具
+ * <p>
+ * 通过 /proc 和 /sys 读取线程ID、当前所在核心、允许的核心集合、隔离核心（isolcpus）和NUMA拓扑，
+ * 通过 taskset 设置单个线程的亲和性，不依赖 JNA/JNI。
+ * 只能绑定调用线程自身（按 /proc/thread-self 取线程ID）；非Linux或缺少 taskset 时所有操作返回失败，不抛异常。
+ */
+public final class CpuAffinity {
+
+    private static final Logger logger = LoggerFactory.getLogger(CpuAffinity.class);
+
+    private static final Path THREAD_SELF = Paths.get("/proc/thread-self");
+    private static final Path ISOLATED_CPUS = Paths.get("/sys/devices/system/cpu/isolated");
+    private static final Path NUMA_NODES = Paths.get("/sys/devices/system/node");
+    private static final long TASKSET_TIMEOUT_SECONDS = 5;
+
+    // /proc/[tid]/stat 中 processor 字段的序号（从1开始）
+    private static final int STAT_PROCESSOR_FIELD = 39;
+
+    // CPU -> NUMA节点，首次使用时从 /sys 读取
+    private static volatile Map<Integer, Integer> cpuToNode;
+
+    private CpuAffinity() {
+    }
+
+    /**
+     * 当前线程的内核线程ID，不可用时返回-1
+     */
+    public static long nativeThreadId() {
+        try {
+            // /proc/thread-self -> <pid>/task/<tid>
+            Path target = Files.readSymbolicLink(THREAD_SELF);
+            return Long.parseLong(target.getFileName().toString());
+        } catch (IOException | UnsupportedOperationException | NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * 当前线程最近一次运行所在的CPU核心，不可用时返回-1
+     */
+    public static int currentCpu() {
+        try {
+            String stat = Files.readString(THREAD_SELF.resolve("stat"), StandardCharsets.US_ASCII);
+            // 线程名可能包含空格，从最后一个右括号之后的第3个字段开始计数
+            String[] fields = stat.substring(stat.lastIndexOf(')') + 2).trim().split(" ");
+            return Integer.parseInt(fields[STAT_PROCESSOR_FIELD - 3]);
+        } catch (IOException | RuntimeException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * 当前线程允许运行的CPU列表（如 "0-3,6"），不可用时返回空字符串
+     */
+    public static String allowedCpus() {
+        return readStatus(THREAD_SELF.resolve("status"), "Cpus_allowed_list:");
+    }
+
+    /**
+     * 当前进程允许运行的CPU核心
+     */
+    public static List<Integer> processAllowedCpus() {
+        return parseCpuList(readStatus(Paths.get("/proc/self/status"), "Cpus_allowed_list:"));
+    }
+
+    /**
+     * 内核启动参数 isolcpus 隔离出的CPU核心，未隔离时返回空列表
+     */
+    public static List<Integer> isolatedCpus() {
+        try {
+            return parseCpuList(Files.readString(ISOLATED_CPUS, StandardCharsets.US_ASCII));
+        } catch (IOException e) {
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * CPU核心所在的NUMA节点，拓扑不可用时返回-1
+     */
+    public static int numaNodeOf(int cpu) {
+        Map<Integer, Integer> nodes = cpuToNode;
+        if (nodes == null) {
+            nodes = loadNumaTopology();
+            cpuToNode = nodes;
+        }
+        return nodes.getOrDefault(cpu, -1);
+    }
+
+    /**
+     * 把当前线程绑定到给定的CPU列表
+     *
+     * @param cpuList CPU列表，格式同 taskset -c（如 "3" 或 "2-3,6"）
+     * @return 绑定成功返回true
+     */
+    public static boolean pinCurrentThread(String cpuList) {
+        long tid = nativeThreadId();
+        if (tid < 0) {
+            logger.warn("无法获取内核线程ID，跳过CPU绑定: {}", Thread.currentThread().getName());
+            return false;
+        }
+        ProcessBuilder builder = new ProcessBuilder("taskset", "-c", "-p", cpuList, Long.toString(tid));
+        builder.redirectErrorStream(true);
+        try {
+            Process process = builder.start();
+            String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8).trim();
+            if (!process.waitFor(TASKSET_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+                logger.warn("taskset 超时，跳过CPU绑定: tid={}, cpus={}", tid, cpuList);
+                return false;
+            }
+            if (process.exitValue() != 0) {
+                logger.warn("taskset 失败: tid={}, cpus={}, 输出: {}", tid, cpuList, output);
+                return false;
+            }
+            return true;
+        } catch (IOException e) {
+            logger.warn("无法执行 taskset，跳过CPU绑定: {}", e.getMessage());
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * 解析CPU列表（如 "0-3,6,8-9"），空字符串返回空列表
+     */
+    public static List<Integer> parseCpuList(String cpuList) {
+        List<Integer> cpus = new ArrayList<>();
+        if (cpuList == null) {
+            return cpus;
+        }
+        for (String part : cpuList.trim().split(",")) {
+            part = part.trim();
+            if (part.isEmpty()) {
+                continue;
+            }
+            int dash = part.indexOf('-');
+            if (dash < 0) {
+                cpus.add(Integer.parseInt(part));
+            } else {
+                int from = Integer.parseInt(part.substring(0, dash).trim());
+                int to = Integer.parseInt(part.substring(dash + 1).trim());
+                for (int cpu = from; cpu <= to; cpu++) {
+                    cpus.add(cpu);
+                }
+            }
+        }
+        return cpus;
+    }
+
+    private static String readStatus(Path status, String key) {
+        try {
+            for (String line : Files.readAllLines(status, StandardCharsets.US_ASCII)) {
+                if (line.startsWith(key)) {
+                    return line.substring(key.length()).trim();
+                }
+            }
+        } catch (IOException e) {
+            // 非Linux
+        }
+        return "";
+    }
+
+    private static Map<Integer, Integer> loadNumaTopology() {
+        Map<Integer, Integer> nodes = new HashMap<>();
+        try (DirectoryStream<Path> dirs = Files.newDirectoryStream(NUMA_NODES, "node[0-9]*")) {
+            for (Path dir : dirs) {
+                int node = Integer.parseInt(dir.getFileName().toString().substring("node".length()));
+                for (int cpu : parseCpuList(Files.readString(dir.resolve("cpulist"), StandardCharsets.US_ASCII))) {
+                    nodes.put(cpu, node);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.debug("NUMA拓扑不可用: {}", e.getMessage());
+        }
+        return nodes;
+    }
+}
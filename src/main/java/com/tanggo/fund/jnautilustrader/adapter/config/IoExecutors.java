@@ -0,0 +1,128 @@
+package com.tanggo.fund.jnautilustrader.adapter.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * I/O执行器工厂
+ * <p>
+ * 网关连接/关闭、REST调用、listenKey保活和持久化刷盘等会阻塞的非热路径任务提交到这里创建的执行器。
+ * {@link Mode#VIRTUAL} 每个任务一个虚拟线程，阻塞时不占用平台线程，几十条连接的保活和重连只需少量载体线程；
+ * 运行时低于 JDK 21 时回退为平台线程池并告警。
+ * 虚拟线程通过反射创建，项目在 JDK 17 上也能编译；JDK 21+ 构建时 pom 的 jdk21 profile 把目标版本提升到21。
+ * <p>
+ * 行情解码、策略和交易事件循环等延迟敏感的循环始终运行在平台线程上（见 {@link AffinityThreadPlacement}），不使用这里的执行器。
+ */
+public final class IoExecutors {
+
+    private static final Logger logger = LoggerFactory.getLogger(IoExecutors.class);
+
+    /**
+     * 执行模式
+     */
+    public enum Mode {
+        /**
+         * 平台线程池：按需创建守护线程，空闲60秒回收
+         */
+        PLATFORM,
+        /**
+         * 每个任务一个虚拟线程（JDK 21+）
+         */
+        VIRTUAL
+    }
+
+    private static final Method OF_VIRTUAL = findMethod(Thread.class, "ofVirtual");
+    private static final Method NEW_THREAD_PER_TASK_EXECUTOR =
+            findMethod(java.util.concurrent.Executors.class, "newThreadPerTaskExecutor", ThreadFactory.class);
+    // 从公开接口 Thread.Builder 取方法：实现类 ThreadBuilders$VirtualThreadBuilder 不导出，按实现类反射调用会抛 IllegalAccessException
+    private static final Class<?> THREAD_BUILDER = findClass("java.lang.Thread$Builder");
+    private static final Method BUILDER_NAME = findMethod(THREAD_BUILDER, "name", String.class, long.class);
+    private static final Method BUILDER_FACTORY = findMethod(THREAD_BUILDER, "factory");
+
+    private IoExecutors() {
+    }
+
+    /**
+     * 当前运行时是否支持虚拟线程
+     */
+    public static boolean virtualThreadsSupported() {
+        return OF_VIRTUAL != null && NEW_THREAD_PER_TASK_EXECUTOR != null && BUILDER_NAME != null && BUILDER_FACTORY != null;
+    }
+
+    /**
+     * 创建I/O执行器
+     *
+     * @param mode       执行模式，VIRTUAL 不可用时回退为 PLATFORM
+     * @param namePrefix 线程名前缀
+     */
+    public static ExecutorService newExecutor(Mode mode, String namePrefix) {
+        if (mode == Mode.VIRTUAL) {
+            if (virtualThreadsSupported()) {
+                try {
+                    ExecutorService executor = (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(null, virtualThreadFactory(namePrefix));
+                    logger.info("I/O执行器 {} 使用虚拟线程", namePrefix);
+                    return executor;
+                } catch (ReflectiveOperationException | RuntimeException e) {
+                    // 反射访问受模块限制时抛出的 InaccessibleObjectException 是运行时异常，同样回退，不能让启动失败
+                    logger.warn("创建虚拟线程执行器失败，I/O执行器 {} 回退为平台线程: {}", namePrefix, e.toString());
+                }
+            } else {
+                logger.warn("当前运行时 Java {} 不支持虚拟线程，I/O执行器 {} 回退为平台线程", Runtime.version().feature(), namePrefix);
+            }
+        }
+        return newPlatformExecutor(namePrefix);
+    }
+
+    /**
+     * 按名称创建I/O执行器，供 Spring XML 以字符串配置模式
+     */
+    public static ExecutorService newExecutor(String mode, String namePrefix) {
+        return newExecutor(Mode.valueOf(mode.trim().toUpperCase()), namePrefix);
+    }
+
+    private static ExecutorService newPlatformExecutor(String namePrefix) {
+        AtomicInteger threadNumber = new AtomicInteger(1);
+        ThreadFactory factory = r -> {
+            Thread thread = new Thread(r, namePrefix + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60L, TimeUnit.SECONDS, new SynchronousQueue<>(), factory);
+    }
+
+    /**
+     * 等价于 Thread.ofVirtual().name(namePrefix, 1).factory()
+     */
+    private static ThreadFactory virtualThreadFactory(String namePrefix) throws ReflectiveOperationException {
+        Object builder = OF_VIRTUAL.invoke(null);
+        builder = BUILDER_NAME.invoke(builder, namePrefix, 1L);
+        return (ThreadFactory) BUILDER_FACTORY.invoke(builder);
+    }
+
+    private static Class<?> findClass(String name) {
+        try {
+            return Class.forName(name);
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
+
+    private static Method findMethod(Class<?> type, String name, Class<?>... parameterTypes) {
+        if (type == null) {
+            return null;
+        }
+        try {
+            return type.getMethod(name, parameterTypes);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
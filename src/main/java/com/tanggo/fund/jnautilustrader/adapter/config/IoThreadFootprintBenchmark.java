@@ -0,0 +1,148 @@
+package com.tanggo.fund.jnautilustrader.adapter.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * I/O执行模式的线程数和内存占用对比
+ * <p>
+ * 模拟 N 个交易对行情流同时连接：本地 ServerSocket 为每个流每秒推送若干条消息，
+ * 每个流在 I/O 执行器上占用一个任务阻塞读取（与网关阻塞连接、REST调用、保活等待相同的使用方式）。
+ * 全部连接建立并稳定接收后输出 JVM 线程数、峰值线程数、进程常驻内存（VmRSS）和堆使用量。
+ * <p>
+ * 每种模式在独立的JVM中运行，避免互相影响内存统计；VIRTUAL 需要 JDK 21+，低版本运行时直接退出而不是测量回退后的平台线程。
+ * CI 在 JDK 21 上运行两种模式（.github/workflows/jdk21.yml）。
+ * <p>
+ * 运行方式：
+ * <pre>
+ * mvn -q compile dependency:build-classpath -Dmdep.outputFile=cp.txt
+ * java -cp target/classes:$(cat cp.txt) com.tanggo.fund.jnautilustrader.adapter.config.IoThreadFootprintBenchmark PLATFORM 50
+ * java -cp target/classes:$(cat cp.txt) com.tanggo.fund.jnautilustrader.adapter.config.IoThreadFootprintBenchmark VIRTUAL 50
+ * </pre>
+ */
+public class IoThreadFootprintBenchmark {
+
+    private static final int DEFAULT_STREAMS = 50;
+    private static final int MESSAGES_PER_SECOND = 20;
+    private static final long SETTLE_MILLIS = 3_000L;
+    private static final byte[] MESSAGE = "{\"e\":\"trade\",\"s\":\"BTCUSDT\",\"p\":\"65000.10\",\"q\":\"0.001\"}\n"
+            .getBytes(StandardCharsets.US_ASCII);
+
+    public static void main(String[] args) throws Exception {
+        IoExecutors.Mode mode = args.length > 0 ? IoExecutors.Mode.valueOf(args[0].toUpperCase()) : IoExecutors.Mode.VIRTUAL;
+        int streams = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_STREAMS;
+        if (mode == IoExecutors.Mode.VIRTUAL && !IoExecutors.virtualThreadsSupported()) {
+            // 回退为平台线程时测到的是 PLATFORM 的数字，不输出
+            System.err.printf("Java %d 不支持虚拟线程，无法测量 VIRTUAL 模式%n", Runtime.version().feature());
+            System.exit(1);
+        }
+
+        long baselineThreads = ManagementFactory.getThreadMXBean().getThreadCount();
+        long baselineRssKb = rssKb();
+
+        AtomicLong received = new AtomicLong();
+        List<Socket> serverSide = new ArrayList<>(streams);
+        ExecutorService ioExecutor = IoExecutors.newExecutor(mode, "io-stream-");
+        try (ServerSocket server = new ServerSocket(0, streams, InetAddress.getLoopbackAddress())) {
+            CountDownLatch connected = new CountDownLatch(streams);
+            for (int i = 0; i < streams; i++) {
+                ioExecutor.execute(() -> readStream(server.getLocalPort(), connected, received));
+                serverSide.add(server.accept());
+            }
+            if (!connected.await(30, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("流连接超时");
+            }
+
+            // 推送线程：单个平台线程轮流向所有流写入，模拟交易所推送
+            Thread publisher = new Thread(() -> publish(serverSide), "publisher");
+            publisher.setDaemon(true);
+            publisher.start();
+            Thread.sleep(SETTLE_MILLIS);
+
+            System.gc();
+            Thread.sleep(200);
+            long threads = ManagementFactory.getThreadMXBean().getThreadCount();
+            long peakThreads = ManagementFactory.getThreadMXBean().getPeakThreadCount();
+            long rssKb = rssKb();
+            long heapUsed = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+
+            System.out.printf("模式=%s (虚拟线程可用=%s, Java %d), 流数量=%d%n",
+                    mode, IoExecutors.virtualThreadsSupported(), Runtime.version().feature(), streams);
+            System.out.printf("JVM线程数: 基线=%d, 连接后=%d, 峰值=%d%n", baselineThreads, threads, peakThreads);
+            System.out.printf("常驻内存(VmRSS): 基线=%d KB, 连接后=%d KB, 增加=%d KB%n", baselineRssKb, rssKb, rssKb - baselineRssKb);
+            System.out.printf("堆使用: %d KB, 已接收消息: %d%n", heapUsed / 1024, received.get());
+
+            publisher.interrupt();
+        } finally {
+            for (Socket socket : serverSide) {
+                socket.close();
+            }
+            ioExecutor.shutdown();
+            ioExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * 一个行情流：连接后阻塞读取直到对端关闭
+     */
+    private static void readStream(int port, CountDownLatch connected, AtomicLong received) {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            connected.countDown();
+            InputStream in = socket.getInputStream();
+            byte[] buffer = new byte[4096];
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                for (int i = 0; i < n; i++) {
+                    if (buffer[i] == '\n') {
+                        received.incrementAndGet();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // 对端关闭
+        }
+    }
+
+    private static void publish(List<Socket> sockets) {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / MESSAGES_PER_SECOND;
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                for (Socket socket : sockets) {
+                    OutputStream out = socket.getOutputStream();
+                    out.write(MESSAGE);
+                    out.flush();
+                }
+                TimeUnit.NANOSECONDS.sleep(intervalNanos);
+            }
+        } catch (IOException | InterruptedException e) {
+            // 结束
+        }
+    }
+
+    private static long rssKb() {
+        try {
+            for (String line : Files.readAllLines(Paths.get("/proc/self/status"), StandardCharsets.US_ASCII)) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.substring("VmRSS:".length()).replace("kB", "").trim());
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // 非Linux
+        }
+        return -1;
+    }
+}
@@ -13,6 +13,9 @@ import java.util.concurrent.atomic.AtomicInteger;
  * 高性能线程模型配置
  * 针对低时延交易系统优化的线程池配置
  * 遵循Clean Architecture原则,隔离市场数据和交易执行路径
+ * <p>
+ * 热路径（行情网关、策略、交易网关）各自运行在专用的事件循环线程上，由 {@link AffinityThreadPlacement} 绑定CPU核心；
+ * 下面线程工厂设置的优先级在Linux上默认不生效，不能代替核心绑定，只用于辅助线程池。
  */
 public class ThreadConfig {
 
@@ -24,6 +27,17 @@ public class ThreadConfig {
     private static final int QUEUE_CAPACITY = 1024;
     private static final long KEEP_ALIVE_TIME = 60L;
 
+    // ==================== 事件循环线程放置 ====================
+
+    /**
+     * 事件循环线程放置 - 每个网关和策略一个专用线程，启动时绑定CPU核心并输出放置报告
+     * 默认使用 isolcpus 隔离的核心，没有隔离核心时不绑定
+     */
+    @Bean("eventLoopPlacement")
+    public AffinityThreadPlacement eventLoopPlacement() {
+        return new AffinityThreadPlacement();
+    }
+
     // ==================== 市场数据路径线程池 ====================
 
     /**
@@ -195,15 +209,12 @@ public class ThreadConfig {
     }
 
     /**
-     * IO操作线程池 - 处理网络通信和文件I/O
-     * 使用虚拟线程池(Java 21+)或CachedThreadPool
+     * IO操作执行器 - 处理网关连接/关闭、REST调用和listenKey保活等阻塞I/O
+     * Java 21+ 使用虚拟线程，低版本回退为平台线程池（见 IoExecutors）
      */
-    @Bean("ioExecutorService")
+    @Bean(name = "ioExecutorService", destroyMethod = "shutdown")
     public ExecutorService ioExecutorService() {
-        // Java 21+ 推荐使用虚拟线程
-        // return Executors.newVirtualThreadPerTaskExecutor();
-
-        return new ThreadPoolExecutor(CORE_POOL_SIZE, Integer.MAX_VALUE, 60L, TimeUnit.SECONDS, new java.util.concurrent.SynchronousQueue<>(), ioThreadFactory(), new ThreadPoolExecutor.CallerRunsPolicy());
+        return IoExecutors.newExecutor(IoExecutors.Mode.VIRTUAL, "io-worker-");
     }
 
     /**
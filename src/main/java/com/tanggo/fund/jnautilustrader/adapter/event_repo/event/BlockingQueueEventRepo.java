@@ -31,6 +31,14 @@ public class BlockingQueueEventRepo<T> implements EventRepo<T> {
         }
     }
 
+    /**
+     * 非阻塞接收，队列为空时返回null
+     */
+    @Override
+    public Event<T> poll() {
+        return eventQueue.poll();
+    }
+
     /**
      * 发送事件（添加到队列）
      */
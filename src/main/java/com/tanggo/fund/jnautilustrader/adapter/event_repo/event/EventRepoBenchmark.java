@@ -2,6 +2,8 @@ package com.tanggo.fund.jnautilustrader.adapter.event_repo.event;
 
 import com.tanggo.fund.jnautilustrader.core.entity.Event;
 import com.tanggo.fund.jnautilustrader.core.entity.EventRepo;
+import com.tanggo.fund.jnautilustrader.core.entity.Price;
+import com.tanggo.fund.jnautilustrader.core.entity.Quantity;
 import com.tanggo.fund.jnautilustrader.core.entity.event.data.TradeTick;
 import org.openjdk.jmh.annotations.*;
 import org.openjdk.jmh.infra.Blackhole;
@@ -13,14 +15,14 @@ import java.util.concurrent.TimeUnit;
  *
  * 比较不同事件仓库实现的性能：
  * 1. BlockingQueueEventRepo (LinkedBlockingQueue)
- * 2. CacheAlignedRingBufferEventRepo (环形队列，缓存行对齐)
+ * 2. CacheAlignedRingBufferEventRepo (MPMC环形队列，缓存行填充；SPSC/MPSC变体见 RingBufferEventRepoBenchmark)
  * 3. DisruptorEventRepo (LMAX Disruptor)
  * 4. AdvancedDisruptorEventRepo (高级Disruptor版本)
  *
  * 测试场景：
- * - 单生产者单消费者
- * - 多生产者多消费者
- * - 不同消息大小
+ * - 单线程：同一线程先 send 再 receive，测量单次往返开销
+ * - 生产者/消费者：@Group 固定分配线程角色（1:1 和 2:2），生产者只调用 send，消费者只做非阻塞接收（BlockingQueueEventRepo 用 poll），
+ *   操作数包含未成功的发送/接收尝试，对比时以消费者一侧的得分为准
  *
  * 运行方式：
  * mvn clean install -DskipTests
@@ -34,7 +36,10 @@ import java.util.concurrent.TimeUnit;
 @Fork(1)
 public class EventRepoBenchmark {
 
-    private EventRepo<TradeTick> blockingQueueRepo;
+    // 无界队列的积压上限，消费者跟不上时生产者跳过发送，与有界实现的口径保持一致
+    private static final int BACKLOG_LIMIT = 1024;
+
+    private BlockingQueueEventRepo<TradeTick> blockingQueueRepo;
     private EventRepo<TradeTick> ringBufferRepo;
     private EventRepo<TradeTick> disruptorRepo;
     private EventRepo<TradeTick> advancedDisruptorRepo;
@@ -50,8 +55,8 @@ public class EventRepoBenchmark {
 
         testData = new TradeTick();
         testData.setSymbol("BTCUSDT");
-        testData.setPrice(50000.0);
-        testData.setQuantity(0.001);
+        testData.setPrice(Price.of("50000.00"));
+        testData.setQuantity(Quantity.of("0.001"));
         testData.setTimestampMs(System.currentTimeMillis());
         testData.setBuyerMaker(true);
         testData.setTradeId("12345");
@@ -81,22 +86,6 @@ public class EventRepoBenchmark {
         }
     }
 
-    @Benchmark
-    @Threads(2)
-    public void testBlockingQueueProducerConsumer(Blackhole blackhole) {
-        if (Thread.currentThread().getId() % 2 == 0) {
-            Event<TradeTick> event = new Event<>();
-            event.setType("TEST_EVENT");
-            event.setPayload(testData);
-            blockingQueueRepo.send(event);
-        } else {
-            Event<TradeTick> received = blockingQueueRepo.receive();
-            if (received != null) {
-                blackhole.consume(received);
-            }
-        }
-    }
-
     @Benchmark
     @Threads(1)
     public void testRingBufferSingleProducer(Blackhole blackhole) {
@@ -111,22 +100,6 @@ public class EventRepoBenchmark {
         }
     }
 
-    @Benchmark
-    @Threads(2)
-    public void testRingBufferProducerConsumer(Blackhole blackhole) {
-        if (Thread.currentThread().getId() % 2 == 0) {
-            Event<TradeTick> event = new Event<>();
-            event.setType("TEST_EVENT");
-            event.setPayload(testData);
-            ringBufferRepo.send(event);
-        } else {
-            Event<TradeTick> received = ringBufferRepo.receive();
-            if (received != null) {
-                blackhole.consume(received);
-            }
-        }
-    }
-
     @Benchmark
     @Threads(1)
     public void testDisruptorSingleProducer(Blackhole blackhole) {
@@ -141,22 +114,6 @@ public class EventRepoBenchmark {
         }
     }
 
-    @Benchmark
-    @Threads(2)
-    public void testDisruptorProducerConsumer(Blackhole blackhole) {
-        if (Thread.currentThread().getId() % 2 == 0) {
-            Event<TradeTick> event = new Event<>();
-            event.setType("TEST_EVENT");
-            event.setPayload(testData);
-            disruptorRepo.send(event);
-        } else {
-            Event<TradeTick> received = disruptorRepo.receive();
-            if (received != null) {
-                blackhole.consume(received);
-            }
-        }
-    }
-
     @Benchmark
     @Threads(1)
     public void testAdvancedDisruptorSingleProducer(Blackhole blackhole) {
@@ -171,88 +128,131 @@ public class EventRepoBenchmark {
         }
     }
 
+    // ==================== blockingQueue：1:1 与 2:2 生产者/消费者 ====================
+
+    @Benchmark
+    @Group("blockingQueue1P1C")
+    @GroupThreads(1)
+    public boolean blockingQueue1P1CSend() {
+        return blockingQueueRepo.getQueueSize() < BACKLOG_LIMIT && blockingQueueRepo.send(newEvent());
+    }
+
     @Benchmark
-    @Threads(2)
-    public void testAdvancedDisruptorProducerConsumer(Blackhole blackhole) {
-        if (Thread.currentThread().getId() % 2 == 0) {
-            Event<TradeTick> event = new Event<>();
-            event.setType("TEST_EVENT");
-            event.setPayload(testData);
-            advancedDisruptorRepo.send(event);
-        } else {
-            Event<TradeTick> received = advancedDisruptorRepo.receive();
-            if (received != null) {
-                blackhole.consume(received);
-            }
-        }
+    @Group("blockingQueue1P1C")
+    @GroupThreads(1)
+    public Event<TradeTick> blockingQueue1P1CReceive() {
+        return blockingQueueRepo.poll();
     }
 
     @Benchmark
-    @Threads(4)
-    public void testBlockingQueueMultiProducerConsumer(Blackhole blackhole) {
-        long threadId = Thread.currentThread().getId();
-        if (threadId % 2 == 0) {
-            Event<TradeTick> event = new Event<>();
-            event.setType("TEST_EVENT");
-            event.setPayload(testData);
-            blockingQueueRepo.send(event);
-        } else {
-            Event<TradeTick> received = blockingQueueRepo.receive();
-            if (received != null) {
-                blackhole.consume(received);
-            }
-        }
+    @Group("blockingQueue2P2C")
+    @GroupThreads(2)
+    public boolean blockingQueue2P2CSend() {
+        return blockingQueueRepo.getQueueSize() < BACKLOG_LIMIT && blockingQueueRepo.send(newEvent());
     }
 
     @Benchmark
-    @Threads(4)
-    public void testRingBufferMultiProducerConsumer(Blackhole blackhole) {
-        long threadId = Thread.currentThread().getId();
-        if (threadId % 2 == 0) {
-            Event<TradeTick> event = new Event<>();
-            event.setType("TEST_EVENT");
-            event.setPayload(testData);
-            ringBufferRepo.send(event);
-        } else {
-            Event<TradeTick> received = ringBufferRepo.receive();
-            if (received != null) {
-                blackhole.consume(received);
-            }
-        }
+    @Group("blockingQueue2P2C")
+    @GroupThreads(2)
+    public Event<TradeTick> blockingQueue2P2CReceive() {
+        return blockingQueueRepo.poll();
     }
 
+    // ==================== ringBuffer：1:1 与 2:2 生产者/消费者 ====================
+
     @Benchmark
-    @Threads(4)
-    public void testDisruptorMultiProducerConsumer(Blackhole blackhole) {
-        long threadId = Thread.currentThread().getId();
-        if (threadId % 2 == 0) {
-            Event<TradeTick> event = new Event<>();
-            event.setType("TEST_EVENT");
-            event.setPayload(testData);
-            disruptorRepo.send(event);
-        } else {
-            Event<TradeTick> received = disruptorRepo.receive();
-            if (received != null) {
-                blackhole.consume(received);
-            }
-        }
+    @Group("ringBuffer1P1C")
+    @GroupThreads(1)
+    public boolean ringBuffer1P1CSend() {
+        return ringBufferRepo.send(newEvent());
     }
 
     @Benchmark
-    @Threads(4)
-    public void testAdvancedDisruptorMultiProducerConsumer(Blackhole blackhole) {
-        long threadId = Thread.currentThread().getId();
-        if (threadId % 2 == 0) {
-            Event<TradeTick> event = new Event<>();
-            event.setType("TEST_EVENT");
-            event.setPayload(testData);
-            advancedDisruptorRepo.send(event);
-        } else {
-            Event<TradeTick> received = advancedDisruptorRepo.receive();
-            if (received != null) {
-                blackhole.consume(received);
-            }
-        }
+    @Group("ringBuffer1P1C")
+    @GroupThreads(1)
+    public Event<TradeTick> ringBuffer1P1CReceive() {
+        return ringBufferRepo.receive();
+    }
+
+    @Benchmark
+    @Group("ringBuffer2P2C")
+    @GroupThreads(2)
+    public boolean ringBuffer2P2CSend() {
+        return ringBufferRepo.send(newEvent());
+    }
+
+    @Benchmark
+    @Group("ringBuffer2P2C")
+    @GroupThreads(2)
+    public Event<TradeTick> ringBuffer2P2CReceive() {
+        return ringBufferRepo.receive();
+    }
+
+    // ==================== disruptor：1:1 与 2:2 生产者/消费者 ====================
+
+    @Benchmark
+    @Group("disruptor1P1C")
+    @GroupThreads(1)
+    public boolean disruptor1P1CSend() {
+        return disruptorRepo.send(newEvent());
+    }
+
+    @Benchmark
+    @Group("disruptor1P1C")
+    @GroupThreads(1)
+    public Event<TradeTick> disruptor1P1CReceive() {
+        return disruptorRepo.receive();
+    }
+
+    @Benchmark
+    @Group("disruptor2P2C")
+    @GroupThreads(2)
+    public boolean disruptor2P2CSend() {
+        return disruptorRepo.send(newEvent());
+    }
+
+    @Benchmark
+    @Group("disruptor2P2C")
+    @GroupThreads(2)
+    public Event<TradeTick> disruptor2P2CReceive() {
+        return disruptorRepo.receive();
+    }
+
+    // ==================== advancedDisruptor：1:1 与 2:2 生产者/消费者 ====================
+
+    @Benchmark
+    @Group("advancedDisruptor1P1C")
+    @GroupThreads(1)
+    public boolean advancedDisruptor1P1CSend() {
+        return advancedDisruptorRepo.send(newEvent());
+    }
+
+    @Benchmark
+    @Group("advancedDisruptor1P1C")
+    @GroupThreads(1)
+    public Event<TradeTick> advancedDisruptor1P1CReceive() {
+        return advancedDisruptorRepo.receive();
+    }
+
+    @Benchmark
+    @Group("advancedDisruptor2P2C")
+    @GroupThreads(2)
+    public boolean advancedDisruptor2P2CSend() {
+        return advancedDisruptorRepo.send(newEvent());
+    }
+
+    @Benchmark
+    @Group("advancedDisruptor2P2C")
+    @GroupThreads(2)
+    public Event<TradeTick> advancedDisruptor2P2CReceive() {
+        return advancedDisruptorRepo.receive();
+    }
+
+    private Event<TradeTick> newEvent() {
+        Event<TradeTick> event = new Event<>();
+        event.setType("TEST_EVENT");
+        event.setPayload(testData);
+        return event;
     }
 
     public static void main(String[] args) throws Exception {
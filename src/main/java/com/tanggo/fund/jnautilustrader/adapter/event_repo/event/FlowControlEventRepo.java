@@ -0,0 +1,582 @@
+package com.tanggo.fund.jnautilustrader.adapter.event_repo.event;
+
+import com.tanggo.fund.jnautilustrader.core.entity.Event;
+import com.tanggo.fund.jnautilustrader.core.entity.EventRepo;
+import com.tanggo.fund.jnautilustrader.core.entity.EventType;
+import com.tanggo.fund.jnautilustrader.core.entity.FlowControl;
+import com.tanggo.fund.jnautilustrader.core.entity.InstrumentRegistry;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * 带流量控制的事件仓储装饰器
+ * <p>
+ * 消费者（策略）跟不上行情时，无界队列会无限增长。本装饰器按事件类型（{@link Event#typeCode}）施加策略，限制积压：
+ * <ul>
+ *     <li>{@link Policy#CONFLATE}：按 类型+品种 只保留最新一条（最优报价等可覆盖的数据）。
+ *     队列中每个 类型+品种 最多一个占位事件，消费者取出占位时拿到该品种当前最新的事件，被覆盖的计入合并数；</li>
+ *     <li>{@link Policy#DROP_OLDEST}：每个类型一个有界通道，满了丢弃最旧的一条并计数（成交等只关心近期的数据）；</li>
+ *     <li>{@link Policy#WITHHOLD}（默认）：不丢数据，积压达到高水位时 {@link #tryRequest} 返回false，
+ *     网关停止向WebSocket请求下一条消息，把压力传回交易所；消费到低水位时恢复（深度增量、订单回报等不能丢的数据）。</li>
+ * </ul>
+ * 事件顺序：占位事件保持首次到达的位置，因此合并和丢弃的类型相对其它类型可能提前交付较新的数据，同一 类型+品种 内保持顺序。
+ * <p>
+ * 事件不跨层共享：合并和丢弃最旧的事件转存到本仓储预分配的事件对象中（每个 类型+品种 3个，每个通道容量+1个，首次使用时创建），
+ * 占位和 WITHHOLD 事件写入被装饰仓储申领的槽位，稳态下不分配内存。
+ * {@link #claim()} 返回当前线程的暂存事件，commit 时按类型转存，payload与目标事件交换而不复制，
+ * 因此 payload 工厂（如 {@code MarketData::reusable}）应与被装饰仓储槽位的一致；send 传入的事件只复制payload引用。
+ * 交付的合并/丢弃最旧事件在下一次取出同一 类型+品种（或同一通道）之前有效，与预分配槽位的约定相同。
+ * <p>
+ * 策略和容量在启动前配置；发送方可以多线程，接收方与被装饰的仓储要求一致。
+ *
+ * @param <T> 事件类型参数
+ */
+public class FlowControlEventRepo<T> implements EventRepo<T>, FlowControl {
+
+    /**
+     * 积压处理策略
+     */
+    public enum Policy {
+        /**
+         * 按品种只保留最新
+         */
+        CONFLATE,
+        /**
+         * 有界，丢弃最旧
+         */
+        DROP_OLDEST,
+        /**
+         * 暂停读取上游
+         */
+        WITHHOLD
+    }
+
+    public static final int DEFAULT_HIGH_WATERMARK = 10_000;
+    public static final int DEFAULT_DROP_OLDEST_CAPACITY = 1024;
+    public static final int DEFAULT_MAX_INSTRUMENTS = 4096;
+
+    private final EventRepo<T> delegate;
+    private final Supplier<T> payloadFactory;
+    // 每个发送线程的暂存事件，claim 返回，commit 时转存
+    private final ThreadLocal<StagedEvent<T>> staging;
+
+    private final Policy[] policies = new Policy[EventType.CODE_SPACE];
+    // 合并槽位：类型编号 -> 品种编号 -> 最新事件，只为 CONFLATE 类型分配
+    private final AtomicReferenceArray<AtomicReferenceArray<Conflated<T>>> latest = new AtomicReferenceArray<>(EventType.CODE_SPACE);
+    // 丢弃最旧通道：类型编号 -> 通道，只为 DROP_OLDEST 类型分配
+    private final AtomicReferenceArray<DropOldestLane<T>> lanes = new AtomicReferenceArray<>(EventType.CODE_SPACE);
+
+    private int highWatermark = DEFAULT_HIGH_WATERMARK;
+    private int lowWatermark = DEFAULT_HIGH_WATERMARK / 2;
+    private int dropOldestCapacity = DEFAULT_DROP_OLDEST_CAPACITY;
+    private int maxInstruments = DEFAULT_MAX_INSTRUMENTS;
+
+    // WITHHOLD 类型已发送未消费的事件数
+    private final AtomicLong backlog = new AtomicLong();
+    // 暂停中的上游，消费到低水位时逐个恢复
+    private final Queue<Runnable> paused = new ConcurrentLinkedQueue<>();
+
+    private final AtomicLongArray conflated = new AtomicLongArray(EventType.CODE_SPACE);
+    private final AtomicLongArray dropped = new AtomicLongArray(EventType.CODE_SPACE);
+    private final AtomicLong pauseCount = new AtomicLong();
+
+    public FlowControlEventRepo(EventRepo<T> delegate) {
+        this(delegate, null);
+    }
+
+    /**
+     * @param delegate 被装饰的仓储
+     * @param payloadFactory 为暂存事件和转存用的事件预分配payload，应与被装饰仓储槽位的payload工厂一致；
+     *                       为null时payload由发布方创建
+     */
+    public FlowControlEventRepo(EventRepo<T> delegate, Supplier<T> payloadFactory) {
+        this.delegate = delegate;
+        this.payloadFactory = payloadFactory;
+        this.staging = ThreadLocal.withInitial(() -> new StagedEvent<>(this, newPayload(payloadFactory)));
+        for (int code = 0; code < policies.length; code++) {
+            policies[code] = Policy.WITHHOLD;
+        }
+    }
+
+    // ==================== 配置 ====================
+
+    /**
+     * 设置事件类型的策略
+     *
+     * @param typeName 数据种类（如 "QUOTE_TICK"，作用于所有交易所）或事件类型名称（如 "BINANCE_QUOTE_TICK"）
+     */
+    public void setPolicy(String typeName, Policy policy) {
+        short code = EventType.codeOf(typeName);
+        if (code == EventType.NONE) {
+            throw new IllegalArgumentException("Unknown event type: " + typeName);
+        }
+        if (EventType.venueOf(code) != EventType.VENUE_UNKNOWN) {
+            setPolicy(code, policy);
+            return;
+        }
+        for (int venue = 0; venue << EventType.KIND_BITS < EventType.CODE_SPACE; venue++) {
+            setPolicy(EventType.code(venue, code), policy);
+        }
+    }
+
+    /**
+     * 批量设置策略，供Spring XML配置使用，键同 {@link #setPolicy(String, Policy)}
+     */
+    public void setPolicies(Map<String, Policy> policies) {
+        policies.forEach(this::setPolicy);
+    }
+
+    /**
+     * 设置事件类型编号的策略
+     */
+    public void setPolicy(short typeCode, Policy policy) {
+        policies[typeCode] = policy;
+        if (policy == Policy.CONFLATE && latest.get(typeCode) == null) {
+            latest.set(typeCode, new AtomicReferenceArray<>(maxInstruments));
+        } else if (policy == Policy.DROP_OLDEST && lanes.get(typeCode) == null) {
+            lanes.set(typeCode, new DropOldestLane<>(dropOldestCapacity, payloadFactory));
+        }
+    }
+
+    /**
+     * WITHHOLD 类型积压达到该数量时暂停上游，低水位默认为一半
+     */
+    public void setHighWatermark(int highWatermark) {
+        if (highWatermark <= 0) {
+            throw new IllegalArgumentException("highWatermark must be positive: " + highWatermark);
+        }
+        this.highWatermark = highWatermark;
+        this.lowWatermark = highWatermark / 2;
+    }
+
+    /**
+     * WITHHOLD 类型积压降到该数量时恢复上游
+     */
+    public void setLowWatermark(int lowWatermark) {
+        if (lowWatermark < 0 || lowWatermark >= highWatermark) {
+            throw new IllegalArgumentException("lowWatermark must be in [0, highWatermark): " + lowWatermark);
+        }
+        this.lowWatermark = lowWatermark;
+    }
+
+    /**
+     * DROP_OLDEST 每个类型的通道容量，须在设置策略之前配置
+     */
+    public void setDropOldestCapacity(int dropOldestCapacity) {
+        if (dropOldestCapacity <= 0) {
+            throw new IllegalArgumentException("dropOldestCapacity must be positive: " + dropOldestCapacity);
+        }
+        this.dropOldestCapacity = dropOldestCapacity;
+    }
+
+    /**
+     * CONFLATE 按品种编号分配槽位，编号不小于该值的品种不合并（按 WITHHOLD 处理），须在设置策略之前配置
+     */
+    public void setMaxInstruments(int maxInstruments) {
+        this.maxInstruments = maxInstruments;
+    }
+
+    // ==================== 发送 ====================
+
+    @Override
+    public boolean send(Event<T> event) {
+        return publish(event, false);
+    }
+
+    /**
+     * 返回当前线程的暂存事件，填充后 commit 时按类型转存
+     */
+    @Override
+    public Event<T> claim() {
+        return staging.get();
+    }
+
+    @Override
+    public boolean commit(Event<T> event) {
+        return publish(event, event instanceof StagedEvent && ((StagedEvent<T>) event).owner == this);
+    }
+
+    /**
+     * @param move event 为本仓储的暂存事件：payload与目标事件交换；否则目标事件引用event的payload（WITHHOLD 直接发送event）
+     */
+    private boolean publish(Event<T> event, boolean move) {
+        switch (policyOf(event)) {
+            case CONFLATE:
+                return conflate(event, move);
+            case DROP_OLDEST:
+                return lanes.get(event.typeCode).offer(event, move, delegate, dropped);
+            default:
+                backlog.incrementAndGet();
+                if (move ? delegate.commit(transferToSlot(event)) : delegate.send(event)) {
+                    return true;
+                }
+                backlog.decrementAndGet();
+                return false;
+        }
+    }
+
+    private Event<T> transferToSlot(Event<T> event) {
+        Event<T> slot = delegate.claim();
+        transfer(event, slot, true);
+        return slot;
+    }
+
+    private boolean conflate(Event<T> event, boolean move) {
+        Conflated<T> slot = conflatedSlot(event.typeCode, event.instrumentId);
+        if (slot.stage(event, move)) {
+            // 队列中已有该品种的占位，消费者取出时拿到这条最新的
+            conflated.incrementAndGet(event.typeCode);
+            return true;
+        }
+        if (enqueuePlaceholder(delegate, event)) {
+            return true;
+        }
+        // 占位没有入队，撤销槽位（期间到达的更新一并放弃）
+        slot.discardPending();
+        dropped.incrementAndGet(event.typeCode);
+        return false;
+    }
+
+    private Conflated<T> conflatedSlot(short typeCode, int instrumentId) {
+        AtomicReferenceArray<Conflated<T>> slots = latest.get(typeCode);
+        Conflated<T> slot = slots.get(instrumentId);
+        if (slot == null) {
+            slots.compareAndSet(instrumentId, null, new Conflated<>(payloadFactory));
+            slot = slots.get(instrumentId);
+        }
+        return slot;
+    }
+
+    // ==================== 接收 ====================
+
+    @Override
+    public Event<T> receive() {
+        for (Event<T> event = delegate.receive(); event != null; event = delegate.receive()) {
+            Event<T> resolved = resolve(event);
+            if (resolved != null) {
+                return resolved;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Event<T> poll() {
+        for (Event<T> event = delegate.poll(); event != null; event = delegate.poll()) {
+            Event<T> resolved = resolve(event);
+            if (resolved != null) {
+                return resolved;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 取出的事件按发送时的策略换成实际交付的事件，占位已没有对应事件（发送失败时撤销）时返回null
+     */
+    private Event<T> resolve(Event<T> event) {
+        switch (policyOf(event)) {
+            case CONFLATE:
+                return latest.get(event.typeCode).get(event.instrumentId).take();
+            case DROP_OLDEST:
+                return lanes.get(event.typeCode).poll();
+            default:
+                if (backlog.decrementAndGet() <= lowWatermark && !paused.isEmpty()) {
+                    resumeAll();
+                }
+                return event;
+        }
+    }
+
+    private Policy policyOf(Event<T> event) {
+        int code = event.typeCode;
+        if (code < 0 || code >= policies.length) {
+            return Policy.WITHHOLD;
+        }
+        Policy policy = policies[code];
+        if (policy == Policy.CONFLATE && (event.instrumentId == InstrumentRegistry.UNKNOWN || event.instrumentId >= maxInstruments)) {
+            return Policy.WITHHOLD;
+        }
+        return policy;
+    }
+
+    // ==================== 上游流量控制 ====================
+
+    @Override
+    public boolean tryRequest(Runnable resume) {
+        if (backlog.get() < highWatermark) {
+            return true;
+        }
+        paused.add(resume);
+        // 登记后复查，避免与消费者的恢复检查错过
+        if (backlog.get() <= lowWatermark && paused.remove(resume)) {
+            return true;
+        }
+        pauseCount.incrementAndGet();
+        return false;
+    }
+
+    private void resumeAll() {
+        Runnable resume;
+        while ((resume = paused.poll()) != null) {
+            resume.run();
+        }
+    }
+
+    // ==================== 指标 ====================
+
+    /**
+     * WITHHOLD 类型当前积压的事件数
+     */
+    public long getBacklog() {
+        return backlog.get();
+    }
+
+    /**
+     * 当前暂停读取的上游数
+     */
+    public int getPausedCount() {
+        return paused.size();
+    }
+
+    /**
+     * 累计暂停上游的次数
+     */
+    public long getPauseCount() {
+        return pauseCount.get();
+    }
+
+    /**
+     * 事件类型被合并（覆盖）的事件数
+     */
+    public long getConflatedCount(short typeCode) {
+        return conflated.get(typeCode);
+    }
+
+    /**
+     * 事件类型被丢弃的事件数
+     */
+    public long getDroppedCount(short typeCode) {
+        return dropped.get(typeCode);
+    }
+
+    public long getConflatedCount() {
+        return sum(conflated);
+    }
+
+    public long getDroppedCount() {
+        return sum(dropped);
+    }
+
+    /**
+     * 指标摘要，如 "backlog=12 paused=0 pauses=3 conflated[BINANCE_QUOTE_TICK=120] dropped[BITGET_TRADE_TICK=5]"
+     */
+    public String metrics() {
+        StringBuilder text = new StringBuilder(128);
+        text.append("backlog=").append(backlog.get())
+                .append(" paused=").append(paused.size())
+                .append(" pauses=").append(pauseCount.get());
+        appendCounts(text, " conflated[", conflated);
+        appendCounts(text, " dropped[", dropped);
+        return text.toString();
+    }
+
+    public EventRepo<T> getDelegate() {
+        return delegate;
+    }
+
+    private static long sum(AtomicLongArray counts) {
+        long total = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    private static void appendCounts(StringBuilder text, String label, AtomicLongArray counts) {
+        text.append(label);
+        boolean first = true;
+        for (int code = 0; code < counts.length(); code++) {
+            long count = counts.get(code);
+            if (count != 0) {
+                text.append(first ? "" : " ").append(EventType.name(code)).append('=').append(count);
+                first = false;
+            }
+        }
+        text.append(']');
+    }
+
+    /**
+     * 把event的事件头和payload写入target；move为true时两者交换payload，event得到target原来的（已不再使用的）payload
+     */
+    private static <T> void transfer(Event<T> event, Event<T> target, boolean move) {
+        target.copyHeaderFrom(event);
+        T payload = target.payload;
+        target.payload = event.payload;
+        if (move) {
+            event.payload = payload;
+        }
+    }
+
+    /**
+     * 在被装饰的仓储中放入只含事件头的占位
+     */
+    private static <T> boolean enqueuePlaceholder(EventRepo<T> delegate, Event<T> event) {
+        Event<T> placeholder = delegate.claim();
+        placeholder.copyHeaderFrom(event);
+        return delegate.commit(placeholder);
+    }
+
+    private static <T> Event<T> newEvent(Supplier<T> payloadFactory) {
+        Event<T> event = new Event<>();
+        event.payload = newPayload(payloadFactory);
+        return event;
+    }
+
+    private static <T> T newPayload(Supplier<T> payloadFactory) {
+        return payloadFactory != null ? payloadFactory.get() : null;
+    }
+
+    /**
+     * 发送线程的暂存事件，记录所属仓储以便 commit 时识别
+     */
+    private static final class StagedEvent<T> extends Event<T> {
+        private final FlowControlEventRepo<T> owner;
+
+        private StagedEvent(FlowControlEventRepo<T> owner, T payload) {
+            this.owner = owner;
+            this.payload = payload;
+        }
+    }
+
+    /**
+     * 一个 类型+品种 的合并槽位
+     * <p>
+     * 3个事件对象轮流使用：待交付的最新事件、已交付给消费者（取出下一条同品种事件之前仍在使用）的事件，其余空闲，
+     * 因此写入时总有空闲对象，不会覆盖消费者正在读取的事件。
+     */
+    private static final class Conflated<T> {
+        private final Event<T>[] free;
+        private int freeCount;
+        private Event<T> pending;
+        private Event<T> delivered;
+
+        @SuppressWarnings("unchecked")
+        Conflated(Supplier<T> payloadFactory) {
+            this.free = new Event[3];
+            for (int i = 0; i < free.length; i++) {
+                free[i] = newEvent(payloadFactory);
+            }
+            this.freeCount = free.length;
+        }
+
+        /**
+         * 写入最新事件
+         *
+         * @return 是否覆盖了尚未交付的事件（此时队列中已有占位）
+         */
+        synchronized boolean stage(Event<T> event, boolean move) {
+            Event<T> target = free[--freeCount];
+            transfer(event, target, move);
+            Event<T> previous = pending;
+            pending = target;
+            if (previous == null) {
+                return false;
+            }
+            free[freeCount++] = previous;
+            return true;
+        }
+
+        /**
+         * 取出最新事件交付给消费者，上一次交付的事件回到空闲
+         */
+        synchronized Event<T> take() {
+            Event<T> event = pending;
+            if (event == null) {
+                return null;
+            }
+            pending = null;
+            if (delivered != null) {
+                free[freeCount++] = delivered;
+            }
+            delivered = event;
+            return event;
+        }
+
+        synchronized void discardPending() {
+            if (pending != null) {
+                free[freeCount++] = pending;
+                pending = null;
+            }
+        }
+    }
+
+    /**
+     * 丢弃最旧的有界通道
+     * <p>
+     * 事件转存在通道的事件对象中，被装饰的仓储中只放占位，消费者取出占位时从通道头部取事件；
+     * 通道满时丢弃头部、新事件复用被丢弃事件的对象和占位，因此占位数始终等于通道中的事件数。
+     * 入队占位和写入通道在同一把锁内完成，消费者取出占位后取通道时不会看到空通道。
+     * <p>
+     * 取出时用上一次交付的事件对象替换头部位置，交付的事件在下一次取出本通道之前不会被改写。
+     */
+    private static final class DropOldestLane<T> {
+        private final Event<T>[] ring;
+        private final Supplier<T> payloadFactory;
+        private Event<T> delivered;
+        private int head;
+        private int size;
+
+        @SuppressWarnings("unchecked")
+        DropOldestLane(int capacity, Supplier<T> payloadFactory) {
+            this.ring = new Event[capacity];
+            this.payloadFactory = payloadFactory;
+        }
+
+        synchronized boolean offer(Event<T> event, boolean move, EventRepo<T> delegate, AtomicLongArray dropped) {
+            int tail;
+            if (size == ring.length) {
+                tail = head;
+                head = next(head);
+                size--;
+                dropped.incrementAndGet(event.typeCode);
+            } else {
+                if (!enqueuePlaceholder(delegate, event)) {
+                    return false;
+                }
+                int index = head + size;
+                tail = index >= ring.length ? index - ring.length : index;
+            }
+            Event<T> target = ring[tail];
+            if (target == null) {
+                target = newEvent(payloadFactory);
+                ring[tail] = target;
+            }
+            transfer(event, target, move);
+            size++;
+            return true;
+        }
+
+        synchronized Event<T> poll() {
+            if (size == 0) {
+                return null;
+            }
+            Event<T> event = ring[head];
+            ring[head] = delivered;
+            delivered = event;
+            head = next(head);
+            size--;
+            return event;
+        }
+
+        private int next(int index) {
+            return index + 1 == ring.length ? 0 : index + 1;
+        }
+    }
+}
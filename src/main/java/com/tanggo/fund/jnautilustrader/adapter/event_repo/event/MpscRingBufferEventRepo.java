@@ -0,0 +1,93 @@
+package com.tanggo.fund.jnautilustrader.adapter.event_repo.event;
+
+import com.tanggo.fund.jnautilustrader.core.entity.Event;
+import com.tanggo.fund.jnautilustrader.core.entity.IdleStrategy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 多生产者单消费者环形队列
+ *
+ * 每个槽位带一个序号（Vyukov 有界队列）：
+ * - 槽位序号 == 生产者位置：槽位可写，生产者CAS抢占位置后写入事件，再把槽位序号发布为 位置+1
+ * - 槽位序号 == 消费者位置+1：槽位可读，消费者取出事件后把槽位序号发布为 位置+容量
+ * 生产者只在抢到位置后才写入，抢占失败会重试，不会丢弃事件；消费者只在槽位序号发布后读取，
+ * 不会读到null或旧数据。
+ *
+ * 线程模型：send/put 可由任意多个线程调用，receive 只能由一个线程调用。
+ *
+ * @param <T> 事件类型参数
+ */
+public class MpscRingBufferEventRepo<T> extends PaddedRingBufferEventRepo<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(MpscRingBufferEventRepo.class);
+
+    private final Event<T>[] buffer;
+    private final AtomicLongArray slotSequences;
+
+    public MpscRingBufferEventRepo() {
+        this(DEFAULT_CAPACITY, IdleStrategy.BACKOFF);
+    }
+
+    public MpscRingBufferEventRepo(int capacity) {
+        this(capacity, IdleStrategy.BACKOFF);
+    }
+
+    @SuppressWarnings("unchecked")
+    public MpscRingBufferEventRepo(int capacity, IdleStrategy idleStrategy) {
+        super(capacity, idleStrategy);
+        this.buffer = new Event[this.capacity];
+        this.slotSequences = new AtomicLongArray(this.capacity);
+        for (int i = 0; i < this.capacity; i++) {
+            slotSequences.set(i, i);
+        }
+        logger.info("MpscRingBufferEventRepo initialized with capacity: {}", this.capacity);
+    }
+
+    @Override
+    public Mode getMode() {
+        return Mode.MPSC;
+    }
+
+    @Override
+    public boolean send(Event<T> event) {
+        if (event == null) {
+            return false;
+        }
+        long position = producerPosition.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long diff = slotSequences.get(index) - position;
+            if (diff == 0) {
+                if (producerPosition.compareAndSet(position, position + 1)) {
+                    buffer[index] = event;
+                    slotSequences.lazySet(index, position + 1);
+                    return true;
+                }
+                position = producerPosition.get();
+            } else if (diff < 0) {
+                // 槽位尚未被消费者释放，队列已满
+                return false;
+            } else {
+                // 其他生产者已抢占该位置
+                position = producerPosition.get();
+            }
+        }
+    }
+
+    @Override
+    public Event<T> receive() {
+        long position = consumerPosition.get();
+        int index = (int) (position & mask);
+        if (slotSequences.get(index) != position + 1) {
+            return null;
+        }
+        Event<T> event = buffer[index];
+        buffer[index] = null;  // 帮助GC
+        slotSequences.lazySet(index, position + capacity);
+        consumerPosition.set(position + 1);
+        return event;
+    }
+}
@@ -0,0 +1,214 @@
+package com.tanggo.fund.jnautilustrader.adapter.event_repo.event;
+
+import com.lmax.disruptor.Sequence;
+import com.tanggo.fund.jnautilustrader.core.entity.Event;
+import com.tanggo.fund.jnautilustrader.core.entity.EventRepo;
+import com.tanggo.fund.jnautilustrader.core.entity.IdleStrategy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 缓存行填充的有界环形队列事件仓库基类
+ *
+ * 特点：
+ * - 生产者/消费者位置使用 Disruptor 的 {@link Sequence}（前后各56字节填充），两者不会落在同一缓存行
+ * - 子类按槽位发布：先写入事件，再以 release 语义发布该槽位，消费者看到槽位可读时事件一定已写入
+ * - send 非阻塞，队列满时返回false；put/receive(timeout)/receiveBlocking 按空闲策略等待
+ *
+ * 按生产者/消费者数量选择实现：
+ * - SPSC：{@link SpscRingBufferEventRepo}
+ * - MPSC：{@link MpscRingBufferEventRepo}
+ * - MPMC：{@link CacheAlignedRingBufferEventRepo}
+ *
+ * @param <T> 事件类型参数
+ */
+public abstract class PaddedRingBufferEventRepo<T> implements EventRepo<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaddedRingBufferEventRepo.class);
+
+    // 默认缓冲区大小（必须是2的幂）
+    protected static final int DEFAULT_CAPACITY = 1024;
+
+    /**
+     * 生产者/消费者模式
+     */
+    public enum Mode {
+        SPSC, MPSC, MPMC
+    }
+
+    // 缓冲区大小及掩码，用于快速计算环形索引
+    protected final int capacity;
+    protected final int mask;
+
+    // 生产者位置（下一个要写入的序号）- 缓存行填充
+    protected final Sequence producerPosition = new Sequence(0);
+
+    // 消费者位置（下一个要读取的序号）- 缓存行填充
+    protected final Sequence consumerPosition = new Sequence(0);
+
+    // 阻塞式收发时的空闲策略
+    protected final IdleStrategy idleStrategy;
+
+    protected PaddedRingBufferEventRepo(int capacity, IdleStrategy idleStrategy) {
+        int actualCapacity = 1;
+        while (actualCapacity < capacity) {
+            actualCapacity <<= 1;
+        }
+        this.capacity = actualCapacity;
+        this.mask = actualCapacity - 1;
+        this.idleStrategy = idleStrategy;
+    }
+
+    /**
+     * 按模式创建环形队列
+     *
+     * @param mode 生产者/消费者模式
+     * @param capacity 缓冲区大小，会向上取整为2的幂
+     * @param idleStrategy 阻塞式收发时的空闲策略
+     */
+    public static <T> PaddedRingBufferEventRepo<T> create(Mode mode, int capacity, IdleStrategy idleStrategy) {
+        switch (mode) {
+            case SPSC:
+                return new SpscRingBufferEventRepo<>(capacity, idleStrategy);
+            case MPSC:
+                return new MpscRingBufferEventRepo<>(capacity, idleStrategy);
+            case MPMC:
+                return new CacheAlignedRingBufferEventRepo<>(capacity, idleStrategy);
+            default:
+                throw new IllegalArgumentException("Unsupported ring buffer mode: " + mode);
+        }
+    }
+
+    public abstract Mode getMode();
+
+    /**
+     * 发送事件（非阻塞）
+     *
+     * @return 队列已满时返回false
+     */
+    @Override
+    public abstract boolean send(Event<T> event);
+
+    /**
+     * 接收事件（非阻塞）
+     *
+     * @return 接收到的事件，如果没有事件返回null
+     */
+    @Override
+    public abstract Event<T> receive();
+
+    /**
+     * 阻塞式发送事件，队列满时按空闲策略等待
+     *
+     * @return 线程被中断时返回false
+     */
+    public boolean put(Event<T> event) {
+        int idleCount = 0;
+        while (!send(event)) {
+            if (Thread.currentThread().isInterrupted()) {
+                return false;
+            }
+            idleStrategy.idle(idleCount++);
+        }
+        return true;
+    }
+
+    /**
+     * 阻塞式接收事件（带超时）
+     *
+     * @param timeoutMs 超时时间（毫秒）
+     * @return 接收到的事件，如果超时返回null
+     */
+    public Event<T> receive(long timeoutMs) {
+        long deadline = System.nanoTime() + timeoutMs * 1_000_000L;
+        int idleCount = 0;
+        do {
+            Event<T> event = receive();
+            if (event != null) {
+                return event;
+            }
+            idleStrategy.idle(idleCount++);
+        } while (System.nanoTime() - deadline < 0);
+        return null;
+    }
+
+    /**
+     * 阻塞式接收事件（无限等待）
+     *
+     * @return 接收到的事件，线程被中断时返回null
+     */
+    public Event<T> receiveBlocking() {
+        int idleCount = 0;
+        while (!Thread.currentThread().isInterrupted()) {
+            Event<T> event = receive();
+            if (event != null) {
+                return event;
+            }
+            idleStrategy.idle(idleCount++);
+        }
+        return null;
+    }
+
+    /**
+     * 获取队列大小（并发场景下为近似值）
+     */
+    public int getQueueSize() {
+        long size = producerPosition.get() - consumerPosition.get();
+        if (size < 0) {
+            return 0;
+        }
+        return (int) Math.min(size, capacity);
+    }
+
+    /**
+     * 获取队列容量
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * 获取队列剩余空间
+     */
+    public int getRemainingCapacity() {
+        return capacity - getQueueSize();
+    }
+
+    /**
+     * 检查队列是否为空
+     */
+    public boolean isEmpty() {
+        return getQueueSize() == 0;
+    }
+
+    /**
+     * 检查队列是否已满
+     */
+    public boolean isFull() {
+        return getQueueSize() >= capacity;
+    }
+
+    /**
+     * 清空队列（需在消费者线程调用）
+     */
+    public void clear() {
+        while (receive() != null) {
+            // 逐个释放槽位，保证槽位序号与消费者位置一致
+        }
+    }
+
+    /**
+     * 获取队列使用率（百分比）
+     */
+    public double getUsagePercent() {
+        return (double) getQueueSize() / capacity * 100;
+    }
+
+    /**
+     * 打印调试信息
+     */
+    public void printDebugInfo() {
+        logger.debug("RingBuffer Status: mode={}, size={}/{}, usage={}%",
+                getMode(), getQueueSize(), capacity, String.format("%.1f", getUsagePercent()));
+    }
+}
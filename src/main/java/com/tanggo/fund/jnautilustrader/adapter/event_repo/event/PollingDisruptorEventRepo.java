@@ -0,0 +1,409 @@
+package com.tanggo.fund.jnautilustrader.adapter.event_repo.event;
+
+import com.lmax.disruptor.*;
+import com.lmax.disruptor.dsl.ProducerType;
+import com.tanggo.fund.jnautilustrader.core.entity.Event;
+import com.tanggo.fund.jnautilustrader.core.entity.EventRepo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * 基于 Disruptor RingBuffer 的无丢失事件仓库实现（拉模式）
+ *
+ * 与 DisruptorEventRepo / AdvancedDisruptorEventRepo 的区别：
+ * - 不再通过单个 lastConsumedEvent/currentEvent 槽位中转，消费者直接按序号读取环形缓冲区
+ * - 每个消费者持有独立的 Sequence 并作为 gating sequence 注册到 RingBuffer，
+ *   生产者在缓冲区满时等待最慢的消费者，不会覆盖未读事件
+ * - drainTo 一次处理一批事件，只在批末更新一次消费序号（摊薄序号发布开销），并暴露 endOfBatch
+ * - 支持多个独立消费者（广播语义），每个消费者都会收到全部事件
+ * - 支持 claim/commit：每个槽位预分配一个事件对象（可选预分配payload），生产者就地填充后发布，
+ *   稳态下不产生垃圾。消费者拿到的预分配事件只在下一次 receive/drainTo 调用之前有效，
+ *   需要保留的数据必须自行拷贝
+ *
+ * 线程模型：
+ * - send 可被一个（SINGLE）或多个（MULTI）生产者线程调用
+ * - 每个 Consumer 只能被一个线程使用；仓库自身的 receive/drainTo 使用默认消费者
+ *
+ * @param <T> 事件类型参数
+ */
+public class PollingDisruptorEventRepo<T> implements EventRepo<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(PollingDisruptorEventRepo.class);
+
+    // 默认缓冲区大小（必须是2的幂）
+    private static final int DEFAULT_RING_BUFFER_SIZE = 8192;
+
+    private final RingBuffer<Slot<T>> ringBuffer;
+    private final AtomicBoolean isRunning;
+
+    // 已创建且未移除的消费者（含默认消费者），关闭时逐个唤醒
+    private final List<Consumer> consumers = new CopyOnWriteArrayList<>();
+    // 默认消费者，供 receive()/drainTo() 使用
+    private final Consumer defaultConsumer;
+
+    /**
+     * 批量消费回调
+     */
+    public interface BatchConsumer<T> {
+        /**
+         * @param event 事件
+         * @param sequence 事件在环形缓冲区中的序号
+         * @param endOfBatch 是否为本批次最后一个事件
+         */
+        void onEvent(Event<T> event, long sequence, boolean endOfBatch) throws Exception;
+    }
+
+    /**
+     * 默认构造函数（单生产者、阻塞等待策略）
+     */
+    public PollingDisruptorEventRepo() {
+        this(DEFAULT_RING_BUFFER_SIZE, ProducerType.SINGLE, new BlockingWaitStrategy());
+    }
+
+    /**
+     * 自定义配置构造函数
+     *
+     * @param bufferSize 环形缓冲区大小（必须是2的幂）
+     * @param producerType 生产者类型（SINGLE 或 MULTI）
+     * @param waitStrategy 等待策略（awaitAndDrain 阻塞时使用）
+     */
+    public PollingDisruptorEventRepo(int bufferSize, ProducerType producerType, WaitStrategy waitStrategy) {
+        this(bufferSize, producerType, waitStrategy, null);
+    }
+
+    /**
+     * 预分配payload的构造函数
+     *
+     * @param bufferSize 环形缓冲区大小（必须是2的幂）
+     * @param producerType 生产者类型（SINGLE 或 MULTI）
+     * @param waitStrategy 等待策略（awaitAndDrain 阻塞时使用）
+     * @param payloadFactory 为每个槽位预分配payload（如 TradeTick::new），为null时 claim 返回的事件payload为空
+     */
+    public PollingDisruptorEventRepo(int bufferSize, ProducerType producerType, WaitStrategy waitStrategy,
+                                     Supplier<T> payloadFactory) {
+        this.ringBuffer = RingBuffer.create(producerType,
+                () -> new Slot<>(payloadFactory != null ? payloadFactory.get() : null), bufferSize, waitStrategy);
+        this.isRunning = new AtomicBoolean(true);
+        this.defaultConsumer = newConsumer();
+
+        logger.info("PollingDisruptorEventRepo initialized with: bufferSize={}, producerType={}, waitStrategy={}",
+                bufferSize, producerType, waitStrategy.getClass().getSimpleName());
+    }
+
+    /**
+     * 创建一个新的独立消费者
+     * 消费者从当前游标之后开始消费，应在生产者开始发送之前创建
+     */
+    public Consumer newConsumer() {
+        Consumer consumer = new Consumer();
+        ringBuffer.addGatingSequences(consumer.sequence);
+        consumers.add(consumer);
+        if (!isRunning.get()) {
+            // 关闭后创建的消费者同样不阻塞
+            consumer.barrier.alert();
+        }
+        return consumer;
+    }
+
+    /**
+     * 移除消费者，使其不再阻塞生产者
+     */
+    public void removeConsumer(Consumer consumer) {
+        consumers.remove(consumer);
+        consumer.barrier.alert();
+        ringBuffer.removeGatingSequence(consumer.sequence);
+    }
+
+    /**
+     * 发送事件
+     * 缓冲区满时等待最慢的消费者，保证不丢失事件
+     */
+    @Override
+    public boolean send(Event<T> event) {
+        if (!isRunning.get() || event == null) {
+            logger.warn("Attempting to send event when repo is not running or event is null");
+            return false;
+        }
+
+        long sequence = ringBuffer.next();
+        try {
+            ringBuffer.get(sequence).event = event;
+        } finally {
+            ringBuffer.publish(sequence);
+        }
+        return true;
+    }
+
+    /**
+     * 申领槽位中预分配的事件（缓冲区满时等待最慢的消费者）
+     * 返回的事件及其payload会被复用，生产者应覆盖所有需要的字段后调用 commit
+     * <p>
+     * 仓库已关闭时不占用序号，返回一个不属于任何槽位的新事件，commit 时与 send 一样拒绝
+     */
+    @Override
+    public Event<T> claim() {
+        if (!isRunning.get()) {
+            return new Event<>();
+        }
+        return claimAt(ringBuffer.next());
+    }
+
+    /**
+     * 非阻塞申领：缓冲区满时返回null，不等待消费者；其余同 {@link #claim()}
+     */
+    @Override
+    public Event<T> tryClaim() {
+        if (!isRunning.get()) {
+            return new Event<>();
+        }
+        try {
+            return claimAt(ringBuffer.tryNext());
+        } catch (InsufficientCapacityException e) {
+            return null;
+        }
+    }
+
+    private Event<T> claimAt(long sequence) {
+        Slot<T> slot = ringBuffer.get(sequence);
+        slot.preallocated.sequence = sequence;
+        slot.event = slot.preallocated;
+        return slot.preallocated;
+    }
+
+    /**
+     * 发布 claim 申领的事件；传入非预分配事件时等价于 send
+     */
+    @Override
+    public boolean commit(Event<T> event) {
+        if (event instanceof ClaimedEvent) {
+            ringBuffer.publish(((ClaimedEvent<T>) event).sequence);
+            return true;
+        }
+        return send(event);
+    }
+
+    /**
+     * 尝试发送事件（非阻塞）
+     *
+     * @return 缓冲区已满时返回false
+     */
+    public boolean trySend(Event<T> event) {
+        if (!isRunning.get() || event == null) {
+            return false;
+        }
+
+        long sequence;
+        try {
+            sequence = ringBuffer.tryNext();
+        } catch (InsufficientCapacityException e) {
+            return false;
+        }
+        try {
+            ringBuffer.get(sequence).event = event;
+        } finally {
+            ringBuffer.publish(sequence);
+        }
+        return true;
+    }
+
+    /**
+     * 接收事件（非阻塞，默认消费者）
+     *
+     * @return 接收到的事件，如果没有事件返回null
+     */
+    @Override
+    public Event<T> receive() {
+        return defaultConsumer.receive();
+    }
+
+    /**
+     * 批量消费已发布的事件（非阻塞，默认消费者）
+     */
+    public int drainTo(BatchConsumer<T> consumer, int maxBatch) {
+        return defaultConsumer.drainTo(consumer, maxBatch);
+    }
+
+    /**
+     * 等待至少一个事件后批量消费（默认消费者）
+     */
+    public int awaitAndDrain(BatchConsumer<T> consumer, int maxBatch) {
+        return defaultConsumer.awaitAndDrain(consumer, maxBatch);
+    }
+
+    public Consumer getDefaultConsumer() {
+        return defaultConsumer;
+    }
+
+    /**
+     * 获取容量
+     */
+    public int getCapacity() {
+        return ringBuffer.getBufferSize();
+    }
+
+    /**
+     * 获取剩余空间（相对最慢的消费者）
+     */
+    public long getRemainingCapacity() {
+        return ringBuffer.remainingCapacity();
+    }
+
+    /**
+     * 获取当前生产者序号
+     */
+    public long getCurrentSequence() {
+        return ringBuffer.getCursor();
+    }
+
+    /**
+     * 关闭，唤醒所有阻塞在 awaitAndDrain 上的消费者
+     */
+    public void shutdown() {
+        logger.info("Shutting down PollingDisruptorEventRepo");
+        isRunning.set(false);
+        for (Consumer consumer : consumers) {
+            consumer.barrier.alert();
+        }
+    }
+
+    /**
+     * 环形缓冲区槽位
+     * event 指向本次发布的事件：send 传入的外部事件，或 claim 使用的预分配事件
+     */
+    private static final class Slot<T> {
+        private final ClaimedEvent<T> preallocated;
+        private Event<T> event;
+
+        private Slot(T payload) {
+            this.preallocated = new ClaimedEvent<>(payload);
+        }
+    }
+
+    /**
+     * 预分配的槽位事件，记录申领到的序号以便 commit 时发布
+     */
+    private static final class ClaimedEvent<T> extends Event<T> {
+        private long sequence;
+
+        private ClaimedEvent(T payload) {
+            super(null, payload);
+        }
+    }
+
+    /**
+     * 独立消费者，持有自己的消费序号和序号屏障
+     *
+     * sequence 是对生产者可见的已释放序号，held 是已交给调用方的最新序号。
+     * receive 返回的事件在下一次 receive/drainTo 调用时才释放，保证预分配事件在使用期间不会被生产者覆盖。
+     */
+    public final class Consumer {
+        private final Sequence sequence;
+        private final SequenceBarrier barrier;
+        private long held;
+
+        private Consumer() {
+            this.held = ringBuffer.getCursor();
+            this.sequence = new Sequence(held);
+            this.barrier = ringBuffer.newBarrier();
+        }
+
+        /**
+         * 接收单个事件（非阻塞）
+         * 返回的事件在下一次 receive/drainTo 调用之前有效
+         */
+        public Event<T> receive() {
+            long next = held + 1;
+            if (!ringBuffer.isPublished(next)) {
+                sequence.set(held);
+                return null;
+            }
+            Event<T> event = ringBuffer.get(next).event;
+            sequence.set(held);
+            held = next;
+            return event;
+        }
+
+        /**
+         * 批量消费已发布的事件（非阻塞）
+         *
+         * @param consumer 批量消费回调
+         * @param maxBatch 本次最多消费的事件数
+         * @return 实际消费的事件数
+         */
+        public int drainTo(BatchConsumer<T> consumer, int maxBatch) {
+            long current = held;
+            // 只检查本批次需要的序号，积压很多时不逐个扫描整个环
+            long available = highestPublished(current + 1, Math.min(ringBuffer.getCursor(), current + maxBatch));
+            return process(consumer, current, available, maxBatch);
+        }
+
+        /**
+         * 通过 SequenceBarrier 按等待策略等待至少一个事件，然后批量消费
+         *
+         * @return 实际消费的事件数，仓库关闭或线程中断时返回0
+         */
+        public int awaitAndDrain(BatchConsumer<T> consumer, int maxBatch) {
+            long current = held;
+            sequence.set(current);
+            long available;
+            try {
+                available = barrier.waitFor(current + 1);
+            } catch (AlertException e) {
+                return 0;
+            } catch (TimeoutException e) {
+                return 0;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return 0;
+            }
+            return process(consumer, current, available, maxBatch);
+        }
+
+        /**
+         * 获取未消费的事件数
+         */
+        public long getBacklog() {
+            return ringBuffer.getCursor() - held;
+        }
+
+        /**
+         * 从 lowerBound 开始查找连续已发布的最大序号，不超过 upperBound
+         * 多生产者时游标之前可能存在尚未发布的空洞，需要逐个检查
+         */
+        private long highestPublished(long lowerBound, long upperBound) {
+            for (long sequence = lowerBound; sequence <= upperBound; sequence++) {
+                if (!ringBuffer.isPublished(sequence)) {
+                    return sequence - 1;
+                }
+            }
+            return upperBound;
+        }
+
+        private int process(BatchConsumer<T> consumer, long current, long available, int maxBatch) {
+            if (available <= current) {
+                sequence.set(current);
+                return 0;
+            }
+            long last = Math.min(available, current + maxBatch);
+            long next = current + 1;
+            try {
+                for (; next <= last; next++) {
+                    consumer.onEvent(ringBuffer.get(next).event, next, next == last);
+                }
+            } catch (Exception e) {
+                // 跳过出错的事件，保证后续事件不会被重复投递
+                logger.error("Batch consumer failed at sequence {}: {}", next, e.getMessage(), e);
+                last = next;
+            } finally {
+                held = last;
+                sequence.set(last);
+            }
+            return (int) (last - current);
+        }
+    }
+}
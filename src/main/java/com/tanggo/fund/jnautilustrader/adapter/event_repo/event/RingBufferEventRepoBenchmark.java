@@ -0,0 +1,143 @@
+package com.tanggo.fund.jnautilustrader.adapter.event_repo.event;
+
+import com.tanggo.fund.jnautilustrader.core.entity.Event;
+import com.tanggo.fund.jnautilustrader.core.entity.IdleStrategy;
+import com.tanggo.fund.jnautilustrader.core.entity.Price;
+import com.tanggo.fund.jnautilustrader.core.entity.Quantity;
+import com.tanggo.fund.jnautilustrader.core.entity.event.data.TradeTick;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 环形队列变体性能基准测试
+ *
+ * 比较 SPSC / MPSC / MPMC 环形队列与 BlockingQueueEventRepo 的跨线程吞吐量：
+ * - 每组生产者线程调用 send，消费者线程调用 receive(timeout)（按 idle 参数选择空闲策略）
+ * - BlockingQueueEventRepo 是无界队列，生产者在积压达到相同容量时跳过发送，保证比较口径一致
+ * - 操作数包含未成功的发送/接收尝试，对比时以消费者一侧（received）的得分为准
+ *
+ * 运行方式：
+ * mvn clean install -DskipTests
+ * mvn exec:java -Dexec.mainClass="com.tanggo.fund.jnautilustrader.adapter.event_repo.event.RingBufferEventRepoBenchmark"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Group)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 2, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class RingBufferEventRepoBenchmark {
+
+    private static final int CAPACITY = 1024;
+
+    @Param({"SPIN", "YIELD", "PARK"})
+    public String idle;
+
+    private BlockingQueueEventRepo<TradeTick> blockingQueueRepo;
+    private PaddedRingBufferEventRepo<TradeTick> spscRepo;
+    private PaddedRingBufferEventRepo<TradeTick> mpscRepo;
+    private PaddedRingBufferEventRepo<TradeTick> mpmcRepo;
+
+    private Event<TradeTick> event;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        IdleStrategy idleStrategy = idleStrategy(idle);
+        blockingQueueRepo = new BlockingQueueEventRepo<>();
+        spscRepo = PaddedRingBufferEventRepo.create(PaddedRingBufferEventRepo.Mode.SPSC, CAPACITY, idleStrategy);
+        mpscRepo = PaddedRingBufferEventRepo.create(PaddedRingBufferEventRepo.Mode.MPSC, CAPACITY, idleStrategy);
+        mpmcRepo = PaddedRingBufferEventRepo.create(PaddedRingBufferEventRepo.Mode.MPMC, CAPACITY, idleStrategy);
+
+        TradeTick testData = new TradeTick();
+        testData.setSymbol("BTCUSDT");
+        testData.setPrice(Price.of("50000.00"));
+        testData.setQuantity(Quantity.of("0.001"));
+        testData.setTimestampMs(System.currentTimeMillis());
+        testData.setTradeId("12345");
+        event = new Event<>("TEST_EVENT", testData);
+    }
+
+    private static IdleStrategy idleStrategy(String name) {
+        switch (name) {
+            case "SPIN":
+                return IdleStrategy.SPIN;
+            case "YIELD":
+                return IdleStrategy.YIELD;
+            default:
+                return IdleStrategy.PARK;
+        }
+    }
+
+    // ==================== BlockingQueueEventRepo（1生产者 : 1消费者）====================
+
+    @Benchmark
+    @Group("blockingQueue")
+    @GroupThreads(1)
+    public boolean blockingQueueSend() {
+        return blockingQueueRepo.getQueueSize() < CAPACITY && blockingQueueRepo.send(event);
+    }
+
+    @Benchmark
+    @Group("blockingQueue")
+    @GroupThreads(1)
+    public void blockingQueueReceived(Blackhole blackhole) {
+        // receive() 内部使用 take()，只在有积压时调用，避免迭代结束时消费者永久阻塞
+        if (blockingQueueRepo.getQueueSize() > 0) {
+            blackhole.consume(blockingQueueRepo.receive());
+        }
+    }
+
+    // ==================== SPSC（1生产者 : 1消费者）====================
+
+    @Benchmark
+    @Group("spsc")
+    @GroupThreads(1)
+    public boolean spscSend() {
+        return spscRepo.send(event);
+    }
+
+    @Benchmark
+    @Group("spsc")
+    @GroupThreads(1)
+    public Event<TradeTick> spscReceived() {
+        return spscRepo.receive(1);
+    }
+
+    // ==================== MPSC（2生产者 : 1消费者）====================
+
+    @Benchmark
+    @Group("mpsc")
+    @GroupThreads(2)
+    public boolean mpscSend() {
+        return mpscRepo.send(event);
+    }
+
+    @Benchmark
+    @Group("mpsc")
+    @GroupThreads(1)
+    public Event<TradeTick> mpscReceived() {
+        return mpscRepo.receive(1);
+    }
+
+    // ==================== MPMC（2生产者 : 2消费者）====================
+
+    @Benchmark
+    @Group("mpmc")
+    @GroupThreads(2)
+    public boolean mpmcSend() {
+        return mpmcRepo.send(event);
+    }
+
+    @Benchmark
+    @Group("mpmc")
+    @GroupThreads(2)
+    public Event<TradeTick> mpmcReceived() {
+        return mpmcRepo.receive(1);
+    }
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(args);
+    }
+}
@@ -0,0 +1,67 @@
+package com.tanggo.fund.jnautilustrader.adapter.event_repo.event;
+
+import com.tanggo.fund.jnautilustrader.core.entity.Event;
+import com.tanggo.fund.jnautilustrader.core.entity.EventRepo;
+import com.tanggo.fund.jnautilustrader.core.entity.SignalIdleStrategy;
+
+/**
+ * 发布后唤醒消费者的事件仓储装饰器
+ *
+ * 事件发布成功后调用消费者事件循环的 {@link SignalIdleStrategy#signal()}，
+ * 使用 park-until-signal 空闲策略的策略线程在事件到达时立即醒来，而不是等到下一次定时唤醒。
+ * 接收、申领等其余操作直接委托给被装饰的仓储。
+ *
+ * @param <T> 事件类型参数
+ */
+public class SignallingEventRepo<T> implements EventRepo<T> {
+
+    private final EventRepo<T> delegate;
+    private final SignalIdleStrategy signal;
+
+    public SignallingEventRepo(EventRepo<T> delegate, SignalIdleStrategy signal) {
+        this.delegate = delegate;
+        this.signal = signal;
+    }
+
+    @Override
+    public Event<T> receive() {
+        return delegate.receive();
+    }
+
+    @Override
+    public Event<T> poll() {
+        return delegate.poll();
+    }
+
+    @Override
+    public boolean send(Event<T> event) {
+        if (delegate.send(event)) {
+            signal.signal();
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public Event<T> claim() {
+        return delegate.claim();
+    }
+
+    @Override
+    public Event<T> tryClaim() {
+        return delegate.tryClaim();
+    }
+
+    @Override
+    public boolean commit(Event<T> event) {
+        if (delegate.commit(event)) {
+            signal.signal();
+            return true;
+        }
+        return false;
+    }
+
+    public EventRepo<T> getDelegate() {
+        return delegate;
+    }
+}
@@ -0,0 +1,74 @@
+package com.tanggo.fund.jnautilustrader.adapter.event_repo.event;
+
+import com.tanggo.fund.jnautilustrader.core.entity.Event;
+import com.tanggo.fund.jnautilustrader.core.entity.IdleStrategy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 单生产者单消费者环形队列
+ *
+ * 槽位本身即发布标记：槽位为null表示可写，非null表示可读。
+ * 生产者以 release 语义写入事件，消费者读到非null后以 release 语义清空槽位归还给生产者，
+ * 双方都不需要读取对方的位置，也不需要CAS。
+ *
+ * 线程模型：send/put 只能由一个线程调用，receive 只能由一个线程调用。
+ *
+ * @param <T> 事件类型参数
+ */
+public class SpscRingBufferEventRepo<T> extends PaddedRingBufferEventRepo<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(SpscRingBufferEventRepo.class);
+
+    private final AtomicReferenceArray<Event<T>> slots;
+
+    public SpscRingBufferEventRepo() {
+        this(DEFAULT_CAPACITY, IdleStrategy.BACKOFF);
+    }
+
+    public SpscRingBufferEventRepo(int capacity) {
+        this(capacity, IdleStrategy.BACKOFF);
+    }
+
+    public SpscRingBufferEventRepo(int capacity, IdleStrategy idleStrategy) {
+        super(capacity, idleStrategy);
+        this.slots = new AtomicReferenceArray<>(this.capacity);
+        logger.info("SpscRingBufferEventRepo initialized with capacity: {}", this.capacity);
+    }
+
+    @Override
+    public Mode getMode() {
+        return Mode.SPSC;
+    }
+
+    @Override
+    public boolean send(Event<T> event) {
+        if (event == null) {
+            return false;
+        }
+        long position = producerPosition.get();
+        int index = (int) (position & mask);
+        if (slots.get(index) != null) {
+            // 消费者尚未归还该槽位，队列已满
+            return false;
+        }
+        slots.lazySet(index, event);
+        producerPosition.set(position + 1);
+        return true;
+    }
+
+    @Override
+    public Event<T> receive() {
+        long position = consumerPosition.get();
+        int index = (int) (position & mask);
+        Event<T> event = slots.get(index);
+        if (event == null) {
+            return null;
+        }
+        slots.lazySet(index, null);
+        consumerPosition.set(position + 1);
+        return event;
+    }
+}
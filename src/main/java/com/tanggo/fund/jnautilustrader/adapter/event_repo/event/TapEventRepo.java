@@ -0,0 +1,111 @@
+package com.tanggo.fund.jnautilustrader.adapter.event_repo.event;
+
+import com.tanggo.fund.jnautilustrader.core.entity.Event;
+import com.tanggo.fund.jnautilustrader.core.entity.EventRepo;
+import com.tanggo.fund.jnautilustrader.core.entity.FlowControl;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BinaryOperator;
+
+/**
+ * 旁路复制的事件仓储装饰器
+ *
+ * 事件在旁路仓储（如归档、录制）中非阻塞地申领一个槽位（{@link EventRepo#tryClaim()}），复制事件头和payload后发布，
+ * 旁路满时丢弃并计数，不等待、不影响主路。主路的接收和流量控制直接委托给被装饰的仓储，
+ * 可以装饰在 {@link FlowControlEventRepo} 外层，旁路收到合并和丢弃之前的全部事件。
+ *
+ * claim 直接使用被装饰仓储的槽位；commit 时先复制到旁路再发布到主路，因为主路发布后槽位（或暂存事件的payload）会被复用。
+ * 默认只复制payload引用，旁路与主路共享payload、只能读取；主路复用payload（预分配槽位）时必须设置
+ * {@link #setPayloadCopier}，把payload复制到旁路槽位预分配的payload中，此时整条链路不分配内存。
+ *
+ * @param <T> 事件类型参数
+ */
+public class TapEventRepo<T> implements EventRepo<T>, FlowControl {
+
+    private final EventRepo<T> delegate;
+    private final EventRepo<T> tap;
+    private final FlowControl flowControl;
+    private final AtomicLong tapDropped = new AtomicLong();
+    private BinaryOperator<T> payloadCopier;
+
+    /**
+     * @param delegate 主路仓储
+     * @param tap 旁路仓储，send 必须非阻塞（如 {@link MpscRingBufferEventRepo}）
+     */
+    public TapEventRepo(EventRepo<T> delegate, EventRepo<T> tap) {
+        this.delegate = delegate;
+        this.tap = tap;
+        this.flowControl = FlowControl.of(delegate);
+    }
+
+    /**
+     * 设置payload复制方法：参数为旁路槽位原有的payload和源payload，返回写入旁路槽位的payload
+     * （如 {@code MarketData::copyInto}，原有payload可复用时就地复制）；不设置时共享payload引用
+     */
+    public void setPayloadCopier(BinaryOperator<T> payloadCopier) {
+        this.payloadCopier = payloadCopier;
+    }
+
+    @Override
+    public Event<T> receive() {
+        return delegate.receive();
+    }
+
+    @Override
+    public Event<T> poll() {
+        return delegate.poll();
+    }
+
+    @Override
+    public boolean send(Event<T> event) {
+        if (!delegate.send(event)) {
+            return false;
+        }
+        copyToTap(event);
+        return true;
+    }
+
+    @Override
+    public Event<T> claim() {
+        return delegate.claim();
+    }
+
+    @Override
+    public boolean commit(Event<T> event) {
+        copyToTap(event);
+        return delegate.commit(event);
+    }
+
+    private void copyToTap(Event<T> event) {
+        Event<T> copy = tap.tryClaim();
+        if (copy == null) {
+            tapDropped.incrementAndGet();
+            return;
+        }
+        copy.copyHeaderFrom(event);
+        copy.payload = payloadCopier != null ? payloadCopier.apply(copy.payload, event.payload) : event.payload;
+        if (!tap.commit(copy)) {
+            tapDropped.incrementAndGet();
+        }
+    }
+
+    @Override
+    public boolean tryRequest(Runnable resume) {
+        return flowControl.tryRequest(resume);
+    }
+
+    /**
+     * 旁路满而丢弃的事件数
+     */
+    public long getTapDroppedCount() {
+        return tapDropped.get();
+    }
+
+    public EventRepo<T> getDelegate() {
+        return delegate;
+    }
+
+    public EventRepo<T> getTap() {
+        return tap;
+    }
+}
@@ -0,0 +1,180 @@
+package com.tanggo.fund.jnautilustrader.adapter.event_repo.handler;
+
+import com.tanggo.fund.jnautilustrader.core.entity.Event;
+import com.tanggo.fund.jnautilustrader.core.entity.EventHandler;
+import com.tanggo.fund.jnautilustrader.core.entity.EventHandlerRepo;
+import com.tanggo.fund.jnautilustrader.core.entity.EventType;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 事件处理器仓储实现 - 数组索引分发表
+ *
+ * 注册处理器时把事件类型字符串分配为从0开始的连续整数编号，
+ * 分发时按编号直接索引处理器数组，不再对每个事件做字符串哈希和HashMap查找。
+ * 同一类型可注册多个处理器，按注册顺序依次调用（与 HashMapEventHandlerRepo 的覆盖语义不同）。
+ *
+ * 热路径用法：{@link #dispatch(Event)} 优先使用事件上的 {@link EventType} 编号，经一次数组查找映射到处理器；
+ * 也可以启动时通过 {@link #typeIdOf(String)} 取得编号，之后调用 {@link #dispatch(int, Event)}。
+ * 事件没有类型编号时，先按引用比较已注册的类型名（字符串常量通常是同一实例），未命中再回退到HashMap查找。
+ *
+ * 线程模型：注册在启动阶段完成，分发在单个事件循环线程中进行。
+ */
+public class ArrayEventHandlerRepo<T> implements EventHandlerRepo<T> {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    @SuppressWarnings("rawtypes")
+    private static final EventHandler[] NO_HANDLERS = new EventHandler[0];
+
+    // 类型名 -> 编号（仅注册和回退查找时使用）
+    private final Map<String, Integer> typeIds = new HashMap<>();
+
+    // 编号 -> 类型名
+    private String[] typeNames = new String[INITIAL_CAPACITY];
+
+    // 编号 -> 处理器数组（扇出）
+    private EventHandler<T>[][] handlers;
+
+    // 编号 -> queryBy 返回的处理器（单个处理器时为其本身，多个时为扇出组合）
+    private EventHandler<T>[] combined;
+
+    // EventType 编号 -> 编号（-1 表示该类型没有处理器）
+    private final int[] codeToId = new int[EventType.CODE_SPACE];
+
+    private int typeCount;
+
+    @SuppressWarnings("unchecked")
+    public ArrayEventHandlerRepo() {
+        this.handlers = new EventHandler[INITIAL_CAPACITY][];
+        this.combined = new EventHandler[INITIAL_CAPACITY];
+        Arrays.fill(codeToId, -1);
+    }
+
+    /**
+     * 注册事件类型，返回其编号（已注册则返回原编号）
+     */
+    public int register(String type) {
+        Integer id = typeIds.get(type);
+        if (id != null) {
+            return id;
+        }
+        int newId = typeCount++;
+        if (newId == typeNames.length) {
+            int newLength = typeNames.length * 2;
+            typeNames = Arrays.copyOf(typeNames, newLength);
+            handlers = Arrays.copyOf(handlers, newLength);
+            combined = Arrays.copyOf(combined, newLength);
+        }
+        typeNames[newId] = type;
+        handlers[newId] = emptyHandlers();
+        typeIds.put(type, newId);
+        short code = EventType.codeOf(type);
+        if (code >= 0) {
+            codeToId[code] = newId;
+        }
+        return newId;
+    }
+
+    /**
+     * 获取事件类型编号
+     *
+     * @return 未注册时返回-1
+     */
+    public int typeIdOf(String type) {
+        if (type == null) {
+            return -1;
+        }
+        for (int i = 0; i < typeCount; i++) {
+            if (typeNames[i] == type) {
+                return i;
+            }
+        }
+        Integer id = typeIds.get(type);
+        return id != null ? id : -1;
+    }
+
+    /**
+     * 获取编号对应的事件类型名
+     */
+    public String typeName(int typeId) {
+        return typeNames[typeId];
+    }
+
+    /**
+     * 已注册的事件类型数量
+     */
+    public int getTypeCount() {
+        return typeCount;
+    }
+
+    @Override
+    public EventHandler<T> queryBy(String type) {
+        int typeId = typeIdOf(type);
+        return typeId < 0 ? null : combined[typeId];
+    }
+
+    /**
+     * 按编号获取处理器
+     */
+    public EventHandler<T> queryBy(int typeId) {
+        return typeId < 0 || typeId >= typeCount ? null : combined[typeId];
+    }
+
+    @Override
+    public void addHandler(String type, EventHandler<T> handler) {
+        int typeId = register(type);
+        EventHandler<T>[] current = handlers[typeId];
+        EventHandler<T>[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = handler;
+        handlers[typeId] = updated;
+        combined[typeId] = updated.length == 1 ? handler : fanOut(updated);
+    }
+
+    /**
+     * 按 EventType 编号获取编号
+     *
+     * @return 该类型没有处理器时返回-1
+     */
+    public int typeIdOfCode(int code) {
+        return code >= 0 && code < codeToId.length ? codeToId[code] : -1;
+    }
+
+    @Override
+    public boolean dispatch(Event<T> event) {
+        int code = event.typeCode;
+        int typeId = code >= 0 && code < codeToId.length ? codeToId[code] : typeIdOf(event.type);
+        return dispatch(typeId, event);
+    }
+
+    /**
+     * 按编号分发事件
+     *
+     * @return 是否找到处理器
+     */
+    public boolean dispatch(int typeId, Event<T> event) {
+        if (typeId < 0 || typeId >= typeCount) {
+            return false;
+        }
+        EventHandler<T>[] typeHandlers = handlers[typeId];
+        for (EventHandler<T> handler : typeHandlers) {
+            handler.handle(event);
+        }
+        return typeHandlers.length > 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> EventHandler<T>[] emptyHandlers() {
+        return (EventHandler<T>[]) NO_HANDLERS;
+    }
+
+    private static <T> EventHandler<T> fanOut(EventHandler<T>[] typeHandlers) {
+        return event -> {
+            for (EventHandler<T> handler : typeHandlers) {
+                handler.handle(event);
+            }
+        };
+    }
+}
@@ -0,0 +1,161 @@
+package com.tanggo.fund.jnautilustrader.adapter.event_repo.handler;
+
+import com.tanggo.fund.jnautilustrader.core.entity.Event;
+import com.tanggo.fund.jnautilustrader.core.entity.EventHandler;
+import com.tanggo.fund.jnautilustrader.core.entity.EventType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 事件分发性能基准测试
+ *
+ * 每次操作分发一个事件（按 CrossAppService 注册的 7 种类型轮换），比较每个事件的分发开销：
+ * 1. hashMapQueryBy：HashMapEventHandlerRepo.queryBy(event.type) + handle（原实现）
+ * 2. stringSwitch：按类型字符串 switch（CrossActor 的做法）
+ * 3. codeSwitch：按事件上的 EventType 编号 switch
+ * 4. arrayDispatchByType：ArrayEventHandlerRepo.dispatch(event)，事件携带 EventType 编号，经一次数组查找映射
+ * 5. arrayDispatchById：ArrayEventHandlerRepo.dispatch(typeId, event)，直接数组索引
+ *
+ * 运行方式：
+ * mvn clean install -DskipTests
+ * mvn exec:java -Dexec.mainClass="com.tanggo.fund.jnautilustrader.adapter.event_repo.handler.EventDispatchBenchmark"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class EventDispatchBenchmark {
+
+    private static final String[] TYPES = {
+            "BINANCE_TRADE_TICK", "BINANCE_ORDER_BOOK_DEPTH", "BINANCE_ORDER_BOOK_DELTA", "BINANCE_QUOTE_TICK",
+            "BITGET_TRADE_TICK", "BITGET_ORDER_BOOK_DEPTH", "BITGET_ORDER_BOOK_DELTA"
+    };
+
+    // 事件序列长度（2的幂，便于取模）
+    private static final int EVENT_COUNT = 1024;
+
+    private HashMapEventHandlerRepo<Long> hashMapRepo;
+    private ArrayEventHandlerRepo<Long> arrayRepo;
+
+    @SuppressWarnings("unchecked")
+    private final Event<Long>[] events = new Event[EVENT_COUNT];
+    private final int[] typeIds = new int[EVENT_COUNT];
+    private final long[] counters = new long[TYPES.length];
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        hashMapRepo = new HashMapEventHandlerRepo<>();
+        arrayRepo = new ArrayEventHandlerRepo<>();
+        for (int i = 0; i < TYPES.length; i++) {
+            int slot = i;
+            EventHandler<Long> handler = event -> counters[slot] += event.payload;
+            hashMapRepo.addHandler(TYPES[i], handler);
+            arrayRepo.addHandler(TYPES[i], handler);
+        }
+        for (int i = 0; i < EVENT_COUNT; i++) {
+            // 按固定伪随机序列分布类型，避免分支预测器记住固定轮换
+            int type = (int) ((i * 2654435761L >>> 7) % TYPES.length);
+            events[i] = new Event<>(TYPES[type], 1L);
+            typeIds[i] = arrayRepo.typeIdOf(TYPES[type]);
+        }
+    }
+
+    @Benchmark
+    public void hashMapQueryBy(Blackhole blackhole) {
+        Event<Long> event = next();
+        EventHandler<Long> handler = hashMapRepo.queryBy(event.type);
+        if (handler != null) {
+            handler.handle(event);
+        }
+        blackhole.consume(counters);
+    }
+
+    @Benchmark
+    public void stringSwitch(Blackhole blackhole) {
+        Event<Long> event = next();
+        switch (event.type) {
+            case "BINANCE_TRADE_TICK":
+                counters[0] += event.payload;
+                break;
+            case "BINANCE_ORDER_BOOK_DEPTH":
+                counters[1] += event.payload;
+                break;
+            case "BINANCE_ORDER_BOOK_DELTA":
+                counters[2] += event.payload;
+                break;
+            case "BINANCE_QUOTE_TICK":
+                counters[3] += event.payload;
+                break;
+            case "BITGET_TRADE_TICK":
+                counters[4] += event.payload;
+                break;
+            case "BITGET_ORDER_BOOK_DEPTH":
+                counters[5] += event.payload;
+                break;
+            case "BITGET_ORDER_BOOK_DELTA":
+                counters[6] += event.payload;
+                break;
+            default:
+                break;
+        }
+        blackhole.consume(counters);
+    }
+
+    @Benchmark
+    public void codeSwitch(Blackhole blackhole) {
+        Event<Long> event = next();
+        switch (event.typeCode) {
+            case EventType.BINANCE_TRADE_TICK:
+                counters[0] += event.payload;
+                break;
+            case EventType.BINANCE_ORDER_BOOK_DEPTH:
+                counters[1] += event.payload;
+                break;
+            case EventType.BINANCE_ORDER_BOOK_DELTA:
+                counters[2] += event.payload;
+                break;
+            case EventType.BINANCE_QUOTE_TICK:
+                counters[3] += event.payload;
+                break;
+            case EventType.BITGET_TRADE_TICK:
+                counters[4] += event.payload;
+                break;
+            case EventType.BITGET_ORDER_BOOK_DEPTH:
+                counters[5] += event.payload;
+                break;
+            case EventType.BITGET_ORDER_BOOK_DELTA:
+                counters[6] += event.payload;
+                break;
+            default:
+                break;
+        }
+        blackhole.consume(counters);
+    }
+
+    @Benchmark
+    public boolean arrayDispatchByType() {
+        return arrayRepo.dispatch(next());
+    }
+
+    @Benchmark
+    public boolean arrayDispatchById() {
+        int index = cursor;
+        cursor = (index + 1) & (EVENT_COUNT - 1);
+        return arrayRepo.dispatch(typeIds[index], events[index]);
+    }
+
+    private Event<Long> next() {
+        int index = cursor;
+        cursor = (index + 1) & (EVENT_COUNT - 1);
+        return events[index];
+    }
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(args);
+    }
+}
@@ -0,0 +1,41 @@
+package com.tanggo.fund.jnautilustrader.adapter.event_repo.journal;
+
+import com.tanggo.fund.jnautilustrader.core.entity.InstrumentRegistry;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 日志记录负载的二进制编解码
+ * <p>
+ * 编码直接写入日志的映射内存，先由 {@link #encodedLength} 给出长度再申领空间，写入时不经过中间缓冲；
+ * 所有读写使用绝对下标，不修改缓冲区的position，多个线程可以同时编码到同一个缓冲区的不同区域。
+ */
+public interface JournalCodec<T> {
+
+    /**
+     * 编码后的字节数
+     *
+     * @return 不支持的负载返回-1，此时不写入日志
+     */
+    int encodedLength(T payload);
+
+    /**
+     * 编码到 dst 的 offset 处，写入的字节数必须等于 {@link #encodedLength}
+     */
+    void encode(T payload, ByteBuffer dst, int offset);
+
+    /**
+     * 从 src 的 offset 处解码
+     */
+    T decode(ByteBuffer src, int offset, int length);
+
+    /**
+     * 负载所属品种在当前进程中的编号
+     * <p>
+     * 品种编号按注册顺序分配，进程重启后可能不同；能从负载中取得品种代码的实现应覆盖此方法，
+     * 返回 {@link InstrumentRegistry#UNKNOWN} 时使用写入时记录的编号。
+     */
+    default int instrumentIdOf(T payload) {
+        return InstrumentRegistry.UNKNOWN;
+    }
+}
@@ -0,0 +1,127 @@
+package com.tanggo.fund.jnautilustrader.adapter.event_repo.journal;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 日志读取方
+ * <p>
+ * 持有自己的读取位置，按追加顺序逐条读取已提交的记录；多个读取方互相独立，也不影响写入方。
+ * {@link #next()} 返回true后，当前记录的头部字段和负载可以直接从映射内存读取（{@link #buffer()}、
+ * {@link #payloadOffset()}、{@link #payloadLength()}），读取不复制、不分配对象；下一次 {@link #next()} 前有效。
+ * <p>
+ * 有状态：一个实例只能由一个线程使用。
+ */
+public final class JournalReader {
+
+    private final MappedJournal journal;
+    private final int shift;
+    private final long mask;
+    // 早于该位置的记录跳过不交付（从尾部开始读取时用）
+    private final long deliverFrom;
+
+    private long position;
+    private long segmentIndex = -1;
+    private ByteBuffer segment;
+
+    // 当前记录
+    private int recordOffset;
+    private int frameLength;
+    private long recordPosition = -1;
+
+    JournalReader(MappedJournal journal, long position, long deliverFrom) {
+        this.journal = journal;
+        this.shift = journal.segmentShift();
+        this.mask = journal.segmentMask();
+        this.position = position;
+        this.deliverFrom = deliverFrom;
+    }
+
+    /**
+     * 前进到下一条已提交的记录
+     *
+     * @return 没有新记录时返回false，之后可以再次调用
+     */
+    public boolean next() {
+        while (true) {
+            long index = position >>> shift;
+            if (index != segmentIndex) {
+                ByteBuffer buffer = journal.segmentForRead(index);
+                if (buffer == null) {
+                    return false;
+                }
+                segment = buffer;
+                segmentIndex = index;
+            }
+            int offset = (int) (position & mask);
+            int length = MappedJournal.frameLengthAcquire(segment, offset);
+            if (length == 0) {
+                return false;
+            }
+            long current = position;
+            position += MappedJournal.align(length);
+            if (segment.getShort(offset + MappedJournal.TYPE_OFFSET) == MappedJournal.PADDING_TYPE || current < deliverFrom) {
+                continue;
+            }
+            recordOffset = offset;
+            frameLength = length;
+            recordPosition = current;
+            return true;
+        }
+    }
+
+    /**
+     * 下一条要读取的记录的位置，可用 {@link MappedJournal#reader(long)} 从此处继续读取
+     */
+    public long position() {
+        return position;
+    }
+
+    /**
+     * 当前记录的位置
+     */
+    public long recordPosition() {
+        return recordPosition;
+    }
+
+    public short typeCode() {
+        return segment.getShort(recordOffset + MappedJournal.TYPE_OFFSET);
+    }
+
+    public int instrumentId() {
+        return segment.getInt(recordOffset + MappedJournal.INSTRUMENT_OFFSET);
+    }
+
+    public long receiveNanos() {
+        return segment.getLong(recordOffset + MappedJournal.RECEIVE_OFFSET);
+    }
+
+    public long decodeNanos() {
+        return segment.getLong(recordOffset + MappedJournal.DECODE_OFFSET);
+    }
+
+    public long enqueueNanos() {
+        return segment.getLong(recordOffset + MappedJournal.ENQUEUE_OFFSET);
+    }
+
+    /**
+     * 当前记录所在的映射内存，只能用绝对下标读取
+     */
+    public ByteBuffer buffer() {
+        return segment;
+    }
+
+    public int payloadOffset() {
+        return recordOffset + MappedJournal.HEADER_LENGTH;
+    }
+
+    public int payloadLength() {
+        return frameLength - MappedJournal.HEADER_LENGTH;
+    }
+
+    /**
+     * 用编解码器解码当前记录的负载
+     */
+    public <T> T decode(JournalCodec<T> codec) {
+        return codec.decode(segment, payloadOffset(), payloadLength());
+    }
+}
@@ -0,0 +1,394 @@
+package com.tanggo.fund.jnautilustrader.adapter.event_repo.journal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * 内存映射的追加写事件日志
+ * <p>
+ * 日志由目录下按序号命名的定长分段文件组成（{@code 00000000000000000000.journal} …），写满一个分段后滚动到下一个。
+ * 日志位置是跨分段的逻辑字节偏移：分段序号 = 位置 / 分段大小，分段内偏移 = 位置 % 分段大小。
+ * <p>
+ * 记录布局（小端，8字节对齐）：
+ * <pre>
+ *   0  int   记录长度（含头部，不含对齐填充），写入方最后以release写入，0表示尚未提交
+ *   4  short 事件类型编号，{@link #PADDING_TYPE} 表示分段尾部的填充
+ *   6  short 保留
+ *   8  int   品种编号
+ *  12  int   保留
+ *  16  long  收包时间（纳秒）
+ *  24  long  解析完成时间（纳秒）
+ *  32  long  入队时间（纳秒）
+ *  40  ...   负载，见 {@link JournalCodec}
+ * </pre>
+ * 写入方用一次 {@code getAndAdd} 在尾部申领空间，不加锁，多个线程可以同时写入；申领的空间跨越分段边界时，
+ * 由申领方在两个分段上各写一条填充记录后重新申领。读取方（{@link JournalReader}）各自持有位置，
+ * 以acquire读到非0长度后直接从映射内存读取，互不影响，也不影响写入方。
+ * <p>
+ * 重启时扫描最后一个分段找到第一条未提交的记录作为尾部，并清零其后的空间，写入方从该处继续追加；
+ * 崩溃前已申领但未提交的记录及同一分段中其后已提交的记录会被丢弃。分段文件不会自动删除。
+ */
+public class MappedJournal implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(MappedJournal.class);
+
+    /**
+     * 默认分段大小：256MB
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 256 * 1024 * 1024;
+
+    /**
+     * 填充记录的类型编号
+     */
+    public static final short PADDING_TYPE = Short.MIN_VALUE;
+
+    static final int LENGTH_OFFSET = 0;
+    static final int TYPE_OFFSET = 4;
+    static final int INSTRUMENT_OFFSET = 8;
+    static final int RECEIVE_OFFSET = 16;
+    static final int DECODE_OFFSET = 24;
+    static final int ENQUEUE_OFFSET = 32;
+    static final int HEADER_LENGTH = 40;
+    static final int ALIGNMENT = 8;
+
+    private static final String SUFFIX = ".journal";
+    // 内存中保留映射的最近分段数，更早的分段由读取方按需重新映射
+    private static final int MAPPED_SEGMENTS_RETAINED = 4;
+    // 以release/acquire语义读写映射内存中的记录长度
+    private static final VarHandle INT_VIEW = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int segmentShift;
+    private final long segmentMask;
+    private final long startPosition;
+    private final AtomicLong tail;
+    private final Map<Long, MappedByteBuffer> segments = new ConcurrentHashMap<>();
+    // 最近写入的分段，写入方优先命中它
+    private volatile Segment current;
+    // 上次刷盘后仍可能有未刷写入的最小分段序号；这些分段的映射在刷盘前不会被释放
+    private volatile long unflushedIndex;
+    private volatile boolean closed;
+
+    public MappedJournal(Path directory) {
+        this(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * 打开（或创建）目录下的日志，已有分段时从最后一条提交的记录之后继续追加
+     *
+     * @param segmentSize 分段大小，2的幂
+     */
+    public MappedJournal(Path directory, int segmentSize) {
+        if (segmentSize < 4096 || Integer.bitCount(segmentSize) != 1) {
+            throw new IllegalArgumentException("segmentSize must be a power of two >= 4096: " + segmentSize);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.segmentShift = Integer.numberOfTrailingZeros(segmentSize);
+        this.segmentMask = segmentSize - 1;
+        try {
+            Files.createDirectories(directory);
+            long[] range = segmentRange(directory);
+            this.startPosition = range[0] << segmentShift;
+            if (range[1] > range[0]) {
+                sealPrevious(range[1] - 1);
+            }
+            this.tail = new AtomicLong(recover(range[1]));
+            this.unflushedIndex = tail.get() >>> segmentShift;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open journal " + directory, e);
+        }
+        logger.info("打开事件日志: {} - 起始位置: {}, 尾部位置: {}", directory, startPosition, tail.get());
+    }
+
+    // ==================== 写入 ====================
+
+    /**
+     * 追加一条记录，负载由编解码器直接写入映射内存；可由任意线程并发调用
+     *
+     * @return 记录的位置，负载不受编解码器支持时返回-1
+     */
+    public <T> long append(short typeCode, int instrumentId, long receiveNanos, long decodeNanos, long enqueueNanos,
+                           T payload, JournalCodec<T> codec) {
+        int payloadLength = codec.encodedLength(payload);
+        if (payloadLength < 0) {
+            return -1;
+        }
+        int frameLength = HEADER_LENGTH + payloadLength;
+        int alignedLength = align(frameLength);
+        if (alignedLength > segmentSize) {
+            throw new IllegalArgumentException("Record of " + frameLength + " bytes exceeds segment size " + segmentSize);
+        }
+        while (true) {
+            if (closed) {
+                throw new IllegalStateException("Journal is closed: " + directory);
+            }
+            long position = tail.getAndAdd(alignedLength);
+            long index = position >>> segmentShift;
+            int offset = (int) (position & segmentMask);
+            ByteBuffer buffer = segmentForWrite(index);
+            if (offset + alignedLength <= segmentSize) {
+                buffer.putShort(offset + TYPE_OFFSET, typeCode);
+                buffer.putInt(offset + INSTRUMENT_OFFSET, instrumentId);
+                buffer.putLong(offset + RECEIVE_OFFSET, receiveNanos);
+                buffer.putLong(offset + DECODE_OFFSET, decodeNanos);
+                buffer.putLong(offset + ENQUEUE_OFFSET, enqueueNanos);
+                codec.encode(payload, buffer, offset + HEADER_LENGTH);
+                INT_VIEW.setRelease(buffer, offset + LENGTH_OFFSET, frameLength);
+                return position;
+            }
+            // 跨越分段边界：本段剩余部分和下一段被占用的开头都写成填充，再重新申领
+            writePadding(buffer, offset, segmentSize - offset);
+            writePadding(segmentForWrite(index + 1), 0, offset + alignedLength - segmentSize);
+        }
+    }
+
+    private void writePadding(ByteBuffer buffer, int offset, int length) {
+        buffer.putShort(offset + TYPE_OFFSET, PADDING_TYPE);
+        INT_VIEW.setRelease(buffer, offset + LENGTH_OFFSET, length);
+    }
+
+    /**
+     * 把上次刷盘以来写入过的所有分段刷到磁盘，调用前已提交的记录在返回后持久；
+     * 进程崩溃不丢数据，刷盘只影响操作系统崩溃时的持久性
+     * <p>
+     * 滚动后旧分段的尾部也要刷：从上次刷盘时的分段一直刷到当前分段。前一个分段总是一并刷，
+     * 滚动前申领、滚动后才提交的记录也能覆盖到；没有脏页的分段刷盘开销很小。
+     */
+    public void flush() {
+        Segment segment = current;
+        if (segment == null) {
+            return;
+        }
+        long from = Math.max(startPosition >>> segmentShift, Math.min(unflushedIndex, segment.index - 1));
+        for (long index = from; index <= segment.index; index++) {
+            MappedByteBuffer buffer = segments.get(index);
+            if (buffer != null) {
+                buffer.force();
+            }
+        }
+        unflushedIndex = segment.index;
+    }
+
+    // ==================== 读取 ====================
+
+    /**
+     * 从日志开头读取的读取方
+     */
+    public JournalReader reader() {
+        return new JournalReader(this, startPosition, startPosition);
+    }
+
+    /**
+     * 从当前尾部开始读取的读取方，只读取之后追加的记录
+     */
+    public JournalReader readerAtTail() {
+        // 尾部可能落在跨段申领留下的填充中间，从所在分段开头按记录跳到尾部
+        long position = tail.get();
+        return new JournalReader(this, position & ~segmentMask, position);
+    }
+
+    /**
+     * 从指定位置开始读取的读取方，位置必须是之前读到的记录边界（如 {@link JournalReader#position()}）
+     */
+    public JournalReader reader(long position) {
+        if (position < startPosition || (position & (ALIGNMENT - 1)) != 0) {
+            throw new IllegalArgumentException("Invalid journal position: " + position);
+        }
+        return new JournalReader(this, position, position);
+    }
+
+    /**
+     * 日志中第一条记录的位置
+     */
+    public long getStartPosition() {
+        return startPosition;
+    }
+
+    /**
+     * 尾部位置：下一条记录申领的位置（已申领的记录可能尚未提交）
+     */
+    public long getTailPosition() {
+        return tail.get();
+    }
+
+    public int getSegmentSize() {
+        return segmentSize;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * 读取记录长度，0表示尚未提交
+     */
+    static int frameLengthAcquire(ByteBuffer buffer, int offset) {
+        return (int) INT_VIEW.getAcquire(buffer, offset + LENGTH_OFFSET);
+    }
+
+    static int align(int length) {
+        return (length + ALIGNMENT - 1) & -ALIGNMENT;
+    }
+
+    int segmentShift() {
+        return segmentShift;
+    }
+
+    long segmentMask() {
+        return segmentMask;
+    }
+
+    /**
+     * 分段当前是否由日志持有映射
+     */
+    boolean isMapped(long index) {
+        return segments.containsKey(index);
+    }
+
+    /**
+     * 读取方取得分段，分段文件尚未创建时返回null
+     */
+    ByteBuffer segmentForRead(long index) {
+        MappedByteBuffer buffer = segments.get(index);
+        if (buffer != null) {
+            return buffer;
+        }
+        if (!Files.exists(segmentPath(index))) {
+            return null;
+        }
+        return segments.computeIfAbsent(index, this::map);
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        flush();
+        segments.clear();
+        current = null;
+        logger.info("关闭事件日志: {} - 尾部位置: {}", directory, tail.get());
+    }
+
+    // ==================== 分段管理 ====================
+
+    private ByteBuffer segmentForWrite(long index) {
+        Segment segment = current;
+        if (segment != null && segment.index == index) {
+            return segment.buffer;
+        }
+        MappedByteBuffer buffer = segments.computeIfAbsent(index, this::map);
+        if (segment == null || index > segment.index) {
+            current = new Segment(index, buffer);
+            // 滚动后释放较早分段的映射引用，正在读取的读取方持有自己的引用；尚未刷盘的分段保留到下次刷盘
+            long retainFrom = Math.min(index - MAPPED_SEGMENTS_RETAINED, unflushedIndex - 1);
+            segments.keySet().removeIf(i -> i < retainFrom);
+        }
+        return buffer;
+    }
+
+    private MappedByteBuffer map(long index) {
+        Path path = segmentPath(index);
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            if (file.length() < segmentSize) {
+                file.setLength(segmentSize);
+            }
+            MappedByteBuffer buffer = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            return buffer;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to map journal segment " + path, e);
+        }
+    }
+
+    private Path segmentPath(long index) {
+        return directory.resolve(String.format("%020d%s", index, SUFFIX));
+    }
+
+    /**
+     * 已有分段的序号范围 [最小, 最大]，没有分段时为 [0, -1]
+     */
+    private static long[] segmentRange(Path directory) throws IOException {
+        long min = Long.MAX_VALUE;
+        long max = -1;
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(SUFFIX)) {
+                    long index = Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+                    min = Math.min(min, index);
+                    max = Math.max(max, index);
+                }
+            }
+        }
+        return max < 0 ? new long[]{0, -1} : new long[]{min, max};
+    }
+
+    /**
+     * 扫描最后一个分段，返回第一条未提交记录的位置，并清零其后的空间
+     */
+    private long recover(long lastIndex) {
+        if (lastIndex < 0) {
+            return 0;
+        }
+        MappedByteBuffer buffer = segments.computeIfAbsent(lastIndex, this::map);
+        int offset = 0;
+        while (offset < segmentSize) {
+            int frameLength = frameLengthAcquire(buffer, offset);
+            if (frameLength < ALIGNMENT || offset + frameLength > segmentSize) {
+                break;
+            }
+            offset += align(frameLength);
+        }
+        if (offset == segmentSize) {
+            return (lastIndex + 1) << segmentShift;
+        }
+        for (int i = offset; i < segmentSize; i += Long.BYTES) {
+            buffer.putLong(i, 0);
+        }
+        return (lastIndex << segmentShift) + offset;
+    }
+
+    /**
+     * 倒数第二个分段中崩溃前未提交的记录（跨段申领后另一分段先写入的情况）填充到段尾，读取方不会停在空洞处
+     */
+    private void sealPrevious(long index) {
+        MappedByteBuffer buffer = segments.computeIfAbsent(index, this::map);
+        int offset = 0;
+        while (offset < segmentSize) {
+            int frameLength = frameLengthAcquire(buffer, offset);
+            if (frameLength < ALIGNMENT || offset + frameLength > segmentSize) {
+                writePadding(buffer, offset, segmentSize - offset);
+                return;
+            }
+            offset += align(frameLength);
+        }
+    }
+
+    private static final class Segment {
+        final long index;
+        final MappedByteBuffer buffer;
+
+        Segment(long index, MappedByteBuffer buffer) {
+            this.index = index;
+            this.buffer = buffer;
+        }
+    }
+}
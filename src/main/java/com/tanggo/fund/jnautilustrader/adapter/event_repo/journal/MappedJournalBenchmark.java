@@ -0,0 +1,107 @@
+package com.tanggo.fund.jnautilustrader.adapter.event_repo.journal;
+
+import com.tanggo.fund.jnautilustrader.core.entity.Event;
+import com.tanggo.fund.jnautilustrader.core.entity.EventType;
+import com.tanggo.fund.jnautilustrader.core.entity.MarketData;
+import com.tanggo.fund.jnautilustrader.core.entity.Price;
+import com.tanggo.fund.jnautilustrader.core.entity.Quantity;
+import com.tanggo.fund.jnautilustrader.core.entity.event.data.TradeTick;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 内存映射日志性能基准测试
+ *
+ * 1. append：追加一条成交记录（编码直接写入映射内存），吞吐量即每秒可写入的事件数
+ * 2. appendAndRead：追加后由独立读取方读出头部字段（不解码负载）
+ * 3. appendAndFlush：追加，每 {@link #FLUSH_INTERVAL} 条调用一次 {@link MappedJournal#flush()}（含 msync），
+ *    即带刷盘的持续写入吞吐量
+ *
+ * 日志写在 java.io.tmpdir 下，结果取决于磁盘和页缓存；-Djournal.dir 可指定到NVMe上的目录。
+ * <p>
+ * “本地NVMe上每秒500万条以上”的目标尚未验证：目前只在没有NVMe的虚拟机（ext4，virtio磁盘）上测过，
+ * 数字见提交记录，需要在生产NVMe上以 appendAndFlush 复测。
+ *
+ * 运行方式：
+ * mvn clean install -DskipTests
+ * mvn exec:java -Dexec.mainClass="com.tanggo.fund.jnautilustrader.adapter.event_repo.journal.MappedJournalBenchmark" -Dexec.args="MappedJournalBenchmark"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class MappedJournalBenchmark {
+
+    // appendAndFlush 每追加多少条刷一次盘
+    static final int FLUSH_INTERVAL = 1 << 14;
+
+    private Path directory;
+    private MappedJournalEventRepo<MarketData> repo;
+    private JournalReader reader;
+    private Event<MarketData> event;
+    private int sinceFlush;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        Path parent = Path.of(System.getProperty("journal.dir", System.getProperty("java.io.tmpdir")));
+        directory = Files.createTempDirectory(parent, "journal-bench");
+        repo = new MappedJournalEventRepo<>(directory, new MarketDataJournalCodec());
+        reader = repo.newReaderAtTail();
+
+        TradeTick trade = new TradeTick();
+        trade.symbol = "BTCUSDT";
+        trade.tradeId = "123456789";
+        trade.price = Price.of("65000.12");
+        trade.quantity = Quantity.of("0.003");
+        trade.eventTimeMs = System.currentTimeMillis();
+        trade.tradeTimeMs = trade.eventTimeMs;
+        event = new Event<>(EventType.BINANCE_TRADE_TICK, 1, MarketData.of(trade));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        repo.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.delete(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    @Benchmark
+    public boolean append() {
+        event.receiveNanos = System.nanoTime();
+        return repo.send(event);
+    }
+
+    @Benchmark
+    public boolean appendAndFlush() {
+        event.receiveNanos = System.nanoTime();
+        boolean sent = repo.send(event);
+        if (++sinceFlush == FLUSH_INTERVAL) {
+            sinceFlush = 0;
+            repo.getJournal().flush();
+        }
+        return sent;
+    }
+
+    @Benchmark
+    public long appendAndRead() {
+        event.receiveNanos = System.nanoTime();
+        repo.send(event);
+        return reader.next() ? reader.receiveNanos() : 0;
+    }
+}
@@ -0,0 +1,120 @@
+package com.tanggo.fund.jnautilustrader.adapter.event_repo.journal;
+
+import com.tanggo.fund.jnautilustrader.core.entity.Event;
+import com.tanggo.fund.jnautilustrader.core.entity.EventRepo;
+import com.tanggo.fund.jnautilustrader.core.entity.InstrumentRegistry;
+
+import java.io.Closeable;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * 基于内存映射滚动日志的事件仓储
+ * <p>
+ * send 把事件的类型编号、品种编号、时间戳和编码后的负载追加到 {@link MappedJournal}，
+ * 任意多个线程可以并发发送，不加锁；负载不受编解码器支持时返回false。
+ * 日志落在磁盘上，进程重启后从已有记录之后继续追加，之前的记录仍可读取。
+ * <p>
+ * receive/poll 非阻塞，没有新记录时返回null；它们共用仓储内置的读取方（从日志开头读取），只能由一个线程调用。
+ * 其它消费方用 {@link #newReader()} / {@link #newReaderAtTail()} 取得各自独立的读取方，
+ * 直接在映射内存上读取头部字段，需要时才解码负载。
+ *
+ * @param <T> 事件类型参数
+ */
+public class MappedJournalEventRepo<T> implements EventRepo<T>, Closeable {
+
+    private final MappedJournal journal;
+    private final JournalCodec<T> codec;
+    private final JournalReader reader;
+
+    public MappedJournalEventRepo(String directory, JournalCodec<T> codec) {
+        this(Paths.get(directory), MappedJournal.DEFAULT_SEGMENT_SIZE, codec);
+    }
+
+    public MappedJournalEventRepo(Path directory, JournalCodec<T> codec) {
+        this(directory, MappedJournal.DEFAULT_SEGMENT_SIZE, codec);
+    }
+
+    /**
+     * @param segmentSize 分段大小，2的幂
+     */
+    public MappedJournalEventRepo(Path directory, int segmentSize, JournalCodec<T> codec) {
+        this.journal = new MappedJournal(directory, segmentSize);
+        this.codec = codec;
+        this.reader = journal.reader();
+    }
+
+    @Override
+    public boolean send(Event<T> event) {
+        if (event == null || event.payload == null) {
+            return false;
+        }
+        return journal.append(event.typeCode, event.instrumentId, event.receiveNanos, event.decodeNanos,
+                event.enqueueNanos, event.payload, codec) >= 0;
+    }
+
+    @Override
+    public Event<T> receive() {
+        return poll();
+    }
+
+    @Override
+    public Event<T> poll() {
+        if (!reader.next()) {
+            return null;
+        }
+        return toEvent(reader);
+    }
+
+    /**
+     * 把读取方的当前记录解码为事件
+     * <p>
+     * 品种编号优先按负载中的品种代码重新解析，解析不到时使用记录中的编号。
+     */
+    public Event<T> toEvent(JournalReader source) {
+        T payload = source.decode(codec);
+        int instrumentId = codec.instrumentIdOf(payload);
+        if (instrumentId == InstrumentRegistry.UNKNOWN) {
+            instrumentId = source.instrumentId();
+        }
+        Event<T> event = new Event<>(source.typeCode(), instrumentId, payload);
+        event.receiveNanos = source.receiveNanos();
+        event.decodeNanos = source.decodeNanos();
+        event.enqueueNanos = source.enqueueNanos();
+        return event;
+    }
+
+    /**
+     * 从日志开头读取的独立读取方
+     */
+    public JournalReader newReader() {
+        return journal.reader();
+    }
+
+    /**
+     * 只读取此后追加的记录的独立读取方
+     */
+    public JournalReader newReaderAtTail() {
+        return journal.readerAtTail();
+    }
+
+    public MappedJournal getJournal() {
+        return journal;
+    }
+
+    public JournalCodec<T> getCodec() {
+        return codec;
+    }
+
+    /**
+     * 把映射内存刷到磁盘，进程崩溃不需要刷盘（由操作系统写回），只有防掉电时才需要
+     */
+    public void flush() {
+        journal.flush();
+    }
+
+    @Override
+    public void close() {
+        journal.close();
+    }
+}
@@ -0,0 +1,321 @@
+package com.tanggo.fund.jnautilustrader.adapter.event_repo.journal;
+
+import com.tanggo.fund.jnautilustrader.core.entity.InstrumentRegistry;
+import com.tanggo.fund.jnautilustrader.core.entity.MarketData;
+import com.tanggo.fund.jnautilustrader.core.entity.Price;
+import com.tanggo.fund.jnautilustrader.core.entity.Quantity;
+import com.tanggo.fund.jnautilustrader.core.entity.event.data.*;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 行情数据的日志编解码
+ * <p>
+ * 第一个字节是 {@link MarketData} 的类型编号，之后按类型的固定字段顺序写入（小端）：
+ * <ul>
+ *     <li>字符串：short长度（-1表示null）+ Latin-1字节</li>
+ *     <li>价格/数量：long定点数原始值 + byte精度（-1表示null）</li>
+ *     <li>档位列表：short档数 + 每档价格和数量</li>
+ * </ul>
+ * 支持成交、报价、K线、部分深度和深度增量（{@link OrderBookDeltas}），其它类型返回-1不写入。
+ * 记录中保存品种代码而不是品种编号，进程重启后按代码重新解析编号。
+ */
+public class MarketDataJournalCodec implements JournalCodec<MarketData> {
+
+    private static final int PRICE_BYTES = Long.BYTES + 1;
+
+    @Override
+    public int encodedLength(MarketData data) {
+        Object message = data.getMessage();
+        switch (data.getType()) {
+            case MarketData.TRADE_TICK: {
+                TradeTick trade = (TradeTick) message;
+                return 1 + stringLength(trade.symbol) + stringLength(trade.tradeId) + 2 * PRICE_BYTES + 2 * Long.BYTES + 1;
+            }
+            case MarketData.QUOTE_TICK: {
+                QuoteTick quote = (QuoteTick) message;
+                return 1 + stringLength(quote.getSymbol()) + 4 * PRICE_BYTES + Long.BYTES + 6 * Double.BYTES;
+            }
+            case MarketData.BAR: {
+                Bar bar = (Bar) message;
+                return 1 + stringLength(bar.getSymbol()) + 2 * Long.BYTES + stringLength(bar.getInterval())
+                        + 8 * Double.BYTES + Integer.BYTES + 1;
+            }
+            case MarketData.ORDER_BOOK_DEPTH: {
+                if (!(message instanceof OrderBookDepth10 depth)) {
+                    return -1;
+                }
+                return 1 + stringLength(depth.getSymbol()) + 2 * Long.BYTES + levelsLength(depth.getBids())
+                        + levelsLength(depth.getAsks());
+            }
+            case MarketData.ORDER_BOOK_DELTA: {
+                if (!(message instanceof OrderBookDeltas deltas)) {
+                    return -1;
+                }
+                return 1 + stringLength(deltas.getSymbol()) + 4 * Long.BYTES + levelsLength(deltas.getBids())
+                        + levelsLength(deltas.getAsks());
+            }
+            default:
+                return -1;
+        }
+    }
+
+    @Override
+    public void encode(MarketData data, ByteBuffer dst, int offset) {
+        Object message = data.getMessage();
+        dst.put(offset++, (byte) data.getType());
+        switch (data.getType()) {
+            case MarketData.TRADE_TICK: {
+                TradeTick trade = (TradeTick) message;
+                offset = putString(dst, offset, trade.symbol);
+                offset = putString(dst, offset, trade.tradeId);
+                offset = putPrice(dst, offset, trade.price);
+                offset = putQuantity(dst, offset, trade.quantity);
+                dst.putLong(offset, trade.eventTimeMs);
+                dst.putLong(offset + 8, trade.tradeTimeMs);
+                dst.put(offset + 16, (byte) (trade.isBuyerMaker ? 1 : 0));
+                break;
+            }
+            case MarketData.QUOTE_TICK: {
+                QuoteTick quote = (QuoteTick) message;
+                offset = putString(dst, offset, quote.getSymbol());
+                offset = putPrice(dst, offset, quote.getBidPrice());
+                offset = putQuantity(dst, offset, quote.getBidQuantity());
+                offset = putPrice(dst, offset, quote.getAskPrice());
+                offset = putQuantity(dst, offset, quote.getAskQuantity());
+                dst.putLong(offset, quote.getTimestampMs());
+                dst.putDouble(offset + 8, quote.getOpenPrice());
+                dst.putDouble(offset + 16, quote.getHighPrice());
+                dst.putDouble(offset + 24, quote.getLowPrice());
+                dst.putDouble(offset + 32, quote.getClosePrice());
+                dst.putDouble(offset + 40, quote.getVolume());
+                dst.putDouble(offset + 48, quote.getQuoteVolume());
+                break;
+            }
+            case MarketData.BAR: {
+                Bar bar = (Bar) message;
+                offset = putString(dst, offset, bar.getSymbol());
+                dst.putLong(offset, bar.getOpenTime());
+                dst.putLong(offset + 8, bar.getCloseTime());
+                offset = putString(dst, offset + 16, bar.getInterval());
+                dst.putDouble(offset, bar.getOpenPrice());
+                dst.putDouble(offset + 8, bar.getHighPrice());
+                dst.putDouble(offset + 16, bar.getLowPrice());
+                dst.putDouble(offset + 24, bar.getClosePrice());
+                dst.putDouble(offset + 32, bar.getVolume());
+                dst.putDouble(offset + 40, bar.getQuoteVolume());
+                dst.putDouble(offset + 48, bar.getTakerBuyVolume());
+                dst.putDouble(offset + 56, bar.getTakerBuyQuoteVolume());
+                dst.putInt(offset + 64, bar.getTradeCount());
+                dst.put(offset + 68, (byte) (bar.isClosed() ? 1 : 0));
+                break;
+            }
+            case MarketData.ORDER_BOOK_DEPTH: {
+                OrderBookDepth10 depth = (OrderBookDepth10) message;
+                offset = putString(dst, offset, depth.getSymbol());
+                dst.putLong(offset, depth.getEventTime());
+                dst.putLong(offset + 8, depth.getLastUpdateId());
+                offset = putLevels(dst, offset + 16, depth.getBids());
+                putLevels(dst, offset, depth.getAsks());
+                break;
+            }
+            case MarketData.ORDER_BOOK_DELTA: {
+                OrderBookDeltas deltas = (OrderBookDeltas) message;
+                offset = putString(dst, offset, deltas.getSymbol());
+                dst.putLong(offset, deltas.getEventTime().toEpochMilli());
+                dst.putLong(offset + 8, deltas.getFirstUpdateId());
+                dst.putLong(offset + 16, deltas.getLastUpdateId());
+                dst.putLong(offset + 24, deltas.getPreviousUpdateId());
+                offset = putLevels(dst, offset + 32, deltas.getBids());
+                putLevels(dst, offset, deltas.getAsks());
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("Unsupported market data type: " + data.getType());
+        }
+    }
+
+    @Override
+    public MarketData decode(ByteBuffer src, int offset, int length) {
+        int type = src.get(offset++);
+        int[] cursor = {offset};
+        switch (type) {
+            case MarketData.TRADE_TICK: {
+                TradeTick trade = new TradeTick();
+                trade.symbol = getString(src, cursor);
+                trade.tradeId = getString(src, cursor);
+                trade.price = getPrice(src, cursor);
+                trade.quantity = getQuantity(src, cursor);
+                int at = cursor[0];
+                trade.eventTimeMs = src.getLong(at);
+                trade.tradeTimeMs = src.getLong(at + 8);
+                trade.isBuyerMaker = src.get(at + 16) != 0;
+                return MarketData.of(trade);
+            }
+            case MarketData.QUOTE_TICK: {
+                QuoteTick quote = new QuoteTick();
+                quote.setSymbol(getString(src, cursor));
+                quote.setBidPrice(getPrice(src, cursor));
+                quote.setBidQuantity(getQuantity(src, cursor));
+                quote.setAskPrice(getPrice(src, cursor));
+                quote.setAskQuantity(getQuantity(src, cursor));
+                int at = cursor[0];
+                quote.setTimestampMs(src.getLong(at));
+                quote.setOpenPrice(src.getDouble(at + 8));
+                quote.setHighPrice(src.getDouble(at + 16));
+                quote.setLowPrice(src.getDouble(at + 24));
+                quote.setClosePrice(src.getDouble(at + 32));
+                quote.setVolume(src.getDouble(at + 40));
+                quote.setQuoteVolume(src.getDouble(at + 48));
+                return MarketData.of(quote);
+            }
+            case MarketData.BAR: {
+                Bar bar = new Bar();
+                bar.setSymbol(getString(src, cursor));
+                bar.setOpenTime(src.getLong(cursor[0]));
+                bar.setCloseTime(src.getLong(cursor[0] + 8));
+                cursor[0] += 16;
+                bar.setInterval(getString(src, cursor));
+                int at = cursor[0];
+                bar.setOpenPrice(src.getDouble(at));
+                bar.setHighPrice(src.getDouble(at + 8));
+                bar.setLowPrice(src.getDouble(at + 16));
+                bar.setClosePrice(src.getDouble(at + 24));
+                bar.setVolume(src.getDouble(at + 32));
+                bar.setQuoteVolume(src.getDouble(at + 40));
+                bar.setTakerBuyVolume(src.getDouble(at + 48));
+                bar.setTakerBuyQuoteVolume(src.getDouble(at + 56));
+                bar.setTradeCount(src.getInt(at + 64));
+                bar.setClosed(src.get(at + 68) != 0);
+                return MarketData.of(bar);
+            }
+            case MarketData.ORDER_BOOK_DEPTH: {
+                OrderBookDepth10 depth = new OrderBookDepth10();
+                depth.setSymbol(getString(src, cursor));
+                depth.setEventTime(src.getLong(cursor[0]));
+                depth.setLastUpdateId(src.getLong(cursor[0] + 8));
+                cursor[0] += 16;
+                depth.setBids(getLevels(src, cursor));
+                depth.setAsks(getLevels(src, cursor));
+                return MarketData.of(depth);
+            }
+            case MarketData.ORDER_BOOK_DELTA: {
+                OrderBookDeltas deltas = new OrderBookDeltas();
+                deltas.setSymbol(getString(src, cursor));
+                int at = cursor[0];
+                deltas.setEventTime(src.getLong(at));
+                deltas.setFirstUpdateId(src.getLong(at + 8));
+                deltas.setLastUpdateId(src.getLong(at + 16));
+                deltas.setPreviousUpdateId(src.getLong(at + 24));
+                cursor[0] += 32;
+                deltas.setBids(getLevels(src, cursor));
+                deltas.setAsks(getLevels(src, cursor));
+                return MarketData.of(deltas);
+            }
+            default:
+                throw new IllegalArgumentException("Unsupported market data type in journal: " + type);
+        }
+    }
+
+    @Override
+    public int instrumentIdOf(MarketData payload) {
+        String symbol = payload.symbol();
+        return symbol != null ? InstrumentRegistry.idOf(symbol) : InstrumentRegistry.UNKNOWN;
+    }
+
+    // ==================== 字段编解码 ====================
+
+    private static int stringLength(String value) {
+        return Short.BYTES + (value != null ? value.length() : 0);
+    }
+
+    private static int putString(ByteBuffer dst, int offset, String value) {
+        if (value == null) {
+            dst.putShort(offset, (short) -1);
+            return offset + Short.BYTES;
+        }
+        int length = value.length();
+        dst.putShort(offset, (short) length);
+        offset += Short.BYTES;
+        for (int i = 0; i < length; i++) {
+            dst.put(offset + i, (byte) value.charAt(i));
+        }
+        return offset + length;
+    }
+
+    private static String getString(ByteBuffer src, int[] cursor) {
+        int offset = cursor[0];
+        int length = src.getShort(offset);
+        offset += Short.BYTES;
+        if (length < 0) {
+            cursor[0] = offset;
+            return null;
+        }
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) (src.get(offset + i) & 0xFF);
+        }
+        cursor[0] = offset + length;
+        return new String(chars);
+    }
+
+    private static int putPrice(ByteBuffer dst, int offset, Price price) {
+        dst.putLong(offset, price != null ? price.getRaw() : 0);
+        dst.put(offset + Long.BYTES, (byte) (price != null ? price.getPrecision() : -1));
+        return offset + PRICE_BYTES;
+    }
+
+    private static int putQuantity(ByteBuffer dst, int offset, Quantity quantity) {
+        dst.putLong(offset, quantity != null ? quantity.getRaw() : 0);
+        dst.put(offset + Long.BYTES, (byte) (quantity != null ? quantity.getPrecision() : -1));
+        return offset + PRICE_BYTES;
+    }
+
+    private static Price getPrice(ByteBuffer src, int[] cursor) {
+        int offset = cursor[0];
+        cursor[0] = offset + PRICE_BYTES;
+        int precision = src.get(offset + Long.BYTES);
+        return precision >= 0 ? Price.fromRaw(src.getLong(offset), precision) : null;
+    }
+
+    private static Quantity getQuantity(ByteBuffer src, int[] cursor) {
+        int offset = cursor[0];
+        cursor[0] = offset + PRICE_BYTES;
+        int precision = src.get(offset + Long.BYTES);
+        return precision >= 0 ? Quantity.fromRaw(src.getLong(offset), precision) : null;
+    }
+
+    private static int levelsLength(List<PriceLevel> levels) {
+        return Short.BYTES + (levels != null ? levels.size() * 2 * PRICE_BYTES : 0);
+    }
+
+    private static int putLevels(ByteBuffer dst, int offset, List<PriceLevel> levels) {
+        if (levels == null) {
+            dst.putShort(offset, (short) -1);
+            return offset + Short.BYTES;
+        }
+        dst.putShort(offset, (short) levels.size());
+        offset += Short.BYTES;
+        for (int i = 0, n = levels.size(); i < n; i++) {
+            PriceLevel level = levels.get(i);
+            offset = putPrice(dst, offset, level.getPrice());
+            offset = putQuantity(dst, offset, level.getQuantity());
+        }
+        return offset;
+    }
+
+    private static List<PriceLevel> getLevels(ByteBuffer src, int[] cursor) {
+        int count = src.getShort(cursor[0]);
+        cursor[0] += Short.BYTES;
+        if (count < 0) {
+            return null;
+        }
+        List<PriceLevel> levels = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            levels.add(new PriceLevel(getPrice(src, cursor), getQuantity(src, cursor)));
+        }
+        return levels;
+    }
+}
@@ -0,0 +1,109 @@
+package com.tanggo.fund.jnautilustrader.adapter.mdgw;
+
+import java.nio.CharBuffer;
+import java.util.Arrays;
+
+/**
+ * WebSocket文本消息分片的重组缓冲
+ *
+ * {@link java.net.http.WebSocket.Listener#onText} 的分片直接复制到可复用的字符数组，完整消息交给解析器的
+ * {@code decode(char[], int, int)} 解析，整个过程不创建中间 String：
+ * JDK HttpClient 交付的分片是 {@link CharBuffer}，按绝对位置批量复制，不改变其position也不产生视图对象。
+ * 缓冲按需翻倍扩容，扩容后保留，稳定状态下每条消息零分配。
+ *
+ * 线程模型：非线程安全，每个监听器（连接）一个实例，只在回调线程上使用。
+ */
+public final class FrameAssembler {
+
+    /**
+     * 默认初始容量，覆盖绝大多数行情帧
+     */
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    private char[] buffer;
+    private int length;
+
+    public FrameAssembler() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public FrameAssembler(int initialCapacity) {
+        this.buffer = new char[Math.max(16, initialCapacity)];
+    }
+
+    /**
+     * 追加一个分片
+     */
+    public void append(CharSequence fragment) {
+        int count = fragment.length();
+        ensureCapacity(length + count);
+        if (fragment instanceof CharBuffer) {
+            CharBuffer chars = (CharBuffer) fragment;
+            chars.get(chars.position(), buffer, length, count);
+        } else if (fragment instanceof String) {
+            ((String) fragment).getChars(0, count, buffer, length);
+        } else if (fragment instanceof StringBuilder) {
+            ((StringBuilder) fragment).getChars(0, count, buffer, length);
+        } else {
+            for (int i = 0; i < count; i++) {
+                buffer[length + i] = fragment.charAt(i);
+            }
+        }
+        length += count;
+    }
+
+    /**
+     * 内部缓冲，有效内容为 [0, {@link #length()})，下次 {@link #append} 或 {@link #reset()} 后失效
+     */
+    public char[] buffer() {
+        return buffer;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    /**
+     * 清空内容，保留已扩容的缓冲
+     */
+    public void reset() {
+        length = 0;
+    }
+
+    /**
+     * 当前内容是否以指定前缀开头（用于在解析前识别应答、心跳等非行情消息）
+     */
+    public boolean startsWith(String prefix) {
+        int count = prefix.length();
+        if (count > length) {
+            return false;
+        }
+        for (int i = 0; i < count; i++) {
+            if (buffer[i] != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 当前内容是否等于指定文本
+     */
+    public boolean contentEquals(String text) {
+        return text.length() == length && startsWith(text);
+    }
+
+    /**
+     * 当前内容的字符串副本，只用于日志、错误等非热路径
+     */
+    @Override
+    public String toString() {
+        return new String(buffer, 0, length);
+    }
+
+    private void ensureCapacity(int required) {
+        if (required > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(required, buffer.length << 1));
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.tanggo.fund.jnautilustrader.adapter.mdgw;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 录制的WebSocket行情帧
+ *
+ * 类路径资源，每行一条完整的WebSocket文本消息（空行和#开头的行忽略），
+ * 供解析器基准测试、一致性测试和回放使用。
+ */
+public final class RecordedFrames {
+
+    /**
+     * 币安组合流录制帧（bookTicker、trade、aggTrade、depth10、depthUpdate）
+     */
+    public static final String BINANCE_COMBINED = "/frames/binance-combined.jsonl";
+
+    /**
+     * 币安增量深度录制数据：两次REST深度快照和一组 depthUpdate 组合流帧（含一次跳号）
+     */
+    public static final String BINANCE_DIFF_DEPTH = "/frames/binance-diff-depth.jsonl";
+
+    /**
+     * Bitget现货公共频道录制帧（订阅确认、trade、books）
+     */
+    public static final String BITGET_SPOT = "/frames/bitget-spot.jsonl";
+
+    private RecordedFrames() {
+    }
+
+    /**
+     * 加载录制帧
+     *
+     * @param resource 类路径资源名称
+     */
+    public static List<String> load(String resource) {
+        InputStream in = RecordedFrames.class.getResourceAsStream(resource);
+        if (in == null) {
+            throw new IllegalArgumentException("Recorded frames not found: " + resource);
+        }
+        List<String> frames = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank() && !line.startsWith("#")) {
+                    frames.add(line);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load recorded frames: " + resource, e);
+        }
+        return frames;
+    }
+}
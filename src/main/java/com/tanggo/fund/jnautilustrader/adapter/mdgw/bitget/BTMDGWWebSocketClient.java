@@ -1,11 +1,24 @@
 package com.tanggo.fund.jnautilustrader.adapter.mdgw.bitget;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.tanggo.fund.jnautilustrader.adapter.event_repo.event.BlockingQueueEventRepo;
+import com.tanggo.fund.jnautilustrader.adapter.mdgw.FrameAssembler;
+import com.tanggo.fund.jnautilustrader.core.actor.EventLoop;
+import com.tanggo.fund.jnautilustrader.core.actor.LatencyRecorder;
+import com.tanggo.fund.jnautilustrader.core.actor.Reconnector;
+import com.tanggo.fund.jnautilustrader.core.actor.ThreadPlacement;
 import com.tanggo.fund.jnautilustrader.core.entity.Actor;
 import com.tanggo.fund.jnautilustrader.core.entity.Event;
+import com.tanggo.fund.jnautilustrader.core.entity.EventRepo;
+import com.tanggo.fund.jnautilustrader.core.entity.EventType;
+import com.tanggo.fund.jnautilustrader.core.entity.FlowControl;
+import com.tanggo.fund.jnautilustrader.core.entity.InstrumentRegistry;
 import com.tanggo.fund.jnautilustrader.core.entity.MarketData;
+import com.tanggo.fund.jnautilustrader.core.entity.Price;
+import com.tanggo.fund.jnautilustrader.core.entity.Quantity;
+import com.tanggo.fund.jnautilustrader.core.entity.SignalIdleStrategy;
+import com.tanggo.fund.jnautilustrader.core.entity.book.TopOfBookCache;
 import com.tanggo.fund.jnautilustrader.core.entity.event.data.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -14,48 +27,75 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.http.HttpClient;
 import java.net.http.WebSocket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.Set;
 import java.util.concurrent.CompletionStage;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * Bitget WebSocket客户端 - 订阅实时交易数据
+ * <p>
+ * 连接、重连退避、ping保活、心跳检查和订阅变更都在网关自己的事件循环线程上执行，由循环的时间轮驱动；
+ * 行情消息仍在WebSocket回调线程中解析并发送到仓储。
+ * 订阅的品种可配置，运行时通过 {@link #subscribe(String...)} / {@link #unsubscribe(String...)} 发送 subscribe/unsubscribe 请求增减品种，
+ * 重连后按当前全部品种重新订阅。
+ * 仓储支持 {@link FlowControl} 时，积压期间暂停 request(1)，消化后恢复。
  */
 public class BTMDGWWebSocketClient implements Actor {
 
     private static final Logger logger = LoggerFactory.getLogger(BTMDGWWebSocketClient.class);
     // Bitget WebSocket API地址 - 同时订阅交易、订单簿深度和增量更新
     private static final String BITGET_WS_URL = "wss://ws.bitget.com/v2/ws/public";
-    // 重连间隔（秒）
-    private static final int RECONNECT_DELAY = 5;
+    // ping间隔（纳秒），Bitget要求客户端每30秒内发送一次ping，否则断开连接
+    private static final long PING_INTERVAL_NANOS = 25_000_000_000L;
+    // 心跳检查间隔（纳秒）
+    private static final long HEARTBEAT_CHECK_NANOS = 5_000_000_000L;
+    // 超过该时间没有收到任何消息（包括pong）视为连接失效（纳秒）
+    private static final long STALE_TIMEOUT_NANOS = 60_000_000_000L;
+    private static final String PING = "ping";
+    private static final String PONG = "pong";
+    // Bitget 单个连接最多订阅1000个频道
+    private static final int MAX_CHANNELS_PER_CONNECTION = 1000;
+    private static final int CHANNELS_PER_SYMBOL = 2;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
-    private BlockingQueueEventRepo<MarketData> mdEventRepo;
-    private ScheduledExecutorService timerExecutorService;
-    private WebSocket webSocket;
-    private volatile boolean reconnecting = false;
+    private EventRepo<MarketData> mdEventRepo;
+    // 仓储积压时暂停 request(1)
+    private FlowControl flowControl = FlowControl.UNBOUNDED;
+    // 最优买卖价缓存，可选
+    private volatile TopOfBookCache topOfBookCache;
+    private volatile LatencyRecorder latencyRecorder = LatencyRecorder.DISABLED;
+    private final EventLoop eventLoop;
+    private final Reconnector reconnector;
+    private volatile WebSocket webSocket;
+    // 最近一次收到消息的时间，WebSocket回调线程写入，心跳检查读取
+    private volatile long lastMessageNanos;
+    private List<String> symbols = List.of("BTCUSDT");
+    // 其它线程提交的订阅变更，由事件循环执行
+    private final Queue<Runnable> commands = new ConcurrentLinkedQueue<>();
+    // 当前订阅的品种，仅事件循环线程访问
+    private final Set<String> subscribed = new LinkedHashSet<>();
 
     /**
      * 无参构造函数 - Spring需要
      */
     public BTMDGWWebSocketClient() {
-        this.reconnecting = false;
+        this.eventLoop = new EventLoop("bt-md-gateway", this::doWork, new SignalIdleStrategy());
+        this.reconnector = new Reconnector("Bitget market data", eventLoop, this::connect);
     }
 
     /**
      * 构造函数 - 用于注入依赖
      */
-    public BTMDGWWebSocketClient(BlockingQueueEventRepo<MarketData> mdEventRepo) {
+    public BTMDGWWebSocketClient(EventRepo<MarketData> mdEventRepo) {
         this();
         this.mdEventRepo = mdEventRepo;
-    }
-
-    /**
-     * 构造函数 - 包含所有依赖
-     */
-    public BTMDGWWebSocketClient(BlockingQueueEventRepo<MarketData> mdEventRepo, ScheduledExecutorService timerExecutorService) {
-        this(mdEventRepo);
-        this.timerExecutorService = timerExecutorService;
+        this.flowControl = FlowControl.of(mdEventRepo);
     }
 
 
@@ -71,42 +111,172 @@ public class BTMDGWWebSocketClient implements Actor {
         try {
             URI uri = new URI(BITGET_WS_URL);
             HttpClient client = HttpClient.newBuilder().connectTimeout(java.time.Duration.ofSeconds(10)).build();
+            lastMessageNanos = System.nanoTime();
             webSocket = client.newWebSocketBuilder().connectTimeout(java.time.Duration.ofSeconds(10)).buildAsync(uri, new WebSocketListener()).join();
 
             logger.info("Connected to Bitget WebSocket: {}", BITGET_WS_URL);
 
-            // 订阅BTC/USDT现货的交易和订单簿深度数据
+            // 订阅全部品种的交易和订单簿深度数据
             subscribeToMarkets();
+            reconnector.reset();
         } catch (URISyntaxException e) {
             logger.error("Invalid Bitget WebSocket URL: {}", e.getMessage(), e);
         } catch (Exception e) {
             logger.error("Failed to connect to Bitget WebSocket: {}", e.getMessage(), e);
-            scheduleReconnect();
+            reconnector.request();
         }
     }
 
     /**
-     * 订阅市场数据
+     * 事件循环工作：执行订阅变更和重连请求，连接、ping和心跳检查由定时器执行
+     */
+    private int doWork() {
+        int work = reconnector.poll();
+        Runnable command;
+        while ((command = commands.poll()) != null) {
+            command.run();
+            work++;
+        }
+        return work;
+    }
+
+    /**
+     * 订阅品种的交易和订单簿深度；可从任意线程调用，由事件循环执行
+     *
+     * @param symbols 品种，如 BTCUSDT（大小写不限）
+     */
+    public void subscribe(String... symbols) {
+        List<String> copy = normalize(Arrays.asList(symbols));
+        commands.add(() -> applySubscription("subscribe", copy));
+        eventLoop.wakeup();
+    }
+
+    /**
+     * 退订品种；可从任意线程调用，由事件循环执行
+     */
+    public void unsubscribe(String... symbols) {
+        List<String> copy = normalize(Arrays.asList(symbols));
+        commands.add(() -> applySubscription("unsubscribe", copy));
+        eventLoop.wakeup();
+    }
+
+    private void applySubscription(String op, List<String> symbols) {
+        List<String> changed = new ArrayList<>();
+        for (String symbol : symbols) {
+            if ("subscribe".equals(op)) {
+                if (subscribed.contains(symbol)) {
+                    continue;
+                }
+                if ((subscribed.size() + 1) * CHANNELS_PER_SYMBOL > MAX_CHANNELS_PER_CONNECTION) {
+                    logger.warn("Bitget subscription limit reached ({} channels), ignoring {}", MAX_CHANNELS_PER_CONNECTION, symbol);
+                    continue;
+                }
+                subscribed.add(symbol);
+            } else if (!subscribed.remove(symbol)) {
+                continue;
+            }
+            changed.add(symbol);
+        }
+        // 未连接时只更新品种集合，连接建立后按全部品种订阅
+        if (!changed.isEmpty() && webSocket != null) {
+            sendSubscription(op, changed);
+        }
+    }
+
+    /**
+     * 发送ping保活
+     */
+    private void sendPing() {
+        WebSocket current = webSocket;
+        if (current != null) {
+            current.sendText(PING, true);
+        }
+    }
+
+    /**
+     * 心跳检查：长时间没有消息（包括pong）时中断连接并重连
+     */
+    private void checkHeartbeat() {
+        WebSocket current = webSocket;
+        if (current == null) {
+            return;
+        }
+        long silentNanos = System.nanoTime() - lastMessageNanos;
+        if (silentNanos > STALE_TIMEOUT_NANOS) {
+            logger.warn("No Bitget WebSocket message for {} ms, reconnecting", silentNanos / 1_000_000L);
+            webSocket = null;
+            current.abort();
+            reconnector.request();
+        }
+    }
+
+    /**
+     * 订阅当前全部品种的市场数据
      */
     private void subscribeToMarkets() {
+        if (!subscribed.isEmpty()) {
+            sendSubscription("subscribe", new ArrayList<>(subscribed));
+        }
+    }
+
+    /**
+     * 发送订阅或退订请求：每个品种的交易和10档订单簿深度频道
+     */
+    private void sendSubscription(String op, List<String> symbols) {
+        StringBuilder msg = new StringBuilder(64 + symbols.size() * 128);
+        msg.append("{\"op\":\"").append(op).append("\",\"args\":[");
+        for (int i = 0; i < symbols.size(); i++) {
+            if (i > 0) {
+                msg.append(',');
+            }
+            String symbol = symbols.get(i);
+            msg.append("{\"instType\":\"SPOT\",\"instId\":\"").append(symbol).append("\",\"channel\":\"trade\"},");
+            msg.append("{\"instType\":\"SPOT\",\"instId\":\"").append(symbol).append("\",\"channel\":\"books\",\"sz\":\"10\"}");
+        }
+        msg.append("]}");
         try {
-            String subscribeMsg = "{\n" + "    \"op\": \"subscribe\",\n" + "    \"args\": [\n" + "        {\n" + "            \"instType\": \"SPOT\",\n" + "            \"instId\": \"BTCUSDT\",\n" + "            \"channel\": \"trade\"\n" + "        },\n" + "        {\n" + "            \"instType\": \"SPOT\",\n" + "            \"instId\": \"BTCUSDT\",\n" + "            \"channel\": \"books\",\n" + "            \"sz\": \"10\"\n" + "        }\n" + "    ]\n" + "}";
-            webSocket.sendText(subscribeMsg, true);
-            logger.info("Subscribed to Bitget market data channels");
+            webSocket.sendText(msg.toString(), true);
+            logger.info("Sent Bitget {} for {} symbols", op, symbols.size());
         } catch (Exception e) {
-            logger.error("Failed to subscribe to Bitget market data: {}", e.getMessage(), e);
+            logger.error("Failed to {} Bitget market data: {}", op, e.getMessage(), e);
         }
     }
 
+    private static List<String> normalize(List<String> symbols) {
+        List<String> normalized = new ArrayList<>(symbols.size());
+        for (String symbol : symbols) {
+            normalized.add(symbol.trim().toUpperCase(Locale.ROOT));
+        }
+        return normalized;
+    }
+
+    /**
+     * 设置启动时订阅的品种，需在 start_link 之前调用
+     */
+    public void setSymbols(List<String> symbols) {
+        this.symbols = normalize(symbols);
+    }
+
+    /**
+     * 设置延迟记录，记录收到消息到解析完成、解析完成到发送到仓储两个阶段
+     */
+    public void setLatencyRecorder(LatencyRecorder latencyRecorder) {
+        this.latencyRecorder = latencyRecorder;
+    }
+
+    /**
+     * 设置最优买卖价缓存，报价和部分深度在发送到仓储前写入缓存
+     */
+    public void setTopOfBookCache(TopOfBookCache topOfBookCache) {
+        this.topOfBookCache = topOfBookCache;
+    }
+
     /**
      * 关闭WebSocket连接
      */
 
     private void destroy() {
-        // 只关闭自己创建的调度器
-        if (timerExecutorService != null) {
-            timerExecutorService.shutdown();
-        }
+        eventLoop.stop();
         if (webSocket != null) {
             try {
                 webSocket.sendClose(WebSocket.NORMAL_CLOSURE, "Shutdown").join();
@@ -118,26 +288,20 @@ public class BTMDGWWebSocketClient implements Actor {
     }
 
     /**
-     * 调度重连
+     * 设置网关事件循环的线程放置策略（如CPU绑定），需在 start_link 之前调用
      */
-    private void scheduleReconnect() {
-        if (reconnecting) {
-            return;
-        }
-
-        reconnecting = true;
-        logger.info("Scheduling reconnection in {} seconds", RECONNECT_DELAY);
-        timerExecutorService.schedule(() -> {
-            reconnecting = false;
-            logger.info("Attempting to reconnect to Bitget WebSocket");
-            connect();
-        }, RECONNECT_DELAY, TimeUnit.SECONDS);
+    public void setThreadPlacement(ThreadPlacement threadPlacement) {
+        eventLoop.setPlacement(threadPlacement);
     }
 
     @Override
     public void start_link() {
-        connect();
-
+        subscribed.addAll(symbols);
+        // 首次连接同样在事件循环线程上执行
+        eventLoop.schedule(0, this::connect);
+        eventLoop.schedulePeriodic(PING_INTERVAL_NANOS, this::sendPing);
+        eventLoop.schedulePeriodic(HEARTBEAT_CHECK_NANOS, this::checkHeartbeat);
+        eventLoop.start();
     }
 
     @Override
@@ -149,14 +313,12 @@ public class BTMDGWWebSocketClient implements Actor {
     /**
      * 解析Bitget WebSocket返回的各种类型的消息
      */
-    private Object parseMessage(String message) throws Exception {
-        JsonNode rootNode = objectMapper.readTree(message);
-
+    private Object parseMessage(JsonNode rootNode) {
         // 处理订阅确认和心跳
         if (rootNode.has("event")) {
             String event = rootNode.path("event").asText();
-            if ("subscribe".equals(event)) {
-                logger.debug("Subscription confirmed: {}", message);
+            if ("subscribe".equals(event) || "unsubscribe".equals(event)) {
+                logger.debug("Subscription confirmed: {}", rootNode);
                 return null;
             } else if ("pong".equals(event)) {
                 logger.debug("Received pong from Bitget");
@@ -168,59 +330,36 @@ public class BTMDGWWebSocketClient implements Actor {
         if (rootNode.has("arg") && rootNode.has("data")) {
             JsonNode argNode = rootNode.path("arg");
             String channel = argNode.path("channel").asText();
+            String symbol = argNode.path("instId").asText();
             JsonNode dataNode = rootNode.path("data");
 
             switch (channel) {
                 case "trade":
-                    return parseTradeTick(dataNode);
+                    return parseTradeTick(symbol, dataNode);
                 case "books":
-                    return parseOrderBookDepth(dataNode);
+                    return parseOrderBookDepth(symbol, dataNode);
                 default:
                     logger.debug("Received unsupported channel: {}", channel);
                     return null;
             }
         }
 
-        logger.debug("Received unrecognized message format: {}", message);
+        logger.debug("Received unrecognized message format: {}", rootNode);
         return null;
     }
 
-    /**
-     * 确定事件类型字符串
-     */
-    private String determineEventType(Object message) {
-        if (message instanceof TradeTick) {
-            return "BITGET_TRADE_TICK";
-        } else if (message instanceof QuoteTick) {
-            return "BITGET_QUOTE_TICK";
-        } else if (message instanceof Bar) {
-            return "BITGET_BAR";
-        } else if (message instanceof OrderBookDepth10) {
-            return "BITGET_ORDER_BOOK_DEPTH";
-        } else if (message instanceof OrderBookDeltas || message instanceof OrderBookDelta) {
-            return "BITGET_ORDER_BOOK_DELTA";
-        } else if (message instanceof MarkPriceUpdate) {
-            return "BITGET_MARK_PRICE_UPDATE";
-        } else if (message instanceof IndexPriceUpdate) {
-            return "BITGET_INDEX_PRICE_UPDATE";
-        } else if (message instanceof FundingRateUpdate) {
-            return "BITGET_FUNDING_RATE_UPDATE";
-        }
-        return "BITGET_UNKNOWN";
-    }
-
     /**
      * 解析Bitget WebSocket返回的交易数据
      */
-    private TradeTick parseTradeTick(JsonNode dataNode) {
+    private TradeTick parseTradeTick(String symbol, JsonNode dataNode) {
         TradeTick tick = new TradeTick();
 
         if (dataNode.isArray() && dataNode.size() > 0) {
             JsonNode tradeNode = dataNode.get(0);
             tick.setTradeId(tradeNode.path("tradeId").asText());
-            tick.setSymbol("BTCUSDT");
-            tick.setPrice(tradeNode.path("px").asDouble());
-            tick.setQuantity(tradeNode.path("sz").asDouble());
+            tick.setSymbol(symbol);
+            tick.setPrice(Price.of(tradeNode.path("px").asText()));
+            tick.setQuantity(Quantity.of(tradeNode.path("sz").asText()));
             tick.setTimestampMs(tradeNode.path("ts").asLong());
             tick.setBuyerMaker("buy".equals(tradeNode.path("side").asText()));
         }
@@ -231,9 +370,9 @@ public class BTMDGWWebSocketClient implements Actor {
     /**
      * 解析Bitget WebSocket返回的订单簿深度数据
      */
-    private OrderBookDepth10 parseOrderBookDepth(JsonNode dataNode) {
+    private OrderBookDepth10 parseOrderBookDepth(String symbol, JsonNode dataNode) {
         OrderBookDepth10 orderBook = new OrderBookDepth10();
-        orderBook.setSymbol("BTCUSDT");
+        orderBook.setSymbol(symbol);
 
         if (dataNode.isArray() && dataNode.size() > 0) {
             JsonNode bookNode = dataNode.get(0);
@@ -314,6 +453,75 @@ public class BTMDGWWebSocketClient implements Actor {
         return objectMapper.readValue(message, FundingRateUpdate.class);
     }
 
+    /**
+     * 处理一条完整的WebSocket消息：解析后封装为事件发送到市场数据仓储
+     * 基准测试直接调用以回放录制的消息；监听器收到的消息走 {@link #handleMessage(char[], int, int)}
+     *
+     * @return 是否发送了事件（订阅确认、心跳等非行情消息返回false）
+     */
+    public boolean handleMessage(String message) throws Exception {
+        if (PONG.equals(message)) {
+            // ping的应答是纯文本，不是JSON
+            return false;
+        }
+        long receiveNanos = System.nanoTime();
+        return publish(parseMessage(objectMapper.readTree(message)), receiveNanos);
+    }
+
+    /**
+     * 处理字符缓冲中的一条完整消息，直接从缓冲解析，不创建String
+     *
+     * @return 是否发送了事件
+     */
+    public boolean handleMessage(char[] buffer, int offset, int length) throws Exception {
+        return handleMessage(buffer, offset, length, System.nanoTime());
+    }
+
+    private boolean handleMessage(char[] buffer, int offset, int length, long receiveNanos) throws Exception {
+        JsonNode rootNode;
+        try (JsonParser parser = objectMapper.getFactory().createParser(buffer, offset, length)) {
+            rootNode = objectMapper.readTree(parser);
+        }
+        return rootNode != null && publish(parseMessage(rootNode), receiveNanos);
+    }
+
+    /**
+     * 封装为事件并发送到仓储，解析完成时间取调用时刻
+     *
+     * @param receiveNanos 收到消息第一个分片的时间
+     */
+    private boolean publish(Object parsedMessage, long receiveNanos) {
+        if (parsedMessage == null) {
+            return false;
+        }
+        long decodeNanos = System.nanoTime();
+        // 申领仓储的事件槽位就地填充：预分配槽位的仓储复用事件和MarketData载体，其它仓储每次新建
+        Event<MarketData> event = mdEventRepo.claim();
+        boolean sent;
+        try {
+            MarketData marketData = MarketData.reuse(event.payload, parsedMessage);
+            event.payload = marketData;
+            event.setTypeCode(EventType.of(EventType.VENUE_BITGET, marketData));
+            event.instrumentId = InstrumentRegistry.idOf(marketData.symbol());
+            event.receiveNanos = receiveNanos;
+            event.decodeNanos = decodeNanos;
+            event.dequeueNanos = 0;
+            // 先更新最优价缓存，策略收到事件时缓存至少与事件一样新
+            TopOfBookCache cache = topOfBookCache;
+            if (cache != null) {
+                cache.updateFrom(EventType.VENUE_BITGET, event.instrumentId, parsedMessage);
+            }
+        } finally {
+            // 申领后必须发布，否则后续槽位都无法被消费
+            event.enqueueNanos = System.nanoTime();
+            sent = mdEventRepo.commit(event);
+        }
+        LatencyRecorder recorder = latencyRecorder;
+        recorder.record(LatencyRecorder.Stage.WIRE_TO_DECODE, receiveNanos, decodeNanos);
+        recorder.record(LatencyRecorder.Stage.DECODE_TO_ENQUEUE, decodeNanos, System.nanoTime());
+        return sent;
+    }
+
     /**
      * 获取连接状态
      */
@@ -325,65 +533,74 @@ public class BTMDGWWebSocketClient implements Actor {
      * WebSocket监听器
      */
     private class WebSocketListener implements WebSocket.Listener {
-        // 用于累积分片消息
-        private final StringBuilder messageBuffer = new StringBuilder();
+        // 分片重组缓冲，复用
+        private final FrameAssembler messageBuffer = new FrameAssembler();
+        // 仓储积压消化后补发 request(1)
+        private final Runnable resume = this::resume;
+        private volatile WebSocket socket;
+        // 当前消息第一个分片到达的时间
+        private long receiveNanos;
 
         @Override
         public void onOpen(WebSocket webSocket) {
             logger.info("Bitget WebSocket connection opened");
+            socket = webSocket;
             WebSocket.Listener.super.onOpen(webSocket);
         }
 
         @Override
         public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
-            String message = data.toString();
-            logger.debug("Received Bitget WebSocket message fragment: {}", message);
-
+            long now = System.nanoTime();
+            lastMessageNanos = now;
+            if (messageBuffer.length() == 0) {
+                receiveNanos = now;
+            }
             try {
                 // 累积消息片段
-                messageBuffer.append(message);
+                messageBuffer.append(data);
 
-                // 如果是完整消息，处理它
+                // 如果是完整消息，处理它；ping的应答是纯文本，不是JSON
                 if (last) {
-                    String completeMessage = messageBuffer.toString();
-                    logger.debug("Received complete Bitget WebSocket message: {}", completeMessage);
-
-                    // 解析Bitget WebSocket消息
-                    Object parsedMessage = parseMessage(completeMessage);
-                    if (parsedMessage != null) {
-                        // 创建MarketData实例并发送到仓储
-                        MarketData marketData = MarketData.createWithData(parsedMessage);
-                        Event<MarketData> event = new Event<>();
-                        event.type = determineEventType(parsedMessage);
-                        event.payload = marketData;
-                        mdEventRepo.send(event);
-                        logger.debug("Sent market data event: {}", event.type);
+                    if (!messageBuffer.contentEquals(PONG)) {
+                        handleMessage(messageBuffer.buffer(), 0, messageBuffer.length(), receiveNanos);
                     }
-
-                    // 清空缓冲区
-                    messageBuffer.setLength(0);
+                    messageBuffer.reset();
                 }
             } catch (Exception e) {
                 logger.error("Failed to process Bitget WebSocket message: {}", e.getMessage(), e);
                 // 清空缓冲区以防止后续消息解析错误
-                messageBuffer.setLength(0);
+                messageBuffer.reset();
+            }
+
+            // 仓储未积压时请求下一条，否则等积压消化后由 resume 请求
+            if (flowControl.tryRequest(resume)) {
+                webSocket.request(1);
             }
+            return null;
+        }
 
-            return WebSocket.Listener.super.onText(webSocket, data, last);
+        private void resume() {
+            WebSocket current = socket;
+            if (current != null) {
+                current.request(1);
+            }
         }
 
         @Override
         public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
             logger.info("Bitget WebSocket connection closed: status={}, reason={}", statusCode, reason);
             BTMDGWWebSocketClient.this.webSocket = null;
-            // 自动重连
-            scheduleReconnect();
+            // 自动重连，停止后事件循环不再执行
+            reconnector.request();
             return WebSocket.Listener.super.onClose(webSocket, statusCode, reason);
         }
 
         @Override
         public void onError(WebSocket webSocket, Throwable error) {
             logger.error("Bitget WebSocket error: {}", error.getMessage(), error);
+            // onError 之后连接已关闭且不会再回调 onClose
+            BTMDGWWebSocketClient.this.webSocket = null;
+            reconnector.request();
         }
     }
 }
@@ -1,130 +1,263 @@
 package com.tanggo.fund.jnautilustrader.adapter.mdgw.bn;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.tanggo.fund.jnautilustrader.adapter.event_repo.event.BlockingQueueEventRepo;
+import com.tanggo.fund.jnautilustrader.adapter.mdgw.FrameAssembler;
+import com.tanggo.fund.jnautilustrader.core.actor.EventLoop;
+import com.tanggo.fund.jnautilustrader.core.actor.LatencyRecorder;
+import com.tanggo.fund.jnautilustrader.core.actor.Reconnector;
+import com.tanggo.fund.jnautilustrader.core.actor.ThreadPlacement;
+import com.tanggo.fund.jnautilustrader.core.actor.TimerWheel;
 import com.tanggo.fund.jnautilustrader.core.entity.Actor;
 import com.tanggo.fund.jnautilustrader.core.entity.Event;
+import com.tanggo.fund.jnautilustrader.core.entity.EventRepo;
+import com.tanggo.fund.jnautilustrader.core.entity.EventType;
+import com.tanggo.fund.jnautilustrader.core.entity.FlowControl;
+import com.tanggo.fund.jnautilustrader.core.entity.InstrumentRegistry;
 import com.tanggo.fund.jnautilustrader.core.entity.MarketData;
-import com.tanggo.fund.jnautilustrader.core.entity.event.data.*;
+import com.tanggo.fund.jnautilustrader.core.entity.SignalIdleStrategy;
+import com.tanggo.fund.jnautilustrader.core.entity.book.TopOfBookCache;
+import com.tanggo.fund.jnautilustrader.core.entity.event.data.OrderBookDeltas;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.net.URI;
-import java.net.URISyntaxException;
 import java.net.http.HttpClient;
 import java.net.http.WebSocket;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
-import java.util.concurrent.*;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * 币安WebSocket客户端 - 订阅实时交易数据
+ * <p>
+ * 订阅的品种按 {@link BinanceSubscriptionManager} 分片到多个组合流连接（/stream?streams=...），
+ * 运行时通过 {@link #subscribe(String...)} / {@link #unsubscribe(String...)} 增减品种，
+ * 已建立的连接上以 SUBSCRIBE/UNSUBSCRIBE 帧增量订阅，每个连接的控制帧不超过币安每秒5条的限制。
+ * <p>
+ * 每个连接有自己的解码线程和解析器，一个繁忙品种只阻塞它所在的连接，不会阻塞其它连接上的品种。
+ * 订阅增量深度流（depth 或 depth@100ms）时，增量在解码线程上经 {@link BinanceOrderBookSync} 以REST快照同步后再发布，
+ * 同时发布由本地订单簿得到的最优买卖价。
+ * 订阅变更、连接、重连退避和心跳检查都在网关自己的事件循环线程上执行，由循环的时间轮驱动；
+ * 连接异步建立，不阻塞事件循环。
+ * 仓储支持 {@link FlowControl} 时，积压期间各连接暂停 request(1)，消化后恢复。
  */
 public class BNMDGWWebSocketClient implements Actor {
 
     private static final Logger logger = LoggerFactory.getLogger(BNMDGWWebSocketClient.class);
-    // 币安WebSocket API地址 - 同时订阅交易、订单簿深度和bookTicker
-    // btcusdt@trade: 实时交易数据
-    // btcusdt@depth10@100ms: 订单簿快照(10档,100毫秒推送)
-    // btcusdt@bookTicker: 最优买卖价实时更新
-    private static final String BINANCE_WS_URL = "wss://stream.binance.com:9443/stream?streams=btcusdt@trade/btcusdt@depth10@100ms/btcusdt@bookTicker";
-    // 重连间隔（秒）
-    private static final int RECONNECT_DELAY = 5;
-    private ObjectMapper objectMapper = new ObjectMapper();
-    private final BlockingQueueEventRepo<MarketData> mdEventRepo;
-    private final ScheduledExecutorService timerExecutorService;
-    private final ExecutorService wsExecutorService;  // WebSocket专用线程池
-    private HttpClient httpClient;  // 复用HttpClient实例
-    private WebSocket webSocket;
-    private volatile boolean reconnecting;
+    private static final String DEFAULT_BASE_URL = "wss://stream.binance.com:9443";
+    private static final String DEFAULT_REST_BASE_URL = "https://api.binance.com";
+    // 默认订阅的频道：
+    // trade: 实时交易数据
+    // depth10@100ms: 订单簿快照(10档,100毫秒推送)
+    // bookTicker: 最优买卖价实时更新
+    private static final List<String> DEFAULT_CHANNELS = List.of("trade", "depth10@100ms", "bookTicker");
+    private static final List<String> DEFAULT_SYMBOLS = List.of("btcusdt");
+    // 每个连接默认的流数量上限，远低于币安的1024，使单个连接的消息量和URL长度可控
+    private static final int DEFAULT_MAX_STREAMS_PER_CONNECTION = 200;
+    private static final int DEFAULT_MAX_CONNECTIONS = 50;
+    // 每个连接发送控制帧的最小间隔（纳秒），币安限制每个连接每秒最多5条客户端消息
+    private static final long CONTROL_FRAME_INTERVAL_NANOS = 250_000_000L;
+    // 心跳检查间隔（纳秒）
+    private static final long HEARTBEAT_CHECK_NANOS = 5_000_000_000L;
+    // 超过该时间没有收到任何消息视为连接失效（纳秒）
+    private static final long STALE_TIMEOUT_NANOS = 30_000_000_000L;
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+
+    // 流式单遍解析器，仅供 handleMessage 直接调用（基准测试回放）；每个连接有自己的解析器
+    private final BinanceStreamDecoder decoder = new BinanceStreamDecoder();
+    private final EventRepo<MarketData> mdEventRepo;
+    // 仓储积压时暂停各连接的 request(1)
+    private final FlowControl flowControl;
+    // 最优买卖价缓存，可选
+    private volatile TopOfBookCache topOfBookCache;
+    private volatile LatencyRecorder latencyRecorder = LatencyRecorder.DISABLED;
+    private final EventLoop eventLoop;
+    // 其它线程提交的订阅变更，由事件循环执行
+    private final Queue<Runnable> commands = new ConcurrentLinkedQueue<>();
+    private final Runnable flushTask = this::flushControlFrames;
+
+    private String baseUrl = DEFAULT_BASE_URL;
+    private String restBaseUrl = DEFAULT_REST_BASE_URL;
+    private int depthSnapshotLimit = BinanceOrderBookSync.DEFAULT_SNAPSHOT_LIMIT;
+    private List<String> symbols = DEFAULT_SYMBOLS;
+    private List<String> channels = DEFAULT_CHANNELS;
+    private int maxStreamsPerConnection = DEFAULT_MAX_STREAMS_PER_CONNECTION;
+    private int maxConnections = DEFAULT_MAX_CONNECTIONS;
+
+    // 连接只在事件循环线程上增加，isConnected 可从其它线程读取
+    private final List<StreamConnection> connections = new CopyOnWriteArrayList<>();
+    private volatile boolean stopped;
+
+    // 以下字段仅事件循环线程访问
+    private BinanceSubscriptionManager subscriptions;
+    private long flushTimerId = TimerWheel.NULL_TIMER;
+    private long nextRequestId = 1;
 
 
     /**
      * 构造函数 - 包含所有依赖
      */
-    public BNMDGWWebSocketClient(BlockingQueueEventRepo<MarketData> mdEventRepo, ScheduledExecutorService timerExecutorService, ExecutorService wsExecutorService) {
-        this.objectMapper = new ObjectMapper();
-        this.reconnecting = false;
+    public BNMDGWWebSocketClient(EventRepo<MarketData> mdEventRepo) {
         this.mdEventRepo = mdEventRepo;
-        this.timerExecutorService = timerExecutorService;
-        this.wsExecutorService = wsExecutorService;
+        this.flowControl = FlowControl.of(mdEventRepo);
+        this.eventLoop = new EventLoop("bn-md-gateway", this::doWork, new SignalIdleStrategy());
     }
 
+    /**
+     * 订阅品种的全部频道；可从任意线程调用，由事件循环执行
+     *
+     * @param symbols 品种，如 btcusdt（大小写不限）
+     */
+    public void subscribe(String... symbols) {
+        subscribeStreams(streamsOf(Arrays.asList(symbols)));
+    }
 
     /**
-     * 建立WebSocket连接
+     * 退订品种的全部频道；可从任意线程调用，由事件循环执行
      */
-    private void connect() {
-        if (webSocket != null) {
-            logger.warn("WebSocket connection already established");
-            return;
-        }
+    public void unsubscribe(String... symbols) {
+        unsubscribeStreams(streamsOf(Arrays.asList(symbols)));
+    }
 
-        try {
-            URI uri = new URI(BINANCE_WS_URL);
+    /**
+     * 订阅流（如 btcusdt@bookTicker）；可从任意线程调用，由事件循环执行
+     */
+    public void subscribeStreams(Collection<String> streams) {
+        List<String> copy = new ArrayList<>(streams);
+        commands.add(() -> applySubscribe(copy));
+        eventLoop.wakeup();
+    }
+
+    /**
+     * 退订流；可从任意线程调用，由事件循环执行
+     */
+    public void unsubscribeStreams(Collection<String> streams) {
+        List<String> copy = new ArrayList<>(streams);
+        commands.add(() -> applyUnsubscribe(copy));
+        eventLoop.wakeup();
+    }
 
-            // 创建自定义线程池的HttpClient（如果尚未创建）
-            if (httpClient == null) {
-                httpClient = HttpClient.newBuilder().connectTimeout(java.time.Duration.ofSeconds(10)).executor(wsExecutorService)  // 设置自定义线程池
-                        .build();
+    private List<String> streamsOf(Collection<String> symbols) {
+        List<String> streams = new ArrayList<>(symbols.size() * channels.size());
+        for (String symbol : symbols) {
+            for (String channel : channels) {
+                streams.add(BinanceSubscriptionManager.streamName(symbol, channel));
             }
+        }
+        return streams;
+    }
 
-            webSocket = httpClient.newWebSocketBuilder().connectTimeout(java.time.Duration.ofSeconds(10)).buildAsync(uri, new WebSocketListener()).join();
+    private void applySubscribe(List<String> streams) {
+        for (BinanceSubscriptionManager.Shard shard : subscriptions.subscribe(streams)) {
+            StreamConnection connection = connectionOf(shard);
+            if (!connection.isConnected() && !connection.connecting && !connection.reconnector.isPending()) {
+                // 新分片或已空闲关闭的分片：立即连接，连接URL包含分片的全部流
+                connection.connect();
+            }
+        }
+        flushControlFrames();
+    }
+
+    private void applyUnsubscribe(List<String> streams) {
+        subscriptions.unsubscribe(streams);
+        flushControlFrames();
+    }
 
-            logger.info("Connected to Binance WebSocket: {}", BINANCE_WS_URL);
-        } catch (URISyntaxException e) {
-            logger.error("Invalid Binance WebSocket URL: {}", e.getMessage(), e);
-        } catch (Exception e) {
-            logger.error("Failed to connect to Binance WebSocket: {}", e.getMessage(), e);
-            scheduleReconnect();
+    private StreamConnection connectionOf(BinanceSubscriptionManager.Shard shard) {
+        while (connections.size() <= shard.getIndex()) {
+            connections.add(new StreamConnection(subscriptions.getShards().get(connections.size())));
         }
+        return connections.get(shard.getIndex());
     }
 
     /**
-     * 关闭WebSocket连接
+     * 在已连接的分片上发送订阅增量，每个连接每次最多一帧；受频率限制未发完的安排定时器稍后继续
      */
-
-    private void destroy() {
-        // 只关闭自己创建的调度器
-        if (timerExecutorService != null) {
-            timerExecutorService.shutdown();
+    private void flushControlFrames() {
+        long now = System.nanoTime();
+        long nextDue = Long.MAX_VALUE;
+        for (StreamConnection connection : connections) {
+            if (!connection.shard.hasPending() || !connection.isConnected()) {
+                continue;
+            }
+            if (now - connection.nextControlNanos >= 0) {
+                connection.sendPendingFrame(now);
+            }
+            if (connection.shard.hasPending() && connection.isConnected()) {
+                nextDue = Math.min(nextDue, connection.nextControlNanos - now);
+            }
         }
-        // 关闭WebSocket专用线程池
-        if (wsExecutorService != null) {
-            wsExecutorService.shutdown();
+        if (nextDue != Long.MAX_VALUE) {
+            flushTimerId = eventLoop.scheduleCoalesced(flushTimerId, Math.max(0, nextDue), flushTask);
         }
-        if (webSocket != null) {
-            try {
-                webSocket.sendClose(WebSocket.NORMAL_CLOSURE, "Shutdown").join();
-                logger.info("Binance WebSocket connection closed");
-            } catch (Exception e) {
-                logger.error("Failed to close Binance WebSocket connection: {}", e.getMessage(), e);
+    }
+
+    /**
+     * 事件循环工作：执行订阅变更和各连接的重连请求，连接、心跳等由定时器执行
+     */
+    private int doWork() {
+        int work = 0;
+        Runnable command;
+        while ((command = commands.poll()) != null) {
+            command.run();
+            work++;
+        }
+        for (StreamConnection connection : connections) {
+            work += connection.reconnector.poll();
+            if (connection.flushRequested) {
+                connection.flushRequested = false;
+                flushControlFrames();
+                work++;
             }
         }
+        return work;
     }
 
     /**
-     * 调度重连
+     * 心跳检查：连接长时间没有消息时中断并重连
+     * 币安服务端主动发送ping，JDK WebSocket自动回复pong，客户端只需检查数据是否断流
      */
-    private void scheduleReconnect() {
-        if (reconnecting) {
-            return;
+    private void checkHeartbeat() {
+        for (StreamConnection connection : connections) {
+            connection.checkHeartbeat();
         }
+    }
+
+    /**
+     * 关闭WebSocket连接
+     */
 
-        reconnecting = true;
-        logger.info("Scheduling reconnection in {} seconds", RECONNECT_DELAY);
-        timerExecutorService.schedule(() -> {
-            reconnecting = false;
-            logger.info("Attempting to reconnect to Binance WebSocket");
-            connect();
-        }, RECONNECT_DELAY, TimeUnit.SECONDS);
+    private void destroy() {
+        stopped = true;
+        eventLoop.stop();
+        for (StreamConnection connection : connections) {
+            connection.close();
+        }
+    }
+
+    /**
+     * 设置网关事件循环的线程放置策略（如CPU绑定），需在 start_link 之前调用
+     */
+    public void setThreadPlacement(ThreadPlacement threadPlacement) {
+        eventLoop.setPlacement(threadPlacement);
     }
 
     @Override
     public void start_link() {
-        connect();
-
+        subscriptions = new BinanceSubscriptionManager(maxStreamsPerConnection, maxConnections);
+        // 初始订阅同样由事件循环执行
+        List<String> initial = streamsOf(symbols);
+        eventLoop.schedule(0, () -> applySubscribe(initial));
+        eventLoop.schedulePeriodic(HEARTBEAT_CHECK_NANOS, this::checkHeartbeat);
+        eventLoop.start();
     }
 
     @Override
@@ -134,471 +267,422 @@ public class BNMDGWWebSocketClient implements Actor {
     }
 
     /**
-     * 解析币安WebSocket返回的各种类型的消息
+     * 处理一条完整的WebSocket消息：解析后封装为事件发送到市场数据仓储
+     * 基准测试直接调用以回放录制的消息，深度增量原样发布、不经过订单簿同步；连接收到的消息由各自的解析器处理
+     *
+     * @return 是否发送了事件（订阅确认、心跳等非行情消息返回false）
      */
-    private Object parseMessage(String message) throws Exception {
-        // 首先解析根节点
-        JsonNode rootNode = objectMapper.readTree(message);
-
-        // 检查是否是组合流格式（包含stream和data字段）
-        if (rootNode.has("stream") && rootNode.has("data")) {
-            String streamName = rootNode.path("stream").asText();
-            JsonNode dataNode = rootNode.path("data");
-
-            logger.debug("Stream name: '{}', contains @depth10: {}, contains @bookTicker: {}",
-                streamName,
-                streamName.contains("@depth10"),
-                streamName.contains("@bookTicker"));
-
-            // 某些流没有事件类型字段,需要通过stream名称识别
-            // depth10@100ms: 订单簿快照流
-            if (streamName.contains("@depth10")) {
-                logger.debug("Processing depth10 snapshot: {}", dataNode.toString());
-                return parseOrderBookDepth(dataNode.toString());
-            }
-
-            // bookTicker: 最优买卖价流(无事件类型字段)
-            if (streamName.contains("@bookTicker")) {
-                logger.debug("Processing bookTicker: {}", dataNode.toString());
-                return parseBookTicker(dataNode.toString());
-            }
-
-            // 其他流都有事件类型字段
-            String eventType = dataNode.path("e").asText();
-            switch (eventType) {
-                case "trade":
-                    return parseTradeTick(dataNode.toString());
-                case "aggTrade":
-                    return parseAggregateTradeTick(dataNode.toString());
-                case "depthUpdate":
-                    return parseOrderBookDelta(dataNode.toString());
-                case "kline":
-                    return parseBar(dataNode.toString());
-                case "miniTicker":
-                case "ticker":
-                    return parseQuoteTick(dataNode.toString());
-                case "markPriceUpdate":
-                    return parseMarkPriceUpdate(dataNode.toString());
-                case "indexPriceUpdate":
-                    return parseIndexPriceUpdate(dataNode.toString());
-                case "fundingRate":
-                    return parseFundingRateUpdate(dataNode.toString());
-                default:
-                    logger.debug("Received unsupported event type: {}, stream: {}", eventType, streamName);
-                    return null;
-            }
-        } else {
-            // 单流格式
-            String eventType = rootNode.path("e").asText();
-
-            switch (eventType) {
-                case "trade":
-                    return parseTradeTick(message);
-                case "aggTrade":
-                    return parseAggregateTradeTick(message);
-                case "depthUpdate":
-                    return parseOrderBookDelta(message);
-                case "kline":
-                    return parseBar(message);
-                case "miniTicker":
-                case "ticker":
-                    return parseQuoteTick(message);
-                case "markPriceUpdate":
-                    return parseMarkPriceUpdate(message);
-                case "indexPriceUpdate":
-                    return parseIndexPriceUpdate(message);
-                case "fundingRate":
-                    return parseFundingRateUpdate(message);
-                case "bookTicker":
-                    return parseBookTicker(message);
-                default:
-                    logger.debug("Received unsupported event type: {}", eventType);
-                    return null;
-            }
+    public boolean handleMessage(String message) throws Exception {
+        long receiveNanos = System.nanoTime();
+        Object parsedMessage = decoder.decode(message);
+        if (parsedMessage == null) {
+            return false;
         }
+        return publish(parsedMessage, receiveNanos);
     }
 
     /**
-     * 确定事件类型字符串
+     * 处理字符缓冲中的一条完整消息，直接从缓冲解析，不创建String；与 {@link #handleMessage(String)} 一样不经过订单簿同步
+     *
+     * @return 是否发送了事件
      */
-    private String determineEventType(Object message) {
-        if (message instanceof TradeTick) {
-            return "BINANCE_TRADE_TICK";
-        } else if (message instanceof QuoteTick) {
-            return "BINANCE_QUOTE_TICK";
-        } else if (message instanceof Bar) {
-            return "BINANCE_BAR";
-        } else if (message instanceof OrderBookDepth10) {
-            return "BINANCE_ORDER_BOOK_DEPTH";
-        } else if (message instanceof OrderBookDeltas || message instanceof OrderBookDelta) {
-            return "BINANCE_ORDER_BOOK_DELTA";
-        } else if (message instanceof MarkPriceUpdate) {
-            return "BINANCE_MARK_PRICE_UPDATE";
-        } else if (message instanceof IndexPriceUpdate) {
-            return "BINANCE_INDEX_PRICE_UPDATE";
-        } else if (message instanceof FundingRateUpdate) {
-            return "BINANCE_FUNDING_RATE_UPDATE";
+    public boolean handleMessage(char[] buffer, int offset, int length) throws Exception {
+        long receiveNanos = System.nanoTime();
+        Object parsedMessage = decoder.decode(buffer, offset, length);
+        if (parsedMessage == null) {
+            return false;
         }
-        return "BINANCE_UNKNOWN";
+        return publish(parsedMessage, receiveNanos);
     }
 
     /**
-     * 解析币安WebSocket返回的交易数据
+     * 封装为事件并发送到仓储，解析完成时间取调用时刻；包内可见供基准测试单独测量发布路径
      *
-     * 官方文档: https://binance-docs.github.io/apidocs/spot/en/#trade-streams
-     * 字段说明:
-     * - t: 交易ID
-     * - s: 品种代码
-     * - p: 价格
-     * - q: 数量
-     * - T: 成交时间（撮合引擎时间）
-     * - E: 事件时间（服务器发送时间）
-     * - m: 是否买方主动（true表示卖方主动）
+     * @param receiveNanos 收到消息第一个分片的时间
      */
-    private TradeTick parseTradeTick(String message) throws Exception {
-        JsonNode rootNode = objectMapper.readTree(message);
-        TradeTick tradeTick = new TradeTick();
-        tradeTick.tradeId = rootNode.path("t").asText();
-        tradeTick.symbol = rootNode.path("s").asText();
-        tradeTick.price = rootNode.path("p").asDouble();
-        tradeTick.quantity = rootNode.path("q").asDouble();
-        tradeTick.tradeTimeMs = rootNode.path("T").asLong();
-        tradeTick.eventTimeMs = rootNode.path("E").asLong();
-        tradeTick.isBuyerMaker = rootNode.path("m").asBoolean();
-        return tradeTick;
+    boolean publish(Object parsedMessage, long receiveNanos) {
+        long decodeNanos = System.nanoTime();
+        // 申领仓储的事件槽位就地填充：预分配槽位的仓储复用事件和MarketData载体，其它仓储每次新建
+        Event<MarketData> event = mdEventRepo.claim();
+        boolean sent;
+        try {
+            MarketData marketData = MarketData.reuse(event.payload, parsedMessage);
+            event.payload = marketData;
+            event.setTypeCode(EventType.of(EventType.VENUE_BINANCE, marketData));
+            event.instrumentId = InstrumentRegistry.idOf(marketData.symbol());
+            event.receiveNanos = receiveNanos;
+            event.decodeNanos = decodeNanos;
+            event.dequeueNanos = 0;
+            // 先更新最优价缓存，策略收到事件时缓存至少与事件一样新
+            TopOfBookCache cache = topOfBookCache;
+            if (cache != null) {
+                cache.updateFrom(EventType.VENUE_BINANCE, event.instrumentId, parsedMessage);
+            }
+        } finally {
+            // 申领后必须发布，否则后续槽位都无法被消费
+            event.enqueueNanos = System.nanoTime();
+            sent = mdEventRepo.commit(event);
+        }
+        LatencyRecorder recorder = latencyRecorder;
+        recorder.record(LatencyRecorder.Stage.WIRE_TO_DECODE, receiveNanos, decodeNanos);
+        recorder.record(LatencyRecorder.Stage.DECODE_TO_ENQUEUE, decodeNanos, System.nanoTime());
+        return sent;
     }
 
     /**
-     * 解析币安WebSocket返回的聚合交易数据
-     *
-     * 官方文档: https://binance-docs.github.io/apidocs/spot/en/#aggregate-trade-streams
-     * 字段说明:
-     * - a: 聚合交易ID
-     * - s: 品种代码
-     * - p: 价格
-     * - q: 数量
-     * - f: 首笔交易ID
-     * - l: 末笔交易ID
-     * - T: 成交时间（撮合引擎时间）
-     * - E: 事件时间（服务器发送时间）
-     * - m: 是否买方主动（true表示卖方主动）
+     * 获取连接状态：至少有一个连接已建立
+     */
+    public boolean isConnected() {
+        for (StreamConnection connection : connections) {
+            if (connection.isConnected()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 设置WebSocket基础地址（不含 /stream），默认 wss://stream.binance.com:9443
      */
-    private TradeTick parseAggregateTradeTick(String message) throws Exception {
-        JsonNode rootNode = objectMapper.readTree(message);
-        TradeTick tradeTick = new TradeTick();
-        tradeTick.tradeId = rootNode.path("a").asText();
-        tradeTick.symbol = rootNode.path("s").asText();
-        tradeTick.price = rootNode.path("p").asDouble();
-        tradeTick.quantity = rootNode.path("q").asDouble();
-        tradeTick.tradeTimeMs = rootNode.path("T").asLong();
-        tradeTick.eventTimeMs = rootNode.path("E").asLong();
-        tradeTick.isBuyerMaker = rootNode.path("m").asBoolean();
-        return tradeTick;
+    public void setBaseUrl(String baseUrl) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
     }
 
     /**
-     * 解析币安WebSocket返回的订单簿深度数据
-     *
-     * 官方文档: https://binance-docs.github.io/apidocs/spot/en/#partial-book-depth-streams
-     * 字段说明:
-     * - lastUpdateId: 最后更新ID（用于同步）
-     * - E: 事件时间（服务器发送时间）
-     * - s: 品种代码
-     * - bids: 买盘数据 [[价格, 数量], ...]
-     * - asks: 卖盘数据 [[价格, 数量], ...]
+     * 设置REST基础地址（获取深度快照），默认 https://api.binance.com
      */
-    private OrderBookDepth10 parseOrderBookDepth(String message) throws Exception {
-        JsonNode rootNode = objectMapper.readTree(message);
-        OrderBookDepth10 depth = new OrderBookDepth10();
-        depth.setSymbol(rootNode.path("s").asText());
-        depth.setEventTime(rootNode.path("E").asLong());
-        depth.setLastUpdateId(rootNode.path("lastUpdateId").asLong());
-        // 解析买卖盘档位（价格和数量已在parseOrderBookLevels中记录为字符串列表）
-        depth.setBids(parseOrderBookLevels(rootNode.path("bids")));
-        depth.setAsks(parseOrderBookLevels(rootNode.path("asks")));
-        return depth;
+    public void setRestBaseUrl(String restBaseUrl) {
+        this.restBaseUrl = restBaseUrl;
     }
 
     /**
-     * 解析币安WebSocket返回的订单簿增量更新数据
-     *
-     * 官方文档: https://binance-docs.github.io/apidocs/spot/en/#diff-depth-stream
-     * 字段说明:
-     * - E: 事件时间（服务器发送时间）
-     * - s: 品种代码
-     * - U: 首笔更新ID
-     * - u: 末笔更新ID（用于同步）
-     * - b: 买盘增量数据 [[价格, 数量], ...]
-     * - a: 卖盘增量数据 [[价格, 数量], ...]
+     * 设置增量深度同步时的快照深度，默认1000档
      */
-    private OrderBookDeltas parseOrderBookDelta(String message) throws Exception {
-        JsonNode rootNode = objectMapper.readTree(message);
-        OrderBookDeltas deltas = new OrderBookDeltas();
-        deltas.setSymbol(rootNode.path("s").asText());
-        deltas.setEventTime(rootNode.path("E").asLong());
-        deltas.setLastUpdateId(rootNode.path("u").asLong());
-        deltas.setBids(parseOrderBookLevels(rootNode.path("b")));
-        deltas.setAsks(parseOrderBookLevels(rootNode.path("a")));
-        return deltas;
+    public void setDepthSnapshotLimit(int depthSnapshotLimit) {
+        this.depthSnapshotLimit = depthSnapshotLimit;
     }
 
     /**
-     * 解析币安WebSocket返回的K线数据
-     *
-     * 官方文档: https://binance-docs.github.io/apidocs/spot/en/#kline-candlestick-streams
-     * 字段说明:
-     * - t: 开盘时间
-     * - T: 收盘时间
-     * - s: 品种代码
-     * - i: K线间隔
-     * - f: 首笔交易ID
-     * - L: 末笔交易ID
-     * - o: 开盘价
-     * - h: 最高价
-     * - l: 最低价
-     * - c: 收盘价
-     * - v: 成交量（现货单位）
-     * - n: 交易次数
-     * - x: 是否闭合
-     * - q: 成交额（报价货币单位）
-     * - V: 主动买入量
-     * - Q: 主动买入额
+     * 设置启动时订阅的品种，需在 start_link 之前调用
      */
-    private Bar parseBar(String message) throws Exception {
-        JsonNode rootNode = objectMapper.readTree(message);
-        Bar bar = new Bar();
-        // 币安K线数据结构: t=开盘时间, T=收盘时间, s=品种, i=间隔, f=首笔交易ID, L=末笔交易ID,
-        // o=开盘价, h=最高价, l=最低价, c=收盘价, v=成交量, n=交易次数, x=是否完成, q=成交额,
-        // V=主动买入成交量, Q=主动买入成交额
-        bar.setSymbol(rootNode.path("s").asText());
-        bar.setOpenTime(rootNode.path("t").asLong());
-        bar.setCloseTime(rootNode.path("T").asLong());
-        bar.setInterval(rootNode.path("i").asText());
-        bar.setOpenPrice(rootNode.path("o").asDouble());
-        bar.setHighPrice(rootNode.path("h").asDouble());
-        bar.setLowPrice(rootNode.path("l").asDouble());
-        bar.setClosePrice(rootNode.path("c").asDouble());
-        bar.setVolume(rootNode.path("v").asDouble());
-        bar.setTradeCount(rootNode.path("n").asInt());
-        bar.setQuoteVolume(rootNode.path("q").asDouble());
-        bar.setTakerBuyVolume(rootNode.path("V").asDouble());
-        bar.setTakerBuyQuoteVolume(rootNode.path("Q").asDouble());
-        bar.setClosed(rootNode.path("x").asBoolean());
-        return bar;
+    public void setSymbols(List<String> symbols) {
+        this.symbols = new ArrayList<>(symbols);
     }
 
     /**
-     * 解析币安WebSocket返回的报价数据
-     *
-     * 官方文档: https://binance-docs.github.io/apidocs/spot/en/#individual-symbol-mini-ticker-stream
-     * 字段说明:
-     * - e: 事件类型（"24hrTicker"或"miniTicker"）
-     * - E: 事件时间（服务器发送时间）
-     * - s: 品种代码
-     * - c: 最新价
-     * - o: 24小时开盘价
-     * - h: 24小时最高价
-     * - l: 24小时最低价
-     * - v: 24小时成交量（现货单位）
-     * - q: 24小时成交额（报价货币单位）
+     * 设置每个品种订阅的频道（如 trade、bookTicker、depth10@100ms），需在 start_link 之前调用
      */
-    private QuoteTick parseQuoteTick(String message) throws Exception {
-        JsonNode rootNode = objectMapper.readTree(message);
-        QuoteTick quoteTick = new QuoteTick();
-        quoteTick.setSymbol(rootNode.path("s").asText());
-        quoteTick.setOpenPrice(rootNode.path("o").asDouble());
-        quoteTick.setHighPrice(rootNode.path("h").asDouble());
-        quoteTick.setLowPrice(rootNode.path("l").asDouble());
-        quoteTick.setClosePrice(rootNode.path("c").asDouble());
-        quoteTick.setVolume(rootNode.path("v").asDouble());
-        quoteTick.setQuoteVolume(rootNode.path("q").asDouble());
-        quoteTick.setTimestampMs(rootNode.path("E").asLong());
-        return quoteTick;
+    public void setChannels(List<String> channels) {
+        this.channels = new ArrayList<>(channels);
     }
 
     /**
-     * 解析币安WebSocket返回的标记价格更新数据
-     *
-     * 官方文档: https://binance-docs.github.io/apidocs/futures/en/#mark-price-stream
-     * 字段说明:
-     * - e: 事件类型（"markPriceUpdate"）
-     * - E: 事件时间（服务器发送时间）
-     * - s: 品种代码
-     * - p: 标记价格
-     * - i: 指数价格
-     * - r: 资金费率
-     * - T: 下次资金费用时间
+     * 设置每个连接的流数量上限（不超过1024），需在 start_link 之前调用
      */
-    private MarkPriceUpdate parseMarkPriceUpdate(String message) throws Exception {
-        JsonNode rootNode = objectMapper.readTree(message);
-        MarkPriceUpdate markPriceUpdate = new MarkPriceUpdate();
-        markPriceUpdate.setSymbol(rootNode.path("s").asText());
-        markPriceUpdate.setMarkPrice(rootNode.path("p").asDouble());
-        markPriceUpdate.setIndexPrice(rootNode.path("i").asDouble());
-        markPriceUpdate.setFundingRate(rootNode.path("r").asDouble());
-        markPriceUpdate.setNextFundingTime(rootNode.path("T").asLong());
-        markPriceUpdate.setEventTime(rootNode.path("E").asLong());
-        return markPriceUpdate;
+    public void setMaxStreamsPerConnection(int maxStreamsPerConnection) {
+        this.maxStreamsPerConnection = maxStreamsPerConnection;
     }
 
     /**
-     * 解析币安WebSocket返回的指数价格更新数据
-     *
-     * 官方文档: https://binance-docs.github.io/apidocs/futures/en/#index-price-stream
-     * 字段说明:
-     * - e: 事件类型（"indexPriceUpdate"）
-     * - E: 事件时间（服务器发送时间）
-     * - s: 品种代码
-     * - i: 指数价格
+     * 设置连接数量上限，需在 start_link 之前调用
      */
-    private IndexPriceUpdate parseIndexPriceUpdate(String message) throws Exception {
-        JsonNode rootNode = objectMapper.readTree(message);
-        IndexPriceUpdate indexPriceUpdate = new IndexPriceUpdate();
-        indexPriceUpdate.setSymbol(rootNode.path("s").asText());
-        indexPriceUpdate.setIndexPrice(rootNode.path("i").asDouble());
-        indexPriceUpdate.setEventTime(rootNode.path("E").asLong());
-        return indexPriceUpdate;
+    public void setMaxConnections(int maxConnections) {
+        this.maxConnections = maxConnections;
     }
 
     /**
-     * 解析币安WebSocket返回的资金费率更新数据
-     *
-     * 官方文档: https://binance-docs.github.io/apidocs/futures/en/#individual-symbol-funding-rate-streams
-     * 字段说明:
-     * - e: 事件类型（"fundingRate"）
-     * - E: 事件时间（服务器发送时间）
-     * - s: 品种代码
-     * - r: 资金费率
-     * - T: 资金费用时间
+     * 设置延迟记录，记录收到消息到解析完成、解析完成到发送到仓储两个阶段
      */
-    private FundingRateUpdate parseFundingRateUpdate(String message) throws Exception {
-        JsonNode rootNode = objectMapper.readTree(message);
-        FundingRateUpdate fundingRateUpdate = new FundingRateUpdate();
-        fundingRateUpdate.setSymbol(rootNode.path("s").asText());
-        fundingRateUpdate.setFundingRate(rootNode.path("r").asDouble());
-        fundingRateUpdate.setFundingTime(rootNode.path("T").asLong());
-        fundingRateUpdate.setEventTime(rootNode.path("E").asLong());
-        return fundingRateUpdate;
+    public void setLatencyRecorder(LatencyRecorder latencyRecorder) {
+        this.latencyRecorder = latencyRecorder;
     }
 
     /**
-     * 解析币安WebSocket返回的最优买卖盘数据
-     *
-     * 官方文档: https://binance-docs.github.io/apidocs/spot/en/#individual-symbol-book-ticker-streams
-     * 字段说明:
-     * - u: 更新ID
-     * - s: 品种代码
-     * - b: 最佳买价
-     * - B: 最佳买量
-     * - a: 最佳卖价
-     * - A: 最佳卖量
-     * - T: 成交时间
-     * - E: 事件时间（服务器发送时间）
+     * 设置最优买卖价缓存，报价和部分深度在发送到仓储前写入缓存
      */
-    private QuoteTick parseBookTicker(String message) throws Exception {
-        JsonNode rootNode = objectMapper.readTree(message);
-        QuoteTick quoteTick = new QuoteTick();
-        quoteTick.setSymbol(rootNode.path("s").asText());
-        quoteTick.setBidPrice(rootNode.path("b").asDouble());
-        quoteTick.setBidQuantity(rootNode.path("B").asDouble());
-        quoteTick.setAskPrice(rootNode.path("a").asDouble());
-        quoteTick.setAskQuantity(rootNode.path("A").asDouble());
-        quoteTick.setTimestampMs(rootNode.path("E").asLong());
-        return quoteTick;
+    public void setTopOfBookCache(TopOfBookCache topOfBookCache) {
+        this.topOfBookCache = topOfBookCache;
     }
 
     /**
-     * 解析订单簿档位数据
-     * 将 [[价格, 数量], ...] 格式转换为 PriceLevel 对象列表
+     * 一个组合流连接：自己的解码线程、解析器、重连退避和心跳状态
      */
-    private List<PriceLevel> parseOrderBookLevels(JsonNode levelsNode) {
-        if (levelsNode.isMissingNode() || !levelsNode.isArray()) {
-            return List.of();
+    private class StreamConnection {
+        private final BinanceSubscriptionManager.Shard shard;
+        private final String name;
+        private final BinanceStreamDecoder streamDecoder = new BinanceStreamDecoder();
+        // 单线程执行器：连接的WebSocket回调和消息解析都在这个线程上执行
+        private final ExecutorService decodeExecutor;
+        private final HttpClient httpClient;
+        private final Reconnector reconnector;
+        // 增量深度同步，首次收到深度增量时创建，仅解码线程访问
+        private BinanceOrderBookSync depthSync;
+        private volatile WebSocket webSocket;
+        // 异步连接进行中，事件循环线程设置，连接完成回调清除
+        private volatile boolean connecting;
+        // 连接建立后请求事件循环补发订阅增量
+        private volatile boolean flushRequested;
+        // 最近一次收到消息的时间，解码线程写入，心跳检查读取
+        private volatile long lastMessageNanos;
+        // 当前消息第一个分片到达的时间，仅解码线程访问；订单簿同步在同一线程上发布
+        private long receiveNanos;
+        // 下一次允许发送控制帧的时间，仅事件循环线程访问
+        private long nextControlNanos;
+
+        StreamConnection(BinanceSubscriptionManager.Shard shard) {
+            this.shard = shard;
+            this.name = "Binance market data #" + shard.getIndex();
+            String threadName = "bn-md-decode-" + shard.getIndex();
+            this.decodeExecutor = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, threadName);
+                t.setDaemon(true);
+                return t;
+            });
+            this.httpClient = HttpClient.newBuilder().connectTimeout(CONNECT_TIMEOUT).executor(decodeExecutor).build();
+            this.reconnector = new Reconnector(name, eventLoop, this::connect);
+            this.nextControlNanos = System.nanoTime();
         }
-        List<PriceLevel> levels = new ArrayList<>();
-        for (JsonNode levelNode : levelsNode) {
-            if (levelNode.isArray() && levelNode.size() >= 2) {
-                String price = levelNode.get(0).asText();
-                String quantity = levelNode.get(1).asText();
-                levels.add(new PriceLevel(price, quantity));
+
+        boolean isConnected() {
+            return webSocket != null;
+        }
+
+        /**
+         * 建立WebSocket连接，在事件循环线程上发起，不等待连接完成
+         */
+        void connect() {
+            if (webSocket != null || connecting || stopped) {
+                return;
+            }
+            if (shard.isEmpty()) {
+                // 分片上的流已全部退订，有新订阅时再连接
+                return;
             }
+            List<String> streams = shard.snapshotForConnect();
+            URI uri = URI.create(baseUrl + "/stream?streams=" + String.join("/", streams));
+            connecting = true;
+            lastMessageNanos = System.nanoTime();
+            httpClient.newWebSocketBuilder().connectTimeout(CONNECT_TIMEOUT).buildAsync(uri, new WebSocketListener(this))
+                    .whenComplete((ws, error) -> {
+                        connecting = false;
+                        if (error != null) {
+                            logger.error("{} 连接失败: {}", name, error.getMessage());
+                            reconnector.request();
+                            return;
+                        }
+                        if (stopped) {
+                            ws.abort();
+                            return;
+                        }
+                        webSocket = ws;
+                        reconnector.reset();
+                        flushRequested = true;
+                        eventLoop.wakeup();
+                        logger.info("{} 已连接, 流数量={}", name, streams.size());
+                    });
+        }
+
+        /**
+         * 发送一帧订阅增量，先退订后订阅；分片的流全部退订后关闭连接
+         */
+        void sendPendingFrame(long now) {
+            WebSocket current = webSocket;
+            List<String> unsubscribe = shard.drainUnsubscribe();
+            String method = unsubscribe.isEmpty() ? "SUBSCRIBE" : "UNSUBSCRIBE";
+            List<String> params = unsubscribe.isEmpty() ? shard.drainSubscribe() : unsubscribe;
+            if (params.isEmpty()) {
+                return;
+            }
+            nextControlNanos = now + CONTROL_FRAME_INTERVAL_NANOS;
+            try {
+                // 帧是异步发送的，写失败只体现在返回的 future 上
+                current.sendText(controlFrame(method, params, nextRequestId++), true).whenComplete((ws, error) -> {
+                    if (error != null) {
+                        onSendFailed(current, method, error);
+                    }
+                });
+                logger.info("{} {} {} 个流", name, method, params.size());
+            } catch (RuntimeException e) {
+                onSendFailed(current, method, e);
+                return;
+            }
+            if (shard.isEmpty() && !shard.hasPending()) {
+                logger.info("{} 的流已全部退订，关闭连接", name);
+                webSocket = null;
+                current.sendClose(WebSocket.NORMAL_CLOSURE, "No streams");
+            }
+        }
+
+        /**
+         * 控制帧发送失败：丢弃该连接并重连。已取出的订阅增量不必放回分片，
+         * 重连以分片当前的全部流建立连接，已退订的流也不在其中；可从任意线程调用
+         */
+        private void onSendFailed(WebSocket failed, String method, Throwable error) {
+            logger.error("{} 发送 {} 失败，重连: {}", name, method, error.getMessage());
+            if (webSocket == failed) {
+                webSocket = null;
+            }
+            failed.abort();
+            reconnector.request();
+        }
+
+        void checkHeartbeat() {
+            WebSocket current = webSocket;
+            if (current == null) {
+                return;
+            }
+            long silentNanos = System.nanoTime() - lastMessageNanos;
+            if (silentNanos > STALE_TIMEOUT_NANOS) {
+                logger.warn("{} 超过 {} 毫秒没有消息，重连", name, silentNanos / 1_000_000L);
+                webSocket = null;
+                current.abort();
+                reconnector.request();
+            }
+        }
+
+        void close() {
+            WebSocket current = webSocket;
+            webSocket = null;
+            if (current != null) {
+                try {
+                    current.sendClose(WebSocket.NORMAL_CLOSURE, "Shutdown").join();
+                    logger.info("{} 连接已关闭", name);
+                } catch (Exception e) {
+                    logger.error("{} 关闭连接失败: {}", name, e.getMessage(), e);
+                }
+            }
+            decodeExecutor.shutdown();
+        }
+
+        /**
+         * 处理一条完整消息，在解码线程上执行；直接解析重组缓冲中的字符，不创建String
+         */
+        void onMessage(FrameAssembler message, long receiveNanos) throws Exception {
+            this.receiveNanos = receiveNanos;
+            if (message.startsWith("{\"result\"")) {
+                // SUBSCRIBE/UNSUBSCRIBE 的应答
+                if (logger.isDebugEnabled()) {
+                    logger.debug("{} 订阅应答: {}", name, message);
+                }
+                return;
+            }
+            if (message.startsWith("{\"error\"") || message.startsWith("{\"code\"")) {
+                logger.warn("{} 订阅请求被拒绝: {}", name, message);
+                return;
+            }
+            Object parsedMessage = streamDecoder.decode(message.buffer(), 0, message.length());
+            if (parsedMessage instanceof OrderBookDeltas) {
+                if (depthSync == null) {
+                    depthSync = new BinanceOrderBookSync(httpClient, decodeExecutor, restBaseUrl, depthSnapshotLimit,
+                            parsed -> publish(parsed, this.receiveNanos));
+                }
+                depthSync.onDeltas((OrderBookDeltas) parsedMessage);
+            } else if (parsedMessage != null) {
+                publish(parsedMessage, receiveNanos);
+            }
+        }
+
+        FlowControl flowControl() {
+            return flowControl;
+        }
+
+        /**
+         * 连接关闭或出错：仍是当前连接时请求重连
+         */
+        void onDisconnected(WebSocket closed) {
+            if (webSocket == closed) {
+                webSocket = null;
+            }
+            // 停止后或已退订全部流时事件循环不再重连
+            reconnector.request();
         }
-        return levels;
     }
 
-    /**
-     * 获取连接状态
-     */
-    public boolean isConnected() {
-        return webSocket != null;
+    private static String controlFrame(String method, List<String> params, long id) {
+        StringBuilder frame = new StringBuilder(32 + params.size() * 32);
+        frame.append("{\"method\":\"").append(method).append("\",\"params\":[");
+        for (int i = 0; i < params.size(); i++) {
+            if (i > 0) {
+                frame.append(',');
+            }
+            frame.append('"').append(params.get(i)).append('"');
+        }
+        return frame.append("],\"id\":").append(id).append('}').toString();
     }
 
     /**
-     * WebSocket监听器
+     * WebSocket监听器，每个连接一个
      */
-    private class WebSocketListener implements WebSocket.Listener {
-        // 用于累积分片消息
-        private final StringBuilder messageBuffer = new StringBuilder();
+    private static class WebSocketListener implements WebSocket.Listener {
+        private final StreamConnection connection;
+        // 分片重组缓冲，复用
+        private final FrameAssembler messageBuffer = new FrameAssembler();
+        // 仓储积压消化后补发 request(1)
+        private final Runnable resume = this::resume;
+        private volatile WebSocket webSocket;
+        // 当前消息第一个分片到达的时间
+        private long receiveNanos;
+
+        WebSocketListener(StreamConnection connection) {
+            this.connection = connection;
+        }
 
         @Override
         public void onOpen(WebSocket webSocket) {
-            logger.info("Binance WebSocket connection opened");
+            logger.info("{} WebSocket connection opened", connection.name);
+            this.webSocket = webSocket;
             // 请求更多数据
             webSocket.request(1);
         }
 
         @Override
         public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
-            String message = data.toString();
-            logger.debug("Received Binance WebSocket message fragment: {}", message);
-
+            long now = System.nanoTime();
+            connection.lastMessageNanos = now;
+            if (messageBuffer.length() == 0) {
+                receiveNanos = now;
+            }
             try {
                 // 累积消息片段
-                messageBuffer.append(message);
+                messageBuffer.append(data);
 
                 // 如果是完整消息，处理它
                 if (last) {
-                    String completeMessage = messageBuffer.toString();
-                    logger.debug("Received complete Binance WebSocket message: {}", completeMessage);
-
-                    // 解析币安WebSocket消息
-                    Object parsedMessage = parseMessage(completeMessage);
-                    if (parsedMessage != null) {
-                        // 创建MarketData实例并发送到仓储
-                        MarketData marketData = MarketData.createWithData(parsedMessage);
-                        Event<MarketData> event = new Event<>();
-                        event.type = determineEventType(parsedMessage);
-                        event.payload = marketData;
-                        mdEventRepo.send(event);
-//                        logger.info("Sent market data event: {}", event.type);
-                    }
-
-                    // 清空缓冲区
-                    messageBuffer.setLength(0);
+                    connection.onMessage(messageBuffer, receiveNanos);
+                    messageBuffer.reset();
                 }
             } catch (Exception e) {
                 logger.error("Failed to process Binance WebSocket message: {}", e.getMessage(), e);
                 // 清空缓冲区以防止后续消息解析错误
-                messageBuffer.setLength(0);
+                messageBuffer.reset();
             }
 
-            // 请求更多数据并返回已完成的 future
-            webSocket.request(1);
+            // 仓储未积压时请求下一条，否则等积压消化后由 resume 请求
+            if (connection.flowControl().tryRequest(resume)) {
+                webSocket.request(1);
+            }
             return CompletableFuture.completedFuture(null);
         }
 
+        private void resume() {
+            WebSocket current = webSocket;
+            if (current != null) {
+                current.request(1);
+            }
+        }
+
         @Override
         public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
-            logger.info("Binance WebSocket connection closed: status={}, reason={}", statusCode, reason);
-            BNMDGWWebSocketClient.this.webSocket = null;
-            // 自动重连
-            scheduleReconnect();
+            logger.info("{} WebSocket connection closed: status={}, reason={}", connection.name, statusCode, reason);
+            connection.onDisconnected(webSocket);
             return CompletableFuture.completedFuture(null);
         }
 
         @Override
         public void onError(WebSocket webSocket, Throwable error) {
-            logger.error("Binance WebSocket error: {}", error.getMessage(), error);
+            logger.error("{} WebSocket error: {}", connection.name, error.getMessage(), error);
+            // onError 之后连接已关闭且不会再回调 onClose
+            connection.onDisconnected(webSocket);
         }
     }
 }
@@ -0,0 +1,74 @@
+package com.tanggo.fund.jnautilustrader.adapter.mdgw.bn;
+
+import com.tanggo.fund.jnautilustrader.adapter.mdgw.RecordedFrames;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 币安消息解析性能基准测试
+ *
+ * 每次操作按顺序解析一条录制帧（{@link RecordedFrames#BINANCE_COMBINED}，组合流格式），比较吞吐量：
+ * 1. treeDecoder：原实现，readTree 整条消息后 data 节点 toString() 再 readTree（{@link BinanceTreeDecoder}）
+ * 2. streamDecoder：流式单遍解析 String（{@link BinanceStreamDecoder}，网关当前用法）
+ * 3. streamDecoderChars：流式单遍解析字符缓冲，省去拼接后的 toString()
+ *
+ * 运行方式：
+ * mvn clean install -DskipTests
+ * mvn exec:java -Dexec.mainClass="com.tanggo.fund.jnautilustrader.adapter.mdgw.bn.BinanceDecoderBenchmark"
+ * 加 -prof gc 参数可同时查看每帧的内存分配
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class BinanceDecoderBenchmark {
+
+    private String[] frames;
+    private char[][] frameChars;
+    private int cursor;
+
+    private BinanceTreeDecoder treeDecoder;
+    private BinanceStreamDecoder streamDecoder;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        List<String> recorded = RecordedFrames.load(RecordedFrames.BINANCE_COMBINED);
+        frames = recorded.toArray(new String[0]);
+        frameChars = new char[frames.length][];
+        for (int i = 0; i < frames.length; i++) {
+            frameChars[i] = frames[i].toCharArray();
+        }
+        treeDecoder = new BinanceTreeDecoder();
+        streamDecoder = new BinanceStreamDecoder();
+    }
+
+    @Benchmark
+    public Object treeDecoder() throws Exception {
+        return treeDecoder.decode(frames[next()]);
+    }
+
+    @Benchmark
+    public Object streamDecoder() throws Exception {
+        return streamDecoder.decode(frames[next()]);
+    }
+
+    @Benchmark
+    public Object streamDecoderChars() throws Exception {
+        char[] frame = frameChars[next()];
+        return streamDecoder.decode(frame, 0, frame.length);
+    }
+
+    private int next() {
+        int index = cursor;
+        cursor = index + 1 == frames.length ? 0 : index + 1;
+        return index;
+    }
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(args);
+    }
+}
@@ -0,0 +1,267 @@
+package com.tanggo.fund.jnautilustrader.adapter.mdgw.bn;
+
+import com.tanggo.fund.jnautilustrader.core.entity.Price;
+import com.tanggo.fund.jnautilustrader.core.entity.Quantity;
+import com.tanggo.fund.jnautilustrader.core.entity.book.BookSide;
+import com.tanggo.fund.jnautilustrader.core.entity.book.OrderBook;
+import com.tanggo.fund.jnautilustrader.core.entity.event.data.OrderBookDeltas;
+import com.tanggo.fund.jnautilustrader.core.entity.event.data.OrderBookDepth10;
+import com.tanggo.fund.jnautilustrader.core.entity.event.data.PriceLevel;
+import com.tanggo.fund.jnautilustrader.core.entity.event.data.QuoteTick;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 币安 diff-depth 增量订单簿同步
+ * <p>
+ * 按币安文档维护本地订单簿（@depth / @depth@100ms 流）：
+ * <ol>
+ *     <li>收到品种的第一条增量时通过 REST {@code /api/v3/depth} 异步获取快照，等待期间增量缓存在 {@link OrderBook} 中；</li>
+ *     <li>快照到达后丢弃 {@code u <= lastUpdateId} 的增量并回放其余增量；快照早于缓存的第一条增量时重新获取；</li>
+ *     <li>之后按 {@code U}/{@code u} 校验每条增量，发现丢包（包括重连后）自动重新获取快照同步。</li>
+ * </ol>
+ * 同步后按顺序应用的增量原样发布为 {@link OrderBookDeltas}；每次（重新）同步发布一次 {@link OrderBookDepth10} 快照
+ * （订单簿前10档和同步后的更新ID），供下游重建；最优买卖价或数量变化时发布 {@link QuoteTick}。
+ * <p>
+ * 非线程安全：增量处理和快照回调都在同一个执行器（连接的解码线程）上执行。
+ */
+public class BinanceOrderBookSync {
+
+    private static final Logger logger = LoggerFactory.getLogger(BinanceOrderBookSync.class);
+
+    /**
+     * 默认快照深度，币安现货最大5000，1000档权重为50
+     */
+    public static final int DEFAULT_SNAPSHOT_LIMIT = 1000;
+
+    // 同一品种两次快照请求的最小间隔，避免连续丢包时频繁消耗REST权重
+    private static final long SNAPSHOT_MIN_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final Duration SNAPSHOT_TIMEOUT = Duration.ofSeconds(10);
+    private static final int PUBLISHED_DEPTH_LEVELS = 10;
+
+    private final HttpClient httpClient;
+    private final Executor executor;
+    private final String restBaseUrl;
+    private final int snapshotLimit;
+    private final Consumer<Object> publisher;
+    // REST快照与部分深度流格式相同，复用流式解析器
+    private final BinanceStreamDecoder snapshotDecoder = new BinanceStreamDecoder();
+    private final Map<String, SymbolBook> books = new HashMap<>();
+
+    private long snapshotCount;
+    private long resyncCount;
+    private long snapshotFailureCount;
+
+    /**
+     * 一个品种的订单簿和同步状态
+     */
+    private static class SymbolBook {
+        private final OrderBook book;
+        private boolean snapshotInFlight;
+        private long lastSnapshotRequestNanos;
+        // 最近一次发布的最优买卖价和数量（原始值）
+        private long bidPrice = -1;
+        private long bidSize = -1;
+        private long askPrice = -1;
+        private long askSize = -1;
+
+        SymbolBook(String symbol) {
+            this.book = new OrderBook(symbol);
+        }
+    }
+
+    /**
+     * @param httpClient  获取快照的HTTP客户端
+     * @param executor    增量处理所在的执行器，快照回调切换到该执行器执行
+     * @param restBaseUrl REST基础地址，如 https://api.binance.com
+     * @param snapshotLimit 快照深度
+     * @param publisher   发布订单簿事件（在执行器线程上调用）
+     */
+    public BinanceOrderBookSync(HttpClient httpClient, Executor executor, String restBaseUrl, int snapshotLimit,
+                                Consumer<Object> publisher) {
+        this.httpClient = httpClient;
+        this.executor = executor;
+        this.restBaseUrl = restBaseUrl.endsWith("/") ? restBaseUrl.substring(0, restBaseUrl.length() - 1) : restBaseUrl;
+        this.snapshotLimit = snapshotLimit;
+        this.publisher = publisher;
+    }
+
+    /**
+     * 处理一条深度增量
+     */
+    public void onDeltas(OrderBookDeltas deltas) {
+        SymbolBook symbolBook = books.computeIfAbsent(deltas.getSymbol(), SymbolBook::new);
+        switch (symbolBook.book.apply(deltas)) {
+            case APPLIED:
+                publisher.accept(deltas);
+                publishTopOfBook(symbolBook, deltas.getEventTime().toEpochMilli());
+                break;
+            case GAP:
+                resyncCount++;
+                logger.warn("{} 深度增量不连续（本地 u={}, 收到 U={}），重新获取快照",
+                        deltas.getSymbol(), symbolBook.book.getLastUpdateId(), deltas.getFirstUpdateId());
+                requestSnapshot(symbolBook);
+                break;
+            case AWAITING_SNAPSHOT:
+                requestSnapshot(symbolBook);
+                break;
+            default:
+                // STALE：早于当前状态，丢弃
+                break;
+        }
+    }
+
+    /**
+     * 品种的本地订单簿，未收到过增量时返回null
+     */
+    public OrderBook getBook(String symbol) {
+        SymbolBook symbolBook = books.get(symbol);
+        return symbolBook != null ? symbolBook.book : null;
+    }
+
+    /**
+     * 成功应用的快照次数
+     */
+    public long getSnapshotCount() {
+        return snapshotCount;
+    }
+
+    /**
+     * 因丢包重新同步的次数
+     */
+    public long getResyncCount() {
+        return resyncCount;
+    }
+
+    /**
+     * 快照请求失败次数
+     */
+    public long getSnapshotFailureCount() {
+        return snapshotFailureCount;
+    }
+
+    private void requestSnapshot(SymbolBook symbolBook) {
+        if (symbolBook.snapshotInFlight) {
+            return;
+        }
+        symbolBook.snapshotInFlight = true;
+        long now = System.nanoTime();
+        long delayNanos = symbolBook.lastSnapshotRequestNanos == 0 ? 0
+                : Math.max(0, symbolBook.lastSnapshotRequestNanos + SNAPSHOT_MIN_INTERVAL_NANOS - now);
+        symbolBook.lastSnapshotRequestNanos = now + delayNanos;
+
+        String symbol = symbolBook.book.getSymbol();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(restBaseUrl + "/api/v3/depth?symbol=" + symbol + "&limit=" + snapshotLimit))
+                .timeout(SNAPSHOT_TIMEOUT)
+                .GET()
+                .build();
+        Executor sendExecutor = delayNanos > 0 ? CompletableFuture.delayedExecutor(delayNanos, TimeUnit.NANOSECONDS, executor) : executor;
+        CompletableFuture.supplyAsync(() -> request, sendExecutor)
+                .thenCompose(r -> httpClient.sendAsync(r, HttpResponse.BodyHandlers.ofString()))
+                .whenCompleteAsync((response, error) -> onSnapshot(symbolBook, response, error), executor);
+    }
+
+    private void onSnapshot(SymbolBook symbolBook, HttpResponse<String> response, Throwable error) {
+        symbolBook.snapshotInFlight = false;
+        String symbol = symbolBook.book.getSymbol();
+        OrderBookDepth10 snapshot = null;
+        if (error != null) {
+            logger.error("{} 获取深度快照失败: {}", symbol, error.getMessage());
+        } else if (response.statusCode() != 200) {
+            logger.error("{} 获取深度快照失败: 状态码={}, 响应={}", symbol, response.statusCode(), response.body());
+        } else {
+            try {
+                Object decoded = snapshotDecoder.decode(response.body());
+                if (decoded instanceof OrderBookDepth10) {
+                    snapshot = (OrderBookDepth10) decoded;
+                } else {
+                    logger.error("{} 无法解析深度快照: {}", symbol, response.body());
+                }
+            } catch (Exception e) {
+                logger.error("{} 无法解析深度快照: {}", symbol, e.getMessage());
+            }
+        }
+        if (snapshot == null) {
+            snapshotFailureCount++;
+            requestSnapshot(symbolBook);
+            return;
+        }
+
+        OrderBook book = symbolBook.book;
+        if (book.applySnapshot(snapshot) == OrderBook.UpdateResult.GAP) {
+            // 快照早于缓存的增量（或缓存溢出丢失了增量），稍后重新获取
+            logger.info("{} 深度快照 lastUpdateId={} 与缓存的增量不连续，重新获取", symbol, snapshot.getLastUpdateId());
+            requestSnapshot(symbolBook);
+            return;
+        }
+        snapshotCount++;
+        logger.info("{} 订单簿已同步: 快照 lastUpdateId={}, 回放后 u={}", symbol, snapshot.getLastUpdateId(), book.getLastUpdateId());
+        publisher.accept(depthOf(book));
+        publishTopOfBook(symbolBook, System.currentTimeMillis());
+    }
+
+    /**
+     * 最优买卖价或数量变化时发布报价
+     */
+    private void publishTopOfBook(SymbolBook symbolBook, long timestampMs) {
+        OrderBook book = symbolBook.book;
+        if (!book.hasTopOfBook()) {
+            return;
+        }
+        long bidPrice = book.getBids().bestPrice();
+        long bidSize = book.getBids().bestSize();
+        long askPrice = book.getAsks().bestPrice();
+        long askSize = book.getAsks().bestSize();
+        if (bidPrice == symbolBook.bidPrice && bidSize == symbolBook.bidSize
+                && askPrice == symbolBook.askPrice && askSize == symbolBook.askSize) {
+            return;
+        }
+        symbolBook.bidPrice = bidPrice;
+        symbolBook.bidSize = bidSize;
+        symbolBook.askPrice = askPrice;
+        symbolBook.askSize = askSize;
+
+        QuoteTick quote = new QuoteTick();
+        quote.setSymbol(book.getSymbol());
+        quote.setBidPrice(Price.fromRaw(bidPrice, book.getPricePrecision()));
+        quote.setBidQuantity(Quantity.fromRaw(bidSize, book.getSizePrecision()));
+        quote.setAskPrice(Price.fromRaw(askPrice, book.getPricePrecision()));
+        quote.setAskQuantity(Quantity.fromRaw(askSize, book.getSizePrecision()));
+        quote.setTimestampMs(timestampMs);
+        publisher.accept(quote);
+    }
+
+    private static OrderBookDepth10 depthOf(OrderBook book) {
+        OrderBookDepth10 depth = new OrderBookDepth10();
+        depth.setSymbol(book.getSymbol());
+        depth.setEventTime(System.currentTimeMillis());
+        depth.setLastUpdateId(book.getLastUpdateId());
+        depth.setBids(levelsOf(book.getBids(), book));
+        depth.setAsks(levelsOf(book.getAsks(), book));
+        return depth;
+    }
+
+    private static List<PriceLevel> levelsOf(BookSide side, OrderBook book) {
+        int count = Math.min(PUBLISHED_DEPTH_LEVELS, side.levelCount());
+        List<PriceLevel> levels = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            levels.add(new PriceLevel(Price.fromRaw(side.priceAt(i), book.getPricePrecision()),
+                    Quantity.fromRaw(side.sizeAt(i), book.getSizePrecision())));
+        }
+        return levels;
+    }
+}
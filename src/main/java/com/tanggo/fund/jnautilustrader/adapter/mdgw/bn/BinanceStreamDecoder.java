@@ -0,0 +1,754 @@
+package com.tanggo.fund.jnautilustrader.adapter.mdgw.bn;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.tanggo.fund.jnautilustrader.core.entity.InstrumentRegistry;
+import com.tanggo.fund.jnautilustrader.core.entity.Price;
+import com.tanggo.fund.jnautilustrader.core.entity.Quantity;
+import com.tanggo.fund.jnautilustrader.core.entity.event.data.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 币安WebSocket消息解析器 - 流式单遍实现
+ *
+ * 基于 Jackson 流式 {@link JsonParser}，一遍读完组合流的 stream 和 data 字段，
+ * 字段值直接写入目标行情对象，不构建 JsonNode 树，也不把 data 重新序列化成字符串再解析。
+ *
+ * 数据类型的判定：
+ * 1. stream 字段在 data 之前时（币安的实际顺序），按流名称识别 depth5/10/20 和 bookTicker 这两种没有事件类型字段的流，
+ *    其余按 data 中的 e 字段识别；部分深度流的 data 不含品种代码，取流名称中的品种补上
+ * 2. data 在 stream 之前或单流格式时，按 data 的第一个字段识别：e 为事件类型，lastUpdateId 为部分深度，u 为 bookTicker
+ *
+ * 数值字段直接在解析器的字符缓冲上转换，不创建中间字符串：价格、数量解析为定点数 {@link Price} / {@link Quantity}，
+ * 精度取 {@link InstrumentRegistry} 中登记的品种精度（未登记时取文本中的小数位数），其余数值字段解析为double。
+ * 品种代码按字符比对缓存，重复出现的品种不再分配。
+ *
+ * 线程模型：实例内部有缓存，只能在单个线程中使用（每个连接一个实例）。
+ */
+public class BinanceStreamDecoder {
+
+    private static final Logger logger = LoggerFactory.getLogger(BinanceStreamDecoder.class);
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    // 流类型（由 stream 字段识别）
+    private static final int STREAM_UNKNOWN = 0;
+    private static final int STREAM_PARTIAL_DEPTH = 1;
+    private static final int STREAM_BOOK_TICKER = 2;
+    private static final int STREAM_EVENT = 3;
+
+    // 缓存的品种代码数量上限
+    private static final int MAX_CACHED_SYMBOLS = 256;
+
+    // 快速路径可精确表示的10的幂
+    private static final double[] POW10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private String[] symbols = new String[16];
+    private int[] symbolIds = new int[16];
+    private int symbolCount;
+
+    // 流名称中的品种（大写），供不含 s 字段的部分深度流使用
+    private final char[] streamSymbolChars = new char[64];
+    private String streamSymbol;
+
+    // 当前消息品种的价格/数量精度
+    private int pricePrecision;
+    private int sizePrecision;
+
+    /**
+     * 解析一条消息
+     *
+     * @return 解析出的行情数据对象，不支持的消息返回null
+     */
+    public Object decode(String message) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(message)) {
+            return decode(parser);
+        }
+    }
+
+    /**
+     * 解析字符缓冲中的一条消息
+     *
+     * @return 解析出的行情数据对象，不支持的消息返回null
+     */
+    public Object decode(char[] buffer, int offset, int length) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(buffer, offset, length)) {
+            return decode(parser);
+        }
+    }
+
+    private Object decode(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return null;
+        }
+        streamSymbol = null;
+        pricePrecision = InstrumentRegistry.UNKNOWN_PRECISION;
+        sizePrecision = InstrumentRegistry.UNKNOWN_PRECISION;
+        int streamKind = STREAM_UNKNOWN;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            if ("stream".equals(name)) {
+                parser.nextToken();
+                streamKind = classifyStream(parser);
+            } else if ("data".equals(name)) {
+                if (parser.nextToken() != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    continue;
+                }
+                parser.nextToken();
+                return decodeData(parser, streamKind);
+            } else {
+                // 单流格式：根对象就是数据
+                return decodeData(parser, STREAM_EVENT);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 按流名称识别流类型，同时记录流名称中的品种
+     */
+    private int classifyStream(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.VALUE_STRING) {
+            return STREAM_UNKNOWN;
+        }
+        char[] buffer = parser.getTextCharacters();
+        int offset = parser.getTextOffset();
+        int end = offset + parser.getTextLength();
+        int at = offset;
+        while (at < end && buffer[at] != '@') {
+            at++;
+        }
+        int symbolLength = Math.min(at - offset, streamSymbolChars.length);
+        for (int i = 0; i < symbolLength; i++) {
+            streamSymbolChars[i] = Character.toUpperCase(buffer[offset + i]);
+        }
+        streamSymbol = symbolLength > 0 ? symbol(streamSymbolChars, 0, symbolLength) : null;
+        if (at == end) {
+            return STREAM_EVENT;
+        }
+        int suffix = at + 1;
+        if (startsWith(buffer, suffix, end, "bookTicker")) {
+            return STREAM_BOOK_TICKER;
+        }
+        // depth5/depth10/depth20 为部分深度快照，depth 或 depth@100ms 为增量（带 e 字段）
+        if (startsWith(buffer, suffix, end, "depth") && suffix + 5 < end && isDigit(buffer[suffix + 5])) {
+            return STREAM_PARTIAL_DEPTH;
+        }
+        return STREAM_EVENT;
+    }
+
+    /**
+     * 解析数据对象，解析器位于第一个字段名上
+     */
+    private Object decodeData(JsonParser parser, int streamKind) throws IOException {
+        if (parser.currentToken() != JsonToken.FIELD_NAME) {
+            return null;
+        }
+        if (streamKind == STREAM_PARTIAL_DEPTH) {
+            return decodeOrderBookDepth(parser);
+        }
+        if (streamKind == STREAM_BOOK_TICKER) {
+            return decodeBookTicker(parser);
+        }
+        String first = parser.currentName();
+        if ("lastUpdateId".equals(first)) {
+            return decodeOrderBookDepth(parser);
+        }
+        if ("u".equals(first)) {
+            return decodeBookTicker(parser);
+        }
+        if (!"e".equals(first)) {
+            logger.debug("Unable to determine Binance event type, first field: {}", first);
+            return null;
+        }
+        parser.nextToken();
+        if (textEquals(parser, "trade")) {
+            parser.nextToken();
+            return decodeTradeTick(parser, false);
+        }
+        if (textEquals(parser, "aggTrade")) {
+            parser.nextToken();
+            return decodeTradeTick(parser, true);
+        }
+        if (textEquals(parser, "depthUpdate")) {
+            parser.nextToken();
+            return decodeOrderBookDeltas(parser);
+        }
+        if (textEquals(parser, "bookTicker")) {
+            parser.nextToken();
+            return decodeBookTicker(parser);
+        }
+        if (textEquals(parser, "kline")) {
+            parser.nextToken();
+            return decodeBar(parser);
+        }
+        if (textEquals(parser, "24hrTicker") || textEquals(parser, "24hrMiniTicker")
+                || textEquals(parser, "ticker") || textEquals(parser, "miniTicker")) {
+            parser.nextToken();
+            return decodeQuoteTick(parser);
+        }
+        if (textEquals(parser, "markPriceUpdate")) {
+            parser.nextToken();
+            return decodeMarkPriceUpdate(parser);
+        }
+        if (textEquals(parser, "indexPriceUpdate")) {
+            parser.nextToken();
+            return decodeIndexPriceUpdate(parser);
+        }
+        if (textEquals(parser, "fundingRate")) {
+            parser.nextToken();
+            return decodeFundingRateUpdate(parser);
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("Received unsupported event type: {}", parser.getText());
+        }
+        return null;
+    }
+
+    /**
+     * 交易/聚合交易，字段见 {@link BinanceTreeDecoder}
+     */
+    private TradeTick decodeTradeTick(JsonParser parser, boolean aggregate) throws IOException {
+        TradeTick tradeTick = new TradeTick();
+        for (; parser.currentToken() == JsonToken.FIELD_NAME; parser.nextToken()) {
+            String name = parser.currentName();
+            parser.nextToken();
+            switch (name) {
+                case "t":
+                    if (!aggregate) {
+                        tradeTick.tradeId = parser.getText();
+                    }
+                    break;
+                case "a":
+                    if (aggregate) {
+                        tradeTick.tradeId = parser.getText();
+                    }
+                    break;
+                case "s":
+                    tradeTick.symbol = symbol(parser);
+                    break;
+                case "p":
+                    tradeTick.price = readPrice(parser);
+                    break;
+                case "q":
+                    tradeTick.quantity = readQuantity(parser);
+                    break;
+                case "T":
+                    tradeTick.tradeTimeMs = readLong(parser);
+                    break;
+                case "E":
+                    tradeTick.eventTimeMs = readLong(parser);
+                    break;
+                case "m":
+                    tradeTick.isBuyerMaker = parser.currentToken() == JsonToken.VALUE_TRUE;
+                    break;
+                default:
+                    parser.skipChildren();
+                    break;
+            }
+        }
+        return tradeTick;
+    }
+
+    /**
+     * 部分深度快照
+     */
+    private OrderBookDepth10 decodeOrderBookDepth(JsonParser parser) throws IOException {
+        OrderBookDepth10 depth = new OrderBookDepth10();
+        for (; parser.currentToken() == JsonToken.FIELD_NAME; parser.nextToken()) {
+            String name = parser.currentName();
+            parser.nextToken();
+            switch (name) {
+                case "s":
+                    depth.setSymbol(symbol(parser));
+                    break;
+                case "E":
+                    depth.setEventTime(readLong(parser));
+                    break;
+                case "lastUpdateId":
+                case "u":
+                    depth.setLastUpdateId(readLong(parser));
+                    break;
+                case "bids":
+                case "b":
+                    depth.setBids(readLevels(parser));
+                    break;
+                case "asks":
+                case "a":
+                    depth.setAsks(readLevels(parser));
+                    break;
+                default:
+                    parser.skipChildren();
+                    break;
+            }
+        }
+        if (depth.getSymbol() == null) {
+            depth.setSymbol(streamSymbol != null ? streamSymbol : "");
+        }
+        if (depth.getBids() == null) {
+            depth.setBids(List.of());
+        }
+        if (depth.getAsks() == null) {
+            depth.setAsks(List.of());
+        }
+        return depth;
+    }
+
+    /**
+     * 深度增量
+     */
+    private OrderBookDeltas decodeOrderBookDeltas(JsonParser parser) throws IOException {
+        OrderBookDeltas deltas = new OrderBookDeltas();
+        for (; parser.currentToken() == JsonToken.FIELD_NAME; parser.nextToken()) {
+            String name = parser.currentName();
+            parser.nextToken();
+            switch (name) {
+                case "s":
+                    deltas.setSymbol(symbol(parser));
+                    break;
+                case "E":
+                    deltas.setEventTime(readLong(parser));
+                    break;
+                case "U":
+                    deltas.setFirstUpdateId(readLong(parser));
+                    break;
+                case "u":
+                    deltas.setLastUpdateId(readLong(parser));
+                    break;
+                case "pu":
+                    deltas.setPreviousUpdateId(readLong(parser));
+                    break;
+                case "b":
+                    deltas.setBids(readLevels(parser));
+                    break;
+                case "a":
+                    deltas.setAsks(readLevels(parser));
+                    break;
+                default:
+                    parser.skipChildren();
+                    break;
+            }
+        }
+        if (deltas.getBids() == null) {
+            deltas.setBids(List.of());
+        }
+        if (deltas.getAsks() == null) {
+            deltas.setAsks(List.of());
+        }
+        return deltas;
+    }
+
+    /**
+     * 最优买卖盘
+     */
+    private QuoteTick decodeBookTicker(JsonParser parser) throws IOException {
+        QuoteTick quoteTick = new QuoteTick();
+        for (; parser.currentToken() == JsonToken.FIELD_NAME; parser.nextToken()) {
+            String name = parser.currentName();
+            parser.nextToken();
+            switch (name) {
+                case "s":
+                    quoteTick.setSymbol(symbol(parser));
+                    break;
+                case "b":
+                    quoteTick.setBidPrice(readPrice(parser));
+                    break;
+                case "B":
+                    quoteTick.setBidQuantity(readQuantity(parser));
+                    break;
+                case "a":
+                    quoteTick.setAskPrice(readPrice(parser));
+                    break;
+                case "A":
+                    quoteTick.setAskQuantity(readQuantity(parser));
+                    break;
+                case "E":
+                    quoteTick.setTimestampMs(readLong(parser));
+                    break;
+                default:
+                    parser.skipChildren();
+                    break;
+            }
+        }
+        if (quoteTick.getSymbol() == null) {
+            quoteTick.setSymbol(streamSymbol != null ? streamSymbol : "");
+        }
+        return quoteTick;
+    }
+
+    /**
+     * 24小时行情（完整/精简）
+     */
+    private QuoteTick decodeQuoteTick(JsonParser parser) throws IOException {
+        QuoteTick quoteTick = new QuoteTick();
+        for (; parser.currentToken() == JsonToken.FIELD_NAME; parser.nextToken()) {
+            String name = parser.currentName();
+            parser.nextToken();
+            switch (name) {
+                case "s":
+                    quoteTick.setSymbol(symbol(parser));
+                    break;
+                case "o":
+                    quoteTick.setOpenPrice(readDouble(parser));
+                    break;
+                case "h":
+                    quoteTick.setHighPrice(readDouble(parser));
+                    break;
+                case "l":
+                    quoteTick.setLowPrice(readDouble(parser));
+                    break;
+                case "c":
+                    quoteTick.setClosePrice(readDouble(parser));
+                    break;
+                case "v":
+                    quoteTick.setVolume(readDouble(parser));
+                    break;
+                case "q":
+                    quoteTick.setQuoteVolume(readDouble(parser));
+                    break;
+                case "E":
+                    quoteTick.setTimestampMs(readLong(parser));
+                    break;
+                default:
+                    parser.skipChildren();
+                    break;
+            }
+        }
+        return quoteTick;
+    }
+
+    /**
+     * K线，K线字段在嵌套的 k 对象中
+     */
+    private Bar decodeBar(JsonParser parser) throws IOException {
+        Bar bar = new Bar();
+        for (; parser.currentToken() == JsonToken.FIELD_NAME; parser.nextToken()) {
+            String name = parser.currentName();
+            parser.nextToken();
+            if ("s".equals(name)) {
+                bar.setSymbol(symbol(parser));
+            } else if ("k".equals(name) && parser.currentToken() == JsonToken.START_OBJECT) {
+                parser.nextToken();
+                decodeKline(parser, bar);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return bar;
+    }
+
+    private void decodeKline(JsonParser parser, Bar bar) throws IOException {
+        for (; parser.currentToken() == JsonToken.FIELD_NAME; parser.nextToken()) {
+            String name = parser.currentName();
+            parser.nextToken();
+            switch (name) {
+                case "s":
+                    bar.setSymbol(symbol(parser));
+                    break;
+                case "t":
+                    bar.setOpenTime(readLong(parser));
+                    break;
+                case "T":
+                    bar.setCloseTime(readLong(parser));
+                    break;
+                case "i":
+                    bar.setInterval(parser.getText());
+                    break;
+                case "o":
+                    bar.setOpenPrice(readDouble(parser));
+                    break;
+                case "h":
+                    bar.setHighPrice(readDouble(parser));
+                    break;
+                case "l":
+                    bar.setLowPrice(readDouble(parser));
+                    break;
+                case "c":
+                    bar.setClosePrice(readDouble(parser));
+                    break;
+                case "v":
+                    bar.setVolume(readDouble(parser));
+                    break;
+                case "n":
+                    bar.setTradeCount((int) readLong(parser));
+                    break;
+                case "q":
+                    bar.setQuoteVolume(readDouble(parser));
+                    break;
+                case "V":
+                    bar.setTakerBuyVolume(readDouble(parser));
+                    break;
+                case "Q":
+                    bar.setTakerBuyQuoteVolume(readDouble(parser));
+                    break;
+                case "x":
+                    bar.setClosed(parser.currentToken() == JsonToken.VALUE_TRUE);
+                    break;
+                default:
+                    parser.skipChildren();
+                    break;
+            }
+        }
+    }
+
+    private MarkPriceUpdate decodeMarkPriceUpdate(JsonParser parser) throws IOException {
+        MarkPriceUpdate markPriceUpdate = new MarkPriceUpdate();
+        for (; parser.currentToken() == JsonToken.FIELD_NAME; parser.nextToken()) {
+            String name = parser.currentName();
+            parser.nextToken();
+            switch (name) {
+                case "s":
+                    markPriceUpdate.setSymbol(symbol(parser));
+                    break;
+                case "p":
+                    markPriceUpdate.setMarkPrice(readDouble(parser));
+                    break;
+                case "i":
+                    markPriceUpdate.setIndexPrice(readDouble(parser));
+                    break;
+                case "r":
+                    markPriceUpdate.setFundingRate(readDouble(parser));
+                    break;
+                case "T":
+                    markPriceUpdate.setNextFundingTime(readLong(parser));
+                    break;
+                case "E":
+                    markPriceUpdate.setEventTime(readLong(parser));
+                    break;
+                default:
+                    parser.skipChildren();
+                    break;
+            }
+        }
+        return markPriceUpdate;
+    }
+
+    private IndexPriceUpdate decodeIndexPriceUpdate(JsonParser parser) throws IOException {
+        IndexPriceUpdate indexPriceUpdate = new IndexPriceUpdate();
+        for (; parser.currentToken() == JsonToken.FIELD_NAME; parser.nextToken()) {
+            String name = parser.currentName();
+            parser.nextToken();
+            switch (name) {
+                case "s":
+                    indexPriceUpdate.setSymbol(symbol(parser));
+                    break;
+                case "i":
+                    indexPriceUpdate.setIndexPrice(readDouble(parser));
+                    break;
+                case "E":
+                    indexPriceUpdate.setEventTime(readLong(parser));
+                    break;
+                default:
+                    parser.skipChildren();
+                    break;
+            }
+        }
+        return indexPriceUpdate;
+    }
+
+    private FundingRateUpdate decodeFundingRateUpdate(JsonParser parser) throws IOException {
+        FundingRateUpdate fundingRateUpdate = new FundingRateUpdate();
+        for (; parser.currentToken() == JsonToken.FIELD_NAME; parser.nextToken()) {
+            String name = parser.currentName();
+            parser.nextToken();
+            switch (name) {
+                case "s":
+                    fundingRateUpdate.setSymbol(symbol(parser));
+                    break;
+                case "r":
+                    fundingRateUpdate.setFundingRate(readDouble(parser));
+                    break;
+                case "T":
+                    fundingRateUpdate.setFundingTime(readLong(parser));
+                    break;
+                case "E":
+                    fundingRateUpdate.setEventTime(readLong(parser));
+                    break;
+                default:
+                    parser.skipChildren();
+                    break;
+            }
+        }
+        return fundingRateUpdate;
+    }
+
+    /**
+     * 读取 [[价格, 数量], ...] 档位数组，解析器位于数组开始处
+     */
+    private List<PriceLevel> readLevels(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return List.of();
+        }
+        List<PriceLevel> levels = new ArrayList<>(20);
+        while (parser.nextToken() == JsonToken.START_ARRAY) {
+            Price price = parser.nextToken() == JsonToken.END_ARRAY ? null : readPrice(parser);
+            Quantity quantity = price == null || parser.nextToken() == JsonToken.END_ARRAY ? null : readQuantity(parser);
+            if (quantity != null) {
+                levels.add(new PriceLevel(price, quantity));
+                // 跳过多余元素，停在档位数组结束处
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return levels;
+    }
+
+    /**
+     * 读取品种代码，已出现过的品种返回缓存的字符串，同时切换到该品种的价格/数量精度
+     */
+    private String symbol(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.VALUE_STRING) {
+            return parser.getValueAsString("");
+        }
+        return symbol(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+    }
+
+    private String symbol(char[] buffer, int offset, int length) {
+        for (int i = 0; i < symbolCount; i++) {
+            String cached = symbols[i];
+            if (cached.length() == length && regionEquals(cached, buffer, offset)) {
+                usePrecision(symbolIds[i]);
+                return cached;
+            }
+        }
+        String symbol = new String(buffer, offset, length);
+        int instrumentId = InstrumentRegistry.idOf(symbol);
+        if (symbolCount < MAX_CACHED_SYMBOLS) {
+            if (symbolCount == symbols.length) {
+                symbols = Arrays.copyOf(symbols, symbolCount * 2);
+                symbolIds = Arrays.copyOf(symbolIds, symbolCount * 2);
+            }
+            symbols[symbolCount] = symbol;
+            symbolIds[symbolCount++] = instrumentId;
+        }
+        usePrecision(instrumentId);
+        return symbol;
+    }
+
+    private void usePrecision(int instrumentId) {
+        pricePrecision = InstrumentRegistry.pricePrecision(instrumentId);
+        sizePrecision = InstrumentRegistry.sizePrecision(instrumentId);
+    }
+
+    private Price readPrice(JsonParser parser) throws IOException {
+        if (!parser.currentToken().isScalarValue() || parser.currentToken() == JsonToken.VALUE_NULL) {
+            parser.skipChildren();
+            return null;
+        }
+        return Price.parse(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength(), pricePrecision);
+    }
+
+    private Quantity readQuantity(JsonParser parser) throws IOException {
+        if (!parser.currentToken().isScalarValue() || parser.currentToken() == JsonToken.VALUE_NULL) {
+            parser.skipChildren();
+            return null;
+        }
+        return Quantity.parse(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength(), sizePrecision);
+    }
+
+    private static double readDouble(JsonParser parser) throws IOException {
+        switch (parser.currentToken()) {
+            case VALUE_STRING:
+                return parseDouble(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                return parser.getDoubleValue();
+            default:
+                parser.skipChildren();
+                return 0.0;
+        }
+    }
+
+    private static long readLong(JsonParser parser) throws IOException {
+        switch (parser.currentToken()) {
+            case VALUE_NUMBER_INT:
+                return parser.getLongValue();
+            case VALUE_STRING:
+            case VALUE_NUMBER_FLOAT:
+                return parser.getValueAsLong();
+            default:
+                parser.skipChildren();
+                return 0L;
+        }
+    }
+
+    /**
+     * 从字符缓冲解析十进制小数
+     *
+     * 有效数字不超过2^53且小数位不超过22位时，尾数和10的幂都能被double精确表示，
+     * 一次IEEE除法即得到正确舍入的结果（与 Double.parseDouble 一致）；其余情况回退到 Double.parseDouble。
+     */
+    static double parseDouble(char[] buffer, int offset, int length) {
+        int end = offset + length;
+        int i = offset;
+        boolean negative = false;
+        if (i < end && (buffer[i] == '-' || buffer[i] == '+')) {
+            negative = buffer[i] == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        boolean anyDigit = false;
+        int scale = -1;
+        for (; i < end; i++) {
+            char c = buffer[i];
+            if (c >= '0' && c <= '9') {
+                anyDigit = true;
+                if (mantissa > 0 || c != '0') {
+                    if (++digits > 16) {
+                        return Double.parseDouble(new String(buffer, offset, length));
+                    }
+                }
+                mantissa = mantissa * 10 + (c - '0');
+                if (scale >= 0) {
+                    scale++;
+                }
+            } else if (c == '.' && scale < 0) {
+                scale = 0;
+            } else {
+                return Double.parseDouble(new String(buffer, offset, length));
+            }
+        }
+        if (!anyDigit || mantissa > 1L << 53 || scale >= POW10.length) {
+            return Double.parseDouble(new String(buffer, offset, length));
+        }
+        double value = scale > 0 ? mantissa / POW10[scale] : mantissa;
+        return negative ? -value : value;
+    }
+
+    private static boolean textEquals(JsonParser parser, String expected) throws IOException {
+        return parser.currentToken() == JsonToken.VALUE_STRING
+                && parser.getTextLength() == expected.length()
+                && regionEquals(expected, parser.getTextCharacters(), parser.getTextOffset());
+    }
+
+    private static boolean regionEquals(String expected, char[] buffer, int offset) {
+        for (int i = 0; i < expected.length(); i++) {
+            if (buffer[offset + i] != expected.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean startsWith(char[] buffer, int offset, int end, String prefix) {
+        return end - offset >= prefix.length() && regionEquals(prefix, buffer, offset);
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
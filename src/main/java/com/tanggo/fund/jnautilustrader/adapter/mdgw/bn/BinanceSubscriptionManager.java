@@ -0,0 +1,221 @@
+package com.tanggo.fund.jnautilustrader.adapter.mdgw.bn;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 币安组合流订阅分片
+ * <p>
+ * 把订阅的流（如 btcusdt@trade）分配到多个组合流连接上：每个连接最多 maxStreamsPerConnection 个流
+ * （币安上限1024），已有连接有空位时优先填入编号最小的连接，都满时新建连接，直到 maxConnections。
+ * 每个分片记录当前应订阅的全部流，以及连接建立后需要通过 SUBSCRIBE/UNSUBSCRIBE 帧补发的增量；
+ * 连接（或重连）时以分片的全部流作为连接URL，增量清空。
+ * <p>
+ * 只在网关事件循环线程上访问，不做同步。
+ */
+public class BinanceSubscriptionManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(BinanceSubscriptionManager.class);
+
+    /**
+     * 币安单个连接最多订阅的流数量
+     */
+    public static final int EXCHANGE_MAX_STREAMS_PER_CONNECTION = 1024;
+
+    /**
+     * 一个组合流连接上的订阅
+     */
+    public static class Shard {
+        private final int index;
+        // 当前应订阅的全部流，按订阅顺序
+        private final Set<String> streams = new LinkedHashSet<>();
+        // 连接建立后待发送的增量
+        private final Set<String> pendingSubscribe = new LinkedHashSet<>();
+        private final Set<String> pendingUnsubscribe = new LinkedHashSet<>();
+
+        Shard(int index) {
+            this.index = index;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public int size() {
+            return streams.size();
+        }
+
+        public boolean isEmpty() {
+            return streams.isEmpty();
+        }
+
+        public boolean hasPending() {
+            return !pendingSubscribe.isEmpty() || !pendingUnsubscribe.isEmpty();
+        }
+
+        /**
+         * 当前应订阅的全部流
+         */
+        public List<String> getStreams() {
+            return new ArrayList<>(streams);
+        }
+
+        /**
+         * 建立连接时调用：返回全部流作为连接URL的参数，并清空增量
+         */
+        public List<String> snapshotForConnect() {
+            pendingSubscribe.clear();
+            pendingUnsubscribe.clear();
+            return getStreams();
+        }
+
+        /**
+         * 取出待退订的流，没有时返回空列表
+         */
+        public List<String> drainUnsubscribe() {
+            return drain(pendingUnsubscribe);
+        }
+
+        /**
+         * 取出待订阅的流，没有时返回空列表
+         */
+        public List<String> drainSubscribe() {
+            return drain(pendingSubscribe);
+        }
+
+        private static List<String> drain(Set<String> pending) {
+            if (pending.isEmpty()) {
+                return Collections.emptyList();
+            }
+            List<String> drained = new ArrayList<>(pending);
+            pending.clear();
+            return drained;
+        }
+    }
+
+    private final int maxStreamsPerConnection;
+    private final int maxConnections;
+    private final List<Shard> shards = new ArrayList<>();
+    private final Map<String, Shard> streamToShard = new HashMap<>();
+
+    public BinanceSubscriptionManager(int maxStreamsPerConnection, int maxConnections) {
+        if (maxStreamsPerConnection <= 0 || maxStreamsPerConnection > EXCHANGE_MAX_STREAMS_PER_CONNECTION) {
+            throw new IllegalArgumentException("maxStreamsPerConnection must be in [1, "
+                    + EXCHANGE_MAX_STREAMS_PER_CONNECTION + "]: " + maxStreamsPerConnection);
+        }
+        if (maxConnections <= 0) {
+            throw new IllegalArgumentException("maxConnections must be positive: " + maxConnections);
+        }
+        this.maxStreamsPerConnection = maxStreamsPerConnection;
+        this.maxConnections = maxConnections;
+    }
+
+    /**
+     * 流名称：品种小写 + "@" + 频道，如 btcusdt@depth10@100ms
+     */
+    public static String streamName(String symbol, String channel) {
+        return symbol.trim().toLowerCase(Locale.ROOT) + "@" + channel.trim();
+    }
+
+    /**
+     * 订阅流，已订阅的忽略
+     *
+     * @return 增加了订阅的分片
+     */
+    public List<Shard> subscribe(Collection<String> streams) {
+        List<Shard> changed = new ArrayList<>();
+        for (String stream : streams) {
+            if (streamToShard.containsKey(stream)) {
+                continue;
+            }
+            Shard shard = shardWithCapacity();
+            if (shard == null) {
+                logger.warn("币安订阅已达上限（{} 个连接 × {} 个流），忽略: {}", maxConnections, maxStreamsPerConnection, stream);
+                continue;
+            }
+            shard.streams.add(stream);
+            // 同一批次内先退订后订阅同一个流时两个增量抵消
+            if (!shard.pendingUnsubscribe.remove(stream)) {
+                shard.pendingSubscribe.add(stream);
+            }
+            streamToShard.put(stream, shard);
+            if (!changed.contains(shard)) {
+                changed.add(shard);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * 退订流，未订阅的忽略
+     *
+     * @return 减少了订阅的分片
+     */
+    public List<Shard> unsubscribe(Collection<String> streams) {
+        List<Shard> changed = new ArrayList<>();
+        for (String stream : streams) {
+            Shard shard = streamToShard.remove(stream);
+            if (shard == null) {
+                continue;
+            }
+            shard.streams.remove(stream);
+            if (!shard.pendingSubscribe.remove(stream)) {
+                shard.pendingUnsubscribe.add(stream);
+            }
+            if (!changed.contains(shard)) {
+                changed.add(shard);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * 流所在的分片，未订阅时返回null
+     */
+    public Shard shardOf(String stream) {
+        return streamToShard.get(stream);
+    }
+
+    public List<Shard> getShards() {
+        return Collections.unmodifiableList(shards);
+    }
+
+    /**
+     * 已订阅的流数量
+     */
+    public int size() {
+        return streamToShard.size();
+    }
+
+    public int getMaxStreamsPerConnection() {
+        return maxStreamsPerConnection;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    private Shard shardWithCapacity() {
+        for (Shard shard : shards) {
+            if (shard.streams.size() < maxStreamsPerConnection) {
+                return shard;
+            }
+        }
+        if (shards.size() >= maxConnections) {
+            return null;
+        }
+        Shard shard = new Shard(shards.size());
+        shards.add(shard);
+        return shard;
+    }
+}
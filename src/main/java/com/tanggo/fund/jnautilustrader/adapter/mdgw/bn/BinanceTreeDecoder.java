@@ -0,0 +1,407 @@
+package com.tanggo.fund.jnautilustrader.adapter.mdgw.bn;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tanggo.fund.jnautilustrader.core.entity.Price;
+import com.tanggo.fund.jnautilustrader.core.entity.Quantity;
+import com.tanggo.fund.jnautilustrader.core.entity.event.data.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 币安WebSocket消息解析器 - 树模型实现
+ *
+ * 网关原来的解析方式：先 readTree 整条消息，再把 data 节点 toString() 后交给各 parse 方法再次 readTree，
+ * 每帧解析两遍并在中间重新序列化一次。网关已改用 {@link BinanceStreamDecoder}，
+ * 这里保留原实现作为性能基准和一致性测试的参照。
+ */
+public class BinanceTreeDecoder {
+
+    private static final Logger logger = LoggerFactory.getLogger(BinanceTreeDecoder.class);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * 解析一条消息
+     *
+     * @return 解析出的行情数据对象，不支持的消息返回null
+     */
+    public Object decode(String message) throws Exception {
+        return parseMessage(message);
+    }
+
+    /**
+     * 解析币安WebSocket返回的各种类型的消息
+     */
+    private Object parseMessage(String message) throws Exception {
+        // 首先解析根节点
+        JsonNode rootNode = objectMapper.readTree(message);
+
+        // 检查是否是组合流格式（包含stream和data字段）
+        if (rootNode.has("stream") && rootNode.has("data")) {
+            String streamName = rootNode.path("stream").asText();
+            JsonNode dataNode = rootNode.path("data");
+
+            logger.debug("Stream name: '{}', contains @depth10: {}, contains @bookTicker: {}",
+                streamName,
+                streamName.contains("@depth10"),
+                streamName.contains("@bookTicker"));
+
+            // 某些流没有事件类型字段,需要通过stream名称识别
+            // depth10@100ms: 订单簿快照流
+            if (streamName.contains("@depth10")) {
+                logger.debug("Processing depth10 snapshot: {}", dataNode.toString());
+                return parseOrderBookDepth(dataNode.toString());
+            }
+
+            // bookTicker: 最优买卖价流(无事件类型字段)
+            if (streamName.contains("@bookTicker")) {
+                logger.debug("Processing bookTicker: {}", dataNode.toString());
+                return parseBookTicker(dataNode.toString());
+            }
+
+            // 其他流都有事件类型字段
+            String eventType = dataNode.path("e").asText();
+            switch (eventType) {
+                case "trade":
+                    return parseTradeTick(dataNode.toString());
+                case "aggTrade":
+                    return parseAggregateTradeTick(dataNode.toString());
+                case "depthUpdate":
+                    return parseOrderBookDelta(dataNode.toString());
+                case "kline":
+                    return parseBar(dataNode.toString());
+                case "miniTicker":
+                case "ticker":
+                    return parseQuoteTick(dataNode.toString());
+                case "markPriceUpdate":
+                    return parseMarkPriceUpdate(dataNode.toString());
+                case "indexPriceUpdate":
+                    return parseIndexPriceUpdate(dataNode.toString());
+                case "fundingRate":
+                    return parseFundingRateUpdate(dataNode.toString());
+                default:
+                    logger.debug("Received unsupported event type: {}, stream: {}", eventType, streamName);
+                    return null;
+            }
+        } else {
+            // 单流格式
+            String eventType = rootNode.path("e").asText();
+
+            switch (eventType) {
+                case "trade":
+                    return parseTradeTick(message);
+                case "aggTrade":
+                    return parseAggregateTradeTick(message);
+                case "depthUpdate":
+                    return parseOrderBookDelta(message);
+                case "kline":
+                    return parseBar(message);
+                case "miniTicker":
+                case "ticker":
+                    return parseQuoteTick(message);
+                case "markPriceUpdate":
+                    return parseMarkPriceUpdate(message);
+                case "indexPriceUpdate":
+                    return parseIndexPriceUpdate(message);
+                case "fundingRate":
+                    return parseFundingRateUpdate(message);
+                case "bookTicker":
+                    return parseBookTicker(message);
+                default:
+                    logger.debug("Received unsupported event type: {}", eventType);
+                    return null;
+            }
+        }
+    }
+
+    /**
+     * 解析币安WebSocket返回的交易数据
+     *
+     * 官方文档: https://binance-docs.github.io/apidocs/spot/en/#trade-streams
+     * 字段说明:
+     * - t: 交易ID
+     * - s: 品种代码
+     * - p: 价格
+     * - q: 数量
+     * - T: 成交时间（撮合引擎时间）
+     * - E: 事件时间（服务器发送时间）
+     * - m: 是否买方主动（true表示卖方主动）
+     */
+    private TradeTick parseTradeTick(String message) throws Exception {
+        JsonNode rootNode = objectMapper.readTree(message);
+        TradeTick tradeTick = new TradeTick();
+        tradeTick.tradeId = rootNode.path("t").asText();
+        tradeTick.symbol = rootNode.path("s").asText();
+        tradeTick.price = Price.of(rootNode.path("p").asText());
+        tradeTick.quantity = Quantity.of(rootNode.path("q").asText());
+        tradeTick.tradeTimeMs = rootNode.path("T").asLong();
+        tradeTick.eventTimeMs = rootNode.path("E").asLong();
+        tradeTick.isBuyerMaker = rootNode.path("m").asBoolean();
+        return tradeTick;
+    }
+
+    /**
+     * 解析币安WebSocket返回的聚合交易数据
+     *
+     * 官方文档: https://binance-docs.github.io/apidocs/spot/en/#aggregate-trade-streams
+     * 字段说明:
+     * - a: 聚合交易ID
+     * - s: 品种代码
+     * - p: 价格
+     * - q: 数量
+     * - f: 首笔交易ID
+     * - l: 末笔交易ID
+     * - T: 成交时间（撮合引擎时间）
+     * - E: 事件时间（服务器发送时间）
+     * - m: 是否买方主动（true表示卖方主动）
+     */
+    private TradeTick parseAggregateTradeTick(String message) throws Exception {
+        JsonNode rootNode = objectMapper.readTree(message);
+        TradeTick tradeTick = new TradeTick();
+        tradeTick.tradeId = rootNode.path("a").asText();
+        tradeTick.symbol = rootNode.path("s").asText();
+        tradeTick.price = Price.of(rootNode.path("p").asText());
+        tradeTick.quantity = Quantity.of(rootNode.path("q").asText());
+        tradeTick.tradeTimeMs = rootNode.path("T").asLong();
+        tradeTick.eventTimeMs = rootNode.path("E").asLong();
+        tradeTick.isBuyerMaker = rootNode.path("m").asBoolean();
+        return tradeTick;
+    }
+
+    /**
+     * 解析币安WebSocket返回的订单簿深度数据
+     *
+     * 官方文档: https://binance-docs.github.io/apidocs/spot/en/#partial-book-depth-streams
+     * 字段说明:
+     * - lastUpdateId: 最后更新ID（用于同步）
+     * - E: 事件时间（服务器发送时间）
+     * - s: 品种代码
+     * - bids: 买盘数据 [[价格, 数量], ...]
+     * - asks: 卖盘数据 [[价格, 数量], ...]
+     */
+    private OrderBookDepth10 parseOrderBookDepth(String message) throws Exception {
+        JsonNode rootNode = objectMapper.readTree(message);
+        OrderBookDepth10 depth = new OrderBookDepth10();
+        depth.setSymbol(rootNode.path("s").asText());
+        depth.setEventTime(rootNode.path("E").asLong());
+        depth.setLastUpdateId(rootNode.path("lastUpdateId").asLong());
+        // 解析买卖盘档位（价格和数量已在parseOrderBookLevels中记录为字符串列表）
+        depth.setBids(parseOrderBookLevels(rootNode.path("bids")));
+        depth.setAsks(parseOrderBookLevels(rootNode.path("asks")));
+        return depth;
+    }
+
+    /**
+     * 解析币安WebSocket返回的订单簿增量更新数据
+     *
+     * 官方文档: https://binance-docs.github.io/apidocs/spot/en/#diff-depth-stream
+     * 字段说明:
+     * - E: 事件时间（服务器发送时间）
+     * - s: 品种代码
+     * - U: 首笔更新ID
+     * - u: 末笔更新ID（用于同步）
+     * - pu: 上一条消息的末笔更新ID（仅合约）
+     * - b: 买盘增量数据 [[价格, 数量], ...]
+     * - a: 卖盘增量数据 [[价格, 数量], ...]
+     */
+    private OrderBookDeltas parseOrderBookDelta(String message) throws Exception {
+        JsonNode rootNode = objectMapper.readTree(message);
+        OrderBookDeltas deltas = new OrderBookDeltas();
+        deltas.setSymbol(rootNode.path("s").asText());
+        deltas.setEventTime(rootNode.path("E").asLong());
+        deltas.setFirstUpdateId(rootNode.path("U").asLong());
+        deltas.setLastUpdateId(rootNode.path("u").asLong());
+        deltas.setPreviousUpdateId(rootNode.path("pu").asLong());
+        deltas.setBids(parseOrderBookLevels(rootNode.path("b")));
+        deltas.setAsks(parseOrderBookLevels(rootNode.path("a")));
+        return deltas;
+    }
+
+    /**
+     * 解析币安WebSocket返回的K线数据
+     *
+     * 官方文档: https://binance-docs.github.io/apidocs/spot/en/#kline-candlestick-streams
+     * 字段说明:
+     * - t: 开盘时间
+     * - T: 收盘时间
+     * - s: 品种代码
+     * - i: K线间隔
+     * - f: 首笔交易ID
+     * - L: 末笔交易ID
+     * - o: 开盘价
+     * - h: 最高价
+     * - l: 最低价
+     * - c: 收盘价
+     * - v: 成交量（现货单位）
+     * - n: 交易次数
+     * - x: 是否闭合
+     * - q: 成交额（报价货币单位）
+     * - V: 主动买入量
+     * - Q: 主动买入额
+     */
+    private Bar parseBar(String message) throws Exception {
+        JsonNode rootNode = objectMapper.readTree(message);
+        Bar bar = new Bar();
+        // 币安K线数据结构: t=开盘时间, T=收盘时间, s=品种, i=间隔, f=首笔交易ID, L=末笔交易ID,
+        // o=开盘价, h=最高价, l=最低价, c=收盘价, v=成交量, n=交易次数, x=是否完成, q=成交额,
+        // V=主动买入成交量, Q=主动买入成交额
+        bar.setSymbol(rootNode.path("s").asText());
+        bar.setOpenTime(rootNode.path("t").asLong());
+        bar.setCloseTime(rootNode.path("T").asLong());
+        bar.setInterval(rootNode.path("i").asText());
+        bar.setOpenPrice(rootNode.path("o").asDouble());
+        bar.setHighPrice(rootNode.path("h").asDouble());
+        bar.setLowPrice(rootNode.path("l").asDouble());
+        bar.setClosePrice(rootNode.path("c").asDouble());
+        bar.setVolume(rootNode.path("v").asDouble());
+        bar.setTradeCount(rootNode.path("n").asInt());
+        bar.setQuoteVolume(rootNode.path("q").asDouble());
+        bar.setTakerBuyVolume(rootNode.path("V").asDouble());
+        bar.setTakerBuyQuoteVolume(rootNode.path("Q").asDouble());
+        bar.setClosed(rootNode.path("x").asBoolean());
+        return bar;
+    }
+
+    /**
+     * 解析币安WebSocket返回的报价数据
+     *
+     * 官方文档: https://binance-docs.github.io/apidocs/spot/en/#individual-symbol-mini-ticker-stream
+     * 字段说明:
+     * - e: 事件类型（"24hrTicker"或"miniTicker"）
+     * - E: 事件时间（服务器发送时间）
+     * - s: 品种代码
+     * - c: 最新价
+     * - o: 24小时开盘价
+     * - h: 24小时最高价
+     * - l: 24小时最低价
+     * - v: 24小时成交量（现货单位）
+     * - q: 24小时成交额（报价货币单位）
+     */
+    private QuoteTick parseQuoteTick(String message) throws Exception {
+        JsonNode rootNode = objectMapper.readTree(message);
+        QuoteTick quoteTick = new QuoteTick();
+        quoteTick.setSymbol(rootNode.path("s").asText());
+        quoteTick.setOpenPrice(rootNode.path("o").asDouble());
+        quoteTick.setHighPrice(rootNode.path("h").asDouble());
+        quoteTick.setLowPrice(rootNode.path("l").asDouble());
+        quoteTick.setClosePrice(rootNode.path("c").asDouble());
+        quoteTick.setVolume(rootNode.path("v").asDouble());
+        quoteTick.setQuoteVolume(rootNode.path("q").asDouble());
+        quoteTick.setTimestampMs(rootNode.path("E").asLong());
+        return quoteTick;
+    }
+
+    /**
+     * 解析币安WebSocket返回的标记价格更新数据
+     *
+     * 官方文档: https://binance-docs.github.io/apidocs/futures/en/#mark-price-stream
+     * 字段说明:
+     * - e: 事件类型（"markPriceUpdate"）
+     * - E: 事件时间（服务器发送时间）
+     * - s: 品种代码
+     * - p: 标记价格
+     * - i: 指数价格
+     * - r: 资金费率
+     * - T: 下次资金费用时间
+     */
+    private MarkPriceUpdate parseMarkPriceUpdate(String message) throws Exception {
+        JsonNode rootNode = objectMapper.readTree(message);
+        MarkPriceUpdate markPriceUpdate = new MarkPriceUpdate();
+        markPriceUpdate.setSymbol(rootNode.path("s").asText());
+        markPriceUpdate.setMarkPrice(rootNode.path("p").asDouble());
+        markPriceUpdate.setIndexPrice(rootNode.path("i").asDouble());
+        markPriceUpdate.setFundingRate(rootNode.path("r").asDouble());
+        markPriceUpdate.setNextFundingTime(rootNode.path("T").asLong());
+        markPriceUpdate.setEventTime(rootNode.path("E").asLong());
+        return markPriceUpdate;
+    }
+
+    /**
+     * 解析币安WebSocket返回的指数价格更新数据
+     *
+     * 官方文档: https://binance-docs.github.io/apidocs/futures/en/#index-price-stream
+     * 字段说明:
+     * - e: 事件类型（"indexPriceUpdate"）
+     * - E: 事件时间（服务器发送时间）
+     * - s: 品种代码
+     * - i: 指数价格
+     */
+    private IndexPriceUpdate parseIndexPriceUpdate(String message) throws Exception {
+        JsonNode rootNode = objectMapper.readTree(message);
+        IndexPriceUpdate indexPriceUpdate = new IndexPriceUpdate();
+        indexPriceUpdate.setSymbol(rootNode.path("s").asText());
+        indexPriceUpdate.setIndexPrice(rootNode.path("i").asDouble());
+        indexPriceUpdate.setEventTime(rootNode.path("E").asLong());
+        return indexPriceUpdate;
+    }
+
+    /**
+     * 解析币安WebSocket返回的资金费率更新数据
+     *
+     * 官方文档: https://binance-docs.github.io/apidocs/futures/en/#individual-symbol-funding-rate-streams
+     * 字段说明:
+     * - e: 事件类型（"fundingRate"）
+     * - E: 事件时间（服务器发送时间）
+     * - s: 品种代码
+     * - r: 资金费率
+     * - T: 资金费用时间
+     */
+    private FundingRateUpdate parseFundingRateUpdate(String message) throws Exception {
+        JsonNode rootNode = objectMapper.readTree(message);
+        FundingRateUpdate fundingRateUpdate = new FundingRateUpdate();
+        fundingRateUpdate.setSymbol(rootNode.path("s").asText());
+        fundingRateUpdate.setFundingRate(rootNode.path("r").asDouble());
+        fundingRateUpdate.setFundingTime(rootNode.path("T").asLong());
+        fundingRateUpdate.setEventTime(rootNode.path("E").asLong());
+        return fundingRateUpdate;
+    }
+
+    /**
+     * 解析币安WebSocket返回的最优买卖盘数据
+     *
+     * 官方文档: https://binance-docs.github.io/apidocs/spot/en/#individual-symbol-book-ticker-streams
+     * 字段说明:
+     * - u: 更新ID
+     * - s: 品种代码
+     * - b: 最佳买价
+     * - B: 最佳买量
+     * - a: 最佳卖价
+     * - A: 最佳卖量
+     * - T: 成交时间
+     * - E: 事件时间（服务器发送时间）
+     */
+    private QuoteTick parseBookTicker(String message) throws Exception {
+        JsonNode rootNode = objectMapper.readTree(message);
+        QuoteTick quoteTick = new QuoteTick();
+        quoteTick.setSymbol(rootNode.path("s").asText());
+        quoteTick.setBidPrice(Price.of(rootNode.path("b").asText()));
+        quoteTick.setBidQuantity(Quantity.of(rootNode.path("B").asText()));
+        quoteTick.setAskPrice(Price.of(rootNode.path("a").asText()));
+        quoteTick.setAskQuantity(Quantity.of(rootNode.path("A").asText()));
+        quoteTick.setTimestampMs(rootNode.path("E").asLong());
+        return quoteTick;
+    }
+
+    /**
+     * 解析订单簿档位数据
+     * 将 [[价格, 数量], ...] 格式转换为 PriceLevel 对象列表
+     */
+    private List<PriceLevel> parseOrderBookLevels(JsonNode levelsNode) {
+        if (levelsNode.isMissingNode() || !levelsNode.isArray()) {
+            return List.of();
+        }
+        List<PriceLevel> levels = new ArrayList<>();
+        for (JsonNode levelNode : levelsNode) {
+            if (levelNode.isArray() && levelNode.size() >= 2) {
+                String price = levelNode.get(0).asText();
+                String quantity = levelNode.get(1).asText();
+                levels.add(new PriceLevel(price, quantity));
+            }
+        }
+        return levels;
+    }
+}
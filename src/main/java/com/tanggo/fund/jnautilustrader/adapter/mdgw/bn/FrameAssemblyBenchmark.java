@@ -0,0 +1,93 @@
+package com.tanggo.fund.jnautilustrader.adapter.mdgw.bn;
+
+import com.tanggo.fund.jnautilustrader.adapter.mdgw.FrameAssembler;
+import com.tanggo.fund.jnautilustrader.adapter.mdgw.RecordedFrames;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.CharBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WebSocket分片重组 + 解析的内存分配基准测试
+ *
+ * 每次操作把一条录制帧（{@link RecordedFrames#BINANCE_COMBINED}）按 JDK HttpClient 的交付方式拆成两个 {@link CharBuffer} 分片，
+ * 重组后解析，比较每条消息的分配字节数（-prof gc 的 gc.alloc.rate.norm）：
+ * 1. stringBuilder：原实现，每个分片 toString() 后追加到 StringBuilder，完整消息再 toString() 交给 decode(String)
+ * 2. frameAssembler：分片直接复制到可复用的 {@link FrameAssembler}，从字符缓冲解析
+ * 3. frameAssemblerOnly：只重组不解析，验证重组本身零分配
+ *
+ * 运行方式：
+ * mvn clean install -DskipTests
+ * mvn exec:java -Dexec.mainClass="com.tanggo.fund.jnautilustrader.adapter.mdgw.bn.FrameAssemblyBenchmark" -Dexec.args="FrameAssemblyBenchmark -prof gc"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class FrameAssemblyBenchmark {
+
+    private CharBuffer[] firstFragments;
+    private CharBuffer[] lastFragments;
+    private int cursor;
+
+    private final StringBuilder messageBuffer = new StringBuilder();
+    private final FrameAssembler assembler = new FrameAssembler();
+    private BinanceStreamDecoder decoder;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        List<String> frames = RecordedFrames.load(RecordedFrames.BINANCE_COMBINED);
+        firstFragments = new CharBuffer[frames.size()];
+        lastFragments = new CharBuffer[frames.size()];
+        for (int i = 0; i < frames.size(); i++) {
+            char[] frame = frames.get(i).toCharArray();
+            int split = frame.length / 2;
+            firstFragments[i] = CharBuffer.wrap(frame, 0, split).slice();
+            lastFragments[i] = CharBuffer.wrap(frame, split, frame.length - split).slice();
+        }
+        decoder = new BinanceStreamDecoder();
+    }
+
+    @Benchmark
+    public Object stringBuilder() throws Exception {
+        int index = next();
+        messageBuffer.append(firstFragments[index].toString());
+        messageBuffer.append(lastFragments[index].toString());
+        String message = messageBuffer.toString();
+        messageBuffer.setLength(0);
+        return decoder.decode(message);
+    }
+
+    @Benchmark
+    public Object frameAssembler() throws Exception {
+        int index = next();
+        assembler.append(firstFragments[index]);
+        assembler.append(lastFragments[index]);
+        Object decoded = decoder.decode(assembler.buffer(), 0, assembler.length());
+        assembler.reset();
+        return decoded;
+    }
+
+    @Benchmark
+    public int frameAssemblerOnly() {
+        int index = next();
+        assembler.append(firstFragments[index]);
+        assembler.append(lastFragments[index]);
+        int length = assembler.length();
+        assembler.reset();
+        return length;
+    }
+
+    private int next() {
+        int index = cursor;
+        cursor = index + 1 == firstFragments.length ? 0 : index + 1;
+        return index;
+    }
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(args);
+    }
+}
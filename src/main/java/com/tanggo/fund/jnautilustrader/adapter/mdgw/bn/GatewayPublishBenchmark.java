@@ -0,0 +1,160 @@
+package com.tanggo.fund.jnautilustrader.adapter.mdgw.bn;
+
+import com.lmax.disruptor.BlockingWaitStrategy;
+import com.lmax.disruptor.dsl.ProducerType;
+import com.tanggo.fund.jnautilustrader.adapter.event_repo.event.BlockingQueueEventRepo;
+import com.tanggo.fund.jnautilustrader.adapter.event_repo.event.FlowControlEventRepo;
+import com.tanggo.fund.jnautilustrader.adapter.event_repo.event.PollingDisruptorEventRepo;
+import com.tanggo.fund.jnautilustrader.adapter.event_repo.event.SignallingEventRepo;
+import com.tanggo.fund.jnautilustrader.adapter.event_repo.event.TapEventRepo;
+import com.tanggo.fund.jnautilustrader.adapter.mdgw.RecordedFrames;
+import com.tanggo.fund.jnautilustrader.core.entity.Event;
+import com.tanggo.fund.jnautilustrader.core.entity.EventRepo;
+import com.tanggo.fund.jnautilustrader.core.entity.MarketData;
+import com.tanggo.fund.jnautilustrader.core.entity.SignalIdleStrategy;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 网关解析+发布的内存分配基准测试
+ *
+ * 按仓储比较：
+ * - PREALLOCATED：PollingDisruptorEventRepo，槽位预分配事件和 MarketData 载体（{@code MarketData::reusable}）
+ * - PRODUCTION：applicationContext.xml 中的仓储链（旁路归档 + 流量控制 + 唤醒 + PollingDisruptorEventRepo），
+ *   流量控制的暂存事件、合并/丢弃最旧的事件和归档队列的槽位都预分配载体，旁路复制到归档队列自己的槽位
+ * - BLOCKING_QUEUE：原来的 BlockingQueueEventRepo
+ *
+ * 两个基准：
+ * - publish：发布预先解析好的消息（录制帧解析一次后循环使用），然后取出事件，只测 claim/commit 发布路径
+ * - decodeAndPublish：用 BNMDGWWebSocketClient.handleMessage(char[]) 处理一条录制帧（{@link RecordedFrames#BINANCE_COMBINED}），
+ *   即流式解析 + 发布
+ *
+ * 用 -prof gc 查看 gc.alloc.rate.norm（JDK 17，-wi 3 -i 3），B/op：
+ * <pre>
+ *                   publish   decodeAndPublish
+ * PREALLOCATED        0           1054
+ * PRODUCTION          0           1054（修改前 1143）
+ * BLOCKING_QUEUE      112         1166
+ * </pre>
+ * 发布路径不分配内存的目标只覆盖 publish：解析仍然每帧分配（Jackson 解析器约536 B，
+ * 以及消息对象 TradeTick、Price/Quantity、PriceLevel 列表、成交ID字符串等，按消息类型约750～2400 B），
+ * 把解析器和消息对象改为复用的定长/享元对象需要改动所有消费者读取消息的方式，不在本基准覆盖的范围内。
+ *
+ * 运行方式：
+ * mvn clean install -DskipTests
+ * mvn exec:java -Dexec.mainClass="com.tanggo.fund.jnautilustrader.adapter.mdgw.bn.GatewayPublishBenchmark" -Dexec.args="-prof gc"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class GatewayPublishBenchmark {
+
+    private static final int BUFFER_SIZE = 1 << 15;
+
+    @Param({"PREALLOCATED", "PRODUCTION", "BLOCKING_QUEUE"})
+    public String repo;
+
+    private char[][] frames;
+    private Object[] messages;
+    private int cursor;
+
+    private EventRepo<MarketData> marketDataRepo;
+    private EventRepo<MarketData> archiveRepo;
+    private BNMDGWWebSocketClient gateway;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        List<String> recorded = RecordedFrames.load(RecordedFrames.BINANCE_COMBINED);
+        frames = new char[recorded.size()][];
+        for (int i = 0; i < frames.length; i++) {
+            frames[i] = recorded.get(i).toCharArray();
+        }
+        BinanceStreamDecoder decoder = new BinanceStreamDecoder();
+        List<Object> decoded = new ArrayList<>();
+        for (char[] frame : frames) {
+            Object message = decode(decoder, frame);
+            if (message != null) {
+                decoded.add(message);
+            }
+        }
+        messages = decoded.toArray();
+        switch (repo) {
+            case "PREALLOCATED":
+                marketDataRepo = new PollingDisruptorEventRepo<>(BUFFER_SIZE, ProducerType.MULTI,
+                        new BlockingWaitStrategy(), MarketData::reusable);
+                break;
+            case "PRODUCTION": {
+                FlowControlEventRepo<MarketData> flowControl = new FlowControlEventRepo<>(new SignallingEventRepo<>(
+                        new PollingDisruptorEventRepo<>(BUFFER_SIZE, ProducerType.MULTI, new BlockingWaitStrategy(),
+                                MarketData.reusableFactory()),
+                        new SignalIdleStrategy()), MarketData.reusableFactory());
+                flowControl.setPolicy("QUOTE_TICK", FlowControlEventRepo.Policy.CONFLATE);
+                flowControl.setPolicy("TRADE_TICK", FlowControlEventRepo.Policy.DROP_OLDEST);
+                archiveRepo = new PollingDisruptorEventRepo<>(65536, ProducerType.MULTI, new BlockingWaitStrategy(),
+                        MarketData.reusableFactory());
+                TapEventRepo<MarketData> tap = new TapEventRepo<>(flowControl, archiveRepo);
+                tap.setPayloadCopier(MarketData.copier());
+                marketDataRepo = tap;
+                break;
+            }
+            default:
+                marketDataRepo = new BlockingQueueEventRepo<>();
+                break;
+        }
+        gateway = new BNMDGWWebSocketClient(marketDataRepo);
+    }
+
+    @Benchmark
+    public void publish(Blackhole blackhole) {
+        Object message = messages[cursor];
+        cursor = cursor + 1 == messages.length ? 0 : cursor + 1;
+        gateway.publish(message, System.nanoTime());
+        drain(blackhole);
+    }
+
+    @Benchmark
+    public void decodeAndPublish(Blackhole blackhole) throws Exception {
+        char[] frame = frames[next()];
+        gateway.handleMessage(frame, 0, frame.length);
+        drain(blackhole);
+    }
+
+    private void drain(Blackhole blackhole) {
+        Event<MarketData> event;
+        while ((event = marketDataRepo.poll()) != null) {
+            blackhole.consume(event.payload.getMessage());
+        }
+        if (archiveRepo != null) {
+            while ((event = archiveRepo.poll()) != null) {
+                blackhole.consume(event);
+            }
+        }
+    }
+
+    private static Object decode(BinanceStreamDecoder decoder, char[] frame) {
+        try {
+            return decoder.decode(frame, 0, frame.length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private int next() {
+        int index = cursor;
+        cursor = index + 1 == frames.length ? 0 : index + 1;
+        return index;
+    }
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(args);
+    }
+}
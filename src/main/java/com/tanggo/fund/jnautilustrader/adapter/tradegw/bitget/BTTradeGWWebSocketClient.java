@@ -3,10 +3,17 @@ package com.tanggo.fund.jnautilustrader.adapter.tradegw.bitget;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.tanggo.fund.jnautilustrader.adapter.event_repo.event.BlockingQueueEventRepo;
+import com.tanggo.fund.jnautilustrader.adapter.config.IoExecutors;
+import com.tanggo.fund.jnautilustrader.core.actor.EventLoop;
+import com.tanggo.fund.jnautilustrader.core.actor.Reconnector;
+import com.tanggo.fund.jnautilustrader.core.actor.ThreadPlacement;
 import com.tanggo.fund.jnautilustrader.core.entity.Actor;
 import com.tanggo.fund.jnautilustrader.core.entity.Event;
+import com.tanggo.fund.jnautilustrader.core.entity.EventRepo;
+import com.tanggo.fund.jnautilustrader.core.entity.IdleStrategy;
 import com.tanggo.fund.jnautilustrader.core.entity.MarketData;
+import com.tanggo.fund.jnautilustrader.core.entity.Price;
+import com.tanggo.fund.jnautilustrader.core.entity.Quantity;
 import com.tanggo.fund.jnautilustrader.core.entity.TradeCmd;
 import com.tanggo.fund.jnautilustrader.core.entity.event.trade.PlaceOrder;
 import com.tanggo.fund.jnautilustrader.core.entity.event.data.TradeTick;
@@ -18,27 +25,36 @@ import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.WebSocket;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Bitget WebSocket交易网关客户端
  * 负责连接Bitget交易WebSocket API，发送交易命令并处理响应
+ * 交易命令处理和重连退避在网关自己的事件循环线程上执行；
+ * 阻塞的连接和关闭提交到I/O执行器（默认虚拟线程，见 {@link IoExecutors}），不阻塞事件循环
  */
 public class BTTradeGWWebSocketClient implements Actor {
 
     private static final Logger logger = LoggerFactory.getLogger(BTTradeGWWebSocketClient.class);
     private final ObjectMapper objectMapper;
     private final HttpClient httpClient;
-    private BlockingQueueEventRepo<MarketData> marketDataBlockingQueueEventRepo;
-    private BlockingQueueEventRepo<TradeCmd> tradeCmdEventRepo;
-    //todo 由外注入
-    private ScheduledExecutorService reconnectExecutor;
+    private EventRepo<MarketData> marketDataBlockingQueueEventRepo;
+    private EventRepo<TradeCmd> tradeCmdEventRepo;
+    private final EventLoop eventLoop;
+    private final Reconnector reconnector;
     @Value("${bitget.websocket.trade.url:wss://ws.bitget.com/v2/ws/private}")
     private String baseWebSocketUrl;
     private String listenKey; // Bitget WebSocket用户数据流监听密钥
-    private WebSocket webSocket;
+    private volatile WebSocket webSocket;
     private volatile boolean connected = false;
+    // 连接在I/O线程上进行中，事件循环不重复提交
+    private final AtomicBoolean connecting = new AtomicBoolean();
+    private ExecutorService ioExecutor;
+    // I/O执行器由网关自己创建时在关闭时一并关闭
+    private boolean ownsIoExecutor;
 
     /**
      * 无参构造函数 - Spring需要
@@ -46,23 +62,32 @@ public class BTTradeGWWebSocketClient implements Actor {
     public BTTradeGWWebSocketClient() {
         this.objectMapper = new ObjectMapper();
         this.httpClient = HttpClient.newHttpClient();
+        this.eventLoop = new EventLoop("bt-trade-gateway", this::doWork, IdleStrategy.BACKOFF);
+        this.reconnector = new Reconnector("Bitget trade", eventLoop, this::connect);
     }
 
     /**
      * 构造函数 - 用于注入依赖
      */
-    public BTTradeGWWebSocketClient(BlockingQueueEventRepo<MarketData> marketDataBlockingQueueEventRepo, BlockingQueueEventRepo<TradeCmd> tradeCmdEventRepo) {
+    public BTTradeGWWebSocketClient(EventRepo<MarketData> marketDataBlockingQueueEventRepo, EventRepo<TradeCmd> tradeCmdEventRepo) {
         this();
         this.marketDataBlockingQueueEventRepo = marketDataBlockingQueueEventRepo;
         this.tradeCmdEventRepo = tradeCmdEventRepo;
     }
 
     /**
-     * 构造函数 - 包含所有依赖
+     * 设置网关事件循环的线程放置策略（如CPU绑定），需在 start_link 之前调用
      */
-    public BTTradeGWWebSocketClient(BlockingQueueEventRepo<MarketData> marketDataBlockingQueueEventRepo, BlockingQueueEventRepo<TradeCmd> tradeCmdEventRepo, ScheduledExecutorService reconnectExecutor) {
-        this(marketDataBlockingQueueEventRepo, tradeCmdEventRepo);
-        this.reconnectExecutor = reconnectExecutor;
+    public void setThreadPlacement(ThreadPlacement threadPlacement) {
+        eventLoop.setPlacement(threadPlacement);
+    }
+
+    /**
+     * 设置执行阻塞I/O（连接、关闭）的执行器，需在 start_link 之前调用；
+     * 未设置时创建网关自己的虚拟线程执行器
+     */
+    public void setIoExecutor(ExecutorService ioExecutor) {
+        this.ioExecutor = ioExecutor;
     }
 
     /**
@@ -72,14 +97,32 @@ public class BTTradeGWWebSocketClient implements Actor {
     @Override
     public void start_link() {
         logger.info("初始化Bitget交易WebSocket客户端");
-        connect();
-        startCommandProcessing();
+        if (ioExecutor == null) {
+            ioExecutor = IoExecutors.newExecutor(IoExecutors.Mode.VIRTUAL, "bt-trade-io-");
+            ownsIoExecutor = true;
+        }
+        // 首次连接同样由事件循环发起
+        eventLoop.schedule(0, this::connect);
+        eventLoop.start();
     }
 
     /**
-     * 连接到Bitget交易WebSocket
+     * 在事件循环线程上发起连接：阻塞的连接提交到I/O执行器，已有连接进行中时忽略
      */
     private void connect() {
+        if (!connecting.compareAndSet(false, true)) {
+            return;
+        }
+        if (!submitIo(this::connectBlocking)) {
+            connecting.set(false);
+            reconnector.request();
+        }
+    }
+
+    /**
+     * 连接到Bitget交易WebSocket，在I/O线程上执行；结果通过重连器回报给事件循环
+     */
+    private void connectBlocking() {
         try {
             // 首先获取监听密钥（需要通过REST API获取）
             listenKey = getListenKey();
@@ -90,13 +133,31 @@ public class BTTradeGWWebSocketClient implements Actor {
             webSocket = httpClient.newWebSocketBuilder().buildAsync(URI.create(tradeWebSocketUrl), new TradeWebSocketListener()).get();
 
             connected = true;
+            reconnector.reset();
             logger.info("Bitget交易WebSocket连接成功");
 
             // 认证（需要发送API密钥信息）
             authenticate();
         } catch (Exception e) {
             logger.error("连接Bitget交易WebSocket失败: {}", e.getMessage(), e);
-            scheduleReconnect();
+            reconnector.request();
+        } finally {
+            connecting.set(false);
+        }
+    }
+
+    /**
+     * 提交阻塞任务到I/O执行器
+     *
+     * @return 执行器已关闭时返回false
+     */
+    private boolean submitIo(Runnable task) {
+        try {
+            ioExecutor.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            logger.warn("I/O执行器已关闭，任务未执行");
+            return false;
         }
     }
 
@@ -124,39 +185,29 @@ public class BTTradeGWWebSocketClient implements Actor {
     }
 
     /**
-     * 启动命令处理线程
+     * 事件循环工作：处理重连请求和一条交易命令
+     * 未连接时命令丢弃并告警
      */
-    private void startCommandProcessing() {
-        //todo 该线程由外面注入
-        Thread commandThread = new Thread(() -> {
-            while (!Thread.currentThread().isInterrupted()) {
-                try {
-                    Event<TradeCmd> event = tradeCmdEventRepo.receive();
-                    if (event != null && connected) {
-                        handleTradeCommand(event.getPayload());
-                    }
-                } catch (Exception e) {
-                    logger.error("处理交易命令失败: {}", e.getMessage(), e);
-                    if (!connected) {
-                        logger.warn("WebSocket未连接，等待重连");
-                        try {
-                            TimeUnit.SECONDS.sleep(5);
-                        } catch (InterruptedException ignored) {
-                            Thread.currentThread().interrupt();
-                        }
-                    }
-                }
+    private int doWork() {
+        int work = reconnector.poll();
+        Event<TradeCmd> event = tradeCmdEventRepo.poll();
+        if (event != null) {
+            work++;
+            if (connected) {
+                handleTradeCommand(event.getPayload());
+            } else {
+                logger.warn("WebSocket未连接，丢弃交易命令: {}", event.getPayload());
             }
-        }, "TradeCommandProcessor");
-        commandThread.start();
+        }
+        return work;
     }
 
     /**
      * 处理交易命令
      */
     private void handleTradeCommand(TradeCmd tradeCmd) {
-        switch (tradeCmd) {
-            case PLACE_ORDER:
+        switch (tradeCmd.getType()) {
+            case TradeCmd.PLACE_ORDER:
                 Object message = tradeCmd.getMessage();
                 if (message instanceof PlaceOrder) {
                     sendOrderCommand((PlaceOrder) message);
@@ -164,31 +215,31 @@ public class BTTradeGWWebSocketClient implements Actor {
                     logger.error("PLACE_ORDER命令的消息类型不正确: {}", message.getClass().getName());
                 }
                 break;
-            case CANCEL_ORDER:
+            case TradeCmd.CANCEL_ORDER:
                 // 处理取消订单命令
                 logger.debug("收到取消订单命令: {}", tradeCmd.getMessage());
                 break;
-            case MODIFY_ORDER:
+            case TradeCmd.MODIFY_ORDER:
                 // 处理修改订单命令
                 logger.debug("收到修改订单命令: {}", tradeCmd.getMessage());
                 break;
-            case QUERY_ORDER:
+            case TradeCmd.QUERY_ORDER:
                 // 处理查询订单命令
                 logger.debug("收到查询订单命令: {}", tradeCmd.getMessage());
                 break;
-            case QUERY_ACCOUNT:
+            case TradeCmd.QUERY_ACCOUNT:
                 // 处理查询账户命令
                 logger.debug("收到查询账户命令: {}", tradeCmd.getMessage());
                 break;
-            case QUERY_POSITION:
+            case TradeCmd.QUERY_POSITION:
                 // 处理查询仓位命令
                 logger.debug("收到查询仓位命令: {}", tradeCmd.getMessage());
                 break;
-            case CANCEL_ALL_ORDERS:
+            case TradeCmd.CANCEL_ALL_ORDERS:
                 // 处理取消所有订单命令
                 logger.debug("收到取消所有订单命令: {}", tradeCmd.getMessage());
                 break;
-            case CLOSE_POSITION:
+            case TradeCmd.CLOSE_POSITION:
                 // 处理平仓命令
                 logger.debug("收到平仓命令: {}", tradeCmd.getMessage());
                 break;
@@ -228,17 +279,20 @@ public class BTTradeGWWebSocketClient implements Actor {
      */
     private void handleConnectionError() {
         connected = false;
-        closeWebSocket();
-        scheduleReconnect();
+        WebSocket current = webSocket;
+        if (current != null && !submitIo(() -> closeWebSocket(current))) {
+            current.abort();
+        }
+        reconnector.request();
     }
 
     /**
-     * 关闭WebSocket连接
+     * 关闭WebSocket连接，等待关闭帧发送完成，在I/O线程或停止时调用
      */
-    private void closeWebSocket() {
-        if (webSocket != null) {
+    private void closeWebSocket(WebSocket current) {
+        if (current != null) {
             try {
-                webSocket.sendClose(WebSocket.NORMAL_CLOSURE, "关闭连接").get(5, TimeUnit.SECONDS);
+                current.sendClose(WebSocket.NORMAL_CLOSURE, "关闭连接").get(5, TimeUnit.SECONDS);
                 logger.info("WebSocket连接已关闭");
             } catch (Exception e) {
                 logger.error("关闭WebSocket连接失败: {}", e.getMessage(), e);
@@ -246,32 +300,16 @@ public class BTTradeGWWebSocketClient implements Actor {
         }
     }
 
-    /**
-     * 调度重连
-     */
-    private void scheduleReconnect() {
-        logger.info("5秒后尝试重连...");
-        reconnectExecutor.schedule(() -> {
-            logger.info("尝试重连...");
-            connect();
-        }, 5, TimeUnit.SECONDS);
-    }
-
     /**
      * 资源清理
      */
     public void destroy() {
         logger.info("正在关闭Bitget交易WebSocket客户端");
         connected = false;
-        closeWebSocket();
-        reconnectExecutor.shutdown();
-        try {
-            if (!reconnectExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
-                reconnectExecutor.shutdownNow();
-            }
-        } catch (InterruptedException e) {
-            reconnectExecutor.shutdownNow();
-            Thread.currentThread().interrupt();
+        eventLoop.stop();
+        closeWebSocket(webSocket);
+        if (ownsIoExecutor) {
+            ioExecutor.shutdown();
         }
         logger.info("Bitget交易WebSocket客户端已关闭");
     }
@@ -344,8 +382,8 @@ public class BTTradeGWWebSocketClient implements Actor {
         TradeTick tick = new TradeTick();
         tick.setTradeId(orderNode.path("ordId").asText());
         tick.setSymbol("BTCUSDT");
-        tick.setPrice(orderNode.path("px").asDouble());
-        tick.setQuantity(orderNode.path("sz").asDouble());
+        tick.setPrice(Price.of(orderNode.path("px").asText()));
+        tick.setQuantity(Quantity.of(orderNode.path("sz").asText()));
         tick.setTimestampMs(orderNode.path("ts").asLong());
         tick.setBuyerMaker("buy".equals(orderNode.path("side").asText()));
         return tick;
@@ -398,7 +436,7 @@ public class BTTradeGWWebSocketClient implements Actor {
             logger.warn("交易WebSocket已关闭: 状态码={}, 原因={}", statusCode, reason);
             connected = false;
             if (statusCode != WebSocket.NORMAL_CLOSURE) {
-                scheduleReconnect();
+                reconnector.request();
             }
             return CompletableFuture.completedFuture(null);
         }
@@ -3,10 +3,17 @@ package com.tanggo.fund.jnautilustrader.adapter.tradegw.bn;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.tanggo.fund.jnautilustrader.adapter.event_repo.event.BlockingQueueEventRepo;
+import com.tanggo.fund.jnautilustrader.adapter.config.IoExecutors;
+import com.tanggo.fund.jnautilustrader.core.actor.EventLoop;
+import com.tanggo.fund.jnautilustrader.core.actor.Reconnector;
+import com.tanggo.fund.jnautilustrader.core.actor.ThreadPlacement;
 import com.tanggo.fund.jnautilustrader.core.entity.Actor;
 import com.tanggo.fund.jnautilustrader.core.entity.Event;
+import com.tanggo.fund.jnautilustrader.core.entity.EventRepo;
+import com.tanggo.fund.jnautilustrader.core.entity.IdleStrategy;
 import com.tanggo.fund.jnautilustrader.core.entity.MarketData;
+import com.tanggo.fund.jnautilustrader.core.entity.Price;
+import com.tanggo.fund.jnautilustrader.core.entity.Quantity;
 import com.tanggo.fund.jnautilustrader.core.entity.TradeCmd;
 import com.tanggo.fund.jnautilustrader.core.entity.event.trade.PlaceOrder;
 import com.tanggo.fund.jnautilustrader.core.entity.event.trade.OrderUpdate;
@@ -18,30 +25,51 @@ import org.springframework.beans.factory.annotation.Value;
 
 import java.net.URI;
 import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
 import java.net.http.WebSocket;
+import java.time.Duration;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * 币安WebSocket交易网关客户端
  * 负责连接币安交易WebSocket API，发送交易命令并处理响应
+ * 交易命令处理和重连退避在网关自己的事件循环线程上执行，重连和listenKey保活由循环的时间轮驱动；
+ * 阻塞的连接、关闭和REST调用提交到I/O执行器（默认虚拟线程，见 {@link IoExecutors}），不阻塞事件循环
  */
 public class BNTradeGWWebSocketClient implements Actor {
 
     private static final Logger logger = LoggerFactory.getLogger(BNTradeGWWebSocketClient.class);
+
+    /**
+     * listenKey 有效期60分钟，每30分钟保活一次
+     */
+    private static final long LISTEN_KEY_KEEPALIVE_NANOS = TimeUnit.MINUTES.toNanos(30);
+    private static final String MOCK_LISTEN_KEY = "mock_listen_key";
     private final ObjectMapper objectMapper;
     private final HttpClient httpClient;
-    private BlockingQueueEventRepo<MarketData> marketDataBlockingQueueEventRepo;
-    private BlockingQueueEventRepo<TradeCmd> tradeCmdEventRepo;
-    //todo 由外注入
-    private ScheduledExecutorService reconnectExecutor;
-    private boolean ownScheduler; // 标记是否自己创建的调度器
+    private EventRepo<MarketData> marketDataBlockingQueueEventRepo;
+    private EventRepo<TradeCmd> tradeCmdEventRepo;
+    private final EventLoop eventLoop;
+    private final Reconnector reconnector;
     @Value("${binance.websocket.trade.url:wss://stream.binance.com:9443/ws}")
     private String baseWebSocketUrl;
-    private String listenKey; // 币安WebSocket用户数据流监听密钥
-    private WebSocket webSocket;
+    @Value("${binance.rest.url:https://api.binance.com}")
+    private String baseRestUrl;
+    @Value("${binance.api.key:}")
+    private String apiKey;
+    private volatile String listenKey; // 币安WebSocket用户数据流监听密钥
+    private volatile WebSocket webSocket;
     private volatile boolean connected = false;
+    // 连接在I/O线程上进行中，事件循环不重复提交
+    private final AtomicBoolean connecting = new AtomicBoolean();
+    private ExecutorService ioExecutor;
+    // I/O执行器由网关自己创建时在关闭时一并关闭
+    private boolean ownsIoExecutor;
 
     /**
      * 无参构造函数 - Spring需要
@@ -49,27 +77,34 @@ public class BNTradeGWWebSocketClient implements Actor {
     public BNTradeGWWebSocketClient() {
         this.objectMapper = new ObjectMapper();
         this.httpClient = HttpClient.newHttpClient();
-        this.ownScheduler = true;
+        this.eventLoop = new EventLoop("bn-trade-gateway", this::doWork, IdleStrategy.BACKOFF);
+        this.reconnector = new Reconnector("Binance trade", eventLoop, this::connect);
     }
 
     /**
      * 构造函数 - 用于注入依赖
      */
-    public BNTradeGWWebSocketClient(BlockingQueueEventRepo<MarketData> marketDataBlockingQueueEventRepo, BlockingQueueEventRepo<TradeCmd> tradeCmdEventRepo) {
+    public BNTradeGWWebSocketClient(EventRepo<MarketData> marketDataBlockingQueueEventRepo, EventRepo<TradeCmd> tradeCmdEventRepo) {
         this();
         this.marketDataBlockingQueueEventRepo = marketDataBlockingQueueEventRepo;
         this.tradeCmdEventRepo = tradeCmdEventRepo;
     }
 
+
     /**
-     * 构造函数 - 包含所有依赖
+     * 设置网关事件循环的线程放置策略（如CPU绑定），需在 start_link 之前调用
      */
-    public BNTradeGWWebSocketClient(BlockingQueueEventRepo<MarketData> marketDataBlockingQueueEventRepo, BlockingQueueEventRepo<TradeCmd> tradeCmdEventRepo, ScheduledExecutorService reconnectExecutor) {
-        this(marketDataBlockingQueueEventRepo, tradeCmdEventRepo);
-        this.reconnectExecutor = reconnectExecutor;
-        this.ownScheduler = false;
+    public void setThreadPlacement(ThreadPlacement threadPlacement) {
+        eventLoop.setPlacement(threadPlacement);
     }
 
+    /**
+     * 设置执行阻塞I/O（连接、关闭、REST调用）的执行器，需在 start_link 之前调用；
+     * 未设置时创建网关自己的虚拟线程执行器
+     */
+    public void setIoExecutor(ExecutorService ioExecutor) {
+        this.ioExecutor = ioExecutor;
+    }
 
     /**
      * 初始化连接
@@ -77,14 +112,33 @@ public class BNTradeGWWebSocketClient implements Actor {
     @Override
     public void start_link() {
         logger.info("初始化币安交易WebSocket客户端");
-        connect();
-        startCommandProcessing();
+        if (ioExecutor == null) {
+            ioExecutor = IoExecutors.newExecutor(IoExecutors.Mode.VIRTUAL, "bn-trade-io-");
+            ownsIoExecutor = true;
+        }
+        // 首次连接同样由事件循环发起
+        eventLoop.schedule(0, this::connect);
+        eventLoop.schedulePeriodic(LISTEN_KEY_KEEPALIVE_NANOS, this::keepAliveListenKey);
+        eventLoop.start();
     }
 
     /**
-     * 连接到币安交易WebSocket
+     * 在事件循环线程上发起连接：阻塞的连接提交到I/O执行器，已有连接进行中时忽略
      */
     private void connect() {
+        if (!connecting.compareAndSet(false, true)) {
+            return;
+        }
+        if (!submitIo(this::connectBlocking)) {
+            connecting.set(false);
+            reconnector.request();
+        }
+    }
+
+    /**
+     * 连接到币安交易WebSocket，在I/O线程上执行；结果通过重连器回报给事件循环
+     */
+    private void connectBlocking() {
         try {
             // 首先获取监听密钥（需要通过REST API获取）
             // 这里简化处理，实际应该调用币安API获取listenKey
@@ -96,10 +150,13 @@ public class BNTradeGWWebSocketClient implements Actor {
             webSocket = httpClient.newWebSocketBuilder().buildAsync(URI.create(tradeWebSocketUrl), new TradeWebSocketListener()).get();
 
             connected = true;
+            reconnector.reset();
             logger.info("币安交易WebSocket连接成功");
         } catch (Exception e) {
             logger.error("连接币安交易WebSocket失败: {}", e.getMessage(), e);
-            scheduleReconnect();
+            reconnector.request();
+        } finally {
+            connecting.set(false);
         }
     }
 
@@ -109,42 +166,79 @@ public class BNTradeGWWebSocketClient implements Actor {
     private String getListenKey() {
         // 实际应该通过币安REST API获取
         // POST /api/v3/userDataStream
-        return "mock_listen_key";
+        return MOCK_LISTEN_KEY;
     }
 
     /**
-     * 启动命令处理线程
+     * listenKey 保活，由事件循环定时触发，REST调用在I/O线程上执行
+     * 未配置API Key或使用模拟listenKey时跳过
      */
-    private void startCommandProcessing() {
-        Thread commandThread = new Thread(() -> {
-            while (!Thread.currentThread().isInterrupted()) {
-                try {
-                    Event<TradeCmd> event = tradeCmdEventRepo.receive();
-                    if (event != null && connected) {
-                        handleTradeCommand(event.getPayload());
-                    }
-                } catch (Exception e) {
-                    logger.error("处理交易命令失败: {}", e.getMessage(), e);
-                    if (!connected) {
-                        logger.warn("WebSocket未连接，等待重连");
-                        try {
-                            TimeUnit.SECONDS.sleep(5);
-                        } catch (InterruptedException ignored) {
-                            Thread.currentThread().interrupt();
-                        }
-                    }
+    private void keepAliveListenKey() {
+        String key = listenKey;
+        if (key == null || MOCK_LISTEN_KEY.equals(key) || apiKey == null || apiKey.isBlank()) {
+            return;
+        }
+        submitIo(() -> {
+            try {
+                // PUT /api/v3/userDataStream 延长listenKey有效期
+                HttpRequest request = HttpRequest.newBuilder(URI.create(baseRestUrl + "/api/v3/userDataStream?listenKey=" + key))
+                        .header("X-MBX-APIKEY", apiKey)
+                        .timeout(Duration.ofSeconds(10))
+                        .PUT(HttpRequest.BodyPublishers.noBody())
+                        .build();
+                HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() == 200) {
+                    logger.debug("listenKey保活成功");
+                } else {
+                    logger.warn("listenKey保活失败: 状态码={}, 响应={}", response.statusCode(), response.body());
                 }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                logger.warn("listenKey保活失败: {}", e.getMessage());
             }
-        }, "TradeCommandProcessor");
-        commandThread.start();
+        });
+    }
+
+    /**
+     * 提交阻塞任务到I/O执行器
+     *
+     * @return 执行器已关闭时返回false
+     */
+    private boolean submitIo(Runnable task) {
+        try {
+            ioExecutor.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            logger.warn("I/O执行器已关闭，任务未执行");
+            return false;
+        }
+    }
+
+    /**
+     * 事件循环工作：处理重连请求和一条交易命令
+     * 未连接时命令丢弃并告警
+     */
+    private int doWork() {
+        int work = reconnector.poll();
+        Event<TradeCmd> event = tradeCmdEventRepo.poll();
+        if (event != null) {
+            work++;
+            if (connected) {
+                handleTradeCommand(event.getPayload());
+            } else {
+                logger.warn("WebSocket未连接，丢弃交易命令: {}", event.getPayload());
+            }
+        }
+        return work;
     }
 
     /**
      * 处理交易命令
      */
     private void handleTradeCommand(TradeCmd tradeCmd) {
-        switch (tradeCmd) {
-            case PLACE_ORDER:
+        switch (tradeCmd.getType()) {
+            case TradeCmd.PLACE_ORDER:
                 Object message = tradeCmd.getMessage();
                 if (message instanceof PlaceOrder) {
                     sendOrderCommand((PlaceOrder) message);
@@ -152,31 +246,31 @@ public class BNTradeGWWebSocketClient implements Actor {
                     logger.error("PLACE_ORDER命令的消息类型不正确: {}", message.getClass().getName());
                 }
                 break;
-            case CANCEL_ORDER:
+            case TradeCmd.CANCEL_ORDER:
                 // 处理取消订单命令
                 logger.debug("收到取消订单命令: {}", tradeCmd.getMessage());
                 break;
-            case MODIFY_ORDER:
+            case TradeCmd.MODIFY_ORDER:
                 // 处理修改订单命令
                 logger.debug("收到修改订单命令: {}", tradeCmd.getMessage());
                 break;
-            case QUERY_ORDER:
+            case TradeCmd.QUERY_ORDER:
                 // 处理查询订单命令
                 logger.debug("收到查询订单命令: {}", tradeCmd.getMessage());
                 break;
-            case QUERY_ACCOUNT:
+            case TradeCmd.QUERY_ACCOUNT:
                 // 处理查询账户命令
                 logger.debug("收到查询账户命令: {}", tradeCmd.getMessage());
                 break;
-            case QUERY_POSITION:
+            case TradeCmd.QUERY_POSITION:
                 // 处理查询仓位命令
                 logger.debug("收到查询仓位命令: {}", tradeCmd.getMessage());
                 break;
-            case CANCEL_ALL_ORDERS:
+            case TradeCmd.CANCEL_ALL_ORDERS:
                 // 处理取消所有订单命令
                 logger.debug("收到取消所有订单命令: {}", tradeCmd.getMessage());
                 break;
-            case CLOSE_POSITION:
+            case TradeCmd.CLOSE_POSITION:
                 // 处理平仓命令
                 logger.debug("收到平仓命令: {}", tradeCmd.getMessage());
                 break;
@@ -219,8 +313,11 @@ public class BNTradeGWWebSocketClient implements Actor {
         if (placeOrder.getTimeInForce() != null) {
             orderNode.put("timeInForce", placeOrder.getTimeInForce());
         }
-        orderNode.put("quantity", placeOrder.getQuantity());
-        orderNode.put("price", placeOrder.getPrice());
+        // 定点数输出精确的十进制文本，避免double格式化出科学计数法或多余小数位
+        orderNode.put("quantity", placeOrder.getQuantity().toString());
+        if (placeOrder.getPrice() != null) {
+            orderNode.put("price", placeOrder.getPrice().toString());
+        }
         if (placeOrder.getNewClientOrderId() != null) {
             orderNode.put("newClientOrderId", placeOrder.getNewClientOrderId());
         }
@@ -232,17 +329,20 @@ public class BNTradeGWWebSocketClient implements Actor {
      */
     private void handleConnectionError() {
         connected = false;
-        closeWebSocket();
-        scheduleReconnect();
+        WebSocket current = webSocket;
+        if (current != null && !submitIo(() -> closeWebSocket(current))) {
+            current.abort();
+        }
+        reconnector.request();
     }
 
     /**
-     * 关闭WebSocket连接
+     * 关闭WebSocket连接，等待关闭帧发送完成，在I/O线程或停止时调用
      */
-    private void closeWebSocket() {
-        if (webSocket != null) {
+    private void closeWebSocket(WebSocket current) {
+        if (current != null) {
             try {
-                webSocket.sendClose(WebSocket.NORMAL_CLOSURE, "关闭连接").get(5, TimeUnit.SECONDS);
+                current.sendClose(WebSocket.NORMAL_CLOSURE, "关闭连接").get(5, TimeUnit.SECONDS);
                 logger.info("WebSocket连接已关闭");
             } catch (Exception e) {
                 logger.error("关闭WebSocket连接失败: {}", e.getMessage(), e);
@@ -250,35 +350,16 @@ public class BNTradeGWWebSocketClient implements Actor {
         }
     }
 
-    /**
-     * 调度重连
-     */
-    private void scheduleReconnect() {
-        logger.info("5秒后尝试重连...");
-        reconnectExecutor.schedule(() -> {
-            logger.info("尝试重连...");
-            connect();
-        }, 5, TimeUnit.SECONDS);
-    }
-
     /**
      * 资源清理
      */
     public void destroy() {
         logger.info("正在关闭币安交易WebSocket客户端");
         connected = false;
-        closeWebSocket();
-        // 只关闭自己创建的调度器
-        if (ownScheduler && reconnectExecutor != null) {
-            reconnectExecutor.shutdown();
-            try {
-                if (!reconnectExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
-                    reconnectExecutor.shutdownNow();
-                }
-            } catch (InterruptedException e) {
-                reconnectExecutor.shutdownNow();
-                Thread.currentThread().interrupt();
-            }
+        eventLoop.stop();
+        closeWebSocket(webSocket);
+        if (ownsIoExecutor) {
+            ioExecutor.shutdown();
         }
         logger.info("币安交易WebSocket客户端已关闭");
     }
@@ -441,8 +522,8 @@ public class BNTradeGWWebSocketClient implements Actor {
         TradeTick tick = new TradeTick();
         tick.setTradeId(report.path("t").asText());
         tick.setSymbol(report.path("s").asText());
-        tick.setPrice(report.path("L").asDouble()); // 使用最后成交价格
-        tick.setQuantity(report.path("l").asDouble()); // 使用最后成交数量
+        tick.setPrice(Price.of(report.path("L").asText())); // 使用最后成交价格
+        tick.setQuantity(Quantity.of(report.path("l").asText())); // 使用最后成交数量
         tick.setTimestampMs(report.path("T").asLong());
         tick.setBuyerMaker(report.path("m").asBoolean());
         return tick;
@@ -503,7 +584,7 @@ public class BNTradeGWWebSocketClient implements Actor {
             logger.warn("交易WebSocket已关闭: 状态码={}, 原因={}", statusCode, reason);
             connected = false;
             if (statusCode != WebSocket.NORMAL_CLOSURE) {
-                scheduleReconnect();
+                reconnector.request();
             }
             return CompletableFuture.completedFuture(null);
         }
@@ -0,0 +1,263 @@
+package com.tanggo.fund.jnautilustrader.core.actor;
+
+import com.tanggo.fund.jnautilustrader.core.entity.Clock;
+import com.tanggo.fund.jnautilustrader.core.entity.IdleStrategy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 单线程事件循环
+ * <p>
+ * 每次迭代先执行一次工作（通常是从事件仓储轮询并处理事件），再触发到期的定时器；
+ * 两者都没有产出时按 {@link IdleStrategy} 空闲等待，有事件时立即重试。
+ * 事件处理、策略检查和定时回调都在同一线程上执行，状态无需同步，反应延迟只取决于队列和空闲策略，
+ * 而不是固定的 sleep 间隔。
+ * <p>
+ * 定时器由 {@link TimerWheel} 管理，周期重报价、节流、超时、心跳检查和重连退避都挂在循环自己的时间轮上，
+ * 不需要额外的调度线程；空闲等待不会越过下一个定时器的到期时间。
+ * {@link #schedule}、{@link #schedulePeriodic}、{@link #scheduleCoalesced}、{@link #cancel}
+ * 只能在事件循环线程内（或启动前）调用；其它线程通过 {@link #wakeup()} 和各自的标志位请求循环处理。
+ * <p>
+ * 定时器的时间取自 {@link Clock}，默认 {@link Clock#SYSTEM}；回放时使用
+ * {@link com.tanggo.fund.jnautilustrader.core.entity.SimulatedClock}，由回放驱动推进时间后在同一线程上调用 {@link #doWork()}。
+ */
+public class EventLoop implements Runnable {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventLoop.class);
+
+    /**
+     * 一次工作单元
+     */
+    @FunctionalInterface
+    public interface Work {
+        /**
+         * 执行一次工作
+         *
+         * @return 完成的工作量，0表示本次没有工作可做
+         */
+        int doWork() throws Exception;
+    }
+
+    private final String name;
+    private final Work work;
+    private final IdleStrategy idleStrategy;
+    private final TimerWheel timerWheel;
+    private final Clock clock;
+
+    private volatile ThreadPlacement placement = ThreadPlacement.NONE;
+    private volatile boolean running;
+    private volatile Thread thread;
+
+    // 仅事件循环线程访问
+    private long iterationCount;
+    private long workCount;
+    private long timerCount;
+
+    public EventLoop(String name, Work work, IdleStrategy idleStrategy) {
+        this(name, work, idleStrategy, TimerWheel.DEFAULT_TICK_NANOS);
+    }
+
+    public EventLoop(String name, Work work, IdleStrategy idleStrategy, long timerTickNanos) {
+        this(name, work, idleStrategy, timerTickNanos, Clock.SYSTEM);
+    }
+
+    public EventLoop(String name, Work work, IdleStrategy idleStrategy, Clock clock) {
+        this(name, work, idleStrategy, TimerWheel.DEFAULT_TICK_NANOS, clock);
+    }
+
+    public EventLoop(String name, Work work, IdleStrategy idleStrategy, long timerTickNanos, Clock clock) {
+        this.name = name;
+        this.work = work;
+        this.idleStrategy = idleStrategy;
+        this.clock = clock;
+        this.timerWheel = new TimerWheel(clock.nanoTime(), timerTickNanos, TimerWheel.DEFAULT_WHEEL_SIZE);
+        this.running = true;
+    }
+
+    /**
+     * 在新的守护线程上运行，线程名与事件循环同名
+     *
+     * @return 已启动的线程
+     */
+    public Thread start() {
+        Thread loopThread = new Thread(this, name);
+        loopThread.setDaemon(true);
+        loopThread.start();
+        return loopThread;
+    }
+
+    /**
+     * 在当前线程上运行，直到 {@link #stop()} 或线程被中断
+     */
+    @Override
+    public void run() {
+        thread = Thread.currentThread();
+        try {
+            placement.bind(name);
+        } catch (RuntimeException e) {
+            logger.warn("事件循环线程放置失败，按未绑定运行: {}", name, e);
+        }
+        logger.info("事件循环启动: {}", name);
+        int idleCount = 0;
+        try {
+            while (running && !Thread.currentThread().isInterrupted()) {
+                if (doWork() > 0) {
+                    idleCount = 0;
+                } else {
+                    idleStrategy.idle(idleCount, nanosToNextTimer());
+                    if (idleCount < Integer.MAX_VALUE) {
+                        idleCount++;
+                    }
+                }
+            }
+        } finally {
+            running = false;
+            thread = null;
+            logger.info("事件循环退出: {} - 迭代: {}, 工作: {}, 定时器触发: {}", name, iterationCount, workCount, timerCount);
+        }
+    }
+
+    /**
+     * 执行一次迭代：工作 + 到期定时器
+     *
+     * @return 本次迭代的工作量与触发的定时器数之和
+     */
+    public int doWork() {
+        iterationCount++;
+        int done = 0;
+        try {
+            done = work.doWork();
+            workCount += done;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        } catch (Exception e) {
+            logger.error("事件循环工作失败: {}", name, e);
+            done = 1;
+        }
+        try {
+            int fired = timerWheel.poll(clock.nanoTime());
+            timerCount += fired;
+            done += fired;
+        } catch (RuntimeException e) {
+            logger.error("事件循环定时任务失败: {}", name, e);
+            done++;
+        }
+        return done;
+    }
+
+    /**
+     * 请求停止，事件循环在当前迭代结束后退出；可从任意线程调用
+     */
+    public void stop() {
+        running = false;
+        wakeup();
+    }
+
+    /**
+     * 唤醒空闲等待中的事件循环；可从任意线程调用
+     * <p>
+     * 用于其它线程设置标志位（如重连请求）后让循环尽快处理，而不必等到下一次定时唤醒。
+     */
+    public void wakeup() {
+        Thread current = thread;
+        if (current != null) {
+            LockSupport.unpark(current);
+        }
+    }
+
+    /**
+     * 调度一次性定时任务
+     *
+     * @param delayNanos 延迟（纳秒）
+     * @return 定时器ID
+     */
+    public long schedule(long delayNanos, Runnable task) {
+        return timerWheel.schedule(clock.nanoTime() + delayNanos, 0, task);
+    }
+
+    /**
+     * 调度周期定时任务，首次在一个周期后执行
+     *
+     * @param periodNanos 周期（纳秒）
+     * @return 定时器ID
+     */
+    public long schedulePeriodic(long periodNanos, Runnable task) {
+        if (periodNanos <= 0) {
+            throw new IllegalArgumentException("Period must be positive: " + periodNanos);
+        }
+        return timerWheel.schedule(clock.nanoTime() + periodNanos, periodNanos, task);
+    }
+
+    /**
+     * 合并调度一次性定时任务
+     * <p>
+     * timerId 对应的定时器尚未触发时保留原定时器（到期时间取较早者），否则新建；
+     * 同一动作反复请求时只挂一个定时器，见 {@link TimerWheel#scheduleCoalesced}。
+     *
+     * @param timerId    之前返回的定时器ID，或 {@link TimerWheel#NULL_TIMER}
+     * @param delayNanos 延迟（纳秒）
+     * @return 有效的定时器ID
+     */
+    public long scheduleCoalesced(long timerId, long delayNanos, Runnable task) {
+        return timerWheel.scheduleCoalesced(timerId, clock.nanoTime() + delayNanos, task);
+    }
+
+    /**
+     * 距下一个定时器到期的纳秒数（可能提前，不会延后），没有定时器时为 {@link Long#MAX_VALUE}
+     */
+    public long nanosToNextTimer() {
+        return timerWheel.nanosToNextExpiry(clock.nanoTime());
+    }
+
+    /**
+     * 定时任务是否仍在等待触发（周期任务未取消前始终为true）
+     */
+    public boolean isScheduled(long timerId) {
+        return timerWheel.isActive(timerId);
+    }
+
+    /**
+     * 取消定时任务
+     */
+    public boolean cancel(long timerId) {
+        return timerWheel.cancel(timerId);
+    }
+
+    /**
+     * 设置线程放置策略（如CPU绑定），需在启动前调用
+     */
+    public void setPlacement(ThreadPlacement placement) {
+        this.placement = placement != null ? placement : ThreadPlacement.NONE;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public Clock getClock() {
+        return clock;
+    }
+
+    public IdleStrategy getIdleStrategy() {
+        return idleStrategy;
+    }
+
+    public long getIterationCount() {
+        return iterationCount;
+    }
+
+    public long getWorkCount() {
+        return workCount;
+    }
+
+    public long getTimerCount() {
+        return timerCount;
+    }
+}
@@ -0,0 +1,179 @@
+package com.tanggo.fund.jnautilustrader.core.actor;
+
+import com.tanggo.fund.jnautilustrader.core.entity.Actor;
+import com.tanggo.fund.jnautilustrader.core.entity.Event;
+import com.tanggo.fund.jnautilustrader.core.entity.LatencyHistogram;
+import com.tanggo.fund.jnautilustrader.core.entity.SignalIdleStrategy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 行情链路各阶段的延迟记录
+ * <p>
+ * 网关在收到消息的第一个分片、解析完成、发送到仓储时分别在 {@link Event} 上打单调时钟（{@link System#nanoTime()}）时间戳，
+ * 策略取出事件时再打一次；相邻时间戳之差按阶段记录到各自的 {@link LatencyHistogram}：
+ * <ul>
+ *     <li>{@link Stage#WIRE_TO_DECODE}：首个分片到达 → 解析完成</li>
+ *     <li>{@link Stage#DECODE_TO_ENQUEUE}：解析完成 → 发送到仓储返回</li>
+ *     <li>{@link Stage#QUEUE_WAIT}：发送到仓储 → 策略取出</li>
+ *     <li>{@link Stage#HANDLER}：策略取出 → 事件处理和策略检查完成</li>
+ *     <li>{@link Stage#TICK_TO_ORDER}：触发下单的行情首个分片到达 → 下单指令发出</li>
+ * </ul>
+ * 作为 {@link Actor} 启动后在自己的事件循环上按间隔输出各阶段的区间分布和累计分布，停止时输出最后一次。
+ * 未注入时使用 {@link #DISABLED}，记录调用直接返回。
+ */
+public class LatencyRecorder implements Actor {
+
+    private static final Logger logger = LoggerFactory.getLogger(LatencyRecorder.class);
+
+    /**
+     * 默认输出间隔：60秒
+     */
+    public static final long DEFAULT_DUMP_INTERVAL_MS = 60_000;
+
+    /**
+     * 延迟阶段
+     */
+    public enum Stage {
+        WIRE_TO_DECODE("wire-to-decode"),
+        DECODE_TO_ENQUEUE("decode-to-enqueue"),
+        QUEUE_WAIT("queue-wait"),
+        HANDLER("handler"),
+        TICK_TO_ORDER("tick-to-order");
+
+        private final String label;
+
+        Stage(String label) {
+            this.label = label;
+        }
+
+        public String label() {
+            return label;
+        }
+    }
+
+    private static final Stage[] STAGES = Stage.values();
+
+    /**
+     * 不记录的实例
+     */
+    public static final LatencyRecorder DISABLED = new LatencyRecorder(false);
+
+    private final boolean enabled;
+    private final LatencyHistogram[] histograms = new LatencyHistogram[STAGES.length];
+    // 上一次输出时的快照，由 dump 加锁访问
+    private final LatencyHistogram.Snapshot[] lastDumped = new LatencyHistogram.Snapshot[STAGES.length];
+    private long dumpIntervalMs = DEFAULT_DUMP_INTERVAL_MS;
+    private EventLoop eventLoop;
+
+    public LatencyRecorder() {
+        this(true);
+    }
+
+    private LatencyRecorder(boolean enabled) {
+        this.enabled = enabled;
+        for (int i = 0; i < STAGES.length; i++) {
+            histograms[i] = new LatencyHistogram();
+            lastDumped[i] = histograms[i].snapshot();
+        }
+    }
+
+    /**
+     * 设置输出间隔（毫秒），需在 start_link 之前调用
+     */
+    public void setDumpIntervalMs(long dumpIntervalMs) {
+        if (dumpIntervalMs <= 0) {
+            throw new IllegalArgumentException("dumpIntervalMs must be positive: " + dumpIntervalMs);
+        }
+        this.dumpIntervalMs = dumpIntervalMs;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 记录一个阶段的耗时
+     */
+    public void record(Stage stage, long nanos) {
+        if (enabled) {
+            histograms[stage.ordinal()].record(nanos);
+        }
+    }
+
+    /**
+     * 记录从 startNanos 到 endNanos 的耗时，任一时间戳未设置（0）时不记录
+     */
+    public void record(Stage stage, long startNanos, long endNanos) {
+        if (enabled && startNanos != 0 && endNanos != 0) {
+            histograms[stage.ordinal()].record(endNanos - startNanos);
+        }
+    }
+
+    /**
+     * 阶段的直方图
+     */
+    public LatencyHistogram histogram(Stage stage) {
+        return histograms[stage.ordinal()];
+    }
+
+    @Override
+    public void start_link() {
+        if (!enabled || eventLoop != null) {
+            return;
+        }
+        // 只有定时器，空闲时挂起到下一次输出
+        EventLoop loop = new EventLoop("latency-recorder", () -> 0, new SignalIdleStrategy(0, TimeUnit.SECONDS.toNanos(1)));
+        loop.schedulePeriodic(TimeUnit.MILLISECONDS.toNanos(dumpIntervalMs), this::dump);
+        eventLoop = loop;
+        loop.start();
+    }
+
+    @Override
+    public void stop() {
+        if (eventLoop != null) {
+            eventLoop.stop();
+            eventLoop = null;
+        }
+        if (enabled) {
+            dump();
+        }
+    }
+
+    /**
+     * 输出各阶段自上次输出以来的分布和累计分布，没有记录的阶段跳过
+     *
+     * @return 输出的内容
+     */
+    public synchronized String dump() {
+        StringBuilder report = new StringBuilder(512);
+        for (int i = 0; i < STAGES.length; i++) {
+            LatencyHistogram.Snapshot total = histograms[i].snapshot();
+            if (total.getTotalCount() == 0) {
+                continue;
+            }
+            LatencyHistogram.Snapshot interval = total.minus(lastDumped[i]);
+            lastDumped[i] = total;
+            String line = STAGES[i].label() + " interval[" + summary(interval) + "] total[" + summary(total) + "]";
+            logger.info("延迟 {}", line);
+            report.append(line).append('\n');
+        }
+        return report.toString();
+    }
+
+    private static String summary(LatencyHistogram.Snapshot snapshot) {
+        return "count=" + snapshot.getTotalCount()
+                + " mean=" + micros(snapshot.getMean())
+                + " p50=" + micros(snapshot.valueAtPercentile(50))
+                + " p90=" + micros(snapshot.valueAtPercentile(90))
+                + " p99=" + micros(snapshot.valueAtPercentile(99))
+                + " p99.9=" + micros(snapshot.valueAtPercentile(99.9))
+                + " max=" + micros(snapshot.getMax());
+    }
+
+    private static String micros(double nanos) {
+        return String.format("%.1fus", nanos / 1000.0);
+    }
+}
@@ -0,0 +1,126 @@
+package com.tanggo.fund.jnautilustrader.core.actor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 基于事件循环定时器的重连退避
+ * <p>
+ * 任意线程（如 WebSocket 的 onClose 回调）调用 {@link #request()} 请求重连，
+ * 事件循环在工作中调用 {@link #poll()} 把请求转换为时间轮上的一次性定时器；
+ * 多次请求合并为同一个定时器，等待时间从 initialDelay 开始每次失败翻倍，直到 maxDelay，
+ * 连接成功后调用 {@link #reset()} 恢复初始等待时间。
+ * 重连动作在事件循环线程上执行，不需要额外的调度线程；阻塞的连接可以交给I/O线程执行，
+ * 连接结果在I/O线程上通过 {@link #request()} / {@link #reset()} 回报，二者都可从任意线程调用。
+ */
+public class Reconnector {
+
+    private static final Logger logger = LoggerFactory.getLogger(Reconnector.class);
+
+    /**
+     * 默认初始重连等待：1秒
+     */
+    public static final long DEFAULT_INITIAL_DELAY_NANOS = 1_000_000_000L;
+
+    /**
+     * 默认最长重连等待：60秒
+     */
+    public static final long DEFAULT_MAX_DELAY_NANOS = 60_000_000_000L;
+
+    private final String name;
+    private final EventLoop eventLoop;
+    private final Runnable connectAction;
+    private final long initialDelayNanos;
+    private final long maxDelayNanos;
+    // 预先创建，重复调度不分配对象
+    private final Runnable attemptTask = this::attempt;
+
+    private volatile boolean requested;
+    private volatile boolean resetRequested;
+
+    // 仅事件循环线程访问
+    private long delayNanos;
+    private long timerId = TimerWheel.NULL_TIMER;
+    private int attempts;
+
+    public Reconnector(String name, EventLoop eventLoop, Runnable connectAction) {
+        this(name, eventLoop, connectAction, DEFAULT_INITIAL_DELAY_NANOS, DEFAULT_MAX_DELAY_NANOS);
+    }
+
+    public Reconnector(String name, EventLoop eventLoop, Runnable connectAction, long initialDelayNanos, long maxDelayNanos) {
+        if (initialDelayNanos <= 0 || maxDelayNanos < initialDelayNanos) {
+            throw new IllegalArgumentException("Invalid reconnect delays: " + initialDelayNanos + ", " + maxDelayNanos);
+        }
+        this.name = name;
+        this.eventLoop = eventLoop;
+        this.connectAction = connectAction;
+        this.initialDelayNanos = initialDelayNanos;
+        this.maxDelayNanos = maxDelayNanos;
+        this.delayNanos = initialDelayNanos;
+    }
+
+    /**
+     * 请求重连；可从任意线程调用，已有待执行的重连时合并
+     */
+    public void request() {
+        requested = true;
+        eventLoop.wakeup();
+    }
+
+    /**
+     * 处理重连请求，由事件循环的工作调用
+     *
+     * @return 处理了请求返回1，否则返回0
+     */
+    public int poll() {
+        int work = 0;
+        if (resetRequested) {
+            resetRequested = false;
+            delayNanos = initialDelayNanos;
+            attempts = 0;
+            eventLoop.cancel(timerId);
+            timerId = TimerWheel.NULL_TIMER;
+            work = 1;
+        }
+        if (!requested) {
+            return work;
+        }
+        requested = false;
+        if (!eventLoop.isScheduled(timerId)) {
+            logger.info("{} 将在 {} 毫秒后重连", name, delayNanos / 1_000_000L);
+        }
+        timerId = eventLoop.scheduleCoalesced(timerId, delayNanos, attemptTask);
+        return 1;
+    }
+
+    /**
+     * 连接成功后调用：恢复初始等待时间并取消待执行的重连；可从任意线程调用，在下一次 {@link #poll()} 中生效
+     * <p>
+     * 同时有重连请求时先重置再处理请求，即按初始等待时间重连。
+     */
+    public void reset() {
+        resetRequested = true;
+        eventLoop.wakeup();
+    }
+
+    /**
+     * 是否有尚未执行的重连（已请求或正在等待退避），仅在事件循环线程上调用
+     */
+    public boolean isPending() {
+        return requested || eventLoop.isScheduled(timerId);
+    }
+
+    /**
+     * 连续失败的重连次数
+     */
+    public int getAttempts() {
+        return attempts;
+    }
+
+    private void attempt() {
+        attempts++;
+        delayNanos = Math.min(delayNanos * 2, maxDelayNanos);
+        logger.info("{} 第 {} 次重连", name, attempts);
+        connectAction.run();
+    }
+}
@@ -0,0 +1,282 @@
+package com.tanggo.fund.jnautilustrader.core.actor;
+
+import com.tanggo.fund.jnautilustrader.core.entity.Event;
+import com.tanggo.fund.jnautilustrader.core.entity.EventRepo;
+import com.tanggo.fund.jnautilustrader.core.entity.MarketData;
+import com.tanggo.fund.jnautilustrader.core.entity.SimulatedClock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 确定性行情回放
+ * <p>
+ * 从录制的行情源（{@code MappedJournalEventRepo} 日志、{@code ParquetArchiveEventRepo} 归档）逐条读取事件，
+ * 按事件中的交易所时间推进 {@link SimulatedClock}，再写入用例的行情仓储。用例的事件循环、
+ * 策略状态都使用同一个模拟时钟（如 {@code CrossAppService.setClock}），运行结果只取决于输入数据。
+ * <p>
+ * 传入用例的 {@link EventLoop} 时回放在当前线程上同步驱动它：投递下一条事件之前，先把时钟逐个推进到
+ * 早于该事件的定时器到期时间并触发（节流、冷却、运行时长检查按模拟时间发生），再推进到事件时间、
+ * 投递事件并执行 {@link EventLoop#doWork()} 直到没有工作。不经过线程切换和空闲等待，
+ * 同样的输入每次得到同样的定时器与事件交错顺序。事件循环停止（如到达运行时长）时回放结束。
+ * 可以同时驱动多个事件循环（如回测时的模拟交易网关和策略），按传入顺序依次执行，直到都没有工作；
+ * 定时器取所有事件循环中最早到期的一个。
+ * <p>
+ * 两种模式：
+ * <ul>
+ *   <li>{@link Mode#AS_FAST_AS_POSSIBLE}：不等待，按处理速度回放</li>
+ *   <li>{@link Mode#SCALED}：按 {@link #setSpeed(double)} 倍速对齐墙钟，如1.0为原速，60为一分钟数据一秒回放</li>
+ * </ul>
+ * 模拟时钟不后退：日志按到达顺序保存，不同交易所的时间戳可能交错，早于当前时间的事件按当前时间投递。
+ * 事件的延迟打点（receiveNanos 等）改写为投递时的模拟时间。
+ * <p>
+ * 建立事件循环和启动策略状态之前先调用 {@link #open()}，让时钟停在第一条事件的时间，
+ * 定时器和运行时长从这里开始计算。
+ */
+public class ReplayEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplayEngine.class);
+
+    /**
+     * 回放模式
+     */
+    public enum Mode {
+        /**
+         * 不等待，尽快回放
+         */
+        AS_FAST_AS_POSSIBLE,
+        /**
+         * 按倍速对齐墙钟
+         */
+        SCALED
+    }
+
+    private final EventRepo<MarketData> source;
+    private final EventRepo<MarketData> target;
+    private final SimulatedClock clock;
+
+    private Mode mode = Mode.AS_FAST_AS_POSSIBLE;
+    private double speed = 1.0;
+
+    // open 读出的第一条事件
+    private Event<MarketData> pending;
+    private boolean opened;
+
+    // 倍速模式的对齐起点
+    private long pacingWallStart;
+    private long pacingSimulatedStart;
+
+    // 统计（仅回放线程访问）
+    private long eventCount;
+    private long droppedCount;
+    private long timerStepCount;
+    private long firstEventNanos;
+    private long lastEventNanos;
+    private long wallNanos;
+
+    /**
+     * @param source 录制的行情源
+     * @param target 用例的行情仓储
+     * @param clock 用例使用的模拟时钟
+     */
+    public ReplayEngine(EventRepo<MarketData> source, EventRepo<MarketData> target, SimulatedClock clock) {
+        this.source = source;
+        this.target = target;
+        this.clock = clock;
+    }
+
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    /**
+     * 倍速，仅 {@link Mode#SCALED} 使用
+     */
+    public void setSpeed(double speed) {
+        if (!(speed > 0)) {
+            throw new IllegalArgumentException("Speed must be positive: " + speed);
+        }
+        this.speed = speed;
+    }
+
+    /**
+     * 读出第一条事件并把时钟推进到它的时间
+     *
+     * @return 行情源是否有事件
+     */
+    public boolean open() {
+        if (!opened) {
+            opened = true;
+            pending = source.poll();
+            if (pending != null) {
+                clock.advanceTo(eventNanos(pending));
+            }
+        }
+        return pending != null;
+    }
+
+    /**
+     * 只投递事件，不驱动事件循环；消费方在其它线程上运行时使用
+     *
+     * @return 投递的事件数
+     */
+    public long run() {
+        return run(new EventLoop[0]);
+    }
+
+    /**
+     * 回放到行情源读完或任一事件循环停止
+     *
+     * @param loops 用例的事件循环，在当前线程上按顺序同步驱动；为空时只投递事件
+     * @return 投递的事件数
+     */
+    public long run(EventLoop... loops) {
+        if (loops == null) {
+            loops = new EventLoop[0];
+        }
+        open();
+        long wallStart = System.nanoTime();
+        pacingWallStart = wallStart;
+        pacingSimulatedStart = clock.nanoTime();
+        if (eventCount == 0) {
+            firstEventNanos = clock.nanoTime();
+        }
+        long count = 0;
+        while (isRunning(loops)) {
+            Event<MarketData> event = pending != null ? pending : source.poll();
+            pending = null;
+            if (event == null) {
+                break;
+            }
+            long timeNanos = Math.max(eventNanos(event), clock.nanoTime());
+            fireTimersBefore(loops, timeNanos);
+            if (!isRunning(loops)) {
+                break;
+            }
+            clock.advanceTo(timeNanos);
+            if (mode == Mode.SCALED) {
+                pace(timeNanos);
+            }
+            event.receiveNanos = timeNanos;
+            event.decodeNanos = timeNanos;
+            event.enqueueNanos = timeNanos;
+            event.dequeueNanos = 0;
+            if (target.send(event)) {
+                eventCount++;
+                count++;
+                lastEventNanos = timeNanos;
+            } else {
+                droppedCount++;
+            }
+            drain(loops);
+        }
+        wallNanos += System.nanoTime() - wallStart;
+        logger.info("行情回放结束 - 事件: {}, 丢弃: {}, 定时推进: {}, 模拟时长: {} ms, 耗时: {} ms",
+                eventCount, droppedCount, timerStepCount, getSimulatedNanos() / 1_000_000, wallNanos / 1_000_000);
+        return count;
+    }
+
+    /**
+     * 逐个触发不晚于指定时间的定时器；时间轮给出的到期时间可能偏早，推进后没有定时器触发时继续找下一个
+     */
+    private void fireTimersBefore(EventLoop[] loops, long timeNanos) {
+        long delay;
+        while (isRunning(loops) && (delay = nanosToNextTimer(loops)) <= timeNanos - clock.nanoTime()) {
+            clock.advanceBy(delay);
+            timerStepCount++;
+            drain(loops);
+        }
+    }
+
+    private static long nanosToNextTimer(EventLoop[] loops) {
+        long delay = Long.MAX_VALUE;
+        for (EventLoop loop : loops) {
+            delay = Math.min(delay, loop.nanosToNextTimer());
+        }
+        return delay;
+    }
+
+    /**
+     * 依次执行各事件循环，直到一轮下来都没有事件和到期定时器；前面的循环产生的事件（如成交回报）在同一轮被后面的循环处理
+     */
+    private static void drain(EventLoop[] loops) {
+        int work;
+        do {
+            work = 0;
+            for (EventLoop loop : loops) {
+                while (loop.isRunning() && loop.doWork() > 0) {
+                    work++;
+                }
+            }
+        } while (work > 0 && isRunning(loops));
+    }
+
+    private static boolean isRunning(EventLoop[] loops) {
+        for (EventLoop loop : loops) {
+            if (!loop.isRunning()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void pace(long timeNanos) {
+        long wallTarget = pacingWallStart + (long) ((timeNanos - pacingSimulatedStart) / speed);
+        long wait;
+        while ((wait = wallTarget - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(wait);
+        }
+    }
+
+    private long eventNanos(Event<MarketData> event) {
+        long timestampMs = event.payload != null ? event.payload.timestampMs() : 0;
+        return timestampMs > 0 ? timestampMs * 1_000_000L : clock.nanoTime();
+    }
+
+    // ==================== 统计 ====================
+
+    public long getEventCount() {
+        return eventCount;
+    }
+
+    /**
+     * 行情仓储拒绝的事件数
+     */
+    public long getDroppedCount() {
+        return droppedCount;
+    }
+
+    /**
+     * 为触发定时器推进时钟的次数
+     */
+    public long getTimerStepCount() {
+        return timerStepCount;
+    }
+
+    /**
+     * 第一条到最后一条事件的模拟时长（纳秒）
+     */
+    public long getSimulatedNanos() {
+        return eventCount > 0 ? lastEventNanos - firstEventNanos : 0;
+    }
+
+    /**
+     * 回放耗时（墙钟纳秒）
+     */
+    public long getWallNanos() {
+        return wallNanos;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public double getSpeed() {
+        return speed;
+    }
+
+    public SimulatedClock getClock() {
+        return clock;
+    }
+}
@@ -0,0 +1,24 @@
+package com.tanggo.fund.jnautilustrader.core.actor;
+
+/**
+ * 事件循环线程放置策略
+ * <p>
+ * 事件循环线程启动后、进入循环前在该线程上调用 {@link #bind(String)}，
+ * 用于把线程绑定到指定CPU核心、记录放置结果等。不同事件循环的线程会并发调用，实现需线程安全。
+ */
+@FunctionalInterface
+public interface ThreadPlacement {
+
+    /**
+     * 不做任何放置，线程由操作系统调度
+     */
+    ThreadPlacement NONE = loopName -> {
+    };
+
+    /**
+     * 放置当前线程
+     *
+     * @param loopName 事件循环名称
+     */
+    void bind(String loopName);
+}
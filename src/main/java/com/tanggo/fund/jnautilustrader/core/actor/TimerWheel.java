@@ -0,0 +1,444 @@
+package com.tanggo.fund.jnautilustrader.core.actor;
+
+import java.util.Arrays;
+
+/**
+ * 哈希时间轮
+ * <p>
+ * 按固定刻度把到期时间散列到环形槽位中，每个槽位是一条定时器链表；
+ * 超过一圈的定时器留在槽位中，直到轮到它所在的刻度才触发。
+ * 调度、取消和合并都是O(1)，{@link #poll(long)} 只遍历到期刻度对应的槽位。
+ * 非空槽位另有一个位图，查找下一个非空槽位按64个槽位一组跳过空槽位，
+ * 时钟一次推进很多刻度（如回放时的模拟时钟）时不必逐个刻度检查。
+ * 定时器在到期后的第一次 poll 中触发，精度为一个刻度。
+ * <p>
+ * 定时器保存在预分配的并行数组中，链表用数组下标串联，空闲位置组成空闲链表；
+ * 调度和触发不分配对象，只有定时器数量超过容量时数组翻倍扩容。
+ * 定时器ID由位置和代数组成（高32位为代数，低32位为位置），位置复用后旧ID自动失效。
+ * <p>
+ * 非线程安全，由所属事件循环线程驱动；回调内可以调度、取消或合并定时器。
+ */
+public class TimerWheel {
+
+    /**
+     * 无效的定时器ID
+     */
+    public static final long NULL_TIMER = -1;
+
+    /**
+     * 默认刻度：1毫秒
+     */
+    public static final long DEFAULT_TICK_NANOS = 1_000_000L;
+
+    /**
+     * 默认槽位数
+     */
+    public static final int DEFAULT_WHEEL_SIZE = 512;
+
+    /**
+     * 默认初始容量（定时器数量）
+     */
+    public static final int DEFAULT_INITIAL_CAPACITY = 64;
+
+    private static final int NONE = -1;
+
+    // 定时器位置状态
+    private static final byte FREE = 0;
+    private static final byte SCHEDULED = 1;
+    // 周期定时器回调执行中（已从槽位摘下）
+    private static final byte FIRING = 2;
+    // 回调执行中被取消，回调结束后释放
+    private static final byte CANCELLED = 3;
+
+    private final long startTime;
+    private final long tickNanos;
+    private final int mask;
+    private final int[] wheel;
+    // 非空槽位位图
+    private final long[] occupied;
+
+    private long[] deadlines;
+    private long[] periods;
+    private long[] deadlineTicks;
+    private Runnable[] tasks;
+    private int[] next;
+    private int[] prev;
+    private int[] generations;
+    private byte[] states;
+
+    private int freeHead;
+    private int size;
+
+    // 下一个待处理的刻度
+    private long currentTick;
+    // 缓存：不晚于最早的到期刻度，此刻度之前没有定时器到期（小于 currentTick 表示需要重新扫描）
+    private long wakeTick = Long.MIN_VALUE;
+
+    public TimerWheel(long startTimeNanos) {
+        this(startTimeNanos, DEFAULT_TICK_NANOS, DEFAULT_WHEEL_SIZE);
+    }
+
+    public TimerWheel(long startTimeNanos, long tickNanos, int wheelSize) {
+        this(startTimeNanos, tickNanos, wheelSize, DEFAULT_INITIAL_CAPACITY);
+    }
+
+    /**
+     * @param startTimeNanos  起始时间（纳秒，与之后传入的时间同一时钟）
+     * @param tickNanos       刻度（纳秒）
+     * @param wheelSize       槽位数，必须是2的幂
+     * @param initialCapacity 初始可容纳的定时器数量
+     */
+    public TimerWheel(long startTimeNanos, long tickNanos, int wheelSize, int initialCapacity) {
+        if (tickNanos <= 0) {
+            throw new IllegalArgumentException("Tick must be positive: " + tickNanos);
+        }
+        if (wheelSize <= 0 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("Wheel size must be a power of 2: " + wheelSize);
+        }
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + initialCapacity);
+        }
+        this.startTime = startTimeNanos;
+        this.tickNanos = tickNanos;
+        this.mask = wheelSize - 1;
+        this.wheel = new int[wheelSize];
+        Arrays.fill(wheel, NONE);
+        this.occupied = new long[(wheelSize + 63) >>> 6];
+
+        deadlines = new long[initialCapacity];
+        periods = new long[initialCapacity];
+        deadlineTicks = new long[initialCapacity];
+        tasks = new Runnable[initialCapacity];
+        next = new int[initialCapacity];
+        prev = new int[initialCapacity];
+        generations = new int[initialCapacity];
+        states = new byte[initialCapacity];
+        freeHead = NONE;
+        linkFree(0, initialCapacity);
+    }
+
+    /**
+     * 调度定时器
+     *
+     * @param deadlineNanos 到期时间（纳秒）
+     * @param periodNanos   周期（纳秒），0表示一次性定时器
+     * @param task          到期时在事件循环线程上执行的回调，调用方复用同一实例即可避免分配
+     * @return 定时器ID，用于取消
+     */
+    public long schedule(long deadlineNanos, long periodNanos, Runnable task) {
+        if (periodNanos < 0) {
+            throw new IllegalArgumentException("Period must not be negative: " + periodNanos);
+        }
+        if (freeHead == NONE) {
+            grow();
+        }
+        int slot = freeHead;
+        freeHead = next[slot];
+        int generation = (generations[slot] + 1) & Integer.MAX_VALUE;
+        generations[slot] = generation;
+        deadlines[slot] = deadlineNanos;
+        periods[slot] = periodNanos;
+        tasks[slot] = task;
+        size++;
+        insert(slot);
+        return idOf(slot, generation);
+    }
+
+    /**
+     * 合并调度一次性定时器
+     * <p>
+     * timerId 对应的定时器仍未触发时不新建定时器：到期时间取两者中较早的一个，返回原ID；
+     * 否则（已触发、已取消或为 {@link #NULL_TIMER}）新建定时器。
+     * 适用于重连退避、节流等同一动作只需挂一个定时器的场景，调用方只需保存一个ID字段。
+     *
+     * @return 有效的定时器ID
+     */
+    public long scheduleCoalesced(long timerId, long deadlineNanos, Runnable task) {
+        int slot = activeSlot(timerId);
+        if (slot == NONE) {
+            return schedule(deadlineNanos, 0, task);
+        }
+        if (deadlineNanos < deadlines[slot]) {
+            deadlines[slot] = deadlineNanos;
+            if (states[slot] == SCHEDULED) {
+                unlink(slot);
+                insert(slot);
+            }
+        }
+        return timerId;
+    }
+
+    /**
+     * 取消定时器
+     *
+     * @return 定时器存在且未触发（或为周期定时器）时返回true
+     */
+    public boolean cancel(long timerId) {
+        int slot = activeSlot(timerId);
+        if (slot == NONE) {
+            return false;
+        }
+        if (states[slot] == FIRING) {
+            // 周期定时器在自己的回调中取消，回调结束后释放
+            states[slot] = CANCELLED;
+            size--;
+        } else {
+            unlink(slot);
+            release(slot);
+        }
+        return true;
+    }
+
+    /**
+     * 定时器是否仍有效（未触发的一次性定时器，或未取消的周期定时器）
+     */
+    public boolean isActive(long timerId) {
+        return activeSlot(timerId) != NONE;
+    }
+
+    /**
+     * 触发所有在 nowNanos 之前到期的定时器
+     *
+     * @return 触发的定时器数量
+     */
+    public int poll(long nowNanos) {
+        long targetTick = tickOf(nowNanos);
+        if (size == 0) {
+            if (currentTick <= targetTick) {
+                currentTick = targetTick + 1;
+            }
+            return 0;
+        }
+        int fired = 0;
+        while (currentTick <= targetTick) {
+            long tick = wakeTick >= currentTick && wakeTick > targetTick ? wakeTick : nextOccupiedTick(currentTick);
+            if (tick > targetTick) {
+                // 中间都是空刻度，或最早的到期刻度还没到；记下找到的刻度，之后的 poll 不必重新查找
+                currentTick = targetTick + 1;
+                wakeTick = tick;
+                break;
+            }
+            // 先推进刻度，回调中新调度的定时器最早落在下一个刻度
+            currentTick = tick + 1;
+            fired += expire(tick, nowNanos);
+        }
+        return fired;
+    }
+
+    /**
+     * 距下一个非空槽位到期的时间，没有定时器时返回 {@link Long#MAX_VALUE}
+     * <p>
+     * 供事件循环决定空闲时最多等待多久；结果可能偏早（槽位中是下一圈的定时器），不会偏晚。
+     * 扫描结果会缓存，直到刻度越过它或有更早的定时器加入。
+     */
+    public long nanosToNextExpiry(long nowNanos) {
+        if (size == 0) {
+            return Long.MAX_VALUE;
+        }
+        if (wakeTick < currentTick) {
+            wakeTick = scanNextTick();
+        }
+        return Math.max(0, startTime + wakeTick * tickNanos - nowNanos);
+    }
+
+    /**
+     * 有效的定时器数量
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 当前容量（预分配的定时器数量）
+     */
+    public int capacity() {
+        return states.length;
+    }
+
+    public long getTickNanos() {
+        return tickNanos;
+    }
+
+    private int expire(long tick, long nowNanos) {
+        int index = (int) (tick & mask);
+        int fired = 0;
+        RuntimeException failure = null;
+        int slot = wheel[index];
+        while (slot != NONE) {
+            int following = next[slot];
+            if (deadlineTicks[slot] > tick) {
+                // 还要再转几圈
+                slot = following;
+                continue;
+            }
+            fired++;
+            unlink(slot);
+            Runnable task = tasks[slot];
+            long period = periods[slot];
+            // 回调可能取消或复用后继定时器，记录代数以便回调后校验
+            int followingGeneration = following == NONE ? 0 : generations[following];
+            if (period == 0) {
+                release(slot);
+            } else {
+                // 错过的周期不补发
+                long deadline = deadlines[slot] + period;
+                deadlines[slot] = deadline <= nowNanos ? nowNanos + period : deadline;
+                states[slot] = FIRING;
+            }
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                // 处理完本槽位再抛出，避免其余定时器被跳过
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+            if (period != 0) {
+                if (states[slot] == CANCELLED) {
+                    // cancel 已扣减计数，这里补回后统一由 release 扣减
+                    size++;
+                    release(slot);
+                } else {
+                    states[slot] = SCHEDULED;
+                    insert(slot);
+                }
+            }
+            if (following != NONE && (states[following] != SCHEDULED || generations[following] != followingGeneration
+                    || (int) (deadlineTicks[following] & mask) != index)) {
+                // 后继已被取消或移动，从槽位头重新扫描
+                following = wheel[index];
+            }
+            slot = following;
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return fired;
+    }
+
+    private void insert(int slot) {
+        // 向上取整，保证不早于到期时间触发
+        long tick = Math.max(currentTick, ceilTickOf(deadlines[slot]));
+        deadlineTicks[slot] = tick;
+        states[slot] = SCHEDULED;
+        int index = (int) (tick & mask);
+        int head = wheel[index];
+        next[slot] = head;
+        prev[slot] = NONE;
+        if (head != NONE) {
+            prev[head] = slot;
+        }
+        wheel[index] = slot;
+        occupied[index >>> 6] |= 1L << index;
+        if (tick < wakeTick) {
+            wakeTick = tick;
+        }
+    }
+
+    private void unlink(int slot) {
+        int before = prev[slot];
+        int after = next[slot];
+        if (before == NONE) {
+            int index = (int) (deadlineTicks[slot] & mask);
+            wheel[index] = after;
+            if (after == NONE) {
+                occupied[index >>> 6] &= ~(1L << index);
+            }
+        } else {
+            next[before] = after;
+        }
+        if (after != NONE) {
+            prev[after] = before;
+        }
+        next[slot] = NONE;
+        prev[slot] = NONE;
+    }
+
+    private void release(int slot) {
+        states[slot] = FREE;
+        tasks[slot] = null;
+        next[slot] = freeHead;
+        freeHead = slot;
+        size--;
+    }
+
+    private int activeSlot(long timerId) {
+        if (timerId < 0) {
+            return NONE;
+        }
+        int slot = (int) timerId;
+        if (slot >= states.length || generations[slot] != (int) (timerId >>> 32)) {
+            return NONE;
+        }
+        byte state = states[slot];
+        return state == SCHEDULED || state == FIRING ? slot : NONE;
+    }
+
+    private long scanNextTick() {
+        return nextOccupiedTick(currentTick);
+    }
+
+    /**
+     * 不早于 fromTick 的第一个非空槽位的刻度，一圈内都为空时返回 fromTick + 槽位数
+     */
+    private long nextOccupiedTick(long fromTick) {
+        int start = (int) (fromTick & mask);
+        int index = nextOccupiedIndex(start);
+        if (index >= 0) {
+            return fromTick + (index - start);
+        }
+        index = nextOccupiedIndex(0);
+        if (index < 0 || index >= start) {
+            return fromTick + mask + 1;
+        }
+        return fromTick + (index + mask + 1 - start);
+    }
+
+    /**
+     * 不小于 from 的第一个非空槽位下标，没有时返回-1
+     */
+    private int nextOccupiedIndex(int from) {
+        int word = from >>> 6;
+        long bits = occupied[word] & (-1L << from);
+        while (bits == 0) {
+            if (++word == occupied.length) {
+                return -1;
+            }
+            bits = occupied[word];
+        }
+        return (word << 6) + Long.numberOfTrailingZeros(bits);
+    }
+
+    private void grow() {
+        int oldCapacity = states.length;
+        int capacity = oldCapacity * 2;
+        deadlines = Arrays.copyOf(deadlines, capacity);
+        periods = Arrays.copyOf(periods, capacity);
+        deadlineTicks = Arrays.copyOf(deadlineTicks, capacity);
+        tasks = Arrays.copyOf(tasks, capacity);
+        next = Arrays.copyOf(next, capacity);
+        prev = Arrays.copyOf(prev, capacity);
+        generations = Arrays.copyOf(generations, capacity);
+        states = Arrays.copyOf(states, capacity);
+        linkFree(oldCapacity, capacity);
+    }
+
+    private void linkFree(int from, int to) {
+        for (int i = to - 1; i >= from; i--) {
+            next[i] = freeHead;
+            freeHead = i;
+        }
+    }
+
+    private static long idOf(int slot, int generation) {
+        return ((long) generation << 32) | slot;
+    }
+
+    private long tickOf(long nanos) {
+        return Math.floorDiv(nanos - startTime, tickNanos);
+    }
+
+    private long ceilTickOf(long nanos) {
+        return -Math.floorDiv(startTime - nanos, tickNanos);
+    }
+}
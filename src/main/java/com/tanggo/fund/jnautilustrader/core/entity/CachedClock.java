@@ -0,0 +1,102 @@
+package com.tanggo.fund.jnautilustrader.core.entity;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 缓存的粗粒度时钟
+ * <p>
+ * 由一个守护线程按固定分辨率（默认1ms）刷新Unix毫秒，策略线程每个事件读取时只是一次volatile读，
+ * 不进入系统调用。适合运行时长、套利间隔这类毫秒级判断；读到的值最多落后一个分辨率。
+ * <p>
+ * {@link #nanoTime()} 不缓存，直接取 {@link System#nanoTime()}：事件循环定时器和延迟打点需要精确的单调时间。
+ * <p>
+ * {@link #start()} 之前和 {@link #stop()} 之后 {@link #currentTimeMillis()} 退化为 {@link System#currentTimeMillis()}，
+ * 忘记启动不会得到静止的时间。
+ */
+public final class CachedClock implements Clock {
+
+    public static final long DEFAULT_RESOLUTION_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final long resolutionNanos;
+
+    private volatile long cachedMillis;
+    private volatile boolean running;
+    private Thread ticker;
+
+    public CachedClock() {
+        this(DEFAULT_RESOLUTION_NANOS);
+    }
+
+    /**
+     * @param resolutionNanos 刷新间隔（纳秒）
+     */
+    public CachedClock(long resolutionNanos) {
+        if (resolutionNanos <= 0) {
+            throw new IllegalArgumentException("Resolution must be positive: " + resolutionNanos);
+        }
+        this.resolutionNanos = resolutionNanos;
+        this.cachedMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * 启动刷新线程，重复调用无效
+     */
+    public synchronized void start() {
+        if (ticker != null) {
+            return;
+        }
+        cachedMillis = System.currentTimeMillis();
+        running = true;
+        ticker = new Thread(this::tick, "cached-clock");
+        ticker.setDaemon(true);
+        ticker.start();
+    }
+
+    /**
+     * 停止刷新线程
+     */
+    public synchronized void stop() {
+        if (ticker == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(ticker);
+        try {
+            ticker.join(TimeUnit.SECONDS.toMillis(1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        ticker = null;
+    }
+
+    private void tick() {
+        while (running) {
+            cachedMillis = System.currentTimeMillis();
+            LockSupport.parkNanos(resolutionNanos);
+        }
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return running ? cachedMillis : System.currentTimeMillis();
+    }
+
+    @Override
+    public long nanoTime() {
+        return System.nanoTime();
+    }
+
+    public long getResolutionNanos() {
+        return resolutionNanos;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public String toString() {
+        return "CachedClock{" + resolutionNanos + "ns}";
+    }
+}
@@ -0,0 +1,41 @@
+package com.tanggo.fund.jnautilustrader.core.entity;
+
+/**
+ * 时钟
+ * <p>
+ * 策略状态、节流和事件循环定时器通过它取时间，而不是直接调用 {@link System#currentTimeMillis()} / {@link System#nanoTime()}：
+ * 实盘使用 {@link #SYSTEM} 或 {@link CachedClock}（毫秒由后台线程刷新，读取不进入系统调用），
+ * 回放和回测使用 {@link SimulatedClock}，由回放驱动按事件时间推进，结果与墙钟无关。
+ */
+public interface Clock {
+
+    /**
+     * 系统时钟
+     */
+    Clock SYSTEM = new Clock() {
+        @Override
+        public long currentTimeMillis() {
+            return System.currentTimeMillis();
+        }
+
+        @Override
+        public long nanoTime() {
+            return System.nanoTime();
+        }
+
+        @Override
+        public String toString() {
+            return "Clock.SYSTEM";
+        }
+    };
+
+    /**
+     * 当前时间（Unix毫秒）
+     */
+    long currentTimeMillis();
+
+    /**
+     * 单调时间（纳秒），只用于计算时间差和定时器到期时间，起点由实现决定
+     */
+    long nanoTime();
+}
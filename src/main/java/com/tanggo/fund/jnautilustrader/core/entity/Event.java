@@ -8,16 +8,91 @@ import java.io.Serializable;
 
 @Data
 public class Event<T> implements Serializable {
+    /**
+     * 事件类型名称，仅用于边界（日志、配置、兼容旧代码）
+     */
     public String type;
     public T payload;
 
+    /**
+     * 事件类型编号，见 {@link EventType}；未注册的类型为 {@link EventType#NONE}
+     */
+    public short typeCode = EventType.NONE;
+
+    /**
+     * 交易所编号，见 {@link EventType} 的 VENUE_* 常量
+     */
+    public short venueId;
+
+    /**
+     * 品种编号，见 {@link InstrumentRegistry}
+     */
+    public int instrumentId;
+
+    /**
+     * 网关收到消息第一个分片的时间（{@link System#nanoTime()}），0表示未打时间戳
+     */
+    public long receiveNanos;
+
+    /**
+     * 网关解析完成的时间（{@link System#nanoTime()}）
+     */
+    public long decodeNanos;
+
+    /**
+     * 网关发送到仓储的时间（{@link System#nanoTime()}）
+     */
+    public long enqueueNanos;
+
+    /**
+     * 策略从仓储取出的时间（{@link System#nanoTime()}）
+     */
+    public long dequeueNanos;
+
     public Event() {
         // 必须提供无参构造函数以便 Avro 反序列化
     }
 
+    /**
+     * 按类型名称创建事件，名称在注册表中时同时解析出类型编号和交易所编号
+     */
     public Event(String type, T payload) {
         this.type = type;
         this.payload = payload;
+        this.typeCode = EventType.codeOf(type);
+        this.venueId = EventType.venueOf(typeCode);
+    }
+
+    /**
+     * 按类型编号创建事件（热路径），类型名称取注册表中预生成的字符串，不分配内存
+     */
+    public Event(short typeCode, int instrumentId, T payload) {
+        this.payload = payload;
+        this.instrumentId = instrumentId;
+        setTypeCode(typeCode);
+    }
+
+    /**
+     * 设置类型编号，同时更新交易所编号和类型名称
+     */
+    public void setTypeCode(short typeCode) {
+        this.typeCode = typeCode;
+        this.venueId = EventType.venueOf(typeCode);
+        this.type = EventType.name(typeCode);
+    }
+
+    /**
+     * 复制事件头（类型、品种和各阶段时间戳），不含payload；用于把事件转存到预分配的事件对象
+     */
+    public void copyHeaderFrom(Event<T> source) {
+        this.type = source.type;
+        this.typeCode = source.typeCode;
+        this.venueId = source.venueId;
+        this.instrumentId = source.instrumentId;
+        this.receiveNanos = source.receiveNanos;
+        this.decodeNanos = source.decodeNanos;
+        this.enqueueNanos = source.enqueueNanos;
+        this.dequeueNanos = source.dequeueNanos;
     }
 
     // Avro 序列化需要的方法
@@ -32,6 +107,20 @@ public class Event<T> implements Serializable {
                 return type;
             case 1:
                 return payload;
+            case 2:
+                return typeCode;
+            case 3:
+                return venueId;
+            case 4:
+                return instrumentId;
+            case 5:
+                return receiveNanos;
+            case 6:
+                return decodeNanos;
+            case 7:
+                return enqueueNanos;
+            case 8:
+                return dequeueNanos;
             default:
                 throw new IndexOutOfBoundsException("Invalid field position: " + fieldPos);
         }
@@ -45,6 +134,27 @@ public class Event<T> implements Serializable {
             case 1:
                 this.payload = (T) value;
                 break;
+            case 2:
+                this.typeCode = ((Number) value).shortValue();
+                break;
+            case 3:
+                this.venueId = ((Number) value).shortValue();
+                break;
+            case 4:
+                this.instrumentId = ((Number) value).intValue();
+                break;
+            case 5:
+                this.receiveNanos = ((Number) value).longValue();
+                break;
+            case 6:
+                this.decodeNanos = ((Number) value).longValue();
+                break;
+            case 7:
+                this.enqueueNanos = ((Number) value).longValue();
+                break;
+            case 8:
+                this.dequeueNanos = ((Number) value).longValue();
+                break;
             default:
                 throw new IndexOutOfBoundsException("Invalid field position: " + fieldPos);
         }
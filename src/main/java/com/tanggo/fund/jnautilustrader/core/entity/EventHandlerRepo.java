@@ -17,4 +17,18 @@ public interface EventHandlerRepo<T> {
      * @param handler 事件处理器
      */
     void addHandler(String type, EventHandler<T> handler);
+
+    /**
+     * 将事件分发给该类型的处理器
+     * @param event 事件
+     * @return 是否找到处理器
+     */
+    default boolean dispatch(Event<T> event) {
+        EventHandler<T> handler = queryBy(event.type);
+        if (handler == null) {
+            return false;
+        }
+        handler.handle(event);
+        return true;
+    }
 }
@@ -11,5 +11,52 @@ public interface EventRepo<T> {
      */
     Event<T> receive();
 
+    /**
+     * 非阻塞接收，没有事件时立即返回null
+     * <p>
+     * 事件循环用它轮询，空闲时由 {@link IdleStrategy} 决定如何等待；
+     * 默认实现等同 {@link #receive()}，阻塞式实现必须覆盖。
+     *
+     * @return 事件，没有事件时返回null
+     */
+    default Event<T> poll() {
+        return receive();
+    }
+
     boolean send(Event<T> event );
+
+    /**
+     * 申领一个可写的事件槽位，填充后调用 {@link #commit(Event)} 发布
+     * <p>
+     * 支持预分配槽位的实现返回环形缓冲区中复用的事件对象（含预分配的payload），
+     * 热路径上不产生垃圾；默认实现每次分配新事件，等价于 send。
+     * 申领后必须且只能 commit 一次。
+     *
+     * @return 可写的事件槽位
+     */
+    default Event<T> claim() {
+        return new Event<>();
+    }
+
+    /**
+     * 非阻塞申领：没有空闲槽位时立即返回null，不等待消费者
+     * <p>
+     * 用于不能阻塞的发布方（如旁路复制）。默认实现等同 {@link #claim()}（每次分配新事件，不会阻塞），
+     * 申领到的事件同样必须且只能 commit 一次。
+     *
+     * @return 可写的事件槽位，没有空闲槽位时返回null
+     */
+    default Event<T> tryClaim() {
+        return claim();
+    }
+
+    /**
+     * 发布 {@link #claim()} 申领的事件槽位
+     *
+     * @param event claim 返回的事件
+     * @return 是否发布成功
+     */
+    default boolean commit(Event<T> event) {
+        return send(event);
+    }
 }
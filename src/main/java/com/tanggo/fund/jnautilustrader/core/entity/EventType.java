@@ -0,0 +1,182 @@
+package com.tanggo.fund.jnautilustrader.core.entity;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 事件类型注册表
+ * <p>
+ * 每个（交易所, 数据种类）组合对应一个紧凑的short编号：{@code code = venue << KIND_BITS | kind}。
+ * 编号是编译期常量，可直接用于 switch 分发、数组索引路由、过滤和序列化；
+ * 字符串名称（如 "BINANCE_TRADE_TICK"）只在边界处使用（Spring XML、日志、外部配置），
+ * 通过 {@link #codeOf(String)} / {@link #name(int)} 互相转换。
+ * <p>
+ * 数据种类中 0-11 与 {@link MarketData} 的类型编号一致，16 起为交易指令。
+ */
+public final class EventType {
+
+    // ==================== 交易所 ====================
+
+    public static final short VENUE_UNKNOWN = 0;
+    public static final short VENUE_BINANCE = 1;
+    public static final short VENUE_BITGET = 2;
+
+    private static final String[] VENUE_NAMES = {"", "BINANCE", "BITGET"};
+
+    // ==================== 数据种类 ====================
+
+    public static final int KIND_BITS = 6;
+    public static final int KIND_MASK = (1 << KIND_BITS) - 1;
+
+    public static final int PLACE_ORDER = 16;
+    public static final int CANCEL_ORDER = 17;
+    public static final int MODIFY_ORDER = 18;
+    public static final int QUERY_ORDER = 19;
+    public static final int QUERY_ACCOUNT = 20;
+    public static final int QUERY_POSITION = 21;
+    public static final int CANCEL_ALL_ORDERS = 22;
+    public static final int CLOSE_POSITION = 23;
+    public static final int EXECUTION_REPORT = 24;
+    public static final int UNKNOWN = KIND_MASK;
+
+    private static final String[] KIND_NAMES = new String[KIND_MASK + 1];
+
+    /**
+     * 未知/未注册的事件类型
+     */
+    public static final short NONE = -1;
+
+    /**
+     * 编号空间大小（可用于按编号索引的数组长度）
+     */
+    public static final int CODE_SPACE = VENUE_NAMES.length << KIND_BITS;
+
+    // ==================== 常用事件类型编号 ====================
+
+    public static final short BINANCE_TRADE_TICK = VENUE_BINANCE << KIND_BITS | MarketData.TRADE_TICK;
+    public static final short BINANCE_QUOTE_TICK = VENUE_BINANCE << KIND_BITS | MarketData.QUOTE_TICK;
+    public static final short BINANCE_BAR = VENUE_BINANCE << KIND_BITS | MarketData.BAR;
+    public static final short BINANCE_ORDER_BOOK_DEPTH = VENUE_BINANCE << KIND_BITS | MarketData.ORDER_BOOK_DEPTH;
+    public static final short BINANCE_ORDER_BOOK_DELTA = VENUE_BINANCE << KIND_BITS | MarketData.ORDER_BOOK_DELTA;
+    public static final short BINANCE_ORDER_UPDATE = VENUE_BINANCE << KIND_BITS | MarketData.ORDER_UPDATE;
+    public static final short BINANCE_TRADE_EXECUTION = VENUE_BINANCE << KIND_BITS | MarketData.TRADE_EXECUTION;
+    public static final short BINANCE_PLACE_ORDER = VENUE_BINANCE << KIND_BITS | PLACE_ORDER;
+
+    public static final short BITGET_TRADE_TICK = VENUE_BITGET << KIND_BITS | MarketData.TRADE_TICK;
+    public static final short BITGET_QUOTE_TICK = VENUE_BITGET << KIND_BITS | MarketData.QUOTE_TICK;
+    public static final short BITGET_BAR = VENUE_BITGET << KIND_BITS | MarketData.BAR;
+    public static final short BITGET_ORDER_BOOK_DEPTH = VENUE_BITGET << KIND_BITS | MarketData.ORDER_BOOK_DEPTH;
+    public static final short BITGET_ORDER_BOOK_DELTA = VENUE_BITGET << KIND_BITS | MarketData.ORDER_BOOK_DELTA;
+    public static final short BITGET_ORDER_UPDATE = VENUE_BITGET << KIND_BITS | MarketData.ORDER_UPDATE;
+    public static final short BITGET_TRADE_EXECUTION = VENUE_BITGET << KIND_BITS | MarketData.TRADE_EXECUTION;
+    public static final short BITGET_PLACE_ORDER = VENUE_BITGET << KIND_BITS | PLACE_ORDER;
+
+    // 编号 -> 名称（预先生成，name() 不分配内存）
+    private static final String[] NAMES = new String[CODE_SPACE];
+
+    // 名称 -> 编号（包含兼容别名）
+    private static final Map<String, Short> CODES = new HashMap<>();
+
+    static {
+        String[] marketDataKinds = {
+                "TRADE_TICK", "QUOTE_TICK", "BAR", "ORDER_BOOK_DEPTH", "ORDER_BOOK_DELTA",
+                "MARK_PRICE_UPDATE", "INDEX_PRICE_UPDATE", "FUNDING_RATE_UPDATE",
+                "INSTRUMENT_STATUS", "INSTRUMENT_CLOSE", "ORDER_UPDATE", "TRADE_EXECUTION"
+        };
+        System.arraycopy(marketDataKinds, 0, KIND_NAMES, 0, marketDataKinds.length);
+        KIND_NAMES[PLACE_ORDER] = "PLACE_ORDER";
+        KIND_NAMES[CANCEL_ORDER] = "CANCEL_ORDER";
+        KIND_NAMES[MODIFY_ORDER] = "MODIFY_ORDER";
+        KIND_NAMES[QUERY_ORDER] = "QUERY_ORDER";
+        KIND_NAMES[QUERY_ACCOUNT] = "QUERY_ACCOUNT";
+        KIND_NAMES[QUERY_POSITION] = "QUERY_POSITION";
+        KIND_NAMES[CANCEL_ALL_ORDERS] = "CANCEL_ALL_ORDERS";
+        KIND_NAMES[CLOSE_POSITION] = "CLOSE_POSITION";
+        KIND_NAMES[EXECUTION_REPORT] = "EXECUTION_REPORT";
+        KIND_NAMES[UNKNOWN] = "UNKNOWN";
+
+        for (int venue = 0; venue < VENUE_NAMES.length; venue++) {
+            for (int kind = 0; kind <= KIND_MASK; kind++) {
+                if (KIND_NAMES[kind] == null) {
+                    continue;
+                }
+                short code = code(venue, kind);
+                String name = venue == VENUE_UNKNOWN ? KIND_NAMES[kind] : VENUE_NAMES[venue] + "_" + KIND_NAMES[kind];
+                NAMES[code] = name;
+                CODES.put(name, code);
+                if (venue != VENUE_UNKNOWN) {
+                    // 兼容交易指令的旧命名，如 "PLACE_ORDER_BINANCE"
+                    CODES.putIfAbsent(KIND_NAMES[kind] + "_" + VENUE_NAMES[venue], code);
+                }
+            }
+        }
+    }
+
+    private EventType() {
+    }
+
+    /**
+     * 组合交易所和数据种类得到事件类型编号
+     */
+    public static short code(int venue, int kind) {
+        return (short) (venue << KIND_BITS | kind);
+    }
+
+    public static short venueOf(int code) {
+        return code < 0 ? VENUE_UNKNOWN : (short) (code >>> KIND_BITS);
+    }
+
+    public static int kindOf(int code) {
+        return code < 0 ? UNKNOWN : code & KIND_MASK;
+    }
+
+    /**
+     * 根据名称解析事件类型编号（边界处使用）
+     *
+     * @return 未注册的名称返回 {@link #NONE}
+     */
+    public static short codeOf(String name) {
+        if (name == null) {
+            return NONE;
+        }
+        Short code = CODES.get(name);
+        return code != null ? code : NONE;
+    }
+
+    /**
+     * 事件类型名称，如 "BINANCE_TRADE_TICK"
+     *
+     * @return 未注册的编号返回null
+     */
+    public static String name(int code) {
+        return code < 0 || code >= CODE_SPACE ? null : NAMES[code];
+    }
+
+    /**
+     * 根据交易所名称解析交易所编号（不区分大小写）
+     */
+    public static short venueOf(String venueName) {
+        if (venueName != null) {
+            for (short venue = 1; venue < VENUE_NAMES.length; venue++) {
+                if (VENUE_NAMES[venue].equalsIgnoreCase(venueName)) {
+                    return venue;
+                }
+            }
+        }
+        return VENUE_UNKNOWN;
+    }
+
+    public static String venueName(int venue) {
+        return venue > 0 && venue < VENUE_NAMES.length ? VENUE_NAMES[venue] : "UNKNOWN";
+    }
+
+    /**
+     * 行情数据种类对应的事件类型编号
+     *
+     * @param venue 交易所编号
+     * @param marketData 行情数据
+     */
+    public static short of(int venue, MarketData marketData) {
+        return code(venue, marketData.getType());
+    }
+}
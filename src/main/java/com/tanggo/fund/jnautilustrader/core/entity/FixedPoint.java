@@ -0,0 +1,235 @@
+package com.tanggo.fund.jnautilustrader.core.entity;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * 定点数工具
+ * <p>
+ * 数值以 {@code raw = value * 10^precision} 的long表示，precision为小数位数（0到{@link #MAX_PRECISION}）。
+ * 解析直接在字符上进行，不创建中间字符串；多余的小数位按四舍五入（HALF_UP）舍入到目标精度。
+ * {@link Price} 和 {@link Quantity} 基于此实现。
+ */
+public final class FixedPoint {
+
+    /**
+     * 支持的最大小数位数
+     */
+    public static final int MAX_PRECISION = 12;
+
+    private static final long[] POW10 = new long[19];
+    private static final double[] POW10_DOUBLE = new double[MAX_PRECISION + 1];
+
+    static {
+        long value = 1;
+        for (int i = 0; i < POW10.length; i++) {
+            POW10[i] = value;
+            value *= 10;
+        }
+        for (int i = 0; i <= MAX_PRECISION; i++) {
+            POW10_DOUBLE[i] = POW10[i];
+        }
+    }
+
+    private FixedPoint() {
+    }
+
+    /**
+     * 10的precision次幂
+     */
+    public static long scale(int precision) {
+        return POW10[precision];
+    }
+
+    /**
+     * 十进制文本的小数位数（不超过 {@link #MAX_PRECISION}）
+     */
+    public static int fractionDigits(char[] buffer, int offset, int length) {
+        int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            char c = buffer[i];
+            if (c == '.') {
+                int digits = 0;
+                for (int j = i + 1; j < end && buffer[j] >= '0' && buffer[j] <= '9'; j++) {
+                    digits++;
+                }
+                return Math.min(digits, MAX_PRECISION);
+            }
+            if (c == 'e' || c == 'E') {
+                break;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * 把十进制文本解析为指定精度的定点数
+     *
+     * @throws NumberFormatException 文本格式错误或超出long范围
+     */
+    public static long parse(char[] buffer, int offset, int length, int precision) {
+        checkPrecision(precision);
+        int end = offset + length;
+        int i = offset;
+        boolean negative = false;
+        if (i < end && (buffer[i] == '-' || buffer[i] == '+')) {
+            negative = buffer[i] == '-';
+            i++;
+        }
+        long raw = 0;
+        int fraction = -1;
+        int roundDigit = -1;
+        boolean anyDigit = false;
+        for (; i < end; i++) {
+            char c = buffer[i];
+            if (c >= '0' && c <= '9') {
+                anyDigit = true;
+                int digit = c - '0';
+                if (fraction < 0) {
+                    raw = multiplyAdd(raw, digit, buffer, offset, length);
+                } else if (fraction < precision) {
+                    raw = multiplyAdd(raw, digit, buffer, offset, length);
+                    fraction++;
+                } else if (roundDigit < 0) {
+                    roundDigit = digit;
+                }
+            } else if (c == '.' && fraction < 0) {
+                fraction = 0;
+            } else if (c == 'e' || c == 'E') {
+                // 科学计数法不在热路径上出现，交给BigDecimal处理
+                return parseSlow(new String(buffer, offset, length), precision);
+            } else {
+                throw new NumberFormatException("Invalid decimal: " + new String(buffer, offset, length));
+            }
+        }
+        if (!anyDigit) {
+            throw new NumberFormatException("Invalid decimal: " + new String(buffer, offset, length));
+        }
+        for (int f = Math.max(fraction, 0); f < precision; f++) {
+            raw = multiplyAdd(raw, 0, buffer, offset, length);
+        }
+        if (roundDigit >= 5) {
+            if (raw == Long.MAX_VALUE) {
+                throw new NumberFormatException("Decimal out of range: " + new String(buffer, offset, length));
+            }
+            raw++;
+        }
+        return negative ? -raw : raw;
+    }
+
+    /**
+     * 解析字符串（边界处使用）
+     */
+    public static long parse(String text, int precision) {
+        char[] chars = text.toCharArray();
+        return parse(chars, 0, chars.length, precision);
+    }
+
+    /**
+     * 把double按指定精度四舍五入为定点数
+     */
+    public static long fromDouble(double value, int precision) {
+        checkPrecision(precision);
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            throw new ArithmeticException("Not a finite value: " + value);
+        }
+        double scaled = value * POW10_DOUBLE[precision];
+        if (Math.abs(scaled) < 1L << 52) {
+            return Math.round(scaled);
+        }
+        return new BigDecimal(value).setScale(precision, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * 定点数转double（尾数不超过2^53时结果正确舍入）
+     */
+    public static double toDouble(long raw, int precision) {
+        return raw / POW10_DOUBLE[precision];
+    }
+
+    /**
+     * 转换精度，降低精度时四舍五入
+     *
+     * @throws ArithmeticException 超出long范围
+     */
+    public static long rescale(long raw, int fromPrecision, int toPrecision) {
+        if (fromPrecision == toPrecision) {
+            return raw;
+        }
+        if (toPrecision > fromPrecision) {
+            return Math.multiplyExact(raw, POW10[toPrecision - fromPrecision]);
+        }
+        long divisor = POW10[fromPrecision - toPrecision];
+        long quotient = raw / divisor;
+        long remainder = Math.abs(raw % divisor);
+        if (remainder * 2 >= divisor) {
+            quotient += raw < 0 ? -1 : 1;
+        }
+        return quotient;
+    }
+
+    /**
+     * 比较两个不同精度的定点数
+     */
+    public static int compare(long raw1, int precision1, long raw2, int precision2) {
+        if (precision1 == precision2) {
+            return Long.compare(raw1, raw2);
+        }
+        int precision = Math.max(precision1, precision2);
+        try {
+            return Long.compare(rescale(raw1, precision1, precision), rescale(raw2, precision2, precision));
+        } catch (ArithmeticException e) {
+            return BigDecimal.valueOf(raw1, precision1).compareTo(BigDecimal.valueOf(raw2, precision2));
+        }
+    }
+
+    /**
+     * 格式化为十进制文本，保留全部precision位小数
+     */
+    public static String format(long raw, int precision) {
+        StringBuilder builder = new StringBuilder(24);
+        appendTo(builder, raw, precision);
+        return builder.toString();
+    }
+
+    /**
+     * 把十进制文本追加到builder
+     */
+    public static void appendTo(StringBuilder builder, long raw, int precision) {
+        if (raw < 0) {
+            builder.append('-');
+        }
+        long scale = POW10[precision];
+        long integer = Math.abs(raw / scale);
+        long fraction = Math.abs(raw % scale);
+        builder.append(integer);
+        if (precision > 0) {
+            builder.append('.');
+            for (long digit = scale / 10; digit > fraction && digit > 1; digit /= 10) {
+                builder.append('0');
+            }
+            builder.append(fraction);
+        }
+    }
+
+    static void checkPrecision(int precision) {
+        if (precision < 0 || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("Precision out of range [0, " + MAX_PRECISION + "]: " + precision);
+        }
+    }
+
+    private static long multiplyAdd(long raw, int digit, char[] buffer, int offset, int length) {
+        if (raw > (Long.MAX_VALUE - digit) / 10) {
+            throw new NumberFormatException("Decimal out of range: " + new String(buffer, offset, length));
+        }
+        return raw * 10 + digit;
+    }
+
+    private static long parseSlow(String text, int precision) {
+        try {
+            return new BigDecimal(text).setScale(precision, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Decimal out of range: " + text);
+        }
+    }
+}
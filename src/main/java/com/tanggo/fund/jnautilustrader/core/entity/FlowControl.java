@@ -0,0 +1,33 @@
+package com.tanggo.fund.jnautilustrader.core.entity;
+
+/**
+ * 上游读取的流量控制
+ * <p>
+ * 网关每处理完一条WebSocket消息，调用 {@link #tryRequest(Runnable)} 决定是否立即向连接请求下一条（{@code request(1)}）：
+ * 下游积压超过阈值时返回false，网关暂停读取，由TCP窗口把压力传回交易所；
+ * 积压消化后在消费者线程上调用登记的 resume，由它补发 request。
+ * <p>
+ * 支持流量控制的事件仓储实现此接口，网关通过 {@link #of(EventRepo)} 取得。
+ */
+public interface FlowControl {
+
+    /**
+     * 不做流量控制：总是允许继续读取
+     */
+    FlowControl UNBOUNDED = resume -> true;
+
+    /**
+     * 是否可以继续向上游请求数据
+     *
+     * @param resume 返回false时登记，积压消化后调用一次（可能在其它线程上）；返回true时不会被调用
+     * @return true表示调用方应立即请求下一条
+     */
+    boolean tryRequest(Runnable resume);
+
+    /**
+     * 仓储的流量控制，不支持时返回 {@link #UNBOUNDED}
+     */
+    static FlowControl of(EventRepo<?> repo) {
+        return repo instanceof FlowControl ? (FlowControl) repo : UNBOUNDED;
+    }
+}
@@ -0,0 +1,77 @@
+package com.tanggo.fund.jnautilustrader.core.entity;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 空闲等待策略
+ * <p>
+ * 轮询循环在没有取到事件时调用 {@link #idle(int)}，由调用方维护连续空闲次数
+ * （取到事件后归零），因此策略本身无状态，可在多个线程之间共享。
+ */
+public interface IdleStrategy {
+
+    /**
+     * 忙等待：最低延迟，独占一个CPU核心
+     */
+    IdleStrategy SPIN = idleCount -> Thread.onSpinWait();
+
+    /**
+     * 线程让步：延迟略高，空闲时让出时间片
+     */
+    IdleStrategy YIELD = idleCount -> Thread.yield();
+
+    /**
+     * 线程暂停：CPU占用最低，延迟取决于系统定时器精度
+     */
+    IdleStrategy PARK = park(1_000);
+
+    /**
+     * spin -> yield -> park 三级退避
+     */
+    IdleStrategy BACKOFF = backoff(1000, 100, 1_000);
+
+    /**
+     * 执行一次空闲等待
+     *
+     * @param idleCount 连续空闲次数（从0开始）
+     */
+    void idle(int idleCount);
+
+    /**
+     * 执行一次有等待上限的空闲等待
+     * <p>
+     * 事件循环有待触发的定时器时传入距下一次触发的时间，避免长时间挂起的策略错过定时器；
+     * 内置的短暂等待策略不会超过上限，默认忽略该参数。
+     *
+     * @param idleCount    连续空闲次数（从0开始）
+     * @param maxWaitNanos 最长等待时间（纳秒）
+     */
+    default void idle(int idleCount, long maxWaitNanos) {
+        idle(idleCount);
+    }
+
+    /**
+     * 挂起直到生产者发出信号，信号通过 {@link SignalIdleStrategy#signal()} 发出
+     * <p>
+     * 有状态，每个事件循环使用独立的实例。
+     */
+    static SignalIdleStrategy signal() {
+        return new SignalIdleStrategy();
+    }
+
+    static IdleStrategy park(long parkNanos) {
+        return idleCount -> LockSupport.parkNanos(parkNanos);
+    }
+
+    static IdleStrategy backoff(int maxSpins, int maxYields, long parkNanos) {
+        return idleCount -> {
+            if (idleCount < maxSpins) {
+                Thread.onSpinWait();
+            } else if (idleCount < maxSpins + maxYields) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(parkNanos);
+            }
+        };
+    }
+}
@@ -0,0 +1,140 @@
+package com.tanggo.fund.jnautilustrader.core.entity;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 交易品种编号注册表
+ * <p>
+ * 把品种代码（如 "BTCUSDT"）分配为从1开始的连续int编号，0 表示未知品种。
+ * 编号在进程内稳定，可作为 {@link Event#instrumentId} 携带，供路由、过滤和数组索引使用；
+ * 字符串只在网关解析和日志等边界处转换。
+ * <p>
+ * 每个品种可登记价格精度和数量精度（小数位数），网关按此把行情中的价格、数量解析为 {@link Price} / {@link Quantity}，
+ * 下单时按此舍入；未登记时为 {@link #UNKNOWN_PRECISION}，解析取文本中的小数位数。
+ */
+public final class InstrumentRegistry {
+
+    public static final int UNKNOWN = 0;
+
+    /**
+     * 未登记的精度
+     */
+    public static final int UNKNOWN_PRECISION = -1;
+
+    private static final ConcurrentHashMap<String, Integer> IDS = new ConcurrentHashMap<>();
+
+    // 编号 -> 品种代码，写时复制，读取无锁
+    private static volatile String[] symbols = {null};
+
+    // 编号 -> 价格/数量精度，写时复制，读取无锁
+    private static volatile int[] pricePrecisions = {UNKNOWN_PRECISION};
+    private static volatile int[] sizePrecisions = {UNKNOWN_PRECISION};
+
+    private InstrumentRegistry() {
+    }
+
+    /**
+     * 获取品种编号，首次出现时分配新编号
+     *
+     * @return 品种为null或空时返回 {@link #UNKNOWN}
+     */
+    public static int idOf(String symbol) {
+        if (symbol == null || symbol.isEmpty()) {
+            return UNKNOWN;
+        }
+        Integer id = IDS.get(symbol);
+        if (id != null) {
+            return id;
+        }
+        return register(symbol);
+    }
+
+    /**
+     * 查询品种编号，不分配新编号
+     *
+     * @return 未注册时返回 {@link #UNKNOWN}
+     */
+    public static int find(String symbol) {
+        Integer id = symbol == null ? null : IDS.get(symbol);
+        return id != null ? id : UNKNOWN;
+    }
+
+    /**
+     * 品种代码
+     *
+     * @return 未注册的编号返回null
+     */
+    public static String symbolOf(int id) {
+        String[] current = symbols;
+        return id > 0 && id < current.length ? current[id] : null;
+    }
+
+    /**
+     * 已注册的品种数量
+     */
+    public static int size() {
+        return symbols.length - 1;
+    }
+
+    /**
+     * 登记品种的价格精度和数量精度
+     *
+     * @return 品种编号
+     */
+    public static synchronized int register(String symbol, int pricePrecision, int sizePrecision) {
+        FixedPoint.checkPrecision(pricePrecision);
+        FixedPoint.checkPrecision(sizePrecision);
+        int id = idOf(symbol);
+        if (id == UNKNOWN) {
+            throw new IllegalArgumentException("Symbol must not be empty");
+        }
+        int[] prices = pricePrecisions.clone();
+        int[] sizes = sizePrecisions.clone();
+        prices[id] = pricePrecision;
+        sizes[id] = sizePrecision;
+        pricePrecisions = prices;
+        sizePrecisions = sizes;
+        return id;
+    }
+
+    /**
+     * 价格精度
+     *
+     * @return 未登记时返回 {@link #UNKNOWN_PRECISION}
+     */
+    public static int pricePrecision(int id) {
+        int[] current = pricePrecisions;
+        return id > 0 && id < current.length ? current[id] : UNKNOWN_PRECISION;
+    }
+
+    /**
+     * 数量精度
+     *
+     * @return 未登记时返回 {@link #UNKNOWN_PRECISION}
+     */
+    public static int sizePrecision(int id) {
+        int[] current = sizePrecisions;
+        return id > 0 && id < current.length ? current[id] : UNKNOWN_PRECISION;
+    }
+
+    private static synchronized int register(String symbol) {
+        Integer existing = IDS.get(symbol);
+        if (existing != null) {
+            return existing;
+        }
+        String[] current = symbols;
+        int id = current.length;
+        String[] updated = Arrays.copyOf(current, id + 1);
+        updated[id] = symbol;
+        symbols = updated;
+        int[] prices = Arrays.copyOf(pricePrecisions, id + 1);
+        int[] sizes = Arrays.copyOf(sizePrecisions, id + 1);
+        prices[id] = UNKNOWN_PRECISION;
+        sizes[id] = UNKNOWN_PRECISION;
+        pricePrecisions = prices;
+        sizePrecisions = sizes;
+        IDS.put(symbol, id);
+        return id;
+    }
+}
@@ -0,0 +1,153 @@
+package com.tanggo.fund.jnautilustrader.core.entity;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 延迟直方图（纳秒）
+ * <p>
+ * 与 HdrHistogram 相同的对数-线性分桶：小于128的值每个值一个桶，之后每个2的幂区间再等分为64个桶，
+ * 相对误差不超过1/64（约1.6%），覆盖0到 {@link Long#MAX_VALUE} 只需固定的3712个计数。
+ * 记录只做一次原子自增，不分配对象，多个线程可以同时记录；读取方通过 {@link #snapshot()} 取得累计计数，
+ * 两次快照相减即得到区间内的分布（{@link Snapshot#minus(Snapshot)}），记录方不需要重置。
+ */
+public final class LatencyHistogram {
+
+    // 每个2的幂区间的分桶位数：区间内64个桶
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF = SUB_BUCKET_COUNT >> 1;
+    private static final int BUCKET_COUNT = indexOf(Long.MAX_VALUE) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+    /**
+     * 记录一个延迟值，负值按0记录
+     */
+    public void record(long nanos) {
+        counts.getAndIncrement(indexOf(Math.max(0, nanos)));
+    }
+
+    /**
+     * 当前累计计数的快照
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            copy[i] = counts.get(i);
+        }
+        return new Snapshot(copy);
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int shift = (63 - Long.numberOfLeadingZeros(value)) - (SUB_BUCKET_BITS - 1);
+        return shift * SUB_BUCKET_HALF + (int) (value >>> shift);
+    }
+
+    /**
+     * 桶内的最大值（与桶内所有值等价的上界）
+     */
+    static long highestValueAt(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_HALF - 1;
+        long subBucket = index - (long) shift * SUB_BUCKET_HALF;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    /**
+     * 桶内的中间值，用于计算均值
+     */
+    static long medianValueAt(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_HALF - 1;
+        long subBucket = index - (long) shift * SUB_BUCKET_HALF;
+        return (subBucket << shift) + (1L << (shift - 1));
+    }
+
+    /**
+     * 直方图快照，不可变
+     */
+    public static final class Snapshot {
+
+        private final long[] counts;
+        private final long totalCount;
+
+        private Snapshot(long[] counts) {
+            this.counts = counts;
+            long total = 0;
+            for (long count : counts) {
+                total += count;
+            }
+            this.totalCount = total;
+        }
+
+        /**
+         * 本快照相对于较早快照的增量，即两次快照之间记录的分布
+         */
+        public Snapshot minus(Snapshot earlier) {
+            long[] delta = new long[counts.length];
+            for (int i = 0; i < counts.length; i++) {
+                delta[i] = counts[i] - earlier.counts[i];
+            }
+            return new Snapshot(delta);
+        }
+
+        public long getTotalCount() {
+            return totalCount;
+        }
+
+        /**
+         * 百分位数对应的延迟（纳秒），取桶的上界；没有记录时返回0
+         *
+         * @param percentile 0到100
+         */
+        public long valueAtPercentile(double percentile) {
+            if (totalCount == 0) {
+                return 0;
+            }
+            long target = Math.max(1, (long) Math.ceil(Math.min(percentile, 100.0) / 100.0 * totalCount));
+            long cumulative = 0;
+            for (int i = 0; i < counts.length; i++) {
+                cumulative += counts[i];
+                if (cumulative >= target) {
+                    return highestValueAt(i);
+                }
+            }
+            return getMax();
+        }
+
+        /**
+         * 最大延迟（纳秒，桶的上界）
+         */
+        public long getMax() {
+            for (int i = counts.length - 1; i >= 0; i--) {
+                if (counts[i] > 0) {
+                    return highestValueAt(i);
+                }
+            }
+            return 0;
+        }
+
+        /**
+         * 平均延迟（纳秒，按桶的中间值估算）
+         */
+        public double getMean() {
+            if (totalCount == 0) {
+                return 0;
+            }
+            double sum = 0;
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] > 0) {
+                    sum += (double) medianValueAt(i) * counts[i];
+                }
+            }
+            return sum / totalCount;
+        }
+    }
+}
@@ -1,43 +1,91 @@
 package com.tanggo.fund.jnautilustrader.core.entity;
 
 import com.tanggo.fund.jnautilustrader.core.entity.event.data.*;
+import com.tanggo.fund.jnautilustrader.core.entity.event.trade.OrderUpdate;
+import com.tanggo.fund.jnautilustrader.core.entity.event.trade.TradeExecution;
+
+import java.util.function.BinaryOperator;
+import java.util.function.Supplier;
 
 /**
- * 市场数据枚举
- * 表示币安WebSocket可能返回的不同类型的市场数据对象
+ * 市场数据载体
+ * 表示币安/Bitget WebSocket可能返回的不同类型的市场数据对象
+ * <p>
+ * 每个事件持有独立的不可变实例（类型编号 + 消息对象），
+ * 不同网关并发发布同类型数据时不会互相覆盖。
+ * 类型编号为原始int，可直接用于switch分发，避免instanceof链。
+ * <p>
+ * 例外是 {@link #reusable()} 创建的槽位载体：它属于环形缓冲区的一个预分配槽位，
+ * 只由申领到该槽位的生产者通过 {@link #reuse(MarketData, Object)} 改写，消费者释放槽位前不会被覆盖。
  */
-public enum MarketData {
-
-    TRADE_TICK(null),
-    QUOTE_TICK(null),
-    BAR(null),
-    ORDER_BOOK_DEPTH(null),
-    ORDER_BOOK_DELTA(null),
-    MARK_PRICE_UPDATE(null),
-    INDEX_PRICE_UPDATE(null),
-    FUNDING_RATE_UPDATE(null),
-    INSTRUMENT_STATUS(null),
-    INSTRUMENT_CLOSE(null);
-
-    //todo 增加 OrderUpdate 和TradeExecution
+public final class MarketData {
+
+    public static final int TRADE_TICK = 0;
+    public static final int QUOTE_TICK = 1;
+    public static final int BAR = 2;
+    public static final int ORDER_BOOK_DEPTH = 3;
+    public static final int ORDER_BOOK_DELTA = 4;
+    public static final int MARK_PRICE_UPDATE = 5;
+    public static final int INDEX_PRICE_UPDATE = 6;
+    public static final int FUNDING_RATE_UPDATE = 7;
+    public static final int INSTRUMENT_STATUS = 8;
+    public static final int INSTRUMENT_CLOSE = 9;
+    public static final int ORDER_UPDATE = 10;
+    public static final int TRADE_EXECUTION = 11;
+
+    private static final String[] TYPE_NAMES = {
+            "TRADE_TICK", "QUOTE_TICK", "BAR", "ORDER_BOOK_DEPTH", "ORDER_BOOK_DELTA",
+            "MARK_PRICE_UPDATE", "INDEX_PRICE_UPDATE", "FUNDING_RATE_UPDATE",
+            "INSTRUMENT_STATUS", "INSTRUMENT_CLOSE", "ORDER_UPDATE", "TRADE_EXECUTION"
+    };
+
+    private int type;
     private Object message;
+    // 预分配槽位的载体，可由 reuse 改写
+    private final boolean reusable;
 
-    MarketData(Object message) {
+    private MarketData(int type, Object message, boolean reusable) {
+        this.type = type;
         this.message = message;
+        this.reusable = reusable;
     }
 
-    public Object getMessage() {
-        return message;
+    private MarketData(int type, Object message) {
+        this(type, message, false);
     }
 
-    public void setMessage(Object message) {
-        this.message = message;
+    public static MarketData of(TradeTick tradeTick) {
+        return new MarketData(TRADE_TICK, tradeTick);
+    }
+
+    public static MarketData of(QuoteTick quoteTick) {
+        return new MarketData(QUOTE_TICK, quoteTick);
+    }
+
+    public static MarketData of(Bar bar) {
+        return new MarketData(BAR, bar);
+    }
+
+    public static MarketData of(OrderBookDepth10 depth) {
+        return new MarketData(ORDER_BOOK_DEPTH, depth);
+    }
+
+    public static MarketData of(OrderBookDeltas deltas) {
+        return new MarketData(ORDER_BOOK_DELTA, deltas);
+    }
+
+    public static MarketData of(OrderUpdate orderUpdate) {
+        return new MarketData(ORDER_UPDATE, orderUpdate);
+    }
+
+    public static MarketData of(TradeExecution tradeExecution) {
+        return new MarketData(TRADE_EXECUTION, tradeExecution);
     }
 
     /**
-     * 根据消息对象类型获取对应的MarketData枚举
+     * 根据消息对象类型获取对应的类型编号
      */
-    public static MarketData fromMessage(Object message) {
+    public static int typeOf(Object message) {
         if (message instanceof TradeTick) {
             return TRADE_TICK;
         } else if (message instanceof QuoteTick) {
@@ -58,17 +106,169 @@ public enum MarketData {
             return INSTRUMENT_STATUS;
         } else if (message instanceof InstrumentClose) {
             return INSTRUMENT_CLOSE;
+        } else if (message instanceof OrderUpdate) {
+            return ORDER_UPDATE;
+        } else if (message instanceof TradeExecution) {
+            return TRADE_EXECUTION;
         }
         throw new IllegalArgumentException("Unsupported message type: " + message.getClass().getName());
     }
 
     /**
-     * 创建包含实际数据的MarketData实例
+     * 创建包含实际数据的MarketData实例（每次调用返回新实例）
      */
     public static MarketData createWithData(Object data) {
-        MarketData marketData = fromMessage(data);
-        marketData.setMessage(data);
-        return marketData;
+        return new MarketData(typeOf(data), data);
+    }
+
+    /**
+     * 创建预分配槽位使用的可复用载体，供仓储的payload工厂使用（如 {@code MarketData::reusable}）
+     */
+    public static MarketData reusable() {
+        // 填充前取没有品种和时间字段的类型，symbol()/timestampMs() 返回空值
+        return new MarketData(INSTRUMENT_STATUS, null, true);
+    }
+
+    /**
+     * 把消息放入 claim 得到的载体：载体为可复用的槽位载体时就地改写并返回它，否则（为null或不可变实例）新建
+     *
+     * @param carrier claim 返回事件中的payload，可以为null
+     * @param data 消息对象
+     */
+    public static MarketData reuse(MarketData carrier, Object data) {
+        if (carrier == null || !carrier.reusable) {
+            return createWithData(data);
+        }
+        carrier.type = typeOf(data);
+        carrier.message = data;
+        return carrier;
+    }
+
+    /**
+     * 把source的消息放入载体（规则同 {@link #reuse(MarketData, Object)}），用于旁路把事件复制到自己的槽位，
+     * 消息对象本身不可变，只复制引用
+     */
+    public static MarketData copyInto(MarketData carrier, MarketData source) {
+        return source == null ? null : reuse(carrier, source.message);
+    }
+
+    /**
+     * {@link #reusable()} 的工厂，供 Spring 以 factory-method 注入仓储的payload工厂
+     */
+    public static Supplier<MarketData> reusableFactory() {
+        return MarketData::reusable;
+    }
+
+    /**
+     * {@link #copyInto(MarketData, MarketData)} 的复制方法，供 Spring 以 factory-method 注入旁路的payload复制方法
+     */
+    public static BinaryOperator<MarketData> copier() {
+        return MarketData::copyInto;
+    }
+
+    /**
+     * 类型编号，见本类的常量定义
+     */
+    public int getType() {
+        return type;
+    }
+
+    public Object getMessage() {
+        return message;
+    }
+
+    public String typeName() {
+        return TYPE_NAMES[type];
+    }
+
+    public TradeTick asTradeTick() {
+        return type == TRADE_TICK ? (TradeTick) message : null;
+    }
+
+    public QuoteTick asQuoteTick() {
+        return type == QUOTE_TICK ? (QuoteTick) message : null;
+    }
+
+    public OrderBookDepth10 asOrderBookDepth() {
+        return type == ORDER_BOOK_DEPTH ? (OrderBookDepth10) message : null;
+    }
+
+    /**
+     * 深度增量；ORDER_BOOK_DELTA 类型的消息也可能是单条 {@link OrderBookDelta}，此时返回null
+     */
+    public OrderBookDeltas asOrderBookDeltas() {
+        return type == ORDER_BOOK_DELTA && message instanceof OrderBookDeltas ? (OrderBookDeltas) message : null;
+    }
+
+    /**
+     * 单条增量（含最优买卖价），消息为 {@link OrderBookDeltas} 时返回null
+     */
+    public OrderBookDelta asOrderBookDelta() {
+        return type == ORDER_BOOK_DELTA && message instanceof OrderBookDelta ? (OrderBookDelta) message : null;
+    }
+
+    /**
+     * 消息中的品种代码，无品种信息时返回null
+     */
+    public String symbol() {
+        switch (type) {
+            case TRADE_TICK:
+                return ((TradeTick) message).getSymbol();
+            case QUOTE_TICK:
+                return ((QuoteTick) message).getSymbol();
+            case BAR:
+                return ((Bar) message).getSymbol();
+            case ORDER_BOOK_DEPTH:
+                return ((OrderBookDepth10) message).getSymbol();
+            case ORDER_BOOK_DELTA:
+                return message instanceof OrderBookDeltas
+                        ? ((OrderBookDeltas) message).getSymbol()
+                        : ((OrderBookDelta) message).getSymbol();
+            case MARK_PRICE_UPDATE:
+                return ((MarkPriceUpdate) message).getSymbol();
+            case INDEX_PRICE_UPDATE:
+                return ((IndexPriceUpdate) message).getSymbol();
+            case FUNDING_RATE_UPDATE:
+                return ((FundingRateUpdate) message).getSymbol();
+            case ORDER_UPDATE:
+                return ((OrderUpdate) message).getSymbol();
+            case TRADE_EXECUTION:
+                return ((TradeExecution) message).getSymbol();
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * 消息中的事件时间（交易所时间，毫秒），无时间信息时返回0
+     * <p>
+     * K线取开盘时间：未收盘K线的收盘时间在未来。回放按它推进模拟时钟。
+     */
+    public long timestampMs() {
+        switch (type) {
+            case TRADE_TICK:
+                return ((TradeTick) message).eventTimeMs;
+            case QUOTE_TICK:
+                return ((QuoteTick) message).getTimestampMs();
+            case BAR:
+                return ((Bar) message).getOpenTime();
+            case ORDER_BOOK_DEPTH:
+                return ((OrderBookDepth10) message).getEventTime();
+            case ORDER_BOOK_DELTA:
+                return message instanceof OrderBookDeltas
+                        ? ((OrderBookDeltas) message).getEventTime().toEpochMilli()
+                        : ((OrderBookDelta) message).getEventTime().toEpochMilli();
+            case MARK_PRICE_UPDATE:
+                return ((MarkPriceUpdate) message).getEventTime();
+            case INDEX_PRICE_UPDATE:
+                return ((IndexPriceUpdate) message).getEventTime();
+            case ORDER_UPDATE:
+                return ((OrderUpdate) message).getEventTime();
+            case TRADE_EXECUTION:
+                return ((TradeExecution) message).getEventTime();
+            default:
+                return 0;
+        }
     }
 
     @Override
@@ -76,6 +276,6 @@ public enum MarketData {
         if (message != null) {
             return message.toString();
         }
-        return name();
+        return typeName();
     }
 }
@@ -0,0 +1,118 @@
+package com.tanggo.fund.jnautilustrader.core.entity;
+
+import com.tanggo.fund.jnautilustrader.core.entity.event.data.OrderBookDepth10;
+import com.tanggo.fund.jnautilustrader.core.entity.event.data.TradeTick;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MarketData 载体性能基准测试
+ *
+ * 比较两种市场数据封装路径（创建载体 + 封装Event + 消费端取出消息）：
+ * 1. legacy：原枚举单例 + setMessage（每种类型共享一个可变槽位）
+ * 2. carrier：每事件独立的不可变载体 + 原始int类型编号分发
+ *
+ * 运行方式：
+ * mvn clean install -DskipTests
+ * mvn exec:java -Dexec.mainClass="com.tanggo.fund.jnautilustrader.core.entity.MarketDataBenchmark"
+ * 附加 -prof gc 可查看每次操作的分配字节数
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 2, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class MarketDataBenchmark {
+
+    /**
+     * 原实现的等价副本：枚举常量作为消息容器
+     */
+    enum LegacyMarketData {
+        TRADE_TICK, ORDER_BOOK_DEPTH;
+
+        private Object message;
+
+        static LegacyMarketData createWithData(Object data) {
+            LegacyMarketData marketData;
+            if (data instanceof TradeTick) {
+                marketData = TRADE_TICK;
+            } else if (data instanceof OrderBookDepth10) {
+                marketData = ORDER_BOOK_DEPTH;
+            } else {
+                throw new IllegalArgumentException("Unsupported message type: " + data.getClass().getName());
+            }
+            marketData.message = data;
+            return marketData;
+        }
+
+        Object getMessage() {
+            return message;
+        }
+    }
+
+    private TradeTick tradeTick;
+    private OrderBookDepth10 depth;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        tradeTick = new TradeTick();
+        tradeTick.setSymbol("BTCUSDT");
+        tradeTick.setPrice(Price.of("50000.00"));
+        tradeTick.setQuantity(Quantity.of("0.001"));
+        tradeTick.setTradeId("12345");
+
+        depth = new OrderBookDepth10();
+        depth.setSymbol("BTCUSDT");
+    }
+
+    @Benchmark
+    public void legacyEnumContainer(Blackhole blackhole) {
+        Event<LegacyMarketData> tradeEvent = new Event<>("BINANCE_TRADE_TICK", LegacyMarketData.createWithData(tradeTick));
+        Event<LegacyMarketData> depthEvent = new Event<>("BITGET_ORDER_BOOK_DEPTH", LegacyMarketData.createWithData(depth));
+
+        if (tradeEvent.payload.getMessage() instanceof TradeTick tick) {
+            blackhole.consume(tick.price);
+        }
+        if (depthEvent.payload.getMessage() instanceof OrderBookDepth10 book) {
+            blackhole.consume(book);
+        }
+    }
+
+    @Benchmark
+    public void perEventCarrier(Blackhole blackhole) {
+        Event<MarketData> tradeEvent = new Event<>("BINANCE_TRADE_TICK", MarketData.of(tradeTick));
+        Event<MarketData> depthEvent = new Event<>("BITGET_ORDER_BOOK_DEPTH", MarketData.of(depth));
+
+        consume(tradeEvent.payload, blackhole);
+        consume(depthEvent.payload, blackhole);
+    }
+
+    @Benchmark
+    public void perEventCarrierUntyped(Blackhole blackhole) {
+        Event<MarketData> tradeEvent = new Event<>("BINANCE_TRADE_TICK", MarketData.createWithData(tradeTick));
+        Event<MarketData> depthEvent = new Event<>("BITGET_ORDER_BOOK_DEPTH", MarketData.createWithData(depth));
+
+        consume(tradeEvent.payload, blackhole);
+        consume(depthEvent.payload, blackhole);
+    }
+
+    private static void consume(MarketData marketData, Blackhole blackhole) {
+        switch (marketData.getType()) {
+            case MarketData.TRADE_TICK:
+                blackhole.consume(marketData.asTradeTick().price);
+                break;
+            case MarketData.ORDER_BOOK_DEPTH:
+                blackhole.consume(marketData.asOrderBookDepth());
+                break;
+            default:
+                blackhole.consume(marketData.getMessage());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(args);
+    }
+}
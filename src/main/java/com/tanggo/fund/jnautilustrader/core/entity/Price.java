@@ -0,0 +1,141 @@
+package com.tanggo.fund.jnautilustrader.core.entity;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * 价格（定点数）
+ * <p>
+ * 以 {@code raw = price * 10^precision} 的long保存，precision 取品种的价格精度（见 {@link InstrumentRegistry#pricePrecision}），
+ * 未登记精度时取文本中的小数位数。加减和比较都是精确的整数运算；不同精度的价格比较时先对齐精度。
+ * 不可变，可在线程间共享。
+ */
+public final class Price implements Comparable<Price>, Serializable {
+
+    private final long raw;
+    private final int precision;
+
+    private Price(long raw, int precision) {
+        this.raw = raw;
+        this.precision = precision;
+    }
+
+    /**
+     * 由定点数原始值创建
+     */
+    public static Price fromRaw(long raw, int precision) {
+        FixedPoint.checkPrecision(precision);
+        return new Price(raw, precision);
+    }
+
+    /**
+     * 由double创建，按精度四舍五入
+     */
+    public static Price of(double value, int precision) {
+        return new Price(FixedPoint.fromDouble(value, precision), precision);
+    }
+
+    /**
+     * 解析十进制文本，精度取文本中的小数位数
+     */
+    @JsonCreator
+    public static Price of(String text) {
+        char[] chars = text.toCharArray();
+        return parse(chars, 0, chars.length, -1);
+    }
+
+    /**
+     * 解析十进制文本，按指定精度四舍五入
+     */
+    public static Price of(String text, int precision) {
+        char[] chars = text.toCharArray();
+        return parse(chars, 0, chars.length, precision);
+    }
+
+    /**
+     * 直接从字符缓冲解析（网关热路径）
+     *
+     * @param precision 小数位数，小于0时取文本中的小数位数
+     */
+    public static Price parse(char[] buffer, int offset, int length, int precision) {
+        int p = precision >= 0 ? precision : FixedPoint.fractionDigits(buffer, offset, length);
+        return new Price(FixedPoint.parse(buffer, offset, length, p), p);
+    }
+
+    public long getRaw() {
+        return raw;
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    /**
+     * 指定精度下的原始值
+     */
+    public long rawAt(int targetPrecision) {
+        return FixedPoint.rescale(raw, precision, targetPrecision);
+    }
+
+    public double asDouble() {
+        return FixedPoint.toDouble(raw, precision);
+    }
+
+    public BigDecimal asBigDecimal() {
+        return BigDecimal.valueOf(raw, precision);
+    }
+
+    public boolean isPositive() {
+        return raw > 0;
+    }
+
+    public boolean isZero() {
+        return raw == 0;
+    }
+
+    public Price add(Price other) {
+        int p = Math.max(precision, other.precision);
+        return new Price(Math.addExact(rawAt(p), other.rawAt(p)), p);
+    }
+
+    public Price subtract(Price other) {
+        int p = Math.max(precision, other.precision);
+        return new Price(Math.subtractExact(rawAt(p), other.rawAt(p)), p);
+    }
+
+    @Override
+    public int compareTo(Price other) {
+        return FixedPoint.compare(raw, precision, other.raw, other.precision);
+    }
+
+    /**
+     * 数值相等即相等（与精度无关，如 1.10 等于 1.1）
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        return o instanceof Price other && compareTo(other) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        long normalized = raw;
+        int p = precision;
+        while (p > 0 && normalized % 10 == 0) {
+            normalized /= 10;
+            p--;
+        }
+        return Long.hashCode(normalized) * 31 + p;
+    }
+
+    @JsonValue
+    @Override
+    public String toString() {
+        return FixedPoint.format(raw, precision);
+    }
+}
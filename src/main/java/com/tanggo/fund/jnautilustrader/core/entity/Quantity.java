@@ -0,0 +1,147 @@
+package com.tanggo.fund.jnautilustrader.core.entity;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * 数量（定点数）
+ * <p>
+ * 以 {@code raw = quantity * 10^precision} 的long保存，precision 取品种的数量精度（见 {@link InstrumentRegistry#sizePrecision}），
+ * 未登记精度时取文本中的小数位数。加减和比较都是精确的整数运算；不同精度的数量比较时先对齐精度。
+ * 数量不能为负。不可变，可在线程间共享。
+ */
+public final class Quantity implements Comparable<Quantity>, Serializable {
+
+    private final long raw;
+    private final int precision;
+
+    private Quantity(long raw, int precision) {
+        if (raw < 0) {
+            throw new IllegalArgumentException("Quantity must not be negative: " + FixedPoint.format(raw, precision));
+        }
+        this.raw = raw;
+        this.precision = precision;
+    }
+
+    /**
+     * 由定点数原始值创建
+     */
+    public static Quantity fromRaw(long raw, int precision) {
+        FixedPoint.checkPrecision(precision);
+        return new Quantity(raw, precision);
+    }
+
+    /**
+     * 由double创建，按精度四舍五入
+     */
+    public static Quantity of(double value, int precision) {
+        return new Quantity(FixedPoint.fromDouble(value, precision), precision);
+    }
+
+    /**
+     * 解析十进制文本，精度取文本中的小数位数
+     */
+    @JsonCreator
+    public static Quantity of(String text) {
+        char[] chars = text.toCharArray();
+        return parse(chars, 0, chars.length, -1);
+    }
+
+    /**
+     * 解析十进制文本，按指定精度四舍五入
+     */
+    public static Quantity of(String text, int precision) {
+        char[] chars = text.toCharArray();
+        return parse(chars, 0, chars.length, precision);
+    }
+
+    /**
+     * 直接从字符缓冲解析（网关热路径）
+     *
+     * @param precision 小数位数，小于0时取文本中的小数位数
+     */
+    public static Quantity parse(char[] buffer, int offset, int length, int precision) {
+        int p = precision >= 0 ? precision : FixedPoint.fractionDigits(buffer, offset, length);
+        return new Quantity(FixedPoint.parse(buffer, offset, length, p), p);
+    }
+
+    public long getRaw() {
+        return raw;
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    /**
+     * 指定精度下的原始值
+     */
+    public long rawAt(int targetPrecision) {
+        return FixedPoint.rescale(raw, precision, targetPrecision);
+    }
+
+    public double asDouble() {
+        return FixedPoint.toDouble(raw, precision);
+    }
+
+    public BigDecimal asBigDecimal() {
+        return BigDecimal.valueOf(raw, precision);
+    }
+
+    public boolean isPositive() {
+        return raw > 0;
+    }
+
+    public boolean isZero() {
+        return raw == 0;
+    }
+
+    public Quantity add(Quantity other) {
+        int p = Math.max(precision, other.precision);
+        return new Quantity(Math.addExact(rawAt(p), other.rawAt(p)), p);
+    }
+
+    /**
+     * 相减，结果为负时抛出 IllegalArgumentException
+     */
+    public Quantity subtract(Quantity other) {
+        int p = Math.max(precision, other.precision);
+        return new Quantity(Math.subtractExact(rawAt(p), other.rawAt(p)), p);
+    }
+
+    @Override
+    public int compareTo(Quantity other) {
+        return FixedPoint.compare(raw, precision, other.raw, other.precision);
+    }
+
+    /**
+     * 数值相等即相等（与精度无关，如 1.10 等于 1.1）
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        return o instanceof Quantity other && compareTo(other) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        long normalized = raw;
+        int p = precision;
+        while (p > 0 && normalized % 10 == 0) {
+            normalized /= 10;
+            p--;
+        }
+        return Long.hashCode(normalized) * 31 + p;
+    }
+
+    @JsonValue
+    @Override
+    public String toString() {
+        return FixedPoint.format(raw, precision);
+    }
+}
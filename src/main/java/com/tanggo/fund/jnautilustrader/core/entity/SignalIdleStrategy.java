@@ -0,0 +1,77 @@
+package com.tanggo.fund.jnautilustrader.core.entity;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 等待信号的空闲策略
+ * <p>
+ * 短暂自旋后挂起消费线程，直到生产者发布事件后调用 {@link #signal()} 唤醒，
+ * 空闲时不占用CPU，事件到达后的唤醒延迟为一次 unpark。
+ * 生产者必须先发布事件再发信号；信号在消费线程挂起前到达时，下一次空闲直接返回，不会丢失唤醒。
+ * 挂起时间不超过 maxParkNanos（以及调用方给出的等待上限），即使漏发信号也能按时醒来。
+ * <p>
+ * 有状态：一个实例只服务一个消费线程，{@link #signal()} 可由任意线程调用。
+ */
+public final class SignalIdleStrategy implements IdleStrategy {
+
+    /**
+     * 默认自旋次数
+     */
+    public static final int DEFAULT_SPINS = 100;
+
+    /**
+     * 默认最长挂起时间：100毫秒
+     */
+    public static final long DEFAULT_MAX_PARK_NANOS = 100_000_000L;
+
+    private final int spins;
+    private final long maxParkNanos;
+
+    private volatile Thread waiter;
+    private volatile boolean signalled;
+
+    public SignalIdleStrategy() {
+        this(DEFAULT_SPINS, DEFAULT_MAX_PARK_NANOS);
+    }
+
+    public SignalIdleStrategy(int spins, long maxParkNanos) {
+        if (spins < 0 || maxParkNanos <= 0) {
+            throw new IllegalArgumentException("Invalid spins or max park: " + spins + ", " + maxParkNanos);
+        }
+        this.spins = spins;
+        this.maxParkNanos = maxParkNanos;
+    }
+
+    @Override
+    public void idle(int idleCount) {
+        idle(idleCount, maxParkNanos);
+    }
+
+    @Override
+    public void idle(int idleCount, long maxWaitNanos) {
+        if (idleCount < spins) {
+            Thread.onSpinWait();
+            return;
+        }
+        if (waiter == null) {
+            waiter = Thread.currentThread();
+        }
+        if (!signalled) {
+            LockSupport.parkNanos(this, Math.min(maxWaitNanos, maxParkNanos));
+        }
+        signalled = false;
+    }
+
+    /**
+     * 通知消费线程有新事件，已有未处理的信号时不重复唤醒
+     */
+    public void signal() {
+        if (!signalled) {
+            signalled = true;
+            Thread thread = waiter;
+            if (thread != null) {
+                LockSupport.unpark(thread);
+            }
+        }
+    }
+}
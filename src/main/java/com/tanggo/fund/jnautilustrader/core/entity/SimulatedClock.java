@@ -0,0 +1,66 @@
+package com.tanggo.fund.jnautilustrader.core.entity;
+
+/**
+ * 模拟时钟
+ * <p>
+ * 时间只由 {@link #advanceTo(long)} / {@link #advanceBy(long)} 推进，不会后退；
+ * {@link #nanoTime()} 是Unix纪元纳秒，{@link #currentTimeMillis()} 由它换算，两者始终一致。
+ * 回放时由回放驱动在投递每条事件前推进到事件时间，同样的输入得到同样的时间序列。
+ * <p>
+ * 通常只由回放线程推进和读取；时间是volatile字段，其它线程读取也能看到最新值。
+ */
+public final class SimulatedClock implements Clock {
+
+    private volatile long nanos;
+
+    public SimulatedClock() {
+        this(0);
+    }
+
+    /**
+     * @param startNanos 起始时间（Unix纪元纳秒）
+     */
+    public SimulatedClock(long startNanos) {
+        this.nanos = startNanos;
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return nanos / 1_000_000L;
+    }
+
+    @Override
+    public long nanoTime() {
+        return nanos;
+    }
+
+    /**
+     * 推进到指定时间，早于当前时间时不变
+     *
+     * @return 推进后的时间
+     */
+    public long advanceTo(long timeNanos) {
+        if (timeNanos > nanos) {
+            nanos = timeNanos;
+        }
+        return nanos;
+    }
+
+    /**
+     * 推进指定时长
+     *
+     * @return 推进后的时间
+     */
+    public long advanceBy(long durationNanos) {
+        if (durationNanos < 0) {
+            throw new IllegalArgumentException("Duration must not be negative: " + durationNanos);
+        }
+        nanos += durationNanos;
+        return nanos;
+    }
+
+    @Override
+    public String toString() {
+        return "SimulatedClock{" + nanos + "ns}";
+    }
+}
@@ -3,38 +3,55 @@ package com.tanggo.fund.jnautilustrader.core.entity;
 import com.tanggo.fund.jnautilustrader.core.entity.event.trade.PlaceOrder;
 
 /**
- * 交易命令枚举
+ * 交易命令载体
  * 表示系统支持的各种交易操作命令
+ * <p>
+ * 每个事件持有独立的不可变实例（命令类型编号 + 消息对象）：策略连续发出的多条指令
+ * （如套利的买单和卖单）在网关处理前不会互相覆盖。
+ * 类型编号为原始int，可直接用于switch分发。
  */
-public enum TradeCmd {
+public final class TradeCmd {
 
-    PLACE_ORDER(null),
-    CANCEL_ORDER(null),
-    MODIFY_ORDER(null),
-    QUERY_ORDER(null),
-    QUERY_ACCOUNT(null),
-    QUERY_POSITION(null),
-    CANCEL_ALL_ORDERS(null),
-    CLOSE_POSITION(null);
+    public static final int PLACE_ORDER = 0;
+    public static final int CANCEL_ORDER = 1;
+    public static final int MODIFY_ORDER = 2;
+    public static final int QUERY_ORDER = 3;
+    public static final int QUERY_ACCOUNT = 4;
+    public static final int QUERY_POSITION = 5;
+    public static final int CANCEL_ALL_ORDERS = 6;
+    public static final int CLOSE_POSITION = 7;
 
-    private Object message;
+    private static final String[] TYPE_NAMES = {
+            "PLACE_ORDER", "CANCEL_ORDER", "MODIFY_ORDER", "QUERY_ORDER",
+            "QUERY_ACCOUNT", "QUERY_POSITION", "CANCEL_ALL_ORDERS", "CLOSE_POSITION"
+    };
 
-    TradeCmd(Object message) {
+    private final int type;
+    private final Object message;
+
+    private TradeCmd(int type, Object message) {
+        this.type = type;
         this.message = message;
     }
 
-    public Object getMessage() {
-        return message;
+    public static TradeCmd of(PlaceOrder placeOrder) {
+        return new TradeCmd(PLACE_ORDER, placeOrder);
     }
 
-    public void setMessage(Object message) {
-        this.message = message;
+    /**
+     * 按类型编号创建命令，用于消息不是独立类型的命令（如按订单ID撤单，消息为订单ID或null）
+     */
+    public static TradeCmd of(int type, Object message) {
+        if (type < 0 || type >= TYPE_NAMES.length) {
+            throw new IllegalArgumentException("Unsupported trade command type: " + type);
+        }
+        return new TradeCmd(type, message);
     }
 
     /**
-     * 根据消息对象类型获取对应的TradeCmd枚举
+     * 根据消息对象类型获取对应的命令类型编号
      */
-    public static TradeCmd fromMessage(Object message) {
+    public static int typeOf(Object message) {
         if (message instanceof PlaceOrder) {
             return PLACE_ORDER;
         }
@@ -43,11 +60,29 @@ public enum TradeCmd {
     }
 
     /**
-     * 创建包含实际数据的TradeCmd实例
+     * 创建包含实际数据的TradeCmd实例（每次调用返回新实例）
      */
     public static TradeCmd createWithData(Object data) {
-        TradeCmd tradeCmd = fromMessage(data);
-        tradeCmd.setMessage(data);
-        return tradeCmd;
+        return new TradeCmd(typeOf(data), data);
+    }
+
+    /**
+     * 命令类型编号，见本类的常量定义
+     */
+    public int getType() {
+        return type;
+    }
+
+    public Object getMessage() {
+        return message;
+    }
+
+    public String typeName() {
+        return TYPE_NAMES[type];
+    }
+
+    @Override
+    public String toString() {
+        return TYPE_NAMES[type];
     }
 }
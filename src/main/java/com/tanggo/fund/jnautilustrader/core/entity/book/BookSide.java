@@ -0,0 +1,453 @@
+package com.tanggo.fund.jnautilustrader.core.entity.book;
+
+import java.util.Arrays;
+
+/**
+ * 订单簿单边（买盘或卖盘）
+ * <p>
+ * 价格和数量均为定点数原始值（精度由所属 {@link OrderBook} 决定）。内部以排序键表示价格：
+ * 买盘为价格，卖盘为负价格，键越大越优。
+ * <p>
+ * 盘口附近的档位保存在按价格下标的阶梯数组（ladder）中：数组为环形，覆盖最优价以下 {@code ladderSlots} 个
+ * 最小价格变动单位，第t个价格单位直接映射到 {@code slots[t & mask]}，因此盘口附近的按价查询和更新都是O(1)。
+ * 最小变动单位无需配置，取所有出现过的价格之差的最大公约数；遇到不在当前网格上的价格时缩小并重建（只在开始时发生几次）。
+ * <p>
+ * 比阶梯窗口更差的远端档位保存在按价格排序的基本类型数组中（最优价在末尾）。最优价上移超出窗口时，
+ * 窗口随之上移，移出底部的档位依次追加到远端数组末尾；最优价下移超过半个窗口时窗口下移，远端数组末尾的档位移回阶梯。
+ * <p>
+ * 按档位序号的查询（{@link #priceAt}、{@link #sizeAt}、累计量）从最优价向深处扫描阶梯，
+ * 并缓存上一次扫描的位置，按档位顺序遍历时总代价与扫描的价格区间成正比。
+ * <p>
+ * 非线程安全，由单个事件循环线程维护。
+ */
+public final class BookSide {
+
+    private static final int MIN_LADDER_SLOTS = 16;
+    private static final int INITIAL_FAR_CAPACITY = 64;
+
+    private final boolean bid;
+
+    // 阶梯：slots[t & mask] 为价格单位t（排序键 origin + t * tick）上的数量，0表示无档位
+    private final long[] slots;
+    private final int mask;
+    // 最优价以上预留的价格单位数，减少窗口上移次数
+    private final int headroom;
+    private long origin;
+    // 最小价格变动单位（原始值），0表示尚未确定（只见过一个价格）
+    private long tick;
+    // 窗口覆盖 [top - slots.length + 1, top]
+    private long top;
+    private long bestTick;
+    private int ladderLevels;
+
+    // 远端档位：排序键升序，最优在 farCount-1，全部比阶梯窗口更差
+    private long[] farKeys;
+    private long[] farSizes;
+    private int farCount;
+
+    private long totalSize;
+
+    // 按档位扫描的缓存位置，任何修改后失效
+    private int cursorLevel = -1;
+    private long cursorTick;
+
+    BookSide(boolean bid, int ladderSlots) {
+        this.bid = bid;
+        int capacity = Integer.highestOneBit(Math.max(ladderSlots, MIN_LADDER_SLOTS) - 1) << 1;
+        this.slots = new long[capacity];
+        this.mask = capacity - 1;
+        this.headroom = capacity / 16;
+        this.farKeys = new long[INITIAL_FAR_CAPACITY];
+        this.farSizes = new long[INITIAL_FAR_CAPACITY];
+    }
+
+    public boolean isBid() {
+        return bid;
+    }
+
+    /**
+     * 档位数量
+     */
+    public int levelCount() {
+        return ladderLevels + farCount;
+    }
+
+    public boolean isEmpty() {
+        return ladderLevels == 0;
+    }
+
+    /**
+     * 最优价（原始值），空盘口时返回0
+     */
+    public long bestPrice() {
+        return ladderLevels == 0 ? 0 : priceOf(keyOfTick(bestTick));
+    }
+
+    /**
+     * 最优价上的数量（原始值），空盘口时返回0
+     */
+    public long bestSize() {
+        return ladderLevels == 0 ? 0 : slots[(int) bestTick & mask];
+    }
+
+    /**
+     * 第level档（0为最优档）的价格
+     *
+     * @throws IndexOutOfBoundsException 档位不存在
+     */
+    public long priceAt(int level) {
+        checkLevel(level);
+        if (level >= ladderLevels) {
+            return priceOf(farKeys[farIndexOfLevel(level)]);
+        }
+        return priceOf(keyOfTick(ladderTickAt(level)));
+    }
+
+    /**
+     * 第level档（0为最优档）的数量
+     *
+     * @throws IndexOutOfBoundsException 档位不存在
+     */
+    public long sizeAt(int level) {
+        checkLevel(level);
+        if (level >= ladderLevels) {
+            return farSizes[farIndexOfLevel(level)];
+        }
+        return slots[(int) ladderTickAt(level) & mask];
+    }
+
+    /**
+     * 指定价格上的数量，价格不存在时返回0
+     */
+    public long sizeAtPrice(long price) {
+        long key = keyOf(price);
+        if (ladderLevels == 0 || !onGrid(key)) {
+            return 0;
+        }
+        long t = tickOf(key);
+        if (t > top) {
+            return 0;
+        }
+        if (t > top - slots.length) {
+            return slots[(int) t & mask];
+        }
+        int index = Arrays.binarySearch(farKeys, 0, farCount, key);
+        return index >= 0 ? farSizes[index] : 0;
+    }
+
+    /**
+     * 从最优档起前levels档的累计数量
+     */
+    public long cumulativeSize(int levels) {
+        if (levels <= 0) {
+            return 0;
+        }
+        if (levels >= levelCount()) {
+            return totalSize;
+        }
+        long sum = 0;
+        int ladder = Math.min(levels, ladderLevels);
+        long t = bestTick;
+        for (int level = 0; level < ladder; t--) {
+            long size = slots[(int) t & mask];
+            if (size != 0) {
+                sum += size;
+                level++;
+            }
+        }
+        for (int i = farCount - 1, remaining = levels - ladder; remaining > 0; i--, remaining--) {
+            sum += farSizes[i];
+        }
+        return sum;
+    }
+
+    /**
+     * 价格不差于price的所有档位的累计数量（买盘为 >= price，卖盘为 <= price）
+     */
+    public long cumulativeSizeTo(long price) {
+        long key = keyOf(price);
+        if (ladderLevels == 0 || key > keyOfTick(bestTick)) {
+            return 0;
+        }
+        long bottom = top - slots.length + 1;
+        // 不差于key的最低价格单位（tick为0时只有一个价格，必然不差于key）
+        long from = tick == 0 ? 0 : -Math.floorDiv(origin - key, tick);
+        long sum = 0;
+        for (long t = bestTick; t >= Math.max(from, bottom); t--) {
+            sum += slots[(int) t & mask];
+        }
+        if (from < bottom) {
+            for (int i = farCount - 1; i >= 0 && farKeys[i] >= key; i--) {
+                sum += farSizes[i];
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * 全部档位的总数量
+     */
+    public long totalSize() {
+        return totalSize;
+    }
+
+    /**
+     * 设置价格档位的数量，数量为0时删除该档位
+     */
+    void set(long price, long size) {
+        long key = keyOf(price);
+        cursorLevel = -1;
+        if (size == 0) {
+            remove(key);
+            return;
+        }
+        if (ladderLevels == 0) {
+            // 空盘口：以该价格为网格原点，窗口顶部留出余量
+            origin = key;
+            top = headroom;
+            bestTick = 0;
+        } else if (!onGrid(key)) {
+            refineTick(key);
+        }
+        long t = tickOf(key);
+        if (t > top) {
+            anchor(t + headroom);
+        }
+        if (t > top - slots.length) {
+            int slot = (int) t & mask;
+            long old = slots[slot];
+            slots[slot] = size;
+            totalSize += size - old;
+            if (old == 0) {
+                ladderLevels++;
+                if (t > bestTick || ladderLevels == 1) {
+                    bestTick = t;
+                }
+            }
+        } else {
+            setFar(key, size);
+        }
+    }
+
+    void clear() {
+        Arrays.fill(slots, 0);
+        ladderLevels = 0;
+        farCount = 0;
+        totalSize = 0;
+        cursorLevel = -1;
+    }
+
+    private void remove(long key) {
+        if (ladderLevels == 0 || !onGrid(key)) {
+            return;
+        }
+        long t = tickOf(key);
+        if (t > top) {
+            return;
+        }
+        if (t <= top - slots.length) {
+            int index = Arrays.binarySearch(farKeys, 0, farCount, key);
+            if (index >= 0) {
+                totalSize -= farSizes[index];
+                int moved = farCount - index - 1;
+                System.arraycopy(farKeys, index + 1, farKeys, index, moved);
+                System.arraycopy(farSizes, index + 1, farSizes, index, moved);
+                farCount--;
+            }
+            return;
+        }
+        int slot = (int) t & mask;
+        long old = slots[slot];
+        if (old == 0) {
+            return;
+        }
+        slots[slot] = 0;
+        totalSize -= old;
+        ladderLevels--;
+        if (t != bestTick) {
+            return;
+        }
+        if (ladderLevels == 0) {
+            // 阶梯已空：窗口下移到远端最优价，保证非空盘口的最优档总在阶梯中
+            if (farCount > 0) {
+                anchor(tickOf(farKeys[farCount - 1]) + headroom);
+            }
+            return;
+        }
+        do {
+            t--;
+        } while (slots[(int) t & mask] == 0);
+        bestTick = t;
+        if (bestTick < top - slots.length / 2) {
+            anchor(bestTick + headroom);
+        }
+    }
+
+    /**
+     * 移动窗口顶部。上移时把移出底部的档位按价格升序追加到远端数组末尾；
+     * 下移时（新顶部不低于最优价，移入的高价格单位必为空）把远端数组末尾进入窗口的档位移回阶梯
+     */
+    private void anchor(long newTop) {
+        if (newTop > top) {
+            long to = Math.min(newTop - slots.length, top);
+            for (long t = top - slots.length + 1; t <= to; t++) {
+                int slot = (int) t & mask;
+                long size = slots[slot];
+                if (size != 0) {
+                    appendFar(keyOfTick(t), size);
+                    slots[slot] = 0;
+                    ladderLevels--;
+                }
+            }
+            top = newTop;
+        } else {
+            top = newTop;
+            long bottom = newTop - slots.length + 1;
+            while (farCount > 0) {
+                long t = tickOf(farKeys[farCount - 1]);
+                if (t < bottom) {
+                    break;
+                }
+                farCount--;
+                slots[(int) t & mask] = farSizes[farCount];
+                if (ladderLevels++ == 0) {
+                    bestTick = t;
+                }
+            }
+        }
+    }
+
+    /**
+     * 价格不在当前网格上：把最小变动单位缩小为最大公约数，按新网格重建阶梯和远端数组
+     */
+    private void refineTick(long key) {
+        int count = levelCount();
+        long[] keys = new long[count];
+        long[] sizes = new long[count];
+        System.arraycopy(farKeys, 0, keys, 0, farCount);
+        System.arraycopy(farSizes, 0, sizes, 0, farCount);
+        int n = farCount;
+        for (long t = top - slots.length + 1; t <= top; t++) {
+            int slot = (int) t & mask;
+            if (slots[slot] != 0) {
+                keys[n] = keyOfTick(t);
+                sizes[n++] = slots[slot];
+                slots[slot] = 0;
+            }
+        }
+        long diff = Math.abs(key - origin);
+        tick = tick == 0 ? diff : gcd(tick, diff);
+
+        bestTick = tickOf(keys[count - 1]);
+        top = bestTick + headroom;
+        long bottom = top - slots.length + 1;
+        farCount = 0;
+        ladderLevels = 0;
+        for (int i = 0; i < count; i++) {
+            long t = tickOf(keys[i]);
+            if (t < bottom) {
+                appendFar(keys[i], sizes[i]);
+            } else {
+                slots[(int) t & mask] = sizes[i];
+                ladderLevels++;
+            }
+        }
+    }
+
+    private void setFar(long key, long size) {
+        int index = Arrays.binarySearch(farKeys, 0, farCount, key);
+        if (index >= 0) {
+            totalSize += size - farSizes[index];
+            farSizes[index] = size;
+            return;
+        }
+        index = -index - 1;
+        ensureFarCapacity();
+        int moved = farCount - index;
+        System.arraycopy(farKeys, index, farKeys, index + 1, moved);
+        System.arraycopy(farSizes, index, farSizes, index + 1, moved);
+        farKeys[index] = key;
+        farSizes[index] = size;
+        farCount++;
+        totalSize += size;
+    }
+
+    /**
+     * 追加比全部远端档位更优的档位（totalSize不变，调用方负责维护）
+     */
+    private void appendFar(long key, long size) {
+        ensureFarCapacity();
+        farKeys[farCount] = key;
+        farSizes[farCount++] = size;
+    }
+
+    private void ensureFarCapacity() {
+        if (farCount == farKeys.length) {
+            farKeys = Arrays.copyOf(farKeys, farCount * 2);
+            farSizes = Arrays.copyOf(farSizes, farCount * 2);
+        }
+    }
+
+    /**
+     * 阶梯中第level档的价格单位，从缓存位置或最优价向深处扫描
+     */
+    private long ladderTickAt(int level) {
+        int current;
+        long t;
+        if (cursorLevel >= 0 && cursorLevel <= level) {
+            current = cursorLevel;
+            t = cursorTick;
+        } else {
+            current = 0;
+            t = bestTick;
+        }
+        while (current < level) {
+            t--;
+            if (slots[(int) t & mask] != 0) {
+                current++;
+            }
+        }
+        cursorLevel = level;
+        cursorTick = t;
+        return t;
+    }
+
+    private void checkLevel(int level) {
+        if (level < 0 || level >= levelCount()) {
+            throw new IndexOutOfBoundsException("Level " + level + " out of range, levels: " + levelCount());
+        }
+    }
+
+    private int farIndexOfLevel(int level) {
+        return farCount - 1 - (level - ladderLevels);
+    }
+
+    private boolean onGrid(long key) {
+        return tick == 0 ? key == origin : (key - origin) % tick == 0;
+    }
+
+    private long tickOf(long key) {
+        return tick == 0 ? 0 : (key - origin) / tick;
+    }
+
+    private long keyOfTick(long t) {
+        return origin + t * tick;
+    }
+
+    private long keyOf(long price) {
+        return bid ? price : -price;
+    }
+
+    private long priceOf(long key) {
+        return bid ? key : -key;
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long r = a % b;
+            a = b;
+            b = r;
+        }
+        return a;
+    }
+}
@@ -0,0 +1,310 @@
+package com.tanggo.fund.jnautilustrader.core.entity.book;
+
+import com.tanggo.fund.jnautilustrader.core.entity.FixedPoint;
+import com.tanggo.fund.jnautilustrader.core.entity.InstrumentRegistry;
+import com.tanggo.fund.jnautilustrader.core.entity.event.data.OrderBookDeltas;
+import com.tanggo.fund.jnautilustrader.core.entity.event.data.OrderBookDepth10;
+import com.tanggo.fund.jnautilustrader.core.entity.event.data.PriceLevel;
+
+import java.util.ArrayDeque;
+import java.util.List;
+
+/**
+ * L2订单簿（单个品种）
+ * <p>
+ * 由快照和 {@link OrderBookDeltas} 增量维护，按币安 diff-depth 规则校验更新ID：
+ * <ol>
+ *     <li>未同步时增量先缓存，等待快照；</li>
+ *     <li>快照后丢弃 {@code u <= lastUpdateId} 的增量，第一条增量须满足 {@code U <= lastUpdateId + 1}；</li>
+ *     <li>之后每条增量须满足 {@code U == 上一条u + 1}（合约为 {@code pu == 上一条u}），否则视为丢包，
+ *     订单簿进入未同步状态，需重新获取快照（{@link #applySnapshot}）后回放缓存的增量。</li>
+ * </ol>
+ * 价格和数量按品种精度保存为定点数原始值，见 {@link BookSide}。
+ * 未同步期间查询结果为最后一次同步时的状态，调用方应先检查 {@link #isSynced()}。
+ * <p>
+ * 非线程安全，由单个事件循环线程维护。
+ */
+public class OrderBook {
+
+    /**
+     * 未登记品种时使用的精度
+     */
+    public static final int DEFAULT_PRECISION = 8;
+
+    /**
+     * 未同步期间最多缓存的增量条数，超出时丢弃最早的
+     */
+    public static final int DEFAULT_PENDING_CAPACITY = 1024;
+
+    /**
+     * 每边阶梯覆盖的价格单位数，见 {@link BookSide}
+     */
+    private static final int LADDER_SLOTS = 4096;
+
+    /**
+     * 增量应用结果
+     */
+    public enum UpdateResult {
+        /** 已应用 */
+        APPLIED,
+        /** 早于当前状态，已丢弃 */
+        STALE,
+        /** 更新ID不连续，订单簿进入未同步状态 */
+        GAP,
+        /** 未同步，已缓存等待快照 */
+        AWAITING_SNAPSHOT
+    }
+
+    private final String symbol;
+    private final int pricePrecision;
+    private final int sizePrecision;
+    private final BookSide bids;
+    private final BookSide asks;
+
+    private final ArrayDeque<OrderBookDeltas> pending;
+    private final int pendingCapacity;
+
+    private long lastUpdateId;
+    private boolean synced;
+    private boolean firstAfterSnapshot;
+
+    private long gapCount;
+    private long droppedCount;
+
+    /**
+     * 按品种登记的精度创建，未登记时使用 {@link #DEFAULT_PRECISION}
+     */
+    public OrderBook(String symbol) {
+        this(symbol, precisionOf(InstrumentRegistry.pricePrecision(InstrumentRegistry.find(symbol))),
+                precisionOf(InstrumentRegistry.sizePrecision(InstrumentRegistry.find(symbol))));
+    }
+
+    public OrderBook(String symbol, int pricePrecision, int sizePrecision) {
+        this(symbol, pricePrecision, sizePrecision, DEFAULT_PENDING_CAPACITY);
+    }
+
+    public OrderBook(String symbol, int pricePrecision, int sizePrecision, int pendingCapacity) {
+        if (pricePrecision < 0 || pricePrecision > FixedPoint.MAX_PRECISION
+                || sizePrecision < 0 || sizePrecision > FixedPoint.MAX_PRECISION) {
+            throw new IllegalArgumentException("Precision out of range: " + pricePrecision + ", " + sizePrecision);
+        }
+        if (pendingCapacity <= 0) {
+            throw new IllegalArgumentException("Pending capacity must be positive: " + pendingCapacity);
+        }
+        this.symbol = symbol;
+        this.pricePrecision = pricePrecision;
+        this.sizePrecision = sizePrecision;
+        this.bids = new BookSide(true, LADDER_SLOTS);
+        this.asks = new BookSide(false, LADDER_SLOTS);
+        this.pendingCapacity = pendingCapacity;
+        this.pending = new ArrayDeque<>(pendingCapacity);
+    }
+
+    /**
+     * 用快照重建订单簿，并回放缓存的增量
+     *
+     * @return 回放成功（或无需回放）返回 {@link UpdateResult#APPLIED}；回放中发现丢包返回 {@link UpdateResult#GAP}
+     */
+    public UpdateResult applySnapshot(long snapshotUpdateId, List<PriceLevel> bidLevels, List<PriceLevel> askLevels) {
+        bids.clear();
+        asks.clear();
+        applyLevels(bids, bidLevels);
+        applyLevels(asks, askLevels);
+        lastUpdateId = snapshotUpdateId;
+        synced = true;
+        firstAfterSnapshot = true;
+
+        while (!pending.isEmpty()) {
+            if (applySequenced(pending.pollFirst()) == UpdateResult.GAP) {
+                return UpdateResult.GAP;
+            }
+        }
+        return UpdateResult.APPLIED;
+    }
+
+    /**
+     * 用部分深度快照（含 lastUpdateId）重建订单簿
+     */
+    public UpdateResult applySnapshot(OrderBookDepth10 depth) {
+        return applySnapshot(depth.getLastUpdateId(), depth.getBids(), depth.getAsks());
+    }
+
+    /**
+     * 应用一条增量更新
+     */
+    public UpdateResult apply(OrderBookDeltas deltas) {
+        if (!synced) {
+            buffer(deltas);
+            return UpdateResult.AWAITING_SNAPSHOT;
+        }
+        return applySequenced(deltas);
+    }
+
+    /**
+     * 直接设置买盘档位（原始值，数量为0时删除），不做更新ID校验
+     */
+    public void updateBid(long price, long size) {
+        bids.set(price, size);
+    }
+
+    /**
+     * 直接设置卖盘档位（原始值，数量为0时删除），不做更新ID校验
+     */
+    public void updateAsk(long price, long size) {
+        asks.set(price, size);
+    }
+
+    /**
+     * 清空订单簿并进入未同步状态
+     */
+    public void reset() {
+        bids.clear();
+        asks.clear();
+        pending.clear();
+        lastUpdateId = 0;
+        synced = false;
+        firstAfterSnapshot = false;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public int getPricePrecision() {
+        return pricePrecision;
+    }
+
+    public int getSizePrecision() {
+        return sizePrecision;
+    }
+
+    public BookSide getBids() {
+        return bids;
+    }
+
+    public BookSide getAsks() {
+        return asks;
+    }
+
+    public long getLastUpdateId() {
+        return lastUpdateId;
+    }
+
+    public boolean isSynced() {
+        return synced;
+    }
+
+    /**
+     * 等待快照时缓存的增量条数
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * 检测到的丢包次数
+     */
+    public long getGapCount() {
+        return gapCount;
+    }
+
+    /**
+     * 因缓存已满丢弃的增量条数
+     */
+    public long getDroppedCount() {
+        return droppedCount;
+    }
+
+    /**
+     * 双边都有报价
+     */
+    public boolean hasTopOfBook() {
+        return !bids.isEmpty() && !asks.isEmpty();
+    }
+
+    public double bestBidPrice() {
+        return FixedPoint.toDouble(bids.bestPrice(), pricePrecision);
+    }
+
+    public double bestAskPrice() {
+        return FixedPoint.toDouble(asks.bestPrice(), pricePrecision);
+    }
+
+    public double bestBidSize() {
+        return FixedPoint.toDouble(bids.bestSize(), sizePrecision);
+    }
+
+    public double bestAskSize() {
+        return FixedPoint.toDouble(asks.bestSize(), sizePrecision);
+    }
+
+    /**
+     * 中间价，任一边为空时返回0
+     */
+    public double midPrice() {
+        if (!hasTopOfBook()) {
+            return 0;
+        }
+        return FixedPoint.toDouble(bids.bestPrice() + asks.bestPrice(), pricePrecision) / 2;
+    }
+
+    /**
+     * 买卖价差（原始值），任一边为空时返回0
+     */
+    public long spread() {
+        return hasTopOfBook() ? asks.bestPrice() - bids.bestPrice() : 0;
+    }
+
+    private UpdateResult applySequenced(OrderBookDeltas deltas) {
+        long last = deltas.getLastUpdateId();
+        if (last <= lastUpdateId) {
+            return UpdateResult.STALE;
+        }
+        boolean contiguous;
+        if (firstAfterSnapshot) {
+            contiguous = deltas.getFirstUpdateId() <= lastUpdateId + 1;
+        } else if (deltas.getPreviousUpdateId() > 0) {
+            contiguous = deltas.getPreviousUpdateId() == lastUpdateId;
+        } else {
+            contiguous = deltas.getFirstUpdateId() == lastUpdateId + 1;
+        }
+        if (!contiguous) {
+            synced = false;
+            gapCount++;
+            // 放回队首，保证下次快照后按原顺序回放；缓存已满时它就是最早的一条，按容量上限丢弃
+            if (pending.size() == pendingCapacity) {
+                droppedCount++;
+            } else {
+                pending.addFirst(deltas);
+            }
+            return UpdateResult.GAP;
+        }
+        applyLevels(bids, deltas.getBids());
+        applyLevels(asks, deltas.getAsks());
+        lastUpdateId = last;
+        firstAfterSnapshot = false;
+        return UpdateResult.APPLIED;
+    }
+
+    private void applyLevels(BookSide side, List<PriceLevel> levels) {
+        if (levels == null) {
+            return;
+        }
+        for (int i = 0, n = levels.size(); i < n; i++) {
+            PriceLevel level = levels.get(i);
+            side.set(level.getPrice().rawAt(pricePrecision), level.getQuantity().rawAt(sizePrecision));
+        }
+    }
+
+    private void buffer(OrderBookDeltas deltas) {
+        if (pending.size() == pendingCapacity) {
+            pending.pollFirst();
+            droppedCount++;
+        }
+        pending.addLast(deltas);
+    }
+
+    private static int precisionOf(int registered) {
+        return registered == InstrumentRegistry.UNKNOWN_PRECISION ? DEFAULT_PRECISION : registered;
+    }
+}
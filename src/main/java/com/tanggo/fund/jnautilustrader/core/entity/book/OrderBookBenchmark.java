@@ -0,0 +1,156 @@
+package com.tanggo.fund.jnautilustrader.core.entity.book;
+
+import com.tanggo.fund.jnautilustrader.core.entity.Price;
+import com.tanggo.fund.jnautilustrader.core.entity.Quantity;
+import com.tanggo.fund.jnautilustrader.core.entity.event.data.OrderBookDeltas;
+import com.tanggo.fund.jnautilustrader.core.entity.event.data.PriceLevel;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * L2订单簿性能基准测试
+ *
+ * 每边1000档的订单簿上，按距盘口的几何分布生成更新（约25%为删除档位），测量单次操作的延迟分布：
+ * 1. updateLevel：单个档位的设置/删除（原始值）
+ * 2. applyDeltas：一条含2档买盘和2档卖盘的 OrderBookDeltas，包括 U/u 校验
+ * 3. topOfBook：读取最优买卖价和数量
+ * 4. cumulativeDepth：前20档累计量
+ * 5. depthAtPrice：按价格查询档位数量
+ *
+ * 采用 SampleTime 模式，结果中的 p0.99 即99分位延迟。
+ * 验收目标为1000档订单簿上 applyDeltas 的 p99 低于1µs。
+ * 参考结果（JDK 17，本机虚拟机，阶梯订单簿）：applyDeltas p50 89ns / p99 136ns，updateLevel p99 74ns，
+ * depthAtPrice p99 62ns；改为阶梯之前（排序数组）applyDeltas p99 为0.7~1.9µs。
+ *
+ * 运行方式：
+ * mvn clean install -DskipTests
+ * mvn exec:java -Dexec.mainClass="com.tanggo.fund.jnautilustrader.core.entity.book.OrderBookBenchmark"
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class OrderBookBenchmark {
+
+    private static final int LEVELS = 1000;
+
+    // 操作序列长度（2的幂，便于取模）
+    private static final int OPS = 1 << 16;
+    private static final int DELTAS = 1 << 12;
+
+    private static final int PRICE_PRECISION = 2;
+    private static final int SIZE_PRECISION = 3;
+
+    // 中间价 50000.00 的原始值
+    private static final long MID = 5_000_000;
+
+    private OrderBook book;
+
+    private final boolean[] opBid = new boolean[OPS];
+    private final long[] opPrice = new long[OPS];
+    private final long[] opSize = new long[OPS];
+    private int opCursor;
+
+    private final OrderBookDeltas[] deltas = new OrderBookDeltas[DELTAS];
+    private int deltaCursor;
+    private long sequence;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        book = new OrderBook("BENCHUSDT", PRICE_PRECISION, SIZE_PRECISION);
+        List<PriceLevel> bids = new ArrayList<>(LEVELS);
+        List<PriceLevel> asks = new ArrayList<>(LEVELS);
+        for (int i = 0; i < LEVELS; i++) {
+            bids.add(level(MID - 1 - i, 1000 + i));
+            asks.add(level(MID + 1 + i, 1000 + i));
+        }
+        book.applySnapshot(0, bids, asks);
+
+        Random random = new Random(7);
+        for (int i = 0; i < OPS; i++) {
+            opBid[i] = random.nextBoolean();
+            long distance = distance(random);
+            opPrice[i] = opBid[i] ? MID - 1 - distance : MID + 1 + distance;
+            opSize[i] = random.nextInt(4) == 0 ? 0 : 1 + random.nextInt(100_000);
+        }
+        for (int i = 0; i < DELTAS; i++) {
+            OrderBookDeltas update = new OrderBookDeltas();
+            update.setSymbol("BENCHUSDT");
+            List<PriceLevel> bidLevels = new ArrayList<>(2);
+            List<PriceLevel> askLevels = new ArrayList<>(2);
+            for (int j = 0; j < 2; j++) {
+                bidLevels.add(level(MID - 1 - distance(random), random.nextInt(4) == 0 ? 0 : 1 + random.nextInt(100_000)));
+                askLevels.add(level(MID + 1 + distance(random), random.nextInt(4) == 0 ? 0 : 1 + random.nextInt(100_000)));
+            }
+            update.setBids(bidLevels);
+            update.setAsks(askLevels);
+            deltas[i] = update;
+        }
+    }
+
+    @Benchmark
+    public void updateLevel() {
+        int index = opCursor;
+        opCursor = (index + 1) & (OPS - 1);
+        if (opBid[index]) {
+            book.updateBid(opPrice[index], opSize[index]);
+        } else {
+            book.updateAsk(opPrice[index], opSize[index]);
+        }
+    }
+
+    @Benchmark
+    public OrderBook.UpdateResult applyDeltas() {
+        int index = deltaCursor;
+        deltaCursor = (index + 1) & (DELTAS - 1);
+        OrderBookDeltas update = deltas[index];
+        long id = ++sequence;
+        update.setFirstUpdateId(id);
+        update.setLastUpdateId(id);
+        return book.apply(update);
+    }
+
+    @Benchmark
+    public void topOfBook(Blackhole blackhole) {
+        BookSide bids = book.getBids();
+        BookSide asks = book.getAsks();
+        blackhole.consume(bids.bestPrice());
+        blackhole.consume(bids.bestSize());
+        blackhole.consume(asks.bestPrice());
+        blackhole.consume(asks.bestSize());
+    }
+
+    @Benchmark
+    public long depthAtPrice() {
+        int index = opCursor;
+        opCursor = (index + 1) & (OPS - 1);
+        return opBid[index] ? book.getBids().sizeAtPrice(opPrice[index]) : book.getAsks().sizeAtPrice(opPrice[index]);
+    }
+
+    @Benchmark
+    public long cumulativeDepth() {
+        return book.getBids().cumulativeSize(20) + book.getAsks().cumulativeSize(20);
+    }
+
+    /**
+     * 距盘口的档数：几何分布，均值约50档，上限为订单簿深度
+     */
+    private static long distance(Random random) {
+        return Math.min(LEVELS - 1, (long) (-Math.log(1 - random.nextDouble()) * 50));
+    }
+
+    private static PriceLevel level(long price, long size) {
+        return new PriceLevel(Price.fromRaw(price, PRICE_PRECISION), Quantity.fromRaw(size, SIZE_PRECISION));
+    }
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(args);
+    }
+}
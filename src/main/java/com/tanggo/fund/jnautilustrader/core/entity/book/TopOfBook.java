@@ -0,0 +1,54 @@
+package com.tanggo.fund.jnautilustrader.core.entity.book;
+
+import com.tanggo.fund.jnautilustrader.core.entity.FixedPoint;
+import lombok.Data;
+
+/**
+ * 最优买卖价快照
+ * <p>
+ * {@link TopOfBookCache#read} 的输出，读取方复用同一个实例，读取时不分配对象。
+ * 价格和数量为定点数原始值，精度见 {@link #pricePrecision} / {@link #sizePrecision}。
+ */
+@Data
+public class TopOfBook {
+
+    private long bidPrice;
+    private long bidSize;
+    private long askPrice;
+    private long askSize;
+    private int pricePrecision;
+    private int sizePrecision;
+
+    /**
+     * 交易所时间戳（毫秒）
+     */
+    private long timestampMs;
+
+    /**
+     * 写入版本，每次更新加1，0表示从未写入
+     */
+    private long version;
+
+    public double bidPriceAsDouble() {
+        return FixedPoint.toDouble(bidPrice, pricePrecision);
+    }
+
+    public double askPriceAsDouble() {
+        return FixedPoint.toDouble(askPrice, pricePrecision);
+    }
+
+    public double bidSizeAsDouble() {
+        return FixedPoint.toDouble(bidSize, sizePrecision);
+    }
+
+    public double askSizeAsDouble() {
+        return FixedPoint.toDouble(askSize, sizePrecision);
+    }
+
+    /**
+     * 买卖价都有效
+     */
+    public boolean isValid() {
+        return version > 0 && bidPrice > 0 && askPrice > 0;
+    }
+}
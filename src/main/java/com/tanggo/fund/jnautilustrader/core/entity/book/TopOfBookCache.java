@@ -0,0 +1,234 @@
+package com.tanggo.fund.jnautilustrader.core.entity.book;
+
+import com.tanggo.fund.jnautilustrader.core.entity.EventType;
+import com.tanggo.fund.jnautilustrader.core.entity.Price;
+import com.tanggo.fund.jnautilustrader.core.entity.Quantity;
+import com.tanggo.fund.jnautilustrader.core.entity.SignalIdleStrategy;
+import com.tanggo.fund.jnautilustrader.core.entity.event.data.OrderBookDepth10;
+import com.tanggo.fund.jnautilustrader.core.entity.event.data.PriceLevel;
+import com.tanggo.fund.jnautilustrader.core.entity.event.data.QuoteTick;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 按 交易所+品种 合并的最优买卖价缓存（last-value cache）
+ * <p>
+ * 网关把 bookTicker、部分深度等得到的最优买卖价写入缓存，策略按需读取最新值：
+ * 策略落后时直接看到最新报价，不必按顺序回放过时的报价事件。每个槽位带写入版本，策略比较版本即可知道是否有更新；
+ * 配置 {@link #setSignal(SignalIdleStrategy)} 后每次写入唤醒策略事件循环。
+ * <p>
+ * 每个槽位是一个序号锁（seqlock）：写入方CAS把序号从偶数改为奇数、写字段、再把序号加1发布；
+ * 读取方读到偶数序号后读字段，字段读完序号未变即得到一致的快照，否则重试。读取不加锁、不分配对象，
+ * 写入方之间通过CAS互斥（同一品种的bookTicker和深度可能在不同连接的线程上写入）。
+ * 槽位存放在一个扁平的 {@link AtomicLongArray} 中，每个槽位占128字节（两条缓存行），相邻槽位的写入互不干扰。
+ */
+public class TopOfBookCache {
+
+    /**
+     * 默认最大品种编号（不含）
+     */
+    public static final int DEFAULT_MAX_INSTRUMENTS = 1024;
+
+    // 槽位布局（long下标）
+    private static final int SEQ = 0;
+    private static final int BID_PRICE = 1;
+    private static final int BID_SIZE = 2;
+    private static final int ASK_PRICE = 3;
+    private static final int ASK_SIZE = 4;
+    private static final int PRECISIONS = 5;
+    private static final int TIMESTAMP = 6;
+    private static final int STRIDE = 16;
+
+    private static final int VENUE_COUNT = EventType.CODE_SPACE >> EventType.KIND_BITS;
+
+    private final int maxInstruments;
+    private final AtomicLongArray slots;
+    private volatile SignalIdleStrategy signal;
+
+    public TopOfBookCache() {
+        this(DEFAULT_MAX_INSTRUMENTS);
+    }
+
+    /**
+     * @param maxInstruments 支持的最大品种编号（不含），见 {@link com.tanggo.fund.jnautilustrader.core.entity.InstrumentRegistry}
+     */
+    public TopOfBookCache(int maxInstruments) {
+        if (maxInstruments <= 0) {
+            throw new IllegalArgumentException("maxInstruments must be positive: " + maxInstruments);
+        }
+        this.maxInstruments = maxInstruments;
+        this.slots = new AtomicLongArray(VENUE_COUNT * maxInstruments * STRIDE);
+    }
+
+    /**
+     * 每次写入后唤醒的策略事件循环
+     */
+    public void setSignal(SignalIdleStrategy signal) {
+        this.signal = signal;
+    }
+
+    /**
+     * 是否支持该 交易所+品种
+     */
+    public boolean supports(int venue, int instrumentId) {
+        return venue >= 0 && venue < VENUE_COUNT && instrumentId > 0 && instrumentId < maxInstruments;
+    }
+
+    // ==================== 写入 ====================
+
+    /**
+     * 写入最优买卖价（定点数原始值）
+     *
+     * @return 品种编号超出范围时返回false
+     */
+    public boolean update(int venue, int instrumentId, long bidPrice, long bidSize, long askPrice, long askSize,
+                          int pricePrecision, int sizePrecision, long timestampMs) {
+        if (!supports(venue, instrumentId)) {
+            return false;
+        }
+        int base = base(venue, instrumentId);
+        long seq;
+        while (true) {
+            seq = slots.get(base + SEQ);
+            if ((seq & 1) == 0 && slots.compareAndSet(base + SEQ, seq, seq + 1)) {
+                break;
+            }
+            Thread.onSpinWait();
+        }
+        // 字段按release写入：读取方读到新值时一定能看到奇数序号
+        slots.setRelease(base + BID_PRICE, bidPrice);
+        slots.setRelease(base + BID_SIZE, bidSize);
+        slots.setRelease(base + ASK_PRICE, askPrice);
+        slots.setRelease(base + ASK_SIZE, askSize);
+        slots.setRelease(base + PRECISIONS, (long) pricePrecision << 32 | (sizePrecision & 0xFFFFFFFFL));
+        slots.setRelease(base + TIMESTAMP, timestampMs);
+        slots.setRelease(base + SEQ, seq + 2);
+
+        SignalIdleStrategy current = signal;
+        if (current != null) {
+            current.signal();
+        }
+        return true;
+    }
+
+    /**
+     * 由报价写入，买卖价缺失时不写入
+     */
+    public boolean update(int venue, int instrumentId, QuoteTick quote) {
+        if (quote.getBidPrice() == null || quote.getAskPrice() == null) {
+            return false;
+        }
+        return update(venue, instrumentId, quote.getBidPrice(), quote.getBidQuantity(),
+                quote.getAskPrice(), quote.getAskQuantity(), quote.getTimestampMs());
+    }
+
+    /**
+     * 由部分深度的第一档写入，任一侧为空时不写入
+     */
+    public boolean update(int venue, int instrumentId, OrderBookDepth10 depth) {
+        PriceLevel bid = first(depth.getBids());
+        PriceLevel ask = first(depth.getAsks());
+        if (bid == null || ask == null) {
+            return false;
+        }
+        return update(venue, instrumentId, bid.getPrice(), bid.getQuantity(),
+                ask.getPrice(), ask.getQuantity(), depth.getEventTime());
+    }
+
+    /**
+     * 由网关解析出的行情消息写入：报价和部分深度更新缓存，其它类型忽略
+     *
+     * @return 是否写入
+     */
+    public boolean updateFrom(int venue, int instrumentId, Object message) {
+        if (message instanceof QuoteTick quote) {
+            return update(venue, instrumentId, quote);
+        }
+        if (message instanceof OrderBookDepth10 depth) {
+            return update(venue, instrumentId, depth);
+        }
+        return false;
+    }
+
+    /**
+     * 买卖两侧统一到两者中较高的精度后写入，不丢失小数位
+     */
+    private boolean update(int venue, int instrumentId, Price bidPrice, Quantity bidSize, Price askPrice,
+                           Quantity askSize, long timestampMs) {
+        int pricePrecision = Math.max(bidPrice.getPrecision(), askPrice.getPrecision());
+        int sizePrecision = Math.max(bidSize != null ? bidSize.getPrecision() : 0, askSize != null ? askSize.getPrecision() : 0);
+        return update(venue, instrumentId, bidPrice.rawAt(pricePrecision), rawSize(bidSize, sizePrecision),
+                askPrice.rawAt(pricePrecision), rawSize(askSize, sizePrecision),
+                pricePrecision, sizePrecision, timestampMs);
+    }
+
+    // ==================== 读取 ====================
+
+    /**
+     * 读取一致的快照
+     *
+     * @param into 输出，复用
+     * @return 写入版本，从未写入或不支持的品种返回0（此时 into 的版本也为0）
+     */
+    public long read(int venue, int instrumentId, TopOfBook into) {
+        if (!supports(venue, instrumentId)) {
+            into.setVersion(0);
+            return 0;
+        }
+        int base = base(venue, instrumentId);
+        while (true) {
+            long seq = slots.getAcquire(base + SEQ);
+            if ((seq & 1) != 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            // 字段按acquire读取，之后对序号的复查不会被重排到字段读取之前
+            long bidPrice = slots.getAcquire(base + BID_PRICE);
+            long bidSize = slots.getAcquire(base + BID_SIZE);
+            long askPrice = slots.getAcquire(base + ASK_PRICE);
+            long askSize = slots.getAcquire(base + ASK_SIZE);
+            long precisions = slots.getAcquire(base + PRECISIONS);
+            long timestampMs = slots.getAcquire(base + TIMESTAMP);
+            if (slots.getAcquire(base + SEQ) != seq) {
+                continue;
+            }
+            long version = seq >>> 1;
+            into.setBidPrice(bidPrice);
+            into.setBidSize(bidSize);
+            into.setAskPrice(askPrice);
+            into.setAskSize(askSize);
+            into.setPricePrecision((int) (precisions >> 32));
+            into.setSizePrecision((int) precisions);
+            into.setTimestampMs(timestampMs);
+            into.setVersion(version);
+            return version;
+        }
+    }
+
+    /**
+     * 当前写入版本，用于判断是否有更新而不读取内容
+     */
+    public long version(int venue, int instrumentId) {
+        if (!supports(venue, instrumentId)) {
+            return 0;
+        }
+        return slots.getAcquire(base(venue, instrumentId) + SEQ) >>> 1;
+    }
+
+    private int base(int venue, int instrumentId) {
+        return (venue * maxInstruments + instrumentId) * STRIDE;
+    }
+
+    private static PriceLevel first(List<PriceLevel> levels) {
+        if (levels == null || levels.isEmpty()) {
+            return null;
+        }
+        PriceLevel level = levels.get(0);
+        return level != null && level.getPrice() != null ? level : null;
+    }
+
+    private static long rawSize(Quantity quantity, int precision) {
+        return quantity != null ? quantity.rawAt(precision) : 0;
+    }
+}
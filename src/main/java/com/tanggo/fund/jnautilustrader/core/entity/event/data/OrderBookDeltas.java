@@ -26,12 +26,24 @@ public class OrderBookDeltas {
     @JsonProperty("E")
     private long eventTime;
 
+    /**
+     * 首笔更新ID
+     */
+    @JsonProperty("U")
+    private long firstUpdateId;
+
     /**
      * 最后更新ID
      */
     @JsonProperty("u")
     private long lastUpdateId;
 
+    /**
+     * 上一条消息的最后更新ID（仅合约，现货为0）
+     */
+    @JsonProperty("pu")
+    private long previousUpdateId;
+
     /**
      * 买盘增量更新（价格和数量）
      */
@@ -58,7 +70,9 @@ public class OrderBookDeltas {
         return "OrderBookDeltas{" +
                 "symbol='" + symbol + '\'' +
                 ", eventTime=" + getEventTime() +
+                ", firstUpdateId=" + firstUpdateId +
                 ", lastUpdateId=" + lastUpdateId +
+                ", previousUpdateId=" + previousUpdateId +
                 ", bids=" + bids +
                 ", asks=" + asks +
                 '}';
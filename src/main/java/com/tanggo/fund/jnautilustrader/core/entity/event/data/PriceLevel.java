@@ -1,6 +1,10 @@
 package com.tanggo.fund.jnautilustrader.core.entity.event.data;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.tanggo.fund.jnautilustrader.core.entity.Price;
+import com.tanggo.fund.jnautilustrader.core.entity.Quantity;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -10,48 +14,62 @@ import java.math.BigDecimal;
 /**
  * 订单簿价格档位
  * 表示订单簿中的单个价格档位（价格和数量）
+ *
+ * 价格和数量为定点数，在网关解析时一次性转换，策略读取时不再解析字符串
  */
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @JsonFormat(shape = JsonFormat.Shape.ARRAY)
+@JsonPropertyOrder({"price", "quantity"})
 public class PriceLevel {
     /**
      * 价格
      */
-    private String price;
+    private Price price;
 
     /**
      * 数量
      */
-    private String quantity;
+    private Quantity quantity;
 
     /**
-     * 获取价格的BigDecimal表示（用于精确计算）
+     * 由十进制文本创建（精度取文本中的小数位数）
      */
+    public PriceLevel(String price, String quantity) {
+        this(Price.of(price), Quantity.of(quantity));
+    }
+
+    /**
+     * 获取价格的BigDecimal表示
+     */
+    @JsonIgnore
     public BigDecimal getPriceAsBigDecimal() {
-        return new BigDecimal(price);
+        return price.asBigDecimal();
     }
 
     /**
-     * 获取数量的BigDecimal表示（用于精确计算）
+     * 获取数量的BigDecimal表示
      */
+    @JsonIgnore
     public BigDecimal getQuantityAsBigDecimal() {
-        return new BigDecimal(quantity);
+        return quantity.asBigDecimal();
     }
 
     /**
-     * 获取价格的double表示（用于快速计算，可能损失精度）
+     * 获取价格的double表示（用于快速计算，不再解析字符串）
      */
+    @JsonIgnore
     public double getPriceAsDouble() {
-        return Double.parseDouble(price);
+        return price.asDouble();
     }
 
     /**
-     * 获取数量的double表示（用于快速计算，可能损失精度）
+     * 获取数量的double表示（用于快速计算，不再解析字符串）
      */
+    @JsonIgnore
     public double getQuantityAsDouble() {
-        return Double.parseDouble(quantity);
+        return quantity.asDouble();
     }
 
     @Override
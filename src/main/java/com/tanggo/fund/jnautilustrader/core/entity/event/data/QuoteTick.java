@@ -1,11 +1,15 @@
 package com.tanggo.fund.jnautilustrader.core.entity.event.data;
 
+import com.tanggo.fund.jnautilustrader.core.entity.Price;
+import com.tanggo.fund.jnautilustrader.core.entity.Quantity;
 import lombok.Data;
 
 import java.time.Instant;
 
 /**
  * 报价Tick数据
+ *
+ * 最优买卖价和数量为定点数；24小时统计字段（开高低收、成交量）仅用于展示，仍为double
  */
 @Data
 public class QuoteTick {
@@ -17,22 +21,22 @@ public class QuoteTick {
     /**
      * 最佳买价
      */
-    private double bidPrice;
+    private Price bidPrice;
 
     /**
      * 最佳买量
      */
-    private double bidQuantity;
+    private Quantity bidQuantity;
 
     /**
      * 最佳卖价
      */
-    private double askPrice;
+    private Price askPrice;
 
     /**
      * 最佳卖量
      */
-    private double askQuantity;
+    private Quantity askQuantity;
 
     /**
      * 时间戳
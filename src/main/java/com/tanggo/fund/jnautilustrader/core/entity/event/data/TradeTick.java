@@ -2,6 +2,8 @@ package com.tanggo.fund.jnautilustrader.core.entity.event.data;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.tanggo.fund.jnautilustrader.core.entity.Price;
+import com.tanggo.fund.jnautilustrader.core.entity.Quantity;
 import lombok.Data;
 
 import java.time.Instant;
@@ -28,13 +30,13 @@ public class TradeTick {
      * 价格
      */
     @JsonProperty("p")
-    public double price;
+    public Price price;
 
     /**
      * 数量
      */
     @JsonProperty("q")
-    public double quantity;
+    public Quantity quantity;
 
     /**
      * 事件时间 - 币安服务器发送消息的时间戳 (毫秒)
@@ -95,6 +97,6 @@ public class TradeTick {
      */
     // 成交量 = 价格 * 数量
     public double getVolume() {
-        return price * quantity;
+        return price == null || quantity == null ? 0.0 : price.asDouble() * quantity.asDouble();
     }
 }
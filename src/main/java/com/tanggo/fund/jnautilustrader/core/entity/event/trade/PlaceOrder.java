@@ -1,15 +1,26 @@
 package com.tanggo.fund.jnautilustrader.core.entity.event.trade;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.tanggo.fund.jnautilustrader.core.entity.InstrumentRegistry;
+import com.tanggo.fund.jnautilustrader.core.entity.Price;
+import com.tanggo.fund.jnautilustrader.core.entity.Quantity;
 import lombok.Data;
 
 /**
  * 下单指令实体
  * 表示用户提交的交易订单请求
+ *
+ * 价格和数量为定点数，按品种登记的精度舍入（未登记时保留 {@link #DEFAULT_PRECISION} 位小数），
+ * 下发到交易所时输出精确的十进制文本
  */
 @Data
 public class PlaceOrder {
 
+    /**
+     * 品种未登记精度时使用的小数位数
+     */
+    public static final int DEFAULT_PRECISION = 8;
+
     @JsonProperty("symbol")
     private String symbol; // 交易对，如 BTCUSDT
 
@@ -23,10 +34,10 @@ public class PlaceOrder {
     private String timeInForce; // 有效期，如 GTC, IOC
 
     @JsonProperty("quantity")
-    private double quantity; // 订单数量
+    private Quantity quantity; // 订单数量
 
     @JsonProperty("price")
-    private double price; // 订单价格（限价单必填）
+    private Price price; // 订单价格（限价单必填，市价单为null）
 
     @JsonProperty("newClientOrderId")
     private String newClientOrderId; // 客户自定义订单ID
@@ -35,7 +46,7 @@ public class PlaceOrder {
     }
 
     public PlaceOrder(String symbol, String side, String type, String timeInForce,
-                      double quantity, double price, String newClientOrderId) {
+                      Quantity quantity, Price price, String newClientOrderId) {
         this.symbol = symbol;
         this.side = side;
         this.type = type;
@@ -77,19 +88,19 @@ public class PlaceOrder {
         this.timeInForce = timeInForce;
     }
 
-    public double getQuantity() {
+    public Quantity getQuantity() {
         return quantity;
     }
 
-    public void setQuantity(double quantity) {
+    public void setQuantity(Quantity quantity) {
         this.quantity = quantity;
     }
 
-    public double getPrice() {
+    public Price getPrice() {
         return price;
     }
 
-    public void setPrice(double price) {
+    public void setPrice(Price price) {
         this.price = price;
     }
 
@@ -117,29 +128,59 @@ public class PlaceOrder {
     /**
      * 创建限价买入订单
      */
-    public static PlaceOrder createLimitBuyOrder(String symbol, double quantity, double price) {
+    public static PlaceOrder createLimitBuyOrder(String symbol, Quantity quantity, Price price) {
         return new PlaceOrder(symbol, "BUY", "LIMIT", "GTC", quantity, price, null);
     }
 
+    /**
+     * 创建限价买入订单，价格和数量按品种精度舍入
+     */
+    public static PlaceOrder createLimitBuyOrder(String symbol, double quantity, double price) {
+        return createLimitBuyOrder(symbol, quantityOf(symbol, quantity), priceOf(symbol, price));
+    }
+
     /**
      * 创建限价卖出订单
      */
-    public static PlaceOrder createLimitSellOrder(String symbol, double quantity, double price) {
+    public static PlaceOrder createLimitSellOrder(String symbol, Quantity quantity, Price price) {
         return new PlaceOrder(symbol, "SELL", "LIMIT", "GTC", quantity, price, null);
     }
 
+    /**
+     * 创建限价卖出订单，价格和数量按品种精度舍入
+     */
+    public static PlaceOrder createLimitSellOrder(String symbol, double quantity, double price) {
+        return createLimitSellOrder(symbol, quantityOf(symbol, quantity), priceOf(symbol, price));
+    }
+
     /**
      * 创建市价买入订单
      */
     public static PlaceOrder createMarketBuyOrder(String symbol, double quantity) {
-        return new PlaceOrder(symbol, "BUY", "MARKET", null, quantity, 0, null);
+        return new PlaceOrder(symbol, "BUY", "MARKET", null, quantityOf(symbol, quantity), null, null);
     }
 
     /**
      * 创建市价卖出订单
      */
     public static PlaceOrder createMarketSellOrder(String symbol, double quantity) {
-        return new PlaceOrder(symbol, "SELL", "MARKET", null, quantity, 0, null);
+        return new PlaceOrder(symbol, "SELL", "MARKET", null, quantityOf(symbol, quantity), null, null);
+    }
+
+    /**
+     * 按品种价格精度把double转为价格
+     */
+    public static Price priceOf(String symbol, double price) {
+        int precision = InstrumentRegistry.pricePrecision(InstrumentRegistry.find(symbol));
+        return Price.of(price, precision >= 0 ? precision : DEFAULT_PRECISION);
+    }
+
+    /**
+     * 按品种数量精度把double转为数量
+     */
+    public static Quantity quantityOf(String symbol, double quantity) {
+        int precision = InstrumentRegistry.sizePrecision(InstrumentRegistry.find(symbol));
+        return Quantity.of(quantity, precision >= 0 ? precision : DEFAULT_PRECISION);
     }
 
     /**
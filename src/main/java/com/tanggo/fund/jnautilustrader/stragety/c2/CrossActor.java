@@ -7,8 +7,11 @@ import com.tanggo.fund.jnautilustrader.core.actor.StrategyActor.MessageHandler;
 import com.tanggo.fund.jnautilustrader.core.actor.StrategyActor.State;
 import com.tanggo.fund.jnautilustrader.core.actor.StrategyActor.StartHandler;
 import com.tanggo.fund.jnautilustrader.core.actor.StrategyActor.StopHandler;
+import com.tanggo.fund.jnautilustrader.core.entity.Clock;
 import com.tanggo.fund.jnautilustrader.core.entity.Event;
 import com.tanggo.fund.jnautilustrader.core.entity.EventRepo;
+import com.tanggo.fund.jnautilustrader.core.entity.EventType;
+import com.tanggo.fund.jnautilustrader.core.entity.InstrumentRegistry;
 import com.tanggo.fund.jnautilustrader.core.entity.MarketData;
 import com.tanggo.fund.jnautilustrader.core.entity.TradeCmd;
 import com.tanggo.fund.jnautilustrader.core.entity.event.data.*;
@@ -46,6 +49,9 @@ public class CrossActor {
     private EventRepo<MarketData> marketDataRepo;
     private EventRepo<TradeCmd> tradeCmdRepo;
 
+    // 时钟：执行频率和策略状态计时都从这里取时间
+    private Clock clock = Clock.SYSTEM;
+
     public CrossActor() {
         this(CrossArbitrageParams.defaultParams());
     }
@@ -108,26 +114,26 @@ public class CrossActor {
 
         try {
             // 根据事件类型更新状态
-            switch (event.type) {
-                case "BINANCE_TRADE_TICK":
+            switch (event.typeCode) {
+                case EventType.BINANCE_TRADE_TICK:
                     handleBinanceTradeTick(marketData, currentState);
                     break;
-                case "BINANCE_ORDER_BOOK_DEPTH":
+                case EventType.BINANCE_ORDER_BOOK_DEPTH:
                     handleBinanceOrderBookDepth(marketData, currentState);
                     break;
-                case "BINANCE_ORDER_BOOK_DELTA":
+                case EventType.BINANCE_ORDER_BOOK_DELTA:
                     handleBinanceOrderBookDelta(marketData, currentState);
                     break;
-                case "BINANCE_QUOTE_TICK":
+                case EventType.BINANCE_QUOTE_TICK:
                     handleBinanceQuoteTick(marketData, currentState);
                     break;
-                case "BITGET_TRADE_TICK":
+                case EventType.BITGET_TRADE_TICK:
                     handleBitgetTradeTick(marketData, currentState);
                     break;
-                case "BITGET_ORDER_BOOK_DEPTH":
+                case EventType.BITGET_ORDER_BOOK_DEPTH:
                     handleBitgetOrderBookDepth(marketData, currentState);
                     break;
-                case "BITGET_ORDER_BOOK_DELTA":
+                case EventType.BITGET_ORDER_BOOK_DELTA:
                     handleBitgetOrderBookDelta(marketData, currentState);
                     break;
                 default:
@@ -150,10 +156,11 @@ public class CrossActor {
      * 处理币安交易Tick事件
      */
     private void handleBinanceTradeTick(MarketData marketData, CrossArbitrageState state) {
-        if (marketData.getMessage() instanceof TradeTick tradeTick) {
-            state.setBinanceMidPrice(tradeTick.price);
+        TradeTick tradeTick = marketData.asTradeTick();
+        if (tradeTick != null) {
+            state.setBinanceMidPrice(tradeTick.price.asDouble());
             if (params.isDebugMode()) {
-                log.debug("币安最新成交价: {}", String.format("%.2f", tradeTick.price));
+                log.debug("币安最新成交价: {}", String.format("%.2f", tradeTick.price.asDouble()));
             }
         }
     }
@@ -162,7 +169,8 @@ public class CrossActor {
      * 处理币安订单簿深度事件
      */
     private void handleBinanceOrderBookDepth(MarketData marketData, CrossArbitrageState state) {
-        if (marketData.getMessage() instanceof OrderBookDepth10 orderBook) {
+        OrderBookDepth10 orderBook = marketData.asOrderBookDepth();
+        if (orderBook != null) {
             extractBestPrices(orderBook, state::setBinanceBidPrice, state::setBinanceAskPrice);
             updateMidPrice(state, state.getBinanceBidPrice(), state.getBinanceAskPrice(), state::setBinanceMidPrice);
         }
@@ -172,10 +180,11 @@ public class CrossActor {
      * 处理币安订单簿增量更新事件
      */
     private void handleBinanceOrderBookDelta(MarketData marketData, CrossArbitrageState state) {
-        if (marketData.getMessage() instanceof OrderBookDeltas deltas) {
-            extractBestPricesFromDeltas(deltas, state::setBinanceBidPrice, state::setBinanceAskPrice);
-            updateMidPrice(state, state.getBinanceBidPrice(), state.getBinanceAskPrice(), state::setBinanceMidPrice);
-        } else if (marketData.getMessage() instanceof OrderBookDelta delta) {
+        OrderBookDelta delta = marketData.asOrderBookDelta();
+        if (marketData.asOrderBookDeltas() != null) {
+            // 增量只含变化的档位：同步后的最优买卖价由网关以 BINANCE_QUOTE_TICK 发布，见 handleBinanceQuoteTick
+            log.debug("币安深度增量: {}", marketData.symbol());
+        } else if (delta != null) {
             if (delta.getBidPrice() > 0) {
                 state.setBinanceBidPrice(delta.getBidPrice());
             }
@@ -190,12 +199,13 @@ public class CrossActor {
      * 处理币安QuoteTick事件
      */
     private void handleBinanceQuoteTick(MarketData marketData, CrossArbitrageState state) {
-        if (marketData.getMessage() instanceof QuoteTick quoteTick) {
-            if (quoteTick.getBidPrice() > 0) {
-                state.setBinanceBidPrice(quoteTick.getBidPrice());
+        QuoteTick quoteTick = marketData.asQuoteTick();
+        if (quoteTick != null) {
+            if (quoteTick.getBidPrice() != null && quoteTick.getBidPrice().isPositive()) {
+                state.setBinanceBidPrice(quoteTick.getBidPrice().asDouble());
             }
-            if (quoteTick.getAskPrice() > 0) {
-                state.setBinanceAskPrice(quoteTick.getAskPrice());
+            if (quoteTick.getAskPrice() != null && quoteTick.getAskPrice().isPositive()) {
+                state.setBinanceAskPrice(quoteTick.getAskPrice().asDouble());
             }
             updateMidPrice(state, state.getBinanceBidPrice(), state.getBinanceAskPrice(), state::setBinanceMidPrice);
         }
@@ -205,10 +215,11 @@ public class CrossActor {
      * 处理Bitget交易Tick事件
      */
     private void handleBitgetTradeTick(MarketData marketData, CrossArbitrageState state) {
-        if (marketData.getMessage() instanceof TradeTick tradeTick) {
-            state.setBitgetMidPrice(tradeTick.price);
+        TradeTick tradeTick = marketData.asTradeTick();
+        if (tradeTick != null) {
+            state.setBitgetMidPrice(tradeTick.price.asDouble());
             if (params.isDebugMode()) {
-                log.debug("Bitget最新成交价: {}", String.format("%.2f", tradeTick.price));
+                log.debug("Bitget最新成交价: {}", String.format("%.2f", tradeTick.price.asDouble()));
             }
         }
     }
@@ -217,7 +228,8 @@ public class CrossActor {
      * 处理Bitget订单簿深度事件
      */
     private void handleBitgetOrderBookDepth(MarketData marketData, CrossArbitrageState state) {
-        if (marketData.getMessage() instanceof OrderBookDepth10 orderBook) {
+        OrderBookDepth10 orderBook = marketData.asOrderBookDepth();
+        if (orderBook != null) {
             extractBestPrices(orderBook, state::setBitgetBidPrice, state::setBitgetAskPrice);
             updateMidPrice(state, state.getBitgetBidPrice(), state.getBitgetAskPrice(), state::setBitgetMidPrice);
         }
@@ -227,10 +239,12 @@ public class CrossActor {
      * 处理Bitget订单簿增量更新事件
      */
     private void handleBitgetOrderBookDelta(MarketData marketData, CrossArbitrageState state) {
-        if (marketData.getMessage() instanceof OrderBookDeltas deltas) {
+        OrderBookDeltas deltas = marketData.asOrderBookDeltas();
+        OrderBookDelta delta = marketData.asOrderBookDelta();
+        if (deltas != null) {
             extractBestPricesFromDeltas(deltas, state::setBitgetBidPrice, state::setBitgetAskPrice);
             updateMidPrice(state, state.getBitgetBidPrice(), state.getBitgetAskPrice(), state::setBitgetMidPrice);
-        } else if (marketData.getMessage() instanceof OrderBookDelta delta) {
+        } else if (delta != null) {
             if (delta.getBidPrice() > 0) {
                 state.setBitgetBidPrice(delta.getBidPrice());
             }
@@ -246,32 +260,16 @@ public class CrossActor {
      */
     private void extractBestPrices(OrderBookDepth10 orderBook, PriceSetter bidSetter, PriceSetter askSetter) {
         if (orderBook.getBids() != null && !orderBook.getBids().isEmpty()) {
-            try {
-                // 使用PriceLevel对象获取价格
-                if (orderBook.getBids().get(0) != null) {
-                    String bidPriceStr = orderBook.getBids().get(0).getPrice();
-                    if (bidPriceStr != null && !bidPriceStr.isEmpty()) {
-                        double bidPrice = Double.parseDouble(bidPriceStr);
-                        bidSetter.setPrice(bidPrice);
-                    }
-                }
-            } catch (Exception e) {
-                log.warn("解析订单簿买价失败: {}", e.getMessage());
+            PriceLevel bestBid = orderBook.getBids().get(0);
+            if (bestBid != null && bestBid.getPrice() != null) {
+                bidSetter.setPrice(bestBid.getPriceAsDouble());
             }
         }
 
         if (orderBook.getAsks() != null && !orderBook.getAsks().isEmpty()) {
-            try {
-                // 使用PriceLevel对象获取价格
-                if (orderBook.getAsks().get(0) != null) {
-                    String askPriceStr = orderBook.getAsks().get(0).getPrice();
-                    if (askPriceStr != null && !askPriceStr.isEmpty()) {
-                        double askPrice = Double.parseDouble(askPriceStr);
-                        askSetter.setPrice(askPrice);
-                    }
-                }
-            } catch (Exception e) {
-                log.warn("解析订单簿卖价失败: {}", e.getMessage());
+            PriceLevel bestAsk = orderBook.getAsks().get(0);
+            if (bestAsk != null && bestAsk.getPrice() != null) {
+                askSetter.setPrice(bestAsk.getPriceAsDouble());
             }
         }
     }
@@ -281,32 +279,16 @@ public class CrossActor {
      */
     private void extractBestPricesFromDeltas(OrderBookDeltas deltas, PriceSetter bidSetter, PriceSetter askSetter) {
         if (deltas.getBids() != null && !deltas.getBids().isEmpty()) {
-            try {
-                // 使用PriceLevel对象获取价格
-                if (deltas.getBids().get(0) != null) {
-                    String bidPriceStr = deltas.getBids().get(0).getPrice();
-                    if (bidPriceStr != null && !bidPriceStr.isEmpty()) {
-                        double bidPrice = Double.parseDouble(bidPriceStr);
-                        bidSetter.setPrice(bidPrice);
-                    }
-                }
-            } catch (Exception e) {
-                log.warn("解析增量更新买价失败: {}", e.getMessage());
+            PriceLevel bestBid = deltas.getBids().get(0);
+            if (bestBid != null && bestBid.getPrice() != null) {
+                bidSetter.setPrice(bestBid.getPriceAsDouble());
             }
         }
 
         if (deltas.getAsks() != null && !deltas.getAsks().isEmpty()) {
-            try {
-                // 使用PriceLevel对象获取价格
-                if (deltas.getAsks().get(0) != null) {
-                    String askPriceStr = deltas.getAsks().get(0).getPrice();
-                    if (askPriceStr != null && !askPriceStr.isEmpty()) {
-                        double askPrice = Double.parseDouble(askPriceStr);
-                        askSetter.setPrice(askPrice);
-                    }
-                }
-            } catch (Exception e) {
-                log.warn("解析增量更新卖价失败: {}", e.getMessage());
+            PriceLevel bestAsk = deltas.getAsks().get(0);
+            if (bestAsk != null && bestAsk.getPrice() != null) {
+                askSetter.setPrice(bestAsk.getPriceAsDouble());
             }
         }
     }
@@ -342,7 +324,7 @@ public class CrossActor {
         }
 
         // 检查执行频率
-        long currentTimeNanos = System.nanoTime();
+        long currentTimeNanos = clock.nanoTime();
         long intervalNanos = params.getCheckInterval() * 1_000_000L; // 转换为纳秒
         if (currentTimeNanos - currentState.getLastStrategyExecutionTime() < intervalNanos) {
             return;
@@ -463,9 +445,8 @@ public class CrossActor {
         PlaceOrder order = PlaceOrder.createLimitBuyOrder(params.getSymbol(), params.getOrderQuantity(), price);
         TradeCmd tradeCmd = TradeCmd.createWithData(order);
 
-        Event<TradeCmd> event = new Event<>();
-        event.type = "PLACE_ORDER_" + exchange;
-        event.payload = tradeCmd;
+        short typeCode = EventType.code(EventType.venueOf(exchange), EventType.PLACE_ORDER);
+        Event<TradeCmd> event = new Event<>(typeCode, InstrumentRegistry.idOf(params.getSymbol()), tradeCmd);
 
         boolean sent = tradeCmdRepo.send(event);
         if (sent) {
@@ -488,9 +469,8 @@ public class CrossActor {
         PlaceOrder order = PlaceOrder.createLimitSellOrder(params.getSymbol(), params.getOrderQuantity(), price);
         TradeCmd tradeCmd = TradeCmd.createWithData(order);
 
-        Event<TradeCmd> event = new Event<>();
-        event.type = "PLACE_ORDER_" + exchange;
-        event.payload = tradeCmd;
+        short typeCode = EventType.code(EventType.venueOf(exchange), EventType.PLACE_ORDER);
+        Event<TradeCmd> event = new Event<>(typeCode, InstrumentRegistry.idOf(params.getSymbol()), tradeCmd);
 
         boolean sent = tradeCmdRepo.send(event);
         if (sent) {
@@ -569,6 +549,14 @@ public class CrossActor {
         this.tradeCmdRepo = tradeCmdRepo;
     }
 
+    /**
+     * 设置时钟并同步到策略状态，需在启动前调用
+     */
+    public void setClock(Clock clock) {
+        this.clock = clock != null ? clock : Clock.SYSTEM;
+        actor.getState().setClock(this.clock);
+    }
+
     /**
      * 获取当前策略状态
      */
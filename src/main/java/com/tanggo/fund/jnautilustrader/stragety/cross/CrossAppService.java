@@ -1,10 +1,17 @@
 package com.tanggo.fund.jnautilustrader.stragety.cross;
 
-import com.tanggo.fund.jnautilustrader.adapter.event_repo.handler.HashMapEventHandlerRepo;
+import com.tanggo.fund.jnautilustrader.adapter.event_repo.handler.ArrayEventHandlerRepo;
+import com.tanggo.fund.jnautilustrader.core.actor.EventLoop;
+import com.tanggo.fund.jnautilustrader.core.actor.LatencyRecorder;
+import com.tanggo.fund.jnautilustrader.core.actor.ThreadPlacement;
 import com.tanggo.fund.jnautilustrader.core.entity.*;
+import com.tanggo.fund.jnautilustrader.core.entity.book.TopOfBookCache;
 import com.tanggo.fund.jnautilustrader.core.entity.event.data.*;
 import com.tanggo.fund.jnautilustrader.core.entity.event.trade.PlaceOrder;
+import com.tanggo.fund.jnautilustrader.core.actor.TimerWheel;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Getter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -34,6 +41,13 @@ public class CrossAppService implements UseCase {
 
     private static final Logger logger = LoggerFactory.getLogger(CrossAppService.class);
 
+    // 运行时长检查间隔
+    private static final long RUN_TIME_CHECK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    // 主循环统计日志间隔
+    private static final long STATS_LOG_NANOS = TimeUnit.SECONDS.toNanos(10);
+    // 两次套利之间的冷却时间
+    private static final long ARBITRAGE_COOLDOWN_NANOS = TimeUnit.SECONDS.toNanos(1);
+
     // 策略参数
     private CrossArbitrageParams params;
     // 策略状态
@@ -43,19 +57,55 @@ public class CrossAppService implements UseCase {
     private EventRepo<MarketData> marketDataRepo;
     private EventRepo<TradeCmd> tradeCmdRepo;
     private EventHandlerRepo<MarketData> eventHandlerRepo;
+    // 最优买卖价缓存，可选；配置后策略执行前从缓存读取最新买卖价，缓存更新也会触发策略
+    private TopOfBookCache topOfBookCache;
     // 单线程执行器，用于事件处理和策略执行
     private ExecutorService singleThreadExecutor;
 
+    // 空闲策略：无事件时如何等待，未配置时使用 spin -> yield -> park 退避
+    private IdleStrategy idleStrategy;
+    // 策略事件循环，运行在单线程执行器上
+    private volatile EventLoop eventLoop;
+    // 事件循环线程放置策略（如CPU绑定），未配置时不绑定
+    private ThreadPlacement threadPlacement;
+    // 延迟记录：排队等待、事件处理、行情到下单
+    private LatencyRecorder latencyRecorder = LatencyRecorder.DISABLED;
+    // 时钟：事件循环定时器、延迟打点和策略状态计时都从这里取时间，回放时替换为模拟时钟
+    private Clock clock = Clock.SYSTEM;
+
     // 用于跟踪提交的任务
     private Future<?> mainTaskFuture;
 
+    // 主循环统计（仅策略线程访问）
+    private int eventReceivedCount;
+    private int eventHandledCount;
+    private int strategyExecutedCount;
+    // 触发本次策略执行的行情到达网关的时间，0表示不是由行情事件触发（仅策略线程访问）
+    @Getter(AccessLevel.NONE)
+    private long tickReceiveNanos;
+
+    // 策略节流与套利冷却，由事件循环的定时器解除（仅策略线程访问）
+    // 检查间隔内已执行过策略
+    private boolean strategyThrottled;
+    // 节流期间有新事件，间隔结束时补执行一次
+    private boolean strategyPending;
+    // 套利后的冷却期
+    private boolean arbitrageCoolingDown;
+    @Getter(AccessLevel.NONE)
+    private long cooldownTimerId = TimerWheel.NULL_TIMER;
+    // 定时回调预先创建，重复调度不分配对象
+    @Getter(AccessLevel.NONE)
+    private final Runnable throttleExpiredTask = this::onThrottleExpired;
+    @Getter(AccessLevel.NONE)
+    private final Runnable cooldownExpiredTask = () -> arbitrageCoolingDown = false;
+
 
     /**
      * 注册市场数据事件处理器
      * 在start_link()之前必须调用，确保事件处理器已注册
      */
     private void registerEventHandlers() {
-        eventHandlerRepo = new HashMapEventHandlerRepo<MarketData>();
+        eventHandlerRepo = new ArrayEventHandlerRepo<MarketData>();
         eventHandlerRepo.addHandler("BINANCE_TRADE_TICK", new BinanceTradeTickEventHandler());
         eventHandlerRepo.addHandler("BINANCE_ORDER_BOOK_DEPTH", new BinanceOrderBookDepthEventHandler());
         eventHandlerRepo.addHandler("BINANCE_ORDER_BOOK_DELTA", new BinanceOrderBookDeltaEventHandler());
@@ -78,6 +128,8 @@ public class CrossAppService implements UseCase {
             return;
         }
 
+        EventLoop loop = initEventLoop();
+
         mainTaskFuture = singleThreadExecutor.submit(() -> {
             registerEventHandlers();
             state.start();
@@ -87,71 +139,8 @@ public class CrossAppService implements UseCase {
             logger.debug("开始策略主循环 - state.isRunning()={}, currentTime={}, runTime={}", state.isRunning(), state.getCurrentTime(), params.getRunTime());
 
             try {
-                int loopCount = 0;
-                int eventReceivedCount = 0;
-                int eventHandledCount = 0;
-                int strategyExecutedCount = 0;
-
-                while (state.isRunning() && state.getCurrentTime() < params.getRunTime()) {
-                    try {
-                        loopCount++;
-
-                        // 每1000次循环记录一次状态
-                        if (loopCount % 1000 == 0) {
-                            logger.debug("主循环状态 - 循环次数: {}, 接收事件: {}, 处理事件: {}, 执行策略: {}", loopCount, eventReceivedCount, eventHandledCount, strategyExecutedCount);
-                        }
-
-                        // 1. 接收市场数据事件（非阻塞模式，超时10ms）
-                        Event<MarketData> event = marketDataRepo.receive();
-
-                        if (event != null) {
-                            eventReceivedCount++;
-                            logger.debug("收到事件 #{} - 类型: {}, payload类型: {}", eventReceivedCount, event.type, event.payload != null ? event.payload.getClass().getSimpleName() : "null");
-
-                            // 2. 处理事件并更新状态
-                            EventHandler<MarketData> handler = eventHandlerRepo.queryBy(event.type);
-                            if (handler != null) {
-                                logger.debug("找到事件处理器: {} -> {}", event.type, handler.getClass().getSimpleName());
-                                handler.handle(event);
-                                eventHandledCount++;
-                                logger.debug("事件处理完成 #{}", eventHandledCount);
-
-                                // 3. 事件处理后立即尝试执行策略（事件驱动）
-                                // 使用纳秒级精度时间戳控制执行频率
-                                long currentTimeNanos = System.nanoTime();
-                                long intervalNanos = params.getCheckInterval() * 1_000_000L; // 转换为纳秒
-                                long timeSinceLastExecution = currentTimeNanos - state.getLastStrategyExecutionTime();
-
-                                logger.debug("策略执行间隔检查 - 距上次: {}ns, 要求间隔: {}ns, 是否执行: {}", timeSinceLastExecution, intervalNanos, timeSinceLastExecution >= intervalNanos);
-
-                                if (currentTimeNanos - state.getLastStrategyExecutionTime() >= intervalNanos) {
-                                    logger.debug("开始执行策略 - 更新状态并执行");
-                                    state.updateState();
-                                    executeStrategy();
-                                    strategyExecutedCount++;
-                                    state.setLastStrategyExecutionTime(currentTimeNanos);
-                                    logger.debug("策略执行完成 #{}", strategyExecutedCount);
-                                } else {
-                                    logger.debug("跳过策略执行 - 时间间隔未到");
-                                }
-                            } else {
-                                logger.warn("未找到事件处理器: {} - 可能需要注册该事件类型", event.type);
-                            }
-                        } else {
-                            // 4. 无事件时短暂休眠，避免CPU空转
-                            if (loopCount % 10000 == 0) {
-                                logger.debug("无事件接收 - 循环 #{}", loopCount);
-                            }
-                            TimeUnit.MILLISECONDS.sleep(1);
-                        }
-                    } catch (InterruptedException e) {
-                        logger.info("策略主线程被中断");
-                        Thread.currentThread().interrupt();
-                        break;
-                    } catch (Exception e) {
-                        logger.error("事件处理或策略执行失败", e);
-                    }
-                }
+                // 事件到达即处理，空闲时按空闲策略等待，运行时长由定时器检查
+                loop.run();
 
                 state.stop();
                 logger.info("策略执行完成");
@@ -161,6 +150,124 @@ public class CrossAppService implements UseCase {
         });
     }
 
+    /**
+     * 创建策略事件循环并挂上运行时长检查和统计日志定时器
+     * start_link 调用后在单线程执行器上运行；基准测试直接调用 {@link EventLoop#doWork()} 驱动
+     *
+     * @return 新建的事件循环
+     */
+    public EventLoop initEventLoop() {
+        if (topOfBookCache != null) {
+            state.bindTopOfBook(topOfBookCache, params.getSymbol());
+        }
+        EventLoop loop = new EventLoop("cross-arbitrage", this::doWork,
+                idleStrategy != null ? idleStrategy : IdleStrategy.BACKOFF, clock);
+        loop.setPlacement(threadPlacement);
+        loop.schedulePeriodic(RUN_TIME_CHECK_NANOS, this::checkRunTime);
+        loop.schedulePeriodic(STATS_LOG_NANOS, () -> logger.debug("主循环状态 - 迭代次数: {}, 接收事件: {}, 处理事件: {}, 执行策略: {}",
+                loop.getIterationCount(), eventReceivedCount, eventHandledCount, strategyExecutedCount));
+        eventLoop = loop;
+        return loop;
+    }
+
+    /**
+     * 运行时长检查：策略已停止或到达运行时长时结束事件循环
+     */
+    private void checkRunTime() {
+        state.updateState();
+        if (!state.isRunning() || state.getCurrentTime() >= params.getRunTime()) {
+            eventLoop.stop();
+        }
+    }
+
+    /**
+     * 事件循环的一次工作：优先处理队列中的事件；队列为空时检查最优价缓存，有更新则触发策略
+     */
+    private int doWork() {
+        if (processNextEvent()) {
+            return 1;
+        }
+        if (!state.hasTopOfBookUpdate()) {
+            return 0;
+        }
+        // 节流期间只做标记，不计为工作，由空闲策略等待定时器
+        if (strategyThrottled) {
+            strategyPending = true;
+            return 0;
+        }
+        tickReceiveNanos = 0;
+        runStrategy();
+        return 1;
+    }
+
+    /**
+     * 处理一个市场数据事件：接收、分发到处理器，并按检查间隔触发策略
+     * 主循环每次迭代调用一次；基准测试也直接调用以测量单个事件的处理路径
+     *
+     * @return 是否收到事件
+     */
+    public boolean processNextEvent() {
+        // 1. 接收市场数据事件（非阻塞）
+        Event<MarketData> event = marketDataRepo.poll();
+        if (event == null) {
+            return false;
+        }
+        long dequeueNanos = clock.nanoTime();
+        event.dequeueNanos = dequeueNanos;
+        latencyRecorder.record(LatencyRecorder.Stage.QUEUE_WAIT, event.enqueueNanos, dequeueNanos);
+        tickReceiveNanos = event.receiveNanos;
+        eventReceivedCount++;
+        logger.debug("收到事件 #{} - 类型: {}, payload类型: {}", eventReceivedCount, event.type, event.payload != null ? event.payload.getClass().getSimpleName() : "null");
+
+        // 2. 处理事件并更新状态
+        if (!eventHandlerRepo.dispatch(event)) {
+            logger.warn("未找到事件处理器: {} - 可能需要注册该事件类型", event.type);
+            return true;
+        }
+        eventHandledCount++;
+        logger.debug("事件处理完成 #{}", eventHandledCount);
+
+        // 3. 事件处理后立即尝试执行策略（事件驱动）
+        // 检查间隔内的后续事件只做标记，间隔结束时由定时器补执行一次，最新行情不会被漏掉
+        if (strategyThrottled) {
+            strategyPending = true;
+            logger.debug("跳过策略执行 - 时间间隔未到");
+        } else {
+            runStrategy();
+        }
+        latencyRecorder.record(LatencyRecorder.Stage.HANDLER, dequeueNanos, clock.nanoTime());
+        return true;
+    }
+
+    /**
+     * 更新状态并执行策略，检查间隔大于0时挂上节流定时器
+     */
+    private void runStrategy() {
+        logger.debug("开始执行策略 - 更新状态并执行");
+        state.updateState();
+        state.refreshTopOfBook();
+        executeStrategy();
+        strategyExecutedCount++;
+        logger.debug("策略执行完成 #{}", strategyExecutedCount);
+
+        long intervalNanos = params.getCheckInterval() * 1_000_000L; // 转换为纳秒
+        if (intervalNanos > 0 && eventLoop != null) {
+            strategyThrottled = true;
+            eventLoop.schedule(intervalNanos, throttleExpiredTask);
+        }
+    }
+
+    /**
+     * 检查间隔结束：解除节流，间隔内有新事件时补执行一次策略
+     */
+    private void onThrottleExpired() {
+        strategyThrottled = false;
+        if (strategyPending) {
+            strategyPending = false;
+            runStrategy();
+        }
+    }
+
     /**
      * 停止策略 - 优雅关闭单线程执行器
      */
@@ -169,15 +276,17 @@ public class CrossAppService implements UseCase {
         logger.info("正在停止策略...");
         state.stop();
 
-        // 取消主任务
+        // 停止事件循环，超时未退出时再取消主任务
         if (mainTaskFuture != null && !mainTaskFuture.isDone()) {
-            logger.debug("取消策略主任务");
-            mainTaskFuture.cancel(true);
+            if (eventLoop != null) {
+                eventLoop.stop();
+            }
             try {
                 // 等待任务完成，最多等待5秒
                 mainTaskFuture.get(5, TimeUnit.SECONDS);
             } catch (Exception e) {
-                logger.warn("等待主任务完成时发生异常", e);
+                logger.warn("等待主任务完成时发生异常，取消策略主任务", e);
+                mainTaskFuture.cancel(true);
             }
         }
 
@@ -223,9 +332,9 @@ public class CrossAppService implements UseCase {
         logger.debug("执行策略检查 - 开始");
         logger.debug("市场数据状态: Binance买价={}, Binance卖价={}, Binance中间价={}, Bitget买价={}, Bitget卖价={}, Bitget中间价={}", state.getBinanceBidPrice(), state.getBinanceAskPrice(), state.getBinanceMidPrice(), state.getBitgetBidPrice(), state.getBitgetAskPrice(), state.getBitgetMidPrice());
 
-        // 检查是否有有效的市场数据和是否可以进行套利
-        if (!state.canArbitrage(1000)) { // 1秒内只能套利一次
-            logger.debug("套利条件检查失败: canArbitrage=false, hasValidMarketData={}", state.hasValidMarketData());
+        // 检查是否有有效的市场数据和是否在套利冷却期内（1秒内只能套利一次）
+        if (arbitrageCoolingDown || !state.hasValidMarketData()) {
+            logger.debug("套利条件检查失败: coolingDown={}, hasValidMarketData={}", arbitrageCoolingDown, state.hasValidMarketData());
             if (params.isDebugMode() && state.hasValidMarketData()) {
                 double spreadPercentage = state.calculateSpreadPercentage();
                 logger.debug("价差: {}%, 未达到套利阈值: {}%", String.format("%.4f", spreadPercentage), params.getArbitrageThreshold());
@@ -268,14 +377,14 @@ public class CrossAppService implements UseCase {
         // 检查最小利润条件
         if (profit < params.getMinProfit()) {
             logger.info("套利利润未达到最小利润要求: {} USDT < {} USDT", String.format("%.6f", profit), params.getMinProfit());
-            state.recordArbitrage(false, 0, 0);
+            recordArbitrage(false, 0, 0);
             return;
         }
 
         // 风险管理检查
         if (!checkRiskManagement()) {
             logger.warn("风险管理检查失败，取消套利操作");
-            state.recordArbitrage(false, 0, 0);
+            recordArbitrage(false, 0, 0);
             return;
         }
 
@@ -285,10 +394,10 @@ public class CrossAppService implements UseCase {
 
         if (buySuccess && sellSuccess) {
             logger.info("套利成功! 利润: {} USDT", String.format("%.6f", profit));
-            state.recordArbitrage(true, profit, 0); // 跨交易所套利通常是对冲交易，净持仓为0
+            recordArbitrage(true, profit, 0); // 跨交易所套利通常是对冲交易，净持仓为0
         } else {
             logger.error("套利失败! 买入或卖出订单发送失败");
-            state.recordArbitrage(false, 0, 0);
+            recordArbitrage(false, 0, 0);
 
             // 如果只有一个订单成功，需要尝试撤销另一个
             if (buySuccess) {
@@ -300,6 +409,17 @@ public class CrossAppService implements UseCase {
         }
     }
 
+    /**
+     * 记录套利结果并进入冷却期，冷却由事件循环的一次性定时器解除
+     */
+    private void recordArbitrage(boolean success, double profit, double positionChange) {
+        state.recordArbitrage(success, profit, positionChange);
+        if (eventLoop != null) {
+            arbitrageCoolingDown = true;
+            cooldownTimerId = eventLoop.scheduleCoalesced(cooldownTimerId, ARBITRAGE_COOLDOWN_NANOS, cooldownExpiredTask);
+        }
+    }
+
     /**
      * 风险管理检查
      */
@@ -326,11 +446,11 @@ public class CrossAppService implements UseCase {
         PlaceOrder order = PlaceOrder.createLimitBuyOrder(params.getSymbol(), params.getOrderQuantity(), price);
         TradeCmd tradeCmd = TradeCmd.createWithData(order);
 
-        Event<TradeCmd> event = new Event<>();
-        event.type = "PLACE_ORDER_" + exchange;
-        event.payload = tradeCmd;
+        short typeCode = EventType.code(EventType.venueOf(exchange), EventType.PLACE_ORDER);
+        Event<TradeCmd> event = new Event<>(typeCode, InstrumentRegistry.idOf(params.getSymbol()), tradeCmd);
 
         boolean sent = tradeCmdRepo.send(event);
+        latencyRecorder.record(LatencyRecorder.Stage.TICK_TO_ORDER, tickReceiveNanos, clock.nanoTime());
         if (sent) {
             logger.info("{}发送买入订单成功: 价格={}, 数量={} BTC", exchange, String.format("%.2f", price), params.getOrderQuantity());
         } else {
@@ -346,11 +466,11 @@ public class CrossAppService implements UseCase {
         PlaceOrder order = PlaceOrder.createLimitSellOrder(params.getSymbol(), params.getOrderQuantity(), price);
         TradeCmd tradeCmd = TradeCmd.createWithData(order);
 
-        Event<TradeCmd> event = new Event<>();
-        event.type = "PLACE_ORDER_" + exchange;
-        event.payload = tradeCmd;
+        short typeCode = EventType.code(EventType.venueOf(exchange), EventType.PLACE_ORDER);
+        Event<TradeCmd> event = new Event<>(typeCode, InstrumentRegistry.idOf(params.getSymbol()), tradeCmd);
 
         boolean sent = tradeCmdRepo.send(event);
+        latencyRecorder.record(LatencyRecorder.Stage.TICK_TO_ORDER, tickReceiveNanos, clock.nanoTime());
         if (sent) {
             logger.info("{}发送卖出订单成功: 价格={}, 数量={} BTC", exchange, String.format("%.2f", price), params.getOrderQuantity());
         } else {
@@ -372,11 +492,22 @@ public class CrossAppService implements UseCase {
         // 初始化策略状态
         if (this.state == null) {
             this.state = new CrossArbitrageState(params);
+            this.state.setClock(clock);
         } else {
             this.state.setParams(params);
         }
     }
 
+    /**
+     * 设置时钟并同步到策略状态，需在 {@link #initEventLoop()} 和 state.start() 之前调用
+     */
+    public void setClock(Clock clock) {
+        this.clock = clock != null ? clock : Clock.SYSTEM;
+        if (state != null) {
+            state.setClock(this.clock);
+        }
+    }
+
     public void setEventHandlerRepo(EventHandlerRepo<MarketData> eventHandlerRepo) {
         this.eventHandlerRepo = eventHandlerRepo;
         // 注册事件处理器
@@ -394,16 +525,17 @@ public class CrossAppService implements UseCase {
             MarketData marketData = event.payload;
             logger.debug("MarketData payload: {}", marketData != null ? marketData.getClass().getSimpleName() : "null");
 
-            if (marketData.getMessage() instanceof TradeTick tradeTick) {
-                logger.debug("解析到TradeTick: price={}", tradeTick.price);
-                state.setBinanceMidPrice(tradeTick.price);
-                logger.debug("币安中间价已更新: {}", tradeTick.price);
+            if (marketData.getType() == MarketData.TRADE_TICK) {
+                TradeTick tradeTick = marketData.asTradeTick();
+                logger.debug("解析到TradeTick: price={}", tradeTick.price.asDouble());
+                state.setBinanceMidPrice(tradeTick.price.asDouble());
+                logger.debug("币安中间价已更新: {}", tradeTick.price.asDouble());
 
                 if (params.isDebugMode()) {
-                    logger.debug("币安最新成交价: {}", String.format("%.2f", tradeTick.price));
+                    logger.debug("币安最新成交价: {}", String.format("%.2f", tradeTick.price.asDouble()));
                 }
             } else {
-                logger.warn("MarketData.getMessage() 不是 TradeTick 类型: {}", marketData.getMessage() != null ? marketData.getMessage().getClass().getName() : "null");
+                logger.warn("币安成交事件的数据类型不是 TRADE_TICK: {}", marketData.typeName());
             }
             logger.debug("BinanceTradeTickEventHandler.handle() 完成");
         }
@@ -416,43 +548,20 @@ public class CrossAppService implements UseCase {
         @Override
         public void handle(Event<MarketData> event) {
             MarketData marketData = event.payload;
-            if (marketData.getMessage() instanceof OrderBookDepth10 orderBook) {
+            if (marketData.getType() == MarketData.ORDER_BOOK_DEPTH) {
+                OrderBookDepth10 orderBook = marketData.asOrderBookDepth();
                 // 提取最佳买卖价
                 if (orderBook.getBids() != null && !orderBook.getBids().isEmpty()) {
-                    try {
-                        // 使用PriceLevel对象获取价格
-                        if (orderBook.getBids().get(0) != null) {
-                            String bidPriceStr = orderBook.getBids().get(0).getPrice();
-                            if (bidPriceStr != null && !bidPriceStr.isEmpty()) {
-                                double bidPrice = Double.parseDouble(bidPriceStr);
-                                state.setBinanceBidPrice(bidPrice);
-                            } else {
-                                logger.warn("Binance bid price is empty string");
-                            }
-                        }
-                    } catch (NumberFormatException e) {
-                        logger.warn("Invalid Binance bid price format: {}", orderBook.getBids().get(0).getPrice(), e);
-                    } catch (Exception e) {
-                        logger.warn("Error parsing Binance bid price", e);
+                    PriceLevel bestBid = orderBook.getBids().get(0);
+                    if (bestBid != null && bestBid.getPrice() != null) {
+                        state.setBinanceBidPrice(bestBid.getPriceAsDouble());
                     }
                 }
 
                 if (orderBook.getAsks() != null && !orderBook.getAsks().isEmpty()) {
-                    try {
-                        // 使用PriceLevel对象获取价格
-                        if (orderBook.getAsks().get(0) != null) {
-                            String askPriceStr = orderBook.getAsks().get(0).getPrice();
-                            if (askPriceStr != null && !askPriceStr.isEmpty()) {
-                                double askPrice = Double.parseDouble(askPriceStr);
-                                state.setBinanceAskPrice(askPrice);
-                            } else {
-                                logger.warn("Binance ask price is empty string");
-                            }
-                        }
-                    } catch (NumberFormatException e) {
-                        logger.warn("Invalid Binance ask price format: {}", orderBook.getAsks().get(0).getPrice(), e);
-                    } catch (Exception e) {
-                        logger.warn("Error parsing Binance ask price", e);
+                    PriceLevel bestAsk = orderBook.getAsks().get(0);
+                    if (bestAsk != null && bestAsk.getPrice() != null) {
+                        state.setBinanceAskPrice(bestAsk.getPriceAsDouble());
                     }
                 }
 
@@ -473,10 +582,11 @@ public class CrossAppService implements UseCase {
         @Override
         public void handle(Event<MarketData> event) {
             MarketData marketData = event.payload;
-            if (marketData.getMessage() instanceof TradeTick tradeTick) {
-                state.setBitgetMidPrice(tradeTick.price);
+            if (marketData.getType() == MarketData.TRADE_TICK) {
+                TradeTick tradeTick = marketData.asTradeTick();
+                state.setBitgetMidPrice(tradeTick.price.asDouble());
                 if (params.isDebugMode()) {
-                    logger.debug("Bitget最新成交价: {}", String.format("%.2f", tradeTick.price));
+                    logger.debug("Bitget最新成交价: {}", String.format("%.2f", tradeTick.price.asDouble()));
                 }
             }
         }
@@ -490,49 +600,22 @@ public class CrossAppService implements UseCase {
         public void handle(Event<MarketData> event) {
             logger.debug("收到Bitget订单簿深度事件");
             MarketData marketData = event.payload;
-            if (marketData.getMessage() instanceof OrderBookDepth10 orderBook) {
+            if (marketData.getType() == MarketData.ORDER_BOOK_DEPTH) {
+                OrderBookDepth10 orderBook = marketData.asOrderBookDepth();
                 logger.debug("Bitget订单簿数据: bids.size={}, asks.size={}", orderBook.getBids() != null ? orderBook.getBids().size() : 0, orderBook.getAsks() != null ? orderBook.getAsks().size() : 0);
 
                 // 提取最佳买卖价
                 if (orderBook.getBids() != null && !orderBook.getBids().isEmpty()) {
-                    try {
-                        // 使用PriceLevel对象获取价格
-                        if (orderBook.getBids().get(0) != null) {
-                            String bidPriceStr = orderBook.getBids().get(0).getPrice();
-                            logger.debug("Bitget买价字符串: '{}'", bidPriceStr);
-                            if (bidPriceStr != null && !bidPriceStr.isEmpty()) {
-                                double bidPrice = Double.parseDouble(bidPriceStr);
-                                state.setBitgetBidPrice(bidPrice);
-                                logger.debug("Bitget买价解析成功: {}", bidPrice);
-                            } else {
-                                logger.warn("Bitget bid price is empty string");
-                            }
-                        }
-                    } catch (NumberFormatException e) {
-                        logger.warn("Invalid Bitget bid price format: {}", orderBook.getBids().get(0).getPrice(), e);
-                    } catch (Exception e) {
-                        logger.warn("Error parsing Bitget bid price", e);
+                    PriceLevel bestBid = orderBook.getBids().get(0);
+                    if (bestBid != null && bestBid.getPrice() != null) {
+                        state.setBitgetBidPrice(bestBid.getPriceAsDouble());
                     }
                 }
 
                 if (orderBook.getAsks() != null && !orderBook.getAsks().isEmpty()) {
-                    try {
-                        // 使用PriceLevel对象获取价格
-                        if (orderBook.getAsks().get(0) != null) {
-                            String askPriceStr = orderBook.getAsks().get(0).getPrice();
-                            logger.debug("Bitget卖价字符串: '{}'", askPriceStr);
-                            if (askPriceStr != null && !askPriceStr.isEmpty()) {
-                                double askPrice = Double.parseDouble(askPriceStr);
-                                state.setBitgetAskPrice(askPrice);
-                                logger.debug("Bitget卖价解析成功: {}", askPrice);
-                            } else {
-                                logger.warn("Bitget ask price is empty string");
-                            }
-                        }
-                    } catch (NumberFormatException e) {
-                        logger.warn("Invalid Bitget ask price format: {}", orderBook.getAsks().get(0).getPrice(), e);
-                    } catch (Exception e) {
-                        logger.warn("Error parsing Bitget ask price", e);
+                    PriceLevel bestAsk = orderBook.getAsks().get(0);
+                    if (bestAsk != null && bestAsk.getPrice() != null) {
+                        state.setBitgetAskPrice(bestAsk.getPriceAsDouble());
                     }
                 }
 
@@ -553,43 +636,15 @@ public class CrossAppService implements UseCase {
         @Override
         public void handle(Event<MarketData> event) {
             MarketData marketData = event.payload;
-            if (marketData.getMessage() instanceof OrderBookDeltas deltas) {
-                // 增量更新：只提取最佳买卖价更新
-                if (deltas.getBids() != null && !deltas.getBids().isEmpty()) {
-                    try {
-                        // 使用PriceLevel对象获取价格
-                        if (deltas.getBids().get(0) != null) {
-                            String bidPriceStr = deltas.getBids().get(0).getPrice();
-                            if (bidPriceStr != null && !bidPriceStr.isEmpty()) {
-                                double bidPrice = Double.parseDouble(bidPriceStr);
-                                state.setBinanceBidPrice(bidPrice);
-                            }
-                        }
-                    } catch (Exception e) {
-                        logger.warn("Error parsing Binance delta bid price", e);
-                    }
-                }
-
-                if (deltas.getAsks() != null && !deltas.getAsks().isEmpty()) {
-                    try {
-                        // 使用PriceLevel对象获取价格
-                        if (deltas.getAsks().get(0) != null) {
-                            String askPriceStr = deltas.getAsks().get(0).getPrice();
-                            if (askPriceStr != null && !askPriceStr.isEmpty()) {
-                                double askPrice = Double.parseDouble(askPriceStr);
-                                state.setBinanceAskPrice(askPrice);
-                            }
-                        }
-                    } catch (Exception e) {
-                        logger.warn("Error parsing Binance delta ask price", e);
-                    }
-                }
-
-                // 更新中间价
-                if (state.getBinanceBidPrice() > 0 && state.getBinanceAskPrice() > 0) {
-                    state.setBinanceMidPrice((state.getBinanceBidPrice() + state.getBinanceAskPrice()) / 2);
-                }
-            } else if (marketData.getMessage() instanceof OrderBookDelta delta) {
+            if (marketData.getType() != MarketData.ORDER_BOOK_DELTA) {
+                return;
+            }
+            OrderBookDelta delta = marketData.asOrderBookDelta();
+            if (delta == null) {
+                // 增量只含变化的档位，不能当作盘口：网关的 BinanceOrderBookSync 在以快照同步的订单簿上应用增量，
+                // 最优买卖价变化时随后发布 BINANCE_QUOTE_TICK，由 BinanceQuoteTickEventHandler 更新买卖价
+                logger.debug("币安深度增量: {}", marketData.symbol());
+            } else {
                 // 单一增量更新（bookTicker类型）
                 if (delta.getBidPrice() > 0) {
                     state.setBinanceBidPrice(delta.getBidPrice());
@@ -613,35 +668,23 @@ public class CrossAppService implements UseCase {
         @Override
         public void handle(Event<MarketData> event) {
             MarketData marketData = event.payload;
-            if (marketData.getMessage() instanceof OrderBookDeltas deltas) {
+            if (marketData.getType() != MarketData.ORDER_BOOK_DELTA) {
+                return;
+            }
+            OrderBookDeltas deltas = marketData.asOrderBookDeltas();
+            if (deltas != null) {
                 // 增量更新：只提取最佳买卖价更新
                 if (deltas.getBids() != null && !deltas.getBids().isEmpty()) {
-                    try {
-                        // 使用PriceLevel对象获取价格
-                        if (deltas.getBids().get(0) != null) {
-                            String bidPriceStr = deltas.getBids().get(0).getPrice();
-                            if (bidPriceStr != null && !bidPriceStr.isEmpty()) {
-                                double bidPrice = Double.parseDouble(bidPriceStr);
-                                state.setBitgetBidPrice(bidPrice);
-                            }
-                        }
-                    } catch (Exception e) {
-                        logger.warn("Error parsing Bitget delta bid price", e);
+                    PriceLevel bestBid = deltas.getBids().get(0);
+                    if (bestBid != null && bestBid.getPrice() != null) {
+                        state.setBitgetBidPrice(bestBid.getPriceAsDouble());
                     }
                 }
 
                 if (deltas.getAsks() != null && !deltas.getAsks().isEmpty()) {
-                    try {
-                        // 使用PriceLevel对象获取价格
-                        if (deltas.getAsks().get(0) != null) {
-                            String askPriceStr = deltas.getAsks().get(0).getPrice();
-                            if (askPriceStr != null && !askPriceStr.isEmpty()) {
-                                double askPrice = Double.parseDouble(askPriceStr);
-                                state.setBitgetAskPrice(askPrice);
-                            }
-                        }
-                    } catch (Exception e) {
-                        logger.warn("Error parsing Bitget delta ask price", e);
+                    PriceLevel bestAsk = deltas.getAsks().get(0);
+                    if (bestAsk != null && bestAsk.getPrice() != null) {
+                        state.setBitgetAskPrice(bestAsk.getPriceAsDouble());
                     }
                 }
 
@@ -650,8 +693,9 @@ public class CrossAppService implements UseCase {
                     double midPrice = (state.getBitgetBidPrice() + state.getBitgetAskPrice()) / 2;
                     state.setBitgetMidPrice(midPrice);
                 }
-            } else if (marketData.getMessage() instanceof OrderBookDelta delta) {
+            } else {
                 // 单一增量更新
+                OrderBookDelta delta = marketData.asOrderBookDelta();
                 if (delta.getBidPrice() > 0) {
                     state.setBitgetBidPrice(delta.getBidPrice());
                 }
@@ -676,13 +720,14 @@ public class CrossAppService implements UseCase {
         @Override
         public void handle(Event<MarketData> event) {
             MarketData marketData = event.payload;
-            if (marketData.getMessage() instanceof QuoteTick quoteTick) {
+            if (marketData.getType() == MarketData.QUOTE_TICK) {
+                QuoteTick quoteTick = marketData.asQuoteTick();
                 // 更新最优买卖价
-                if (quoteTick.getBidPrice() > 0) {
-                    state.setBinanceBidPrice(quoteTick.getBidPrice());
+                if (quoteTick.getBidPrice() != null && quoteTick.getBidPrice().isPositive()) {
+                    state.setBinanceBidPrice(quoteTick.getBidPrice().asDouble());
                 }
-                if (quoteTick.getAskPrice() > 0) {
-                    state.setBinanceAskPrice(quoteTick.getAskPrice());
+                if (quoteTick.getAskPrice() != null && quoteTick.getAskPrice().isPositive()) {
+                    state.setBinanceAskPrice(quoteTick.getAskPrice().asDouble());
                 }
 
                 // 更新中间价
@@ -1,8 +1,9 @@
 package com.tanggo.fund.jnautilustrader.stragety.cross;
 
-import com.tanggo.fund.jnautilustrader.adapter.event_repo.handler.HashMapEventHandlerRepo;
+import com.tanggo.fund.jnautilustrader.adapter.event_repo.handler.ArrayEventHandlerRepo;
 import com.tanggo.fund.jnautilustrader.core.entity.*;
 import com.tanggo.fund.jnautilustrader.core.entity.event.data.OrderBookDepth10;
+import com.tanggo.fund.jnautilustrader.core.entity.event.data.PriceLevel;
 import com.tanggo.fund.jnautilustrader.core.entity.event.trade.PlaceOrder;
 import com.tanggo.fund.jnautilustrader.core.entity.event.data.TradeTick;
 import lombok.Data;
@@ -58,7 +59,7 @@ public class CrossAppService2 implements UseCase {
      * 在start_link()之前必须调用，确保事件处理器已注册
      */
     private void registerEventHandlers() {
-        eventHandlerRepo = new HashMapEventHandlerRepo<MarketData>();
+        eventHandlerRepo = new ArrayEventHandlerRepo<MarketData>();
         eventHandlerRepo.addHandler("BINANCE_TRADE_TICK", new BinanceTradeTickEventHandler());
         eventHandlerRepo.addHandler("BINANCE_ORDER_BOOK_DEPTH", new BinanceOrderBookDepthEventHandler());
         eventHandlerRepo.addHandler("BITGET_TRADE_TICK", new BitgetTradeTickEventHandler());
@@ -87,10 +88,7 @@ public class CrossAppService2 implements UseCase {
                         try {
                             Event<MarketData> event = marketDataRepo.receive();
                             if (event != null) {
-                                EventHandler<MarketData> handler = eventHandlerRepo.queryBy(event.type);
-                                if (handler != null) {
-                                    handler.handle(event);
-                                } else {
+                                if (!eventHandlerRepo.dispatch(event)) {
                                     logger.debug("未找到事件处理器: {}", event.type);
                                 }
                             }
@@ -313,9 +311,8 @@ public class CrossAppService2 implements UseCase {
         PlaceOrder order = PlaceOrder.createLimitBuyOrder(params.getSymbol(), params.getOrderQuantity(), price);
         TradeCmd tradeCmd = TradeCmd.createWithData(order);
 
-        Event<TradeCmd> event = new Event<>();
-        event.type = "PLACE_ORDER_" + exchange;
-        event.payload = tradeCmd;
+        short typeCode = EventType.code(EventType.venueOf(exchange), EventType.PLACE_ORDER);
+        Event<TradeCmd> event = new Event<>(typeCode, InstrumentRegistry.idOf(params.getSymbol()), tradeCmd);
 
         boolean sent = tradeCmdRepo.send(event);
         if (sent) {
@@ -333,9 +330,8 @@ public class CrossAppService2 implements UseCase {
         PlaceOrder order = PlaceOrder.createLimitSellOrder(params.getSymbol(), params.getOrderQuantity(), price);
         TradeCmd tradeCmd = TradeCmd.createWithData(order);
 
-        Event<TradeCmd> event = new Event<>();
-        event.type = "PLACE_ORDER_" + exchange;
-        event.payload = tradeCmd;
+        short typeCode = EventType.code(EventType.venueOf(exchange), EventType.PLACE_ORDER);
+        Event<TradeCmd> event = new Event<>(typeCode, InstrumentRegistry.idOf(params.getSymbol()), tradeCmd);
 
         boolean sent = tradeCmdRepo.send(event);
         if (sent) {
@@ -378,9 +374,9 @@ public class CrossAppService2 implements UseCase {
         public void handle(Event<MarketData> event) {
             MarketData marketData = event.payload;
             if (marketData.getMessage() instanceof TradeTick tradeTick) {
-                state.setBinanceMidPrice(tradeTick.price);
+                state.setBinanceMidPrice(tradeTick.price.asDouble());
                 if (params.isDebugMode()) {
-                    logger.debug("币安最新成交价: {}", String.format("%.2f", tradeTick.price));
+                    logger.debug("币安最新成交价: {}", String.format("%.2f", tradeTick.price.asDouble()));
                 }
             }
         }
@@ -396,40 +392,16 @@ public class CrossAppService2 implements UseCase {
             if (marketData.getMessage() instanceof OrderBookDepth10 orderBook) {
                 // 提取最佳买卖价
                 if (orderBook.getBids() != null && !orderBook.getBids().isEmpty()) {
-                    try {
-                        // 使用PriceLevel对象获取价格
-                        if (orderBook.getBids().get(0) != null) {
-                            String bidPriceStr = orderBook.getBids().get(0).getPrice();
-                            if (bidPriceStr != null && !bidPriceStr.isEmpty()) {
-                                double bidPrice = Double.parseDouble(bidPriceStr);
-                                state.setBinanceBidPrice(bidPrice);
-                            } else {
-                                logger.warn("Binance bid price is empty string");
-                            }
-                        }
-                    } catch (NumberFormatException e) {
-                        logger.warn("Invalid Binance bid price format: {}", orderBook.getBids().get(0).getPrice(), e);
-                    } catch (Exception e) {
-                        logger.warn("Error parsing Binance bid price", e);
+                    PriceLevel bestBid = orderBook.getBids().get(0);
+                    if (bestBid != null && bestBid.getPrice() != null) {
+                        state.setBinanceBidPrice(bestBid.getPriceAsDouble());
                     }
                 }
 
                 if (orderBook.getAsks() != null && !orderBook.getAsks().isEmpty()) {
-                    try {
-                        // 使用PriceLevel对象获取价格
-                        if (orderBook.getAsks().get(0) != null) {
-                            String askPriceStr = orderBook.getAsks().get(0).getPrice();
-                            if (askPriceStr != null && !askPriceStr.isEmpty()) {
-                                double askPrice = Double.parseDouble(askPriceStr);
-                                state.setBinanceAskPrice(askPrice);
-                            } else {
-                                logger.warn("Binance ask price is empty string");
-                            }
-                        }
-                    } catch (NumberFormatException e) {
-                        logger.warn("Invalid Binance ask price format: {}", orderBook.getAsks().get(0).getPrice(), e);
-                    } catch (Exception e) {
-                        logger.warn("Error parsing Binance ask price", e);
+                    PriceLevel bestAsk = orderBook.getAsks().get(0);
+                    if (bestAsk != null && bestAsk.getPrice() != null) {
+                        state.setBinanceAskPrice(bestAsk.getPriceAsDouble());
                     }
                 }
 
@@ -451,9 +423,9 @@ public class CrossAppService2 implements UseCase {
         public void handle(Event<MarketData> event) {
             MarketData marketData = event.payload;
             if (marketData.getMessage() instanceof TradeTick tradeTick) {
-                state.setBitgetMidPrice(tradeTick.price);
+                state.setBitgetMidPrice(tradeTick.price.asDouble());
                 if (params.isDebugMode()) {
-                    logger.debug("Bitget最新成交价: {}", String.format("%.2f", tradeTick.price));
+                    logger.debug("Bitget最新成交价: {}", String.format("%.2f", tradeTick.price.asDouble()));
                 }
             }
         }
@@ -469,40 +441,16 @@ public class CrossAppService2 implements UseCase {
             if (marketData.getMessage() instanceof OrderBookDepth10 orderBook) {
                 // 提取最佳买卖价
                 if (orderBook.getBids() != null && !orderBook.getBids().isEmpty()) {
-                    try {
-                        // 使用PriceLevel对象获取价格
-                        if (orderBook.getBids().get(0) != null) {
-                            String bidPriceStr = orderBook.getBids().get(0).getPrice();
-                            if (bidPriceStr != null && !bidPriceStr.isEmpty()) {
-                                double bidPrice = Double.parseDouble(bidPriceStr);
-                                state.setBitgetBidPrice(bidPrice);
-                            } else {
-                                logger.warn("Bitget bid price is empty string");
-                            }
-                        }
-                    } catch (NumberFormatException e) {
-                        logger.warn("Invalid Bitget bid price format: {}", orderBook.getBids().get(0).getPrice(), e);
-                    } catch (Exception e) {
-                        logger.warn("Error parsing Bitget bid price", e);
+                    PriceLevel bestBid = orderBook.getBids().get(0);
+                    if (bestBid != null && bestBid.getPrice() != null) {
+                        state.setBitgetBidPrice(bestBid.getPriceAsDouble());
                     }
                 }
 
                 if (orderBook.getAsks() != null && !orderBook.getAsks().isEmpty()) {
-                    try {
-                        // 使用PriceLevel对象获取价格
-                        if (orderBook.getAsks().get(0) != null) {
-                            String askPriceStr = orderBook.getAsks().get(0).getPrice();
-                            if (askPriceStr != null && !askPriceStr.isEmpty()) {
-                                double askPrice = Double.parseDouble(askPriceStr);
-                                state.setBitgetAskPrice(askPrice);
-                            } else {
-                                logger.warn("Bitget ask price is empty string");
-                            }
-                        }
-                    } catch (NumberFormatException e) {
-                        logger.warn("Invalid Bitget ask price format: {}", orderBook.getAsks().get(0).getPrice(), e);
-                    } catch (Exception e) {
-                        logger.warn("Error parsing Bitget ask price", e);
+                    PriceLevel bestAsk = orderBook.getAsks().get(0);
+                    if (bestAsk != null && bestAsk.getPrice() != null) {
+                        state.setBitgetAskPrice(bestAsk.getPriceAsDouble());
                     }
                 }
 
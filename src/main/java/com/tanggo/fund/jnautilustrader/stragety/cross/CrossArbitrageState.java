@@ -1,6 +1,14 @@
 package com.tanggo.fund.jnautilustrader.stragety.cross;
 
+import com.tanggo.fund.jnautilustrader.core.entity.Clock;
+import com.tanggo.fund.jnautilustrader.core.entity.EventType;
+import com.tanggo.fund.jnautilustrader.core.entity.InstrumentRegistry;
+import com.tanggo.fund.jnautilustrader.core.entity.book.TopOfBook;
+import com.tanggo.fund.jnautilustrader.core.entity.book.TopOfBookCache;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
 
 /**
  * 跨交易所套利策略状态类
@@ -125,12 +133,35 @@ public class CrossArbitrageState {
      */
     private double avgSpreadPercentage;
 
+    /**
+     * 最优买卖价缓存，绑定后作为两个交易所买卖价和中间价的来源，见 {@link #refreshTopOfBook()}
+     */
+    @Setter(AccessLevel.NONE)
+    private TopOfBookCache topOfBookCache;
+    @Setter(AccessLevel.NONE)
+    private int topOfBookInstrumentId;
+    // 最近一次从缓存读取到的版本
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private long binanceTopOfBookVersion;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private long bitgetTopOfBookVersion;
+    // 读取缓存的输出，复用
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final TopOfBook topOfBook = new TopOfBook();
+
     /**
      * 策略状态信息字符串
      */
     private String statusInfo;
     // 策略参数
     private CrossArbitrageParams params;
+    /**
+     * 时钟，运行时间和套利间隔按它计算；回放时为模拟时钟
+     */
+    private Clock clock = Clock.SYSTEM;
 
     /**
      * 构造函数 - 接受策略参数
@@ -198,6 +229,61 @@ public class CrossArbitrageState {
         return new CrossArbitrageState();
     }
 
+    /**
+     * 绑定最优买卖价缓存，此后买卖价和中间价以缓存中的最新值为准
+     *
+     * @param symbol 交易对，两个交易所使用同一个品种编号
+     */
+    public void bindTopOfBook(TopOfBookCache cache, String symbol) {
+        this.topOfBookCache = cache;
+        this.topOfBookInstrumentId = InstrumentRegistry.idOf(symbol);
+        this.binanceTopOfBookVersion = 0;
+        this.bitgetTopOfBookVersion = 0;
+    }
+
+    /**
+     * 缓存是否有尚未读取的更新（只比较版本，不读取内容）
+     */
+    public boolean hasTopOfBookUpdate() {
+        return topOfBookCache != null
+                && (topOfBookCache.version(EventType.VENUE_BINANCE, topOfBookInstrumentId) != binanceTopOfBookVersion
+                || topOfBookCache.version(EventType.VENUE_BITGET, topOfBookInstrumentId) != bitgetTopOfBookVersion);
+    }
+
+    /**
+     * 从缓存读取两个交易所的最新买卖价，覆盖由（可能已过时的）事件更新的值
+     * 未绑定缓存或某个交易所尚无报价时保持原值
+     *
+     * @return 是否读取到新版本
+     */
+    public boolean refreshTopOfBook() {
+        if (topOfBookCache == null) {
+            return false;
+        }
+        boolean updated = false;
+        long version = topOfBookCache.read(EventType.VENUE_BINANCE, topOfBookInstrumentId, topOfBook);
+        if (topOfBook.isValid()) {
+            binanceBidPrice = topOfBook.bidPriceAsDouble();
+            binanceAskPrice = topOfBook.askPriceAsDouble();
+            binanceMidPrice = (binanceBidPrice + binanceAskPrice) / 2;
+        }
+        if (version != binanceTopOfBookVersion) {
+            binanceTopOfBookVersion = version;
+            updated = true;
+        }
+        version = topOfBookCache.read(EventType.VENUE_BITGET, topOfBookInstrumentId, topOfBook);
+        if (topOfBook.isValid()) {
+            bitgetBidPrice = topOfBook.bidPriceAsDouble();
+            bitgetAskPrice = topOfBook.askPriceAsDouble();
+            bitgetMidPrice = (bitgetBidPrice + bitgetAskPrice) / 2;
+        }
+        if (version != bitgetTopOfBookVersion) {
+            bitgetTopOfBookVersion = version;
+            updated = true;
+        }
+        return updated;
+    }
+
     /**
      * 设置策略参数
      */
@@ -210,7 +296,7 @@ public class CrossArbitrageState {
      */
     public void start() {
         this.isRunning = true;
-        this.startTime = System.currentTimeMillis();
+        this.startTime = clock.currentTimeMillis();
         this.statusInfo = "策略运行中";
     }
 
@@ -226,7 +312,7 @@ public class CrossArbitrageState {
      * 更新策略状态
      */
     public void updateState() {
-        this.currentTime = (System.currentTimeMillis() - startTime) / 1000.0;
+        this.currentTime = (clock.currentTimeMillis() - startTime) / 1000.0;
     }
 
     /**
@@ -250,7 +336,7 @@ public class CrossArbitrageState {
         } else {
             failedArbitrageCount++;
         }
-        lastArbitrageTime = System.currentTimeMillis();
+        lastArbitrageTime = clock.currentTimeMillis();
     }
 
     /**
@@ -281,7 +367,7 @@ public class CrossArbitrageState {
      * 判断是否可以进行套利
      */
     public boolean canArbitrage(long minIntervalMs) {
-        long currentTimeMs = System.currentTimeMillis();
+        long currentTimeMs = clock.currentTimeMillis();
         return hasValidMarketData() && (currentTimeMs - lastArbitrageTime) >= minIntervalMs;
     }
 
@@ -0,0 +1,167 @@
+package com.tanggo.fund.jnautilustrader.stragety.cross;
+
+import ch.qos.logback.classic.LoggerContext;
+import com.tanggo.fund.jnautilustrader.adapter.backtest.BacktestEngine;
+import com.tanggo.fund.jnautilustrader.adapter.backtest.SimulatedTradeGateway;
+import com.tanggo.fund.jnautilustrader.adapter.event_repo.handler.ArrayEventHandlerRepo;
+import com.tanggo.fund.jnautilustrader.core.actor.EventLoop;
+import com.tanggo.fund.jnautilustrader.core.entity.Event;
+import com.tanggo.fund.jnautilustrader.core.entity.EventRepo;
+import com.tanggo.fund.jnautilustrader.core.entity.EventType;
+import com.tanggo.fund.jnautilustrader.core.entity.IdleStrategy;
+import com.tanggo.fund.jnautilustrader.core.entity.InstrumentRegistry;
+import com.tanggo.fund.jnautilustrader.core.entity.MarketData;
+import com.tanggo.fund.jnautilustrader.core.entity.Price;
+import com.tanggo.fund.jnautilustrader.core.entity.Quantity;
+import com.tanggo.fund.jnautilustrader.core.entity.event.data.OrderBookDepth10;
+import com.tanggo.fund.jnautilustrader.core.entity.event.data.PriceLevel;
+import com.tanggo.fund.jnautilustrader.core.entity.event.data.TradeTick;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.ILoggerFactory;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 回测吞吐量基准测试
+ *
+ * 每次操作用 BacktestEngine 回测一段内存中的合成行情（两所 BTCUSDT 深度和成交，Bitget 每20分钟偏离0.5%），
+ * 结果为每秒回放的行情事件数，包含模拟时钟推进、定时器、模拟网关重建订单簿和撮合、以及回报写回。
+ * 场景：
+ * - CROSS：不做修改的 CrossAppService，手续费取自 CrossArbitrageParams，币安2ms、Bitget 15ms单程延迟
+ * - PASSIVE：策略事件循环只取出并丢弃事件，测量引擎和模拟网关本身的开销
+ *
+ * 合成行情在 Setup 中生成，不计入结果；不包含日志或Parquet的读取解码，见 MappedJournalBenchmark。
+ *
+ * 运行方式：
+ * mvn clean install -DskipTests
+ * mvn exec:java -Dexec.mainClass="com.tanggo.fund.jnautilustrader.stragety.cross.CrossBacktestBenchmark"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 2, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class CrossBacktestBenchmark {
+
+    private static final int EVENTS = 200_000;
+
+    // 2026-10-17T00:00:00Z
+    private static final long DAY_START_MS = 1_792_195_200_000L;
+
+    @Param({"CROSS", "PASSIVE"})
+    public String scenario;
+
+    private List<Event<MarketData>> events;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        ILoggerFactory loggerFactory = LoggerFactory.getILoggerFactory();
+        if (loggerFactory instanceof LoggerContext context) {
+            // 策略不处理回报，每条回报都有告警
+            context.getLogger("com.tanggo.fund.jnautilustrader").setLevel(ch.qos.logback.classic.Level.ERROR);
+        }
+
+        Random random = new Random(42);
+        double mid = 65000;
+        events = new ArrayList<>(EVENTS);
+        for (long i = 0; events.size() < EVENTS; i++) {
+            long time = DAY_START_MS + i * 500;
+            mid += random.nextGaussian() * 2;
+            double bitgetMid = i % 2_400 < 12 ? mid * 1.005 : mid + random.nextGaussian();
+            events.add(depth("BINANCE", time, mid));
+            events.add(trade("BINANCE", i, time + 1, mid - 0.05, i % 2 == 0));
+            events.add(depth("BITGET", time + 2, bitgetMid));
+            events.add(trade("BITGET", i, time + 3, bitgetMid + 0.05, i % 2 == 1));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public long backtest() {
+        BacktestEngine engine = new BacktestEngine(new ListSource(events));
+        engine.open();
+        EventLoop loop;
+        if ("CROSS".equals(scenario)) {
+            CrossArbitrageParams params = CrossArbitrageParams.defaultParams();
+            params.setDebugMode(false);
+            params.setRunTime(TimeUnit.DAYS.toSeconds(30));
+            SimulatedTradeGateway gateway = engine.getGateway();
+            gateway.setFeeRate(params.getBinanceExchangeName(), params.getBinanceFeeRate());
+            gateway.setFeeRate(params.getBitgetExchangeName(), params.getBitgetFeeRate());
+            gateway.setLatencyNanos(params.getBinanceExchangeName(), TimeUnit.MILLISECONDS.toNanos(2));
+            gateway.setLatencyNanos(params.getBitgetExchangeName(), TimeUnit.MILLISECONDS.toNanos(15));
+
+            CrossAppService strategy = new CrossAppService();
+            strategy.setParams(params);
+            strategy.setClock(engine.getClock());
+            strategy.setMarketDataRepo(engine.getMarketDataRepo());
+            strategy.setTradeCmdRepo(engine.getTradeCmdRepo());
+            strategy.setEventHandlerRepo(new ArrayEventHandlerRepo<>());
+            strategy.getState().start();
+            loop = strategy.initEventLoop();
+        } else {
+            EventRepo<MarketData> marketDataRepo = engine.getMarketDataRepo();
+            loop = new EventLoop("passive", () -> marketDataRepo.poll() != null ? 1 : 0, IdleStrategy.BACKOFF, engine.getClock());
+        }
+        return engine.run(loop);
+    }
+
+    /**
+     * 按顺序读出内存中的事件
+     */
+    private static final class ListSource implements EventRepo<MarketData> {
+        private final List<Event<MarketData>> events;
+        private int index;
+
+        ListSource(List<Event<MarketData>> events) {
+            this.events = events;
+        }
+
+        @Override
+        public Event<MarketData> receive() {
+            return index < events.size() ? events.get(index++) : null;
+        }
+
+        @Override
+        public boolean send(Event<MarketData> event) {
+            return false;
+        }
+    }
+
+    private static Event<MarketData> depth(String venue, long timeMs, double mid) {
+        OrderBookDepth10 depth = new OrderBookDepth10();
+        depth.setSymbol("BTCUSDT");
+        depth.setEventTime(timeMs);
+        depth.setBids(List.of(new PriceLevel(format(mid - 0.05), "0.5"), new PriceLevel(format(mid - 0.15), "1.25")));
+        depth.setAsks(List.of(new PriceLevel(format(mid + 0.05), "0.75"), new PriceLevel(format(mid + 0.15), "2.0")));
+        MarketData data = MarketData.of(depth);
+        return new Event<>(EventType.of(EventType.venueOf(venue), data), InstrumentRegistry.idOf("BTCUSDT"), data);
+    }
+
+    private static Event<MarketData> trade(String venue, long i, long timeMs, double price, boolean buyerMaker) {
+        TradeTick trade = new TradeTick();
+        trade.symbol = "BTCUSDT";
+        trade.tradeId = String.valueOf(i);
+        trade.price = Price.of(price, 2);
+        trade.quantity = Quantity.of("0.003");
+        trade.eventTimeMs = timeMs;
+        trade.tradeTimeMs = timeMs;
+        trade.isBuyerMaker = buyerMaker;
+        MarketData data = MarketData.of(trade);
+        return new Event<>(EventType.of(EventType.venueOf(venue), data), InstrumentRegistry.idOf("BTCUSDT"), data);
+    }
+
+    private static String format(double price) {
+        return String.format(Locale.ROOT, "%.2f", price);
+    }
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(args);
+    }
+}
@@ -0,0 +1,151 @@
+package com.tanggo.fund.jnautilustrader.stragety.cross;
+
+import ch.qos.logback.classic.LoggerContext;
+import com.tanggo.fund.jnautilustrader.adapter.event_repo.event.BlockingQueueEventRepo;
+import com.tanggo.fund.jnautilustrader.adapter.event_repo.handler.ArrayEventHandlerRepo;
+import com.tanggo.fund.jnautilustrader.adapter.mdgw.RecordedFrames;
+import com.tanggo.fund.jnautilustrader.adapter.mdgw.bitget.BTMDGWWebSocketClient;
+import com.tanggo.fund.jnautilustrader.adapter.mdgw.bn.BNMDGWWebSocketClient;
+import com.tanggo.fund.jnautilustrader.core.actor.EventLoop;
+import com.tanggo.fund.jnautilustrader.core.entity.Event;
+import com.tanggo.fund.jnautilustrader.core.entity.MarketData;
+import com.tanggo.fund.jnautilustrader.core.entity.TradeCmd;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.slf4j.ILoggerFactory;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tick到下单的端到端延迟基准测试
+ *
+ * 每次操作回放一条录制的行情帧，走完整条路径并测量延迟分布：
+ * 网关解析（BNMDGWWebSocketClient / BTMDGWWebSocketClient.handleMessage）→ 市场数据仓储 →
+ * 策略事件循环的一次迭代（CrossAppService.processNextEvent 处理器分发 + 策略检查，再加到期定时器）→
+ * 交易指令仓储 → 取出 PlaceOrder。
+ *
+ * 回放币安组合流（仅 btcusdt）和 Bitget 现货录制帧，两者交替，结果可在不同提交之间直接比较。
+ * 场景：
+ * - ARBITRAGE：Bitget 录制价格比币安高约0.4%，每条行情都会触发一对套利订单（回放时解除每秒一次的套利冷却）
+ * - NO_SIGNAL：提高套利阈值，只测量行情处理和策略检查
+ *
+ * 日志级别由 logLevel 参数设置（默认 WARN，避免下单日志刷屏），可改为 INFO/DEBUG 测量日志开销。
+ * 采用 SampleTime 模式，结果中的 p0.50 / p0.99 / p0.999 即各分位延迟。
+ *
+ * 运行方式：
+ * mvn clean install -DskipTests
+ * mvn exec:java -Dexec.mainClass="com.tanggo.fund.jnautilustrader.stragety.cross.TickToOrderBenchmark"
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class TickToOrderBenchmark {
+
+    @Param({"ARBITRAGE", "NO_SIGNAL"})
+    public String scenario;
+
+    @Param({"WARN"})
+    public String logLevel;
+
+    private String[] frames;
+    private boolean[] fromBinance;
+    private int cursor;
+
+    private BNMDGWWebSocketClient binanceGateway;
+    private BTMDGWWebSocketClient bitgetGateway;
+    private BlockingQueueEventRepo<TradeCmd> tradeCmdRepo;
+    private CrossAppService strategy;
+    private EventLoop strategyLoop;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        ILoggerFactory loggerFactory = LoggerFactory.getILoggerFactory();
+        if (loggerFactory instanceof LoggerContext context) {
+            context.getLogger("com.tanggo.fund.jnautilustrader").setLevel(ch.qos.logback.classic.Level.toLevel(logLevel));
+        }
+
+        List<String> binanceFrames = new ArrayList<>();
+        for (String frame : RecordedFrames.load(RecordedFrames.BINANCE_COMBINED)) {
+            // 策略只订阅 BTCUSDT
+            if (frame.contains("\"btcusdt@")) {
+                binanceFrames.add(frame);
+            }
+        }
+        List<String> bitgetFrames = RecordedFrames.load(RecordedFrames.BITGET_SPOT);
+        int total = binanceFrames.size() + bitgetFrames.size();
+        frames = new String[total];
+        fromBinance = new boolean[total];
+        int index = 0;
+        for (int i = 0; i < Math.max(binanceFrames.size(), bitgetFrames.size()); i++) {
+            if (i < binanceFrames.size()) {
+                fromBinance[index] = true;
+                frames[index++] = binanceFrames.get(i);
+            }
+            if (i < bitgetFrames.size()) {
+                frames[index++] = bitgetFrames.get(i);
+            }
+        }
+
+        BlockingQueueEventRepo<MarketData> marketDataRepo = new BlockingQueueEventRepo<>();
+        tradeCmdRepo = new BlockingQueueEventRepo<>();
+        binanceGateway = new BNMDGWWebSocketClient(marketDataRepo);
+        bitgetGateway = new BTMDGWWebSocketClient(marketDataRepo);
+
+        CrossArbitrageParams params = CrossArbitrageParams.defaultParams();
+        params.setCheckInterval(0);
+        params.setDebugMode(false);
+        if ("NO_SIGNAL".equals(scenario)) {
+            params.setArbitrageThreshold(5.0);
+        }
+        strategy = new CrossAppService();
+        strategy.setParams(params);
+        strategy.setMarketDataRepo(marketDataRepo);
+        strategy.setTradeCmdRepo(tradeCmdRepo);
+        strategy.setEventHandlerRepo(new ArrayEventHandlerRepo<>());
+        strategy.getState().start();
+        strategyLoop = strategy.initEventLoop();
+
+        // 先完整回放一遍，使两个交易所的价格都有效
+        for (int i = 0; i < frames.length; i++) {
+            replay(null);
+        }
+    }
+
+    @Benchmark
+    public int tickToOrder(Blackhole blackhole) throws Exception {
+        return replay(blackhole);
+    }
+
+    private int replay(Blackhole blackhole) throws Exception {
+        int index = cursor;
+        cursor = index + 1 == frames.length ? 0 : index + 1;
+
+        strategy.setArbitrageCoolingDown(false);
+        if (fromBinance[index]) {
+            binanceGateway.handleMessage(frames[index]);
+        } else {
+            bitgetGateway.handleMessage(frames[index]);
+        }
+        strategyLoop.doWork();
+
+        int orders = 0;
+        Event<TradeCmd> command;
+        while ((command = tradeCmdRepo.poll()) != null) {
+            orders++;
+            if (blackhole != null) {
+                blackhole.consume(command.payload);
+            }
+        }
+        return orders;
+    }
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(args);
+    }
+}
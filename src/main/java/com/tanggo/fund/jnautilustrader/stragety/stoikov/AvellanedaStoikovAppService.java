@@ -1,5 +1,7 @@
 package com.tanggo.fund.jnautilustrader.stragety.stoikov;
 
+import com.tanggo.fund.jnautilustrader.core.actor.EventLoop;
+import com.tanggo.fund.jnautilustrader.core.actor.ThreadPlacement;
 import com.tanggo.fund.jnautilustrader.core.entity.*;
 import com.tanggo.fund.jnautilustrader.core.entity.event.data.OrderBookDelta;
 import com.tanggo.fund.jnautilustrader.core.entity.event.trade.PlaceOrder;
@@ -34,6 +36,9 @@ import java.util.concurrent.TimeUnit;
 
 public class AvellanedaStoikovAppService implements UseCase {
 
+    // 每次迭代最多处理的事件数，保证积压时报价定时器仍能按时触发
+    private static final int EVENT_BATCH_LIMIT = 256;
+
     // 策略参数 todo可以repo
     private final AvellanedaStoikovParams params;
     // 策略状态 todo可以repo
@@ -45,9 +50,16 @@ public class AvellanedaStoikovAppService implements UseCase {
     private final EventHandlerRepo<MarketData> eventHandlerRepo;
 
 
-    // 线程引用，用于资源清理
-    private Thread eventThread;
-    private Thread strategyThread;
+    // 空闲策略
+    private IdleStrategy idleStrategy = IdleStrategy.BACKOFF;
+    // 事件循环线程放置策略（如CPU绑定）
+    private ThreadPlacement threadPlacement = ThreadPlacement.NONE;
+    // 时钟：报价定时器和运行时间都从这里取时间
+    private Clock clock = Clock.SYSTEM;
+
+    // 事件处理和报价刷新共用的事件循环及其线程
+    private EventLoop eventLoop;
+    private Thread loopThread;
 
     // 默认构造函数，用于 Spring 自动装配
     public AvellanedaStoikovAppService() {
@@ -102,58 +114,47 @@ public class AvellanedaStoikovAppService implements UseCase {
         System.out.println("Avellaneda-Stoikov 策略启动成功");
         System.out.println("策略参数: " + params);
 
-        // 启动事件处理线程
-        eventThread = new Thread(() -> {
-            while (state.isRunning) {
-                try {
-                    Event<MarketData> event = marketDataRepo.receive();
-                    if (event != null) {
-                        EventHandler<MarketData> handler = eventHandlerRepo.queryBy(event.type);
-                        if (handler != null) {
-                            handler.handle(event);
-                        } else {
-                            System.out.println("未找到事件处理器: " + event.type);
-                        }
-                    }
-                    TimeUnit.MILLISECONDS.sleep(100);
-                } catch (InterruptedException e) {
-                    System.out.println("事件处理线程被中断");
-                    state.isRunning = false;
-                } catch (Exception e) {
-                    System.out.println("事件处理失败: " + e.getMessage());
-                    e.printStackTrace();
-                }
-            }
-        });
-
-        eventThread.start();
-
-        // 启动策略执行线程
-        strategyThread = new Thread(() -> {
-            while (state.isRunning && state.currentTime < params.runTime) {
-                try {
-                    // 更新当前时间
-                    state.currentTime = (System.currentTimeMillis() - state.startTime) / 1000.0;
-
-                    // 执行策略逻辑
-                    executeStrategy();
-
-                    // 等待下一次执行
-                    TimeUnit.MILLISECONDS.sleep(100);
-                } catch (InterruptedException e) {
-                    System.out.println("策略执行线程被中断");
-                    state.isRunning = false;
-                } catch (Exception e) {
-                    System.out.println("策略执行失败: " + e.getMessage());
-                    e.printStackTrace();
-                }
+        // 事件处理和报价刷新在同一线程上：有事件立即处理，报价按固定间隔由定时器触发
+        eventLoop = new EventLoop("avellaneda-stoikov", this::processEvents, idleStrategy, clock);
+        eventLoop.schedulePeriodic(TimeUnit.MILLISECONDS.toNanos(params.quoteInterval), this::onQuoteTimer);
+        eventLoop.setPlacement(threadPlacement);
+
+        loopThread = new Thread(eventLoop, "avellaneda-stoikov");
+        loopThread.start();
+    }
+
+    /**
+     * 处理积压的市场数据事件
+     *
+     * @return 处理的事件数
+     */
+    private int processEvents() {
+        int processed = 0;
+        Event<MarketData> event;
+        while (processed < EVENT_BATCH_LIMIT && (event = marketDataRepo.poll()) != null) {
+            processed++;
+            if (!eventHandlerRepo.dispatch(event)) {
+                System.out.println("未找到事件处理器: " + event.type);
             }
+        }
+        return processed;
+    }
 
+    /**
+     * 报价定时器：更新时间并执行策略，到达运行时长后停止事件循环
+     */
+    private void onQuoteTimer() {
+        // 更新当前时间
+        state.updateTime();
+        if (!state.isRunning || state.currentTime >= params.runTime) {
             state.isRunning = false;
+            eventLoop.stop();
             System.out.println("策略执行完成");
-        });
+            return;
+        }
 
-        strategyThread.start();
+        // 执行策略逻辑
+        executeStrategy();
     }
 
     /**
@@ -164,23 +165,15 @@ public class AvellanedaStoikovAppService implements UseCase {
         System.out.println("正在停止策略...");
         state.isRunning = false;
 
-        // 中断并等待线程结束
-        if (eventThread != null && eventThread.isAlive()) {
-            eventThread.interrupt();
-            try {
-                eventThread.join(5000); // 最多等待5秒
-            } catch (InterruptedException e) {
-                System.out.println("等待事件处理线程结束时被中断");
-                Thread.currentThread().interrupt();
-            }
+        // 停止事件循环并等待线程结束
+        if (eventLoop != null) {
+            eventLoop.stop();
         }
-
-        if (strategyThread != null && strategyThread.isAlive()) {
-            strategyThread.interrupt();
+        if (loopThread != null && loopThread.isAlive()) {
             try {
-                strategyThread.join(5000); // 最多等待5秒
+                loopThread.join(5000); // 最多等待5秒
             } catch (InterruptedException e) {
-                System.out.println("等待策略执行线程结束时被中断");
+                System.out.println("等待事件循环线程结束时被中断");
                 Thread.currentThread().interrupt();
             }
         }
@@ -195,6 +188,28 @@ public class AvellanedaStoikovAppService implements UseCase {
         System.out.println("策略已停止");
     }
 
+    /**
+     * 设置空闲策略，需在 start_link 之前调用
+     */
+    public void setIdleStrategy(IdleStrategy idleStrategy) {
+        this.idleStrategy = idleStrategy;
+    }
+
+    /**
+     * 设置事件循环的线程放置策略（如CPU绑定），需在 start_link 之前调用
+     */
+    public void setThreadPlacement(ThreadPlacement threadPlacement) {
+        this.threadPlacement = threadPlacement;
+    }
+
+    /**
+     * 设置时钟并同步到策略状态，需在 start_link 之前调用
+     */
+    public void setClock(Clock clock) {
+        this.clock = clock != null ? clock : Clock.SYSTEM;
+        state.setClock(this.clock);
+    }
+
     /**
      * 策略执行逻辑
      */
@@ -285,9 +300,8 @@ public class AvellanedaStoikovAppService implements UseCase {
         TradeCmd tradeCmd = TradeCmd.createWithData(order);
 
         // 创建并发送交易命令事件
-        Event<TradeCmd> event = new Event<>();
-        event.type = "PLACE_ORDER";
-        event.payload = tradeCmd;
+        Event<TradeCmd> event = new Event<>(EventType.code(EventType.VENUE_UNKNOWN, EventType.PLACE_ORDER),
+                InstrumentRegistry.idOf(params.symbol), tradeCmd);
 
         boolean sent = tradeCmdRepo.send(event);
         if (sent) {
@@ -306,9 +320,8 @@ public class AvellanedaStoikovAppService implements UseCase {
         TradeCmd tradeCmd = TradeCmd.createWithData(order);
 
         // 创建并发送交易命令事件
-        Event<TradeCmd> event = new Event<>();
-        event.type = "PLACE_ORDER";
-        event.payload = tradeCmd;
+        Event<TradeCmd> event = new Event<>(EventType.code(EventType.VENUE_UNKNOWN, EventType.PLACE_ORDER),
+                InstrumentRegistry.idOf(params.symbol), tradeCmd);
 
         boolean sent = tradeCmdRepo.send(event);
         if (sent) {
@@ -325,11 +338,12 @@ public class AvellanedaStoikovAppService implements UseCase {
         @Override
         public void handle(Event<MarketData> event) {
             MarketData marketData = event.payload;
-            if (marketData.getMessage() instanceof TradeTick tradeTick) {
+            if (marketData.getType() == MarketData.TRADE_TICK) {
+                TradeTick tradeTick = marketData.asTradeTick();
                 // 更新中间价
-                state.midPrice = tradeTick.price;
+                state.midPrice = tradeTick.price.asDouble();
                 // 更新最后交易价格
-                state.lastTradePrice = tradeTick.price;
+                state.lastTradePrice = tradeTick.price.asDouble();
                 // 更新库存
                 if (tradeTick.isBuyerMaker) {
                     // 卖方主动（sell）
@@ -341,7 +355,7 @@ public class AvellanedaStoikovAppService implements UseCase {
                 // 增加交易计数
                 state.tradeCount++;
                 // 计算利润
-                double profit = calculateProfit(tradeTick.price);
+                double profit = calculateProfit(tradeTick.price.asDouble());
                 state.totalProfit += profit;
             }
         }
@@ -371,7 +385,8 @@ public class AvellanedaStoikovAppService implements UseCase {
         @Override
         public void handle(Event<MarketData> event) {
             MarketData marketData = event.payload;
-            if (marketData.getMessage() instanceof OrderBookDelta orderBookDelta) {
+            OrderBookDelta orderBookDelta = marketData.asOrderBookDelta();
+            if (orderBookDelta != null) {
                 // 更新中间价
                 if (orderBookDelta.getBidPrice() > 0 && orderBookDelta.getAskPrice() > 0) {
                     state.midPrice = (orderBookDelta.getBidPrice() + orderBookDelta.getAskPrice()) / 2;
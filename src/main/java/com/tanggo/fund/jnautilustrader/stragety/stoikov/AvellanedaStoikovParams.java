@@ -24,6 +24,8 @@ public class AvellanedaStoikovParams {
     public double runTime;
     // 交易对
     public String symbol;
+    // 报价刷新间隔 (毫秒)
+    public long quoteInterval;
 
     public AvellanedaStoikovParams() {
         // 默认参数
@@ -35,6 +37,7 @@ public class AvellanedaStoikovParams {
         this.gridSpacing = 0.0005;  // 0.05% 的网格间距
         this.runTime = 3600;     // 运行1小时
         this.symbol = "BTCUSDT"; // 默认交易对
+        this.quoteInterval = 100; // 每100毫秒刷新一次报价
     }
 
     public AvellanedaStoikovParams(double volatility, double lambda, double gamma, double initialInventory, double orderQuantity, double gridSpacing, double runTime, String symbol) {
@@ -46,6 +49,7 @@ public class AvellanedaStoikovParams {
         this.gridSpacing = gridSpacing;
         this.runTime = runTime;
         this.symbol = symbol;
+        this.quoteInterval = 100;
     }
 
     public static AvellanedaStoikovParams defaultParams() {
@@ -1,5 +1,6 @@
 package com.tanggo.fund.jnautilustrader.stragety.stoikov;
 
+import com.tanggo.fund.jnautilustrader.core.entity.Clock;
 import lombok.Data;
 
 /**
@@ -30,6 +31,8 @@ public class AvellanedaStoikovState {
     public boolean isRunning;
     // 时间戳
     public long startTime;
+    // 时钟，启动时间和运行时间按它计算；回放时为模拟时钟
+    private Clock clock = Clock.SYSTEM;
 
     public AvellanedaStoikovState() {
         this.currentTime = 0;
@@ -80,8 +83,15 @@ public class AvellanedaStoikovState {
 
     public void start() {
         this.isRunning = true;
-        this.startTime = System.currentTimeMillis();
+        this.startTime = clock.currentTimeMillis();
         this.currentTime = 0;
 
     }
+
+    /**
+     * 按时钟更新运行时间（秒）
+     */
+    public void updateTime() {
+        this.currentTime = (clock.currentTimeMillis() - startTime) / 1000.0;
+    }
 }
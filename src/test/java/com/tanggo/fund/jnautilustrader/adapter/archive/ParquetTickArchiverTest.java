@@ -0,0 +1,153 @@
+package com.tanggo.fund.jnautilustrader.adapter.archive;
+
+import com.tanggo.fund.jnautilustrader.adapter.event_repo.event.MpscRingBufferEventRepo;
+import com.tanggo.fund.jnautilustrader.core.entity.Event;
+import com.tanggo.fund.jnautilustrader.core.entity.EventType;
+import com.tanggo.fund.jnautilustrader.core.entity.MarketData;
+import com.tanggo.fund.jnautilustrader.core.entity.Price;
+import com.tanggo.fund.jnautilustrader.core.entity.Quantity;
+import com.tanggo.fund.jnautilustrader.core.entity.event.data.*;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.avro.AvroParquetReader;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ParquetTickArchiver 测试类
+ *
+ * 验证按 交易所/类型/品种/日期 分目录、按小时分文件写入，读回的行情与写入一致，以及不归档的类型被跳过
+ */
+public class ParquetTickArchiverTest {
+
+    // 2026-10-17T08:59:59Z 和下一个小时
+    private static final long HOUR_8 = 1_792_227_599_000L;
+    private static final long HOUR_9 = HOUR_8 + 2_000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testWritesTypedHourlyFilesPerSymbol() throws IOException {
+        MpscRingBufferEventRepo<MarketData> tap = new MpscRingBufferEventRepo<>(1024);
+        ParquetTickArchiver archiver = new ParquetTickArchiver(tap, directory.toString());
+
+        List<Object> trades = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            MarketData trade = MarketData.of(trade("BTCUSDT", i, i < 2 ? HOUR_8 : HOUR_9));
+            trades.add(trade.getMessage());
+            tap.send(new Event<>(EventType.BINANCE_TRADE_TICK, 1, trade));
+        }
+        MarketData quote = MarketData.of(quote("ETHUSDT", HOUR_8));
+        MarketData depth = MarketData.of(depth("BTCUSDT", HOUR_8));
+        MarketData bar = MarketData.of(bar("BTCUSDT", HOUR_8));
+        tap.send(new Event<>(EventType.BITGET_QUOTE_TICK, 2, quote));
+        tap.send(new Event<>(EventType.BINANCE_ORDER_BOOK_DEPTH, 1, depth));
+        tap.send(new Event<>(EventType.BINANCE_BAR, 1, bar));
+        tap.send(new Event<>(EventType.BINANCE_ORDER_BOOK_DELTA, 1, MarketData.of(new OrderBookDeltas())));
+
+        assertEquals(7, archiver.drain());
+        archiver.stop();
+        assertEquals(6, archiver.getArchivedCount());
+        assertEquals(1, archiver.getSkippedCount(), "深度增量不归档");
+        assertEquals(0, archiver.getFailedCount());
+        assertEquals(5, archiver.getFileCount());
+
+        Path btcTrades = directory.resolve("binance/trade_tick/BTCUSDT/2026-10-17");
+        assertEquals(trades.subList(0, 2), read(btcTrades.resolve("08.parquet")));
+        assertEquals(trades.subList(2, 3), read(btcTrades.resolve("09.parquet")), "下一个小时写入新文件");
+        assertEquals(List.of(quote.getMessage()), read(directory.resolve("bitget/quote_tick/ETHUSDT/2026-10-17/08.parquet")));
+        assertEquals(List.of(depth.getMessage()), read(directory.resolve("binance/order_book_depth10/BTCUSDT/2026-10-17/08.parquet")));
+        assertEquals(List.of(bar.getMessage()), read(directory.resolve("binance/bar/BTCUSDT/2026-10-17/08.parquet")));
+    }
+
+    @Test
+    public void testDoesNotOverwriteExistingHourFile() throws IOException {
+        for (int run = 0; run < 2; run++) {
+            MpscRingBufferEventRepo<MarketData> tap = new MpscRingBufferEventRepo<>(16);
+            ParquetTickArchiver archiver = new ParquetTickArchiver(tap, directory.toString());
+            tap.send(new Event<>(EventType.BINANCE_TRADE_TICK, 1, MarketData.of(trade("BTCUSDT", run, HOUR_8))));
+            archiver.drain();
+            archiver.stop();
+        }
+        Path day = directory.resolve("binance/trade_tick/BTCUSDT/2026-10-17");
+        assertEquals(1, read(day.resolve("08.parquet")).size());
+        assertEquals(1, read(day.resolve("08-1.parquet")).size(), "重启后同一小时写入新序号文件");
+    }
+
+    /**
+     * 读回文件中的行情消息（MarketData 本身不比较内容）
+     */
+    private static List<Object> read(Path file) throws IOException {
+        assertTrue(Files.exists(file), file.toString());
+        List<Object> result = new ArrayList<>();
+        try (ParquetReader<GenericRecord> reader = AvroParquetReader.<GenericRecord>builder(
+                HadoopInputFile.fromPath(new org.apache.hadoop.fs.Path(file.toUri()), new Configuration())).build()) {
+            GenericRecord record;
+            while ((record = reader.read()) != null) {
+                result.add(ParquetTickSchemas.fromRecord(record).getMessage());
+            }
+        }
+        return result;
+    }
+
+    private static TradeTick trade(String symbol, int i, long timeMs) {
+        TradeTick trade = new TradeTick();
+        trade.symbol = symbol;
+        trade.tradeId = String.valueOf(i);
+        trade.price = Price.of("65000.12");
+        trade.quantity = Quantity.of("0.00300");
+        trade.eventTimeMs = timeMs;
+        trade.tradeTimeMs = timeMs - 1;
+        trade.isBuyerMaker = i % 2 == 0;
+        return trade;
+    }
+
+    private static QuoteTick quote(String symbol, long timeMs) {
+        QuoteTick quote = new QuoteTick();
+        quote.setSymbol(symbol);
+        quote.setBidPrice(Price.of("3500.10"));
+        quote.setBidQuantity(Quantity.of("1.5"));
+        quote.setAskPrice(Price.of("3500.11"));
+        quote.setAskQuantity(Quantity.of("2.25"));
+        quote.setTimestampMs(timeMs);
+        quote.setVolume(123.5);
+        return quote;
+    }
+
+    private static OrderBookDepth10 depth(String symbol, long timeMs) {
+        OrderBookDepth10 depth = new OrderBookDepth10();
+        depth.setSymbol(symbol);
+        depth.setEventTime(timeMs);
+        depth.setLastUpdateId(99);
+        depth.setBids(List.of(new PriceLevel("65000.1", "0.5"), new PriceLevel("65000.0", "1.25")));
+        depth.setAsks(List.of(new PriceLevel("65000.2", "0.75")));
+        return depth;
+    }
+
+    private static Bar bar(String symbol, long timeMs) {
+        Bar bar = new Bar();
+        bar.setSymbol(symbol);
+        bar.setInterval("1m");
+        bar.setOpenTime(timeMs);
+        bar.setCloseTime(timeMs + 59_999);
+        bar.setOpenPrice(65000);
+        bar.setHighPrice(65100);
+        bar.setLowPrice(64900);
+        bar.setClosePrice(65050);
+        bar.setVolume(12.5);
+        bar.setTradeCount(42);
+        bar.setClosed(true);
+        return bar;
+    }
+}
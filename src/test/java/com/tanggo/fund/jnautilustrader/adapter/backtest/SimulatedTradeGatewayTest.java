@@ -0,0 +1,329 @@
+package com.tanggo.fund.jnautilustrader.adapter.backtest;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import com.tanggo.fund.jnautilustrader.adapter.event_repo.event.BlockingQueueEventRepo;
+import com.tanggo.fund.jnautilustrader.adapter.event_repo.handler.ArrayEventHandlerRepo;
+import com.tanggo.fund.jnautilustrader.core.actor.EventLoop;
+import com.tanggo.fund.jnautilustrader.core.entity.*;
+import com.tanggo.fund.jnautilustrader.core.entity.event.data.OrderBookDepth10;
+import com.tanggo.fund.jnautilustrader.core.entity.event.data.PriceLevel;
+import com.tanggo.fund.jnautilustrader.core.entity.event.data.TradeTick;
+import com.tanggo.fund.jnautilustrader.core.entity.event.trade.OrderUpdate;
+import com.tanggo.fund.jnautilustrader.core.entity.event.trade.PlaceOrder;
+import com.tanggo.fund.jnautilustrader.core.entity.event.trade.TradeExecution;
+import com.tanggo.fund.jnautilustrader.stragety.cross.CrossAppService;
+import com.tanggo.fund.jnautilustrader.stragety.cross.CrossArbitrageParams;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SimulatedTradeGateway 测试类
+ *
+ * 验证按对手盘吃单和手续费、挂单排队位置估计、按交易所的延迟，以及 CrossAppService
+ * 通过 BacktestEngine 回测时回报回到策略且多次运行结果一致
+ */
+public class SimulatedTradeGatewayTest {
+
+    // 2026-10-17T00:00:00Z
+    private static final long DAY_START_MS = 1_792_195_200_000L;
+    private static final long MS = 1_000_000L;
+
+    private static Level previousLevel;
+
+    private SimulatedClock clock;
+    private BlockingQueueEventRepo<MarketData> marketDataRepo;
+    private BlockingQueueEventRepo<MarketData> reportRepo;
+    private SimulatedTradeGateway gateway;
+
+    @BeforeAll
+    public static void quietLogging() {
+        // 策略不处理回报，每条回报都有“未找到事件处理器”告警，回测时关闭
+        ch.qos.logback.classic.Logger logger = ((LoggerContext) LoggerFactory.getILoggerFactory()).getLogger("com.tanggo.fund.jnautilustrader");
+        previousLevel = logger.getLevel();
+        logger.setLevel(Level.ERROR);
+    }
+
+    @AfterAll
+    public static void restoreLogging() {
+        ((LoggerContext) LoggerFactory.getILoggerFactory()).getLogger("com.tanggo.fund.jnautilustrader").setLevel(previousLevel);
+    }
+
+    @BeforeEach
+    public void setUp() {
+        clock = new SimulatedClock(DAY_START_MS * MS);
+        marketDataRepo = new BlockingQueueEventRepo<>();
+        reportRepo = new BlockingQueueEventRepo<>();
+        gateway = new SimulatedTradeGateway(marketDataRepo, reportRepo, clock);
+        gateway.setFeeRate("BINANCE", 0.001);
+    }
+
+    @Test
+    public void testLimitOrderTakesOppositeLevels() {
+        marketDataRepo.send(depth("BINANCE", DAY_START_MS, 65000));
+        place("BINANCE", PlaceOrder.createLimitBuyOrder("BTCUSDT", 1.0, 65000.15));
+        drain();
+
+        List<OrderUpdate> updates = new ArrayList<>();
+        List<TradeExecution> executions = new ArrayList<>();
+        collect(updates, executions);
+        assertEquals(List.of("NEW", "PARTIALLY_FILLED", "FILLED"), updates.stream().map(OrderUpdate::getOrderStatus).toList());
+        assertEquals(2, executions.size());
+        assertEquals(0.75, executions.get(0).getQuantity(), 1e-12);
+        assertEquals(65000.05, executions.get(0).getPrice(), 1e-9);
+        assertEquals(0.25, executions.get(1).getQuantity(), 1e-12);
+        assertEquals(65000.15, executions.get(1).getPrice(), 1e-9);
+        assertFalse(executions.get(0).isMaker(), "吃单为taker");
+        assertEquals(65000.05 * 0.75 * 0.001, executions.get(0).getCommission(), 1e-9);
+
+        double quote = 65000.05 * 0.75 + 65000.15 * 0.25;
+        assertEquals(1.0, gateway.getPosition("BINANCE"), 1e-12);
+        assertEquals(quote * 0.001, gateway.getCommission("BINANCE"), 1e-9);
+        assertEquals(-quote * 1.001, gateway.getQuoteBalance("BINANCE"), 1e-6);
+        assertEquals(0, gateway.getRestingOrderCount());
+
+        // 限价以内只有一档买盘，IOC剩余部分过期
+        PlaceOrder ioc = PlaceOrder.createLimitSellOrder("BTCUSDT", 3.0, 64999.95);
+        ioc.setTimeInForce("IOC");
+        place("BINANCE", ioc);
+        drain();
+        updates.clear();
+        collect(updates, executions);
+        assertEquals(List.of("NEW", "PARTIALLY_FILLED", "EXPIRED"), updates.stream().map(OrderUpdate::getOrderStatus).toList());
+        assertEquals(1, gateway.getExpiredCount());
+    }
+
+    @Test
+    public void testRestingOrderWaitsForQueueAhead() {
+        marketDataRepo.send(depth("BINANCE", DAY_START_MS, 65000));
+        PlaceOrder order = PlaceOrder.createLimitBuyOrder("BTCUSDT", 0.2, 64999.95);
+        order.setNewClientOrderId("maker-1");
+        place("BINANCE", order);
+        drain();
+        assertEquals(1, gateway.getRestingOrderCount(), "排在已有的0.5之后");
+
+        List<OrderUpdate> updates = new ArrayList<>();
+        List<TradeExecution> executions = new ArrayList<>();
+        marketDataRepo.send(trade("BINANCE", 1, DAY_START_MS + 1, 64999.95, "0.3", true));
+        drain();
+        collect(updates, executions);
+        assertTrue(executions.isEmpty(), "前面还有0.2");
+
+        // 价位减少到0.1，前面的队列收紧到0.1
+        marketDataRepo.send(depth("BINANCE", DAY_START_MS + 2, 65000, "0.1"));
+        marketDataRepo.send(trade("BINANCE", 2, DAY_START_MS + 3, 64999.95, "0.15", true));
+        // 买方主动的成交不在买盘上
+        marketDataRepo.send(trade("BINANCE", 3, DAY_START_MS + 4, 64999.95, "1.0", false));
+        drain();
+        collect(updates, executions);
+        assertEquals(1, executions.size());
+        assertEquals(0.05, executions.get(0).getQuantity(), 1e-9);
+        assertTrue(executions.get(0).isMaker());
+        assertEquals("maker-1", executions.get(0).getClientOrderId());
+
+        // 成交价穿过挂单价，剩余部分全部成交
+        marketDataRepo.send(trade("BINANCE", 4, DAY_START_MS + 5, 64999.85, "0.01", true));
+        drain();
+        collect(updates, executions);
+        assertEquals(2, executions.size());
+        assertEquals(0.15, executions.get(1).getQuantity(), 1e-9);
+        assertEquals(64999.95, executions.get(1).getPrice(), 1e-9);
+        assertEquals("FILLED", updates.get(updates.size() - 1).getOrderStatus());
+        assertEquals(0, gateway.getRestingOrderCount());
+    }
+
+    @Test
+    public void testLatencyPerVenue() {
+        gateway.setLatencyNanos("BITGET", 5 * MS);
+        assertThrows(IllegalArgumentException.class, () -> gateway.setLatencyNanos("UNKNOWN", MS));
+        EventLoop loop = gateway.getEventLoop();
+        marketDataRepo.send(depth("BINANCE", DAY_START_MS, 65000));
+        marketDataRepo.send(depth("BITGET", DAY_START_MS, 65100));
+        place("BITGET", PlaceOrder.createLimitSellOrder("BTCUSDT", 0.1, 65000));
+        place("BINANCE", PlaceOrder.createLimitBuyOrder("BTCUSDT", 0.1, 65000.05));
+        drain();
+
+        Event<MarketData> first = reportRepo.poll();
+        assertEquals(EventType.BINANCE_ORDER_UPDATE, first.typeCode, "币安无延迟，立即回报");
+        while (reportRepo.poll() != null) {
+            // 丢弃币安的成交回报
+        }
+
+        clock.advanceBy(4 * MS);
+        drain();
+        assertNull(reportRepo.poll(), "Bitget订单还在路上");
+
+        // 5ms 到达交易所成交，再过5ms回报到达策略
+        List<Long> received = new ArrayList<>();
+        List<Long> eventTimes = new ArrayList<>();
+        for (int i = 0; i < 200 && received.size() < 3 && loop.nanosToNextTimer() != Long.MAX_VALUE; i++) {
+            clock.advanceBy(loop.nanosToNextTimer());
+            drain();
+            Event<MarketData> event;
+            while ((event = reportRepo.poll()) != null) {
+                received.add(event.receiveNanos / MS - DAY_START_MS);
+                if (event.payload.getMessage() instanceof OrderUpdate update) {
+                    eventTimes.add(update.getEventTime() - DAY_START_MS);
+                }
+            }
+        }
+        assertEquals(List.of(10L, 10L, 10L), received, "NEW、成交回报和成交记录");
+        assertEquals(List.of(5L, 5L), eventTimes, "交易所时间为到达时间");
+        assertEquals(EventType.BITGET_ORDER_UPDATE, EventType.code(EventType.VENUE_BITGET, MarketData.ORDER_UPDATE));
+    }
+
+    @Test
+    public void testBackToBackCommandsKeepTheirOwnOrders() {
+        marketDataRepo.send(depth("BINANCE", DAY_START_MS, 65000));
+        marketDataRepo.send(depth("BITGET", DAY_START_MS, 65010));
+        drain();
+
+        // 与套利相同：网关处理前连续发出买单和卖单，每条指令持有自己的订单
+        place("BINANCE", PlaceOrder.createLimitBuyOrder("BTCUSDT", 0.5, 65000.05));
+        place("BITGET", PlaceOrder.createLimitSellOrder("BTCUSDT", 0.25, 65009.95));
+        drain();
+
+        assertEquals(0.5, gateway.getPosition("BINANCE"), 1e-12);
+        assertEquals(-0.25, gateway.getPosition("BITGET"), 1e-12);
+    }
+
+    @Test
+    public void testCrossBacktestIsDeterministic() {
+        List<Event<MarketData>> events = generate(TimeUnit.HOURS.toMillis(3));
+        String first = backtest(events);
+        String second = backtest(events);
+        assertEquals(first, second, "同样的行情两次回测结果一致");
+    }
+
+    /**
+     * 用 BacktestEngine 回测 CrossAppService，手续费取自策略参数
+     *
+     * @return 回报序列和成交统计
+     */
+    private static String backtest(List<Event<MarketData>> events) {
+        BlockingQueueEventRepo<MarketData> source = new BlockingQueueEventRepo<>();
+        for (Event<MarketData> event : events) {
+            source.send(event);
+        }
+        BacktestEngine engine = new BacktestEngine(source);
+        assertTrue(engine.open());
+
+        CrossArbitrageParams params = CrossArbitrageParams.defaultParams();
+        params.setDebugMode(false);
+        params.setRunTime(TimeUnit.DAYS.toSeconds(1));
+        SimulatedTradeGateway gateway = engine.getGateway();
+        gateway.setFeeRate(params.getBinanceExchangeName(), params.getBinanceFeeRate());
+        gateway.setFeeRate(params.getBitgetExchangeName(), params.getBitgetFeeRate());
+        gateway.setLatencyNanos(params.getBinanceExchangeName(), 2 * MS);
+        gateway.setLatencyNanos(params.getBitgetExchangeName(), 15 * MS);
+
+        CrossAppService strategy = new CrossAppService();
+        strategy.setParams(params);
+        strategy.setClock(engine.getClock());
+        strategy.setMarketDataRepo(engine.getMarketDataRepo());
+        strategy.setTradeCmdRepo(engine.getTradeCmdRepo());
+        strategy.setEventHandlerRepo(new ArrayEventHandlerRepo<>());
+        strategy.getState().start();
+        EventLoop loop = strategy.initEventLoop();
+
+        assertEquals(events.size(), engine.run(loop));
+        assertTrue(gateway.getOrderCount() > 10, "合成数据应触发套利: " + gateway.getOrderCount());
+        assertTrue(gateway.getFillCount() > 0);
+        assertEquals(0, gateway.getDroppedReportCount());
+        assertTrue(strategy.getEventReceivedCount() > events.size(), "回报回到策略的行情仓储");
+        double commission = gateway.getCommission("BINANCE") + gateway.getCommission("BITGET");
+        assertTrue(commission > 0 && commission <= gateway.getOrderCount() * params.getOrderQuantity() * 66000 * params.getBinanceFeeRate(),
+                "按成交金额收取手续费: " + commission);
+
+        return gateway.getOrderCount() + " " + gateway.getFillCount() + " " + gateway.getReportCount()
+                + " " + gateway.getPosition("BINANCE") + " " + gateway.getQuoteBalance("BINANCE")
+                + " " + gateway.getPosition("BITGET") + " " + gateway.getQuoteBalance("BITGET")
+                + " " + strategy.getState().toString();
+    }
+
+    /**
+     * 生成两所 BTCUSDT 深度和成交；Bitget 每20分钟偏离0.5%持续几秒
+     */
+    private static List<Event<MarketData>> generate(long durationMs) {
+        Random random = new Random(7);
+        double mid = 65000;
+        List<Event<MarketData>> events = new ArrayList<>();
+        for (long i = 0, steps = durationMs / 2_000; i < steps; i++) {
+            long time = DAY_START_MS + i * 2_000;
+            mid += random.nextGaussian() * 5;
+            double bitgetMid = i % 600 < 3 ? mid * 1.005 : mid + random.nextGaussian() * 2;
+            events.add(depth("BINANCE", time, mid));
+            events.add(trade("BINANCE", i, time + 1, mid - 0.05, "0.003", i % 2 == 0));
+            events.add(depth("BITGET", time + 2, bitgetMid));
+            events.add(trade("BITGET", i, time + 3, bitgetMid + 0.05, "0.003", i % 2 == 1));
+        }
+        return events;
+    }
+
+    private void place(String venue, PlaceOrder order) {
+        short typeCode = EventType.code(EventType.venueOf(venue), EventType.PLACE_ORDER);
+        assertTrue(gateway.getTradeCmdRepo().send(new Event<>(typeCode, InstrumentRegistry.idOf("BTCUSDT"), TradeCmd.createWithData(order))));
+    }
+
+    private void drain() {
+        while (gateway.getEventLoop().doWork() > 0) {
+            // 处理到没有行情、指令和到期定时器
+        }
+    }
+
+    private void collect(List<OrderUpdate> updates, List<TradeExecution> executions) {
+        Event<MarketData> event;
+        while ((event = reportRepo.poll()) != null) {
+            Object message = event.payload.getMessage();
+            if (message instanceof OrderUpdate update) {
+                assertEquals(EventType.BINANCE_ORDER_UPDATE, event.typeCode);
+                updates.add(update);
+            } else {
+                assertEquals(EventType.BINANCE_TRADE_EXECUTION, event.typeCode);
+                executions.add((TradeExecution) message);
+            }
+        }
+    }
+
+    private static Event<MarketData> depth(String venue, long timeMs, double mid) {
+        return depth(venue, timeMs, mid, "0.5");
+    }
+
+    private static Event<MarketData> depth(String venue, long timeMs, double mid, String bestBidSize) {
+        OrderBookDepth10 depth = new OrderBookDepth10();
+        depth.setSymbol("BTCUSDT");
+        depth.setEventTime(timeMs);
+        depth.setBids(List.of(new PriceLevel(format(mid - 0.05), bestBidSize), new PriceLevel(format(mid - 0.15), "1.25")));
+        depth.setAsks(List.of(new PriceLevel(format(mid + 0.05), "0.75"), new PriceLevel(format(mid + 0.15), "2.0")));
+        MarketData data = MarketData.of(depth);
+        return new Event<>(EventType.of(EventType.venueOf(venue), data), InstrumentRegistry.idOf("BTCUSDT"), data);
+    }
+
+    private static Event<MarketData> trade(String venue, long i, long timeMs, double price, String quantity, boolean buyerMaker) {
+        TradeTick trade = new TradeTick();
+        trade.symbol = "BTCUSDT";
+        trade.tradeId = String.valueOf(i);
+        trade.price = Price.of(price, 2);
+        trade.quantity = Quantity.of(quantity);
+        trade.eventTimeMs = timeMs;
+        trade.tradeTimeMs = timeMs;
+        trade.isBuyerMaker = buyerMaker;
+        MarketData data = MarketData.of(trade);
+        return new Event<>(EventType.of(EventType.venueOf(venue), data), InstrumentRegistry.idOf("BTCUSDT"), data);
+    }
+
+    private static String format(double price) {
+        return String.format(Locale.ROOT, "%.2f", price);
+    }
+}
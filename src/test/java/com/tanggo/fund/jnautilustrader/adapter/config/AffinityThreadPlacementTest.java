@@ -0,0 +1,93 @@
+package com.tanggo.fund.jnautilustrader.adapter.config;
+
+import com.tanggo.fund.jnautilustrader.core.actor.EventLoop;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * AffinityThreadPlacement 测试类
+ *
+ * 验证CPU列表解析、事件循环线程启动时按名称或CPU池绑定核心、池耗尽后不再绑定，以及放置报告的内容
+ */
+public class AffinityThreadPlacementTest {
+
+    @Test
+    public void testParseCpuList() {
+        assertEquals(List.of(0, 1, 2, 3, 6, 8, 9), CpuAffinity.parseCpuList("0-3,6, 8-9\n"));
+        assertEquals(List.of(), CpuAffinity.parseCpuList(""));
+        assertEquals(List.of(), CpuAffinity.parseCpuList(null));
+    }
+
+    @Test
+    public void testLoopThreadIsPlacedOnStart() throws Exception {
+        List<Integer> allowed = CpuAffinity.processAllowedCpus();
+        assumeTrue(Files.exists(Paths.get("/proc/thread-self")) && !allowed.isEmpty(), "需要Linux /proc");
+
+        int cpu = allowed.get(0);
+        AffinityThreadPlacement placement = new AffinityThreadPlacement();
+        placement.setCpuPool(Integer.toString(cpu));
+
+        // 池中只有一个核心：第一个循环绑定，第二个循环不绑定
+        runLoop("first-loop", placement);
+        runLoop("second-loop", placement);
+
+        List<AffinityThreadPlacement.Placement> report = placement.getReport();
+        assertEquals(2, report.size());
+        AffinityThreadPlacement.Placement first = report.get(0);
+        assertEquals("first-loop", first.getLoopName());
+        assertEquals("first-loop", first.getThreadName(), "放置应在事件循环线程上执行");
+        assertTrue(first.getNativeTid() > 0);
+        assertEquals(Integer.toString(cpu), first.getRequested());
+        if (first.isPinned()) {
+            assertEquals(cpu, first.getCpu(), "绑定后应运行在指定核心上");
+            assertEquals(Integer.toString(cpu), first.getAllowedCpus());
+        }
+        AffinityThreadPlacement.Placement second = report.get(1);
+        assertEquals("", second.getRequested(), "CPU池耗尽后不应再绑定");
+        assertFalse(second.isPinned());
+    }
+
+    @Test
+    public void testExplicitPinTakesPrecedenceAndDisabledOnlyReports() throws Exception {
+        List<Integer> allowed = CpuAffinity.processAllowedCpus();
+        assumeTrue(Files.exists(Paths.get("/proc/thread-self")) && !allowed.isEmpty(), "需要Linux /proc");
+
+        String cpu = Integer.toString(allowed.get(0));
+        AffinityThreadPlacement placement = new AffinityThreadPlacement();
+        placement.setPinnedCpus(Map.of("pinned-loop", cpu));
+        runLoop("pinned-loop", placement);
+        assertEquals(cpu, placement.getReport().get(0).getRequested());
+
+        AffinityThreadPlacement disabled = new AffinityThreadPlacement();
+        disabled.setEnabled(false);
+        disabled.setPinnedCpus(Map.of("pinned-loop", cpu));
+        runLoop("pinned-loop", disabled);
+        assertEquals(1, disabled.getReport().size(), "关闭绑定时仍应输出放置报告");
+        assertFalse(disabled.getReport().get(0).isPinned());
+    }
+
+    private static void runLoop(String name, AffinityThreadPlacement placement) throws InterruptedException {
+        CountDownLatch ran = new CountDownLatch(1);
+        AtomicReference<EventLoop> loop = new AtomicReference<>();
+        loop.set(new EventLoop(name, () -> {
+            ran.countDown();
+            loop.get().stop();
+            return 1;
+        }, idleCount -> Thread.onSpinWait()));
+        loop.get().setPlacement(placement);
+        Thread thread = loop.get().start();
+        assertTrue(ran.await(10, TimeUnit.SECONDS));
+        thread.join(10_000);
+        assertFalse(thread.isAlive());
+    }
+}
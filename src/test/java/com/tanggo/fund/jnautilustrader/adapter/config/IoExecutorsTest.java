@@ -0,0 +1,54 @@
+package com.tanggo.fund.jnautilustrader.adapter.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.EnabledOnJre;
+import org.junit.jupiter.api.condition.JRE;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * IoExecutors 测试类
+ *
+ * JDK 21+（pom 的 jdk21 profile）上验证 VIRTUAL 模式确实创建虚拟线程并按前缀命名，
+ * 这正是 applicationContext.xml 中 ioExecutorService 的配置；JDK 17 上验证回退为平台线程
+ */
+public class IoExecutorsTest {
+
+    private static final long TIMEOUT_SECONDS = 10;
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    public void testVirtualModeUsesVirtualThreads() throws Exception {
+        assertTrue(IoExecutors.virtualThreadsSupported());
+
+        ExecutorService executor = IoExecutors.newExecutor("VIRTUAL", "io-worker-");
+        try {
+            Thread thread = executor.submit(Thread::currentThread).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            assertTrue((Boolean) Thread.class.getMethod("isVirtual").invoke(thread), "VIRTUAL 模式应运行在虚拟线程上");
+            assertEquals("io-worker-1", thread.getName());
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    @EnabledOnJre(JRE.JAVA_17)
+    public void testVirtualModeFallsBackBeforeJdk21() throws Exception {
+        assertFalse(IoExecutors.virtualThreadsSupported());
+
+        ExecutorService executor = IoExecutors.newExecutor(IoExecutors.Mode.VIRTUAL, "io-worker-");
+        try {
+            Thread thread = executor.submit(Thread::currentThread).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            assertTrue(thread.isDaemon());
+            assertEquals("io-worker-1", thread.getName());
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        }
+    }
+}
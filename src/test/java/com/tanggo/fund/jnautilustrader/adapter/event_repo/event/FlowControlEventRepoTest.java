@@ -0,0 +1,161 @@
+package com.tanggo.fund.jnautilustrader.adapter.event_repo.event;
+
+import com.lmax.disruptor.BlockingWaitStrategy;
+import com.lmax.disruptor.dsl.ProducerType;
+import com.tanggo.fund.jnautilustrader.core.entity.Event;
+import com.tanggo.fund.jnautilustrader.core.entity.EventRepo;
+import com.tanggo.fund.jnautilustrader.core.entity.EventType;
+import com.tanggo.fund.jnautilustrader.core.entity.FlowControl;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * FlowControlEventRepo 测试类
+ *
+ * 验证报价按品种合并、成交丢弃最旧并计数、其余类型积压到高水位时暂停上游并在低水位恢复，以及顺序和指标；
+ * 以及 claim/commit 在预分配槽位上转存事件时，交付的事件不与发送方和后续事件共享payload
+ */
+public class FlowControlEventRepoTest {
+
+    private static final int BTC = 1;
+    private static final int ETH = 2;
+
+    @Test
+    public void testConflatesLatestPerSymbol() {
+        FlowControlEventRepo<String> repo = new FlowControlEventRepo<>(new BlockingQueueEventRepo<>());
+        repo.setPolicy("QUOTE_TICK", FlowControlEventRepo.Policy.CONFLATE);
+
+        repo.send(event(EventType.BINANCE_QUOTE_TICK, BTC, "btc-1"));
+        repo.send(event(EventType.BINANCE_QUOTE_TICK, ETH, "eth-1"));
+        repo.send(event(EventType.BINANCE_QUOTE_TICK, BTC, "btc-2"));
+        repo.send(event(EventType.BITGET_QUOTE_TICK, BTC, "bitget-btc-1"));
+        repo.send(event(EventType.BINANCE_QUOTE_TICK, BTC, "btc-3"));
+
+        // BTC占据首次到达的位置，交付最新值；不同交易所分别合并
+        assertEquals("btc-3", repo.poll().payload);
+        assertEquals("eth-1", repo.poll().payload);
+        assertEquals("bitget-btc-1", repo.poll().payload);
+        assertNull(repo.poll());
+        assertEquals(2, repo.getConflatedCount(EventType.BINANCE_QUOTE_TICK));
+        assertEquals(0, repo.getConflatedCount(EventType.BITGET_QUOTE_TICK));
+
+        // 取出后重新开始合并
+        repo.send(event(EventType.BINANCE_QUOTE_TICK, BTC, "btc-4"));
+        assertEquals("btc-4", repo.poll().payload);
+        assertEquals(0, repo.getBacklog(), "合并类型不计入积压");
+    }
+
+    @Test
+    public void testDropsOldestTradesAndKeepsOrder() {
+        FlowControlEventRepo<String> repo = new FlowControlEventRepo<>(new BlockingQueueEventRepo<>());
+        repo.setDropOldestCapacity(3);
+        repo.setPolicy("TRADE_TICK", FlowControlEventRepo.Policy.DROP_OLDEST);
+
+        repo.send(event(EventType.BINANCE_ORDER_BOOK_DELTA, BTC, "delta-1"));
+        for (int i = 1; i <= 5; i++) {
+            repo.send(event(EventType.BINANCE_TRADE_TICK, BTC, "trade-" + i));
+        }
+        repo.send(event(EventType.BINANCE_ORDER_BOOK_DELTA, BTC, "delta-2"));
+
+        assertEquals("delta-1", repo.poll().payload);
+        assertEquals("trade-3", repo.poll().payload, "最旧的两条应被丢弃");
+        assertEquals("trade-4", repo.poll().payload);
+        assertEquals("trade-5", repo.poll().payload);
+        assertEquals("delta-2", repo.poll().payload);
+        assertNull(repo.poll());
+        assertEquals(2, repo.getDroppedCount(EventType.BINANCE_TRADE_TICK));
+        assertEquals(2, repo.getDroppedCount());
+        assertTrue(repo.metrics().contains("dropped[BINANCE_TRADE_TICK=2]"), repo.metrics());
+    }
+
+    @Test
+    public void testWithholdsUpstreamUntilLowWatermark() {
+        FlowControlEventRepo<String> repo = new FlowControlEventRepo<>(new BlockingQueueEventRepo<>());
+        repo.setHighWatermark(4);
+        repo.setLowWatermark(1);
+        FlowControl flowControl = FlowControl.of(repo);
+        AtomicInteger resumed = new AtomicInteger();
+        Runnable resume = resumed::incrementAndGet;
+
+        for (int i = 0; i < 3; i++) {
+            repo.send(event(EventType.BINANCE_ORDER_BOOK_DELTA, BTC, "delta-" + i));
+            assertTrue(flowControl.tryRequest(resume), "未到高水位应继续读取");
+        }
+        repo.send(event(EventType.BINANCE_ORDER_BOOK_DELTA, BTC, "delta-3"));
+        assertFalse(flowControl.tryRequest(resume), "到达高水位应暂停读取");
+        assertEquals(1, repo.getPausedCount());
+        assertEquals(1, repo.getPauseCount());
+
+        // 不丢数据；消费到低水位时恢复一次
+        assertEquals("delta-0", repo.poll().payload);
+        assertEquals("delta-1", repo.poll().payload);
+        assertEquals(0, resumed.get());
+        assertEquals("delta-2", repo.poll().payload);
+        assertEquals(1, resumed.get());
+        assertEquals(0, repo.getPausedCount());
+        assertEquals("delta-3", repo.poll().payload);
+        assertEquals(1, resumed.get(), "只恢复一次");
+        assertEquals(0, repo.getBacklog());
+
+        assertSame(FlowControl.UNBOUNDED, FlowControl.of(new BlockingQueueEventRepo<String>()));
+    }
+
+    @Test
+    public void testClaimCommitTransfersIntoPooledEvents() {
+        FlowControlEventRepo<StringBuilder> repo = new FlowControlEventRepo<>(
+                new PollingDisruptorEventRepo<>(16, ProducerType.MULTI, new BlockingWaitStrategy(), StringBuilder::new),
+                StringBuilder::new);
+        repo.setDropOldestCapacity(2);
+        repo.setPolicy("QUOTE_TICK", FlowControlEventRepo.Policy.CONFLATE);
+        repo.setPolicy("TRADE_TICK", FlowControlEventRepo.Policy.DROP_OLDEST);
+
+        publish(repo, EventType.BINANCE_QUOTE_TICK, BTC, "quote-1");
+        publish(repo, EventType.BINANCE_QUOTE_TICK, BTC, "quote-2");
+        for (int i = 1; i <= 3; i++) {
+            publish(repo, EventType.BINANCE_TRADE_TICK, BTC, "trade-" + i);
+        }
+        publish(repo, EventType.BINANCE_ORDER_BOOK_DELTA, BTC, "delta-1");
+
+        Event<StringBuilder> quote = repo.poll();
+        assertEquals("quote-2", quote.payload.toString());
+        assertEquals(BTC, quote.instrumentId);
+        // 发送方复用暂存事件继续发布，已交付的事件在下一次取出同品种之前不变
+        publish(repo, EventType.BINANCE_QUOTE_TICK, BTC, "quote-3");
+        publish(repo, EventType.BINANCE_QUOTE_TICK, BTC, "quote-4");
+        assertEquals("quote-2", quote.payload.toString());
+
+        Event<StringBuilder> trade = repo.poll();
+        assertEquals("trade-2", trade.payload.toString(), "最旧的一条应被丢弃");
+        assertEquals(EventType.BINANCE_TRADE_TICK, trade.typeCode);
+        publish(repo, EventType.BINANCE_TRADE_TICK, BTC, "trade-4");
+        assertEquals("trade-2", trade.payload.toString());
+        assertEquals("trade-3", repo.poll().payload.toString());
+        assertEquals("delta-1", repo.poll().payload.toString());
+        assertEquals("quote-4", repo.poll().payload.toString());
+        assertEquals("trade-4", repo.poll().payload.toString());
+        assertNull(repo.poll());
+
+        assertEquals(2, repo.getConflatedCount(EventType.BINANCE_QUOTE_TICK));
+        assertEquals(1, repo.getDroppedCount(EventType.BINANCE_TRADE_TICK));
+        assertEquals(0, repo.getBacklog());
+    }
+
+    /**
+     * 按网关的方式申领、就地填充并发布
+     */
+    static void publish(EventRepo<StringBuilder> repo, short typeCode, int instrumentId, String value) {
+        Event<StringBuilder> event = repo.claim();
+        event.payload.setLength(0);
+        event.payload.append(value);
+        event.setTypeCode(typeCode);
+        event.instrumentId = instrumentId;
+        assertTrue(repo.commit(event));
+    }
+
+    private static Event<String> event(short typeCode, int instrumentId, String payload) {
+        return new Event<>(typeCode, instrumentId, payload);
+    }
+}
@@ -0,0 +1,92 @@
+package com.tanggo.fund.jnautilustrader.adapter.event_repo.event;
+
+import com.tanggo.fund.jnautilustrader.core.entity.Event;
+import com.tanggo.fund.jnautilustrader.core.entity.IdleStrategy;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SPSC / MPSC / MPMC 环形队列测试
+ *
+ * 验证队列满时 send 返回false，以及并发收发下每个事件恰好被消费一次
+ */
+public class PaddedRingBufferEventRepoTest {
+
+    private static final int EVENTS_PER_PRODUCER = 200_000;
+
+    @Test
+    public void testSendFailsWhenFull() {
+        for (PaddedRingBufferEventRepo.Mode mode : PaddedRingBufferEventRepo.Mode.values()) {
+            PaddedRingBufferEventRepo<Integer> repo = PaddedRingBufferEventRepo.create(mode, 4, IdleStrategy.YIELD);
+            for (int i = 0; i < 4; i++) {
+                assertTrue(repo.send(new Event<>("SEQ", i)), mode + " 容量内应发送成功");
+            }
+            assertTrue(repo.isFull());
+            assertFalse(repo.send(new Event<>("SEQ", 4)), mode + " 队列满时应返回false");
+
+            assertEquals(0, repo.receive().payload);
+            assertTrue(repo.send(new Event<>("SEQ", 4)), mode + " 释放槽位后应可再次发送");
+            for (int i = 1; i <= 4; i++) {
+                assertEquals(i, repo.receive().payload, mode + " 应按FIFO顺序接收");
+            }
+            assertNull(repo.receive());
+            assertTrue(repo.isEmpty());
+        }
+    }
+
+    @Test
+    public void testSpscExactlyOnce() throws Exception {
+        assertExactlyOnce(PaddedRingBufferEventRepo.Mode.SPSC, 1, 1);
+    }
+
+    @Test
+    public void testMpscExactlyOnce() throws Exception {
+        assertExactlyOnce(PaddedRingBufferEventRepo.Mode.MPSC, 3, 1);
+    }
+
+    @Test
+    public void testMpmcExactlyOnce() throws Exception {
+        assertExactlyOnce(PaddedRingBufferEventRepo.Mode.MPMC, 3, 3);
+    }
+
+    private void assertExactlyOnce(PaddedRingBufferEventRepo.Mode mode, int producers, int consumers) throws Exception {
+        PaddedRingBufferEventRepo<Integer> repo = PaddedRingBufferEventRepo.create(mode, 256, IdleStrategy.BACKOFF);
+        int total = producers * EVENTS_PER_PRODUCER;
+        AtomicIntegerArray seen = new AtomicIntegerArray(total);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int base = p * EVENTS_PER_PRODUCER;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < EVENTS_PER_PRODUCER; i++) {
+                    repo.put(new Event<>("SEQ", base + i));
+                }
+            }, mode + "-producer-" + p));
+        }
+        int perConsumer = total / consumers;
+        for (int c = 0; c < consumers; c++) {
+            int quota = c == consumers - 1 ? total - perConsumer * (consumers - 1) : perConsumer;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < quota; i++) {
+                    Event<Integer> event = repo.receiveBlocking();
+                    seen.incrementAndGet(event.payload);
+                }
+            }, mode + "-consumer-" + c));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join(60_000);
+            assertFalse(thread.isAlive(), mode + " 线程应在超时前结束");
+        }
+
+        for (int i = 0; i < total; i++) {
+            assertEquals(1, seen.get(i), mode + " 事件 " + i + " 应恰好被消费一次");
+        }
+        assertTrue(repo.isEmpty());
+    }
+}
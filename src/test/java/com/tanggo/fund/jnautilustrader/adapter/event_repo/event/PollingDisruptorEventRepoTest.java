@@ -0,0 +1,225 @@
+package com.tanggo.fund.jnautilustrader.adapter.event_repo.event;
+
+import com.lmax.disruptor.BlockingWaitStrategy;
+import com.lmax.disruptor.dsl.ProducerType;
+import com.tanggo.fund.jnautilustrader.core.entity.Event;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PollingDisruptorEventRepo 测试类
+ *
+ * 验证：
+ * 1. 单生产者 1000万事件，多个独立消费者各自恰好收到一次且有序
+ * 2. 多生产者并发发送，单个消费者不丢失、不重复，且每个生产者内部有序
+ * 3. drainTo 的 maxBatch 限制与 endOfBatch 标记
+ * 4. claim/commit 循环复用预分配槽位
+ * 5. 关闭时唤醒所有消费者，关闭后 claim/commit 被拒绝
+ */
+public class PollingDisruptorEventRepoTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(PollingDisruptorEventRepoTest.class);
+
+    private static final int EVENT_COUNT = 10_000_000;
+    private static final int MAX_BATCH = 256;
+
+    @Test
+    public void testExactlyOnceDeliveryToMultipleConsumers() throws Exception {
+        PollingDisruptorEventRepo<Long> repo =
+                new PollingDisruptorEventRepo<>(1 << 14, ProducerType.SINGLE, new BlockingWaitStrategy());
+        List<PollingDisruptorEventRepo<Long>.Consumer> consumers = List.of(repo.getDefaultConsumer(), repo.newConsumer());
+
+        List<SequentialChecker> checkers = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (PollingDisruptorEventRepo<Long>.Consumer consumer : consumers) {
+            SequentialChecker checker = new SequentialChecker();
+            checkers.add(checker);
+            threads.add(new Thread(() -> {
+                while (checker.received < EVENT_COUNT && checker.error.get() == null) {
+                    consumer.awaitAndDrain(checker, MAX_BATCH);
+                }
+            }, "polling-consumer-" + checkers.size()));
+        }
+        threads.forEach(Thread::start);
+
+        long start = System.nanoTime();
+        for (long i = 0; i < EVENT_COUNT; i++) {
+            assertTrue(repo.send(new Event<>("SEQ", i)));
+        }
+        for (Thread thread : threads) {
+            thread.join(60_000);
+            assertFalse(thread.isAlive(), "消费者应在超时前处理完所有事件");
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        logger.info("{} 个事件投递给 {} 个消费者，耗时 {} ms", EVENT_COUNT, consumers.size(), elapsedMs);
+
+        for (SequentialChecker checker : checkers) {
+            assertNull(checker.error.get(), () -> checker.error.get());
+            assertEquals(EVENT_COUNT, checker.received, "每个消费者都应恰好收到全部事件");
+            assertTrue(checker.lastEndOfBatch, "最后一个事件应标记为批末");
+        }
+        assertNull(repo.receive(), "所有事件消费完后不应再有事件");
+    }
+
+    @Test
+    public void testMultiProducerNoLossNoDuplicate() throws Exception {
+        int producers = 4;
+        int perProducer = EVENT_COUNT / producers;
+        PollingDisruptorEventRepo<Long> repo =
+                new PollingDisruptorEventRepo<>(1 << 14, ProducerType.MULTI, new BlockingWaitStrategy());
+
+        long[] nextExpected = new long[producers];
+        int[] received = new int[1];
+        AtomicReference<String> error = new AtomicReference<>();
+
+        Thread consumer = new Thread(() -> {
+            while (received[0] < EVENT_COUNT && error.get() == null) {
+                repo.awaitAndDrain((event, sequence, endOfBatch) -> {
+                    long value = event.payload;
+                    int producer = (int) (value / perProducer);
+                    long index = value % perProducer;
+                    if (index != nextExpected[producer]) {
+                        error.compareAndSet(null, "producer " + producer + " expected " + nextExpected[producer] + " but got " + index);
+                    }
+                    nextExpected[producer] = index + 1;
+                    received[0]++;
+                }, MAX_BATCH);
+            }
+        }, "polling-consumer");
+        consumer.start();
+
+        List<Thread> producerThreads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            long base = (long) p * perProducer;
+            Thread producer = new Thread(() -> {
+                for (long i = 0; i < perProducer; i++) {
+                    repo.send(new Event<>("SEQ", base + i));
+                }
+            }, "polling-producer-" + p);
+            producerThreads.add(producer);
+            producer.start();
+        }
+        for (Thread producer : producerThreads) {
+            producer.join(60_000);
+        }
+        consumer.join(60_000);
+        assertFalse(consumer.isAlive(), "消费者应在超时前处理完所有事件");
+
+        assertNull(error.get(), error::get);
+        assertEquals(EVENT_COUNT, received[0]);
+        for (int p = 0; p < producers; p++) {
+            assertEquals(perProducer, nextExpected[p], "生产者 " + p + " 的事件应全部送达");
+        }
+    }
+
+    @Test
+    public void testDrainToRespectsMaxBatch() {
+        PollingDisruptorEventRepo<Long> repo = new PollingDisruptorEventRepo<>();
+        for (long i = 0; i < 10; i++) {
+            repo.send(new Event<>("SEQ", i));
+        }
+
+        List<Long> values = new ArrayList<>();
+        List<Boolean> endOfBatchFlags = new ArrayList<>();
+        int drained = repo.drainTo((event, sequence, endOfBatch) -> {
+            values.add(event.payload);
+            endOfBatchFlags.add(endOfBatch);
+        }, 4);
+
+        assertEquals(4, drained);
+        assertEquals(List.of(0L, 1L, 2L, 3L), values);
+        assertEquals(List.of(false, false, false, true), endOfBatchFlags);
+
+        // 单个接收与批量消费共用同一消费序号
+        assertEquals(4L, repo.receive().payload);
+        assertEquals(5, repo.drainTo((event, sequence, endOfBatch) -> values.add(event.payload), 100));
+        assertEquals(0, repo.drainTo((event, sequence, endOfBatch) -> values.add(event.payload), 100));
+        assertEquals(9L, values.get(values.size() - 1));
+        assertEquals(0, repo.getDefaultConsumer().getBacklog());
+    }
+
+    @Test
+    public void testClaimCommitReusesPreallocatedSlots() {
+        PollingDisruptorEventRepo<long[]> repo =
+                new PollingDisruptorEventRepo<>(4, ProducerType.SINGLE, new BlockingWaitStrategy(), () -> new long[1]);
+
+        List<Object> slots = new ArrayList<>();
+        long sum = 0;
+        for (int i = 0; i < 12; i++) {
+            Event<long[]> event = repo.claim();
+            event.type = "SEQ";
+            event.payload[0] = i;
+            assertTrue(repo.commit(event));
+            if (i < 4) {
+                slots.add(event);
+            } else {
+                assertSame(slots.get(i % 4), event, "槽位事件应循环复用");
+            }
+
+            Event<long[]> received = repo.receive();
+            assertSame(event, received);
+            sum += received.payload[0];
+        }
+        assertEquals(66, sum);
+
+        // 默认实现：非预分配仓库也可以使用 claim/commit
+        BlockingQueueEventRepo<String> queueRepo = new BlockingQueueEventRepo<>();
+        Event<String> event = queueRepo.claim();
+        event.payload = "x";
+        assertTrue(queueRepo.commit(event));
+        assertEquals("x", queueRepo.receive().payload);
+    }
+
+    @Test
+    public void testShutdownWakesEveryConsumerAndRejectsClaim() throws Exception {
+        PollingDisruptorEventRepo<Long> repo = new PollingDisruptorEventRepo<>();
+        PollingDisruptorEventRepo<Long>.Consumer second = repo.newConsumer();
+        AtomicReference<Integer> drained = new AtomicReference<>();
+        Thread blocked = new Thread(() -> drained.set(second.awaitAndDrain((event, sequence, endOfBatch) -> {
+        }, MAX_BATCH)), "polling-blocked-consumer");
+        blocked.start();
+        // 等消费者进入等待
+        while (blocked.getState() != Thread.State.WAITING && blocked.isAlive()) {
+            Thread.onSpinWait();
+        }
+
+        repo.shutdown();
+        blocked.join(10_000);
+        assertFalse(blocked.isAlive(), "关闭后 newConsumer 创建的消费者也应被唤醒");
+        assertEquals(0, drained.get());
+
+        // 关闭后 claim 不占用序号，commit 与 send 一样被拒绝
+        long cursor = repo.getCurrentSequence();
+        Event<Long> event = repo.claim();
+        event.payload = 1L;
+        assertFalse(repo.commit(event));
+        assertFalse(repo.send(new Event<>("SEQ", 2L)));
+        assertEquals(cursor, repo.getCurrentSequence());
+        assertNull(repo.receive());
+    }
+
+    /**
+     * 校验事件按 0,1,2... 顺序恰好到达一次
+     */
+    private static final class SequentialChecker implements PollingDisruptorEventRepo.BatchConsumer<Long> {
+        private final AtomicReference<String> error = new AtomicReference<>();
+        private long received;
+        private boolean lastEndOfBatch;
+
+        @Override
+        public void onEvent(Event<Long> event, long sequence, boolean endOfBatch) {
+            if (event.payload != received) {
+                error.compareAndSet(null, "expected " + received + " but got " + event.payload);
+            }
+            received++;
+            lastEndOfBatch = endOfBatch;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.tanggo.fund.jnautilustrader.adapter.event_repo.event;
+
+import com.lmax.disruptor.BlockingWaitStrategy;
+import com.lmax.disruptor.dsl.ProducerType;
+import com.tanggo.fund.jnautilustrader.core.entity.Event;
+import com.tanggo.fund.jnautilustrader.core.entity.EventType;
+import com.tanggo.fund.jnautilustrader.core.entity.FlowControl;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TapEventRepo 测试类
+ *
+ * 验证旁路收到合并之前的全部事件、旁路满时丢弃计数而主路不受影响，以及流量控制委托给主路；
+ * 以及 claim/commit 时旁路把payload复制到自己的预分配槽位
+ */
+public class TapEventRepoTest {
+
+    @Test
+    public void testTapSeesEveryEventBeforeConflation() {
+        FlowControlEventRepo<String> main = new FlowControlEventRepo<>(new BlockingQueueEventRepo<>());
+        main.setPolicy("QUOTE_TICK", FlowControlEventRepo.Policy.CONFLATE);
+        SpscRingBufferEventRepo<String> tap = new SpscRingBufferEventRepo<>(16);
+        TapEventRepo<String> repo = new TapEventRepo<>(main, tap);
+
+        for (int i = 1; i <= 3; i++) {
+            assertTrue(repo.send(new Event<>(EventType.BINANCE_QUOTE_TICK, 1, "quote-" + i)));
+        }
+        assertEquals("quote-3", repo.poll().payload, "主路合并");
+        assertNull(repo.poll());
+        for (int i = 1; i <= 3; i++) {
+            assertEquals("quote-" + i, tap.poll().payload, "旁路收到全部事件");
+        }
+        assertSame(main, FlowControl.of(main));
+        assertTrue(FlowControl.of(repo) instanceof TapEventRepo, "网关通过装饰器取得主路的流量控制");
+    }
+
+    @Test
+    public void testFullTapDropsWithoutAffectingMain() {
+        BlockingQueueEventRepo<String> main = new BlockingQueueEventRepo<>();
+        SpscRingBufferEventRepo<String> tap = new SpscRingBufferEventRepo<>(2);
+        TapEventRepo<String> repo = new TapEventRepo<>(main, tap);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(repo.send(new Event<>(EventType.BINANCE_TRADE_TICK, 1, "trade-" + i)));
+        }
+        assertEquals(3, repo.getTapDroppedCount());
+        for (int i = 0; i < 5; i++) {
+            assertEquals("trade-" + i, repo.poll().payload);
+        }
+        assertEquals("trade-0", tap.poll().payload);
+        assertEquals("trade-1", tap.poll().payload);
+        assertNull(tap.poll());
+    }
+
+    @Test
+    public void testCommitCopiesIntoTapSlots() {
+        FlowControlEventRepo<StringBuilder> main = new FlowControlEventRepo<>(
+                new PollingDisruptorEventRepo<>(16, ProducerType.MULTI, new BlockingWaitStrategy(), StringBuilder::new),
+                StringBuilder::new);
+        PollingDisruptorEventRepo<StringBuilder> tap =
+                new PollingDisruptorEventRepo<>(4, ProducerType.MULTI, new BlockingWaitStrategy(), StringBuilder::new);
+        TapEventRepo<StringBuilder> repo = new TapEventRepo<>(main, tap);
+        repo.setPayloadCopier((copy, source) -> {
+            copy.setLength(0);
+            return copy.append(source);
+        });
+
+        for (int i = 0; i < 6; i++) {
+            FlowControlEventRepoTest.publish(repo, EventType.BINANCE_ORDER_BOOK_DELTA, 1, "delta-" + i);
+        }
+        assertEquals(2, repo.getTapDroppedCount(), "旁路没有空闲槽位时丢弃，不等待");
+        for (int i = 0; i < 6; i++) {
+            assertEquals("delta-" + i, repo.poll().payload.toString());
+        }
+        for (int i = 0; i < 4; i++) {
+            Event<StringBuilder> copy = tap.poll();
+            assertEquals("delta-" + i, copy.payload.toString(), "旁路槽位持有独立的副本");
+            assertEquals(EventType.BINANCE_ORDER_BOOK_DELTA, copy.typeCode);
+        }
+        assertNull(tap.poll());
+    }
+}
@@ -0,0 +1,63 @@
+package com.tanggo.fund.jnautilustrader.adapter.event_repo.handler;
+
+import com.tanggo.fund.jnautilustrader.core.entity.Event;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ArrayEventHandlerRepo 测试类
+ *
+ * 验证类型编号连续分配、按编号/字符串分发、同类型多处理器扇出以及 queryBy 兼容性
+ */
+public class ArrayEventHandlerRepoTest {
+
+    @Test
+    public void testDenseIdsAndFanOut() {
+        ArrayEventHandlerRepo<String> repo = new ArrayEventHandlerRepo<>();
+        List<String> calls = new ArrayList<>();
+
+        repo.addHandler("BINANCE_TRADE_TICK", event -> calls.add("a:" + event.payload));
+        repo.addHandler("BITGET_TRADE_TICK", event -> calls.add("b:" + event.payload));
+        repo.addHandler("BINANCE_TRADE_TICK", event -> calls.add("c:" + event.payload));
+
+        assertEquals(0, repo.typeIdOf("BINANCE_TRADE_TICK"));
+        assertEquals(1, repo.typeIdOf("BITGET_TRADE_TICK"));
+        // 非同一实例的字符串也应解析到相同编号
+        assertEquals(0, repo.typeIdOf(new String("BINANCE_TRADE_TICK")));
+        assertEquals(-1, repo.typeIdOf("UNKNOWN"));
+        assertEquals(2, repo.getTypeCount());
+
+        assertTrue(repo.dispatch(new Event<>("BINANCE_TRADE_TICK", "1")));
+        assertEquals(List.of("a:1", "c:1"), calls, "同类型处理器应按注册顺序依次调用");
+
+        calls.clear();
+        assertTrue(repo.dispatch(1, new Event<>("BITGET_TRADE_TICK", "2")));
+        assertEquals(List.of("b:2"), calls);
+
+        calls.clear();
+        repo.queryBy("BINANCE_TRADE_TICK").handle(new Event<>("BINANCE_TRADE_TICK", "3"));
+        assertEquals(List.of("a:3", "c:3"), calls, "queryBy 返回的处理器应扇出到所有处理器");
+
+        assertFalse(repo.dispatch(new Event<>("UNKNOWN", "4")));
+        assertFalse(repo.dispatch(99, new Event<>("UNKNOWN", "4")));
+        assertNull(repo.queryBy("UNKNOWN"));
+    }
+
+    @Test
+    public void testGrowsBeyondInitialCapacity() {
+        ArrayEventHandlerRepo<Integer> repo = new ArrayEventHandlerRepo<>();
+        int[] sum = new int[1];
+        for (int i = 0; i < 40; i++) {
+            repo.addHandler("TYPE_" + i, event -> sum[0] += event.payload);
+        }
+        for (int i = 0; i < 40; i++) {
+            assertEquals(i, repo.typeIdOf("TYPE_" + i));
+            assertTrue(repo.dispatch(i, new Event<>("TYPE_" + i, i)));
+        }
+        assertEquals(780, sum[0]);
+    }
+}
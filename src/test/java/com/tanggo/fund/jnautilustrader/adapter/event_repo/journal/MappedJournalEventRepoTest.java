@@ -0,0 +1,247 @@
+package com.tanggo.fund.jnautilustrader.adapter.event_repo.journal;
+
+import com.tanggo.fund.jnautilustrader.core.entity.Event;
+import com.tanggo.fund.jnautilustrader.core.entity.EventType;
+import com.tanggo.fund.jnautilustrader.core.entity.InstrumentRegistry;
+import com.tanggo.fund.jnautilustrader.core.entity.MarketData;
+import com.tanggo.fund.jnautilustrader.core.entity.Price;
+import com.tanggo.fund.jnautilustrader.core.entity.Quantity;
+import com.tanggo.fund.jnautilustrader.core.entity.event.data.*;
+import com.tanggo.fund.jnautilustrader.core.entity.event.trade.OrderUpdate;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * MappedJournalEventRepo 测试类
+ *
+ * 验证各类行情的编解码往返、跨分段滚动、刷盘覆盖滚动过的分段、独立读取方、多写入方并发追加以及重启后继续追加和读取
+ */
+public class MappedJournalEventRepoTest {
+
+    private static final int SMALL_SEGMENT = 4096;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testRoundTripsMarketDataTypes() {
+        try (MappedJournalEventRepo<MarketData> repo = new MappedJournalEventRepo<>(directory, SMALL_SEGMENT, new MarketDataJournalCodec())) {
+            List<MarketData> sent = new ArrayList<>();
+            sent.add(MarketData.of(trade("BTCUSDT", 1)));
+            sent.add(MarketData.of(quote("ETHUSDT")));
+            sent.add(MarketData.of(bar("BTCUSDT")));
+            sent.add(MarketData.of(depth("BTCUSDT")));
+            sent.add(MarketData.of(deltas("ETHUSDT")));
+            for (MarketData data : sent) {
+                Event<MarketData> event = new Event<>(EventType.BINANCE_TRADE_TICK, 0, data);
+                event.setTypeCode((short) (EventType.VENUE_BINANCE << EventType.KIND_BITS | data.getType()));
+                event.receiveNanos = 11;
+                event.decodeNanos = 22;
+                event.enqueueNanos = 33;
+                assertTrue(repo.send(event));
+            }
+            assertFalse(repo.send(new Event<>(EventType.BINANCE_ORDER_UPDATE, 0, MarketData.of(new OrderUpdate()))),
+                    "不支持的类型不写入");
+
+            for (MarketData expected : sent) {
+                Event<MarketData> event = repo.poll();
+                assertNotNull(event);
+                assertEquals(expected.getType(), event.payload.getType());
+                assertEquals(expected.getMessage(), event.payload.getMessage());
+                assertEquals(EventType.VENUE_BINANCE, event.venueId);
+                assertEquals(InstrumentRegistry.idOf(expected.symbol()), event.instrumentId, "品种编号按代码重新解析");
+                assertEquals(11, event.receiveNanos);
+                assertEquals(22, event.decodeNanos);
+                assertEquals(33, event.enqueueNanos);
+            }
+            assertNull(repo.poll());
+        }
+    }
+
+    @Test
+    public void testRollsSegmentsAndReadersAreIndependent() {
+        try (MappedJournalEventRepo<MarketData> repo = new MappedJournalEventRepo<>(directory, SMALL_SEGMENT, new MarketDataJournalCodec())) {
+            JournalReader early = repo.newReader();
+            for (int i = 0; i < 500; i++) {
+                assertTrue(repo.send(tradeEvent(i)));
+            }
+            JournalReader late = repo.newReaderAtTail();
+            assertFalse(late.next(), "尾部读取方只读取之后的记录");
+            assertTrue(repo.getJournal().getTailPosition() > 10L * SMALL_SEGMENT, "应跨越多个分段");
+
+            for (int i = 0; i < 500; i++) {
+                assertTrue(early.next());
+                assertEquals(EventType.BINANCE_TRADE_TICK, early.typeCode());
+                assertEquals(i, early.receiveNanos());
+                TradeTick trade = (TradeTick) repo.getCodec().decode(early.buffer(), early.payloadOffset(), early.payloadLength()).getMessage();
+                assertEquals(String.valueOf(i), trade.tradeId);
+            }
+            assertFalse(early.next());
+
+            repo.send(tradeEvent(500));
+            assertTrue(late.next());
+            assertEquals(500, late.receiveNanos());
+            assertTrue(early.next());
+            assertEquals(500, early.receiveNanos());
+            // 仓储自带的读取方不受其它读取方影响
+            assertEquals("0", ((TradeTick) repo.poll().payload.getMessage()).tradeId);
+        }
+    }
+
+    @Test
+    public void testFlushCoversSegmentsWrittenSinceLastFlush() {
+        try (MappedJournalEventRepo<MarketData> repo = new MappedJournalEventRepo<>(directory, SMALL_SEGMENT, new MarketDataJournalCodec())) {
+            MappedJournal journal = repo.getJournal();
+            for (int i = 0; i < 500; i++) {
+                assertTrue(repo.send(tradeEvent(i)));
+            }
+            long last = journal.getTailPosition() / SMALL_SEGMENT;
+            assertTrue(last > 4, "应滚动超过保留的映射数");
+            // 尚未刷盘：已滚过的分段全部保留映射，刷盘时能逐个刷到
+            for (long index = 0; index <= last; index++) {
+                assertTrue(journal.isMapped(index), "未刷盘的分段 " + index + " 不应释放映射");
+            }
+
+            journal.flush();
+            for (int i = 0; i < 100; i++) {
+                assertTrue(repo.send(tradeEvent(i)));
+            }
+            assertFalse(journal.isMapped(0), "刷盘后较早的分段按保留数释放映射");
+            assertTrue(journal.isMapped(last), "刷盘后写入的分段保留到下次刷盘");
+        }
+    }
+
+    @Test
+    public void testConcurrentWritersKeepPerWriterOrder() throws InterruptedException {
+        int writers = 4;
+        int perWriter = 20_000;
+        try (MappedJournalEventRepo<MarketData> repo = new MappedJournalEventRepo<>(directory, 64 * 1024, new MarketDataJournalCodec())) {
+            List<Thread> threads = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                int writer = w;
+                threads.add(new Thread(() -> {
+                    for (int i = 0; i < perWriter; i++) {
+                        Event<MarketData> event = tradeEvent(i);
+                        event.decodeNanos = writer;
+                        repo.send(event);
+                    }
+                }));
+            }
+            threads.forEach(Thread::start);
+
+            long[] next = new long[writers];
+            JournalReader reader = repo.newReader();
+            int read = 0;
+            while (read < writers * perWriter) {
+                if (!reader.next()) {
+                    Thread.onSpinWait();
+                    continue;
+                }
+                int writer = (int) reader.decodeNanos();
+                assertEquals(next[writer]++, reader.receiveNanos(), "同一写入方的记录应保持顺序");
+                read++;
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            assertFalse(reader.next());
+        }
+    }
+
+    @Test
+    public void testSurvivesRestart() {
+        long tail;
+        try (MappedJournalEventRepo<MarketData> repo = new MappedJournalEventRepo<>(directory, SMALL_SEGMENT, new MarketDataJournalCodec())) {
+            for (int i = 0; i < 100; i++) {
+                repo.send(tradeEvent(i));
+            }
+            tail = repo.getJournal().getTailPosition();
+        }
+        try (MappedJournalEventRepo<MarketData> repo = new MappedJournalEventRepo<>(directory, SMALL_SEGMENT, new MarketDataJournalCodec())) {
+            assertEquals(tail, repo.getJournal().getTailPosition(), "重启后从最后一条记录之后继续追加");
+            for (int i = 100; i < 200; i++) {
+                repo.send(tradeEvent(i));
+            }
+            for (int i = 0; i < 200; i++) {
+                Event<MarketData> event = repo.poll();
+                assertNotNull(event, "记录 " + i);
+                assertEquals(i, event.receiveNanos);
+            }
+            assertNull(repo.poll());
+        }
+    }
+
+    private static Event<MarketData> tradeEvent(int i) {
+        Event<MarketData> event = new Event<>(EventType.BINANCE_TRADE_TICK, 0, MarketData.of(trade("BTCUSDT", i)));
+        event.receiveNanos = i;
+        return event;
+    }
+
+    private static TradeTick trade(String symbol, int i) {
+        TradeTick trade = new TradeTick();
+        trade.symbol = symbol;
+        trade.tradeId = String.valueOf(i);
+        trade.price = Price.of("65000.12");
+        trade.quantity = Quantity.of("0.003");
+        trade.eventTimeMs = 1_700_000_000_000L + i;
+        trade.tradeTimeMs = 1_700_000_000_000L + i;
+        trade.isBuyerMaker = i % 2 == 0;
+        return trade;
+    }
+
+    private static QuoteTick quote(String symbol) {
+        QuoteTick quote = new QuoteTick();
+        quote.setSymbol(symbol);
+        quote.setBidPrice(Price.of("3500.10"));
+        quote.setBidQuantity(Quantity.of("1.5"));
+        quote.setAskPrice(Price.of("3500.11"));
+        quote.setAskQuantity(Quantity.of("2"));
+        quote.setTimestampMs(1_700_000_000_000L);
+        quote.setVolume(123.5);
+        return quote;
+    }
+
+    private static Bar bar(String symbol) {
+        Bar bar = new Bar();
+        bar.setSymbol(symbol);
+        bar.setInterval("1m");
+        bar.setOpenTime(1_700_000_000_000L);
+        bar.setCloseTime(1_700_000_059_999L);
+        bar.setOpenPrice(65000);
+        bar.setHighPrice(65100);
+        bar.setLowPrice(64900);
+        bar.setClosePrice(65050);
+        bar.setVolume(12.5);
+        bar.setTradeCount(42);
+        bar.setClosed(true);
+        return bar;
+    }
+
+    private static OrderBookDepth10 depth(String symbol) {
+        OrderBookDepth10 depth = new OrderBookDepth10();
+        depth.setSymbol(symbol);
+        depth.setEventTime(1_700_000_000_000L);
+        depth.setLastUpdateId(99);
+        depth.setBids(List.of(new PriceLevel("65000.1", "0.5"), new PriceLevel("65000.0", "1.25")));
+        depth.setAsks(List.of(new PriceLevel("65000.2", "0.75")));
+        return depth;
+    }
+
+    private static OrderBookDeltas deltas(String symbol) {
+        OrderBookDeltas deltas = new OrderBookDeltas();
+        deltas.setSymbol(symbol);
+        deltas.setEventTime(1_700_000_000_000L);
+        deltas.setFirstUpdateId(100);
+        deltas.setLastUpdateId(105);
+        deltas.setPreviousUpdateId(99);
+        deltas.setBids(List.of(new PriceLevel("3500.1", "0")));
+        deltas.setAsks(List.of(new PriceLevel("3500.2", "3")));
+        return deltas;
+    }
+}
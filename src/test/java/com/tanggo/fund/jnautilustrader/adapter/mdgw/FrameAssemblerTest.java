@@ -0,0 +1,70 @@
+package com.tanggo.fund.jnautilustrader.adapter.mdgw;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.nio.CharBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * FrameAssembler 测试类
+ *
+ * 验证各种 CharSequence 分片的重组、扩容、前缀判断，以及稳定状态下重组不分配内存
+ */
+public class FrameAssemblerTest {
+
+    @Test
+    public void testAssemblesFragmentsOfAnyCharSequenceType() {
+        FrameAssembler assembler = new FrameAssembler(16);
+        CharBuffer heapFragment = CharBuffer.wrap("xx{\"result\":".toCharArray(), 2, 10).slice();
+        assembler.append(heapFragment);
+        assembler.append("null,");
+        assembler.append(new StringBuilder("\"id\":"));
+        assembler.append(CharBuffer.wrap("12345678901234567890}"));
+
+        String expected = "{\"result\":null,\"id\":12345678901234567890}";
+        assertEquals(expected.length(), assembler.length());
+        assertEquals(expected, new String(assembler.buffer(), 0, assembler.length()), "扩容后内容应完整");
+        assertEquals(0, heapFragment.position(), "不应改变分片的position");
+        assertTrue(assembler.startsWith("{\"result\""));
+        assertFalse(assembler.startsWith("{\"error\""));
+
+        assembler.reset();
+        assertEquals(0, assembler.length());
+        assertFalse(assembler.startsWith("{"));
+        assembler.append("pong");
+        assertTrue(assembler.contentEquals("pong"));
+        assertFalse(assembler.contentEquals("pon"));
+        assertEquals("pong", assembler.toString());
+    }
+
+    @Test
+    public void testSteadyStateAssemblyDoesNotAllocate() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        char[] frame = ("{\"stream\":\"btcusdt@trade\",\"data\":{\"e\":\"trade\",\"E\":1736899200025,\"s\":\"BTCUSDT\","
+                + "\"p\":\"96508.11\",\"q\":\"0.21529300\"}}").toCharArray();
+        CharBuffer first = CharBuffer.wrap(frame, 0, 40).slice();
+        CharBuffer last = CharBuffer.wrap(frame, 40, frame.length - 40).slice();
+        FrameAssembler assembler = new FrameAssembler();
+
+        long checksum = assemble(assembler, first, last, 1_000);
+        long before = threads.getCurrentThreadAllocatedBytes();
+        checksum += assemble(assembler, first, last, 100_000);
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        assertEquals(101_000L * frame.length, checksum);
+        assertTrue(allocated < 1024, "重组10万条消息不应分配内存，实际分配 " + allocated + " 字节");
+    }
+
+    private static long assemble(FrameAssembler assembler, CharBuffer first, CharBuffer last, int count) {
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            assembler.append(first);
+            assembler.append(last);
+            total += assembler.length();
+            assembler.reset();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,290 @@
+package com.tanggo.fund.jnautilustrader.adapter.mdgw;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 本地WebSocket测试服务器
+ *
+ * 代替交易所的行情服务器：在回环地址上完成WebSocket握手，记录每个连接的请求路径和收到的文本帧，
+ * 测试通过 {@link Connection#sendText(String)} 推送录制的行情帧。只实现测试需要的协议子集（文本、ping、close帧）。
+ * 普通HTTP请求（REST接口）交给 {@link #setHttpHandler} 设置的处理函数，返回null时响应404。
+ */
+public class LocalWebSocketServer implements AutoCloseable {
+
+    private static final String WEBSOCKET_GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+
+    private final ServerSocket serverSocket;
+    private final BlockingQueue<Connection> accepted = new LinkedBlockingQueue<>();
+    private final List<Connection> connections = new CopyOnWriteArrayList<>();
+    private final BlockingQueue<String> httpRequests = new LinkedBlockingQueue<>();
+    private volatile Function<String, String> httpHandler = path -> null;
+    private volatile boolean closed;
+
+    public LocalWebSocketServer() throws IOException {
+        this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread acceptThread = new Thread(this::acceptLoop, "local-ws-accept");
+        acceptThread.setDaemon(true);
+        acceptThread.start();
+    }
+
+    /**
+     * WebSocket基础地址，如 ws://127.0.0.1:12345
+     */
+    public String baseUrl() {
+        return "ws://" + serverSocket.getInetAddress().getHostAddress() + ":" + serverSocket.getLocalPort();
+    }
+
+    /**
+     * 等待下一个完成握手的连接，超时返回null
+     */
+    public Connection awaitConnection(long timeout, TimeUnit unit) throws InterruptedException {
+        return accepted.poll(timeout, unit);
+    }
+
+    /**
+     * HTTP基础地址，如 http://127.0.0.1:12345
+     */
+    public String httpUrl() {
+        return "http://" + serverSocket.getInetAddress().getHostAddress() + ":" + serverSocket.getLocalPort();
+    }
+
+    /**
+     * 设置HTTP请求处理函数：参数为请求路径（含查询参数），返回响应体（200，JSON），返回null响应404；
+     * 在连接线程上调用，可以阻塞以模拟慢响应
+     */
+    public void setHttpHandler(Function<String, String> httpHandler) {
+        this.httpHandler = httpHandler;
+    }
+
+    /**
+     * 等待下一个HTTP请求的路径，超时返回null
+     */
+    public String awaitHttpRequest(long timeout, TimeUnit unit) throws InterruptedException {
+        return httpRequests.poll(timeout, unit);
+    }
+
+    public List<Connection> getConnections() {
+        return connections;
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        serverSocket.close();
+        for (Connection connection : connections) {
+            connection.close();
+        }
+    }
+
+    private void acceptLoop() {
+        while (!closed) {
+            try {
+                Socket socket = serverSocket.accept();
+                Thread reader = new Thread(() -> serve(socket), "local-ws-conn");
+                reader.setDaemon(true);
+                reader.start();
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try {
+            InputStream in = socket.getInputStream();
+            String request = readHeaders(in);
+            String[] lines = request.split("\r\n");
+            String path = lines[0].split(" ")[1];
+            String key = null;
+            for (String line : lines) {
+                int colon = line.indexOf(':');
+                if (colon > 0 && line.substring(0, colon).trim().equalsIgnoreCase("Sec-WebSocket-Key")) {
+                    key = line.substring(colon + 1).trim();
+                }
+            }
+            if (key == null) {
+                serveHttp(socket, path);
+                return;
+            }
+            String response = "HTTP/1.1 101 Switching Protocols\r\nUpgrade: websocket\r\nConnection: Upgrade\r\n"
+                    + "Sec-WebSocket-Accept: " + acceptKey(key) + "\r\n\r\n";
+            socket.getOutputStream().write(response.getBytes(StandardCharsets.US_ASCII));
+            socket.getOutputStream().flush();
+
+            Connection connection = new Connection(socket, path);
+            connections.add(connection);
+            accepted.add(connection);
+            connection.readFrames(new DataInputStream(in));
+        } catch (IOException e) {
+            // 连接关闭
+        }
+    }
+
+    private void serveHttp(Socket socket, String path) throws IOException {
+        httpRequests.add(path);
+        String body = httpHandler.apply(path);
+        byte[] bytes = body != null ? body.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        String status = body != null ? "200 OK" : "404 Not Found";
+        String headers = "HTTP/1.1 " + status + "\r\nContent-Type: application/json\r\nContent-Length: " + bytes.length
+                + "\r\nConnection: close\r\n\r\n";
+        OutputStream out = socket.getOutputStream();
+        out.write(headers.getBytes(StandardCharsets.US_ASCII));
+        out.write(bytes);
+        out.flush();
+        socket.close();
+    }
+
+    private static String readHeaders(InputStream in) throws IOException {
+        ByteArrayOutputStream headers = new ByteArrayOutputStream();
+        int matched = 0;
+        while (matched < 4) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException("Connection closed during handshake");
+            }
+            headers.write(b);
+            matched = (b == '\r' && (matched == 0 || matched == 2)) || (b == '\n' && (matched == 1 || matched == 3)) ? matched + 1 : 0;
+        }
+        return headers.toString(StandardCharsets.US_ASCII);
+    }
+
+    private static String acceptKey(String key) {
+        try {
+            MessageDigest sha1 = MessageDigest.getInstance("SHA-1");
+            return Base64.getEncoder().encodeToString(sha1.digest((key + WEBSOCKET_GUID).getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 一个客户端连接
+     */
+    public static class Connection {
+        private final Socket socket;
+        private final String path;
+        private final BlockingQueue<String> received = new LinkedBlockingQueue<>();
+
+        Connection(Socket socket, String path) {
+            this.socket = socket;
+            this.path = path;
+        }
+
+        /**
+         * 握手请求的路径（含查询参数），如 /stream?streams=btcusdt@trade
+         */
+        public String getPath() {
+            return path;
+        }
+
+        /**
+         * 等待下一条客户端发来的文本消息，超时返回null
+         */
+        public String awaitText(long timeout, TimeUnit unit) throws InterruptedException {
+            return received.poll(timeout, unit);
+        }
+
+        /**
+         * 推送一条文本帧
+         */
+        public synchronized void sendText(String text) throws IOException {
+            writeFrame(0x1, text.getBytes(StandardCharsets.UTF_8));
+        }
+
+        /**
+         * 关闭连接（不发送close帧，模拟网络断开）
+         */
+        public void close() throws IOException {
+            socket.close();
+        }
+
+        public boolean isClosed() {
+            return socket.isClosed();
+        }
+
+        private synchronized void writeFrame(int opcode, byte[] payload) throws IOException {
+            OutputStream out = socket.getOutputStream();
+            out.write(0x80 | opcode);
+            if (payload.length < 126) {
+                out.write(payload.length);
+            } else if (payload.length <= 0xFFFF) {
+                out.write(126);
+                out.write(payload.length >>> 8);
+                out.write(payload.length);
+            } else {
+                out.write(127);
+                for (int shift = 56; shift >= 0; shift -= 8) {
+                    out.write((int) ((long) payload.length >>> shift));
+                }
+            }
+            out.write(payload);
+            out.flush();
+        }
+
+        private void readFrames(DataInputStream in) throws IOException {
+            ByteArrayOutputStream message = new ByteArrayOutputStream();
+            try {
+                while (true) {
+                    int b0 = in.readUnsignedByte();
+                    int b1 = in.readUnsignedByte();
+                    boolean fin = (b0 & 0x80) != 0;
+                    int opcode = b0 & 0x0F;
+                    long length = b1 & 0x7F;
+                    if (length == 126) {
+                        length = in.readUnsignedShort();
+                    } else if (length == 127) {
+                        length = in.readLong();
+                    }
+                    byte[] mask = new byte[4];
+                    if ((b1 & 0x80) != 0) {
+                        in.readFully(mask);
+                    }
+                    byte[] payload = new byte[(int) length];
+                    in.readFully(payload);
+                    for (int i = 0; i < payload.length; i++) {
+                        payload[i] ^= mask[i & 3];
+                    }
+                    switch (opcode) {
+                        case 0x0, 0x1 -> {
+                            message.write(payload);
+                            if (fin) {
+                                received.add(message.toString(StandardCharsets.UTF_8));
+                                message.reset();
+                            }
+                        }
+                        case 0x8 -> {
+                            writeFrame(0x8, payload);
+                            socket.close();
+                            return;
+                        }
+                        case 0x9 -> writeFrame(0xA, payload);
+                        default -> {
+                            // pong和二进制帧忽略
+                        }
+                    }
+                }
+            } catch (EOFException | SocketException e) {
+                socket.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package com.tanggo.fund.jnautilustrader.adapter.mdgw.bn;
+
+import com.lmax.disruptor.BlockingWaitStrategy;
+import com.lmax.disruptor.dsl.ProducerType;
+import com.tanggo.fund.jnautilustrader.adapter.event_repo.event.BlockingQueueEventRepo;
+import com.tanggo.fund.jnautilustrader.adapter.event_repo.event.FlowControlEventRepo;
+import com.tanggo.fund.jnautilustrader.adapter.event_repo.event.PollingDisruptorEventRepo;
+import com.tanggo.fund.jnautilustrader.adapter.mdgw.LocalWebSocketServer;
+import com.tanggo.fund.jnautilustrader.adapter.mdgw.RecordedFrames;
+import com.tanggo.fund.jnautilustrader.core.actor.LatencyRecorder;
+import com.tanggo.fund.jnautilustrader.core.entity.Event;
+import com.tanggo.fund.jnautilustrader.core.entity.EventRepo;
+import com.tanggo.fund.jnautilustrader.core.entity.MarketData;
+import com.tanggo.fund.jnautilustrader.core.entity.event.data.QuoteTick;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * BNMDGWWebSocketClient 测试类
+ *
+ * 使用本地WebSocket服务器代替币安：验证品种按连接上限分片到多个组合流连接、每个连接在自己的解码线程上解析，
+ * 运行时订阅/退订在已建立的连接上发送 SUBSCRIBE/UNSUBSCRIBE 帧，diff-depth 流通过REST快照同步本地订单簿，
+ * 仓储积压时暂停读取连接，事件上的收包、解析、入队时间戳和对应的延迟记录，以及 claim/commit 复用预分配槽位
+ */
+public class BNMDGWWebSocketClientTest {
+
+    private static final String TRADE_FRAME = "{\"stream\":\"%s@trade\",\"data\":{\"e\":\"trade\",\"E\":1736899200025,"
+            + "\"s\":\"%S\",\"t\":4441234501,\"p\":\"96508.11\",\"q\":\"0.21529300\",\"T\":1736899200025,\"m\":true,\"M\":true}}";
+    private static final long TIMEOUT_SECONDS = 10;
+
+    private LocalWebSocketServer server;
+    private BNMDGWWebSocketClient gateway;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        server = new LocalWebSocketServer();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        if (gateway != null) {
+            gateway.stop();
+        }
+        server.close();
+    }
+
+    @Test
+    public void testShardsSymbolsAcrossConnectionsWithOwnDecodeThreads() throws Exception {
+        // 品种 -> 解析该品种的线程
+        Map<String, String> decodeThreads = new ConcurrentHashMap<>();
+        CountDownLatch published = new CountDownLatch(5);
+        gateway = new BNMDGWWebSocketClient(recordingRepo(decodeThreads, published));
+        gateway.setBaseUrl(server.baseUrl());
+        gateway.setSymbols(List.of("btcusdt", "ethusdt", "solusdt", "bnbusdt", "xrpusdt"));
+        gateway.setChannels(List.of("trade", "bookTicker"));
+        gateway.setMaxStreamsPerConnection(4);
+        gateway.start_link();
+
+        // 10个流、每个连接4个：3个连接
+        List<LocalWebSocketServer.Connection> connections = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            LocalWebSocketServer.Connection connection = server.awaitConnection(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            assertNotNull(connection, "应建立第 " + (i + 1) + " 个连接");
+            connections.add(connection);
+        }
+        assertNull(server.awaitConnection(300, TimeUnit.MILLISECONDS), "不应建立多余的连接");
+
+        Set<String> allStreams = new HashSet<>();
+        Map<String, LocalWebSocketServer.Connection> bySymbol = new ConcurrentHashMap<>();
+        for (LocalWebSocketServer.Connection connection : connections) {
+            String path = connection.getPath();
+            assertTrue(path.startsWith("/stream?streams="), path);
+            String[] streams = path.substring("/stream?streams=".length()).split("/");
+            assertTrue(streams.length <= 4, "每个连接不超过4个流: " + path);
+            for (String stream : streams) {
+                allStreams.add(stream);
+                bySymbol.putIfAbsent(stream.substring(0, stream.indexOf('@')), connection);
+            }
+        }
+        assertEquals(10, allStreams.size());
+
+        for (Map.Entry<String, LocalWebSocketServer.Connection> entry : bySymbol.entrySet()) {
+            entry.getValue().sendText(String.format(TRADE_FRAME, entry.getKey(), entry.getKey()));
+        }
+        assertTrue(published.await(TIMEOUT_SECONDS, TimeUnit.SECONDS), "每个品种的行情都应发布");
+
+        // 同一连接上的品种在同一解码线程上解析，不同连接的解码线程不同
+        Map<LocalWebSocketServer.Connection, String> threadOfConnection = new ConcurrentHashMap<>();
+        for (Map.Entry<String, LocalWebSocketServer.Connection> entry : bySymbol.entrySet()) {
+            String thread = decodeThreads.get(entry.getKey().toUpperCase());
+            assertNotNull(thread);
+            assertTrue(thread.startsWith("bn-md-decode-"), thread);
+            String previous = threadOfConnection.putIfAbsent(entry.getValue(), thread);
+            assertTrue(previous == null || previous.equals(thread));
+        }
+        assertEquals(3, new HashSet<>(threadOfConnection.values()).size(), "每个连接应有自己的解码线程");
+    }
+
+    @Test
+    public void testRuntimeSubscribeAndUnsubscribe() throws Exception {
+        gateway = new BNMDGWWebSocketClient(recordingRepo(new ConcurrentHashMap<>(), new CountDownLatch(1)));
+        gateway.setBaseUrl(server.baseUrl());
+        gateway.setSymbols(List.of("btcusdt"));
+        gateway.setChannels(List.of("trade"));
+        gateway.setMaxStreamsPerConnection(2);
+        gateway.start_link();
+
+        LocalWebSocketServer.Connection first = server.awaitConnection(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertNotNull(first);
+        assertEquals("/stream?streams=btcusdt@trade", first.getPath());
+        awaitConnected();
+
+        // 第一个连接还有空位：在已建立的连接上发送 SUBSCRIBE
+        gateway.subscribe("ETHUSDT");
+        String subscribe = first.awaitText(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertNotNull(subscribe, "应发送SUBSCRIBE帧");
+        assertTrue(subscribe.startsWith("{\"method\":\"SUBSCRIBE\",\"params\":[\"ethusdt@trade\"],\"id\":"), subscribe);
+
+        // 第一个连接已满：新建连接，URL中包含新流
+        gateway.subscribe("solusdt");
+        LocalWebSocketServer.Connection second = server.awaitConnection(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertNotNull(second, "连接已满时应新建连接");
+        assertEquals("/stream?streams=solusdt@trade", second.getPath());
+
+        // 退订：先退订后，控制帧间隔限制下仍按顺序发送
+        gateway.unsubscribe("btcusdt");
+        String unsubscribe = first.awaitText(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertNotNull(unsubscribe, "应发送UNSUBSCRIBE帧");
+        assertTrue(unsubscribe.startsWith("{\"method\":\"UNSUBSCRIBE\",\"params\":[\"btcusdt@trade\"]"), unsubscribe);
+        assertNull(second.awaitText(300, TimeUnit.MILLISECONDS), "其它连接不应收到控制帧");
+    }
+
+    @Test
+    public void testDiffDepthStreamSyncsBookFromRestSnapshot() throws Exception {
+        List<String> snapshots = new ArrayList<>();
+        List<String> updates = new ArrayList<>();
+        for (String frame : RecordedFrames.load(RecordedFrames.BINANCE_DIFF_DEPTH)) {
+            (frame.startsWith("{\"lastUpdateId\"") ? snapshots : updates).add(frame);
+        }
+        AtomicInteger requestCount = new AtomicInteger();
+        server.setHttpHandler(path -> snapshots.get(Math.min(requestCount.getAndIncrement(), snapshots.size() - 1)));
+
+        BlockingQueue<MarketData> published = new LinkedBlockingQueue<>();
+        gateway = new BNMDGWWebSocketClient(queueRepo(published));
+        gateway.setBaseUrl(server.baseUrl());
+        gateway.setRestBaseUrl(server.httpUrl());
+        gateway.setSymbols(List.of("btcusdt"));
+        gateway.setChannels(List.of("depth@100ms"));
+        gateway.start_link();
+
+        LocalWebSocketServer.Connection connection = server.awaitConnection(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertNotNull(connection);
+        assertEquals("/stream?streams=btcusdt@depth@100ms", connection.getPath());
+        for (String update : updates) {
+            connection.sendText(update);
+        }
+        assertEquals("/api/v3/depth?symbol=BTCUSDT&limit=1000", server.awaitHttpRequest(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+        // 无论增量在快照之前还是之后到达，最终报价都应反映全部增量（包括跳号后重新同步）
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        QuoteTick last = null;
+        while (System.nanoTime() < deadline && !(last != null && last.getBidPrice().asDouble() == 96508.16
+                && last.getAskPrice().asDouble() == 96508.18)) {
+            MarketData data = published.poll(100, TimeUnit.MILLISECONDS);
+            if (data != null && data.getType() == MarketData.QUOTE_TICK) {
+                last = data.asQuoteTick();
+            }
+        }
+        assertNotNull(last, "应发布最优报价");
+        assertEquals(96508.16, last.getBidPrice().asDouble(), 1e-9);
+        assertEquals(96508.18, last.getAskPrice().asDouble(), 1e-9);
+    }
+
+    @Test
+    public void testWithholdsSocketReadsWhileRepoIsBacklogged() throws Exception {
+        FlowControlEventRepo<MarketData> repo = new FlowControlEventRepo<>(new BlockingQueueEventRepo<>());
+        repo.setHighWatermark(2);
+        repo.setLowWatermark(0);
+        gateway = new BNMDGWWebSocketClient(repo);
+        gateway.setBaseUrl(server.baseUrl());
+        gateway.setSymbols(List.of("btcusdt"));
+        gateway.setChannels(List.of("trade"));
+        gateway.start_link();
+
+        LocalWebSocketServer.Connection connection = server.awaitConnection(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertNotNull(connection);
+        for (int i = 0; i < 5; i++) {
+            connection.sendText(String.format(TRADE_FRAME, "btcusdt", "btcusdt"));
+        }
+
+        // 积压到高水位后不再 request(1)，其余消息留在连接中
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (repo.getBacklog() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(200);
+        assertEquals(2, repo.getBacklog(), "到达高水位后应暂停读取");
+        assertEquals(1, repo.getPausedCount());
+
+        // 消费后恢复读取，消息不丢
+        int received = 0;
+        deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (received < 5 && System.nanoTime() < deadline) {
+            if (repo.poll() != null) {
+                received++;
+            } else {
+                Thread.sleep(5);
+            }
+        }
+        assertEquals(5, received);
+        assertTrue(repo.getPauseCount() >= 1);
+    }
+
+    @Test
+    public void testStampsEventsAndRecordsGatewayLatency() throws Exception {
+        BlockingQueueEventRepo<MarketData> repo = new BlockingQueueEventRepo<>();
+        LatencyRecorder recorder = new LatencyRecorder();
+        gateway = new BNMDGWWebSocketClient(repo);
+        gateway.setLatencyRecorder(recorder);
+        gateway.setBaseUrl(server.baseUrl());
+        gateway.setSymbols(List.of("btcusdt"));
+        gateway.setChannels(List.of("trade"));
+        gateway.start_link();
+
+        LocalWebSocketServer.Connection connection = server.awaitConnection(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertNotNull(connection);
+        long sentNanos = System.nanoTime();
+        connection.sendText(String.format(TRADE_FRAME, "btcusdt", "btcusdt"));
+
+        Event<MarketData> event = null;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (event == null && System.nanoTime() < deadline) {
+            event = repo.poll();
+            if (event == null) {
+                Thread.sleep(5);
+            }
+        }
+        assertNotNull(event);
+        assertTrue(event.receiveNanos >= sentNanos, "收包时间应晚于服务器发送");
+        assertTrue(event.decodeNanos >= event.receiveNanos);
+        assertTrue(event.enqueueNanos >= event.decodeNanos);
+        assertEquals(0, event.dequeueNanos, "出队时间由策略打");
+
+        // 入队阶段在发送返回后记录
+        while (recorder.histogram(LatencyRecorder.Stage.DECODE_TO_ENQUEUE).snapshot().getTotalCount() == 0
+                && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(1, recorder.histogram(LatencyRecorder.Stage.WIRE_TO_DECODE).snapshot().getTotalCount());
+        assertEquals(1, recorder.histogram(LatencyRecorder.Stage.DECODE_TO_ENQUEUE).snapshot().getTotalCount());
+        assertEquals(0, recorder.histogram(LatencyRecorder.Stage.QUEUE_WAIT).snapshot().getTotalCount());
+        assertTrue(recorder.dump().startsWith("wire-to-decode interval[count=1 "), "输出应包含有记录的阶段");
+    }
+
+    @Test
+    public void testPublishesIntoPreallocatedSlots() throws Exception {
+        PollingDisruptorEventRepo<MarketData> repo = new PollingDisruptorEventRepo<>(2, ProducerType.SINGLE,
+                new BlockingWaitStrategy(), MarketData::reusable);
+        gateway = new BNMDGWWebSocketClient(repo);
+
+        List<Event<MarketData>> events = new ArrayList<>();
+        List<MarketData> carriers = new ArrayList<>();
+        for (String symbol : List.of("btcusdt", "ethusdt", "solusdt")) {
+            char[] frame = String.format(TRADE_FRAME, symbol, symbol).toCharArray();
+            assertTrue(gateway.handleMessage(frame, 0, frame.length));
+            Event<MarketData> event = repo.poll();
+            assertNotNull(event);
+            assertEquals("BINANCE_TRADE_TICK", event.type);
+            assertEquals(symbol.toUpperCase(), event.payload.asTradeTick().getSymbol());
+            assertTrue(event.enqueueNanos >= event.decodeNanos);
+            events.add(event);
+            carriers.add(event.payload);
+        }
+        // 容量为2，第三条复用第一条的槽位：事件和MarketData载体都不重新分配
+        assertSame(events.get(0), events.get(2));
+        assertSame(carriers.get(0), carriers.get(2));
+        assertNotSame(events.get(0), events.get(1));
+        assertEquals("SOLUSDT", carriers.get(0).symbol());
+    }
+
+    private void awaitConnected() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (!gateway.isConnected() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(gateway.isConnected());
+    }
+
+    private static EventRepo<MarketData> queueRepo(BlockingQueue<MarketData> published) {
+        return new EventRepo<>() {
+            @Override
+            public Event<MarketData> receive() {
+                return null;
+            }
+
+            @Override
+            public boolean send(Event<MarketData> event) {
+                published.add(event.payload);
+                return true;
+            }
+        };
+    }
+
+    private static EventRepo<MarketData> recordingRepo(Map<String, String> decodeThreads, CountDownLatch published) {
+        return new EventRepo<>() {
+            @Override
+            public Event<MarketData> receive() {
+                return null;
+            }
+
+            @Override
+            public boolean send(Event<MarketData> event) {
+                decodeThreads.put(event.payload.symbol(), Thread.currentThread().getName());
+                published.countDown();
+                return true;
+            }
+        };
+    }
+}
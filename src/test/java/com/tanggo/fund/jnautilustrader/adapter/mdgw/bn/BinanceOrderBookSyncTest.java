@@ -0,0 +1,141 @@
+package com.tanggo.fund.jnautilustrader.adapter.mdgw.bn;
+
+import com.tanggo.fund.jnautilustrader.adapter.mdgw.LocalWebSocketServer;
+import com.tanggo.fund.jnautilustrader.adapter.mdgw.RecordedFrames;
+import com.tanggo.fund.jnautilustrader.core.entity.event.data.OrderBookDeltas;
+import com.tanggo.fund.jnautilustrader.core.entity.event.data.OrderBookDepth10;
+import com.tanggo.fund.jnautilustrader.core.entity.event.data.QuoteTick;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpClient;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * BinanceOrderBookSync 测试类
+ *
+ * 使用本地服务器代替币安REST接口、按录制顺序返回深度快照：验证快照到达前的增量被缓存并在快照后回放，
+ * 跳号时自动重新获取快照同步，以及同步后的增量和最优报价的发布
+ */
+public class BinanceOrderBookSyncTest {
+
+    private static final long TIMEOUT_SECONDS = 10;
+
+    private LocalWebSocketServer server;
+    private ExecutorService executor;
+    private BinanceOrderBookSync sync;
+    private final BlockingQueue<Object> published = new LinkedBlockingQueue<>();
+    private final List<String> snapshots = new ArrayList<>();
+    private final List<OrderBookDeltas> deltas = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        BinanceStreamDecoder decoder = new BinanceStreamDecoder();
+        for (String frame : RecordedFrames.load(RecordedFrames.BINANCE_DIFF_DEPTH)) {
+            if (frame.startsWith("{\"lastUpdateId\"")) {
+                snapshots.add(frame);
+            } else {
+                deltas.add((OrderBookDeltas) decoder.decode(frame));
+            }
+        }
+        server = new LocalWebSocketServer();
+        executor = Executors.newSingleThreadExecutor();
+        sync = new BinanceOrderBookSync(HttpClient.newBuilder().executor(executor).build(), executor,
+                server.httpUrl() + "/", BinanceOrderBookSync.DEFAULT_SNAPSHOT_LIMIT, published::add);
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        executor.shutdownNow();
+        server.close();
+    }
+
+    @Test
+    public void testBuffersUntilSnapshotAndResyncsOnGap() throws Exception {
+        CountDownLatch releaseFirstSnapshot = new CountDownLatch(1);
+        AtomicInteger requestCount = new AtomicInteger();
+        server.setHttpHandler(path -> {
+            int index = requestCount.getAndIncrement();
+            if (index == 0) {
+                await(releaseFirstSnapshot);
+            }
+            return index < snapshots.size() ? snapshots.get(index) : null;
+        });
+
+        // 快照返回前的3条增量全部缓存，只发出一次快照请求
+        for (int i = 0; i < 3; i++) {
+            onDeltas(deltas.get(i));
+        }
+        assertEquals("/api/v3/depth?symbol=BTCUSDT&limit=1000", server.awaitHttpRequest(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertNull(published.poll(200, TimeUnit.MILLISECONDS), "同步前不应发布任何事件");
+        releaseFirstSnapshot.countDown();
+
+        // 快照 lastUpdateId=...100：丢弃第1条、回放第2、3条后发布合并后的快照和报价
+        OrderBookDepth10 depth = next(OrderBookDepth10.class);
+        assertEquals(58210330110L, depth.getLastUpdateId());
+        assertEquals(96508.15, depth.getBids().get(0).getPrice().asDouble(), 1e-9);
+        assertEquals(96508.10, depth.getBids().get(1).getPrice().asDouble(), 1e-9);
+        assertEquals(0.6, depth.getBids().get(1).getQuantity().asDouble(), 1e-9);
+        assertEquals(96508.20, depth.getAsks().get(0).getPrice().asDouble(), 1e-9, "数量为0的档位应被删除");
+        QuoteTick quote = next(QuoteTick.class);
+        assertEquals(96508.15, quote.getBidPrice().asDouble(), 1e-9);
+        assertEquals(0.25, quote.getBidQuantity().asDouble(), 1e-9);
+        assertEquals(96508.20, quote.getAskPrice().asDouble(), 1e-9);
+        assertEquals(1, sync.getSnapshotCount());
+
+        // 第4条跳号：重新获取快照，快照 lastUpdateId=...122 之后回放第4条
+        onDeltas(deltas.get(3));
+        assertNotNull(server.awaitHttpRequest(TIMEOUT_SECONDS, TimeUnit.SECONDS), "跳号后应重新获取快照");
+        depth = next(OrderBookDepth10.class);
+        assertEquals(58210330125L, depth.getLastUpdateId());
+        assertEquals(96508.18, depth.getAsks().get(0).getPrice().asDouble(), 1e-9);
+        quote = next(QuoteTick.class);
+        assertEquals(96508.18, quote.getAskPrice().asDouble(), 1e-9);
+        assertEquals(0.33, quote.getAskQuantity().asDouble(), 1e-9);
+
+        // 同步后的连续增量原样发布
+        onDeltas(deltas.get(4));
+        assertSame(deltas.get(4), next(OrderBookDeltas.class));
+        quote = next(QuoteTick.class);
+        assertEquals(96508.16, quote.getBidPrice().asDouble(), 1e-9);
+        assertEquals(0.1, quote.getBidQuantity().asDouble(), 1e-9);
+
+        executor.submit(() -> {
+            assertEquals(58210330130L, sync.getBook("BTCUSDT").getLastUpdateId());
+            assertEquals(2, sync.getSnapshotCount());
+            assertEquals(1, sync.getResyncCount());
+            assertEquals(0, sync.getSnapshotFailureCount());
+        }).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertEquals(2, requestCount.get());
+    }
+
+    private void onDeltas(OrderBookDeltas orderBookDeltas) throws Exception {
+        executor.submit(() -> sync.onDeltas(orderBookDeltas)).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private <T> T next(Class<T> type) throws InterruptedException {
+        Object event = published.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertNotNull(event, "应发布 " + type.getSimpleName());
+        assertInstanceOf(type, event);
+        return type.cast(event);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
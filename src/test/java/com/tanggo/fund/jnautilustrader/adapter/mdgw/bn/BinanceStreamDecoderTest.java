@@ -0,0 +1,113 @@
+package com.tanggo.fund.jnautilustrader.adapter.mdgw.bn;
+
+import com.tanggo.fund.jnautilustrader.adapter.mdgw.RecordedFrames;
+import com.tanggo.fund.jnautilustrader.core.entity.InstrumentRegistry;
+import com.tanggo.fund.jnautilustrader.core.entity.Price;
+import com.tanggo.fund.jnautilustrader.core.entity.Quantity;
+import com.tanggo.fund.jnautilustrader.core.entity.event.data.Bar;
+import com.tanggo.fund.jnautilustrader.core.entity.event.data.OrderBookDepth10;
+import com.tanggo.fund.jnautilustrader.core.entity.event.data.QuoteTick;
+import com.tanggo.fund.jnautilustrader.core.entity.event.data.TradeTick;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * BinanceStreamDecoder 测试类
+ *
+ * 验证流式解析结果与原树模型解析器一致，以及字段顺序、单流格式和数值转换
+ */
+public class BinanceStreamDecoderTest {
+
+    @Test
+    public void testMatchesTreeDecoderOnRecordedFrames() throws Exception {
+        List<String> frames = RecordedFrames.load(RecordedFrames.BINANCE_COMBINED);
+        BinanceTreeDecoder treeDecoder = new BinanceTreeDecoder();
+        BinanceStreamDecoder streamDecoder = new BinanceStreamDecoder();
+
+        for (String frame : frames) {
+            Object expected = treeDecoder.decode(frame);
+            char[] chars = frame.toCharArray();
+            Object actual = streamDecoder.decode(chars, 0, chars.length);
+            assertNotNull(actual, "录制帧应能解析: " + frame);
+            if (expected instanceof OrderBookDepth10 depth && depth.getSymbol().isEmpty()) {
+                // 部分深度流的data不含品种代码，原实现得到空字符串，流式解析取流名称中的品种
+                String stream = frame.substring(frame.indexOf(":\"") + 2, frame.indexOf('@'));
+                assertEquals(stream.toUpperCase(), ((OrderBookDepth10) actual).getSymbol());
+                depth.setSymbol(stream.toUpperCase());
+            }
+            assertEquals(expected, actual, "解析结果应与原实现一致: " + frame);
+        }
+    }
+
+    @Test
+    public void testFieldOrderAndSingleStream() throws Exception {
+        BinanceStreamDecoder decoder = new BinanceStreamDecoder();
+
+        // data 在 stream 之前，按第一个字段识别类型
+        Object dataFirst = decoder.decode("{\"data\":{\"u\":400900217,\"s\":\"BNBUSDT\",\"b\":\"25.35190000\","
+                + "\"B\":\"31.21000000\",\"a\":\"25.36520000\",\"A\":\"40.66000000\"},\"stream\":\"bnbusdt@bookTicker\"}");
+        QuoteTick quoteTick = assertInstanceOf(QuoteTick.class, dataFirst);
+        assertEquals("BNBUSDT", quoteTick.getSymbol());
+        assertEquals(Price.of("25.3519"), quoteTick.getBidPrice());
+        assertEquals(Quantity.of("40.66"), quoteTick.getAskQuantity());
+
+        // 单流格式
+        Object single = decoder.decode("{\"e\":\"trade\",\"E\":1672515782136,\"s\":\"BNBBTC\",\"t\":12345,"
+                + "\"p\":\"0.001\",\"q\":\"100\",\"T\":1672515782136,\"m\":true,\"M\":true}");
+        TradeTick tradeTick = assertInstanceOf(TradeTick.class, single);
+        assertEquals("12345", tradeTick.tradeId);
+        assertEquals(Price.of("0.001"), tradeTick.price);
+        assertEquals(3, tradeTick.price.getPrecision());
+        assertTrue(tradeTick.isBuyerMaker);
+
+        // 重复出现的品种返回同一个字符串实例
+        TradeTick again = (TradeTick) decoder.decode("{\"e\":\"trade\",\"s\":\"BNBBTC\",\"p\":\"1\"}");
+        assertSame(tradeTick.symbol, again.symbol);
+
+        // K线字段在嵌套的 k 对象中
+        Object kline = decoder.decode("{\"stream\":\"btcusdt@kline_1m\",\"data\":{\"e\":\"kline\",\"E\":1672515782136,"
+                + "\"s\":\"BTCUSDT\",\"k\":{\"t\":1672515780000,\"T\":1672515839999,\"s\":\"BTCUSDT\",\"i\":\"1m\","
+                + "\"o\":\"16500.10\",\"c\":\"16501.20\",\"h\":\"16502.00\",\"l\":\"16499.90\",\"v\":\"12.5\","
+                + "\"n\":100,\"x\":false,\"q\":\"206264.5\",\"V\":\"6.1\",\"Q\":\"100650.1\",\"B\":\"0\"}}}");
+        Bar bar = assertInstanceOf(Bar.class, kline);
+        assertEquals("1m", bar.getInterval());
+        assertEquals(16502.0, bar.getHighPrice());
+        assertEquals(100, bar.getTradeCount());
+
+        assertNull(decoder.decode("{\"stream\":\"btcusdt@unknown\",\"data\":{\"e\":\"unknown\",\"s\":\"BTCUSDT\"}}"));
+        assertNull(decoder.decode("{\"result\":null,\"id\":1}"));
+    }
+
+    @Test
+    public void testRegisteredPrecision() throws Exception {
+        InstrumentRegistry.register("SOLUSDT", 2, 3);
+        BinanceStreamDecoder decoder = new BinanceStreamDecoder();
+
+        // 已登记精度的品种按登记精度四舍五入
+        TradeTick tradeTick = (TradeTick) decoder.decode("{\"stream\":\"solusdt@trade\",\"data\":{\"e\":\"trade\","
+                + "\"s\":\"SOLUSDT\",\"t\":1,\"p\":\"142.38500000\",\"q\":\"1.23450000\",\"T\":1,\"m\":false}}");
+        assertEquals(14239, tradeTick.price.getRaw());
+        assertEquals(2, tradeTick.price.getPrecision());
+        assertEquals(1235, tradeTick.quantity.getRaw());
+        assertEquals(3, tradeTick.quantity.getPrecision());
+
+        // 部分深度流的data不含品种代码，按流名称中的品种取精度
+        OrderBookDepth10 depth = (OrderBookDepth10) decoder.decode("{\"stream\":\"solusdt@depth5@100ms\",\"data\":"
+                + "{\"lastUpdateId\":1,\"bids\":[[\"142.10000000\",\"5.00000000\"]],\"asks\":[[\"142.20000000\",\"0.50000000\"]]}}");
+        assertEquals("142.10", depth.getBids().get(0).getPrice().toString());
+        assertEquals("0.500", depth.getAsks().get(0).getQuantity().toString());
+    }
+
+    @Test
+    public void testParseDoubleMatchesJdk() {
+        String[] values = {"0", "0.00000000", "96512.37", "0.00012000", "3321.48000000", "-1.5", "123456789.12345678",
+                "0.1", "1e-3", "99999999999999999999.5", ".5", "7."};
+        for (String value : values) {
+            char[] chars = value.toCharArray();
+            assertEquals(Double.parseDouble(value), BinanceStreamDecoder.parseDouble(chars, 0, chars.length), value);
+        }
+    }
+}
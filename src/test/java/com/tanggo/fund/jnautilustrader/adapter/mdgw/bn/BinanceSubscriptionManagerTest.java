@@ -0,0 +1,70 @@
+package com.tanggo.fund.jnautilustrader.adapter.mdgw.bn;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * BinanceSubscriptionManager 测试类
+ *
+ * 验证流按连接上限分片、退订后空位复用、订阅增量的记录与抵消，以及连接数上限
+ */
+public class BinanceSubscriptionManagerTest {
+
+    @Test
+    public void testShardsStreamsByConnectionLimit() {
+        BinanceSubscriptionManager manager = new BinanceSubscriptionManager(2, 10);
+        manager.subscribe(List.of("a@trade", "b@trade", "c@trade", "d@trade", "e@trade"));
+
+        assertEquals(3, manager.getShards().size(), "5个流、每个连接2个，应分为3个连接");
+        assertEquals(List.of("a@trade", "b@trade"), manager.getShards().get(0).getStreams());
+        assertEquals(List.of("e@trade"), manager.getShards().get(2).getStreams());
+        assertSame(manager.getShards().get(1), manager.shardOf("d@trade"));
+
+        // 重复订阅忽略
+        assertTrue(manager.subscribe(List.of("a@trade")).isEmpty());
+        assertEquals(5, manager.size());
+
+        // 退订后的空位优先复用编号最小的连接
+        manager.unsubscribe(List.of("b@trade"));
+        manager.subscribe(List.of("f@trade"));
+        assertSame(manager.getShards().get(0), manager.shardOf("f@trade"));
+        assertEquals(3, manager.getShards().size());
+    }
+
+    @Test
+    public void testPendingDeltasAndConnectSnapshot() {
+        BinanceSubscriptionManager manager = new BinanceSubscriptionManager(10, 1);
+        manager.subscribe(List.of("a@trade", "b@trade"));
+        BinanceSubscriptionManager.Shard shard = manager.getShards().get(0);
+
+        // 连接时以全部流作为URL参数，增量清空
+        assertEquals(List.of("a@trade", "b@trade"), shard.snapshotForConnect());
+        assertFalse(shard.hasPending());
+
+        manager.subscribe(List.of("c@trade"));
+        manager.unsubscribe(List.of("a@trade"));
+        assertEquals(List.of("a@trade"), shard.drainUnsubscribe());
+        assertEquals(List.of("c@trade"), shard.drainSubscribe());
+        assertFalse(shard.hasPending());
+
+        // 发送前先订阅后退订的流互相抵消，不产生任何帧
+        manager.subscribe(List.of("d@trade"));
+        manager.unsubscribe(List.of("d@trade"));
+        assertFalse(shard.hasPending(), "订阅后立即退订应抵消");
+        assertEquals(List.of("b@trade", "c@trade"), shard.getStreams());
+    }
+
+    @Test
+    public void testConnectionLimit() {
+        BinanceSubscriptionManager manager = new BinanceSubscriptionManager(1, 2);
+        manager.subscribe(List.of("a@trade", "b@trade", "c@trade"));
+        assertEquals(2, manager.size(), "超过连接数上限的流应被忽略");
+        assertNull(manager.shardOf("c@trade"));
+
+        assertThrows(IllegalArgumentException.class, () -> new BinanceSubscriptionManager(1025, 1));
+        assertEquals("btcusdt@depth10@100ms", BinanceSubscriptionManager.streamName(" BTCUSDT ", "depth10@100ms"));
+    }
+}
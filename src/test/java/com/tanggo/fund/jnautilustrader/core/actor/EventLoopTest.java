@@ -0,0 +1,287 @@
+package com.tanggo.fund.jnautilustrader.core.actor;
+
+import com.tanggo.fund.jnautilustrader.adapter.event_repo.event.BlockingQueueEventRepo;
+import com.tanggo.fund.jnautilustrader.adapter.event_repo.event.SignallingEventRepo;
+import com.tanggo.fund.jnautilustrader.core.entity.Event;
+import com.tanggo.fund.jnautilustrader.core.entity.SignalIdleStrategy;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * EventLoop 测试类
+ *
+ * 验证时间轮的一次性/周期定时器、取消、合并和跨圈定时器，时钟大步推进时跳过空槽位仍按到期顺序触发，定时器位置复用不扩容，
+ * 重连退避的请求合并，以及事件循环在 park-until-signal 空闲策略下被生产者唤醒
+ */
+public class EventLoopTest {
+
+    private static final long TICK = 1_000_000L;
+
+    @Test
+    public void testOneShotAndPeriodicTimers() {
+        TimerWheel wheel = new TimerWheel(0, TICK, 8);
+        List<String> fired = new ArrayList<>();
+        wheel.schedule(3 * TICK, 0, () -> fired.add("once"));
+        long periodic = wheel.schedule(2 * TICK, 2 * TICK, () -> fired.add("periodic"));
+
+        assertEquals(0, wheel.poll(TICK));
+        assertEquals(1, wheel.poll(2 * TICK));
+        assertEquals(List.of("periodic"), fired);
+        assertEquals(1, wheel.poll(3 * TICK + TICK / 2));
+        assertEquals(List.of("periodic", "once"), fired);
+        assertEquals(1, wheel.size(), "一次性定时器触发后应移除");
+
+        assertEquals(1, wheel.poll(4 * TICK));
+        assertTrue(wheel.cancel(periodic));
+        assertFalse(wheel.cancel(periodic), "重复取消应返回false");
+        assertEquals(0, wheel.poll(10 * TICK));
+        assertEquals(3, fired.size());
+        assertEquals(Long.MAX_VALUE, wheel.nanosToNextExpiry(10 * TICK), "没有定时器时无需唤醒");
+    }
+
+    @Test
+    public void testTimerBeyondOneRotation() {
+        TimerWheel wheel = new TimerWheel(0, TICK, 8);
+        AtomicInteger fired = new AtomicInteger();
+        wheel.schedule(20 * TICK, 0, fired::incrementAndGet);
+
+        assertEquals(0, wheel.poll(19 * TICK), "超过一圈的定时器不能提前触发");
+        assertEquals(1, wheel.poll(20 * TICK));
+        assertEquals(1, fired.get());
+    }
+
+    @Test
+    public void testMissedPeriodsAreNotReplayed() {
+        TimerWheel wheel = new TimerWheel(0, TICK, 8);
+        AtomicInteger fired = new AtomicInteger();
+        wheel.schedule(TICK, TICK, fired::incrementAndGet);
+
+        // 长时间未驱动后只补触发一次
+        assertEquals(1, wheel.poll(50 * TICK));
+        assertEquals(0, wheel.poll(50 * TICK + TICK / 2));
+        assertEquals(1, wheel.poll(51 * TICK));
+    }
+
+    @Test
+    public void testScheduleAndCancelFromCallback() {
+        TimerWheel wheel = new TimerWheel(0, TICK, 8);
+        List<String> fired = new ArrayList<>();
+        long[] victim = new long[1];
+        wheel.schedule(TICK, 0, () -> {
+            fired.add("first");
+            wheel.cancel(victim[0]);
+            wheel.schedule(TICK, 0, () -> fired.add("chained"));
+        });
+        victim[0] = wheel.schedule(2 * TICK, 0, () -> fired.add("victim"));
+
+        wheel.poll(TICK);
+        wheel.poll(3 * TICK);
+        assertEquals(List.of("first", "chained"), fired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testCoalescedTimerKeepsEarliestDeadline() {
+        TimerWheel wheel = new TimerWheel(0, TICK, 8);
+        AtomicInteger fired = new AtomicInteger();
+        Runnable task = fired::incrementAndGet;
+
+        long id = wheel.scheduleCoalesced(TimerWheel.NULL_TIMER, 5 * TICK, task);
+        assertEquals(id, wheel.scheduleCoalesced(id, 9 * TICK, task), "未触发的定时器应被复用");
+        assertEquals(id, wheel.scheduleCoalesced(id, 2 * TICK, task), "更早的到期时间应提前定时器");
+        assertEquals(1, wheel.size());
+
+        assertEquals(1, wheel.poll(2 * TICK));
+        assertEquals(0, wheel.poll(10 * TICK), "合并后只触发一次");
+        assertFalse(wheel.isActive(id));
+        assertNotEquals(id, wheel.scheduleCoalesced(id, 12 * TICK, task), "已触发的定时器应新建");
+    }
+
+    @Test
+    public void testStaleTimerIdIsRejected() {
+        TimerWheel wheel = new TimerWheel(0, TICK, 8, 1);
+        AtomicInteger fired = new AtomicInteger();
+        long first = wheel.schedule(TICK, 0, fired::incrementAndGet);
+        wheel.poll(TICK);
+        long second = wheel.schedule(3 * TICK, 0, fired::incrementAndGet);
+
+        assertFalse(wheel.cancel(first), "位置被复用后旧ID不能取消新定时器");
+        assertTrue(wheel.isActive(second));
+        assertEquals(1, wheel.poll(3 * TICK));
+        assertEquals(2, fired.get());
+        assertFalse(wheel.cancel(TimerWheel.NULL_TIMER));
+    }
+
+    @Test
+    public void testScheduleCancelChurnDoesNotGrow() {
+        TimerWheel wheel = new TimerWheel(0, TICK, 8, 16);
+        Runnable task = () -> { };
+        long periodic = wheel.schedule(TICK, TICK, task);
+        for (int i = 0; i < 10_000; i++) {
+            long now = i * TICK / 4;
+            // 每次至多有几个定时器同时存活，位置应在取消和触发后复用
+            long id = wheel.schedule(now + (i % 8) * TICK / 4, 0, task);
+            if ((i & 1) == 0) {
+                assertTrue(wheel.cancel(id));
+            }
+            wheel.poll(now);
+        }
+        assertEquals(16, wheel.capacity(), "定时器位置应复用，不随调度次数扩容");
+        assertTrue(wheel.isActive(periodic));
+    }
+
+    @Test
+    public void testPeriodicTimerCancelledInOwnCallback() {
+        TimerWheel wheel = new TimerWheel(0, TICK, 8);
+        AtomicInteger fired = new AtomicInteger();
+        long[] self = new long[1];
+        self[0] = wheel.schedule(TICK, TICK, () -> {
+            if (fired.incrementAndGet() == 2) {
+                assertTrue(wheel.cancel(self[0]));
+            }
+        });
+
+        for (int i = 1; i <= 5; i++) {
+            wheel.poll(i * TICK);
+        }
+        assertEquals(2, fired.get(), "回调内取消后周期定时器不再触发");
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testLongJumpsSkipEmptySlots() {
+        // 128个槽位跨两个位图字；定时器分布在多圈，时钟按随机步长推进（回放时一次跨很多刻度）
+        TimerWheel wheel = new TimerWheel(0, TICK, 128);
+        Random random = new Random(3);
+        long[] deadlines = new long[200];
+        long[] firedAt = new long[deadlines.length];
+        List<Integer> order = new ArrayList<>();
+        long[] now = {0};
+        for (int i = 0; i < deadlines.length; i++) {
+            int index = i;
+            deadlines[i] = (1 + random.nextInt(1_000)) * TICK;
+            wheel.schedule(deadlines[i], 0, () -> {
+                firedAt[index] = now[0];
+                order.add(index);
+            });
+        }
+        while (wheel.size() > 0) {
+            now[0] += random.nextInt(4) == 0 ? random.nextInt(300) * TICK : TICK;
+            if (random.nextBoolean()) {
+                assertTrue(wheel.nanosToNextExpiry(now[0]) >= 0);
+            }
+            wheel.poll(now[0]);
+        }
+        for (int i = 0; i < deadlines.length; i++) {
+            assertTrue(firedAt[i] >= deadlines[i], "不能提前触发: " + i);
+            assertTrue(firedAt[i] - deadlines[i] < 300 * TICK, "到期后的第一次 poll 触发: " + i);
+        }
+        for (int i = 1; i < order.size(); i++) {
+            assertTrue(deadlines[order.get(i - 1)] <= deadlines[order.get(i)], "按到期时间顺序触发");
+        }
+    }
+
+    @Test
+    public void testNanosToNextExpiry() {
+        TimerWheel wheel = new TimerWheel(0, TICK, 8);
+        long late = wheel.schedule(6 * TICK, 0, () -> { });
+        assertEquals(6 * TICK, wheel.nanosToNextExpiry(0), "空闲时应一直等到下一个非空槽位");
+        wheel.schedule(2 * TICK, 0, () -> { });
+        assertEquals(TICK, wheel.nanosToNextExpiry(TICK), "加入更早的定时器后应提前唤醒");
+        wheel.poll(2 * TICK);
+        assertEquals(3 * TICK, wheel.nanosToNextExpiry(3 * TICK));
+        wheel.cancel(late);
+        assertEquals(Long.MAX_VALUE, wheel.nanosToNextExpiry(3 * TICK));
+    }
+
+    @Test
+    public void testReconnectRequestsCoalesceWithBackoff() throws Exception {
+        EventLoop loop = new EventLoop("reconnect-test", () -> 0, idleCount -> Thread.onSpinWait());
+        AtomicInteger connects = new AtomicInteger();
+        long initialDelay = TimeUnit.MILLISECONDS.toNanos(2);
+        Reconnector reconnector = new Reconnector("test", loop, connects::incrementAndGet,
+                initialDelay, TimeUnit.MILLISECONDS.toNanos(8));
+
+        // 多次请求只产生一次重连
+        reconnector.request();
+        reconnector.request();
+        assertEquals(1, reconnector.poll());
+        reconnector.request();
+        assertEquals(1, reconnector.poll());
+        assertEquals(0, reconnector.poll());
+        long start = System.nanoTime();
+        while (connects.get() == 0 && System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2)) {
+            loop.doWork();
+        }
+        assertEquals(1, connects.get());
+        assertEquals(1, reconnector.getAttempts());
+
+        // 第二次失败后等待时间翻倍
+        reconnector.request();
+        reconnector.poll();
+        start = System.nanoTime();
+        while (connects.get() == 1 && System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2)) {
+            loop.doWork();
+        }
+        assertTrue(System.nanoTime() - start >= 2 * initialDelay, "重连等待应按失败次数翻倍");
+        assertEquals(2, reconnector.getAttempts());
+
+        reconnector.reset();
+        assertEquals(1, reconnector.poll());
+        assertEquals(0, reconnector.getAttempts());
+    }
+
+    @Test
+    public void testSignalWakesParkedLoop() throws Exception {
+        // 不自旋，最长挂起10秒：只有信号能及时唤醒
+        SignalIdleStrategy idle = new SignalIdleStrategy(0, TimeUnit.SECONDS.toNanos(10));
+        SignallingEventRepo<String> repo = new SignallingEventRepo<>(new BlockingQueueEventRepo<>(), idle);
+        CountDownLatch received = new CountDownLatch(3);
+        AtomicReference<Thread> handlerThread = new AtomicReference<>();
+
+        EventLoop loop = new EventLoop("test-loop", () -> {
+            Event<String> event = repo.poll();
+            if (event == null) {
+                return 0;
+            }
+            handlerThread.set(Thread.currentThread());
+            received.countDown();
+            return 1;
+        }, idle);
+        CountDownLatch timerFired = new CountDownLatch(2);
+        AtomicReference<Thread> timerThread = new AtomicReference<>();
+        loop.schedulePeriodic(TimeUnit.MILLISECONDS.toNanos(5), () -> {
+            timerThread.set(Thread.currentThread());
+            timerFired.countDown();
+        });
+
+        Thread thread = new Thread(loop, "test-loop");
+        thread.start();
+        try {
+            for (int i = 0; i < 3; i++) {
+                Thread.sleep(20);
+                Event<String> event = new Event<>();
+                event.payload = "event-" + i;
+                assertTrue(repo.send(event));
+            }
+            assertTrue(received.await(2, TimeUnit.SECONDS), "发布事件后应立即唤醒事件循环");
+            assertTrue(timerFired.await(2, TimeUnit.SECONDS), "挂起期间周期定时器仍应触发");
+            assertSame(thread, handlerThread.get());
+            assertSame(thread, timerThread.get(), "定时回调应在事件循环线程上执行");
+        } finally {
+            loop.stop();
+            thread.join(2000);
+        }
+        assertFalse(thread.isAlive(), "stop 后事件循环应退出");
+        assertFalse(loop.isRunning());
+    }
+}
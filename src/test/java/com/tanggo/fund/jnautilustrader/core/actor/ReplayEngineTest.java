@@ -0,0 +1,239 @@
+package com.tanggo.fund.jnautilustrader.core.actor;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import com.tanggo.fund.jnautilustrader.adapter.archive.ParquetArchiveEventRepo;
+import com.tanggo.fund.jnautilustrader.adapter.archive.ParquetTickArchiver;
+import com.tanggo.fund.jnautilustrader.adapter.event_repo.event.BlockingQueueEventRepo;
+import com.tanggo.fund.jnautilustrader.adapter.event_repo.event.MpscRingBufferEventRepo;
+import com.tanggo.fund.jnautilustrader.adapter.event_repo.handler.ArrayEventHandlerRepo;
+import com.tanggo.fund.jnautilustrader.adapter.event_repo.journal.MappedJournalEventRepo;
+import com.tanggo.fund.jnautilustrader.adapter.event_repo.journal.MarketDataJournalCodec;
+import com.tanggo.fund.jnautilustrader.core.entity.*;
+import com.tanggo.fund.jnautilustrader.core.entity.event.data.OrderBookDepth10;
+import com.tanggo.fund.jnautilustrader.core.entity.event.data.PriceLevel;
+import com.tanggo.fund.jnautilustrader.core.entity.event.data.TradeTick;
+import com.tanggo.fund.jnautilustrader.stragety.cross.CrossAppService;
+import com.tanggo.fund.jnautilustrader.stragety.cross.CrossArbitrageParams;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ReplayEngine 测试类
+ *
+ * 验证定时器按模拟时间触发、倍速模式对齐墙钟，以及一天的 BTCUSDT 深度和成交从日志和Parquet归档
+ * 回放到 CrossAppService 时，多次运行的下单序列和策略状态完全一致
+ */
+public class ReplayEngineTest {
+
+    // 2026-10-17T00:00:00Z
+    private static final long DAY_START_MS = 1_792_195_200_000L;
+    private static final long STEP_MS = 2_000;
+    private static final long MS = 1_000_000L;
+
+    private static Level previousLevel;
+
+    @TempDir
+    Path directory;
+
+    @BeforeAll
+    public static void quietLogging() {
+        // 策略每个事件都有DEBUG日志，回放一天时关闭
+        ch.qos.logback.classic.Logger logger = ((LoggerContext) LoggerFactory.getILoggerFactory()).getLogger("com.tanggo.fund.jnautilustrader");
+        previousLevel = logger.getLevel();
+        logger.setLevel(Level.WARN);
+    }
+
+    @AfterAll
+    public static void restoreLogging() {
+        ((LoggerContext) LoggerFactory.getILoggerFactory()).getLogger("com.tanggo.fund.jnautilustrader").setLevel(previousLevel);
+    }
+
+    @Test
+    public void testTimersFireAtSimulatedTime() {
+        BlockingQueueEventRepo<MarketData> source = new BlockingQueueEventRepo<>();
+        for (int i = 0; i < 3; i++) {
+            source.send(trade("BINANCE", i, DAY_START_MS + i * 1_000, 65000));
+        }
+        BlockingQueueEventRepo<MarketData> target = new BlockingQueueEventRepo<>();
+        SimulatedClock clock = new SimulatedClock();
+        ReplayEngine engine = new ReplayEngine(source, target, clock);
+        assertTrue(engine.open());
+        assertEquals(DAY_START_MS * MS, clock.nanoTime(), "open 把时钟推进到第一条事件");
+
+        List<Long> fired = new ArrayList<>();
+        List<Long> received = new ArrayList<>();
+        EventLoop loop = new EventLoop("replay-test", () -> {
+            Event<MarketData> event = target.poll();
+            if (event == null) {
+                return 0;
+            }
+            received.add(clock.currentTimeMillis());
+            return 1;
+        }, IdleStrategy.BACKOFF, clock);
+        loop.schedulePeriodic(TimeUnit.MILLISECONDS.toNanos(300), () -> fired.add(clock.currentTimeMillis() - DAY_START_MS));
+
+        assertEquals(3, engine.run(loop));
+        assertEquals(List.of(DAY_START_MS, DAY_START_MS + 1_000, DAY_START_MS + 2_000), received);
+        assertEquals(List.of(300L, 600L, 900L, 1200L, 1500L, 1800L), fired, "定时器在事件之间按模拟时间逐个触发");
+        assertEquals(2_000 * MS, engine.getSimulatedNanos());
+    }
+
+    @Test
+    public void testScaledModePacesToWallClock() {
+        BlockingQueueEventRepo<MarketData> source = new BlockingQueueEventRepo<>();
+        for (int i = 0; i < 3; i++) {
+            source.send(trade("BINANCE", i, DAY_START_MS + i * 100, 65000));
+        }
+        ReplayEngine engine = new ReplayEngine(source, new BlockingQueueEventRepo<>(), new SimulatedClock());
+        engine.setMode(ReplayEngine.Mode.SCALED);
+        engine.setSpeed(2.0);
+
+        long start = System.nanoTime();
+        assertEquals(3, engine.run());
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(100), "200ms数据两倍速至少100ms");
+        assertThrows(IllegalArgumentException.class, () -> engine.setSpeed(0));
+    }
+
+    @Test
+    public void testDayReplayIsDeterministic() {
+        Path journalDirectory = directory.resolve("journal");
+        String archiveDirectory = directory.resolve("archive").toString();
+        MpscRingBufferEventRepo<MarketData> tap = new MpscRingBufferEventRepo<>(1 << 18);
+        ParquetTickArchiver archiver = new ParquetTickArchiver(tap, archiveDirectory);
+        int events;
+        try (MappedJournalEventRepo<MarketData> journal = new MappedJournalEventRepo<>(journalDirectory, 1 << 24, new MarketDataJournalCodec())) {
+            events = record(journal, tap);
+        }
+        archiver.stop();
+        assertEquals(events, archiver.getArchivedCount());
+
+        List<String> first;
+        List<String> second;
+        try (MappedJournalEventRepo<MarketData> journal = new MappedJournalEventRepo<>(journalDirectory, 1 << 24, new MarketDataJournalCodec())) {
+            first = replay(journal, events);
+        }
+        try (MappedJournalEventRepo<MarketData> journal = new MappedJournalEventRepo<>(journalDirectory, 1 << 24, new MarketDataJournalCodec())) {
+            second = replay(journal, events);
+        }
+        List<String> archived;
+        try (ParquetArchiveEventRepo archive = new ParquetArchiveEventRepo(archiveDirectory)) {
+            archive.setSymbol("BTCUSDT");
+            archived = replay(archive, events);
+        }
+
+        assertTrue(first.size() > 100, "合成数据应触发套利: " + first.size());
+        assertEquals(first, second, "同一日志两次回放结果一致");
+        assertEquals(first, archived, "时间戳严格递增时Parquet归档与日志回放结果一致");
+    }
+
+    /**
+     * 生成一天的两所 BTCUSDT 深度和成交，同时写入日志和归档旁路；Bitget 每20分钟偏离0.5%持续几秒
+     *
+     * @return 事件数
+     */
+    private static int record(EventRepo<MarketData> journal, EventRepo<MarketData> tap) {
+        Random random = new Random(42);
+        double mid = 65000;
+        int count = 0;
+        for (long i = 0, steps = TimeUnit.DAYS.toMillis(1) / STEP_MS; i < steps; i++) {
+            long time = DAY_START_MS + i * STEP_MS;
+            mid += random.nextGaussian() * 5;
+            double bitgetMid = i % 600 < 3 ? mid * 1.005 : mid + random.nextGaussian() * 2;
+            List<Event<MarketData>> step = List.of(
+                    depth("BINANCE", time, mid),
+                    trade("BINANCE", i, time + 1, mid),
+                    depth("BITGET", time + 2, bitgetMid),
+                    trade("BITGET", i, time + 3, bitgetMid));
+            for (Event<MarketData> event : step) {
+                assertTrue(journal.send(event));
+                assertTrue(tap.send(event));
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 用模拟时钟把行情源回放到新的 CrossAppService
+     *
+     * @return 下单序列（发送时快照）和最终策略状态
+     */
+    private static List<String> replay(EventRepo<MarketData> source, int events) {
+        SimulatedClock clock = new SimulatedClock();
+        BlockingQueueEventRepo<MarketData> marketDataRepo = new BlockingQueueEventRepo<>();
+        List<String> orders = new ArrayList<>();
+        EventRepo<TradeCmd> tradeCmdRepo = new EventRepo<>() {
+            @Override
+            public Event<TradeCmd> receive() {
+                return null;
+            }
+
+            @Override
+            public boolean send(Event<TradeCmd> event) {
+                orders.add(clock.currentTimeMillis() + " " + EventType.name(event.typeCode) + " " + event.payload.getMessage());
+                return true;
+            }
+        };
+
+        ReplayEngine engine = new ReplayEngine(source, marketDataRepo, clock);
+        assertTrue(engine.open());
+
+        CrossArbitrageParams params = CrossArbitrageParams.defaultParams();
+        params.setDebugMode(false);
+        params.setRunTime(TimeUnit.DAYS.toSeconds(2));
+        CrossAppService strategy = new CrossAppService();
+        strategy.setParams(params);
+        strategy.setClock(clock);
+        strategy.setMarketDataRepo(marketDataRepo);
+        strategy.setTradeCmdRepo(tradeCmdRepo);
+        strategy.setEventHandlerRepo(new ArrayEventHandlerRepo<>());
+        strategy.getState().start();
+        EventLoop loop = strategy.initEventLoop();
+
+        assertEquals(events, engine.run(loop));
+        assertTrue(engine.getWallNanos() < TimeUnit.SECONDS.toNanos(60), "一天的行情应在秒级回放完成");
+        strategy.getState().updateState();
+        orders.add(strategy.getState().toString());
+        return orders;
+    }
+
+    private static Event<MarketData> depth(String venue, long timeMs, double mid) {
+        OrderBookDepth10 depth = new OrderBookDepth10();
+        depth.setSymbol("BTCUSDT");
+        depth.setEventTime(timeMs);
+        depth.setBids(List.of(new PriceLevel(format(mid - 0.05), "0.5"), new PriceLevel(format(mid - 0.15), "1.25")));
+        depth.setAsks(List.of(new PriceLevel(format(mid + 0.05), "0.75"), new PriceLevel(format(mid + 0.15), "2.0")));
+        MarketData data = MarketData.of(depth);
+        return new Event<>(EventType.of(EventType.venueOf(venue), data), InstrumentRegistry.idOf("BTCUSDT"), data);
+    }
+
+    private static Event<MarketData> trade(String venue, long i, long timeMs, double price) {
+        TradeTick trade = new TradeTick();
+        trade.symbol = "BTCUSDT";
+        trade.tradeId = String.valueOf(i);
+        trade.price = Price.of(price, 2);
+        trade.quantity = Quantity.of("0.00300");
+        trade.eventTimeMs = timeMs;
+        trade.tradeTimeMs = timeMs;
+        trade.isBuyerMaker = i % 2 == 0;
+        MarketData data = MarketData.of(trade);
+        return new Event<>(EventType.of(EventType.venueOf(venue), data), InstrumentRegistry.idOf("BTCUSDT"), data);
+    }
+
+    private static String format(double price) {
+        return String.format(Locale.ROOT, "%.2f", price);
+    }
+}
@@ -0,0 +1,52 @@
+package com.tanggo.fund.jnautilustrader.core.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Clock 测试类
+ *
+ * 验证缓存时钟由后台线程刷新、启动前和停止后回退到系统时钟，以及模拟时钟只向前推进
+ */
+public class ClockTest {
+
+    @Test
+    public void testCachedClockTicksInBackground() {
+        CachedClock clock = new CachedClock();
+        long before = System.currentTimeMillis();
+        assertFalse(clock.isRunning());
+        assertTrue(clock.currentTimeMillis() >= before, "启动前读取系统时钟");
+
+        clock.start();
+        try {
+            long first = clock.currentTimeMillis();
+            assertTrue(Math.abs(first - System.currentTimeMillis()) <= 50);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (clock.currentTimeMillis() == first && System.nanoTime() < deadline) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            }
+            assertTrue(clock.currentTimeMillis() > first, "后台线程刷新毫秒");
+        } finally {
+            clock.stop();
+        }
+        assertFalse(clock.isRunning());
+        long after = System.currentTimeMillis();
+        assertTrue(clock.currentTimeMillis() >= after, "停止后读取系统时钟");
+        assertThrows(IllegalArgumentException.class, () -> new CachedClock(0));
+    }
+
+    @Test
+    public void testSimulatedClockOnlyMovesForward() {
+        SimulatedClock clock = new SimulatedClock(5_000_000L);
+        assertEquals(5, clock.currentTimeMillis());
+        assertEquals(9_000_000L, clock.advanceTo(9_000_000L));
+        assertEquals(9_000_000L, clock.advanceTo(1_000_000L), "不后退");
+        assertEquals(10_500_000L, clock.advanceBy(1_500_000L));
+        assertEquals(10, clock.currentTimeMillis());
+        assertThrows(IllegalArgumentException.class, () -> clock.advanceBy(-1));
+    }
+}
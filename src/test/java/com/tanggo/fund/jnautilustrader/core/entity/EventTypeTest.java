@@ -0,0 +1,47 @@
+package com.tanggo.fund.jnautilustrader.core.entity;
+
+import com.tanggo.fund.jnautilustrader.core.entity.event.data.TradeTick;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * EventType / InstrumentRegistry 测试类
+ *
+ * 验证类型编号与名称互相转换、兼容旧名称，以及 Event 上的编号字段
+ */
+public class EventTypeTest {
+
+    @Test
+    public void testCodeAndNameRoundTrip() {
+        assertEquals(EventType.BINANCE_TRADE_TICK, EventType.codeOf("BINANCE_TRADE_TICK"));
+        assertEquals("BITGET_ORDER_BOOK_DEPTH", EventType.name(EventType.BITGET_ORDER_BOOK_DEPTH));
+        assertEquals(EventType.VENUE_BITGET, EventType.venueOf(EventType.BITGET_ORDER_BOOK_DELTA));
+        assertEquals(MarketData.ORDER_BOOK_DELTA, EventType.kindOf(EventType.BITGET_ORDER_BOOK_DELTA));
+
+        // 交易指令的旧命名 "PLACE_ORDER_<交易所>" 仍可解析
+        assertEquals(EventType.BINANCE_PLACE_ORDER, EventType.codeOf("PLACE_ORDER_BINANCE"));
+        assertEquals("BINANCE_PLACE_ORDER", EventType.name(EventType.BINANCE_PLACE_ORDER));
+        assertEquals(EventType.code(EventType.VENUE_UNKNOWN, EventType.PLACE_ORDER), EventType.codeOf("PLACE_ORDER"));
+
+        assertEquals(EventType.NONE, EventType.codeOf("TEST_EVENT"));
+        assertNull(EventType.name(EventType.NONE));
+        assertEquals(EventType.VENUE_BINANCE, EventType.venueOf("binance"));
+    }
+
+    @Test
+    public void testEventCarriesCodes() {
+        MarketData marketData = MarketData.of(new TradeTick());
+        Event<MarketData> byName = new Event<>("BINANCE_TRADE_TICK", marketData);
+        assertEquals(EventType.BINANCE_TRADE_TICK, byName.typeCode);
+        assertEquals(EventType.VENUE_BINANCE, byName.venueId);
+
+        int instrumentId = InstrumentRegistry.idOf("ETHUSDT");
+        Event<MarketData> byCode = new Event<>(EventType.of(EventType.VENUE_BITGET, marketData), instrumentId, marketData);
+        assertEquals("BITGET_TRADE_TICK", byCode.type);
+        assertEquals(EventType.VENUE_BITGET, byCode.venueId);
+        assertEquals("ETHUSDT", InstrumentRegistry.symbolOf(byCode.instrumentId));
+        assertEquals(instrumentId, InstrumentRegistry.idOf("ETHUSDT"));
+        assertEquals(InstrumentRegistry.UNKNOWN, InstrumentRegistry.idOf(null));
+    }
+}
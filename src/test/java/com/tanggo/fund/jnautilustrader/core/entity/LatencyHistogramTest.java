@@ -0,0 +1,64 @@
+package com.tanggo.fund.jnautilustrader.core.entity;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * LatencyHistogram 测试类
+ *
+ * 验证分桶连续且相对误差在1/64以内、百分位数和最大值，以及两次快照相减得到区间分布
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void testBucketsAreContiguousWithBoundedError() {
+        int previous = -1;
+        for (long value = 0; value < 1 << 20; value++) {
+            int index = LatencyHistogram.indexOf(value);
+            assertTrue(index == previous || index == previous + 1, "分桶应连续: " + value);
+            previous = index;
+            long highest = LatencyHistogram.highestValueAt(index);
+            assertTrue(highest >= value, "上界不应小于值: " + value);
+            assertTrue(highest - value <= value / 64, "相对误差应不超过1/64: " + value);
+        }
+        for (int shift = 20; shift < 63; shift++) {
+            long value = (1L << shift) + 12345;
+            long highest = LatencyHistogram.highestValueAt(LatencyHistogram.indexOf(value));
+            assertTrue(highest >= value && highest - value <= value / 64, "大值: " + value);
+        }
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.highestValueAt(LatencyHistogram.indexOf(Long.MAX_VALUE)));
+    }
+
+    @Test
+    public void testPercentilesAndIntervals() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        LatencyHistogram.Snapshot empty = histogram.snapshot();
+        assertEquals(0, empty.getTotalCount());
+        assertEquals(0, empty.valueAtPercentile(99));
+        assertEquals(0, empty.getMax());
+
+        // 1..1000 微秒各一次
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+        histogram.record(-5);
+        LatencyHistogram.Snapshot first = histogram.snapshot();
+        assertEquals(1001, first.getTotalCount());
+        assertEquals(0, first.valueAtPercentile(0), "负值按0记录");
+        assertEquals(500_000, first.valueAtPercentile(50), 500_000 / 64.0);
+        assertEquals(990_000, first.valueAtPercentile(99), 990_000 / 64.0);
+        assertEquals(1_000_000, first.getMax(), 1_000_000 / 64.0);
+        assertEquals(500_000, first.getMean(), 500_000 / 64.0);
+
+        // 区间：只包含第一次快照之后的记录
+        histogram.record(5_000_000);
+        histogram.record(7_000_000);
+        LatencyHistogram.Snapshot second = histogram.snapshot();
+        LatencyHistogram.Snapshot interval = second.minus(first);
+        assertEquals(2, interval.getTotalCount());
+        assertEquals(5_000_000, interval.valueAtPercentile(50), 5_000_000 / 64.0);
+        assertEquals(7_000_000, interval.getMax(), 7_000_000 / 64.0);
+        assertEquals(1003, second.getTotalCount());
+    }
+}
@@ -0,0 +1,81 @@
+package com.tanggo.fund.jnautilustrader.core.entity;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tanggo.fund.jnautilustrader.core.entity.event.data.PriceLevel;
+import com.tanggo.fund.jnautilustrader.core.entity.event.trade.PlaceOrder;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Price / Quantity / FixedPoint 测试类
+ *
+ * 验证定点数解析、舍入、格式化、跨精度比较，以及下单时按品种精度取整
+ */
+public class PriceQuantityTest {
+
+    @Test
+    public void testParseAndFormat() {
+        Price price = Price.of("96512.37000000");
+        assertEquals(8, price.getPrecision(), "精度应取文本中的小数位数");
+        assertEquals(9651237000000L, price.getRaw());
+        assertEquals("96512.37000000", price.toString());
+        assertEquals(96512.37, price.asDouble());
+
+        assertEquals("0.00012", Price.of("0.00012").toString());
+        assertEquals("-1.5", Price.of("-1.5").toString());
+        assertEquals("7", Price.of("7").toString());
+        assertEquals(new BigDecimal("0.001"), Quantity.of("0.001").asBigDecimal());
+    }
+
+    @Test
+    public void testRoundingToPrecision() {
+        assertEquals(14239, Price.of("142.385", 2).getRaw(), "多余小数位应四舍五入");
+        assertEquals(14238, Price.of("142.3849", 2).getRaw());
+        assertEquals(-150, Price.of("-1.495", 2).getRaw());
+        assertEquals(50000, Price.of("5e2", 2).getRaw(), "科学计数法应能解析");
+        assertEquals(12346, FixedPoint.rescale(123456, 3, 2));
+        assertEquals(1234560, FixedPoint.rescale(123456, 3, 4));
+        assertEquals(10, Price.of(0.1 + 0.2 - 0.2, 2).getRaw(), "double应按精度取整");
+
+        assertThrows(NumberFormatException.class, () -> Price.of("12a.5"));
+        assertThrows(NumberFormatException.class, () -> Price.of("-"));
+        assertThrows(NumberFormatException.class, () -> Price.of("99999999999999999999", 2));
+        assertThrows(IllegalArgumentException.class, () -> Quantity.of("-1"));
+    }
+
+    @Test
+    public void testCompareAcrossPrecisions() {
+        Price a = Price.of("1.10");
+        Price b = Price.of("1.1");
+        assertEquals(a, b, "数值相等的价格应相等");
+        assertEquals(a.hashCode(), b.hashCode());
+        assertTrue(Price.of("1.11").compareTo(b) > 0);
+        assertEquals(Price.of("1.25"), a.add(Price.of("0.15")));
+        assertEquals(Price.of("0.95"), a.subtract(Price.of("0.15")));
+        assertThrows(IllegalArgumentException.class, () -> Quantity.of("0.1").subtract(Quantity.of("0.2")));
+    }
+
+    @Test
+    public void testJsonRoundTrip() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        PriceLevel level = new PriceLevel("3321.48000000", "0.25000000");
+        String json = mapper.writeValueAsString(level);
+        assertEquals("[\"3321.48000000\",\"0.25000000\"]", json, "价格和数量应按原文本输出");
+        assertEquals(level, mapper.readValue(json, PriceLevel.class));
+    }
+
+    @Test
+    public void testPlaceOrderUsesInstrumentPrecision() {
+        InstrumentRegistry.register("DOGEUSDT", 5, 0);
+        PlaceOrder order = PlaceOrder.createLimitBuyOrder("DOGEUSDT", 123.6, 0.1234567);
+        assertEquals("124", order.getQuantity().toString());
+        assertEquals("0.12346", order.getPrice().toString());
+
+        PlaceOrder market = PlaceOrder.createMarketSellOrder("DOGEUSDT", 10);
+        assertNull(market.getPrice(), "市价单没有价格");
+        assertEquals("10", market.getQuantity().toString());
+    }
+}
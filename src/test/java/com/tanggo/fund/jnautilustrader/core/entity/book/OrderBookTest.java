@@ -0,0 +1,214 @@
+package com.tanggo.fund.jnautilustrader.core.entity.book;
+
+import com.tanggo.fund.jnautilustrader.core.entity.event.data.OrderBookDeltas;
+import com.tanggo.fund.jnautilustrader.core.entity.event.data.PriceLevel;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * OrderBook 测试类
+ *
+ * 验证档位增删、盘口与累计量查询，以及按 U/u 规则的快照同步、丢包检测和重新同步
+ */
+public class OrderBookTest {
+
+    @Test
+    public void testLevelsAndQueries() {
+        OrderBook book = new OrderBook("TESTUSDT", 2, 3);
+        book.applySnapshot(100,
+                List.of(new PriceLevel("100.00", "1.000"), new PriceLevel("99.50", "2.000"), new PriceLevel("99.00", "3.000")),
+                List.of(new PriceLevel("100.50", "0.500"), new PriceLevel("101.00", "1.500")));
+
+        assertTrue(book.isSynced());
+        assertEquals(100.0, book.bestBidPrice());
+        assertEquals(100.5, book.bestAskPrice());
+        assertEquals(100.25, book.midPrice());
+        assertEquals(50, book.spread());
+
+        BookSide bids = book.getBids();
+        assertEquals(3, bids.levelCount());
+        assertEquals(9950, bids.priceAt(1));
+        assertEquals(2000, bids.sizeAtPrice(9950));
+        assertEquals(0, bids.sizeAtPrice(9960), "不存在的价格数量应为0");
+        assertEquals(3000, bids.cumulativeSize(2));
+        assertEquals(6000, bids.cumulativeSize(10));
+        assertEquals(3000, bids.cumulativeSizeTo(9950));
+        assertEquals(3000, bids.cumulativeSizeTo(9940), "买盘累计量应包含价格不低于指定价的档位");
+        assertEquals(500, book.getAsks().cumulativeSizeTo(10099), "卖盘累计量应包含价格不高于指定价的档位");
+        assertEquals(2000, book.getAsks().cumulativeSizeTo(10100));
+
+        // 盘口内插入、修改、删除
+        book.updateBid(10020, 4000);
+        book.updateBid(10000, 0);
+        book.updateBid(9900, 500);
+        assertEquals(10020, bids.bestPrice());
+        assertEquals(3, bids.levelCount());
+        assertEquals(6500, bids.totalSize());
+        assertEquals(6000, bids.cumulativeSize(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> bids.priceAt(3));
+    }
+
+    @Test
+    public void testMatchesReferenceBook() {
+        OrderBook book = new OrderBook("TESTUSDT", 2, 3);
+        TreeMap<Long, Long> reference = new TreeMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 20000; i++) {
+            long price = 10000 + random.nextInt(2000);
+            long size = random.nextInt(4) == 0 ? 0 : 1 + random.nextInt(1000);
+            book.updateBid(price, size);
+            if (size == 0) {
+                reference.remove(price);
+            } else {
+                reference.put(price, size);
+            }
+        }
+        BookSide bids = book.getBids();
+        assertEquals(reference.size(), bids.levelCount());
+        long cumulative = 0;
+        int level = 0;
+        for (var entry : reference.descendingMap().entrySet()) {
+            cumulative += entry.getValue();
+            assertEquals(entry.getKey(), bids.priceAt(level));
+            assertEquals(entry.getValue(), bids.sizeAt(level));
+            assertEquals(cumulative, bids.cumulativeSize(level + 1), "第" + level + "档累计量不一致");
+            level++;
+        }
+    }
+
+    @Test
+    public void testLadderWindowAndFarLevels() {
+        // 价格间隔5个原始单位、分布在远超阶梯窗口的区间内，盘口随机漂移：覆盖窗口上移/下移、远端档位和最小变动单位推断
+        OrderBook book = new OrderBook("TESTUSDT", 2, 3);
+        TreeMap<Long, Long> reference = new TreeMap<>();
+        Random random = new Random(7);
+        long mid = 1_000_000;
+        for (int i = 0; i < 50000; i++) {
+            mid += 5 * (random.nextInt(41) - 20);
+            long distance = random.nextInt(8) == 0 ? random.nextInt(20000) : random.nextInt(200);
+            long price = mid + 5 * distance;
+            long size = random.nextInt(3) == 0 ? 0 : 1 + random.nextInt(1000);
+            book.updateAsk(price, size);
+            if (size == 0) {
+                reference.remove(price);
+            } else {
+                reference.put(price, size);
+            }
+            if (i % 997 == 0) {
+                assertMatches(reference, book.getAsks(), random);
+            }
+        }
+        assertMatches(reference, book.getAsks(), random);
+        assertEquals(0, book.getAsks().sizeAtPrice(mid + 3), "不在价格网格上的价格数量应为0");
+    }
+
+    private static void assertMatches(TreeMap<Long, Long> reference, BookSide asks, Random random) {
+        assertEquals(reference.size(), asks.levelCount());
+        assertEquals(reference.isEmpty() ? 0 : reference.firstKey(), asks.bestPrice());
+        long cumulative = 0;
+        int level = 0;
+        for (var entry : reference.entrySet()) {
+            cumulative += entry.getValue();
+            assertEquals(entry.getKey(), asks.priceAt(level));
+            assertEquals(entry.getValue(), asks.sizeAt(level));
+            assertEquals(entry.getValue(), asks.sizeAtPrice(entry.getKey()));
+            level++;
+        }
+        assertEquals(cumulative, asks.totalSize());
+        for (int i = 0; i < 20 && !reference.isEmpty(); i++) {
+            int levels = random.nextInt(reference.size() + 1);
+            assertEquals(reference.values().stream().limit(levels).mapToLong(Long::longValue).sum(),
+                    asks.cumulativeSize(levels), "前" + levels + "档累计量不一致");
+            long price = reference.firstKey() + random.nextInt(200_000);
+            assertEquals(reference.headMap(price, true).values().stream().mapToLong(Long::longValue).sum(),
+                    asks.cumulativeSizeTo(price), "价格" + price + "以内累计量不一致");
+        }
+    }
+
+    @Test
+    public void testSequencingAndResync() {
+        OrderBook book = new OrderBook("TESTUSDT", 2, 3);
+
+        // 未同步时缓存，快照后回放：丢弃 u <= lastUpdateId，第一条须覆盖 lastUpdateId + 1
+        assertEquals(OrderBook.UpdateResult.AWAITING_SNAPSHOT, book.apply(deltas(95, 100, "100.00", "1.000")));
+        assertEquals(OrderBook.UpdateResult.AWAITING_SNAPSHOT, book.apply(deltas(101, 103, "100.10", "2.000")));
+        assertEquals(OrderBook.UpdateResult.AWAITING_SNAPSHOT, book.apply(deltas(104, 104, "100.20", "3.000")));
+        assertEquals(3, book.getPendingCount());
+
+        assertEquals(OrderBook.UpdateResult.APPLIED,
+                book.applySnapshot(102, List.of(new PriceLevel("99.90", "5.000")), List.of(new PriceLevel("101.00", "1.000"))));
+        assertEquals(104, book.getLastUpdateId());
+        assertEquals(10020, book.getBids().bestPrice());
+        assertEquals(0, book.getBids().sizeAtPrice(10000), "u <= lastUpdateId 的增量应丢弃");
+        assertEquals(0, book.getPendingCount());
+
+        assertEquals(OrderBook.UpdateResult.STALE, book.apply(deltas(103, 104, "100.30", "1.000")));
+        assertEquals(OrderBook.UpdateResult.APPLIED, book.apply(deltas(105, 106, "100.20", "0")));
+        assertEquals(10010, book.getBids().bestPrice());
+
+        // 丢包：U 不等于上一条 u + 1
+        assertEquals(OrderBook.UpdateResult.GAP, book.apply(deltas(108, 110, "100.40", "1.000")));
+        assertFalse(book.isSynced());
+        assertEquals(1, book.getGapCount());
+        assertEquals(OrderBook.UpdateResult.AWAITING_SNAPSHOT, book.apply(deltas(111, 112, "100.50", "1.000")));
+
+        // 重新同步：快照覆盖丢失的更新后回放缓存
+        assertEquals(OrderBook.UpdateResult.APPLIED,
+                book.applySnapshot(109, List.of(new PriceLevel("100.00", "1.000")), List.of(new PriceLevel("101.00", "1.000"))));
+        assertTrue(book.isSynced());
+        assertEquals(112, book.getLastUpdateId());
+        assertEquals(10050, book.getBids().bestPrice());
+
+        // 快照太旧，回放时仍然不连续
+        book.reset();
+        book.apply(deltas(120, 121, "100.00", "1.000"));
+        assertEquals(OrderBook.UpdateResult.GAP, book.applySnapshot(110, List.of(), List.of()));
+        assertFalse(book.isSynced());
+        assertEquals(1, book.getPendingCount(), "不连续的增量应保留到下次快照");
+    }
+
+    @Test
+    public void testFuturesPreviousUpdateId() {
+        OrderBook book = new OrderBook("TESTUSDT", 2, 3);
+        book.applySnapshot(100, List.of(), List.of());
+        OrderBookDeltas first = deltas(95, 105, "100.00", "1.000");
+        first.setPreviousUpdateId(94);
+        assertEquals(OrderBook.UpdateResult.APPLIED, book.apply(first));
+
+        OrderBookDeltas next = deltas(110, 115, "100.10", "1.000");
+        next.setPreviousUpdateId(105);
+        assertEquals(OrderBook.UpdateResult.APPLIED, book.apply(next), "合约按 pu 校验连续性");
+
+        OrderBookDeltas gap = deltas(120, 125, "100.20", "1.000");
+        gap.setPreviousUpdateId(118);
+        assertEquals(OrderBook.UpdateResult.GAP, book.apply(gap));
+    }
+
+    @Test
+    public void testPendingCapacity() {
+        OrderBook book = new OrderBook("TESTUSDT", 2, 3, 2);
+        book.apply(deltas(1, 1, "100.00", "1.000"));
+        book.apply(deltas(2, 2, "100.00", "1.000"));
+        book.apply(deltas(3, 3, "100.00", "1.000"));
+        assertEquals(2, book.getPendingCount());
+        assertEquals(1, book.getDroppedCount());
+    }
+
+    private static OrderBookDeltas deltas(long first, long last, String bidPrice, String bidQuantity) {
+        OrderBookDeltas deltas = new OrderBookDeltas();
+        deltas.setSymbol("TESTUSDT");
+        deltas.setFirstUpdateId(first);
+        deltas.setLastUpdateId(last);
+        List<PriceLevel> bids = new ArrayList<>();
+        bids.add(new PriceLevel(bidPrice, bidQuantity));
+        deltas.setBids(bids);
+        deltas.setAsks(List.of());
+        return deltas;
+    }
+}
@@ -0,0 +1,164 @@
+package com.tanggo.fund.jnautilustrader.core.entity.book;
+
+import com.tanggo.fund.jnautilustrader.core.entity.EventType;
+import com.tanggo.fund.jnautilustrader.core.entity.InstrumentRegistry;
+import com.tanggo.fund.jnautilustrader.core.entity.Price;
+import com.tanggo.fund.jnautilustrader.core.entity.Quantity;
+import com.tanggo.fund.jnautilustrader.core.entity.event.data.OrderBookDepth10;
+import com.tanggo.fund.jnautilustrader.core.entity.event.data.PriceLevel;
+import com.tanggo.fund.jnautilustrader.core.entity.event.data.QuoteTick;
+import com.tanggo.fund.jnautilustrader.stragety.cross.CrossArbitrageState;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TopOfBookCache 测试类
+ *
+ * 验证报价与部分深度的写入、版本递增、按交易所区分槽位，并发写入时读取不会看到撕裂的快照，以及策略状态从缓存读取买卖价
+ */
+public class TopOfBookCacheTest {
+
+    private static final int BTC = 1;
+    private static final int ETH = 2;
+
+    @Test
+    public void testWritesQuoteAndDepthPerVenue() {
+        TopOfBookCache cache = new TopOfBookCache(16);
+        TopOfBook top = new TopOfBook();
+
+        assertEquals(0, cache.read(EventType.VENUE_BINANCE, BTC, top));
+        assertFalse(top.isValid(), "从未写入的槽位无效");
+
+        assertTrue(cache.update(EventType.VENUE_BINANCE, BTC, quote("100.50", "1.5", "100.6", "2.25", 1000L)));
+        assertEquals(1, cache.read(EventType.VENUE_BINANCE, BTC, top));
+        assertTrue(top.isValid());
+        assertEquals(100.50, top.bidPriceAsDouble());
+        assertEquals(100.60, top.askPriceAsDouble(), "买卖价统一到较高的精度");
+        assertEquals(2, top.getPricePrecision());
+        assertEquals(1.5, top.bidSizeAsDouble());
+        assertEquals(2.25, top.askSizeAsDouble());
+        assertEquals(1000L, top.getTimestampMs());
+
+        OrderBookDepth10 depth = new OrderBookDepth10();
+        depth.setEventTime(2000L);
+        depth.setBids(List.of(new PriceLevel("100.40", "3.000"), new PriceLevel("100.30", "1.000")));
+        depth.setAsks(List.of(new PriceLevel("100.70", "4.000")));
+        assertTrue(cache.updateFrom(EventType.VENUE_BINANCE, BTC, depth));
+        assertEquals(2, cache.version(EventType.VENUE_BINANCE, BTC));
+        cache.read(EventType.VENUE_BINANCE, BTC, top);
+        assertEquals(100.40, top.bidPriceAsDouble());
+        assertEquals(100.70, top.askPriceAsDouble());
+        assertEquals(4.0, top.askSizeAsDouble());
+        assertEquals(2000L, top.getTimestampMs());
+
+        // 交易所和品种各自独立
+        assertEquals(0, cache.version(EventType.VENUE_BITGET, BTC));
+        assertEquals(0, cache.version(EventType.VENUE_BINANCE, ETH));
+
+        // 无法写入的消息和超出范围的品种
+        assertFalse(cache.updateFrom(EventType.VENUE_BINANCE, BTC, "not a quote"));
+        assertFalse(cache.update(EventType.VENUE_BINANCE, BTC, new QuoteTick()));
+        assertFalse(cache.update(EventType.VENUE_BINANCE, 16, 1, 1, 2, 1, 0, 0, 0));
+        assertFalse(cache.update(EventType.VENUE_BINANCE, InstrumentRegistry.UNKNOWN, 1, 1, 2, 1, 0, 0, 0));
+        assertEquals(0, cache.read(EventType.VENUE_BINANCE, 16, top));
+        assertEquals(2, cache.version(EventType.VENUE_BINANCE, BTC));
+    }
+
+    @Test
+    public void testConcurrentReadersNeverSeeTornQuote() throws Exception {
+        TopOfBookCache cache = new TopOfBookCache(16);
+        int writes = 200_000;
+        AtomicBoolean done = new AtomicBoolean();
+
+        // 两个写入方交替写同一槽位，每次写入都满足 ask == bid + 1、size == bid、timestamp == bid
+        Runnable writer = () -> {
+            for (long i = 1; i <= writes; i++) {
+                cache.update(EventType.VENUE_BINANCE, BTC, i, i, i + 1, i, 2, 3, i);
+            }
+        };
+        Thread writer1 = new Thread(writer);
+        Thread writer2 = new Thread(writer);
+        writer1.start();
+        writer2.start();
+
+        Thread stopper = new Thread(() -> {
+            try {
+                writer1.join();
+                writer2.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            done.set(true);
+        });
+        stopper.start();
+
+        TopOfBook top = new TopOfBook();
+        long lastVersion = 0;
+        long reads = 0;
+        while (!done.get() || reads == 0) {
+            long version = cache.read(EventType.VENUE_BINANCE, BTC, top);
+            if (version > 0) {
+                assertEquals(top.getBidPrice() + 1, top.getAskPrice(), "买卖价来自不同的写入");
+                assertEquals(top.getBidPrice(), top.getBidSize());
+                assertEquals(top.getBidPrice(), top.getAskSize());
+                assertEquals(top.getBidPrice(), top.getTimestampMs());
+                assertEquals(2, top.getPricePrecision());
+                assertEquals(3, top.getSizePrecision());
+            }
+            assertTrue(version >= lastVersion, "版本不应回退");
+            lastVersion = version;
+            reads++;
+        }
+        stopper.join();
+
+        assertEquals(2L * writes, cache.version(EventType.VENUE_BINANCE, BTC), "写入方之间不应丢失更新");
+    }
+
+    @Test
+    public void testArbitrageStateReadsPricesFromCache() {
+        TopOfBookCache cache = new TopOfBookCache();
+        CrossArbitrageState state = new CrossArbitrageState();
+        int btcusdt = InstrumentRegistry.idOf("BTCUSDT");
+        state.bindTopOfBook(cache, "BTCUSDT");
+
+        assertFalse(state.hasTopOfBookUpdate());
+        assertFalse(state.refreshTopOfBook());
+
+        // 事件带来的过时报价被缓存中的最新值覆盖
+        state.setBinanceBidPrice(90);
+        state.setBinanceAskPrice(91);
+        cache.update(EventType.VENUE_BINANCE, btcusdt, quote("100.00", "1", "100.20", "1", 1L));
+        cache.update(EventType.VENUE_BITGET, btcusdt, quote("100.40", "1", "100.60", "1", 1L));
+        assertTrue(state.hasTopOfBookUpdate());
+        assertTrue(state.refreshTopOfBook());
+        assertFalse(state.hasTopOfBookUpdate());
+
+        assertEquals(100.00, state.getBinanceBidPrice());
+        assertEquals(100.20, state.getBinanceAskPrice());
+        assertEquals(100.10, state.getBinanceMidPrice(), 1e-9);
+        assertEquals(100.40, state.getBitgetBidPrice());
+        assertEquals(100.60, state.getBitgetAskPrice());
+        assertEquals(100.50, state.getBitgetMidPrice(), 1e-9);
+        assertTrue(state.hasValidMarketData());
+
+        // 版本未变时仍以缓存为准，但不报告更新
+        state.setBitgetBidPrice(1);
+        assertFalse(state.refreshTopOfBook());
+        assertEquals(100.40, state.getBitgetBidPrice());
+    }
+
+    private static QuoteTick quote(String bid, String bidSize, String ask, String askSize, long timestampMs) {
+        QuoteTick quote = new QuoteTick();
+        quote.setSymbol("BTCUSDT");
+        quote.setBidPrice(Price.of(bid));
+        quote.setBidQuantity(Quantity.of(bidSize));
+        quote.setAskPrice(Price.of(ask));
+        quote.setAskQuantity(Quantity.of(askSize));
+        quote.setTimestampMs(timestampMs);
+        return quote;
+    }
+}
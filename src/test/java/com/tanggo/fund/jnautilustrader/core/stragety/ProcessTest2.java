@@ -44,7 +44,6 @@ class ProcessTest2 {
     // 线程池
     private ExecutorService executorService;
 
-    private ExecutorService wsExecutorService;
 
 
     public ThreadFactory ioThreadFactory() {
@@ -90,18 +89,13 @@ class ProcessTest2 {
         // 创建线程池
         executorService = Executors.newSingleThreadExecutor(ioThreadFactory());
 
-        wsExecutorService = Executors.newSingleThreadExecutor(r -> {
-            Thread t = new Thread(r, "BN-MDGW-WS-Thread");
-            t.setDaemon(true);
-            return t;
-        });
 
 
         // 创建市场数据事件仓库
         mdEventRepo = new BlockingQueueEventRepo<>();
 
         // 创建 WebSocket 客户端
-        bnmdgwWebSocketClient = new BNMDGWWebSocketClient(mdEventRepo, timerExecutorService, wsExecutorService);
+        bnmdgwWebSocketClient = new BNMDGWWebSocketClient(mdEventRepo);
 
         logger.info("测试环境初始化完成");
     }
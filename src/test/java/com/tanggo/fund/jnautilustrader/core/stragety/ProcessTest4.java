@@ -102,7 +102,7 @@ class ProcessTest4 {
         mdEventRepo = new BlockingQueueEventRepo<>();
 
         // 创建 Bitget WebSocket 客户端
-        btmdgwWebSocketClient = new BTMDGWWebSocketClient(mdEventRepo, timerExecutorService);
+        btmdgwWebSocketClient = new BTMDGWWebSocketClient(mdEventRepo);
 
         logger.info("Bitget测试环境初始化完成");
     }
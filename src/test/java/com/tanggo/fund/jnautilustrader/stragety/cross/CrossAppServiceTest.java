@@ -0,0 +1,151 @@
+package com.tanggo.fund.jnautilustrader.stragety.cross;
+
+import com.tanggo.fund.jnautilustrader.adapter.event_repo.event.BlockingQueueEventRepo;
+import com.tanggo.fund.jnautilustrader.adapter.event_repo.handler.ArrayEventHandlerRepo;
+import com.tanggo.fund.jnautilustrader.adapter.mdgw.LocalWebSocketServer;
+import com.tanggo.fund.jnautilustrader.adapter.mdgw.RecordedFrames;
+import com.tanggo.fund.jnautilustrader.adapter.mdgw.bn.BinanceOrderBookSync;
+import com.tanggo.fund.jnautilustrader.adapter.mdgw.bn.BinanceStreamDecoder;
+import com.tanggo.fund.jnautilustrader.core.entity.Event;
+import com.tanggo.fund.jnautilustrader.core.entity.EventRepo;
+import com.tanggo.fund.jnautilustrader.core.entity.EventType;
+import com.tanggo.fund.jnautilustrader.core.entity.MarketData;
+import com.tanggo.fund.jnautilustrader.core.entity.TradeCmd;
+import com.tanggo.fund.jnautilustrader.core.entity.event.data.OrderBookDeltas;
+import com.tanggo.fund.jnautilustrader.core.entity.event.data.OrderBookDepth10;
+import com.tanggo.fund.jnautilustrader.core.entity.event.data.QuoteTick;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpClient;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CrossAppService 测试类
+ *
+ * 录制的币安增量深度经 BinanceOrderBookSync（本地服务器返回快照）同步后发布给策略，
+ * 验证策略的币安买卖价随增量变化：价格来自同步后订单簿发布的快照和最优报价，增量事件本身不改变价格
+ */
+public class CrossAppServiceTest {
+
+    private static final long TIMEOUT_SECONDS = 10;
+
+    private LocalWebSocketServer server;
+    private ExecutorService executor;
+    private BinanceOrderBookSync sync;
+    private final BlockingQueue<Object> published = new LinkedBlockingQueue<>();
+    private final List<String> snapshots = new ArrayList<>();
+    private final List<OrderBookDeltas> deltas = new ArrayList<>();
+
+    private EventRepo<MarketData> marketDataRepo;
+    private CrossAppService strategy;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        BinanceStreamDecoder decoder = new BinanceStreamDecoder();
+        for (String frame : RecordedFrames.load(RecordedFrames.BINANCE_DIFF_DEPTH)) {
+            if (frame.startsWith("{\"lastUpdateId\"")) {
+                snapshots.add(frame);
+            } else {
+                deltas.add((OrderBookDeltas) decoder.decode(frame));
+            }
+        }
+        server = new LocalWebSocketServer();
+        executor = Executors.newSingleThreadExecutor();
+        sync = new BinanceOrderBookSync(HttpClient.newBuilder().executor(executor).build(), executor,
+                server.httpUrl() + "/", BinanceOrderBookSync.DEFAULT_SNAPSHOT_LIMIT, published::add);
+
+        marketDataRepo = new BlockingQueueEventRepo<>();
+        CrossArbitrageParams params = CrossArbitrageParams.defaultParams();
+        params.setDebugMode(false);
+        strategy = new CrossAppService();
+        strategy.setParams(params);
+        strategy.setMarketDataRepo(marketDataRepo);
+        strategy.setTradeCmdRepo(new BlockingQueueEventRepo<TradeCmd>());
+        strategy.setEventHandlerRepo(new ArrayEventHandlerRepo<>());
+        strategy.getState().start();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        executor.shutdownNow();
+        server.close();
+    }
+
+    @Test
+    public void testDeltasMoveBinancePrices() throws Exception {
+        CountDownLatch releaseFirstSnapshot = new CountDownLatch(1);
+        AtomicInteger requestCount = new AtomicInteger();
+        server.setHttpHandler(path -> {
+            int index = requestCount.getAndIncrement();
+            if (index == 0) {
+                await(releaseFirstSnapshot);
+            }
+            return index < snapshots.size() ? snapshots.get(index) : null;
+        });
+        CrossArbitrageState state = strategy.getState();
+
+        // 快照前的增量被同步器缓存，策略收不到价格
+        for (int i = 0; i < 3; i++) {
+            onDeltas(deltas.get(i));
+        }
+        assertNotNull(server.awaitHttpRequest(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        releaseFirstSnapshot.countDown();
+
+        // 快照合并缓存的增量后发布订单簿快照和最优报价
+        deliver(OrderBookDepth10.class);
+        deliver(QuoteTick.class);
+        assertEquals(96508.15, state.getBinanceBidPrice(), 1e-9);
+        assertEquals(96508.20, state.getBinanceAskPrice(), 1e-9);
+
+        // 跳号后重新同步：卖一价从新订单簿取得
+        onDeltas(deltas.get(3));
+        deliver(OrderBookDepth10.class);
+        deliver(QuoteTick.class);
+        assertEquals(96508.18, state.getBinanceAskPrice(), 1e-9);
+
+        // 同步后的增量：增量事件不改价格，随后的最优报价把买一移到增量给出的新档位
+        onDeltas(deltas.get(4));
+        deliver(OrderBookDeltas.class);
+        assertEquals(96508.15, state.getBinanceBidPrice(), 1e-9, "增量只含变化的档位，不应直接当作盘口");
+        deliver(QuoteTick.class);
+        assertEquals(96508.16, state.getBinanceBidPrice(), 1e-9);
+        assertEquals(96508.18, state.getBinanceAskPrice(), 1e-9);
+        assertEquals((96508.16 + 96508.18) / 2, state.getBinanceMidPrice(), 1e-9);
+    }
+
+    private void onDeltas(OrderBookDeltas orderBookDeltas) throws Exception {
+        executor.submit(() -> sync.onDeltas(orderBookDeltas)).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 取出同步器发布的下一条消息，按网关的方式包装成行情事件交给策略处理
+     */
+    private void deliver(Class<?> type) throws InterruptedException {
+        Object message = published.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertNotNull(message, "应发布 " + type.getSimpleName());
+        assertInstanceOf(type, message);
+        MarketData data = MarketData.createWithData(message);
+        assertTrue(marketDataRepo.send(new Event<>(EventType.of(EventType.VENUE_BINANCE, data), 0, data)));
+        assertTrue(strategy.processNextEvent());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}